@@ -0,0 +1,34 @@
+//
+//  BatchGetRawValueRequest.java
+//  xal
+//
+//  Created on Oct 18, 2026
+//
+
+package xal.ca;
+
+import java.util.*;
+
+
+/** batch of CA Get requests for the raw values (without the channels' value transforms) with convenient batch operations */
+public class BatchGetRawValueRequest extends BatchGetValueRequest {
+	/**
+	 * Primary Constructor
+	 * @param channels for which to request the raw value
+	 */
+	public BatchGetRawValueRequest( final Collection<Channel> channels ) {
+		super( channels );
+	}
+
+
+	/** Constructor */
+	public BatchGetRawValueRequest() {
+		this( Collections.<Channel>emptySet() );
+	}
+
+
+	/** request to get the raw data for the channel as getRawValueRecord() would */
+	protected void requestChannelData( final Channel channel ) throws Exception {
+		channel.getRawValueCallback( REQUEST_HANDLER, false );
+	}
+}
@@ -10,6 +10,7 @@ package xal.ca;
 
 import xal.tools.messaging.MessageCenter;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.*;
 
 
@@ -36,6 +37,9 @@ public class MonitorCache {
 	/** latest monitor event */
 	volatile protected ChannelTimeRecord _latestRecord;
 	
+	/** number of registered monitor listeners */
+	final private AtomicInteger LISTENER_COUNT;
+	
 	
 	/** 
 	 * Constructor 
@@ -45,6 +49,7 @@ public class MonitorCache {
 		_channel = channel;
 		_monitor = null;
 		_latestRecord = null;
+		LISTENER_COUNT = new AtomicInteger( 0 );
 		
 		_messageCenter = new MessageCenter( "Monitor Event Cache" );
 		_eventProxy = _messageCenter.registerSource( this, IEventSinkValTime.class );
@@ -76,6 +81,7 @@ public class MonitorCache {
 	 */
 	public void addMonitorListener( final IEventSinkValTime listener ) {
 		_messageCenter.registerTarget( listener, this, IEventSinkValTime.class );
+		LISTENER_COUNT.incrementAndGet();
 	}
 	
 	
@@ -85,6 +91,7 @@ public class MonitorCache {
 	 */
 	public void removeMonitorListener( final IEventSinkValTime listener ) {
 		_messageCenter.removeTarget( listener, this, IEventSinkValTime.class );
+		LISTENER_COUNT.updateAndGet( count -> Math.max( 0, count - 1 ) );
 	}
 	
 	
@@ -127,7 +134,10 @@ public class MonitorCache {
 		/** Handle the monitor event. */
 		public void eventValue( final ChannelTimeRecord record, final Channel channel ) {
 			_latestRecord = record;
-			_eventProxy.eventValue( record, channel );
+			// caches used only for their latest record (e.g. many channels polled by the online model) post no messages
+			if ( LISTENER_COUNT.get() > 0 ) {
+				_eventProxy.eventValue( record, channel );
+			}
 		}		
 	}
     
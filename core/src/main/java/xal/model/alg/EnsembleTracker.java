@@ -14,6 +14,7 @@ import xal.model.IElement;
 import xal.model.IProbe;
 import xal.model.ModelException;
 import  xal.model.probe.EnsembleProbe;
+import xal.tools.beam.PhaseMatrix;
 
 
 
@@ -155,7 +156,22 @@ public class EnsembleTracker extends Tracker {
 //    	return elem.getLength();
 //    }
     
+    /**
+     * Pushes every particle of the ensemble through the transfer map of the element
+     * subsection.  Space charge is not yet included.  A <code>ColumnarEnsemble</code>
+     * pushes its particles in parallel.
+     * 
+     * @param probe     the ensemble probe
+     * @param elem      element acting on the probe
+     * @param dblLen    length of the element subsection
+     * 
+     * @throws ModelException   bubbles up from the element transfer map
+     */
     protected void advanceState(IProbe probe, IElement elem, double dblLen) 
     		throws ModelException    {
+        EnsembleProbe   probeEns = (EnsembleProbe)probe;
+        PhaseMatrix     matPhi   = this.transferMap(probe, elem, dblLen).getFirstOrder();
+        
+        probeEns.getEnsemble().applyTransferMap(matPhi);
     }
 }
@@ -597,6 +597,7 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
         double      L = elem.getLength();       // length of the element
         EnvelopeProbeState stateRef =           // initial state of the probe 
             probe.createProbeState();
+        this.markStepState();                   // recording state at the reference state
 
         //default temporary commented out 
         double          charge = probe.bunchCharge(); // this doesnt work for PMQ space-charge=0.. why?
@@ -651,12 +652,14 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
             }
 
             if (hp < h)   {                 // we stepped too far - roll back and try again
-                this.rollbackProbe(probe, stateRef);
+                this.rollbackProbe(probe, stateRef, this.rollbackStepState());
 
             } else {                        // our step size meets accuracy criterion - advance probe
                 stateRef = probe.createProbeState();
                 s       += h;
             }
+            this.markStepState();
+
             h  = hp;            // use the new step size
 
             if (this.getDebugMode() == true) {        
@@ -829,8 +832,11 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
         PhaseMatrix Phi = PhiE;//transfermap
 
 
-        PhaseMatrix res1 = Phi.times( res0); // 
-        PhaseMatrix chi1 = chi0.conjugateTrans( Phi );  //chi1 = sigma matrix (new)
+        PhaseMatrix      res1 = new PhaseMatrix();
+        CovarianceMatrix chi1 = new CovarianceMatrix(); //chi1 = sigma matrix (new)
+        
+        Phi.timesInto( res0, res1 );
+        chi0.conjugateTransInto( Phi, chi1 );
 
         //    PhaseMatrix chi1raw = chi0.conjugateTrans( Phi );  //chi1 = sigma matrix (new)
 
@@ -863,7 +869,7 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
         probe.setResponseMatrix(res1);
 
         //default
-        probe.setCovariance(new CovarianceMatrix(chi1));
+        probe.setCovariance(chi1);
 //        probe.advanceTwiss(Phi, ifcElem.energyGain(probe, dblLen) );//Phi=transferemap
 
         // phase update:
@@ -998,11 +1004,14 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
         // Compute the double stepped state while advancing probe
         PhaseMatrix matPhi2 = this.compTransferMatrix(h/2.0, probe, elem);
         
-        PhaseMatrix matRes2 = matPhi2.times( matRes0 );
-        PhaseMatrix matChi2 = matChi0.conjugateTrans( matPhi2 );
+        PhaseMatrix      matRes2 = new PhaseMatrix();
+        CovarianceMatrix matChi2 = new CovarianceMatrix();
+        
+        matPhi2.timesInto( matRes0, matRes2 );
+        matChi0.conjugateTransInto( matPhi2, matChi2 );
 
         probe.setResponseMatrix( matRes2 );        
-        probe.setCovariance( new CovarianceMatrix(matChi2) );
+        probe.setCovariance( matChi2 );
 //        Twiss [] twissNew = probe.getCovariance().computeTwiss();
         //obsolete Twiss [] twissNew = probe.getTwiss();
 //        R3 vecPhs2 = vecPhs0.plus( matPhi2.compPhaseAdvance(twissOld, twissNew) );       
@@ -1016,7 +1025,7 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
         matPhi2 = this.compTransferMatrix(h/2.0, probe, elem);
 
         matRes2 = matPhi2.times( matRes2 );
-        matChi2 = matChi2.conjugateTrans( matPhi2 );           
+        matChi2.conjugateTransEquals( matPhi2 );    // probe covariance is replaced below           
 
         // Compute the residual matrix and perform internal extrapolation for final state
         PhaseMatrix     matRes = matChi2.minus( matChi1 );
@@ -1047,25 +1056,26 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
      
     /**
      * Rollback the state of the probe to the given reference state.  
-     * If the probe update policy is <code>Tracker.UPDATE_ALWAY</code>
-     * then we must also eliminate the past two states in the probe's
-     * trajectory, which were set by calls to <code>super.advanceProbe
-     * </code> in the <code>advanceState</code> method.
+     * We must also eliminate the states in the probe's
+     * trajectory which were recorded by calls to <code>super.advanceProbe
+     * </code> in the <code>advanceState</code> method since the reference
+     * state (two states if the probe update policy is <code>Tracker.UPDATE_ALWAYS</code>,
+     * any number under a recording policy).
      * 
      * @param probe     probe to be rolled back
      * @param stateRef  probe state to reset probe 
+     * @param cntStates number of states recorded since the reference state
      * 
      * @see Tracker#getProbeUpdatePolicy
+     * @see Tracker#getRecordingPolicy
      * @see Tracker#advanceProbe
      * @see EnvTrackerAdapt#advanceState
      */
-    private void    rollbackProbe(EnvelopeProbe probe, EnvelopeProbeState stateRef) {
+    private void    rollbackProbe(EnvelopeProbe probe, EnvelopeProbeState stateRef, int cntStates) {
         probe.applyState(stateRef);
         
-        if (this.getProbeUpdatePolicy() == Tracker.UPDATE_ALWAYS)  {
+        for (int i=0; i<cntStates; i++)
             probe.getTrajectory().popLastState();
-            probe.getTrajectory().popLastState();
-        }
         
         if (this.getDebugMode() == true)  
             System.out.println("ROLLBACK at s=" + probe.getPosition());
@@ -1270,20 +1280,21 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
      * to the real answer.  And we have no way of enforcing any error
      * tolerance.
      *  
-     * @param matRes        the residual error matrix from the two half-step/one whole step process 
+     * @param matRes        the residual error matrix from the two half-step/one whole step process
+     *                      (it is scaled in place for second-order accuracy) 
      * @param matState      the new probe state generated by stepping
      * 
      * @return              an extrapolated value of the probe state
      */
     private CovarianceMatrix   compInternExtrap(PhaseMatrix matRes, PhaseMatrix matState)   {
-        PhaseMatrix matChi;     // the extrapolated matrix
+        CovarianceMatrix matChi = new CovarianceMatrix(matState);     // the extrapolated matrix
 
-        if (this.getAccuracyOrder() == ACCUR_ORDER1)
-            matChi = matState.plus( matRes );
-        else            
-            matChi = matRes.times(1./3.).plus( matState );
+        if (this.getAccuracyOrder() != ACCUR_ORDER1)
+            matRes.timesEquals(1./3.);
             
-        return new CovarianceMatrix(matChi);
+        matChi.plusEquals( matRes );
+        
+        return matChi;
     }
     
     
@@ -1342,8 +1353,9 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
         
         // Advance probe a half step for position depend transfer maps
         double            pos     = probe.getPosition() + h/2.0;
-        PhaseMatrix       matTau1 = covTau0.conjugateTrans(matPhi0);
-        CovarianceMatrix covTau1 = new CovarianceMatrix(matTau1);
+        CovarianceMatrix covTau1 = new CovarianceMatrix();
+        
+        covTau0.conjugateTransInto(matPhi0, covTau1);
 
         probe.setPosition(pos);
         probe.setCovariance(covTau1);
@@ -1360,7 +1372,11 @@ public class EnvTrackerAdapt extends EnvelopeTrackerBase {
         probe.applyState(state0);
                 
         // Compute the full transfer matrix for the distance dblLen
-        return matPhi1.times( matPhiSc.times(matPhi0) );        
+        PhaseMatrix matPhi = new PhaseMatrix();
+        
+        matPhi1.timesInto( matPhiSc, matPhi0, matPhi );
+        
+        return matPhi;
     }
 
 //    /**
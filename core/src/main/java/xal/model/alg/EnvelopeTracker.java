@@ -214,17 +214,21 @@ public class EnvelopeTracker extends EnvelopeTrackerBase {
         CovarianceMatrix   matTau0  = probe.getCovariance();
         
         // Compute the transfer matrix
-        PhaseMatrix matPhi_op = iElem.transferMap(probe, dblLen).getFirstOrder(); 
+        PhaseMatrix matPhi_op = this.transferMap(probe, iElem, dblLen).getFirstOrder(); 
         PhaseMatrix matPhi_sc = compTransferMatrix(dblLen, probe, iElem);
         
-        // Advance the probe states 
-        PhaseMatrix matRnsp1 = matPhi_op.times( matRnsp0 );
-        PhaseMatrix matResp1 = matPhi_sc.times( matResp0 );
-        PhaseMatrix matTau1  = matTau0.conjugateTrans( matPhi_sc );
+        // Advance the probe states (products are formed directly in the new state objects)
+        PhaseMatrix      matRnsp1 = new PhaseMatrix();
+        PhaseMatrix      matResp1 = new PhaseMatrix();
+        CovarianceMatrix matTau1  = new CovarianceMatrix();
+        
+        matPhi_op.timesInto( matRnsp0, matRnsp1 );
+        matPhi_sc.timesInto( matResp0, matResp1 );
+        matTau0.conjugateTransInto( matPhi_sc, matTau1 );
         
         
         if (this.getEmittanceGrowth())   
-            matTau1 = this.addEmittanceGrowth(probe, iElem, matTau1);
+            this.addEmittanceGrowth(probe, iElem, matTau1);     // modifies matTau1 in place
         
         
         
@@ -232,7 +236,7 @@ public class EnvelopeTracker extends EnvelopeTrackerBase {
         probe.setResponseMatrixNoSpaceCharge(matRnsp1);
         probe.setResponseMatrix(matResp1);
         probe.setCurrentResponseMatrix(matPhi_sc);
-        probe.setCovariance(new CovarianceMatrix(matTau1));
+        probe.setCovariance(matTau1);
 //        probe.advanceTwiss(matPhi_sc, iElem.energyGain(probe, dblLen) );
         
         // phase update:
@@ -287,7 +291,7 @@ public class EnvelopeTracker extends EnvelopeTrackerBase {
         
         // Check for easy case of no space charge
         if (this.getUseSpacecharge()==false || dblLen==0.0)    {
-            matPhi = ifcElem.transferMap(probe, dblLen).getFirstOrder();
+            matPhi = this.transferMap(probe, ifcElem, dblLen).getFirstOrder();
 
         // we must treat space charge
         }   else {
@@ -299,7 +303,7 @@ public class EnvelopeTracker extends EnvelopeTrackerBase {
 
 
             // Get half-step transfer matrix at current probe location
-            PhaseMap          mapElem0 = ifcElem.transferMap(probe, dblLen/2.0); 
+            PhaseMap          mapElem0 = this.transferMap(probe, ifcElem, dblLen/2.0); 
             PhaseMatrix       matPhi0  = mapElem0.getFirstOrder();  
             
             // Get the RMS envelopes at probe location
@@ -307,8 +311,9 @@ public class EnvelopeTracker extends EnvelopeTrackerBase {
             
             
             // Advance probe a half step for position depend transfer maps
-            PhaseMatrix       matTau1 = covTau0.conjugateTrans(matPhi0);
-            CovarianceMatrix covTau1 = new CovarianceMatrix(matTau1);
+            CovarianceMatrix covTau1 = new CovarianceMatrix();
+            
+            covTau0.conjugateTransInto(matPhi0, covTau1);
 
             probe.setCovariance(covTau1);
             advanceProbe(probe, ifcElem, dblLen / 2.0);
@@ -318,7 +323,7 @@ public class EnvelopeTracker extends EnvelopeTrackerBase {
             
             
             // Compute half-step transfer matrix at new probe location
-            PhaseMap    mapElem1 = ifcElem.transferMap(probe, dblLen/2.0);
+            PhaseMap    mapElem1 = this.transferMap(probe, ifcElem, dblLen/2.0);
             PhaseMatrix matPhi1  = mapElem1.getFirstOrder();
             
             // Restore original probe state
@@ -326,7 +331,8 @@ public class EnvelopeTracker extends EnvelopeTrackerBase {
             
             
             // Compute the full transfer matrix for the distance dblLen
-            matPhi   = matPhi1.times( matPhiSc.times(matPhi0) );
+            matPhi   = new PhaseMatrix();
+            matPhi1.timesInto( matPhiSc, matPhi0, matPhi );
          
         }
         
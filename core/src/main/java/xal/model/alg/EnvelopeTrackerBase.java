@@ -787,8 +787,10 @@ public abstract class EnvelopeTrackerBase extends Tracker {
                 PhaseVector z  = tau0.getMean();
                 PhaseMatrix T  = PhaseMatrix.translation(z.negate());
                 PhaseMatrix Ti = PhaseMatrix.translation(z);
+                PhaseMatrix matPhiScBeam = matPhiSc;
 
-                matPhiSc = Ti.times( matPhiSc.times(T) );
+                matPhiSc = new PhaseMatrix();
+                Ti.timesInto( matPhiScBeam, T, matPhiSc );
                 
             } else {
                 
@@ -828,8 +830,10 @@ public abstract class EnvelopeTrackerBase extends Tracker {
                 PhaseVector z  = tau0.getMean();
                 PhaseMatrix T  = PhaseMatrix.translation(z.negate());
                 PhaseMatrix Ti = PhaseMatrix.translation(z);
+                PhaseMatrix matPhiScBeam = matPhiSc;
 
-                matPhiSc = Ti.times( matPhiSc.times(T) );
+                matPhiSc = new PhaseMatrix();
+                Ti.timesInto( matPhiScBeam, T, matPhiSc );
 
             } else {    // Beam is tilted in configuration space
 
@@ -228,7 +228,7 @@ public class ParticleTracker extends Tracker {
     		throws ModelException {
         
         // Properties of the element
-        PhaseMap  mapPhi = elem.transferMap(probe, dblLen);
+        PhaseMap  mapPhi = this.transferMap(probe, elem, dblLen);
         
         // Advance state vector
         PhaseVector  z0 = probe.getPhaseCoordinates();
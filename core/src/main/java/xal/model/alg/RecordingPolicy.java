@@ -0,0 +1,540 @@
+/*
+ * RecordingPolicy.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.model.alg;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import xal.model.IElement;
+import xal.model.IProbe;
+import xal.tools.data.DataAdaptor;
+import xal.tools.data.DataFormatException;
+
+/**
+ * <p>
+ * Determines when a <code>{@link Tracker}</code> saves the state of the probe to its
+ * trajectory.  A recording policy replaces the enumerated probe update policies
+ * (see <code>{@link Tracker#setProbeUpdatePolicy(int)}</code>) when more selective
+ * recording is needed, for example, when only the states at the beam position monitors
+ * are of interest.  Recording fewer states saves the time spent copying probe states
+ * as well as the memory held by the trajectory.
+ * </p>
+ * <p>
+ * The tracker asks the policy whether to record the probe at the entrance and exit of
+ * every element it propagates through, after every step it advances the probe,
+ * and once when propagation is complete.  Policies may keep state (e.g., a step count);
+ * this state is reset by <code>{@link #initialize()}</code>, which the tracker calls
+ * when it is initialized.  Adaptive trackers which reject and repeat steps restore the
+ * state with <code>{@link #checkpoint()}</code> and <code>{@link #rollback(long)}</code>
+ * so that rejected steps are not counted.
+ * </p>
+ * <h3>NOTES:</h3>
+ * <p>
+ * &middot; The scenario always records the initial state of the probe, regardless of
+ * the recording policy.
+ * <br>
+ * &middot; The final state is recorded at the end of a <code>Scenario</code> run; it is
+ * not recorded when the lattice is propagated directly.
+ * </p>
+ *
+ * @since  Oct 18, 2026
+ *
+ * @see Tracker#setRecordingPolicy(RecordingPolicy)
+ * @see xal.sim.scenario.Scenario#setRecordingPolicy(RecordingPolicy)
+ */
+public abstract class RecordingPolicy {
+
+    /*
+     * Global Constants
+     */
+
+    /** data node tag for the recording policy */
+    public static final String      NODETAG_POLICY = "recording";
+
+    /** attribute tag for the policy type */
+    public static final String      ATTRTAG_TYPE = "type";
+
+    /** attribute tag for the hardware node identifiers */
+    public static final String      ATTRTAG_NODES = "nodes";
+
+    /** attribute tag for the step interval */
+    public static final String      ATTRTAG_INTERVAL = "interval";
+
+    /** attribute tag for the position spacing */
+    public static final String      ATTRTAG_SPACING = "spacing";
+
+
+    /** type identifier of the hardware node policy */
+    public static final String      TYPE_NODES = "nodes";
+
+    /** type identifier of the step interval policy */
+    public static final String      TYPE_STEPS = "steps";
+
+    /** type identifier of the position spacing policy */
+    public static final String      TYPE_SPACING = "spacing";
+
+    /** type identifier of the final state policy */
+    public static final String      TYPE_FINAL = "final";
+
+
+    /** separator of the hardware node identifiers in the archive */
+    private static final String     STR_NODE_SEPARATOR = ",";
+
+
+
+    /*
+     * Global Methods
+     */
+
+    /**
+     * Creates a policy recording the probe at the exit of every modeling element
+     * belonging to one of the given hardware nodes.
+     *
+     * @param setSmfIds     identifiers of the hardware nodes where the probe is recorded
+     *
+     * @return              new hardware node recording policy
+     */
+    public static RecordingPolicy atNodes(final Collection<String> setSmfIds) {
+        return new AtNodes(setSmfIds);
+    }
+
+    /**
+     * Creates a policy recording the probe at the exit of every modeling element
+     * belonging to one of the given hardware nodes.
+     *
+     * @param arrSmfIds     identifiers of the hardware nodes where the probe is recorded
+     *
+     * @return              new hardware node recording policy
+     */
+    public static RecordingPolicy atNodes(final String... arrSmfIds) {
+        return new AtNodes( Arrays.asList(arrSmfIds) );
+    }
+
+    /**
+     * Creates a policy recording the probe after every <i>N</i><sup>th</sup> step.
+     *
+     * @param cntInterval   number of steps between recorded states (must be positive)
+     *
+     * @return              new step interval recording policy
+     *
+     * @throws IllegalArgumentException the interval is not positive
+     */
+    public static RecordingPolicy everyNthStep(final int cntInterval) throws IllegalArgumentException {
+        return new EveryNthStep(cntInterval);
+    }
+
+    /**
+     * Creates a policy recording the probe each time it passes a multiple of the given
+     * longitudinal spacing.
+     *
+     * @param dblSpacing    distance between recorded states (in meters, must be positive)
+     *
+     * @return              new position spacing recording policy
+     *
+     * @throws IllegalArgumentException the spacing is not positive
+     */
+    public static RecordingPolicy atSpacing(final double dblSpacing) throws IllegalArgumentException {
+        return new AtSpacing(dblSpacing);
+    }
+
+    /**
+     * Creates a policy recording only the final state of the probe.
+     *
+     * @return  new final state recording policy
+     */
+    public static RecordingPolicy finalStateOnly() {
+        return new FinalStateOnly();
+    }
+
+    /**
+     * Creates a new recording policy from the given data source, which must be the
+     * recording policy data node.
+     *
+     * @param daPolicy  recording policy data node
+     *
+     * @return          new recording policy initialized from the data source
+     *
+     * @throws DataFormatException  missing or bad policy attributes
+     */
+    public static RecordingPolicy loadFrom(final DataAdaptor daPolicy) throws DataFormatException {
+        if (!daPolicy.hasAttribute(ATTRTAG_TYPE))
+            throw new DataFormatException("RecordingPolicy#loadFrom() - missing attribute " + ATTRTAG_TYPE);
+
+        final String    strType = daPolicy.stringValue(ATTRTAG_TYPE);
+
+        try {
+            if (strType.equals(TYPE_NODES)) {
+                final String    strNodes = daPolicy.hasAttribute(ATTRTAG_NODES) ? daPolicy.stringValue(ATTRTAG_NODES) : "";
+                final Set<String>   setIds = new LinkedHashSet<String>();
+
+                for (String strId : strNodes.split(STR_NODE_SEPARATOR)) {
+                    if (strId.trim().length() > 0)
+                        setIds.add( strId.trim() );
+                }
+
+                return new AtNodes(setIds);
+            }
+
+            if (strType.equals(TYPE_STEPS))
+                return new EveryNthStep( daPolicy.intValue(ATTRTAG_INTERVAL) );
+
+            if (strType.equals(TYPE_SPACING))
+                return new AtSpacing( daPolicy.doubleValue(ATTRTAG_SPACING) );
+
+            if (strType.equals(TYPE_FINAL))
+                return new FinalStateOnly();
+
+        } catch (IllegalArgumentException e) {
+            throw new DataFormatException("RecordingPolicy#loadFrom() - bad " + strType + " policy: " + e.getMessage());
+        }
+
+        throw new DataFormatException("RecordingPolicy#loadFrom() - unknown policy type " + strType);
+    }
+
+
+
+    /*
+     * Policy Protocol
+     */
+
+    /**
+     * Returns the type identifier of this policy used for persistence.
+     *
+     * @return  policy type identifier
+     */
+    public abstract String getType();
+
+    /**
+     * Creates a copy of this policy in its initial state.
+     *
+     * @return  new policy with the same settings as this one
+     */
+    public abstract RecordingPolicy copy();
+
+    /**
+     * Resets any state of the policy for a new propagation.  The default implementation
+     * does nothing.
+     */
+    public void initialize() {
+    }
+
+    /**
+     * Returns a checkpoint of the policy state which changes from step to step, so the
+     * state can be restored when a tracker rolls back a rejected step.  The default
+     * implementation returns zero for a policy without such state.
+     *
+     * @return  checkpoint of the policy state to be passed to <code>{@link #rollback(long)}</code>
+     */
+    public long checkpoint() {
+        return 0;
+    }
+
+    /**
+     * Restores the policy state saved by <code>{@link #checkpoint()}</code>, discarding any
+     * steps seen since the checkpoint.  The default implementation does nothing.
+     *
+     * @param lngCheckpoint     checkpoint returned by <code>checkpoint()</code>
+     */
+    public void rollback(final long lngCheckpoint) {
+    }
+
+    /**
+     * Whether or not to record the probe at the entrance of the given element.  The default
+     * implementation returns <code>false</code>.
+     *
+     * @param probe     probe entering the element
+     * @param elem      element about to be propagated through
+     *
+     * @return          <code>true</code> to save the probe state to its trajectory
+     */
+    public boolean recordAtEntrance(final IProbe probe, final IElement elem) {
+        return false;
+    }
+
+    /**
+     * Whether or not to record the probe at the exit of the given element.  The default
+     * implementation returns <code>false</code>.
+     *
+     * @param probe     probe leaving the element
+     * @param elem      element just propagated through
+     *
+     * @return          <code>true</code> to save the probe state to its trajectory
+     */
+    public boolean recordAtExit(final IProbe probe, final IElement elem) {
+        return false;
+    }
+
+    /**
+     * Whether or not to record the probe after it has been advanced by a step within the
+     * given element.  The default implementation returns <code>false</code>.
+     *
+     * @param probe     probe after the step
+     * @param elem      element the probe is propagating through
+     * @param dblPos0   position of the probe before the step
+     *
+     * @return          <code>true</code> to save the probe state to its trajectory
+     */
+    public boolean recordAtStep(final IProbe probe, final IElement elem, final double dblPos0) {
+        return false;
+    }
+
+    /**
+     * Whether or not to record the probe once propagation is complete.  The default
+     * implementation returns <code>false</code>.
+     *
+     * @param probe     probe in its final state
+     *
+     * @return          <code>true</code> to save the probe state to its trajectory
+     */
+    public boolean recordAtFinish(final IProbe probe) {
+        return false;
+    }
+
+    /**
+     * Save the policy to the given data sink as a new recording policy node.
+     *
+     * @param daSink    data node to receive the recording policy node
+     */
+    public void save(final DataAdaptor daSink) {
+        final DataAdaptor   daPolicy = daSink.createChild(NODETAG_POLICY);
+
+        daPolicy.setValue(ATTRTAG_TYPE, this.getType());
+        this.addPropertiesTo(daPolicy);
+    }
+
+    /**
+     * Adds the settings particular to the policy to its data node.  The default
+     * implementation adds nothing.
+     *
+     * @param daPolicy  recording policy data node
+     */
+    protected void addPropertiesTo(final DataAdaptor daPolicy) {
+    }
+
+    /*
+     * Object Overrides
+     */
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "RecordingPolicy: " + this.getType();
+    }
+
+
+
+    /*
+     * Policies
+     */
+
+    /**
+     * Records the probe at the exit of the modeling elements belonging to the
+     * given hardware nodes.
+     */
+    public static class AtNodes extends RecordingPolicy {
+
+        /** identifiers of the hardware nodes to record */
+        private final Set<String>   setSmfIds;
+
+        /**
+         * Creates a new policy recording at the given hardware nodes.
+         *
+         * @param setSmfIds     identifiers of the hardware nodes to record
+         */
+        public AtNodes(final Collection<String> setSmfIds) {
+            this.setSmfIds = new LinkedHashSet<String>(setSmfIds);
+        }
+
+        /**
+         * Returns the identifiers of the hardware nodes where the probe is recorded.
+         *
+         * @return  unmodifiable set of hardware node identifiers
+         */
+        public Set<String> getNodeIds() {
+            return Collections.unmodifiableSet(this.setSmfIds);
+        }
+
+        @Override
+        public String getType() {
+            return TYPE_NODES;
+        }
+
+        @Override
+        public RecordingPolicy copy() {
+            return new AtNodes(this.setSmfIds);
+        }
+
+        @Override
+        public boolean recordAtExit(final IProbe probe, final IElement elem) {
+            final String    strSmfId = elem.getHardwareNodeId();
+
+            return strSmfId != null && this.setSmfIds.contains(strSmfId);
+        }
+
+        @Override
+        protected void addPropertiesTo(final DataAdaptor daPolicy) {
+            daPolicy.setValue(ATTRTAG_NODES, String.join(STR_NODE_SEPARATOR, this.setSmfIds));
+        }
+    }
+
+    /**
+     * Records the probe after every <i>N</i><sup>th</sup> step.
+     */
+    public static class EveryNthStep extends RecordingPolicy {
+
+        /** number of steps between recorded states */
+        private final int   cntInterval;
+
+        /** number of steps since the last recorded state */
+        private int         cntSteps;
+
+        /**
+         * Creates a new policy recording every <i>N</i><sup>th</sup> step.
+         *
+         * @param cntInterval   number of steps between recorded states
+         *
+         * @throws IllegalArgumentException the interval is not positive
+         */
+        public EveryNthStep(final int cntInterval) throws IllegalArgumentException {
+            if (cntInterval < 1)
+                throw new IllegalArgumentException("RecordingPolicy.EveryNthStep - step interval must be positive, not " + cntInterval);
+
+            this.cntInterval = cntInterval;
+            this.cntSteps    = 0;
+        }
+
+        /**
+         * Returns the number of steps between recorded states.
+         *
+         * @return  step interval
+         */
+        public int getInterval() {
+            return this.cntInterval;
+        }
+
+        @Override
+        public String getType() {
+            return TYPE_STEPS;
+        }
+
+        @Override
+        public RecordingPolicy copy() {
+            return new EveryNthStep(this.cntInterval);
+        }
+
+        @Override
+        public void initialize() {
+            this.cntSteps = 0;
+        }
+
+        @Override
+        public long checkpoint() {
+            return this.cntSteps;
+        }
+
+        @Override
+        public void rollback(final long lngCheckpoint) {
+            this.cntSteps = (int)lngCheckpoint;
+        }
+
+        @Override
+        public boolean recordAtStep(final IProbe probe, final IElement elem, final double dblPos0) {
+            if (++this.cntSteps < this.cntInterval)
+                return false;
+
+            this.cntSteps = 0;
+
+            return true;
+        }
+
+        @Override
+        protected void addPropertiesTo(final DataAdaptor daPolicy) {
+            daPolicy.setValue(ATTRTAG_INTERVAL, this.cntInterval);
+        }
+    }
+
+    /**
+     * Records the probe each time a step carries it past a multiple of the
+     * given longitudinal spacing.
+     */
+    public static class AtSpacing extends RecordingPolicy {
+
+        /** distance between recorded states */
+        private final double    dblSpacing;
+
+        /**
+         * Creates a new policy recording at the given spacing.
+         *
+         * @param dblSpacing    distance between recorded states (in meters)
+         *
+         * @throws IllegalArgumentException the spacing is not positive
+         */
+        public AtSpacing(final double dblSpacing) throws IllegalArgumentException {
+            if (!(dblSpacing > 0.0))
+                throw new IllegalArgumentException("RecordingPolicy.AtSpacing - spacing must be positive, not " + dblSpacing);
+
+            this.dblSpacing = dblSpacing;
+        }
+
+        /**
+         * Returns the distance between recorded states.
+         *
+         * @return  recording spacing (in meters)
+         */
+        public double getSpacing() {
+            return this.dblSpacing;
+        }
+
+        @Override
+        public String getType() {
+            return TYPE_SPACING;
+        }
+
+        @Override
+        public RecordingPolicy copy() {
+            return new AtSpacing(this.dblSpacing);
+        }
+
+        @Override
+        public boolean recordAtStep(final IProbe probe, final IElement elem, final double dblPos0) {
+            final double    dblPos1 = probe.getPosition();
+
+            return Math.floor(dblPos0/this.dblSpacing) != Math.floor(dblPos1/this.dblSpacing);
+        }
+
+        @Override
+        protected void addPropertiesTo(final DataAdaptor daPolicy) {
+            daPolicy.setValue(ATTRTAG_SPACING, this.dblSpacing);
+        }
+    }
+
+    /**
+     * Records only the final state of the probe.
+     */
+    public static class FinalStateOnly extends RecordingPolicy {
+
+        @Override
+        public String getType() {
+            return TYPE_FINAL;
+        }
+
+        @Override
+        public RecordingPolicy copy() {
+            return new FinalStateOnly();
+        }
+
+        @Override
+        public boolean recordAtFinish(final IProbe probe) {
+            return true;
+        }
+    }
+}
@@ -17,8 +17,10 @@ import xal.model.IAlgorithm;
 import xal.model.IElement;
 import xal.model.IProbe;
 import xal.model.ModelException;
+import xal.model.elem.TransferMapCache;
 import xal.sim.scenario.AlgorithmFactory;
 import xal.smf.AcceleratorSeq;
+import xal.tools.beam.PhaseMap;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -358,6 +360,16 @@ public abstract class Tracker implements IAlgorithm, IArchive {
      */
     private int         m_enmUpdatePolicy = Tracker.UPDATE_ALWAYS;
     
+    /**
+     * Selective recording of probe states, overrides the update policy when set
+     */
+    private RecordingPolicy policyRecord = null;
+    
+    /**
+     * Optional cache of element transfer maps shared between propagations
+     */
+    private TransferMapCache cacheMaps = null;
+    
     /**
      * Debugging output flag
      */
@@ -400,6 +412,21 @@ public abstract class Tracker implements IAlgorithm, IArchive {
      */
     private double      m_dblPosElem = 0.0;
     
+    /**
+     * The number of probe states recorded by the step methods since initialization
+     */
+    private int         cntStepUpdates = 0;
+    
+    /**
+     * The number of step updates at the last step mark
+     */
+    private int         cntStepUpdatesMark = 0;
+    
+    /**
+     * The recording policy checkpoint at the last step mark
+     */
+    private long        lngPolicyMark = 0;
+    
     /**
      * Class type of the current probe.
      * @deprecated This property is never used 
@@ -445,6 +472,7 @@ public abstract class Tracker implements IAlgorithm, IArchive {
         
         this.m_bolCalcRfGapPhase = sourceTracker.m_bolCalcRfGapPhase;
         this.m_enmUpdatePolicy = sourceTracker.m_enmUpdatePolicy;
+        this.policyRecord = (sourceTracker.policyRecord != null) ? sourceTracker.policyRecord.copy() : null;
         this.m_bolDebug = sourceTracker.m_bolDebug;
         this.m_strElemStart = sourceTracker.m_strElemStart;
         this.m_strElemStop = sourceTracker.m_strElemStop;
@@ -471,6 +499,40 @@ public abstract class Tracker implements IAlgorithm, IArchive {
         this.m_enmUpdatePolicy = enmPolicy;
     }
     
+    /**
+     * <p>
+     * Sets the policy determining when probe states are recorded to the trajectory.
+     * When a recording policy is set it replaces the probe update policy given by
+     * <code>{@link #setProbeUpdatePolicy(int)}</code>.  Setting a <code>null</code> 
+     * policy restores the probe update policy.
+     * </p>
+     * 
+     * @param policy    the trajectory recording policy, or <code>null</code> to use
+     *                  the probe update policy
+     *
+     * @since  Oct 18, 2026
+     */
+    public void setRecordingPolicy(RecordingPolicy policy) {
+        this.policyRecord = policy;
+    }
+    
+    /**
+     * <p>
+     * Sets the cache from which the transfer maps of the elements are taken.  Derived
+     * classes which obtain their transfer maps through <code>{@link #transferMap(IProbe, IElement, double)}</code>
+     * then compute the transfer map of an element only when its parameters, the probe energy
+     * or the step have changed since a previous propagation.  Setting a <code>null</code> 
+     * cache computes every transfer map (the default).
+     * </p>
+     * 
+     * @param cache     the transfer map cache, or <code>null</code> for no caching
+     *
+     * @since  Oct 18, 2026
+     */
+    public void setTransferMapCache(TransferMapCache cache) {
+        this.cacheMaps = cache;
+    }
+    
     /**
      * Set or clear the debugging mode flag.  
      * 
@@ -498,6 +560,28 @@ public abstract class Tracker implements IAlgorithm, IArchive {
         return this.m_enmUpdatePolicy;
     }
     
+    /**
+     * Return the trajectory recording policy.
+     * 
+     * @return  the recording policy, or <code>null</code> if the probe update policy is used
+     *
+     * @since  Oct 18, 2026
+     */
+    public RecordingPolicy getRecordingPolicy() {
+        return this.policyRecord;
+    }
+    
+    /**
+     * Return the cache of element transfer maps.
+     * 
+     * @return  the transfer map cache, or <code>null</code> if transfer maps are not cached
+     *
+     * @since  Oct 18, 2026
+     */
+    public TransferMapCache getTransferMapCache() {
+        return this.cacheMaps;
+    }
+    
     /**
      * Indicate whether or not algorithm is in debug mode.
      *  
@@ -711,6 +795,11 @@ public abstract class Tracker implements IAlgorithm, IArchive {
         }
 
         this.m_bolIsStopped = false;
+        this.cntStepUpdates = 0;
+        this.cntStepUpdatesMark = 0;
+        
+        if (this.policyRecord != null)
+            this.policyRecord.initialize();
     }
 
     /**
@@ -747,6 +836,18 @@ public abstract class Tracker implements IAlgorithm, IArchive {
 //     sako *** IMPORTANT CHANGES
 //        this is now moved to Element.propagate this.setElemPosition(0.0);
         
+        if (this.policyRecord != null) {
+            if (this.policyRecord.recordAtEntrance(probe, elem))
+                probe.update();
+            
+            doPropagation(probe, elem);
+            
+            if (this.policyRecord.recordAtExit(probe, elem))
+                probe.update();
+            
+            return;
+        }
+        
         if ((this.getProbeUpdatePolicy() & Tracker.UPDATE_ENTRANCE) == Tracker.UPDATE_ENTRANCE)
             probe.update();
               
@@ -755,6 +856,22 @@ public abstract class Tracker implements IAlgorithm, IArchive {
         if ((this.getProbeUpdatePolicy() & Tracker.UPDATE_EXIT) == Tracker.UPDATE_EXIT)
             probe.update();
     };
+    
+    /**
+     * Completes a propagation cycle by recording the final state of the probe
+     * if the recording policy requires it.  This method is called once the probe has
+     * been propagated through the entire lattice.
+     * 
+     * @param probe     probe in its final state
+     * 
+     * @throws ModelException   unable to record the probe state
+     *
+     * @since  Oct 18, 2026
+     */
+    public void completePropagation(IProbe probe) throws ModelException {
+        if (this.policyRecord != null && this.policyRecord.recordAtFinish(probe))
+            probe.update();
+    }
 
     
 
@@ -835,6 +952,9 @@ public abstract class Tracker implements IAlgorithm, IArchive {
  
         if (daTracker.hasAttribute(ATTRTAG_RFGAP_PHASE))
             m_bolCalcRfGapPhase = daTracker.booleanValue(ATTRTAG_RFGAP_PHASE);
+        
+        DataAdaptor daPolicy = daTracker.childAdaptor(RecordingPolicy.NODETAG_POLICY);
+        this.setRecordingPolicy( daPolicy != null ? RecordingPolicy.loadFrom(daPolicy) : null );
     }
 
     /**
@@ -858,6 +978,9 @@ public abstract class Tracker implements IAlgorithm, IArchive {
         daptTrack.setValue(ATTRTAG_DEBUG, this.getDebugMode());
         daptTrack.setValue(ATTRTAG_UPDATE, this.getProbeUpdatePolicy());
         daptTrack.setValue(ATTRTAG_RFGAP_PHASE, this.getRfGapPhaseCalculation());
+        
+        if (this.policyRecord != null)
+            this.policyRecord.save(daptTrack);
     }
      
     
@@ -913,8 +1036,7 @@ public abstract class Tracker implements IAlgorithm, IArchive {
         this.setElemPosition(this.getElemPosition() + dL);
 
         // Update probe trajectory
-        if (this.getProbeUpdatePolicy() == Tracker.UPDATE_ALWAYS)
-            probe.update();
+        this.updateAfterStep(probe, elem, s0);
     };
     
     /** 
@@ -974,8 +1096,33 @@ public abstract class Tracker implements IAlgorithm, IArchive {
         probe.setKineticEnergy(W1);
         
         // Update probe trajectory
-        if (this.getProbeUpdatePolicy() == Tracker.UPDATE_ALWAYS)
+        this.updateAfterStep(probe, elem, s0);
+    }
+
+    /**
+     * Records the probe state after a step, as required by the recording policy if
+     * there is one, or by the probe update policy otherwise.
+     * 
+     * @param probe     probe which has just been stepped
+     * @param elem      element through which the probe is stepped
+     * @param dblPos0   position of the probe before the step
+     * 
+     * @throws ModelException   unable to record the probe state
+     *
+     * @since  Oct 18, 2026
+     */
+    private void updateAfterStep(IProbe probe, IElement elem, double dblPos0) throws ModelException {
+        boolean bolUpdate;
+        
+        if (this.policyRecord != null)
+            bolUpdate = this.policyRecord.recordAtStep(probe, elem, dblPos0);
+        else
+            bolUpdate = this.getProbeUpdatePolicy() == Tracker.UPDATE_ALWAYS;
+        
+        if (bolUpdate) {
             probe.update();
+            this.cntStepUpdates++;
+        }
     }
 
 
@@ -1053,6 +1200,65 @@ public abstract class Tracker implements IAlgorithm, IArchive {
     }
     
     
+    /**
+     * Marks the current step state of the tracker, i.e., the number of probe states
+     * recorded by <code>advanceProbe</code> and <code>retractProbe</code> and the state
+     * of the recording policy.  Derived classes which roll back rejected steps mark the
+     * step state along with their reference probe state.
+     *
+     * @since  Oct 18, 2026
+     * 
+     * @see #rollbackStepState()
+     */
+    protected void markStepState() {
+        this.cntStepUpdatesMark = this.cntStepUpdates;
+        
+        if (this.policyRecord != null)
+            this.lngPolicyMark = this.policyRecord.checkpoint();
+    }
+    
+    /**
+     * Restores the step state saved by the last call to <code>{@link #markStepState()}</code>
+     * and returns the number of probe states recorded since then, which the caller must
+     * remove from the trajectory.
+     * 
+     * @return  number of states recorded after steps since the mark
+     *
+     * @since  Oct 18, 2026
+     */
+    protected int rollbackStepState() {
+        int cntStates = this.cntStepUpdates - this.cntStepUpdatesMark;
+        
+        this.cntStepUpdates = this.cntStepUpdatesMark;
+        
+        if (this.policyRecord != null)
+            this.policyRecord.rollback(this.lngPolicyMark);
+        
+        return cntStates;
+    }
+    
+    /**
+     * Returns the transfer map of the given element for the given probe and step,
+     * taken from the transfer map cache when one is set.  The returned map may be
+     * shared with previous and later propagations and must not be modified.
+     * 
+     * @param probe     probe supplying the parameters of the transfer map
+     * @param elem      element whose transfer map is required
+     * @param dblLen    length of the element subsection
+     * 
+     * @return          the transfer map of the element subsection
+     * 
+     * @throws ModelException   bubbles up from <code>IElement#transferMap()</code>
+     *
+     * @since  Oct 18, 2026
+     */
+    protected PhaseMap transferMap(IProbe probe, IElement elem, double dblLen) throws ModelException {
+        if (this.cacheMaps == null)
+            return elem.transferMap(probe, dblLen);
+        
+        return this.cacheMaps.transferMap(probe, elem, dblLen);
+    }
+    
      /**
       * Return the current position within the element through which
       * the probe is being propagated
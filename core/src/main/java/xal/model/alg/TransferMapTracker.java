@@ -176,7 +176,7 @@ public class TransferMapTracker extends Tracker {
     protected void advanceState( final TransferMapProbe probe, final IElement ifcElem, final double dblLng ) throws ModelException {
         
         // Properties of the element
-        final PhaseMap mapPhi = ifcElem.transferMap( probe, dblLng );
+        final PhaseMap mapPhi = this.transferMap( probe, ifcElem, dblLng );
 
         // Set the partial (state) transfer map
         probe.setPartialTransferMap( mapPhi );
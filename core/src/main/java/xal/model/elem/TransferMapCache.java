@@ -0,0 +1,470 @@
+/*
+ * TransferMapCache.java
+ *
+ * Created on Oct 18, 2026
+ */
+package xal.model.elem;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import xal.model.IComponent;
+import xal.model.IElement;
+import xal.model.IProbe;
+import xal.model.ModelException;
+import xal.model.elem.sync.IRfCavity;
+import xal.model.elem.sync.IRfCavityCell;
+import xal.model.elem.sync.IRfGap;
+import xal.tools.beam.PhaseMap;
+
+/**
+ * <p>
+ * Memoizes the transfer maps of modeling elements between runs of the online model.
+ * The transfer map of an element is stored against the probe quantities it depends upon,
+ * that is, the position of the probe in the lattice, the length of the step, the probe's
+ * kinetic energy (or energy band, see <code>{@link #setEnergyTolerance(double)}</code>)
+ * and the particle species.  The stored maps of an element are discarded whenever the
+ * synchronization manager applies a set of parameter values to the element which differs
+ * from the values it last applied.  Thus, when a single corrector is changed between two
+ * runs only the transfer maps of that corrector are recomputed.
+ * </p>
+ * <p>
+ * Elements whose transfer maps depend on the time or phase of the probe, namely RF gaps
+ * and cavities, are never cached.
+ * </p>
+ * <h3>NOTES:</h3>
+ * <p>
+ * &middot; The cache relies upon the parameters of the elements changing only through
+ * synchronization (including model inputs).  If element parameters are set directly the
+ * cache must be cleared with <code>{@link #clear()}</code>.
+ * <br>
+ * &middot; The same <code>PhaseMap</code> instance is returned for every hit.  As with
+ * the maps returned by the elements, callers must not modify it.
+ * <br>
+ * &middot; Each element holds its transfer maps for at most
+ * <code>{@link #getMaxEnergiesPerElement()}</code> kinetic energies (or energy bands), the
+ * maps of the least recently used energy being discarded to make room for a new one.  Thus
+ * scanning the probe energy over many runs does not grow the cache without bound.
+ * <br>
+ * &middot; A cache is not thread safe; it should be used by a single scenario.
+ * </p>
+ *
+ * @since  Oct 18, 2026
+ *
+ * @see xal.model.alg.Tracker#setTransferMapCache(TransferMapCache)
+ * @see xal.sim.scenario.Scenario#setTransferMapCaching(boolean)
+ */
+public class TransferMapCache {
+
+    /*
+     * Global Constants
+     */
+
+    /** default maximum number of kinetic energies for which the maps of an element are held */
+    public static final int     INT_MAX_ENERGIES_PER_ELEM = 8;
+
+
+    /*
+     * Internal Classes
+     */
+
+    /**
+     * Probe quantities upon which the transfer map of an element depends.
+     */
+    private static final class MapKey {
+
+        /** probe position */
+        private final double    dblPos;
+
+        /** step length */
+        private final double    dblLen;
+
+        /** kinetic energy, or energy band index */
+        private final long      lngEnergy;
+
+        /** species charge */
+        private final double    dblQ;
+
+        /** species rest energy */
+        private final double    dblEr;
+
+        /** cached hash code */
+        private final int       intHash;
+
+
+        /**
+         * Create the key for the given probe quantities.
+         *
+         * @param dblPos    probe position
+         * @param dblLen    step length
+         * @param lngEnergy kinetic energy key
+         * @param dblQ      species charge
+         * @param dblEr     species rest energy
+         */
+        public MapKey(double dblPos, double dblLen, long lngEnergy, double dblQ, double dblEr) {
+            this.dblPos    = dblPos;
+            this.dblLen    = dblLen;
+            this.lngEnergy = lngEnergy;
+            this.dblQ      = dblQ;
+            this.dblEr     = dblEr;
+
+            int intHash = Double.hashCode(dblPos);
+            intHash = 31*intHash + Double.hashCode(dblLen);
+            intHash = 31*intHash + Long.hashCode(lngEnergy);
+            intHash = 31*intHash + Double.hashCode(dblQ);
+            intHash = 31*intHash + Double.hashCode(dblEr);
+
+            this.intHash = intHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.intHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof MapKey))
+                return false;
+
+            MapKey  key = (MapKey)obj;
+
+            return Double.compare(this.dblPos, key.dblPos) == 0
+                && Double.compare(this.dblLen, key.dblLen) == 0
+                && this.lngEnergy == key.lngEnergy
+                && Double.compare(this.dblQ, key.dblQ) == 0
+                && Double.compare(this.dblEr, key.dblEr) == 0;
+        }
+    }
+
+    /**
+     * Transfer maps of a single element grouped by kinetic energy key in order of last use.
+     * The maps of the least recently used energy are discarded once the maximum number of
+     * energies per element is exceeded.
+     */
+    private final class ElementMaps extends LinkedHashMap<Long, Map<MapKey, PhaseMap>> {
+
+        /** serialization version */
+        private static final long serialVersionUID = 1L;
+
+
+        /**
+         * Create an empty map ordered by access.
+         */
+        public ElementMaps() {
+            super(4, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Map<MapKey, PhaseMap>> entry) {
+            return this.size() > TransferMapCache.this.cntMaxEnergies;
+        }
+    }
+
+
+
+    /*
+     * Local Attributes
+     */
+
+    /** transfer maps of each element */
+    private final Map<IElement, ElementMaps>                    mapElemToMaps;
+
+    /** the synchronized parameter values last applied to each component */
+    private final Map<IComponent, Map<String, Double>>          mapCompToParams;
+
+    /** whether or not elements of a given class may be cached */
+    private final Map<Class<?>, Boolean>                        mapClassCacheable;
+
+    /** relative width of the energy bands, zero for exact energies */
+    private double          dblEnergyTol;
+
+    /** maximum number of kinetic energies for which the maps of an element are held */
+    private int             cntMaxEnergies;
+
+    /** number of transfer maps found in the cache */
+    private long            cntHits;
+
+    /** number of transfer maps computed by the elements */
+    private long            cntMisses;
+
+
+    /*
+     * Initialization
+     */
+
+    /**
+     * Creates a new, empty transfer map cache matching the probe kinetic energy exactly.
+     */
+    public TransferMapCache() {
+        this.mapElemToMaps     = new IdentityHashMap<IElement, ElementMaps>();
+        this.mapCompToParams   = new IdentityHashMap<IComponent, Map<String, Double>>();
+        this.mapClassCacheable = new HashMap<Class<?>, Boolean>();
+
+        this.dblEnergyTol   = 0.0;
+        this.cntMaxEnergies = INT_MAX_ENERGIES_PER_ELEM;
+        this.cntHits      = 0;
+        this.cntMisses    = 0;
+    }
+
+    /**
+     * <p>
+     * Sets the relative width of the kinetic energy bands.  Transfer maps are reused for
+     * any probe energy within the same band, so a non-zero tolerance trades accuracy for
+     * hits when the energy varies slightly between runs.  The default tolerance of zero
+     * reuses a transfer map only for exactly the same energy.
+     * </p>
+     * <p>
+     * Changing the tolerance clears the cache.
+     * </p>
+     *
+     * @param dblRelTol     relative width of the energy bands (non-negative)
+     *
+     * @throws IllegalArgumentException the tolerance is negative
+     */
+    public void setEnergyTolerance(double dblRelTol) throws IllegalArgumentException {
+        if (dblRelTol < 0.0)
+            throw new IllegalArgumentException("TransferMapCache#setEnergyTolerance() - tolerance must be non-negative, not " + dblRelTol);
+
+        this.dblEnergyTol = dblRelTol;
+        this.mapElemToMaps.clear();
+    }
+
+    /**
+     * Returns the relative width of the kinetic energy bands.
+     *
+     * @return  relative energy tolerance, zero if energies are matched exactly
+     */
+    public double getEnergyTolerance() {
+        return this.dblEnergyTol;
+    }
+
+    /**
+     * <p>
+     * Sets the maximum number of kinetic energies (or energy bands) for which the transfer
+     * maps of each element are held.  The maps of all subsections of an element at one
+     * energy are kept or discarded together.
+     * </p>
+     * <p>
+     * Changing the bound clears the cache.
+     * </p>
+     *
+     * @param cntMaxEnergies    maximum number of energies per element (positive)
+     *
+     * @throws IllegalArgumentException the bound is not positive
+     */
+    public void setMaxEnergiesPerElement(int cntMaxEnergies) throws IllegalArgumentException {
+        if (cntMaxEnergies < 1)
+            throw new IllegalArgumentException("TransferMapCache#setMaxEnergiesPerElement() - bound must be positive, not " + cntMaxEnergies);
+
+        this.cntMaxEnergies = cntMaxEnergies;
+        this.mapElemToMaps.clear();
+    }
+
+    /**
+     * Returns the maximum number of kinetic energies for which the transfer maps of
+     * each element are held.
+     *
+     * @return  maximum number of energies per element
+     */
+    public int getMaxEnergiesPerElement() {
+        return this.cntMaxEnergies;
+    }
+
+
+    /*
+     * Operations
+     */
+
+    /**
+     * Returns the transfer map of the given element for the given probe and step length,
+     * either from the cache or by computing it with
+     * <code>{@link IElement#transferMap(IProbe, double)}</code>.
+     *
+     * @param probe     probe supplying the parameters of the transfer map
+     * @param elem      element whose transfer map is required
+     * @param dblLen    length of the element subsection
+     *
+     * @return          transfer map of the element subsection
+     *
+     * @throws ModelException   the element could not compute its transfer map
+     */
+    public PhaseMap transferMap(IProbe probe, IElement elem, double dblLen) throws ModelException {
+        if (!this.isCacheable(elem)) {
+            this.cntMisses++;
+
+            return elem.transferMap(probe, dblLen);
+        }
+
+        ElementMaps     mapEnergies = this.mapElemToMaps.get(elem);
+
+        if (mapEnergies == null) {
+            mapEnergies = new ElementMaps();
+            this.mapElemToMaps.put(elem, mapEnergies);
+        }
+
+        long                    lngEnergy = this.energyKey(probe.getKineticEnergy());
+        Map<MapKey, PhaseMap>   mapMaps   = mapEnergies.get(lngEnergy);
+
+        if (mapMaps == null) {
+            mapMaps = new HashMap<MapKey, PhaseMap>();
+            mapEnergies.put(lngEnergy, mapMaps);
+        }
+
+        MapKey      key    = new MapKey(probe.getPosition(), dblLen, lngEnergy,
+                                        probe.getSpeciesCharge(), probe.getSpeciesRestEnergy());
+        PhaseMap    mapPhi = mapMaps.get(key);
+
+        if (mapPhi != null) {
+            this.cntHits++;
+
+            return mapPhi;
+        }
+
+        this.cntMisses++;
+        mapPhi = elem.transferMap(probe, dblLen);
+        mapMaps.put(key, mapPhi);
+
+        return mapPhi;
+    }
+
+    /**
+     * Records the synchronized parameter values being applied to the given component.
+     * If they differ from the values last applied the cached transfer maps of the component
+     * are discarded.  The synchronization manager calls this method whenever it synchronizes
+     * a component.
+     *
+     * @param cmp           the component being synchronized
+     * @param mapValues     the property values applied to the component
+     *
+     * @return              <code>true</code> if the parameters changed and the maps were discarded
+     */
+    public boolean updateParameters(IComponent cmp, Map<String, Double> mapValues) {
+        Map<String, Double>  mapLast = this.mapCompToParams.get(cmp);
+
+        if (mapLast != null && mapLast.equals(mapValues))
+            return false;
+
+        this.mapCompToParams.put(cmp, new HashMap<String, Double>(mapValues));
+        this.invalidate(cmp);
+
+        return true;
+    }
+
+    /**
+     * Discards the cached transfer maps of the given component.  If the component
+     * is composite the maps of all its elements are discarded.
+     *
+     * @param cmp   component whose transfer maps are discarded
+     */
+    public void invalidate(IComponent cmp) {
+        if (cmp instanceof IElement) {
+            this.mapElemToMaps.remove(cmp);
+            return;
+        }
+
+        // A composite, e.g., an element sequence - take the conservative route
+        this.mapElemToMaps.clear();
+    }
+
+    /**
+     * Discards all cached transfer maps and the record of synchronized parameter values.
+     * The hit and miss counts are not reset.
+     */
+    public void clear() {
+        this.mapElemToMaps.clear();
+        this.mapCompToParams.clear();
+    }
+
+    /**
+     * Resets the hit and miss counts to zero.
+     */
+    public void resetCounts() {
+        this.cntHits   = 0;
+        this.cntMisses = 0;
+    }
+
+
+    /*
+     * Queries
+     */
+
+    /**
+     * Returns the number of transfer maps which were found in the cache.
+     *
+     * @return  number of cache hits since creation or the last reset of the counts
+     */
+    public long getHitCount() {
+        return this.cntHits;
+    }
+
+    /**
+     * Returns the number of transfer maps which had to be computed by the elements,
+     * including those of elements which are never cached.
+     *
+     * @return  number of cache misses since creation or the last reset of the counts
+     */
+    public long getMissCount() {
+        return this.cntMisses;
+    }
+
+    /**
+     * Returns the number of transfer maps currently held in the cache.
+     *
+     * @return  number of cached transfer maps
+     */
+    public int size() {
+        int cntMaps = 0;
+
+        for (ElementMaps mapEnergies : this.mapElemToMaps.values())
+            for (Map<MapKey, PhaseMap> mapMaps : mapEnergies.values())
+                cntMaps += mapMaps.size();
+
+        return cntMaps;
+    }
+
+    /**
+     * Determines whether or not the transfer maps of the given element may be cached.
+     * The maps of RF gaps and cavities depend upon the probe phase and are not cached.
+     *
+     * @param elem  element to check
+     *
+     * @return      <code>true</code> if the element's transfer maps may be cached
+     */
+    public boolean isCacheable(IElement elem) {
+        Class<?>    clsElem = elem.getClass();
+        Boolean     bolCache = this.mapClassCacheable.get(clsElem);
+
+        if (bolCache == null) {
+            bolCache = !(elem instanceof IRfGap || elem instanceof IRfCavityCell || elem instanceof IRfCavity);
+
+            this.mapClassCacheable.put(clsElem, bolCache);
+        }
+
+        return bolCache;
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Returns the key of the given kinetic energy: the exact bit pattern when the
+     * tolerance is zero, otherwise the index of the energy band.
+     *
+     * @param dblEnergy     kinetic energy of the probe
+     *
+     * @return              key for the kinetic energy
+     */
+    private long energyKey(double dblEnergy) {
+        if (this.dblEnergyTol == 0.0 || dblEnergy <= 0.0)
+            return Double.doubleToLongBits(dblEnergy);
+
+        return Math.round( Math.log(dblEnergy)/this.dblEnergyTol );
+    }
+}
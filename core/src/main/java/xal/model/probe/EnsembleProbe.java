@@ -135,7 +135,7 @@ public class EnsembleProbe extends BunchProbe<EnsembleProbeState> {
     public EnsembleProbe(final EnsembleProbe probe)   {
         super(probe);
         
-        this.setEnsemble( new Ensemble( probe.getEnsemble() ) );
+        this.setEnsemble( probe.getEnsemble() );
     };
     
     @Override
@@ -156,7 +156,8 @@ public class EnsembleProbe extends BunchProbe<EnsembleProbeState> {
      * 
      *  NOTE: the copy operation can be expansive for large <code>Ensemble</code>s
      * 
-     *  @param  ens     <code>Ensemble</code> object to be copied
+     *  @param  ens     <code>Ensemble</code> object to be copied, e.g., a 
+     *                  <code>ColumnarEnsemble</code> for large numbers of particles
      */
     public void setEnsemble(Ensemble ens)   { 
         this.stateCurrent.setEnsemble(ens);
@@ -9,6 +9,7 @@ package xal.model.probe;
 import xal.model.ModelException;
 import xal.model.alg.EnvTrackerAdapt;
 import xal.model.probe.traj.EnvelopeProbeState;
+import xal.model.probe.traj.ColumnarEnvelopeTrajectory;
 import xal.model.probe.traj.Trajectory;
 import xal.tools.beam.CovarianceMatrix;
 import xal.tools.beam.PhaseMatrix;
@@ -122,6 +123,13 @@ public class EnvelopeProbe extends BunchProbe<EnvelopeProbeState> {
 //	@Deprecated
 //    private boolean            bolSaveTwiss = false;
 
+
+    /*
+     * Local Attributes
+     */
+
+    /** record the trajectory in primitive columns rather than as probe state objects */
+    private boolean            bolColumnarTraj = false;
     
 
 	/*
@@ -154,6 +162,9 @@ public class EnvelopeProbe extends BunchProbe<EnvelopeProbeState> {
 		this.setResponseMatrix( probe.getResponseMatrix().clone() );
 		this.setResponseMatrixNoSpaceCharge( probe.getResponseMatrixNoSpaceCharge().clone() );
 		this.setCurrentResponseMatrix( probe.getCurrentResponseMatrix().clone() );
+		
+		this.bolColumnarTraj = probe.bolColumnarTraj;
+		this.trajHist = this.createTrajectory();
 	};
     
     /**
@@ -169,6 +180,42 @@ public class EnvelopeProbe extends BunchProbe<EnvelopeProbeState> {
         return new EnvelopeProbe( this );
     }
     
+    /**
+     * <p>
+     * Selects the storage of the probe trajectory.  When set the probe records its
+     * history in a <code>{@link ColumnarEnvelopeTrajectory}</code>, which stores the
+     * position, time, energy and covariance matrix of each state in primitive arrays
+     * rather than cloning the probe state at every update.  This greatly reduces the
+     * retained heap of long, adaptive-step simulations.  However, the response matrices
+     * are not recorded so the states of such a trajectory carry identity response matrices.
+     * </p>
+     * <p>
+     * The new setting takes effect when the trajectory is next created, that is, when the
+     * probe is initialized or reset.
+     * </p>
+     * 
+     * @param bolColumnarTraj   <code>true</code> to record a columnar trajectory,
+     *                          <code>false</code> to record the standard trajectory (default)
+     *
+     * @since  Oct 18, 2026
+     */
+    public void setColumnarTrajectory(boolean bolColumnarTraj) {
+        this.bolColumnarTraj = bolColumnarTraj;
+    }
+    
+    /**
+     * Returns whether or not the probe records its history in a 
+     * <code>{@link ColumnarEnvelopeTrajectory}</code>.
+     * 
+     * @return  <code>true</code> if the trajectory is stored in primitive columns,
+     *          <code>false</code> for the standard trajectory
+     *
+     * @since  Oct 18, 2026
+     */
+    public boolean isColumnarTrajectory() {
+        return this.bolColumnarTraj;
+    }
+    
     /**
      * Set the twiss parameters for each phase plane.
      * 
@@ -531,9 +578,14 @@ public class EnvelopeProbe extends BunchProbe<EnvelopeProbeState> {
 	 * 		for saving the probe's history
 	 * 
 	 * @author Jonathan M. Freed
+	 * 
+	 * @see #setColumnarTrajectory(boolean)
 	 */
     @Override
 	public Trajectory<EnvelopeProbeState> createTrajectory() {
+        if (this.bolColumnarTraj)
+            return new ColumnarEnvelopeTrajectory();
+        
 		return new Trajectory<EnvelopeProbeState>(EnvelopeProbeState.class);
     }
     
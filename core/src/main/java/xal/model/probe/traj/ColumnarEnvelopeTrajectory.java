@@ -0,0 +1,798 @@
+/*
+ * ColumnarEnvelopeTrajectory.java
+ *
+ * Created on Oct 18, 2026
+ */
+package xal.model.probe.traj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import xal.model.probe.EnvelopeProbe;
+import xal.model.probe.Probe;
+import xal.tools.beam.CovarianceMatrix;
+
+/**
+ * <p>
+ * Trajectory of an envelope probe which stores its history in primitive columns
+ * rather than as a list of <code>EnvelopeProbeState</code> objects.  For every state the
+ * position, time, longitudinal phase, kinetic energy and the 28 unique elements of the
+ * (symmetric, homogeneous) 7&times;7 covariance matrix are appended to growable
+ * <code>double[]</code> arrays.  The element, element type and hardware node identifiers
+ * are interned into a single string table and recorded as <code>int</code> indices.  The
+ * species charge and rest energy, the beam current and the bunch frequency are interned
+ * the same way into a table of beam parameter sets, so a change of species part way along
+ * the trajectory (e.g., at a charge-exchange foil) is recorded without storing four values
+ * for every state.
+ * </p>
+ * <p>
+ * Recording a state neither clones the probe state nor its covariance matrix, so long
+ * adaptive-step runs retain a small fraction of the heap of a standard
+ * <code>{@link Trajectory}</code>.  The <code>EnvelopeProbeState</code> objects returned
+ * by the query methods are views created on demand from the columns.
+ * </p>
+ * <h3>NOTES:</h3>
+ * <p>
+ * &middot; Every call to a query method returns new state objects.  Modifying a returned
+ * state does not modify the trajectory and states are not identical between calls.
+ * <br>
+ * &middot; The response and perturbation matrices of the envelope states are not recorded;
+ * the states returned by this trajectory carry identity matrices for these attributes.
+ * Use the standard <code>Trajectory</code> if these matrices are needed.
+ * </p>
+ *
+ * @since  Oct 18, 2026
+ *
+ * @see EnvelopeProbe#setColumnarTrajectory(boolean)
+ */
+public class ColumnarEnvelopeTrajectory extends Trajectory<EnvelopeProbeState> {
+
+    /*
+     * Global Constants
+     */
+
+    /** size of the (homogeneous) covariance matrix */
+    private static final int    INT_COV_SIZE = CovarianceMatrix.INT_SIZE;
+
+    /** number of unique elements in the symmetric covariance matrix */
+    private static final int    CNT_COV_TERMS = INT_COV_SIZE*(INT_COV_SIZE + 1)/2;
+
+    /** initial capacity of the columns */
+    private static final int    INT_INIT_CAPACITY = 256;
+
+
+    /*
+     * Local Attributes
+     */
+
+    /** number of states recorded */
+    private int             cntStates;
+
+    /** state positions - the columns are ordered by this column */
+    private double[]        arrPos;
+
+    /** state times */
+    private double[]        arrTime;
+
+    /** state longitudinal phases */
+    private double[]        arrPhsLng;
+
+    /** state kinetic energies */
+    private double[]        arrEnergy;
+
+    /** upper triangle of the state covariance matrices, <code>CNT_COV_TERMS</code> values per state */
+    private double[]        arrCov;
+
+    /** modeling element identifiers as indices into the identifier table */
+    private int[]           arrElemId;
+
+    /** modeling element type identifiers as indices into the identifier table */
+    private int[]           arrTypeId;
+
+    /** hardware node identifiers as indices into the identifier table */
+    private int[]           arrSmfId;
+
+    /** beam parameters as indices into the beam parameter table */
+    private int[]           arrBeamId;
+
+
+    /** table of all identifier strings recorded */
+    private final List<String>              lstIds;
+
+    /** index of each identifier string within the identifier table */
+    private final Map<String, Integer>      mapIdToIndex;
+
+
+    /** table of the distinct beam parameter sets recorded, see <code>{@link #internBeam(EnvelopeProbeState)}</code> */
+    private final List<double[]>            lstBeams;
+
+
+    /*
+     * Initialization
+     */
+
+    /**
+     * Creates a new, empty columnar envelope trajectory.
+     */
+    public ColumnarEnvelopeTrajectory() {
+        this(EnvelopeProbeState.class);
+    }
+
+    /**
+     * Creates a new, empty columnar envelope trajectory.  This constructor is required
+     * for the trajectory to be restored with <code>{@link Trajectory#loadFrom(xal.tools.data.DataAdaptor)}</code>.
+     *
+     * @param clsStates     must be <code>EnvelopeProbeState.class</code>
+     *
+     * @throws IllegalArgumentException the state type is not <code>EnvelopeProbeState</code>
+     */
+    public ColumnarEnvelopeTrajectory(final Class<EnvelopeProbeState> clsStates) throws IllegalArgumentException {
+        super(clsStates);
+
+        if (clsStates != EnvelopeProbeState.class)
+            throw new IllegalArgumentException("ColumnarEnvelopeTrajectory - only supports EnvelopeProbeState, not " + clsStates.getName());
+
+        this.cntStates = 0;
+        this.arrPos    = new double[INT_INIT_CAPACITY];
+        this.arrTime   = new double[INT_INIT_CAPACITY];
+        this.arrPhsLng = new double[INT_INIT_CAPACITY];
+        this.arrEnergy = new double[INT_INIT_CAPACITY];
+        this.arrCov    = new double[INT_INIT_CAPACITY*CNT_COV_TERMS];
+        this.arrElemId = new int[INT_INIT_CAPACITY];
+        this.arrTypeId = new int[INT_INIT_CAPACITY];
+        this.arrSmfId  = new int[INT_INIT_CAPACITY];
+        this.arrBeamId = new int[INT_INIT_CAPACITY];
+
+        this.lstIds       = new ArrayList<String>();
+        this.mapIdToIndex = new HashMap<String, Integer>();
+        this.lstBeams     = new ArrayList<double[]>();
+    }
+
+
+    /*
+     * Column Access
+     */
+
+    /**
+     * Returns the position of the state with the given index without creating the state.
+     *
+     * @param index     index of the state
+     *
+     * @return          position of the state (in meters)
+     *
+     * @throws IndexOutOfBoundsException    no state with the given index
+     */
+    public double positionAt(int index) throws IndexOutOfBoundsException {
+        this.checkIndex(index);
+
+        return this.arrPos[index];
+    }
+
+    /**
+     * Returns the time of the state with the given index without creating the state.
+     *
+     * @param index     index of the state
+     *
+     * @return          time of the state (in seconds)
+     *
+     * @throws IndexOutOfBoundsException    no state with the given index
+     */
+    public double timeAt(int index) throws IndexOutOfBoundsException {
+        this.checkIndex(index);
+
+        return this.arrTime[index];
+    }
+
+    /**
+     * Returns the kinetic energy of the state with the given index without creating the state.
+     *
+     * @param index     index of the state
+     *
+     * @return          kinetic energy of the state (in electron-volts)
+     *
+     * @throws IndexOutOfBoundsException    no state with the given index
+     */
+    public double kineticEnergyAt(int index) throws IndexOutOfBoundsException {
+        this.checkIndex(index);
+
+        return this.arrEnergy[index];
+    }
+
+    /**
+     * Returns an element of the covariance matrix of the state with the given index
+     * without creating the state.
+     *
+     * @param index     index of the state
+     * @param i         row index of the covariance matrix element
+     * @param j         column index of the covariance matrix element
+     *
+     * @return          covariance matrix element <i>&sigma;<sub>ij</sub></i> of the state
+     *
+     * @throws IndexOutOfBoundsException    no state with the given index or bad matrix indices
+     */
+    public double covarianceAt(int index, int i, int j) throws IndexOutOfBoundsException {
+        this.checkIndex(index);
+        if (i < 0 || j < 0 || i >= INT_COV_SIZE || j >= INT_COV_SIZE)
+            throw new IndexOutOfBoundsException("ColumnarEnvelopeTrajectory#covarianceAt() - bad matrix index (" + i + "," + j + ")");
+
+        return this.arrCov[index*CNT_COV_TERMS + covTermOffset(i, j)];
+    }
+
+    /**
+     * Returns a copy of the state positions in trajectory order.
+     *
+     * @return  array of state positions (in meters)
+     */
+    public double[] getPositions() {
+        return Arrays.copyOf(this.arrPos, this.cntStates);
+    }
+
+    /**
+     * Returns a copy of the state times in trajectory order.
+     *
+     * @return  array of state times (in seconds)
+     */
+    public double[] getTimes() {
+        return Arrays.copyOf(this.arrTime, this.cntStates);
+    }
+
+    /**
+     * Returns a copy of the state kinetic energies in trajectory order.
+     *
+     * @return  array of state kinetic energies (in electron-volts)
+     */
+    public double[] getKineticEnergies() {
+        return Arrays.copyOf(this.arrEnergy, this.cntStates);
+    }
+
+
+    /*
+     * Trajectory Overrides
+     */
+
+    /**
+     * Records the current state of the probe directly into the trajectory columns
+     * without cloning it.
+     *
+     * @param probe     target probe object
+     *
+     * @see xal.model.probe.traj.Trajectory#update(xal.model.probe.Probe)
+     */
+    @Override
+    public void update(Probe<EnvelopeProbeState> probe) {
+        this.addState( probe.getCurrentState() );
+    }
+
+    /**
+     * Records the given state into the trajectory columns.  The state object itself
+     * is not retained.
+     *
+     * @param state     new state addition to trajectory
+     *
+     * @see xal.model.probe.traj.Trajectory#addState(xal.model.probe.traj.ProbeState)
+     */
+    @Override
+    public void addState(final EnvelopeProbeState state) {
+        if (this.cntStates == this.arrPos.length)
+            this.growColumns();
+
+        // States normally arrive in order of position, otherwise make room for an insertion
+        double  dblPos = state.getPosition();
+        int     index  = this.cntStates;
+
+        if (index > 0 && dblPos < this.arrPos[index - 1]) {
+            index = this.upperIndex(dblPos);
+
+            this.shiftColumns(index, +1);
+        }
+        this.cntStates++;
+
+        this.arrPos[index]    = dblPos;
+        this.arrTime[index]   = state.getTime();
+        this.arrPhsLng[index] = state.getLongitudinalPhase();
+        this.arrEnergy[index] = state.getKineticEnergy();
+        this.arrElemId[index] = this.internId( state.getElementId() );
+        this.arrTypeId[index] = this.internId( state.getElementTypeId() );
+        this.arrSmfId[index]  = this.internId( state.getHardwareNodeId() );
+        this.arrBeamId[index] = this.internBeam( state );
+
+        CovarianceMatrix    matCov = state.getCovarianceMatrix();
+        int                 iOff   = index*CNT_COV_TERMS;
+
+        for (int i=0; i<INT_COV_SIZE; i++)
+            for (int j=i; j<INT_COV_SIZE; j++)
+                this.arrCov[iOff++] = matCov.getElem(i, j);
+    }
+
+    /**
+     * Removes the last state from the trajectory and returns a view of it.
+     *
+     * @return  the state with the largest position, or <code>null</code> if the trajectory is empty
+     *
+     * @see xal.model.probe.traj.Trajectory#popLastState()
+     */
+    @Override
+    public EnvelopeProbeState popLastState() {
+        if (this.cntStates == 0)
+            return null;
+
+        EnvelopeProbeState  state = this.createState(this.cntStates - 1);
+
+        this.cntStates--;
+
+        return state;
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#peakLastByPosition()
+     */
+    @Override
+    public EnvelopeProbeState peakLastByPosition() {
+        return this.stateWithIndex(this.cntStates - 1);
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#peakLastByType(java.lang.String)
+     */
+    @Override
+    public EnvelopeProbeState peakLastByType(String strElemTypeId) {
+        Integer intTypeId = this.mapIdToIndex.get(strElemTypeId);
+
+        if (intTypeId != null)
+            for (int index=this.cntStates - 1; index>=0; index--)
+                if (this.arrTypeId[index] == intTypeId)
+                    return this.createState(index);
+
+        return null;
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#numStates()
+     */
+    @Override
+    public int numStates() {
+        return this.cntStates;
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#stateIterator()
+     */
+    @Override
+    public Iterator<EnvelopeProbeState> stateIterator() {
+        return this.iterator();
+    }
+
+    /**
+     * Returns all the states ordered by hardware node identifier, then position.
+     *
+     * @see xal.model.probe.traj.Trajectory#getStatesViaStateMap()
+     */
+    @Override
+    public List<EnvelopeProbeState> getStatesViaStateMap() {
+        TreeMap<String, List<EnvelopeProbeState>>   mapStates = new TreeMap<String, List<EnvelopeProbeState>>();
+
+        for (int index=0; index<this.cntStates; index++) {
+            String                      strSmfId  = this.lstIds.get( this.arrSmfId[index] );
+            List<EnvelopeProbeState>    lstStates = mapStates.get(strSmfId);
+
+            if (lstStates == null) {
+                lstStates = new LinkedList<EnvelopeProbeState>();
+                mapStates.put(strSmfId, lstStates);
+            }
+            lstStates.add( this.createState(index) );
+        }
+
+        List<EnvelopeProbeState>    lstAll = new LinkedList<EnvelopeProbeState>();
+
+        for (List<EnvelopeProbeState> lstStates : mapStates.values())
+            lstAll.addAll(lstStates);
+
+        return lstAll;
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#getStatesViaIndexer()
+     */
+    @Override
+    public List<EnvelopeProbeState> getStatesViaIndexer() {
+        return this.createStates(0, this.cntStates - 1);
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#stateAtPosition(double)
+     */
+    @Override
+    public EnvelopeProbeState stateAtPosition(double pos) {
+        int index = this.lowerIndex(pos);
+
+        if (index < this.cntStates && this.arrPos[index] == pos)
+            return this.createState(index);
+
+        return null;
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#stateNearestPosition(double)
+     */
+    @Override
+    public EnvelopeProbeState stateNearestPosition(double position) {
+        if (this.cntStates == 0)
+            return null;
+
+        int index = this.lowerIndex(position);
+
+        if (index == this.cntStates)
+            index--;
+        else if (index > 0 && position - this.arrPos[index - 1] <= this.arrPos[index] - position)
+            index--;
+
+        return this.createState(index);
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#statesInPositionRange(double, double)
+     */
+    @Override
+    public List<EnvelopeProbeState> statesInPositionRange(double low, double high) {
+        int indFirst = this.lowerIndex(low);
+        int indLast  = this.upperIndex(high) - 1;
+
+        if (indFirst > indLast)
+            return new LinkedList<EnvelopeProbeState>();
+
+        return this.createStates(indFirst, indLast);
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#statesForElement(java.lang.String)
+     */
+    @Override
+    public List<EnvelopeProbeState> statesForElement(String strSmfNodeId) {
+        return this.statesWithId(this.arrSmfId, strSmfNodeId);
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#statesForElementType(java.lang.String)
+     */
+    @Override
+    public List<EnvelopeProbeState> statesForElementType(String strTypeId) {
+        return this.statesWithId(this.arrTypeId, strTypeId);
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#indicesForElement(java.lang.String)
+     */
+    @Override
+    public int[] indicesForElement(String element) {
+        Integer intSmfId = this.mapIdToIndex.get(element);
+
+        if (intSmfId == null)
+            return new int[0];
+
+        int[]   arrIndices = new int[this.cntStates];
+        int     cntIndices = 0;
+
+        for (int index=0; index<this.cntStates; index++)
+            if (this.arrSmfId[index] == intSmfId)
+                arrIndices[cntIndices++] = index;
+
+        return Arrays.copyOf(arrIndices, cntIndices);
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#stateWithIndex(int)
+     */
+    @Override
+    public EnvelopeProbeState stateWithIndex(int i) {
+        if (i < 0 || i >= this.cntStates)
+            return null;
+
+        return this.createState(i);
+    }
+
+    /**
+     * Returns an iterator which creates the states one at a time as they are
+     * traversed.
+     *
+     * @see xal.model.probe.traj.Trajectory#iterator()
+     */
+    @Override
+    public Iterator<EnvelopeProbeState> iterator() {
+        return new Iterator<EnvelopeProbeState>() {
+
+            private int     indNext = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.indNext < cntStates;
+            }
+
+            @Override
+            public EnvelopeProbeState next() {
+                if (!this.hasNext())
+                    throw new NoSuchElementException();
+
+                return createState(this.indNext++);
+            }
+        };
+    }
+
+    /**
+     * @see xal.model.probe.traj.Trajectory#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer buf = new StringBuffer();
+        buf.append("Trajectory: " + getClass().getName() + "\n");
+        buf.append("Time: " + getTimestamp() + "\n");
+        buf.append("Description: " + getDescription() + "\n");
+        buf.append("States: " + this.cntStates + "\n");
+        for (EnvelopeProbeState state : this)
+            buf.append(state.toString() + "\n");
+
+        return buf.toString();
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Creates a new state object from the column values at the given index.
+     *
+     * @param index     index of the state
+     *
+     * @return          new envelope state initialized from the columns
+     */
+    private EnvelopeProbeState createState(int index) {
+        EnvelopeProbeState  state = new EnvelopeProbeState();
+        double[]            arrBeam = this.lstBeams.get(this.arrBeamId[index]);
+
+        state.setSpeciesCharge(arrBeam[0]);
+        state.setSpeciesRestEnergy(arrBeam[1]);
+        state.setBeamCurrent(arrBeam[2]);
+        state.setBunchFrequency(arrBeam[3]);
+
+        state.setElementId( this.lstIds.get(this.arrElemId[index]) );
+        state.setElementTypeId( this.lstIds.get(this.arrTypeId[index]) );
+        state.setHardwareNodeId( this.lstIds.get(this.arrSmfId[index]) );
+
+        state.setPosition(this.arrPos[index]);
+        state.setTime(this.arrTime[index]);
+        state.setLongitudinalPhase(this.arrPhsLng[index]);
+        state.setKineticEnergy(this.arrEnergy[index]);
+
+        CovarianceMatrix    matCov = new CovarianceMatrix();
+        int                 iOff   = index*CNT_COV_TERMS;
+
+        for (int i=0; i<INT_COV_SIZE; i++)
+            for (int j=i; j<INT_COV_SIZE; j++) {
+                double  dblVal = this.arrCov[iOff++];
+
+                matCov.setElem(i, j, dblVal);
+                matCov.setElem(j, i, dblVal);
+            }
+        state.setCovariance(matCov);
+
+        return state;
+    }
+
+    /**
+     * Creates the states with indices in the given range, inclusive.
+     *
+     * @param indFirst  index of the first state
+     * @param indLast   index of the last state
+     *
+     * @return          list of new states initialized from the columns
+     */
+    private List<EnvelopeProbeState> createStates(int indFirst, int indLast) {
+        List<EnvelopeProbeState>    lstStates = new ArrayList<EnvelopeProbeState>( Math.max(indLast - indFirst + 1, 0) );
+
+        for (int index=indFirst; index<=indLast; index++)
+            lstStates.add( this.createState(index) );
+
+        return lstStates;
+    }
+
+    /**
+     * Creates all the states whose identifier in the given column is the given identifier.
+     *
+     * @param arrIdCol  identifier column to search
+     * @param strId     identifier of the desired states
+     *
+     * @return          the states in trajectory order, or <code>null</code> if there are none
+     */
+    private List<EnvelopeProbeState> statesWithId(int[] arrIdCol, String strId) {
+        Integer intId = this.mapIdToIndex.get(strId);
+
+        if (intId == null)
+            return null;
+
+        List<EnvelopeProbeState>    lstStates = new ArrayList<EnvelopeProbeState>();
+
+        for (int index=0; index<this.cntStates; index++)
+            if (arrIdCol[index] == intId)
+                lstStates.add( this.createState(index) );
+
+        if (lstStates.isEmpty())
+            return null;
+
+        return lstStates;
+    }
+
+    /**
+     * Returns the index of the given identifier in the identifier table, adding the
+     * identifier if it is not already there.
+     *
+     * @param strId     identifier string (<code>null</code> is treated as the empty string)
+     *
+     * @return          index of the identifier in the identifier table
+     */
+    private int internId(String strId) {
+        if (strId == null)
+            strId = "";
+
+        Integer intId = this.mapIdToIndex.get(strId);
+
+        if (intId == null) {
+            intId = this.lstIds.size();
+
+            this.lstIds.add(strId);
+            this.mapIdToIndex.put(strId, intId);
+        }
+
+        return intId;
+    }
+
+    /**
+     * Returns the index of the given state's beam parameters (species charge, species rest
+     * energy, beam current and bunch frequency, in that order) in the beam parameter table,
+     * adding them if they are not already there.  The parameters rarely change along a
+     * trajectory, so they are compared with the most recently added set first.
+     *
+     * @param state     state whose beam parameters are recorded
+     *
+     * @return          index of the beam parameters in the beam parameter table
+     */
+    private int internBeam(EnvelopeProbeState state) {
+        double  dblQ  = state.getSpeciesCharge();
+        double  dblEr = state.getSpeciesRestEnergy();
+        double  dblI  = state.getBeamCurrent();
+        double  dblF  = state.getBunchFrequency();
+
+        for (int intId=this.lstBeams.size() - 1; intId>=0; intId--) {
+            double[]    arrBeam = this.lstBeams.get(intId);
+
+            if (arrBeam[0] == dblQ && arrBeam[1] == dblEr && arrBeam[2] == dblI && arrBeam[3] == dblF)
+                return intId;
+        }
+
+        this.lstBeams.add( new double[] { dblQ, dblEr, dblI, dblF } );
+
+        return this.lstBeams.size() - 1;
+    }
+
+    /**
+     * Returns the index of the first state whose position is greater than or equal to the given position.
+     *
+     * @param dblPos    position
+     *
+     * @return          index of the first state at or after the given position, or the number of states if none
+     */
+    private int lowerIndex(double dblPos) {
+        int indLow  = 0;
+        int indHigh = this.cntStates;
+
+        while (indLow < indHigh) {
+            int indMid = (indLow + indHigh) >>> 1;
+
+            if (this.arrPos[indMid] < dblPos)
+                indLow = indMid + 1;
+            else
+                indHigh = indMid;
+        }
+
+        return indLow;
+    }
+
+    /**
+     * Returns the index of the first state whose position is strictly greater than the given position.
+     *
+     * @param dblPos    position
+     *
+     * @return          index of the first state after the given position, or the number of states if none
+     */
+    private int upperIndex(double dblPos) {
+        int indLow  = 0;
+        int indHigh = this.cntStates;
+
+        while (indLow < indHigh) {
+            int indMid = (indLow + indHigh) >>> 1;
+
+            if (this.arrPos[indMid] <= dblPos)
+                indLow = indMid + 1;
+            else
+                indHigh = indMid;
+        }
+
+        return indLow;
+    }
+
+    /**
+     * Returns the offset of the covariance matrix element (<i>i,j</i>) within the
+     * upper triangular storage of a single state.
+     *
+     * @param i     row index
+     * @param j     column index
+     *
+     * @return      offset of the element within the state's covariance terms
+     */
+    private static int covTermOffset(int i, int j) {
+        if (i > j) {
+            int k = i;
+
+            i = j;
+            j = k;
+        }
+
+        return i*INT_COV_SIZE - i*(i - 1)/2 + (j - i);
+    }
+
+    /**
+     * Checks the given state index.
+     *
+     * @param index     state index
+     *
+     * @throws IndexOutOfBoundsException    no state with the given index
+     */
+    private void checkIndex(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= this.cntStates)
+            throw new IndexOutOfBoundsException("ColumnarEnvelopeTrajectory - no state with index " + index + ", size " + this.cntStates);
+    }
+
+    /**
+     * Doubles the capacity of all the columns.
+     */
+    private void growColumns() {
+        int cntCap = 2*this.arrPos.length;
+
+        this.arrPos    = Arrays.copyOf(this.arrPos, cntCap);
+        this.arrTime   = Arrays.copyOf(this.arrTime, cntCap);
+        this.arrPhsLng = Arrays.copyOf(this.arrPhsLng, cntCap);
+        this.arrEnergy = Arrays.copyOf(this.arrEnergy, cntCap);
+        this.arrCov    = Arrays.copyOf(this.arrCov, cntCap*CNT_COV_TERMS);
+        this.arrElemId = Arrays.copyOf(this.arrElemId, cntCap);
+        this.arrTypeId = Arrays.copyOf(this.arrTypeId, cntCap);
+        this.arrSmfId  = Arrays.copyOf(this.arrSmfId, cntCap);
+        this.arrBeamId = Arrays.copyOf(this.arrBeamId, cntCap);
+    }
+
+    /**
+     * Shifts the column values from the given index to the end of the columns up by the
+     * given amount.  The columns must have the capacity for the shift.
+     *
+     * @param index     index of the first state to move
+     * @param cntShift  number of places to move the states
+     */
+    private void shiftColumns(int index, int cntShift) {
+        int cntMove = this.cntStates - index;
+
+        System.arraycopy(this.arrPos, index, this.arrPos, index + cntShift, cntMove);
+        System.arraycopy(this.arrTime, index, this.arrTime, index + cntShift, cntMove);
+        System.arraycopy(this.arrPhsLng, index, this.arrPhsLng, index + cntShift, cntMove);
+        System.arraycopy(this.arrEnergy, index, this.arrEnergy, index + cntShift, cntMove);
+        System.arraycopy(this.arrCov, index*CNT_COV_TERMS, this.arrCov, (index + cntShift)*CNT_COV_TERMS, cntMove*CNT_COV_TERMS);
+        System.arraycopy(this.arrElemId, index, this.arrElemId, index + cntShift, cntMove);
+        System.arraycopy(this.arrTypeId, index, this.arrTypeId, index + cntShift, cntMove);
+        System.arraycopy(this.arrSmfId, index, this.arrSmfId, index + cntShift, cntMove);
+        System.arraycopy(this.arrBeamId, index, this.arrBeamId, index + cntShift, cntMove);
+    }
+}
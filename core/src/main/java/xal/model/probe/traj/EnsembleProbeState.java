@@ -86,7 +86,7 @@ public class EnsembleProbeState extends BunchProbeState<EnsembleProbeState> {
         super(probe);
         this.setFieldCalculation( probe.getFieldCalculation() );
 
-        this.setEnsemble( probe.getEnsemble().deepCopy() );
+        this.setEnsemble( probe.getEnsemble() );
     }
     
     
@@ -109,10 +109,10 @@ public class EnsembleProbeState extends BunchProbeState<EnsembleProbeState> {
      * 
      *  NOTE: the copy operation can be expansive for large <code>Ensemble</code>s
      * 
-     *  @param  ens     <code>Ensemble</code> object to be copied
+     *  @param  ens     <code>Ensemble</code> object to be copied, the copy has the same type
      */
     public void setEnsemble(Ensemble ens) {
-        m_ensPhase = new Ensemble(ens);
+        m_ensPhase = ens.deepCopy();
     }
     
     /**
@@ -6,6 +6,9 @@ package xal.sim.scenario;
 import xal.model.IAlgorithm;
 import xal.model.Lattice;
 import xal.model.ModelException;
+import xal.model.alg.RecordingPolicy;
+import xal.model.alg.Tracker;
+import xal.model.elem.TransferMapCache;
 import xal.model.probe.Probe;
 import xal.model.probe.traj.ProbeState;
 import xal.model.probe.traj.Trajectory;
@@ -18,6 +21,7 @@ import xal.smf.Ring;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import xal.model.IComponent;
 
 
@@ -53,6 +57,15 @@ public class Scenario {
 
     /** Synchronization manager constant for synchronization only to live magnet values */
     public static final String SYNC_MODE_RF_DESIGN = "RF_DESIGN";
+
+    /** 
+     * Synchronization manager constant for live machine synchronization from channel monitors.
+     * The first resync subscribes to the live channels of the synchronized nodes and waits
+     * for their values.  Subsequent resyncs read the latest monitored values without any 
+     * network requests.  The monitors are released when the synchronization mode changes
+     * and the next resync is made, or by <code>{@link #dispose()}</code>.
+     */
+    public static final String SYNC_MODE_LIVE_MONITORED = "LIVE_MONITORED";
     
 
     /*
@@ -146,6 +159,15 @@ public class Scenario {
      */
     private boolean     bolInclStopElem = true;
     
+    /** policy for recording probe states, or <code>null</code> to use the algorithm's own */
+    private RecordingPolicy policyRecord = null;
+    
+    /** copy of the recording policy last installed on the probe's algorithm by this scenario */
+    private RecordingPolicy policyInstalled = null;
+    
+    /** cache of element transfer maps, or <code>null</code> if transfer maps are not cached */
+    private TransferMapCache cacheMaps = null;
+    
     
     /** 
      * Constructor 
@@ -192,6 +214,28 @@ public class Scenario {
     public void resyncFromCache() throws SynchronizationException {
         mgrSync.resyncFromCache();
     }
+
+    
+    /**
+     * Returns the synchronized nodes whose property values may have changed in the
+     * latest resync.  Only the <code>{@link #SYNC_MODE_LIVE_MONITORED}</code> mode tracks
+     * the channel values; the other modes report every synchronized node.
+     * 
+     * @return  the nodes whose values may have changed in the latest resync
+     */
+    public Set<AcceleratorNode> getChangedNodes() {
+        return mgrSync.getChangedNodes();
+    }
+
+
+    /**
+     * Releases the channel monitors held for the
+     * <code>{@link #SYNC_MODE_LIVE_MONITORED}</code> mode.  The scenario remains usable;
+     * a subsequent resync in that mode subscribes to the channels again.
+     */
+    public void dispose() {
+        mgrSync.dispose();
+    }
 	
         
     /**
@@ -292,6 +336,102 @@ public class Scenario {
     }
     
 	
+    /**
+     * Sets the policy determining which probe states are recorded to the trajectory
+     * during a run, for example only the states at selected hardware nodes.  The policy is
+     * given to the probe's tracking algorithm when the scenario is run.  A <code>null</code>
+     * value removes the policy this scenario gave to the algorithm in a previous run, if any,
+     * and otherwise leaves the recording of the algorithm unchanged.
+     * 
+     * @param policy    trajectory recording policy, or <code>null</code> to use the
+     *                  algorithm's own settings
+     *
+     * @since  Oct 18, 2026
+     */
+    public void setRecordingPolicy(final RecordingPolicy policy) {
+        this.policyRecord = policy;
+    }
+    
+    /**
+     * Returns the trajectory recording policy of this scenario.
+     * 
+     * @return  the recording policy, or <code>null</code> if the algorithm's own settings are used
+     *
+     * @since  Oct 18, 2026
+     */
+    public RecordingPolicy getRecordingPolicy() {
+        return this.policyRecord;
+    }
+    
+    /**
+     * <p>
+     * Enables or disables the caching of element transfer maps between runs.  When enabled
+     * a run only computes the transfer maps of the elements whose synchronized parameters
+     * have changed since the previous run (and those of RF gaps and cavities, which are never
+     * cached); the maps of all other elements are reused provided the probe reaches them with
+     * the same energy.  This is effective for repeated runs with a few changed model inputs,
+     * e.g., when scanning a corrector or computing orbit response.
+     * </p>
+     * <p>
+     * Only the trackers which take their transfer maps from the cache benefit, i.e.,
+     * the <code>TransferMapTracker</code>, <code>EnvelopeTracker</code> and 
+     * <code>ParticleTracker</code>.  Element parameters set directly on the lattice rather 
+     * than through synchronization or model inputs are not detected; call 
+     * <code>{@link TransferMapCache#clear()}</code> after such changes.  The cache learns
+     * the parameters of the elements when they are synchronized, so the first resynchronization 
+     * after enabling the cache discards any maps it already holds.
+     * </p>
+     * 
+     * @param bolCaching    <code>true</code> to cache transfer maps, <code>false</code> to
+     *                      discard the cache and compute every transfer map
+     *
+     * @since  Oct 18, 2026
+     */
+    public void setTransferMapCaching(final boolean bolCaching) {
+        if (bolCaching == this.isTransferMapCaching())
+            return;
+        
+        if (bolCaching) {
+            this.cacheMaps = new TransferMapCache();
+            
+        } else {
+            if (this.probe != null && this.probe.getAlgorithm() instanceof Tracker) {
+                Tracker     alg = (Tracker)this.probe.getAlgorithm();
+                
+                if (alg.getTransferMapCache() == this.cacheMaps)
+                    alg.setTransferMapCache(null);
+            }
+            
+            this.cacheMaps = null;
+        }
+        
+        mgrSync.setTransferMapCache(this.cacheMaps);
+    }
+    
+    /**
+     * Indicates whether or not element transfer maps are cached between runs.
+     * 
+     * @return  <code>true</code> if transfer maps are cached
+     *
+     * @since  Oct 18, 2026
+     */
+    public boolean isTransferMapCaching() {
+        return this.cacheMaps != null;
+    }
+    
+    /**
+     * Returns the cache of element transfer maps, for example to inspect its hit
+     * and miss counts.
+     * 
+     * @return  the transfer map cache, or <code>null</code> if caching is disabled
+     *
+     * @since  Oct 18, 2026
+     */
+    public TransferMapCache getTransferMapCache() {
+        return this.cacheMaps;
+    }
+    
+	
 	/**
 	 * Convert the position of a location in the sequence to a position in a trajectory due to 
 	 * a start element offset specified in the scenario.
@@ -331,11 +471,32 @@ public class Scenario {
         } else
             alg.unsetStopElementId();
         
+        if (alg instanceof Tracker) {
+            Tracker     tracker = (Tracker)alg;
+            
+            if (this.policyRecord != null) {
+                this.policyInstalled = this.policyRecord.copy();
+                tracker.setRecordingPolicy( this.policyInstalled );
+                
+            } else if (this.policyInstalled != null) {
+                if (tracker.getRecordingPolicy() == this.policyInstalled)
+                    tracker.setRecordingPolicy( null );
+                
+                this.policyInstalled = null;
+            }
+        }
+        
+        if (this.cacheMaps != null && alg instanceof Tracker)
+            ((Tracker)alg).setTransferMapCache( this.cacheMaps );
+        
         // Propagate probe
         probe.initialize();
         probe.update();
         
         lattice.propagate(probe);
+        
+        if (alg instanceof Tracker)
+            ((Tracker)alg).completePropagation(probe);
     }
     
 	
@@ -572,4 +733,24 @@ public class Scenario {
 	public AcceleratorSeq getSequence() {
 		return smfSeq;
 	}
+	
+	
+	/** 
+	 * Get the synchronization manager for this scenario's lattice
+	 * 
+	 * @return the synchronization manager
+	 */
+	SynchronizationManager getSynchronizationManager() {
+		return mgrSync;
+	}
+	
+	
+	/**
+	 * Get whether propagation includes the stop element.
+	 * 
+	 * @return <code>true</code> if the stop element is included in propagation
+	 */
+	boolean getIncludeStopElement() {
+		return bolInclStopElem;
+	}
 }
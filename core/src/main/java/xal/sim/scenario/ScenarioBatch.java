@@ -0,0 +1,409 @@
+/*
+ * ScenarioBatch.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.sim.scenario;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import xal.model.ModelException;
+import xal.model.alg.RecordingPolicy;
+import xal.model.probe.Probe;
+import xal.model.probe.traj.ProbeState;
+import xal.model.probe.traj.Trajectory;
+import xal.sim.sync.SynchronizationManager;
+import xal.smf.AcceleratorNode;
+import xal.smf.AcceleratorSeq;
+
+/**
+ * <p>
+ * Runs many variations ("what-if" cases) of a template <code>{@link Scenario}</code>
+ * concurrently.  Each case consists of a set of <code>{@link ModelInput}</code> overrides
+ * and an optional initial probe state.  The cases are propagated on a fork-join pool, or on
+ * an executor shared with other batches, and the resulting trajectories are returned in the
+ * order of the cases.
+ * </p>
+ * <p>
+ * Model lattices and probes are not thread safe, so every worker thread runs its cases on
+ * its own scenario.  Worker scenarios are generated from the template's accelerator sequence
+ * once, when first needed, and are reused by all subsequent cases and batches, each keeping
+ * its own transfer map cache when the template caches transfer maps.  A worker
+ * scenario takes its synchronization mode, its cached property values and its model inputs
+ * from the template, so every case starts from exactly the same machine state as the template
+ * without accessing the data source again.  The template is resynchronized once if it does
+ * not yet hold cached values.  Changes made to the template after the batch is created are
+ * not seen by the batch.
+ * </p>
+ * <p>
+ * The initial probe state for a case without an explicit initial state is the current state
+ * of the template probe when the batch was created, so the template probe should be reset
+ * before creating the batch if it has already been run.
+ * </p>
+ *
+ * @param <S>   the probe state type of the template scenario's probe
+ *
+ * @since Oct 18, 2026
+ */
+public class ScenarioBatch<S extends ProbeState<S>> {
+
+    /*
+     * Internal Classes
+     */
+
+    /**
+     * A single case of a batch run: the model input overrides applied on top of the
+     * template's model inputs and, optionally, the initial state of the probe.
+     *
+     * @param <S>   the probe state type
+     */
+    public static class Case<S extends ProbeState<S>> {
+
+        /** model input overrides for this case */
+        private final List<ModelInput>   lstInputs;
+
+        /** initial probe state for this case or <code>null</code> to use the template's state */
+        private S                        stateInit;
+
+
+        /**
+         * Create an empty case which reproduces the template scenario.
+         */
+        public Case() {
+            this.lstInputs = new ArrayList<>();
+            this.stateInit = null;
+        }
+
+        /**
+         * Override the specified node property for this case.
+         *
+         * @param smfNode   node whose property to set
+         * @param strProp   name of the property to set
+         * @param dblVal    value of the property
+         *
+         * @return          this case to allow chaining of calls
+         */
+        public Case<S> addModelInput( final AcceleratorNode smfNode, final String strProp, final double dblVal ) {
+            this.lstInputs.add( new ModelInput(smfNode, strProp, dblVal) );
+
+            return this;
+        }
+
+        /**
+         * Set the state with which the probe starts the propagation for this case.
+         * The state is copied before it is applied, so it may be shared between cases.
+         *
+         * @param stateInit     initial probe state or <code>null</code> to use the template's state
+         *
+         * @return              this case to allow chaining of calls
+         */
+        public Case<S> setInitialState( final S stateInit ) {
+            this.stateInit = stateInit;
+
+            return this;
+        }
+
+        /**
+         * Get the model input overrides of this case.
+         *
+         * @return  unmodifiable list of model input overrides
+         */
+        public List<ModelInput> getModelInputs() {
+            return Collections.unmodifiableList( this.lstInputs );
+        }
+
+        /**
+         * Get the initial probe state of this case.
+         *
+         * @return  the initial probe state or <code>null</code> if the template's state is used
+         */
+        public S getInitialState() {
+            return this.stateInit;
+        }
+    }
+
+
+    /**
+     * Scenario and probe owned by a single worker thread while it runs a case.
+     */
+    private class Worker {
+
+        /** the worker's own model scenario */
+        private final Scenario   mdlScenario;
+
+        /** the worker's own probe */
+        private final Probe<S>   mdlProbe;
+
+
+        /**
+         * Generate a new scenario for the template sequence and initialize it from the template.
+         *
+         * @throws ModelException   unable to generate the scenario
+         */
+        public Worker() throws ModelException {
+            ScenarioGenerator   genScenario = new ScenarioGenerator( mapNodeToElem );
+
+            this.mdlScenario = genScenario.generateScenario( smfSeq );
+            this.mdlProbe    = probeTemplate.copy();
+
+            this.mdlScenario.setProbe( this.mdlProbe );
+            this.mdlScenario.setStartElementId( idStart );
+            this.mdlScenario.setStopElementId( idStop );
+            this.mdlScenario.setIncludeStopElement( bolInclStop );
+            this.mdlScenario.setRecordingPolicy( policyRecord );
+            this.mdlScenario.setTransferMapCaching( bolCacheMaps );
+        }
+
+        /**
+         * Propagate the probe for the given case through this worker's scenario.
+         *
+         * @param caseRun       the case to run
+         *
+         * @return              the trajectory of the probe for the case
+         *
+         * @throws ModelException   synchronization or propagation failure
+         */
+        public Trajectory<S> run( final Case<S> caseRun ) throws ModelException {
+
+            // Restore the template machine state then apply this case's overrides
+            this.mdlScenario.getSynchronizationManager().copySynchronizationStateFrom( mgrSyncTemplate );
+
+            for ( final ModelInput input : caseRun.getModelInputs() ) {
+                this.mdlScenario.setModelInput( input.getAcceleratorNode(), input.getProperty(), input.getDoubleValue() );
+            }
+            this.mdlScenario.resyncFromCache();
+
+            // Make the case's state the initial probe state and reset the probe to it,
+            //  which also resets any algorithm state left over from the previous case
+            S   stateInit = caseRun.getInitialState();
+
+            this.mdlProbe.applyState( stateInit != null ? stateInit : stateTemplate );
+            this.mdlProbe.initialize();
+            this.mdlScenario.resetProbe();
+            this.mdlScenario.run();
+
+            return this.mdlProbe.getTrajectory();
+        }
+    }
+
+
+    /*
+     * Local Attributes
+     */
+
+    /** hardware sequence modeled by the template */
+    private final AcceleratorSeq            smfSeq;
+
+    /** element mapping used to generate the worker scenarios */
+    private final ElementMapping            mapNodeToElem;
+
+    /** private copy of the template's synchronization state */
+    private final SynchronizationManager    mgrSyncTemplate;
+
+    /** private copy of the template probe */
+    private final Probe<S>                  probeTemplate;
+
+    /** initial state of the probe for cases without their own initial state */
+    private final S                         stateTemplate;
+
+    /** propagation start element of the template */
+    private final String                    idStart;
+
+    /** propagation stop element of the template */
+    private final String                    idStop;
+
+    /** whether propagation includes the stop element */
+    private final boolean                   bolInclStop;
+
+    /** trajectory recording policy of the template */
+    private final RecordingPolicy           policyRecord;
+
+    /** whether the worker scenarios cache element transfer maps */
+    private final boolean                   bolCacheMaps;
+
+    /** executor running the cases */
+    private final ExecutorService           poolExec;
+
+    /** whether the executor belongs to this batch and is shut down with it */
+    private final boolean                   bolOwnPool;
+
+    /** workers not currently running a case */
+    private final ConcurrentLinkedQueue<Worker>  queIdleWorkers;
+
+
+    /*
+     * Initialization
+     */
+
+    /**
+     * Create a batch runner for the given template scenario using the accelerator's element
+     * mapping and one worker per available processor.
+     *
+     * @param scnTemplate   template scenario with its probe set
+     *
+     * @throws ModelException   the template has no probe or it could not be synchronized
+     */
+    public ScenarioBatch( final Scenario scnTemplate ) throws ModelException {
+        this( scnTemplate, scnTemplate.getSequence().getAccelerator().getElementMapping(), Runtime.getRuntime().availableProcessors() );
+    }
+
+    /**
+     * Create a batch runner for the given template scenario.  The element mapping must be
+     * the one used to generate the template for the worker scenarios to model the same lattice.
+     *
+     * @param scnTemplate   template scenario with its probe set
+     * @param mapNodeToElem element mapping used to generate the worker scenarios
+     * @param cntThreads    maximum number of cases to run concurrently
+     *
+     * @throws ModelException   the template has no probe or it could not be synchronized
+     */
+    public ScenarioBatch( final Scenario scnTemplate, final ElementMapping mapNodeToElem, final int cntThreads ) throws ModelException {
+        this( scnTemplate, mapNodeToElem, new ForkJoinPool( cntThreads ), true );
+    }
+
+    /**
+     * Create a batch runner for the given template scenario whose cases run on the given
+     * executor.  The executor may be shared by several batches to bound the number of cases
+     * run concurrently by all of them.  It is not shut down when the batch is disposed.
+     *
+     * @param scnTemplate   template scenario with its probe set
+     * @param mapNodeToElem element mapping used to generate the worker scenarios
+     * @param execCases     executor running the cases
+     *
+     * @throws ModelException   the template has no probe or it could not be synchronized
+     */
+    public ScenarioBatch( final Scenario scnTemplate, final ElementMapping mapNodeToElem, final ExecutorService execCases ) throws ModelException {
+        this( scnTemplate, mapNodeToElem, execCases, false );
+    }
+
+    /**
+     * Create a batch runner for the given template scenario whose cases run on the given executor.
+     *
+     * @param scnTemplate   template scenario with its probe set
+     * @param mapNodeToElem element mapping used to generate the worker scenarios
+     * @param execCases     executor running the cases
+     * @param bolOwnPool    whether the executor is shut down when the batch is disposed
+     *
+     * @throws ModelException   the template has no probe or it could not be synchronized
+     */
+    private ScenarioBatch( final Scenario scnTemplate, final ElementMapping mapNodeToElem, final ExecutorService execCases, final boolean bolOwnPool ) throws ModelException {
+        if ( scnTemplate.getProbe() == null )
+            throw new ModelException( "ScenarioBatch - the template scenario must have a probe" );
+
+        @SuppressWarnings( "unchecked" )
+        Probe<S>    probe = (Probe<S>) scnTemplate.getProbe();
+
+        // Make sure the template's cache holds the machine state
+        SynchronizationManager  mgrSync = scnTemplate.getSynchronizationManager();
+
+        if ( !mgrSync.hasCachedValues() )
+            mgrSync.resync();
+
+        this.mgrSyncTemplate = new SynchronizationManager();
+        this.mgrSyncTemplate.copySynchronizationStateFrom( mgrSync );
+
+        this.smfSeq        = scnTemplate.getSequence();
+        this.mapNodeToElem = mapNodeToElem;
+        this.probeTemplate = probe.copy();
+        this.stateTemplate = probe.cloneCurrentProbeState();
+        this.idStart       = scnTemplate.getStartElementId();
+        this.idStop        = scnTemplate.getStopElementId();
+        this.bolInclStop   = scnTemplate.getIncludeStopElement();
+        this.policyRecord  = scnTemplate.getRecordingPolicy();
+        this.bolCacheMaps  = scnTemplate.isTransferMapCaching();
+
+        this.poolExec       = execCases;
+        this.bolOwnPool     = bolOwnPool;
+        this.queIdleWorkers = new ConcurrentLinkedQueue<>();
+    }
+
+
+    /*
+     * Operations
+     */
+
+    /**
+     * Run all the given cases concurrently and wait for them to complete.
+     *
+     * @param lstCases  cases to run
+     *
+     * @return          the trajectory of each case in the same order as the cases
+     *
+     * @throws ModelException   one of the cases failed (the first failure in case order is reported)
+     */
+    public List<Trajectory<S>> run( final List<Case<S>> lstCases ) throws ModelException {
+        List<Callable<Trajectory<S>>>    lstTasks = new ArrayList<>( lstCases.size() );
+
+        for ( final Case<S> caseRun : lstCases ) {
+            lstTasks.add( () -> this.runCase( caseRun ) );
+        }
+
+        List<Trajectory<S>>  lstTrajs = new ArrayList<>( lstCases.size() );
+
+        try {
+            List<Future<Trajectory<S>>>  lstFutures = this.poolExec.invokeAll( lstTasks );
+
+            for ( final Future<Trajectory<S>> future : lstFutures ) {
+                lstTrajs.add( future.get() );
+            }
+
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new ModelException( "ScenarioBatch#run - interrupted while waiting for the cases" );
+
+        } catch ( ExecutionException e ) {
+            Throwable   cause = e.getCause();
+
+            if ( cause instanceof ModelException )
+                throw (ModelException)cause;
+            if ( cause instanceof Error )
+                throw (Error)cause;
+
+            throw new ModelException( "ScenarioBatch#run - case failed: " + cause.getMessage(), (Exception)cause );
+        }
+
+        return lstTrajs;
+    }
+
+    /**
+     * Run a single case on an idle worker, generating a new worker if none is idle.
+     *
+     * @param caseRun   case to run
+     *
+     * @return          trajectory of the case
+     *
+     * @throws ModelException   unable to generate a worker or to run the case
+     */
+    private Trajectory<S> runCase( final Case<S> caseRun ) throws ModelException {
+        Worker  worker = this.queIdleWorkers.poll();
+
+        if ( worker == null )
+            worker = new Worker();
+
+        try {
+            return worker.run( caseRun );
+
+        } finally {
+            this.queIdleWorkers.offer( worker );
+        }
+    }
+
+    /**
+     * Shut down the worker threads, unless the executor was given to the batch, and release
+     * the worker scenarios.  The batch cannot be run after it has been disposed.
+     */
+    public void dispose() {
+        if ( this.bolOwnPool )
+            this.poolExec.shutdown();
+        this.queIdleWorkers.clear();
+    }
+}
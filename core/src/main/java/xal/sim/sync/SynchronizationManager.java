@@ -9,6 +9,7 @@ import java.util.logging.Logger;
 
 import xal.model.IComponent;
 import xal.model.elem.IdealPermMagQuad;
+import xal.model.elem.TransferMapCache;
 import xal.model.elem.sync.IElectromagnet;
 import xal.model.elem.sync.IRfCavity;
 import xal.sim.scenario.ModelInput;
@@ -48,6 +49,7 @@ public class SynchronizationManager {
 		SynchronizationManager.syncModes.add(Scenario.SYNC_MODE_LIVE);
 		SynchronizationManager.syncModes.add(Scenario.SYNC_MODE_DESIGN);
 		SynchronizationManager.syncModes.add(Scenario.SYNC_MODE_RF_DESIGN);
+		SynchronizationManager.syncModes.add(Scenario.SYNC_MODE_LIVE_MONITORED);
 	}
 
 
@@ -71,6 +73,9 @@ public class SynchronizationManager {
 
 	private String syncMode = SynchronizationManager.DEFAULT_SYNC_MODE;
 
+	/** optional cache of transfer maps told about every parameter change */
+	private TransferMapCache transferMapCache;
+
 
 	// Public State ============================================================
 
@@ -87,6 +92,21 @@ public class SynchronizationManager {
 	}
 
 
+	/**
+	 * Set the transfer map cache whose entries are invalidated when a resync changes the parameters of a component.
+	 * @param cache the transfer map cache or null for none
+	 */
+	public void setTransferMapCache( final TransferMapCache cache ) {
+		transferMapCache = cache;
+	}
+
+
+	/** Get the transfer map cache notified of parameter changes (may be null) */
+	public TransferMapCache getTransferMapCache() {
+		return transferMapCache;
+	}
+
+
 	// Constructors ============================================================
 
 	public SynchronizationManager() {
@@ -104,7 +124,7 @@ public class SynchronizationManager {
 			final Map<String,Double> valueMap = propertyAccessor.valueMapFor( node );
 
 			for ( final IComponent component : synchronizedNodeComps.get( node ) ) {
-				resync(component, valueMap);
+				resyncComponent( component, valueMap );
 			}
 		}
 	}
@@ -115,12 +135,48 @@ public class SynchronizationManager {
 		for ( final AcceleratorNode node : synchronizedNodeComps.keySet() ) {
 			final Map<String,Double> valueMap = propertyAccessor.getWhatifValueMapFromCache( node );
 			for ( final IComponent component : synchronizedNodeComps.get( node ) ) {
-				resync(component, valueMap );
+				resyncComponent( component, valueMap );
 			}
 		}
 	}
 
 
+	/**
+	 * Get the synchronized nodes whose property values may have changed in the latest resync relative to the previous one.
+	 * In the monitored live mode these are the nodes with a channel whose value changed. In the other modes every synchronized
+	 * node is reported. Model inputs are not considered.
+	 * @return the nodes whose values may have changed
+	 */
+	public Set<AcceleratorNode> getChangedNodes() {
+		return propertyAccessor.getChangedNodes();
+	}
+
+
+	/** Release the channel monitors held for the monitored live mode. A subsequent resync in that mode subscribes again. */
+	public void dispose() {
+		propertyAccessor.dispose();
+	}
+
+
+	/** Determine whether every synchronized node has property values cached from a previous resync */
+	public boolean hasCachedValues() {
+		return propertyAccessor.hasCachedValuesFor( synchronizedNodeComps.keySet() );
+	}
+
+
+	/**
+	 * Copy the synchronization mode, the cached property values and the model inputs of the specified manager into this one.
+	 * The source manager must synchronize the same accelerator nodes (e.g. a manager generated for the same sequence).
+	 * A subsequent call to <code>resyncFromCache()</code> then synchronizes this manager's components to the same values
+	 * as the source without accessing the data source again.
+	 * @param source the manager whose synchronization state to copy
+	 */
+	public void copySynchronizationStateFrom( final SynchronizationManager source ) {
+		syncMode = source.syncMode;
+		propertyAccessor.copyCacheAndInputsFrom( source.propertyAccessor );
+	}
+
+
 	/**
 	 * Synchronizes anElem to the property values contained in valueMap.
 	 * @param aComp element to synchronize
@@ -131,6 +187,12 @@ public class SynchronizationManager {
 		synchronizer.resync(aComp, valueMap );
 	}
 
+	/** Synchronize the component and let the transfer map cache (if any) discard the component's maps if its parameters changed */
+	private void resyncComponent( final IComponent aComp, final Map<String,Double> valueMap ) throws SynchronizationException {
+		if ( transferMapCache != null )  transferMapCache.updateParameters( aComp, valueMap );
+		resync( aComp, valueMap );
+	}
+
 	/**
 	 * Creates a synchronization between the specified element and accelerator
 	 * node.  Request is ignored if there is no synchronizer for the specified
@@ -376,7 +376,10 @@ public abstract class AcceleratorNode implements /* IElement, */ ElementType, Da
     void     setEId(String value)         { m_strEId = value; }
 
     /** set the position of this accelerator node within its parent sequence */
-	public void setPosition( final double position )  { m_dblPos = position; };
+	public void setPosition( final double position )  {
+		m_dblPos = position;
+		AcceleratorSeq.structureChanged();
+	};
 
 
 	/** set the length of this accelerator node  */
@@ -582,6 +585,7 @@ public abstract class AcceleratorNode implements /* IElement, */ ElementType, Da
     protected void  setParent(AcceleratorSeq parent)   {
         removeFromParent();
         m_seqParent = parent;
+        AcceleratorSeq.structureChanged();
     };
 
     /**
@@ -37,7 +37,7 @@ public final class AcceleratorNodeFactory {
 		this.CHANNEL_FACTORY = channelFactory != null ? channelFactory : ChannelFactory.defaultFactory();
 
 		_constructors = new HashMap<String,Constructor<? extends Object>>();
-		_classTable = new HashMap<String,Class<?>>();
+		_classTable = Collections.synchronizedMap( new HashMap<String,Class<?>>() );	// synchronized since nodes may be created concurrently
 	}
 
 
@@ -6,6 +6,8 @@ import xal.smf.attr.*;
 import xal.ca.ChannelFactory;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 import java.util.logging.*;
 
 
@@ -20,6 +22,12 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
 	/** indicates the node type as being a sequence */
     public static final String    s_strType = "sequence";
 
+	/** structure version of all sequences which changes whenever a node is added, removed or moved */
+	static final private AtomicLong STRUCTURE_VERSION = new AtomicLong();
+
+	/** number of lookups at an unchanged structure version after which the node index is made */
+	static final private int INDEX_LOOKUP_THRESHOLD = 8;
+
     /**    bucket for sequence parameters  */
     protected SequenceBucket   m_bucSequence;
 
@@ -31,6 +39,15 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
 	
 	/** Container of immediate subsequences */
 	protected List<AcceleratorSeq> _sequences;
+
+	/** index of the deeply nested nodes for fast lookup by ID, position and range */
+	private volatile NodeIndex _nodeIndex;
+
+	/** structure version at which lookups without a current node index are being counted */
+	private long _lookupVersion = -1;
+
+	/** number of lookups without a current node index at the lookup version */
+	private int _lookupCount;
   
     
     /*
@@ -77,7 +94,10 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
         
         // read all child sequences
         final List<DataAdaptor> sequenceAdaptors = adaptor.childAdaptors( "sequence" );
-        for ( final DataAdaptor sequenceAdaptor : sequenceAdaptors ) {
+		// the top level sequences are independent of one another so the new ones are built concurrently and added in order
+		final AcceleratorNode[] newSequences = this == accelerator ? buildNewSequences( sequenceAdaptors, accelerator, nodeFactory ) : null;
+        for ( int index = 0 ; index < sequenceAdaptors.size() ; index++ ) {
+			final DataAdaptor sequenceAdaptor = sequenceAdaptors.get( index );
             try {
 				if ( sequenceAdaptor.hasAttribute( "exclude" ) ) {
 					if ( sequenceAdaptor.booleanValue( "exclude" ) ) {
@@ -89,7 +109,13 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
 						continue;
 					}
 				}
-                addChildSequence( sequenceAdaptor, accelerator, nodeFactory );
+				// add the new sequence unless a preceding sequence has since supplied a node with the same ID to update instead
+				if ( newSequences != null && newSequences[index] != null && getNodeWithId( sequenceAdaptor.stringValue( "id" ) ) == null ) {
+					addNode( newSequences[index] );
+				}
+				else {
+					addChildSequence( sequenceAdaptor, accelerator, nodeFactory );
+				}
             }
             catch ( ClassNotFoundException exception ) {
 				final String message = "Error reading child sequence for parent: " + m_strId;
@@ -123,6 +149,45 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
     }
     
     
+	/**
+	 * Concurrently create and update the sequences which are new to this sequence. Excluded sequences, sequences which
+	 * update existing nodes and sequences which fail to build are left to be read serially as usual.
+	 * @param sequenceAdaptors adaptors of the child sequences
+	 * @param accelerator the accelerator to which the sequences belong
+	 * @param nodeFactory factory for creating sequences of a specific type
+	 * @return the new sequences in the order of the adaptors with null for the sequences to read serially
+	 */
+	private AcceleratorNode[] buildNewSequences( final List<DataAdaptor> sequenceAdaptors, final Accelerator accelerator, final AcceleratorNodeFactory nodeFactory ) {
+		final int count = sequenceAdaptors.size();
+		final AcceleratorNode[] sequences = new AcceleratorNode[count];
+		if ( count < 2 )  return sequences;
+
+		// determine which sequences are new before building any since lookups of this sequence are not thread safe
+		final boolean[] isNew = new boolean[count];
+		for ( int index = 0 ; index < count ; index++ ) {
+			final DataAdaptor sequenceAdaptor = sequenceAdaptors.get( index );
+			isNew[index] = !sequenceAdaptor.hasAttribute( "exclude" ) && getNodeWithId( sequenceAdaptor.stringValue( "id" ) ) == null;
+		}
+
+		// build on the common pool rather than a dispatch queue whose processing thread would keep every application that loads an accelerator alive
+		IntStream.range( 0, count ).parallel().filter( index -> isNew[index] ).forEach( index -> {
+			final DataAdaptor sequenceAdaptor = sequenceAdaptors.get( index );
+			try {
+				final String sequenceType = sequenceAdaptor.stringValue( "type" );
+				final AcceleratorNode sequence = sequenceType == null || sequenceType.isEmpty() ? new AcceleratorSeq( sequenceAdaptor.stringValue( "id" ) ) : nodeFactory.createNode( sequenceAdaptor );
+				sequence.setAccelerator( accelerator );
+				sequence.update( sequenceAdaptor );
+				sequences[index] = sequence;
+			}
+			catch ( Exception exception ) {
+				// leave the sequence to be read serially which reports the error
+			}
+		});
+
+		return sequences;
+	}
+
+
     /** support for dataListener */
     private void addChildSequence( final DataAdaptor sequenceAdaptor, final Accelerator accelerator, final AcceleratorNodeFactory nodeFactory ) throws ClassNotFoundException {
         String sequenceType = sequenceAdaptor.stringValue( "type" );
@@ -229,6 +294,38 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
 	}
 
 
+	/** Signal that a node has been added, removed or moved which invalidates the node index of every sequence. */
+	static void structureChanged() {
+		STRUCTURE_VERSION.incrementAndGet();
+	}
+
+
+	/**
+	 * Get the index of the nodes nested within this sequence for the current structure. The index is made on demand
+	 * and reused until a node is added, removed or moved anywhere.
+	 * @param immediate true to make the index now if necessary or false to make it only after several lookups at the
+	 * same structure since searching is cheaper while the nodes are changing (e.g. while loading the accelerator)
+	 * @return the current node index or null if it has been deferred
+	 */
+	private NodeIndex getNodeIndex( final boolean immediate ) {
+		final long version = STRUCTURE_VERSION.get();
+		final NodeIndex index = _nodeIndex;
+		if ( index != null && index.getVersion() == version )  return index;
+
+		if ( !immediate ) {
+			if ( _lookupVersion != version ) {
+				_lookupVersion = version;
+				_lookupCount = 0;
+			}
+			if ( ++_lookupCount < INDEX_LOOKUP_THRESHOLD )  return null;
+		}
+
+		final NodeIndex newIndex = new NodeIndex( this, version );
+		_nodeIndex = newIndex;
+		return newIndex;
+	}
+
+
     /** returns the number of nodes in this sequence */
     public int getNodeCount() { return getNodes().size(); }
 
@@ -280,6 +377,7 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
 			if ( newNode instanceof AcceleratorSeq ) { 
 				_sequences.add( (AcceleratorSeq)newNode );
 			}
+			structureChanged();
             return true;
         }
         catch( IndexOutOfBoundsException exception ) {
@@ -301,6 +399,7 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
         this.setAccelerator( node.getAccelerator() ); // set to the same accelerator as added node
  
         this.m_bolIsSoft = true;
+		structureChanged();
         return true;
     };
     
@@ -325,6 +424,7 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
         // Set new parent sequence
         node.setParent( this );
         node.setAccelerator( this.getAccelerator() );
+		structureChanged();
     }
     
 	
@@ -344,6 +444,7 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
 		
         node.setParent( null );
         node.setAccelerator( null );
+		structureChanged();
 
         return true;
     }
@@ -361,6 +462,7 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
         m_arrNodes.clear();
 		_sequences.clear();
 		nodeTable.clear();
+		structureChanged();
     }
 
     
@@ -370,6 +472,9 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
 	 * @return the node corresponding to the requested id or null if no such node is found.
 	 */    
     public AcceleratorNode getNodeWithId( final String label ) {
+		final NodeIndex index = getNodeIndex( false );
+		if ( index != null )  return index.getNode( label );
+
 		// check if this node is itself a match
 		if ( getId().equals( label ) ) {
 			return this;
@@ -646,6 +751,44 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
 	public List<AcceleratorNode> getAllNodes( final boolean statusFilter ) {
 		return filterNodesByStatus( getAllNodes(), statusFilter );
 	}
+
+
+	/**
+	 * Fetch all nodes contained in this sequence looking deeply through its nested child sequences whose positions
+	 * relative to this sequence are within the specified range.
+	 * @param startPosition the start of the range (inclusive)
+	 * @param endPosition the end of the range (inclusive)
+	 * @return the list of nodes within the range sorted by position
+	 */
+	public List<AcceleratorNode> getAllNodesInRange( final double startPosition, final double endPosition ) {
+		return getNodeIndex( true ).getNodesInRange( startPosition, endPosition );
+	}
+
+
+	/**
+	 * Fetch all nodes of the specified class contained in this sequence looking deeply through its nested child sequences
+	 * whose positions relative to this sequence are within the specified range.
+	 * @param resultClass filters the returned nodes to those which can be cast to this class
+	 * @param startPosition the start of the range (inclusive)
+	 * @param endPosition the end of the range (inclusive)
+	 * @return the list of nodes within the range sorted by position
+	 */
+	public <NodeType extends AcceleratorNode> List<NodeType> getAllNodesOfClassInRange( final Class<NodeType> resultClass, final double startPosition, final double endPosition ) {
+		return filterNodesByClass( resultClass, getAllNodesInRange( startPosition, endPosition ) );
+	}
+
+
+	/**
+	 * Fetch all nodes matching the qualifier contained in this sequence looking deeply through its nested child sequences
+	 * whose positions relative to this sequence are within the specified range.
+	 * @param qualifier the qualifier for filtering the nodes
+	 * @param startPosition the start of the range (inclusive)
+	 * @param endPosition the end of the range (inclusive)
+	 * @return the list of nodes within the range sorted by position
+	 */
+	public <NodeType extends AcceleratorNode> List<NodeType> getAllNodesWithQualifierInRange( final TypeQualifier qualifier, final double startPosition, final double endPosition ) {
+		return appendNodesWithQualifier( new ArrayList<NodeType>(), getAllNodesInRange( startPosition, endPosition ), qualifier );
+	}
 	
 	
     /**
@@ -828,13 +971,29 @@ public class AcceleratorSeq extends AcceleratorNode implements DataListener {
      * @param node - the node for which the position is wanted
      */
     public double getPosition( final AcceleratorNode node )  {
+		final NodeIndex index = getNodeIndex( false );
+		if ( index != null ) {
+			final Double position = index.getPosition( node );
+			if ( position != null )  return position;
+		}
+
+		return computePosition( node );
+    }
+
+
+    /**
+     * Compute the position of a node in the sequence without the node index, including the possible offset of a local sequence containing the node.
+     * Subclasses which locate nodes differently should override this method rather than getPosition().
+     * @param node - the node for which the position is wanted
+     */
+    protected double computePosition( final AcceleratorNode node )  {
 		if ( node == this )  return 0.0;	// case of a sequence itself.
 
 		final AcceleratorSeq parent = node.getParent();
 	
 		// If this sequence is not the node's parent sequence then add the parent sequence's position.
-		// Calling "getPosition()" takes care of nested sequences.
-		return ( parent == this ) ? node.m_dblPos : node.m_dblPos + getPosition( parent );
+		// Calling "computePosition()" takes care of nested sequences.
+		return ( parent == this ) ? node.m_dblPos : node.m_dblPos + computePosition( parent );
     }
 	
 	
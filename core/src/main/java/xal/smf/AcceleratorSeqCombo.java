@@ -282,7 +282,7 @@ public class AcceleratorSeqCombo extends AcceleratorSeq {
      *
      * @param node - the node for which the position is wanted
      */
-    public double getPosition( final AcceleratorNode node ) {
+    protected double computePosition( final AcceleratorNode node ) {
     	if (node == this) return m_dblPos;
         if( m_arrNodes == null || m_arrNodes.isEmpty() )  return m_dblPos + node.m_dblPos;
 
@@ -0,0 +1,146 @@
+package xal.smf;
+
+import java.util.*;
+
+
+/**
+ * Snapshot of the nodes nested within a sequence providing the lookup of nodes by ID, the positions of the nodes
+ * relative to the sequence and the nodes within a range of positions. The snapshot is tagged with the structure
+ * version of the sequences from which it was made, so it must be discarded once the version changes.
+ */
+final class NodeIndex {
+	/** structure version of the sequences when this index was made */
+	final private long VERSION;
+
+	/** table of the deeply nested nodes keyed by ID */
+	final private Map<String,AcceleratorNode> NODE_TABLE;
+
+	/** positions of the deeply nested nodes relative to the indexed sequence */
+	final private Map<AcceleratorNode,Double> POSITION_TABLE;
+
+	/** deeply nested nodes sorted by position */
+	final private AcceleratorNode[] SORTED_NODES;
+
+	/** positions of the sorted nodes */
+	final private double[] SORTED_POSITIONS;
+
+
+	/**
+	 * Constructor
+	 * @param sequence the sequence to index
+	 * @param version the structure version of the sequences
+	 */
+	public NodeIndex( final AcceleratorSeq sequence, final long version ) {
+		VERSION = version;
+
+		NODE_TABLE = new HashMap<String,AcceleratorNode>();
+		putNodes( sequence );
+
+		final List<AcceleratorNode> nodes = sequence.getAllNodes();
+		final int count = nodes.size();
+		final AcceleratorNode[] allNodes = nodes.toArray( new AcceleratorNode[count] );
+		final double[] positions = new double[count];
+		final Integer[] order = new Integer[count];
+		POSITION_TABLE = new IdentityHashMap<AcceleratorNode,Double>( count );
+		for ( int index = 0 ; index < count ; index++ ) {
+			positions[index] = sequence.computePosition( allNodes[index] );
+			order[index] = index;
+			POSITION_TABLE.put( allNodes[index], positions[index] );
+		}
+
+		// stable sort keeps nodes at the same position in the order of the sequence
+		Arrays.sort( order, new Comparator<Integer>() {
+			public int compare( final Integer index1, final Integer index2 ) {
+				return Double.compare( positions[index1], positions[index2] );
+			}
+		});
+		SORTED_NODES = new AcceleratorNode[count];
+		SORTED_POSITIONS = new double[count];
+		for ( int index = 0 ; index < count ; index++ ) {
+			SORTED_NODES[index] = allNodes[order[index]];
+			SORTED_POSITIONS[index] = positions[order[index]];
+		}
+	}
+
+
+	/**
+	 * Put the sequence and its nested nodes into the node table in the order that AcceleratorSeq.getNodeWithId()
+	 * searches for them, so the first node with an ID is the one that the search would find.
+	 * @param sequence the sequence whose nodes to put into the table
+	 */
+	private void putNodes( final AcceleratorSeq sequence ) {
+		NODE_TABLE.putIfAbsent( sequence.getId(), sequence );
+		for ( final AcceleratorNode node : sequence.nodeTable.values() ) {
+			NODE_TABLE.putIfAbsent( node.getId(), node );
+		}
+		for ( final AcceleratorSeq child : sequence.getSequences() ) {
+			putNodes( child );
+		}
+	}
+
+
+	/** Get the structure version of the sequences when this index was made */
+	public long getVersion() {
+		return VERSION;
+	}
+
+
+	/**
+	 * Get the node with the specified ID.
+	 * @param nodeID the ID of the node
+	 * @return the node with the ID or null if there is none
+	 */
+	public AcceleratorNode getNode( final String nodeID ) {
+		return NODE_TABLE.get( nodeID );
+	}
+
+
+	/**
+	 * Get the position of the node relative to the indexed sequence.
+	 * @param node the node whose position is sought
+	 * @return the position of the node or null if the node is not nested within the indexed sequence
+	 */
+	public Double getPosition( final AcceleratorNode node ) {
+		return POSITION_TABLE.get( node );
+	}
+
+
+	/**
+	 * Get the nodes within the specified range of positions relative to the indexed sequence.
+	 * @param startPosition the start of the range (inclusive)
+	 * @param endPosition the end of the range (inclusive)
+	 * @return the nodes within the range sorted by position
+	 */
+	public List<AcceleratorNode> getNodesInRange( final double startPosition, final double endPosition ) {
+		final int startIndex = indexOfPosition( startPosition, false );
+		final int endIndex = indexOfPosition( endPosition, true );
+
+		final List<AcceleratorNode> nodes = new ArrayList<AcceleratorNode>( Math.max( endIndex - startIndex, 0 ) );
+		for ( int index = startIndex ; index < endIndex ; index++ ) {
+			nodes.add( SORTED_NODES[index] );
+		}
+		return nodes;
+	}
+
+
+	/**
+	 * Get the index of the first sorted node past the specified position.
+	 * @param position the position to search
+	 * @param inclusive true to skip nodes at the position and false to stop at them
+	 * @return the index of the first node past the position
+	 */
+	private int indexOfPosition( final double position, final boolean inclusive ) {
+		int lower = 0;
+		int upper = SORTED_POSITIONS.length;
+		while ( lower < upper ) {
+			final int middle = ( lower + upper ) >>> 1;
+			if ( SORTED_POSITIONS[middle] < position || ( inclusive && SORTED_POSITIONS[middle] == position ) ) {
+				lower = middle + 1;
+			}
+			else {
+				upper = middle;
+			}
+		}
+		return lower;
+	}
+}
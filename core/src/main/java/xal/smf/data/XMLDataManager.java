@@ -30,6 +30,7 @@ import xal.tools.URLUtil;
 import xal.tools.data.DataAdaptor;
 import xal.tools.data.EditContext;
 import xal.tools.xml.XmlDataAdaptor;
+import xal.tools.xml.XmlStreamDataAdaptor;
 import xal.tools.xml.XmlTableIO;
 
 
@@ -732,13 +733,23 @@ public class XMLDataManager {
         /** Parse the accelerator from the optics URL with the specified DTD validation flag */
         public Accelerator getAccelerator( final boolean isValidating ) throws XmlDataAdaptor.ParseException {        	
             String absoluteUrlSpec = absoluteUrlSpec( opticsUrlSpec );
-            XmlDataAdaptor adaptor = XmlDataAdaptor.adaptorForUrl( absoluteUrlSpec, isValidating, xdxfSchema );
-			
-            Document document = adaptor.document();
-            DocumentType docType = document.getDoctype();            
-			if (docType != null) dtdUrlSpec = docType.getSystemId();                        
-            
-            DataAdaptor accelAdaptor = adaptor.childAdaptor( acceleratorTag );
+            final DataAdaptor accelAdaptor;
+            if ( isValidating ) {
+                XmlDataAdaptor adaptor = XmlDataAdaptor.adaptorForUrl( absoluteUrlSpec, isValidating, xdxfSchema );
+
+                Document document = adaptor.document();
+                DocumentType docType = document.getDoctype();
+                if (docType != null) dtdUrlSpec = docType.getSystemId();
+
+                accelAdaptor = adaptor.childAdaptor( acceleratorTag );
+            }
+            else {
+                // stream the optics since building a DOM for a large optics file takes much longer and far more memory
+                XmlStreamDataAdaptor adaptor = XmlStreamDataAdaptor.adaptorForUrl( absoluteUrlSpec );
+                if ( adaptor.getDocumentTypeSystemId() != null )  dtdUrlSpec = adaptor.getDocumentTypeSystemId();
+
+                accelAdaptor = adaptor.childAdaptor( acceleratorTag );
+            }
             Accelerator accelerator = new Accelerator( CHANNEL_FACTORY );
 			
 			accelerator.setNodeFactory( DEVICE_MANAGER.getNodeFactory() );
@@ -786,7 +797,7 @@ public class XMLDataManager {
         /** update the accelerator with data from the optics URL with a DTD validation flag */
         public void updateAccelerator( final String urlSpec, final Accelerator accelerator, final boolean isValidating ) throws XmlDataAdaptor.ParseException {
             String absoluteUrlSpec = absoluteUrlSpec( urlSpec );
-            XmlDataAdaptor adaptor = XmlDataAdaptor.adaptorForUrl( absoluteUrlSpec, isValidating,  xdxfSchema );
+            DataAdaptor adaptor = isValidating ? XmlDataAdaptor.adaptorForUrl( absoluteUrlSpec, isValidating,  xdxfSchema ) : XmlStreamDataAdaptor.adaptorForUrl( absoluteUrlSpec );
             
             String acceleratorTag = accelerator.dataLabel();
             
@@ -2805,9 +2805,7 @@ public class WireScanner extends ProfileDevice {
         private Trace(WireScanner ws) throws ScadaAnnotationException, ConnectionException, GetException, BadStructException {
             super();
 
-            this.dia.loadHardwareValues(ws);
-            this.ver.loadHardwareValues(ws);
-            this.hor.loadHardwareValues(ws);
+            this.loadHardwareValues(ws);
         }
     }
 
@@ -6,8 +6,10 @@
  */
 package xal.smf.impl.profile;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import xal.ca.ConnectionException;
 import xal.ca.GetException;
@@ -15,6 +17,7 @@ import xal.tools.data.DataAdaptor;
 import xal.tools.data.DataListener;
 import xal.smf.AcceleratorNode;
 import xal.smf.scada.ScadaFieldDescriptor;
+import xal.smf.scada.ScadaRecord;
 
 
 /**
@@ -455,9 +458,12 @@ public abstract class SignalAttrSet implements DataListener {
     protected SignalAttrSet(AcceleratorNode  ws) throws ConnectionException, GetException {
         this();
 
-        this.hor.loadHardwareValues(ws);
-        this.ver.loadHardwareValues(ws);
-        this.dia.loadHardwareValues(ws);
+        Map<ScadaRecord, AcceleratorNode>   mapAttDev = new HashMap<ScadaRecord, AcceleratorNode>();
+        mapAttDev.put(this.hor, ws);
+        mapAttDev.put(this.ver, ws);
+        mapAttDev.put(this.dia, ws);
+
+        ScadaRecord.loadHardwareValues(mapAttDev);
     }
 
 }
@@ -14,9 +14,12 @@ import xal.smf.impl.WireScanner;
 import xal.smf.scada.BadStructException;
 import xal.smf.scada.ScadaAnnotationException;
 import xal.smf.scada.ScadaFieldDescriptor;
+import xal.smf.scada.ScadaRecord;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.MissingResourceException;
 
 /**
@@ -256,9 +259,12 @@ public abstract class SignalSet implements DataListener {
     public void loadHardwareValues(ProfileDevice smfDev) 
             throws BadStructException, ConnectionException, GetException 
     {
-        this.hor.loadHardwareValues(smfDev);
-        this.ver.loadHardwareValues(smfDev);
-        this.dia.loadHardwareValues(smfDev);
+        Map<ScadaRecord, ProfileDevice>     mapSigDev = new HashMap<ScadaRecord, ProfileDevice>();
+        mapSigDev.put(this.hor, smfDev);
+        mapSigDev.put(this.ver, smfDev);
+        mapSigDev.put(this.dia, smfDev);
+
+        ScadaRecord.loadHardwareValues(mapSigDev);
     }
     
     /**
@@ -31,20 +31,58 @@ public class PrimaryPropertyAccessor {
 
 	/** batch accessor for node properties */
 	private BatchPropertyAccessor _batchAccessor;
+
+	/** synchronization mode of the batch accessor */
+	private String _batchSyncMode;
+
+	/** nodes whose values may have changed in the latest request */
+	private Set<AcceleratorNode> _changedNodes;
 	
 	
 	/** Constructor */
 	public PrimaryPropertyAccessor() {
 		PROPERTY_VALUE_CACHE = new HashMap<>();
 		_batchAccessor = BatchPropertyAccessor.getInstance( Scenario.SYNC_MODE_DESIGN );
+		_batchSyncMode = Scenario.SYNC_MODE_DESIGN;
+		_changedNodes = Collections.<AcceleratorNode>emptySet();
 	}
 
 
-	/** request values for the nodes and the specified sync mode */
+	/** 
+	 * Request values for the nodes and the specified sync mode. The batch accessor is kept between requests in the same mode
+	 * so the monitored live mode subscribes to each channel only once. Changing the mode disposes of the previous batch accessor.
+	 */
 	public void requestValuesForNodes( final Collection<AcceleratorNode> nodes, final String syncMode ) {
-		final BatchPropertyAccessor batchAccessor = BatchPropertyAccessor.getInstance( syncMode );
-		batchAccessor.requestValuesForNodes( nodes );
-		_batchAccessor = batchAccessor;
+		if ( !syncMode.equals( _batchSyncMode ) ) {
+			final BatchPropertyAccessor batchAccessor = BatchPropertyAccessor.getInstance( syncMode );
+			_batchAccessor.dispose();
+			_batchAccessor = batchAccessor;
+			_batchSyncMode = syncMode;
+		}
+
+		_batchAccessor.requestValuesForNodes( nodes );
+
+		final Set<AcceleratorNode> changedNodes = _batchAccessor.getChangedNodes();
+		_changedNodes = changedNodes != null ? changedNodes : new HashSet<AcceleratorNode>( nodes );
+	}
+
+
+	/**
+	 * Get the nodes whose values may have changed in the latest request relative to the previous one. Only the monitored live mode
+	 * tracks the channel values, so for the other modes every requested node is reported.
+	 * @return the nodes whose values may have changed
+	 */
+	public Set<AcceleratorNode> getChangedNodes() {
+		return Collections.unmodifiableSet( _changedNodes );
+	}
+
+
+	/** Release the resources (e.g. channel monitors) held by the batch accessor, revert to the design mode and forget the changed nodes */
+	public void dispose() {
+		_batchAccessor.dispose();
+		_batchAccessor = BatchPropertyAccessor.getInstance( Scenario.SYNC_MODE_DESIGN );
+		_batchSyncMode = Scenario.SYNC_MODE_DESIGN;
+		_changedNodes = Collections.<AcceleratorNode>emptySet();
 	}
 
 	
@@ -98,6 +136,32 @@ public class PrimaryPropertyAccessor {
 	}
 	
 	
+	/** Determine whether property values have been cached for every one of the specified nodes */
+	public boolean hasCachedValuesFor( final Collection<AcceleratorNode> nodes ) {
+		return PROPERTY_VALUE_CACHE.keySet().containsAll( nodes );
+	}
+	
+	
+	/**
+	 * Copy the cached property values and the model inputs of the specified accessor into this one replacing any existing ones.
+	 * The model inputs are copied so subsequent changes to the inputs of either accessor do not affect the other.
+	 * @param source the accessor whose cache and model inputs to copy
+	 */
+	public void copyCacheAndInputsFrom( final PrimaryPropertyAccessor source ) {
+		PROPERTY_VALUE_CACHE.clear();
+		for ( final Map.Entry<AcceleratorNode,Map<String,Double>> entry : source.PROPERTY_VALUE_CACHE.entrySet() ) {
+			PROPERTY_VALUE_CACHE.put( entry.getKey(), new HashMap<String,Double>( entry.getValue() ) );
+		}
+
+		nodeInputMap.clear();
+		for ( final Map<String,ModelInput> inputs : source.nodeInputMap.values() ) {
+			for ( final ModelInput input : inputs.values() ) {
+				addInput( new ModelInput( input.getAcceleratorNode(), input.getProperty(), input.getDoubleValue() ) );
+			}
+		}
+	}
+	
+	
 	/**
 	 * Returns a List of property names for the supplied node.
 	 * @param aNode AcceleratorNode whose property names to return
@@ -266,6 +330,19 @@ abstract class BatchPropertyAccessor {
 	abstract public void requestValuesForNodes( final Collection<AcceleratorNode> nodes );
 
 
+	/** 
+	 * Get the nodes whose values changed in the latest request relative to the previous one.
+	 * @return the changed nodes or null if this accessor does not track changes
+	 */
+	public Set<AcceleratorNode> getChangedNodes() {
+		return null;
+	}
+
+
+	/** release any resources held by this accessor */
+	public void dispose() {}
+
+
 	/**
 	 * Get a Map of property values for the supplied node keyd by property name.
 	 * @param node the AcclereatorNode whose properties to return
@@ -288,6 +365,9 @@ abstract class BatchPropertyAccessor {
 		else if ( syncMode.equals( Scenario.SYNC_MODE_RF_DESIGN ) ) {
 			return new LiveRFDesignBatchPropertyAccessor();
 		}
+		else if ( syncMode.equals( Scenario.SYNC_MODE_LIVE_MONITORED ) ) {
+			return new MonitoredBatchPropertyAccessor();
+		}
 		else {
 			throw new IllegalArgumentException( "Unknown Synchronization mode: " + syncMode );
 		}
@@ -423,3 +503,146 @@ class LiveRFDesignBatchPropertyAccessor extends BatchChannelPropertyAccessor {
 		return accessor.getLiveRFDesignValueMap( node, _channelValues );
 	}
 }
+
+
+
+/** Accessor for live property values which reads the latest values of channel monitors rather than making a batch request */
+class MonitoredBatchPropertyAccessor extends LiveBatchPropertyAccessor {
+	/** time in seconds to wait for the first values of newly monitored channels */
+	final private static double INITIAL_VALUE_TIMEOUT = 5.0;
+
+	/** monitor cache keyed by channel */
+	final private Map<Channel,MonitorCache> MONITOR_CACHES;
+
+	/** live channels keyed by node */
+	final private Map<AcceleratorNode,Collection<Channel>> NODE_CHANNELS;
+
+	/** latest value read for each channel */
+	final private Map<Channel,Double> LAST_CHANNEL_VALUES;
+
+	/** nodes whose channel values changed in the latest request */
+	private Set<AcceleratorNode> _changedNodes;
+
+
+	/** Constructor */
+	public MonitoredBatchPropertyAccessor() {
+		MONITOR_CACHES = new HashMap<>();
+		NODE_CHANNELS = new HashMap<>();
+		LAST_CHANNEL_VALUES = new HashMap<>();
+		_changedNodes = Collections.<AcceleratorNode>emptySet();
+	}
+
+
+	/** 
+	 * Monitor the channels of any nodes not seen before, waiting for their first values, and then read the latest value of every channel
+	 * for the specified nodes from the monitors. Once all the channels are monitored no network requests are made.
+	 */
+	@Override
+	public void requestValuesForNodes( final Collection<AcceleratorNode> nodes ) {
+		// assign an empty map at the start should something go wrong later
+		_channelValues = Collections.<Channel,Double>emptyMap();
+
+		// monitor any new channels
+		final Set<Channel> channels = new HashSet<>();
+		final List<MonitorCache> newMonitors = new ArrayList<>();
+		for ( final AcceleratorNode node : nodes ) {
+			Collection<Channel> nodeChannels = NODE_CHANNELS.get( node );
+			if ( nodeChannels == null ) {
+				nodeChannels = getChannels( getAccessorFor( node ), node );
+				NODE_CHANNELS.put( node, nodeChannels );
+			}
+
+			for ( final Channel channel : nodeChannels ) {
+				if ( channels.add( channel ) && !MONITOR_CACHES.containsKey( channel ) ) {
+					final MonitorCache monitorCache = new MonitorCache( channel );
+					MONITOR_CACHES.put( channel, monitorCache );
+					newMonitors.add( monitorCache );
+					monitorCache.requestMonitor();
+				}
+			}
+		}
+
+		if ( !newMonitors.isEmpty() ) {
+			Channel.flushIO();
+			waitForInitialValues( newMonitors );
+		}
+
+		// gather the latest values for the channels in a map keyed by channel
+		final Map<Channel,Double> channelValues = new HashMap<>( channels.size() );
+		final List<String> unreadChannels = new ArrayList<>();
+		for ( final Channel channel : channels ) {
+			final ChannelRecord record = MONITOR_CACHES.get( channel ).getLatestRecord();
+			if ( record != null ) {
+				channelValues.put( channel, record.doubleValue() );
+			}
+			else {
+				unreadChannels.add( channel.getId() );
+			}
+		}
+		if ( !unreadChannels.isEmpty() ) {
+			Logger.getLogger( MonitoredBatchPropertyAccessor.class.getName() ).log( Level.WARNING, "No monitored value for channels: {0}", unreadChannels );
+		}
+
+		// determine which nodes changed since their values were last read
+		final Set<AcceleratorNode> changedNodes = new HashSet<>();
+		for ( final AcceleratorNode node : nodes ) {
+			for ( final Channel channel : NODE_CHANNELS.get( node ) ) {
+				if ( !LAST_CHANNEL_VALUES.containsKey( channel ) || !Objects.equals( channelValues.get( channel ), LAST_CHANNEL_VALUES.get( channel ) ) ) {
+					changedNodes.add( node );
+					break;
+				}
+			}
+		}
+		for ( final Channel channel : channels ) {
+			LAST_CHANNEL_VALUES.put( channel, channelValues.get( channel ) );
+		}
+
+		_changedNodes = changedNodes;
+		_channelValues = channelValues;
+	}
+
+
+	/** wait until every one of the monitors has a value or the initial value timeout expires */
+	private void waitForInitialValues( final List<MonitorCache> monitors ) {
+		final long deadline = System.currentTimeMillis() + (long)( 1000 * INITIAL_VALUE_TIMEOUT );
+		int index = 0;
+		while ( index < monitors.size() && System.currentTimeMillis() < deadline ) {
+			if ( monitors.get( index ).getLatestRecord() != null ) {
+				++index;
+			}
+			else {
+				try {
+					Thread.sleep( 10 );
+				}
+				catch ( InterruptedException exception ) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+
+		if ( index < monitors.size() ) {
+			Logger.getLogger( MonitoredBatchPropertyAccessor.class.getName() ).log( Level.WARNING, "Timed out waiting for the first values of monitored channels for the online model." );
+		}
+	}
+
+
+	/** Get the nodes whose channel values changed in the latest request */
+	@Override
+	public Set<AcceleratorNode> getChangedNodes() {
+		return _changedNodes;
+	}
+
+
+	/** clear all the channel monitors */
+	@Override
+	public void dispose() {
+		for ( final MonitorCache monitorCache : MONITOR_CACHES.values() ) {
+			monitorCache.dispose();
+		}
+		MONITOR_CACHES.clear();
+		NODE_CHANNELS.clear();
+		LAST_CHANNEL_VALUES.clear();
+		_changedNodes = Collections.<AcceleratorNode>emptySet();
+	}
+}
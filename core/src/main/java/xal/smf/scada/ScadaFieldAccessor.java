@@ -0,0 +1,374 @@
+/**
+ * ScadaFieldAccessor.java
+ *
+ * @since  Oct 18, 2026
+ *
+ */
+
+package xal.smf.scada;
+
+import xal.ca.Channel;
+import xal.ca.ChannelRecord;
+import xal.ca.ConnectionException;
+import xal.ca.PutException;
+import xal.ca.PutListener;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Compiled access to a data field of a <code>ScadaRecord</code>.  The method handles
+ * reading and writing the field, along with the conversion between the field
+ * and the channel values, are resolved once per record class when the class is
+ * first used.  Loading and saving hardware values then avoids the reflective field
+ * lookup and the type dispatch for every field of every record.
+ * </p>
+ * <p>
+ * Supported field types are the native types <code>byte, short, int, float, double</code>
+ * (and their wrappers), their array forms, and <code>String</code>.
+ * </p>
+ *
+ * @since  Oct 18, 2026
+ */
+final class ScadaFieldAccessor {
+
+
+    /*
+     * Global Constants
+     */
+
+    /** Type of the getters once adapted by {@link #ScadaFieldAccessor(Field)} */
+    private static final MethodType     TYP_GETTER = MethodType.methodType(Object.class, Object.class);
+
+    /** Type of the setters once adapted by {@link #ScadaFieldAccessor(Field)} */
+    private static final MethodType     TYP_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** The field accessors of each record class keyed by field name */
+    private static final ClassValue<Map<String, ScadaFieldAccessor>> MAP_ACCESSORS = new ClassValue<Map<String, ScadaFieldAccessor>>() {
+        @Override
+        protected Map<String, ScadaFieldAccessor> computeValue(Class<?> clsRecord) {
+            Map<String, ScadaFieldAccessor>   mapAccessors = new HashMap<String, ScadaFieldAccessor>();
+
+            for (Field fldData : clsRecord.getFields()) {
+                if ( Modifier.isStatic(fldData.getModifiers()) )
+                    continue;
+
+                mapAccessors.putIfAbsent(fldData.getName(), new ScadaFieldAccessor(fldData));
+            }
+
+            return Collections.unmodifiableMap(mapAccessors);
+        }
+    };
+
+
+    /*
+     * Internal Classes
+     */
+
+    /**
+     * Conversions between the supported field types and the channel values.
+     */
+    private enum FieldType {
+
+        /** scalar byte field */
+        BYTE {
+            Object  read(ChannelRecord recPv)   { return recPv.byteValue(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((Byte)objVal, lsnPut); }
+        },
+
+        /** byte array field */
+        BYTE_ARRAY {
+            Object  read(ChannelRecord recPv)   { return recPv.byteArray(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((byte[])objVal, lsnPut); }
+        },
+
+        /** scalar short field */
+        SHORT {
+            Object  read(ChannelRecord recPv)   { return recPv.shortValue(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((Short)objVal, lsnPut); }
+        },
+
+        /** short array field */
+        SHORT_ARRAY {
+            Object  read(ChannelRecord recPv)   { return recPv.shortArray(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((short[])objVal, lsnPut); }
+        },
+
+        /** scalar int field */
+        INT {
+            Object  read(ChannelRecord recPv)   { return recPv.intValue(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((Integer)objVal, lsnPut); }
+        },
+
+        /** int array field */
+        INT_ARRAY {
+            Object  read(ChannelRecord recPv)   { return recPv.intArray(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((int[])objVal, lsnPut); }
+        },
+
+        /** scalar float field */
+        FLOAT {
+            Object  read(ChannelRecord recPv)   { return recPv.floatValue(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((Float)objVal, lsnPut); }
+        },
+
+        /** float array field */
+        FLOAT_ARRAY {
+            Object  read(ChannelRecord recPv)   { return recPv.floatArray(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((float[])objVal, lsnPut); }
+        },
+
+        /** scalar double field */
+        DOUBLE {
+            Object  read(ChannelRecord recPv)   { return recPv.doubleValue(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((Double)objVal, lsnPut); }
+        },
+
+        /** double array field */
+        DOUBLE_ARRAY {
+            Object  read(ChannelRecord recPv)   { return recPv.doubleArray(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((double[])objVal, lsnPut); }
+        },
+
+        /** string field */
+        STRING {
+            Object  read(ChannelRecord recPv)   { return recPv.stringValue(); }
+            void    put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException { chanPv.putValCallback((String)objVal, lsnPut); }
+        };
+
+
+        /**
+         * Converts the channel value to the field type.
+         *
+         * @param recPv     channel value
+         *
+         * @return          the value as the (boxed) field type
+         */
+        abstract Object read(ChannelRecord recPv);
+
+        /**
+         * Asynchronously puts the field value to the channel.  The put is not flushed.
+         *
+         * @param chanPv    channel receiving the value
+         * @param objVal    (boxed) field value
+         * @param lsnPut    receiver of the put completion event
+         *
+         * @throws ConnectionException  channel is not connected
+         * @throws PutException         general put failure
+         */
+        abstract void put(Channel chanPv, Object objVal, PutListener lsnPut) throws ConnectionException, PutException;
+
+        /**
+         * Returns the conversion for the given field type.
+         *
+         * @param clsFldType    type of the data field
+         *
+         * @return              conversion for the type or <code>null</code> if the type is not supported
+         */
+        static FieldType of(Class<?> clsFldType) {
+            if (clsFldType == byte.class || clsFldType == Byte.class)           return BYTE;
+            if (clsFldType == byte[].class)                                     return BYTE_ARRAY;
+            if (clsFldType == short.class || clsFldType == Short.class)         return SHORT;
+            if (clsFldType == short[].class)                                    return SHORT_ARRAY;
+            if (clsFldType == int.class || clsFldType == Integer.class)         return INT;
+            if (clsFldType == int[].class)                                      return INT_ARRAY;
+            if (clsFldType == float.class || clsFldType == Float.class)         return FLOAT;
+            if (clsFldType == float[].class)                                    return FLOAT_ARRAY;
+            if (clsFldType == double.class || clsFldType == Double.class)       return DOUBLE;
+            if (clsFldType == double[].class)                                   return DOUBLE_ARRAY;
+            if (clsFldType == String.class)                                     return STRING;
+
+            return null;
+        }
+    }
+
+
+    /*
+     * Local Attributes
+     */
+
+    /** name of the data field */
+    private final String        strFldName;
+
+    /** type of the data field */
+    private final Class<?>      clsFldType;
+
+    /** conversion between the field and channel values, or <code>null</code> if the type is unsupported */
+    private final FieldType     typConvert;
+
+    /** reads the (boxed) field value of a record */
+    private final MethodHandle  mthGetter;
+
+    /** writes the (boxed) field value of a record, or <code>null</code> if the field is final */
+    private final MethodHandle  mthSetter;
+
+
+    /*
+     * Global Operations
+     */
+
+    /**
+     * Returns the field accessor for the given field of the record class.  The
+     * accessors of all the public fields of the class are created when the
+     * class is first used.
+     *
+     * @param clsRecord     class of the SCADA record
+     * @param strFldName    name of the data field
+     *
+     * @return              accessor of the data field
+     *
+     * @throws BadStructException   the record class has no public field with the given name
+     */
+    static ScadaFieldAccessor   getAccessor(Class<?> clsRecord, String strFldName) throws BadStructException {
+        ScadaFieldAccessor  accFld = MAP_ACCESSORS.get(clsRecord).get(strFldName);
+
+        if (accFld == null)
+            throw new BadStructException("ScadaRecord: ERROR: No such field " + strFldName); //$NON-NLS-1$
+
+        return accFld;
+    }
+
+
+    /*
+     * Initialization
+     */
+
+    /**
+     * Creates the accessor of the given public data field.
+     *
+     * @param fldData   public data field of a SCADA record
+     */
+    private ScadaFieldAccessor(Field fldData) {
+        this.strFldName = fldData.getName();
+        this.clsFldType = fldData.getType();
+        this.typConvert = FieldType.of(this.clsFldType);
+
+        MethodHandles.Lookup    lkpPublic = MethodHandles.publicLookup();
+        MethodHandle            mthGetter = null;
+        MethodHandle            mthSetter = null;
+        try {
+            mthGetter = lkpPublic.unreflectGetter(fldData).asType(TYP_GETTER);
+
+            if ( !Modifier.isFinal(fldData.getModifiers()) )
+                mthSetter = lkpPublic.unreflectSetter(fldData).asType(TYP_SETTER);
+
+        } catch (IllegalAccessException e) {
+            // the field is reported as ill-defined when it is used
+        }
+
+        this.mthGetter = mthGetter;
+        this.mthSetter = mthSetter;
+    }
+
+
+    /*
+     * Operations
+     */
+
+    /**
+     * Returns the name of the data field.
+     *
+     * @return  data field name
+     */
+    String  getFieldName() {
+        return this.strFldName;
+    }
+
+    /**
+     * Sets the data field of the given record to the channel value, converted to
+     * the type of the field.
+     *
+     * @param recTarget record whose field is set
+     * @param recPv     channel value
+     * @param strHndPv  handle of the channel (for error reporting)
+     *
+     * @throws BadStructException   the field is inaccessible or its type is not supported
+     */
+    void    setFromChannelRecord(ScadaRecord recTarget, ChannelRecord recPv, String strHndPv) throws BadStructException {
+        if (this.typConvert == null || this.mthSetter == null)
+            throw this.unsupported("ScadaRecord#setFieldFromPv(): ", strHndPv); //$NON-NLS-1$
+
+        try {
+            this.mthSetter.invokeExact((Object)recTarget, this.typConvert.read(recPv));
+
+        } catch (RuntimeException e) {
+            throw new BadStructException("ScadaRecord#setFieldFromPv(): unable to initialize field " + this.strFldName  //$NON-NLS-1$
+                    + ", incompatible types for " + strHndPv, e); //$NON-NLS-1$
+
+        } catch (Error e) {
+            throw e;
+
+        } catch (Throwable e) {
+            // field setters throw no checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Asynchronously puts the value of the data field of the given record to the
+     * channel.  The request is not flushed.
+     *
+     * @param recSource record whose field value is put
+     * @param chanPv    channel receiving the value
+     * @param strHndPv  handle of the channel (for error reporting)
+     * @param lsnPut    receiver of the put completion event
+     *
+     * @throws BadStructException   the field is inaccessible or its type is not supported
+     * @throws ConnectionException  channel is not connected
+     * @throws PutException         general put failure
+     */
+    void    putToChannel(ScadaRecord recSource, Channel chanPv, String strHndPv, PutListener lsnPut)
+        throws BadStructException, ConnectionException, PutException
+    {
+        if (this.typConvert == null || this.mthGetter == null)
+            throw this.unsupported("ScadaRecord#setPv: ", strHndPv); //$NON-NLS-1$
+
+        Object  objVal;
+        try {
+            objVal = (Object)this.mthGetter.invokeExact((Object)recSource);
+
+        } catch (RuntimeException e) {
+            throw new BadStructException("ScadaRecord#setPv(): Illegal access attempt for field " + this.strFldName, e); //$NON-NLS-1$
+
+        } catch (Error e) {
+            throw e;
+
+        } catch (Throwable e) {
+            // field getters throw no checked exceptions
+            throw new IllegalStateException(e);
+        }
+
+        this.typConvert.put(chanPv, objVal, lsnPut);
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Creates the exception thrown when the field cannot be used.
+     *
+     * @param strCaller     name of the calling operation
+     * @param strHndPv      handle of the channel
+     *
+     * @return              exception describing the problem
+     */
+    private BadStructException  unsupported(String strCaller, String strHndPv) {
+        String  strMsg;
+
+        if (this.typConvert == null)
+            strMsg = strCaller + "Unsupported data type " + this.clsFldType.getName() + " for channel handle " + strHndPv; //$NON-NLS-1$ //$NON-NLS-2$
+        else
+            strMsg = strCaller + "Illegal access attempt for field " + this.strFldName; //$NON-NLS-1$
+
+        return new BadStructException(strMsg);
+    }
+}
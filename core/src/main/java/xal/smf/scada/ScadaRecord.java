@@ -8,21 +8,30 @@ package xal.smf.scada;
 
 import xal.smf.scada.ScadaFieldDescriptor;
 import xal.smf.scada.BadStructException;
+import xal.ca.BatchConnectionRequest;
+import xal.ca.BatchGetRawValueRequest;
 import xal.ca.Channel;
 import xal.ca.ChannelRecord;
 import xal.ca.ConnectionException;
 import xal.ca.GetException;
 import xal.ca.PutException;
+import xal.ca.PutListener;
 import xal.tools.data.DataAdaptor;
 import xal.tools.data.DataListener;
 import xal.smf.AcceleratorNode;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.MissingResourceException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base class for data records containing
@@ -71,6 +80,46 @@ public abstract class ScadaRecord implements DataListener, Cloneable {
 
 
 
+    /**
+     * Binds a data field of a record to the channel of the field on a device,
+     * for batch hardware requests.
+     *
+     * @since  Oct 18, 2026
+     */
+    private static final class FieldChannel {
+
+        /** record containing the data field */
+        private final ScadaRecord           recData;
+
+        /** accessor of the data field */
+        private final ScadaFieldAccessor    accFld;
+
+        /** handle of the channel on the device */
+        private final String                strHndPv;
+
+        /** channel of the data field */
+        private final Channel               chanPv;
+
+        /**
+         * Binds the data field of the given record to the channel with the given handle.
+         *
+         * @param recData   record containing the data field
+         * @param strFldNm  name of the data field
+         * @param strHndPv  handle of the channel
+         * @param smfDev    device owning the channel
+         *
+         * @throws BadStructException  the record has no such data field
+         */
+        private FieldChannel(ScadaRecord recData, String strFldNm, String strHndPv, AcceleratorNode smfDev) throws BadStructException {
+            this.recData  = recData;
+            this.accFld   = ScadaFieldAccessor.getAccessor(recData.getClass(), strFldNm);
+            this.strHndPv = strHndPv;
+            this.chanPv   = smfDev.getChannel(strHndPv);
+        }
+    }
+
+
+
     /** The set of PV field descriptors for this data set */
     private List<ScadaFieldDescriptor>        lstFldDscr; 
 
@@ -79,6 +128,162 @@ public abstract class ScadaRecord implements DataListener, Cloneable {
     
 
     
+    /*
+     * Global Operations
+     */
+
+    /**
+     * <p>
+     * Populate the fields of the given data sets with the current Process Variable
+     * values of their devices.  The read back channels of all the fields are
+     * fetched with a single batch request, so the data sets are loaded in about the time
+     * of one network round trip rather than one round trip per field.
+     * </p>
+     * <p>
+     * The method waits up to twice the longest I/O timeout of the channels, once to
+     * connect them and once to get their values.
+     * </p>
+     * <p>
+     * The batch request fetches the raw values of the channels, without their value
+     * transforms, so the fields are set exactly as by
+     * {@link #setFieldFromPV(String, String, AcceleratorNode)}.
+     * </p>
+     *
+     * @param mapRecDev     the data sets to populate, each mapped to the device providing its values
+     *
+     * @throws BadStructException  data structure fields are ill-defined/incompatible
+     * @throws ConnectionException  unable to connect to a descriptor read back channel
+     * @throws GetException         unable to get PV value from channel access
+     *
+     * @since  Oct 18, 2026
+     */
+    public static void loadHardwareValues(Map<? extends ScadaRecord, ? extends AcceleratorNode> mapRecDev)
+        throws BadStructException, ConnectionException, GetException
+    {
+        List<FieldChannel>  lstFldChans = new ArrayList<FieldChannel>();
+        Set<Channel>        setChans    = new HashSet<Channel>();
+
+        for (Map.Entry<? extends ScadaRecord, ? extends AcceleratorNode> entry : mapRecDev.entrySet()) {
+            ScadaRecord     recData = entry.getKey();
+            AcceleratorNode smfDev  = entry.getValue();
+
+            for (ScadaFieldDescriptor pfdFld : recData.lstFldDscr) {
+                FieldChannel    fchPv = new FieldChannel(recData, pfdFld.getFieldName(), pfdFld.getRbHandle(), smfDev);
+
+                lstFldChans.add(fchPv);
+                setChans.add(fchPv.chanPv);
+            }
+        }
+        if (lstFldChans.isEmpty())
+            return;
+
+        BatchGetRawValueRequest reqGet = new BatchGetRawValueRequest(setChans);
+        reqGet.submitAndWait( 2.0*ScadaRecord.maxIoTimeout(setChans) );
+
+        // Every field is set only once all the values are available
+        for (FieldChannel fchPv : lstFldChans) {
+            if (reqGet.getRecord(fchPv.chanPv) != null)
+                continue;
+
+            Exception   excGet = reqGet.getException(fchPv.chanPv);
+            if (excGet instanceof ConnectionException)
+                throw (ConnectionException)excGet;
+            if (excGet instanceof GetException)
+                throw (GetException)excGet;
+            if ( !fchPv.chanPv.isConnected() )
+                throw new ConnectionException(fchPv.chanPv, "Channel to data structure PV will not connect." +  //$NON-NLS-1$
+                        "XAL channel handle = " + fchPv.strHndPv); //$NON-NLS-1$
+
+            throw new GetException("ScadaRecord#loadHardwareValues(): unable to get the value of " + fchPv.chanPv.channelName() +  //$NON-NLS-1$
+                    " for channel handle " + fchPv.strHndPv + (excGet != null ? ": " + excGet.getMessage() : "")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+
+        for (FieldChannel fchPv : lstFldChans)
+            fchPv.accFld.setFromChannelRecord(fchPv.recData, reqGet.getRecord(fchPv.chanPv), fchPv.strHndPv);
+    }
+
+    /**
+     * <p>
+     * Sets the parameters of the given hardware devices to the values in their data sets.
+     * The values of all the controllable fields are put together and the method waits
+     * for all the puts to complete, so the data sets are written in about the time of one
+     * network round trip.  The puts are not ordered with respect to each other.
+     * </p>
+     * <p>
+     * The method waits up to twice the longest I/O timeout of the channels, once to
+     * connect them and once for the puts to complete.
+     * </p>
+     *
+     * @param mapRecDev     the data sets whose values are put, each mapped to the device receiving them
+     *
+     * @throws BadStructException  data structure fields are ill-defined/incompatible
+     * @throws ConnectionException  unable to connect to PV channel
+     * @throws PutException  general put exception (unable to set all parameter values)
+     *
+     * @since  Oct 18, 2026
+     */
+    public static void setHardwareValues(Map<? extends ScadaRecord, ? extends AcceleratorNode> mapRecDev)
+        throws BadStructException, ConnectionException, PutException
+    {
+        List<FieldChannel>  lstFldChans = new ArrayList<FieldChannel>();
+        Set<Channel>        setUnconn   = new HashSet<Channel>();
+
+        for (Map.Entry<? extends ScadaRecord, ? extends AcceleratorNode> entry : mapRecDev.entrySet()) {
+            ScadaRecord     recData = entry.getKey();
+            AcceleratorNode smfDev  = entry.getValue();
+
+            for (ScadaFieldDescriptor pfdFld : recData.lstFldDscr) {
+                if ( !pfdFld.isControllable() )
+                    continue;
+
+                FieldChannel    fchPv = new FieldChannel(recData, pfdFld.getFieldName(), pfdFld.getSetHandle(), smfDev);
+
+                lstFldChans.add(fchPv);
+                if ( !fchPv.chanPv.isConnected() )
+                    setUnconn.add(fchPv.chanPv);
+            }
+        }
+        if (lstFldChans.isEmpty())
+            return;
+
+        double  dblTmOut = 0.0;
+        for (FieldChannel fchPv : lstFldChans)
+            dblTmOut = Math.max(dblTmOut, fchPv.chanPv.getIoTimeout());
+
+        // Connect all the channels at once
+        if ( !setUnconn.isEmpty() ) {
+            new BatchConnectionRequest(setUnconn).submitAndWait(dblTmOut);
+
+            for (Channel chanPv : setUnconn)
+                if ( !chanPv.isConnected() )
+                    throw new ConnectionException(chanPv, "ScadaRecord#setHardwareValues(): unable to connect to " + chanPv.channelName()); //$NON-NLS-1$
+        }
+
+        // Put all the values then wait for every put to complete
+        final CountDownLatch    cntPuts = new CountDownLatch(lstFldChans.size());
+        PutListener             lsnPut  = new PutListener() {
+            @Override
+            public void putCompleted(Channel chan) {
+                cntPuts.countDown();
+            }
+        };
+
+        for (FieldChannel fchPv : lstFldChans)
+            fchPv.accFld.putToChannel(fchPv.recData, fchPv.chanPv, fchPv.strHndPv, lsnPut);
+        Channel.flushIO();
+
+        try {
+            if ( !cntPuts.await((long)(1000.0*dblTmOut), TimeUnit.MILLISECONDS) )
+                throw new PutException("ScadaRecord#setHardwareValues(): " + cntPuts.getCount() + " of " + lstFldChans.size() //$NON-NLS-1$ //$NON-NLS-2$
+                        + " puts were not completed"); //$NON-NLS-1$
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PutException("ScadaRecord#setHardwareValues(): interrupted while waiting for the puts to complete"); //$NON-NLS-1$
+        }
+    }
+
+
     /*
      * Local Operations
      */
@@ -130,7 +335,9 @@ public abstract class ScadaRecord implements DataListener, Cloneable {
      * Populate the fields of this data set with the current
      * Process Variable values of the given device.  We
      * assume that this data set has the appropriate fields
-     * for the given device.
+     * for the given device.  All the raw values are fetched
+     * with one batch request (see
+     * {@link #loadHardwareValues(Map)}).
      *
      * @param smfDev    hardware device from which values are obtained
      * 
@@ -144,17 +351,13 @@ public abstract class ScadaRecord implements DataListener, Cloneable {
     public void loadHardwareValues(AcceleratorNode smfDev) 
         throws BadStructException, ConnectionException, GetException 
     {
-        for (ScadaFieldDescriptor pfdFld : this.lstFldDscr) {
-            String      strFldNm = pfdFld.getFieldName();
-            String      strHndPv = pfdFld.getRbHandle();
-            
-            this.setFieldFromPV(strFldNm, strHndPv, smfDev);
-        }
+        ScadaRecord.loadHardwareValues( Collections.singletonMap(this, smfDev) );
     }
     
     /**
      * Sets the parameters of the given hardware device, to the values 
-     * in this data structure.
+     * in this data structure.  All the values are put at once and
+     * the method returns when every put is complete.
      *
      * @param smfDev    hardware device to receive new parameter values
      * 
@@ -168,14 +371,7 @@ public abstract class ScadaRecord implements DataListener, Cloneable {
     public void     setHardwareValues(AcceleratorNode smfDev) 
         throws BadStructException, ConnectionException, PutException 
     {
-        for (ScadaFieldDescriptor pfdFld : this.lstFldDscr) {
-            if (  pfdFld.isControllable() ) {
-                String          strFldNm = pfdFld.getFieldName();
-                String          strHndPv = pfdFld.getSetHandle();
-
-                this.setPvFromField(strFldNm, strHndPv, smfDev);
-            }
-        }
+        ScadaRecord.setHardwareValues( Collections.singletonMap(this, smfDev) );
     }
 
     
@@ -572,7 +768,7 @@ public abstract class ScadaRecord implements DataListener, Cloneable {
     /**
      * Set the value of of the given data field using the
      * value obtained from the PV attached to the given device.
-     * The type of the field is determined using Java reflection.
+     * The field is accessed through its compiled accessor.
      * Supported typed are all the native types plus their
      * array forms.  The value of the PV is read in as the
      * same type of the data field.  
@@ -593,103 +789,17 @@ public abstract class ScadaRecord implements DataListener, Cloneable {
     protected void setFieldFromPV(String strFldName, String strHndPv, AcceleratorNode smfDev) 
         throws BadStructException, ConnectionException, GetException
     {
-        
-        try {
-            // Get the data structure field object and its data type
-            Class<? extends ScadaRecord> clsThis  = this.getClass();
-            Field                       fldDataFld = clsThis.getField(strFldName);
-            Class<?>                    clsFldType = fldDataFld.getType();
+        // Get the accessor of the data structure field
+        ScadaFieldAccessor  accFld = ScadaFieldAccessor.getAccessor(this.getClass(), strFldName);
 
-            
-            // Get the channel for the data structure process variable 
-            Channel       chanPv = smfDev.getAndConnectChannel(strHndPv);
-            if ( !chanPv.isConnected() )
-                throw new ConnectionException(chanPv, "Channel to data structure PV will not connect." +  //$NON-NLS-1$
-                        "XAL channel handle = " + strHndPv); //$NON-NLS-1$
-            
-            ChannelRecord recPv  = chanPv.getRawValueRecord();
-            
-            // Get the PV value and set the field with it
-            if (clsFldType == byte.class || clsFldType == Byte.class) {
-                Byte    bytVal = recPv.byteValue();
-                fldDataFld.set(this, bytVal);
-                
-            } else if (clsFldType == byte[].class) {
-//                byte[]      arrBytVal = chanPv.getArrByte();
-//                fldDataStr.set(this, arrBytVal);
-                byte[]      arrBytVal = recPv.byteArray();
-                fldDataFld.set(this, arrBytVal);
-
-            } else if (clsFldType == int.class || clsFldType == Integer.class) {
-                Integer intVal = recPv.intValue();
-                fldDataFld.setInt(this, intVal);
-
-            } else if (clsFldType == int[].class ) {
-                int[]       arrIntVal = recPv.intArray();
-                fldDataFld.set(this, arrIntVal);
-            
-            } else if (clsFldType == short.class || clsFldType == Short.class) {
-                Short   sht = recPv.shortValue();
-                fldDataFld.setInt(this, sht);
+        // Get the channel for the data structure process variable 
+        Channel       chanPv = smfDev.getAndConnectChannel(strHndPv);
+        if ( !chanPv.isConnected() )
+            throw new ConnectionException(chanPv, "Channel to data structure PV will not connect." +  //$NON-NLS-1$
+                    "XAL channel handle = " + strHndPv); //$NON-NLS-1$
 
-            } else if (clsFldType == short[].class) {
-                short[]       arrLngVal = recPv.shortArray();
-                fldDataFld.set(this, arrLngVal);
-            
-            } else if (clsFldType == float.class || clsFldType == Float.class) {
-                Float   fltVal = recPv.floatValue();
-                fldDataFld.setFloat(this, fltVal);
-                
-            } else if (clsFldType == float[].class) {
-                float[]     arFltVal = recPv.floatArray();
-                fldDataFld.set(this, arFltVal);
-                
-            } else if (clsFldType == double.class || clsFldType == Double.class) { 
-                Double  dblVal = recPv.doubleValue();
-                fldDataFld.setDouble(this, dblVal);
-                
-            } else if (clsFldType == double[].class) {
-                double[]    arrDblVal = chanPv.getArrDbl();
-                fldDataFld.set(this, arrDblVal);
-                
-            } else if (clsFldType == String.class) {
-                String  strVal = chanPv.getValString();
-                fldDataFld.set(this, strVal);
-                
-            } else {
-                String  strType = clsFldType.getName();
-                String  strMsg  = "ScadaStruct#setFieldFromPv(): " + //$NON-NLS-1$
-                                  "Unsupported data type " + strType +  //$NON-NLS-1$
-                                  " for channel handle " + strHndPv; //$NON-NLS-1$
-                System.err.println(strMsg);
-                throw new BadStructException(strMsg);
-            }
-
-        } catch (SecurityException e) {
-            String  strMsg = "ScadaStruct#getHardwareValues:" //$NON-NLS-1$
-                + " unable to initialize field " + strFldName //$NON-NLS-1$
-                + ", incompatible types for " + strHndPv; //$NON-NLS-1$
-            throw new BadStructException(strMsg, e);
-            
-        } catch (NoSuchFieldException e) {
-            String  strMsg = "ScadaStruct#getHardwareValues:" //$NON-NLS-1$
-                + " unable to initialize field " + strFldName //$NON-NLS-1$
-                + ", incompatible types for " + strHndPv; //$NON-NLS-1$
-            throw new BadStructException(strMsg, e);
-            
-        } catch (IllegalArgumentException e) {
-            String  strMsg = "ScadaStruct#getHardwareValues:" //$NON-NLS-1$
-                + " unable to initialize field " + strFldName //$NON-NLS-1$
-                + ", incompatible types for " + strHndPv; //$NON-NLS-1$
-            throw new BadStructException(strMsg, e);
-            
-        } catch (IllegalAccessException e) {
-            String  strMsg = "ScadaStruct#getHardwareValues:" //$NON-NLS-1$
-                + " unable to initialize field " + strFldName //$NON-NLS-1$
-                + ", incompatible types for " + strHndPv; //$NON-NLS-1$
-            throw new BadStructException(strMsg, e);
-            
-        }
+        // Get the PV value and set the field with it
+        accFld.setFromChannelRecord(this, chanPv.getRawValueRecord(), strHndPv);
     }
 
     
@@ -720,78 +830,30 @@ public abstract class ScadaRecord implements DataListener, Cloneable {
     protected void setPvFromField(String strFldName, String  strHndPv, AcceleratorNode smfDev) 
         throws BadStructException, ConnectionException, PutException
     {
+        // Get the PV channel handle then fetch channel 
+        Channel             chanPv = smfDev.getAndConnectChannel(strHndPv);
+        ScadaFieldAccessor  accFld = ScadaFieldAccessor.getAccessor(this.getClass(), strFldName);
 
-        try {
-            // Get the PV channel handle then fetch channel 
-            Channel         chanPv = smfDev.getAndConnectChannel(strHndPv);
+        // Use the value of the field to set the PV (using the correct type)
+        accFld.putToChannel(this, chanPv, strHndPv, null);
+    }
 
-            
-            // Get the field object and its data type
-            Class<? extends ScadaRecord>    clsThis    = this.getClass();
-            Field                           fldDataFld = clsThis.getField(strFldName);
-            Class<?>                        clsFldType = fldDataFld.getType();
-
-            // Use the value of the field to set the PV (using the correct type)
-            if (clsFldType == byte.class) {
-                byte        bytVal = fldDataFld.getByte(this);
-                chanPv.putVal(bytVal);
-
-            } else if (clsFldType == byte[].class) {
-                byte[]      arrBytVal = (byte[])fldDataFld.get(this);
-                chanPv.putVal(arrBytVal);
-
-            } else if (clsFldType == int.class) {
-                int         intVal = fldDataFld.getInt(this);
-                chanPv.putVal(intVal);
-
-            } else if (clsFldType == int[].class) {
-                int[]       arrIntVal = (int[])fldDataFld.get(this);
-                chanPv.putVal(arrIntVal);
-
-            } else if (clsFldType == float.class ) {
-                float       fltVal = fldDataFld.getFloat(this);
-                chanPv.putVal(fltVal);
-
-            } else if (clsFldType == float[].class) {
-                float[]       arrFltVal = (float[])fldDataFld.get(this);
-                chanPv.putVal(arrFltVal);
-
-            } else if (clsFldType == double.class ) { 
-                double      dblVal = fldDataFld.getDouble(this);
-                chanPv.putVal(dblVal);
-
-            } else if (clsFldType == double[].class) {
-                double[]    arrDblVal = (double[])fldDataFld.get(this);
-                chanPv.putVal(arrDblVal);
-
-            } else if (clsFldType == String.class) {
-                String      strVal = (String)fldDataFld.get(this);
-                chanPv.putVal(strVal);
-                
-            } else {
-                String  strType = clsFldType.getName();
-                String  strMsg  = "ScadaRecord#setPv: " + //$NON-NLS-1$
-                "Unknown data type " + strType +  //$NON-NLS-1$
-                " for channel handle " + strHndPv; //$NON-NLS-1$
-                System.err.println(strMsg);
-                throw new BadStructException(strMsg);
-                
-            }
-            
-            
-        } catch (SecurityException e) {
-            throw new BadStructException("ScadaRecord#getPv(): Security Exception: inaccessible field " + strFldName); //$NON-NLS-1$
-            
-        } catch (NoSuchFieldException e) {
-            throw new BadStructException("ScadaRecord#getPv(): ERROR: No such field " + strFldName); //$NON-NLS-1$
-            
-        } catch (IllegalArgumentException e) {
-            throw new BadStructException("ScadaRecord#getPv(): Illegal type conversion for field " + strFldName); //$NON-NLS-1$
+    /**
+     * Returns the longest I/O timeout of the given channels.
+     *
+     * @param setChans  channels to examine
+     *
+     * @return          the longest I/O timeout in seconds, or zero if there are no channels
+     *
+     * @since  Oct 18, 2026
+     */
+    private static double maxIoTimeout(Set<Channel> setChans) {
+        double  dblTmOut = 0.0;
 
-        } catch (IllegalAccessException e) {
-            throw new BadStructException("ScadaRecord#getPv(): Illegal access attempt for field " + strFldName); //$NON-NLS-1$
+        for (Channel chanPv : setChans)
+            dblTmOut = Math.max(dblTmOut, chanPv.getIoTimeout());
 
-        }
+        return dblTmOut;
     }
 
 }
@@ -6,6 +6,8 @@
  */
 package xal.tools.beam.calc;
 
+import java.util.stream.IntStream;
+
 import xal.model.probe.traj.Trajectory;
 import xal.model.probe.traj.TransferMapState;
 import xal.tools.beam.PhaseMap;
@@ -587,19 +589,12 @@ public class CalculationsOnRings extends CalculationsOnMachines {
      */
     public PhaseVector[] computeTurnByTurnResponse(TransferMapState stateInj, TransferMapState stateObs, int cntTurns, PhaseVector vecInj) {
 
-        PhaseMatrix     matPhi = this.computeRingTransferMatrix(stateInj, stateObs);
-        PhaseMatrix     matFull = this.computeRingFullTurnMatrixAt(stateObs);
-
-        // Convert the injected particle coordinates to that w.r.t. the fixed orbit
-        PhaseVector vec1 = matPhi.times( vecInj);
+        TurnByTurnPropagator    prpTurns = this.createTurnByTurnPropagator(stateInj, stateObs);
 
+        double[][]      arrTurns  = prpTurns.propagate(vecInj.getArrayCopy(), cntTurns);
         PhaseVector[]   arrPosVec = new PhaseVector[cntTurns];
-        arrPosVec[0] = vec1;
-        for (int i=1; i<cntTurns; i++) {
-            PhaseVector vec2 = matFull.times(vec1);
-
-            arrPosVec[i] = vec2;
-            vec1 = vec2;
+        for (int i=0; i<cntTurns; i++) {
+            arrPosVec[i] = new PhaseVector(arrTurns[i]);
         }
 
         return arrPosVec;
@@ -645,28 +640,94 @@ public class CalculationsOnRings extends CalculationsOnMachines {
      */
     public PhaseVector[] computeTurnByTurnRespWrtFixedOrbit(TransferMapState stateInj, TransferMapState stateObs, int cntTurns, PhaseVector vecInj) {
 
-        PhaseMatrix     matPhi = this.computeRingTransferMatrix(stateInj, stateObs);
-        PhaseMatrix     matFull = this.computeRingFullTurnMatrixAt(stateObs);
+        TurnByTurnPropagator    prpTurns = this.createTurnByTurnPropagator(stateInj, stateObs);
 
         // Convert the injected particle coordinates to that w.r.t. the fixed orbit
         PhaseVector vecFxdOrb = super.computeFixedOrbit(stateObs);
+        PhaseVector vec0      = vecFxdOrb.plus( vecInj );
 
-        PhaseVector vec0 = vecFxdOrb.plus( vecInj );
-        PhaseVector vec1 = matPhi.times( vec0 );
-
+        double[][]      arrTurns  = prpTurns.propagate(vec0.getArrayCopy(), cntTurns);
         PhaseVector[]   arrPosVec = new PhaseVector[cntTurns];
-        arrPosVec[0] = vec1;
-        for (int i=1; i<cntTurns; i++) {
-            PhaseVector vec2     = matFull.times(vec1);
-            PhaseVector vec2FOrb = vec2.minus( vecFxdOrb );
+        for (int i=0; i<cntTurns; i++) {
+            double[]    arrPos = arrTurns[i];
 
-            arrPosVec[i] = vec2FOrb;
-            vec1 = vec2;
+            if (i > 0) {
+                for (int j=0; j<6; j++)
+                    arrPos[j] -= vecFxdOrb.getElem(j);
+            }
+
+            arrPosVec[i] = new PhaseVector(arrPos);
         }
 
         return arrPosVec;
     }
 
+    /**
+     * <p>
+     * Creates the turn-by-turn propagator for a particle injected at the location
+     * <i>s</i><sub>inj</sub> of state <i>S</i><sub>inj</sub> and observed at the
+     * location <i>s</i><sub>obs</sub> of state <i>S</i><sub>obs</sub>.  The propagator
+     * combines the transfer matrix <b>&Phi;</b><sub>2,1</sub> from <i>s</i><sub>inj</sub>
+     * to <i>s</i><sub>obs</sub> with the one-turn matrix <b>&Phi;</b><sub>2,2</sub> at
+     * <i>s</i><sub>obs</sub> (see
+     * <code>{@link #computeTurnByTurnResponse(TransferMapState, TransferMapState, int, PhaseVector)}</code>).
+     * </p>
+     * <p>
+     * The propagator works on primitive arrays, so long turn-by-turn simulations
+     * do not create an object per turn, and it computes the coordinates at any
+     * single turn without propagating through the preceding turns.
+     * </p>
+     *
+     * @param stateInj  trajectory state at the injection location
+     * @param stateObs  trajectory state at the observation location
+     *
+     * @return  the turn-by-turn propagator from the injection location to the observation location
+     *
+     * @since  Oct 18, 2026
+     */
+    public TurnByTurnPropagator createTurnByTurnPropagator(TransferMapState stateInj, TransferMapState stateObs) {
+        PhaseMatrix     matPhi  = this.computeRingTransferMatrix(stateInj, stateObs);
+        PhaseMatrix     matFull = this.computeRingFullTurnMatrixAt(stateObs);
+
+        return new TurnByTurnPropagator(matPhi, matFull);
+    }
+
+    /**
+     * <p>
+     * Computes the turn-by-turn phase positions at each of the given observation
+     * locations resulting from a particle injected at location <i>s</i><sub>inj</sub>
+     * of state <i>S</i><sub>inj</sub> with initial phase coordinates <b>z</b><sub>inj</sub>.
+     * The response at each observation location is that of
+     * <code>{@link #computeTurnByTurnResponse(TransferMapState, TransferMapState, int, PhaseVector)}</code>,
+     * but stored as primitive arrays.  The responses at the observation locations
+     * are computed in parallel.
+     * </p>
+     *
+     * @param stateInj      trajectory state at the injection location
+     * @param arrStatesObs  trajectory states at the observation locations (e.g., every BPM)
+     * @param cntTurns      number of turns <i>N</i> to observe particle
+     * @param vecInj        the initial phase coordinates in the ring global coordinate system
+     *
+     * @return  the phase coordinates at each observation location and turn as a
+     *          <code>double[locations][N][7]</code> array
+     *
+     * @since  Oct 18, 2026
+     */
+    public double[][][] computeTurnByTurnResponses(TransferMapState stateInj, TransferMapState[] arrStatesObs, final int cntTurns, PhaseVector vecInj) {
+
+        // The matrices are computed up front, only the propagation is parallel
+        final TurnByTurnPropagator[]  arrPrps = new TurnByTurnPropagator[arrStatesObs.length];
+        for (int i=0; i<arrStatesObs.length; i++) {
+            arrPrps[i] = this.createTurnByTurnPropagator(stateInj, arrStatesObs[i]);
+        }
+
+        final double[]      arrInj  = vecInj.getArrayCopy();
+        final double[][][]  arrRsps = new double[arrStatesObs.length][][];
+        IntStream.range(0, arrPrps.length).parallel().forEach( i -> arrRsps[i] = arrPrps[i].propagate(arrInj, cntTurns) );
+
+        return arrRsps;
+    }
+
     /**
      * <p>
      * Calculates the matched Courant-Snyder parameters for the given
@@ -0,0 +1,285 @@
+/**
+ * TurnByTurnPropagator.java
+ *
+ * Since   : Oct 18, 2026
+ */
+package xal.tools.beam.calc;
+
+import java.util.stream.IntStream;
+
+import xal.tools.beam.PhaseMatrix;
+
+/**
+ * <p>
+ * Propagates phase coordinates turn by turn around a ring using primitive arrays.
+ * Let <b>&Phi;</b><sub>2,1</sub> be the transfer matrix from the injection location
+ * <i>s</i><sub>1</sub> to the observation location <i>s</i><sub>2</sub> and let
+ * <b>&Phi;</b><sub>2,2</sub> be the one-turn matrix at <i>s</i><sub>2</sub>.  Then the
+ * phase coordinates at turn <i>n</i> of a particle injected with coordinates
+ * <b>z</b><sub>inj</sub> are
+ * <br>
+ * <br>
+ * &nbsp; &nbsp; <b>z</b><sub><i>n</i></sub> = [<b>&Phi;</b><sub>2,2</sub>]<sup><i>n</i></sup>
+ *                                             <b>&Phi;</b><sub>2,1</sub> <b>z</b><sub>inj</sub> .
+ * <br>
+ * <br>
+ * Phase coordinates are homogeneous 7-vectors stored as <code>double[7]</code> arrays,
+ * and turn-by-turn responses are stored as <code>double[turns][7]</code> arrays
+ * (index <i>n</i> is turn <i>n</i>).  Filling a response performs one matrix-vector
+ * product per turn directly into the output rows, so no intermediate objects are created.
+ * </p>
+ * <p>
+ * The coordinates at an arbitrary turn <i>n</i> are computed without propagating
+ * through the preceding turns.  The powers [<b>&Phi;</b><sub>2,2</sub>]<sup>2<sup><i>k</i></sup></sup>
+ * are computed once at construction, and <b>z</b><sub><i>n</i></sub> is obtained by
+ * applying the powers for the binary digits of <i>n</i>, that is, at most 31
+ * matrix-vector products for any turn.  A decomposition of the one-turn matrix into
+ * eigenvectors would fail for the common case of a longitudinal plane without RF,
+ * whose one-turn matrix is not diagonalizable, and is ill-conditioned near resonances.
+ * The binary powers are exact for any one-turn matrix.
+ * </p>
+ * <p>
+ * Instances are immutable and may be shared between threads.  Responses for many
+ * injection vectors are computed in parallel with
+ * <code>{@link #propagate(double[][], int)}</code>.
+ * </p>
+ *
+ * @since  Oct 18, 2026
+ */
+public final class TurnByTurnPropagator {
+
+    /*
+     * Global Constants
+     */
+
+    /** Size of the homogeneous phase coordinate vectors */
+    public static final int     INT_SIZE = 7;
+
+    /** Number of binary powers of the one-turn matrix, enough for any non-negative <code>int</code> turn */
+    private static final int    CNT_POWERS = 31;
+
+
+    /*
+     * Local Attributes
+     */
+
+    /** Transfer matrix from the injection location to the observation location (row major) */
+    private final double[]      arrMatInj;
+
+    /** The binary powers of the one-turn matrix at the observation location (row major) */
+    private final double[][]    arrMatPow;
+
+
+    /*
+     * Initialization
+     */
+
+    /**
+     * Creates a new propagator for the given matrices.
+     *
+     * @param matInjToObs   transfer matrix <b>&Phi;</b><sub>2,1</sub> from the injection location to the observation location
+     * @param matOneTurn    one-turn matrix <b>&Phi;</b><sub>2,2</sub> at the observation location
+     *
+     * @since  Oct 18, 2026
+     */
+    public TurnByTurnPropagator(PhaseMatrix matInjToObs, PhaseMatrix matOneTurn) {
+        this.arrMatInj = TurnByTurnPropagator.toRowMajor(matInjToObs);
+        this.arrMatPow = new double[CNT_POWERS][];
+
+        this.arrMatPow[0] = TurnByTurnPropagator.toRowMajor(matOneTurn);
+        for (int k=1; k<CNT_POWERS; k++) {
+            this.arrMatPow[k] = TurnByTurnPropagator.square(this.arrMatPow[k-1]);
+        }
+    }
+
+
+    /*
+     * Operations
+     */
+
+    /**
+     * <p>
+     * Computes the turn-by-turn response to the given injection coordinates,
+     * writing the phase coordinates <b>z</b><sub><i>n</i></sub> of turn <i>n</i> into
+     * the row <i>n</i> of the given array for each of its rows.  No objects are
+     * allocated, so preallocated output arrays may be reused between calls.
+     * </p>
+     *
+     * @param vecInj    phase coordinates <b>z</b><sub>inj</sub> at the injection location (length 7)
+     * @param arrTurns  receives the turn-by-turn coordinates, one distinct row of length at least 7 per turn
+     *
+     * @since  Oct 18, 2026
+     */
+    public void propagate(double[] vecInj, double[][] arrTurns) {
+        if (arrTurns.length == 0)
+            return;
+
+        final double[]  arrMatFull = this.arrMatPow[0];
+
+        TurnByTurnPropagator.times(this.arrMatInj, vecInj, arrTurns[0]);
+        for (int n=1; n<arrTurns.length; n++) {
+            TurnByTurnPropagator.times(arrMatFull, arrTurns[n-1], arrTurns[n]);
+        }
+    }
+
+    /**
+     * Computes the turn-by-turn response to the given injection coordinates.
+     *
+     * @param vecInj    phase coordinates <b>z</b><sub>inj</sub> at the injection location (length 7)
+     * @param cntTurns  number of turns <i>N</i>
+     *
+     * @return          the phase coordinates { <b>z</b><sub><i>n</i></sub> | <i>n</i> = 0,...,<i>N</i>-1 } as a <code>double[N][7]</code> array
+     *
+     * @since  Oct 18, 2026
+     */
+    public double[][] propagate(double[] vecInj, int cntTurns) {
+        double[][]  arrTurns = new double[cntTurns][INT_SIZE];
+
+        this.propagate(vecInj, arrTurns);
+
+        return arrTurns;
+    }
+
+    /**
+     * Computes the turn-by-turn responses to each of the given injection coordinates.
+     * The responses are computed in parallel.
+     *
+     * @param arrVecInj the phase coordinates of each injected particle (each of length 7)
+     * @param cntTurns  number of turns <i>N</i>
+     *
+     * @return          the turn-by-turn response of each particle, as a <code>double[particles][N][7]</code> array
+     *
+     * @since  Oct 18, 2026
+     */
+    public double[][][] propagate(final double[][] arrVecInj, final int cntTurns) {
+        final double[][][]  arrRsps = new double[arrVecInj.length][][];
+
+        IntStream.range(0, arrVecInj.length).parallel().forEach( i -> arrRsps[i] = this.propagate(arrVecInj[i], cntTurns) );
+
+        return arrRsps;
+    }
+
+    /**
+     * <p>
+     * Computes the phase coordinates <b>z</b><sub><i>n</i></sub> at the given turn
+     * directly, without propagating through the preceding turns.  At most 31
+     * matrix-vector products are performed whatever the turn.
+     * </p>
+     *
+     * @param vecInj    phase coordinates <b>z</b><sub>inj</sub> at the injection location (length 7)
+     * @param intTurn   the turn <i>n</i> &ge; 0
+     * @param vecOut    receives the phase coordinates <b>z</b><sub><i>n</i></sub> (length at least 7, distinct from <code>vecInj</code>)
+     *
+     * @throws IllegalArgumentException the turn is negative
+     *
+     * @since  Oct 18, 2026
+     */
+    public void computeAtTurn(double[] vecInj, int intTurn, double[] vecOut) throws IllegalArgumentException {
+        if (intTurn < 0)
+            throw new IllegalArgumentException("The turn must be non-negative: " + intTurn);
+
+        double[]    vecSrc = vecOut;
+        double[]    vecDst = new double[INT_SIZE];
+
+        TurnByTurnPropagator.times(this.arrMatInj, vecInj, vecSrc);
+        for (int k=0; intTurn != 0; k++, intTurn >>>= 1) {
+            if ( (intTurn & 1) == 0 )
+                continue;
+
+            TurnByTurnPropagator.times(this.arrMatPow[k], vecSrc, vecDst);
+
+            double[] vecTmp = vecSrc;
+            vecSrc = vecDst;
+            vecDst = vecTmp;
+        }
+
+        if (vecSrc != vecOut)
+            System.arraycopy(vecSrc, 0, vecOut, 0, INT_SIZE);
+    }
+
+    /**
+     * Computes the phase coordinates <b>z</b><sub><i>n</i></sub> at the given turn
+     * directly, without propagating through the preceding turns.
+     *
+     * @param vecInj    phase coordinates <b>z</b><sub>inj</sub> at the injection location (length 7)
+     * @param intTurn   the turn <i>n</i> &ge; 0
+     *
+     * @return          the phase coordinates <b>z</b><sub><i>n</i></sub>
+     *
+     * @throws IllegalArgumentException the turn is negative
+     *
+     * @since  Oct 18, 2026
+     */
+    public double[] computeAtTurn(double[] vecInj, int intTurn) throws IllegalArgumentException {
+        double[]    vecOut = new double[INT_SIZE];
+
+        this.computeAtTurn(vecInj, intTurn, vecOut);
+
+        return vecOut;
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Copies the given phase matrix into a row major array.
+     *
+     * @param matPhi    phase matrix
+     *
+     * @return          the 49 elements of the matrix in row major order
+     */
+    private static double[] toRowMajor(PhaseMatrix matPhi) {
+        double[]    arrMat = new double[INT_SIZE*INT_SIZE];
+
+        for (int i=0; i<INT_SIZE; i++)
+            for (int j=0; j<INT_SIZE; j++)
+                arrMat[i*INT_SIZE + j] = matPhi.getElem(i, j);
+
+        return arrMat;
+    }
+
+    /**
+     * Computes the matrix-vector product <b>y</b> = <b>Ax</b>.  The vectors must
+     * be distinct arrays.
+     *
+     * @param arrMat    matrix <b>A</b> in row major order
+     * @param vecFac    vector <b>x</b>
+     * @param vecPrd    receives the product <b>y</b>
+     */
+    private static void times(double[] arrMat, double[] vecFac, double[] vecPrd) {
+        for (int i=0, ij=0; i<INT_SIZE; i++) {
+            double  dblSum = 0.0;
+
+            for (int j=0; j<INT_SIZE; j++, ij++)
+                dblSum += arrMat[ij] * vecFac[j];
+
+            vecPrd[i] = dblSum;
+        }
+    }
+
+    /**
+     * Computes the square <b>A</b><sup>2</sup> of the given matrix.
+     *
+     * @param arrMat    matrix <b>A</b> in row major order
+     *
+     * @return          the matrix <b>A</b><sup>2</sup> in row major order
+     */
+    private static double[] square(double[] arrMat) {
+        double[]    arrSqr = new double[INT_SIZE*INT_SIZE];
+
+        for (int i=0; i<INT_SIZE; i++) {
+            for (int j=0; j<INT_SIZE; j++) {
+                double  dblSum = 0.0;
+
+                for (int k=0; k<INT_SIZE; k++)
+                    dblSum += arrMat[i*INT_SIZE + k] * arrMat[k*INT_SIZE + j];
+
+                arrSqr[i*INT_SIZE + j] = dblSum;
+            }
+        }
+
+        return arrSqr;
+    }
+}
@@ -0,0 +1,670 @@
+/*
+ * ColumnarEnsemble.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.tools.beam.ens;
+
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import xal.tools.beam.CovarianceMatrix;
+import xal.tools.beam.IConstants;
+import xal.tools.beam.PhaseMatrix;
+import xal.tools.beam.PhaseVector;
+import xal.tools.dispatch.DispatchQueue;
+import xal.tools.dispatch.DispatchReductionKernel;
+import xal.tools.math.r3.R3;
+
+
+/**
+ * <p>
+ * An ensemble of charged particles of a single species whose coordinates are stored
+ * column-wise, that is, one <code>double[]</code> array for each of the phase coordinates
+ * (<i>x</i>, <i>x'</i>, <i>y</i>, <i>y'</i>, <i>z</i>, <i>z'</i>) and one for the particle
+ * charges.  No <code>Particle</code> objects are kept, so ensembles of 10<sup>5</sup>
+ * to 10<sup>6</sup> macro-particles remain compact, and the moment computations and
+ * transfer matrix pushes run as tight loops over the columns.  Large ensembles are
+ * processed in blocks of particles in parallel on the global dispatch queue.
+ * </p>
+ * <h3>NOTES:</h3>
+ * <p>
+ * &middot; The <code>Particle</code> objects returned by <code>{@link #iterator()}</code>
+ * are copies of the stored coordinates; modifying them does not modify the ensemble.
+ * <br>
+ * &middot; All particles must have the same mass, which is taken from the first particle
+ * added.
+ * <br>
+ * &middot; The particles are kept in the order they were added rather than sorted by
+ * their phase norms.
+ * <br>
+ * &middot; The statistical and electromagnetic properties agree with those of
+ * <code>Ensemble</code> to rounding, except as follows.  The homogeneous diagonal
+ * element of <code>{@link #phaseCovariance()}</code> is exactly 1 here, whereas
+ * <code>Ensemble</code> returns 1/<i>N</i> for it, since <code>PhaseMatrix#plusEquals</code>
+ * holds the element at 1 during the summation and the sum is then scaled by 1/<i>N</i>.
+ * <code>{@link #potentialSummation(R3)}</code> here divides by the distance
+ * to each particle, whereas <code>Particle#electricPotential(R3)</code>, and so
+ * <code>Ensemble</code>, divides by the squared distance returned by
+ * <code>R3#norm2()</code>.
+ * </p>
+ *
+ * @since  Oct 18, 2026
+ */
+public class ColumnarEnsemble extends Ensemble {
+
+
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+
+    /*
+     * Global Constants
+     */
+
+    /** number of particles processed by one task of a parallel operation */
+    private static final int        INT_BLOCK_SIZE = 4096;
+
+    /** the minimum number of particles for which operations are run in parallel */
+    private static final int        INT_MIN_PARALLEL = 4*INT_BLOCK_SIZE;
+
+    /** initial capacity of the columns */
+    private static final int        INT_INIT_CAPACITY = 64;
+
+    /** number of phase coordinates (not including the homogeneous coordinate) */
+    private static final int        INT_CNT_COORDS = 6;
+
+    /** number of distinct second moments of the phase coordinates */
+    private static final int        INT_CNT_MOMENTS = INT_CNT_COORDS*(INT_CNT_COORDS + 1)/2;
+
+
+    /*
+     * Local Attributes
+     */
+
+    /** the phase coordinate columns, in the order x, x', y, y', z, z' */
+    private double[][]      arrCoords;
+
+    /** the particle charges */
+    private double[]        arrCharge;
+
+    /** the mass of every particle */
+    private double          dblMass;
+
+    /** number of particles in the ensemble */
+    private int             cntParticles;
+
+
+    /*
+     * Initialization
+     */
+
+    /**
+     * Creates a new, empty columnar ensemble.
+     */
+    public ColumnarEnsemble() {
+        this(INT_INIT_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty columnar ensemble with room for the given number of
+     * particles before the columns must grow.
+     *
+     * @param cntCapacity   initial capacity of the ensemble
+     */
+    public ColumnarEnsemble(int cntCapacity) {
+        super();
+
+        int szCap = Math.max(1, cntCapacity);
+
+        this.arrCoords = new double[INT_CNT_COORDS][szCap];
+        this.arrCharge = new double[szCap];
+        this.dblMass   = Double.NaN;
+        this.cntParticles = 0;
+    }
+
+    /**
+     * Creates a columnar ensemble containing copies of the particles of the given
+     * ensemble, which may be of either type.
+     *
+     * @param ens   ensemble whose particles are copied
+     */
+    public ColumnarEnsemble(Ensemble ens) {
+        this(ens.getCount());
+
+        if (ens instanceof ColumnarEnsemble) {
+            ColumnarEnsemble    ensCols = (ColumnarEnsemble)ens;
+
+            for (int i=0; i<INT_CNT_COORDS; i++)
+                System.arraycopy(ensCols.arrCoords[i], 0, this.arrCoords[i], 0, ensCols.cntParticles);
+            System.arraycopy(ensCols.arrCharge, 0, this.arrCharge, 0, ensCols.cntParticles);
+
+            this.dblMass      = ensCols.dblMass;
+            this.cntParticles = ensCols.cntParticles;
+
+            return;
+        }
+
+        Iterator<Particle>  iter = ens.iterator();
+        while (iter.hasNext())
+            this.add( iter.next() );
+    }
+
+    /**
+     * Create a deep copy of this ensemble, which is also columnar.
+     */
+    @Override
+    public ColumnarEnsemble deepCopy() {
+        return new ColumnarEnsemble(this);
+    }
+
+    /**
+     * Adds a copy of the given particle to the ensemble.
+     *
+     * @param p     particle to add
+     *
+     * @throws IllegalArgumentException the particle mass differs from that of the ensemble
+     */
+    @Override
+    public void add(Particle p) throws IllegalArgumentException {
+        this.add(p.getCharge(), p.getMass(), p.getPhase());
+    }
+
+    /**
+     * Adds a particle with the given properties to the ensemble.
+     *
+     * @param dblChrg   particle charge
+     * @param dblMass   particle mass
+     * @param vecPhs    particle phase coordinates
+     *
+     * @throws IllegalArgumentException the particle mass differs from that of the ensemble
+     */
+    public void add(double dblChrg, double dblMass, PhaseVector vecPhs) throws IllegalArgumentException {
+        if (this.cntParticles == 0)
+            this.dblMass = dblMass;
+        else if (Double.compare(dblMass, this.dblMass) != 0)
+            throw new IllegalArgumentException("ColumnarEnsemble#add() - particle mass " + dblMass + " differs from ensemble mass " + this.dblMass);
+
+        if (this.cntParticles == this.arrCharge.length)
+            this.grow();
+
+        for (int i=0; i<INT_CNT_COORDS; i++)
+            this.arrCoords[i][this.cntParticles] = vecPhs.getElem(i);
+        this.arrCharge[this.cntParticles] = dblChrg;
+
+        this.cntParticles++;
+    }
+
+    /**
+     * Iterates through copies of the ensemble particles in the order they were added.
+     */
+    @Override
+    public Iterator<Particle> iterator() {
+        return new Iterator<Particle>() {
+
+            private int     index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < cntParticles;
+            }
+
+            @Override
+            public Particle next() {
+                if (!this.hasNext())
+                    throw new NoSuchElementException();
+
+                return particle(this.index++);
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the particle with the given index.
+     *
+     * @param index     index of the particle in the order the particles were added
+     *
+     * @return          new particle with the charge, mass, and coordinates of the indexed particle
+     *
+     * @throws IndexOutOfBoundsException    the index is not that of an ensemble particle
+     */
+    public Particle particle(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= this.cntParticles)
+            throw new IndexOutOfBoundsException("ColumnarEnsemble#particle() - no particle " + index);
+
+        PhaseVector     vecPhs = new PhaseVector(this.arrCoords[0][index], this.arrCoords[1][index],
+                                                 this.arrCoords[2][index], this.arrCoords[3][index],
+                                                 this.arrCoords[4][index], this.arrCoords[5][index]);
+
+        return new Particle(this.arrCharge[index], this.dblMass, vecPhs);
+    }
+
+    /**
+     * Returns the given phase coordinate column.  The returned array is the ensemble's
+     * storage and may be longer than the number of particles; only the first
+     * <code>{@link #getCount()}</code> entries are valid.  Modifying it modifies the ensemble.
+     *
+     * @param iCoord    index of the phase coordinate, 0 through 5 for <i>x</i> through <i>z'</i>
+     *
+     * @return          the column of the phase coordinate
+     */
+    public double[] getCoordinates(int iCoord) {
+        return this.arrCoords[iCoord];
+    }
+
+    /**
+     * Returns the column of particle charges.  The returned array is the ensemble's
+     * storage and may be longer than the number of particles.
+     *
+     * @return      the column of particle charges
+     */
+    public double[] getCharges() {
+        return this.arrCharge;
+    }
+
+    /**
+     * Returns the mass common to all the ensemble particles.
+     *
+     * @return  particle mass, or <code>NaN</code> if the ensemble is empty
+     */
+    public double getParticleMass() {
+        return this.dblMass;
+    }
+
+
+    /*
+     * Statistical Properties
+     */
+
+    /**
+     *  Get size of ensemble
+     */
+    @Override
+    public int getCount() {
+        return this.cntParticles;
+    }
+
+    /**
+     *  Compute the centroid of the ensemble
+     *
+     *  @return     homogeneous phase space coordinates of ensemble centroid
+     */
+    @Override
+    public PhaseVector phaseMean() {
+        double[]    arrSums = this.sumMoments();
+        double      dblNorm = 1.0/this.cntParticles;
+
+        PhaseVector vecMean = new PhaseVector();
+        for (int i=0; i<INT_CNT_COORDS; i++)
+            vecMean.setElem(i, dblNorm*arrSums[i]);
+
+        return vecMean;
+    }
+
+    /**
+     *  Get the correlation matrix of the ensemble in homogeneous coordinates
+     *
+     *  @return         the 7x7 correlation matrix of the ensemble distribution
+     */
+    @Override
+    public CovarianceMatrix phaseCovariance() {
+        double[]            arrSums  = this.sumMoments();
+        double              dblNorm  = 1.0/this.cntParticles;
+        CovarianceMatrix    matSigma = new CovarianceMatrix();
+
+        int     k = INT_CNT_COORDS;
+        for (int i=0; i<INT_CNT_COORDS; i++) {
+            double  dblMean = dblNorm*arrSums[i];
+
+            matSigma.setElem(i, INT_CNT_COORDS, dblMean);
+            matSigma.setElem(INT_CNT_COORDS, i, dblMean);
+
+            for (int j=i; j<INT_CNT_COORDS; j++, k++) {
+                double  dblMom = dblNorm*arrSums[k];
+
+                matSigma.setElem(i, j, dblMom);
+                matSigma.setElem(j, i, dblMom);
+            }
+        }
+        matSigma.setElem(INT_CNT_COORDS, INT_CNT_COORDS, 1.0);
+
+        return matSigma;
+    }
+
+
+    /*
+     * Electromagnetic Properties
+     */
+
+    /**
+     *  Get the total current of the ensemble.
+     *  <p>
+     *  NOTE:
+     *      If the momentum components of the particle phases are not the velocities,
+     *      the return value must be scaled.  For example, if the trace
+     *      space values are used then the returned value must be multiplied by
+     *      beta*c.
+     */
+    @Override
+    public R3 totalCurrent() {
+        double[]    arrXp = this.arrCoords[1];
+        double[]    arrYp = this.arrCoords[3];
+        double[]    arrZp = this.arrCoords[5];
+
+        double  Ix = 0.0, Iy = 0.0, Iz = 0.0;
+        for (int n=0; n<this.cntParticles; n++) {
+            double  q = this.arrCharge[n];
+
+            Ix += q*arrXp[n];
+            Iy += q*arrYp[n];
+            Iz += q*arrZp[n];
+        }
+
+        return new R3(Ix, Iy, Iz);
+    }
+
+    /**
+     *  Get the total charge of the ensemble
+     */
+    @Override
+    public double totalCharge() {
+        double  Q = 0.0;
+
+        for (int n=0; n<this.cntParticles; n++)
+            Q += this.arrCharge[n];
+
+        return Q;
+    }
+
+    /**
+     *  Computes the Coulomb potential of the ensemble at the given field point.
+     *  Each particle is treated as a uniform sphere with the classical proton radius,
+     *  as in <code>{@link Particle#electricPotential(R3)}</code>, but at its Euclidean
+     *  distance from the field point rather than the squared distance used there (see
+     *  the class notes).
+     *
+     *  @param  ptFld   field point to evaluate the potential
+     *
+     *  @return         the coulomb potential in MKS units
+     */
+    @Override
+    public double potentialSummation(final R3 ptFld) {
+        final double    xf = ptFld.get1();
+        final double    yf = ptFld.get2();
+        final double    zf = ptFld.get3();
+        final double    R  = IConstants.ProtonRadius;
+
+        double[]    arrSum = this.reduceBlocks(new BlockReduction() {
+
+            @Override
+            public void accumulate(double[] arrAcc, int iStart, int iStop) {
+                double[]    arrX = arrCoords[0];
+                double[]    arrY = arrCoords[2];
+                double[]    arrZ = arrCoords[4];
+
+                double  dblSum = 0.0;
+                for (int n=iStart; n<iStop; n++) {
+                    double  dx = xf - arrX[n];
+                    double  dy = yf - arrY[n];
+                    double  dz = zf - arrZ[n];
+                    double  d  = Math.sqrt(dx*dx + dy*dy + dz*dz);
+
+                    if (d > R)
+                        dblSum += arrCharge[n]/d;
+                    else
+                        dblSum += 0.5*arrCharge[n]*(3.0 - (d*d)/(R*R))/R;
+                }
+                arrAcc[0] += dblSum;
+            }
+        }, 1);
+
+        return Particle.s_dblFacElec*arrSum[0];
+    }
+
+
+    /*
+     * Operations
+     */
+
+    /**
+     * Applies the given transfer matrix to the phase coordinates of every particle.
+     * Large ensembles are pushed in parallel blocks.
+     *
+     * @param matPhi    transfer matrix in homogeneous coordinates
+     */
+    @Override
+    public void applyTransferMap(PhaseMatrix matPhi) {
+
+        // Extract the matrix coefficients once, including the homogeneous (translation) column
+        final double[][]    arrPhi = new double[INT_CNT_COORDS][INT_CNT_COORDS + 1];
+
+        for (int i=0; i<INT_CNT_COORDS; i++)
+            for (int j=0; j<=INT_CNT_COORDS; j++)
+                arrPhi[i][j] = matPhi.getElem(i, j);
+
+        final int   cntBlocks = this.blockCount();
+
+        if (this.cntParticles < INT_MIN_PARALLEL) {
+            this.pushBlock(arrPhi, 0, this.cntParticles);
+
+        } else {
+            DispatchQueue.getGlobalDefaultPriorityQueue().dispatchApply(cntBlocks,
+                    iBlock -> this.pushBlock(arrPhi, iBlock*INT_BLOCK_SIZE, Math.min(this.cntParticles, (iBlock + 1)*INT_BLOCK_SIZE))
+                    );
+        }
+    }
+
+
+    /*
+     * Persistence
+     */
+
+    /**
+     *  Populate the ensemble from a data file written by <code>{@link #save(File)}</code>.
+     *
+     *  @param  file    descriptor of file containing persistent data
+     *
+     *  @return         true if successfully recovered ensemble from file
+     */
+    @Override
+    public boolean load(File file) {
+        try (ObjectInputStream is = new ObjectInputStream( new FileInputStream(file) )) {
+            ColumnarEnsemble    ens = (ColumnarEnsemble)is.readObject();
+
+            this.arrCoords    = ens.arrCoords;
+            this.arrCharge    = ens.arrCharge;
+            this.dblMass      = ens.dblMass;
+            this.cntParticles = ens.cntParticles;
+
+            return true;
+
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            return false;
+        }
+    }
+
+    /**
+     *  Save the ensemble columns to a persistent disk file.
+     *
+     *  @param  file    file containing persistent data
+     *
+     *  @return         true if successfully saved ensemble to file
+     */
+    @Override
+    public boolean save(File file) {
+        this.trimToSize();
+
+        try (ObjectOutputStream os = new ObjectOutputStream( new FileOutputStream(file) )) {
+            os.writeObject(this);
+
+            return true;
+
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Accumulates statistics over a contiguous block of particles.
+     */
+    private interface BlockReduction {
+
+        /**
+         * Add the contributions of the particles in the given index range to the accumulator.
+         *
+         * @param arrAcc    the accumulator of the block
+         * @param iStart    index of the first particle
+         * @param iStop     index following the last particle
+         */
+        public void accumulate(double[] arrAcc, int iStart, int iStop);
+    }
+
+    /**
+     * Reduces the particles block by block, in parallel for large ensembles,
+     * and returns the sum of the block accumulators.
+     *
+     * @param redBlock  the reduction of a single block
+     * @param szAcc     size of the accumulator
+     *
+     * @return          sum of the accumulators of all blocks
+     */
+    private double[] reduceBlocks(final BlockReduction redBlock, final int szAcc) {
+        if (this.cntParticles < INT_MIN_PARALLEL) {
+            double[]    arrAcc = new double[szAcc];
+
+            redBlock.accumulate(arrAcc, 0, this.cntParticles);
+
+            return arrAcc;
+        }
+
+        return DispatchQueue.getGlobalDefaultPriorityQueue().dispatchApply(this.blockCount(), new DispatchReductionKernel<double[]>() {
+
+            @Override
+            public double[] createAccumulator() {
+                return new double[szAcc];
+            }
+
+            @Override
+            public double[] accumulate(double[] arrAcc, int iBlock) {
+                redBlock.accumulate(arrAcc, iBlock*INT_BLOCK_SIZE, Math.min(cntParticles, (iBlock + 1)*INT_BLOCK_SIZE));
+
+                return arrAcc;
+            }
+
+            @Override
+            public double[] combine(double[] arrLeft, double[] arrRight) {
+                for (int k=0; k<szAcc; k++)
+                    arrLeft[k] += arrRight[k];
+
+                return arrLeft;
+            }
+        });
+    }
+
+    /**
+     * Computes the sums of the phase coordinates followed by the sums of
+     * their products <i>z<sub>i</sub>z<sub>j</sub></i>, <i>i</i> &le; <i>j</i>,
+     * in row order.
+     *
+     * @return  array of the 6 first moment sums and 21 second moment sums
+     */
+    private double[] sumMoments() {
+        return this.reduceBlocks(new BlockReduction() {
+
+            @Override
+            public void accumulate(double[] arrAcc, int iStart, int iStop) {
+                int     k = INT_CNT_COORDS;
+
+                for (int i=0; i<INT_CNT_COORDS; i++) {
+                    double[]    arrI = arrCoords[i];
+
+                    double  dblSum = 0.0;
+                    for (int n=iStart; n<iStop; n++)
+                        dblSum += arrI[n];
+                    arrAcc[i] += dblSum;
+
+                    for (int j=i; j<INT_CNT_COORDS; j++, k++) {
+                        double[]    arrJ = arrCoords[j];
+
+                        double  dblMom = 0.0;
+                        for (int n=iStart; n<iStop; n++)
+                            dblMom += arrI[n]*arrJ[n];
+                        arrAcc[k] += dblMom;
+                    }
+                }
+            }
+        }, INT_CNT_COORDS + INT_CNT_MOMENTS);
+    }
+
+    /**
+     * Applies the transfer matrix coefficients to the particles in the given index range.
+     *
+     * @param arrPhi    the 6&times;7 upper block of the homogeneous transfer matrix
+     * @param iStart    index of the first particle
+     * @param iStop     index following the last particle
+     */
+    private void pushBlock(double[][] arrPhi, int iStart, int iStop) {
+        double[]    arrZ0 = new double[INT_CNT_COORDS];
+
+        for (int n=iStart; n<iStop; n++) {
+            for (int j=0; j<INT_CNT_COORDS; j++)
+                arrZ0[j] = this.arrCoords[j][n];
+
+            for (int i=0; i<INT_CNT_COORDS; i++) {
+                double[]    arrRow = arrPhi[i];
+                double      dblZ1  = arrRow[INT_CNT_COORDS];
+
+                for (int j=0; j<INT_CNT_COORDS; j++)
+                    dblZ1 += arrRow[j]*arrZ0[j];
+
+                this.arrCoords[i][n] = dblZ1;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of blocks of particles processed by parallel operations.
+     *
+     * @return  number of particle blocks
+     */
+    private int blockCount() {
+        return (this.cntParticles + INT_BLOCK_SIZE - 1)/INT_BLOCK_SIZE;
+    }
+
+    /**
+     * Doubles the capacity of the columns.
+     */
+    private void grow() {
+        int     szCap = 2*this.arrCharge.length;
+
+        for (int i=0; i<INT_CNT_COORDS; i++)
+            this.arrCoords[i] = Arrays.copyOf(this.arrCoords[i], szCap);
+        this.arrCharge = Arrays.copyOf(this.arrCharge, szCap);
+    }
+
+    /**
+     * Shrinks the columns to the number of particles.
+     */
+    private void trimToSize() {
+        if (this.arrCharge.length == this.cntParticles || this.cntParticles == 0)
+            return;
+
+        for (int i=0; i<INT_CNT_COORDS; i++)
+            this.arrCoords[i] = Arrays.copyOf(this.arrCoords[i], this.cntParticles);
+        this.arrCharge = Arrays.copyOf(this.arrCharge, this.cntParticles);
+    }
+}
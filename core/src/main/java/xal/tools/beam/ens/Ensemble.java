@@ -268,6 +268,33 @@ public class Ensemble implements Serializable {
     
     
     
+    /*
+     *  Operations
+     */
+    
+    
+    /**
+     *  Applies the given transfer matrix to the phase coordinates of every particle.
+     *  The particles receive new phase vectors and are re-sorted by their norms.
+     *
+     *  @param  matPhi  transfer matrix in homogeneous coordinates
+     */
+    public void applyTransferMap(PhaseMatrix matPhi)  {
+        TreeSet<Particle>  setNew = new TreeSet<Particle>(new SortByNorm());
+        Iterator<Particle> iter = this.iterator();
+        
+        while (iter.hasNext())  {
+            Particle p = iter.next();
+            
+            p.setPhase( matPhi.times(p.getPhase()) );
+            setNew.add(p);
+        }
+        
+        m_setEns = setNew;
+    };
+    
+    
+    
     /*
      *  Electromagnetic Properties
      */
@@ -614,7 +641,7 @@ public class Ensemble implements Serializable {
      *  @return         TreeSet container of cloned particles
      */
     protected TreeSet<Particle> deepCopyParticles(Ensemble ens)   {
-        TreeSet<Particle>  set = new TreeSet<Particle>();
+        TreeSet<Particle>  set = new TreeSet<Particle>(new SortByNorm());
         Iterator<Particle> iter = ens.iterator();
         while (iter.hasNext())  {
             Particle p = iter.next();
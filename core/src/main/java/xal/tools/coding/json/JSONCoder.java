@@ -11,8 +11,9 @@ package xal.tools.coding.json;
 import xal.tools.coding.*;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.*;
 import java.io.*;
 
 
@@ -110,6 +111,40 @@ public class JSONCoder implements Coder {
     }
 
 
+    /**
+     * Decode the JSON archive read from the reader which is read to its end but not closed
+     * @param reader source of the JSON representation of an object
+     * @return an object with the data described in the archive
+     * @throws IOException if the archive cannot be read
+     */
+    public Object decode( final Reader reader ) throws IOException {
+        final StringBuilder archive = new StringBuilder();
+        final char[] buffer = new char[JSONOutput.BUFFER_SIZE];
+        int readCount;
+        while ( ( readCount = reader.read( buffer ) ) != -1 ) {
+            archive.append( buffer, 0, readCount );
+        }
+        return decode( archive );
+    }
+
+
+    /**
+     * Decode the UTF-8 encoded JSON archive from the buffer's position to its limit. The buffer's position is advanced to its limit.
+     * @param buffer buffer holding the UTF-8 JSON representation of an object
+     * @return an object with the data described in the archive
+     */
+    public Object decode( final ByteBuffer buffer ) {
+        return decode( StandardCharsets.UTF_8.decode( buffer ) );
+    }
+
+
+    /** Decode the JSON archive from the characters without copying them */
+    private Object decode( final CharSequence archive ) {
+        final JSONDecoder decoder = JSONDecoder.getInstance( archive, new ConversionAdaptorStore( CONVERSION_ADAPTOR_STORE ) );
+        return decoder.decode();
+    }
+
+
     /**
      * Encode the object as a JSON string using the default encoder
      * @param value the object to encode
@@ -128,6 +163,123 @@ public class JSONCoder implements Coder {
     public String encode( final Object value ) {
         return JSONEncoder.encode( value, new ConversionAdaptorStore( CONVERSION_ADAPTOR_STORE ) );
     }
+
+
+    /**
+     * Encode the object as JSON written to the writer as it is generated. The writer is flushed but not closed.
+     * @param value the object to encode
+     * @param writer destination of the JSON representation of the value
+     * @throws IOException if the JSON cannot be written
+     */
+    public void encode( final Object value, final Writer writer ) throws IOException {
+        try {
+            JSONEncoder.getInstance( new ConversionAdaptorStore( CONVERSION_ADAPTOR_STORE ) ).encode( value, new JSONOutput( writer ) );
+            writer.flush();
+        }
+        catch ( UncheckedIOException exception ) {
+            throw exception.getCause();
+        }
+    }
+}
+
+
+
+/** Destination of the encoded JSON which accumulates the characters in a buffer that is written to the writer (if any) whenever it fills */
+class JSONOutput {
+    /** size of the buffer at which the characters are written to the writer */
+    static final int BUFFER_SIZE = 8192;
+
+    /** characters not yet written */
+    final private StringBuilder BUFFER;
+
+    /** writer to which the characters are written or null to accumulate all characters */
+    final private Writer WRITER;
+
+    /** buffer for transferring characters to the writer */
+    final private char[] TRANSFER_BUFFER;
+
+
+    /** Constructor to accumulate all characters */
+    public JSONOutput() {
+        this( null );
+    }
+
+
+    /** Constructor to write the characters to the specified writer */
+    public JSONOutput( final Writer writer ) {
+        WRITER = writer;
+        BUFFER = new StringBuilder( writer != null ? 2 * BUFFER_SIZE : 16 );
+        TRANSFER_BUFFER = writer != null ? new char[ 2 * BUFFER_SIZE ] : null;
+    }
+
+
+    /** append the string */
+    public JSONOutput append( final String text ) {
+        BUFFER.append( text );
+        return checkBuffer();
+    }
+
+
+    /** append the character */
+    public JSONOutput append( final char character ) {
+        BUFFER.append( character );
+        return checkBuffer();
+    }
+
+
+    /** append the number with the same format as Long.toString() */
+    public JSONOutput append( final long number ) {
+        BUFFER.append( number );
+        return checkBuffer();
+    }
+
+
+    /** append the number with the same format as Float.toString() */
+    public JSONOutput append( final float number ) {
+        BUFFER.append( number );
+        return checkBuffer();
+    }
+
+
+    /** append the number with the same format as Double.toString() */
+    public JSONOutput append( final double number ) {
+        BUFFER.append( number );
+        return checkBuffer();
+    }
+
+
+    /** write the buffer to the writer if the buffer is full */
+    private JSONOutput checkBuffer() {
+        if ( WRITER != null && BUFFER.length() >= BUFFER_SIZE )  flush();
+        return this;
+    }
+
+
+    /** write any buffered characters to the writer */
+    public void flush() {
+        if ( WRITER == null )  return;
+
+        try {
+            int start = 0;
+            final int length = BUFFER.length();
+            while ( start < length ) {
+                final int end = Math.min( length, start + TRANSFER_BUFFER.length );
+                BUFFER.getChars( start, end, TRANSFER_BUFFER, 0 );
+                WRITER.write( TRANSFER_BUFFER, 0, end - start );
+                start = end;
+            }
+            BUFFER.setLength( 0 );
+        }
+        catch ( IOException exception ) {
+            throw new UncheckedIOException( "Exception writing the JSON output.", exception );
+        }
+    }
+
+
+    /** get the characters accumulated so far */
+    public String toString() {
+        return BUFFER.toString();
+    }
 }
 
 
@@ -169,15 +321,21 @@ class JSONEncoder {
 
     /** encode the specified value */
     public String encode( final Object value ) {
+        final JSONOutput jsonBuilder = new JSONOutput();
+        encode( value, jsonBuilder );
+        return jsonBuilder.toString();
+    }
+
+
+    /** encode the specified value to the output */
+    public void encode( final Object value, final JSONOutput jsonBuilder ) {
         _referenceStore = new ReferenceStore();
 
         final AbstractEncoder<?> rootEncoder = getEncoder( value );
         rootEncoder.preprocess( this, value );
 
-        final StringBuilder jsonBuilder = new StringBuilder();
         rootEncoder.encode( this, jsonBuilder, value );
-
-        return jsonBuilder.toString();
+        jsonBuilder.flush();
     }
 
 
@@ -233,12 +391,12 @@ abstract class AbstractEncoder<DataType> {
     abstract public void preprocess( final JSONEncoder encoder, final Object value );
 
 
-    /** encode the specified object to the JSON builder */
-    abstract public void encode( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value );
+    /** encode the specified object to the JSON output */
+    abstract public void encode( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value );
 
 
-    /** encode the specified object to the JSON builder */
-    abstract public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value );
+    /** encode the specified object to the JSON output */
+    abstract public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value );
 }
 
 
@@ -249,8 +407,8 @@ abstract class HardEncoder<DataType> extends AbstractEncoder<DataType> {
     public void preprocess( final JSONEncoder encoder, final Object value ) {}
 
 
-    /** encode the specified object to the JSON builder */
-    public void encode( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    /** encode the specified object to the JSON output */
+    public void encode( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         encodeRaw( encoder, jsonBuilder, value );
     }
 }
@@ -269,8 +427,8 @@ abstract class SoftValueEncoder<DataType> extends AbstractEncoder<DataType> {
     static final public String VALUE_KEY = "value";
 
 
-    /** encode the specified object to the JSON builder */
-    public void encode( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    /** encode the specified object to the JSON output */
+    public void encode( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         if ( allowsReference( value ) ) {
             final ReferenceStore referenceStore = encoder.getReferenceStore();
             final IdentityReference<?> identityReference = referenceStore.getIdentityReference( value );
@@ -296,7 +454,7 @@ abstract class SoftValueEncoder<DataType> extends AbstractEncoder<DataType> {
 
     /** encode the string */
     @SuppressWarnings( "unchecked" )    // need to cast the value to Map<String,Object>
-    private void encodeReferenceSource( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value, final long referenceID ) {
+    private void encodeReferenceSource( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value, final long referenceID ) {
         jsonBuilder.append( "{" );
 
         StringEncoder.getInstance().encodeRaw( encoder, jsonBuilder, OBJECT_ID_KEY );
@@ -314,7 +472,7 @@ abstract class SoftValueEncoder<DataType> extends AbstractEncoder<DataType> {
 
     /** encode the string */
     @SuppressWarnings( "unchecked" )    // need to cast the value to Map<String,Object>
-    private void encodeReference( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value, final long referenceID ) {
+    private void encodeReference( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value, final long referenceID ) {
         jsonBuilder.append( "{" );
 
         jsonBuilder.append( "\"" + REFERENCE_KEY + "\"" );
@@ -332,7 +490,7 @@ abstract class SoftValueEncoder<DataType> extends AbstractEncoder<DataType> {
 
 
     /** encode the raw value directly */
-    abstract public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value );
+    abstract public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value );
 }
 
 
@@ -355,8 +513,8 @@ class NullEncoder extends HardEncoder<Object> {
     }
 
 
-    /** encode the specified object to the JSON builder */
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    /** encode the specified object to the JSON output */
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         jsonBuilder.append( "null" );
     }
 }
@@ -397,7 +555,7 @@ class StringEncoder extends SoftValueEncoder<String> {
 
 
     /** encode the string */
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         jsonBuilder.append( toJSON( value.toString() ) );
     }
 
@@ -428,8 +586,8 @@ class BooleanEncoder extends HardEncoder<Boolean> {
     }
 
 
-    /** encode the specified object to the JSON builder */
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    /** encode the specified object to the JSON output */
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         jsonBuilder.append( ((Boolean)value).booleanValue() ? "true" : "false" );
     }
 }
@@ -454,8 +612,8 @@ class NumberEncoder extends HardEncoder<Number> {
     }
 
 
-    /** encode the specified object to the JSON builder */
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    /** encode the specified object to the JSON output */
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         jsonBuilder.append( value.toString() );
     }
 }
@@ -499,7 +657,7 @@ class DictionaryEncoder extends SoftValueEncoder<Map<String,Object>> {
 
     /** encode the string */
     @SuppressWarnings( "unchecked" )    // need to cast the value to Map<String,Object>
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         final Map<String,Object> dictionary = (Map<String,Object>)value;
 
         jsonBuilder.append( "{" );
@@ -574,7 +732,7 @@ class ExtensionEncoder extends SoftValueEncoder<Object> {
 
 
     /** encode the string */
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         // create dictionary with the value so we can generate an object that can be referenced
         final ConversionAdaptorStore conversionAdaptorStore = encoder.getConversionAdaptorStore();
         final HashMap<String,Object> valueRep = getValueRep( value, conversionAdaptorStore );
@@ -659,7 +817,7 @@ class SerializationEncoder extends SoftValueEncoder<Serializable> {
 
 
     /** encode the string */
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         // create dictionary with the value so we can generate an object that can be referenced
         final HashMap<String,Object> valueRep = getValueRep( value );
         DictionaryEncoder.getInstance().encodeRaw( encoder, jsonBuilder, valueRep );        // encode this dictionary directly
@@ -712,17 +870,11 @@ class TypedArrayEncoder extends ArrayEncoder {
 
 
     /** encode the string */
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object array ) {
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object array ) {
         final String itemType = getComponentType( array );
 
         final ConversionAdaptorStore conversionAdaptorStore = encoder.getConversionAdaptorStore();
 
-        final int arrayLength = Array.getLength( array );
-        final Object[] objectArray = new Object[ arrayLength ];    // encode as a generic object array
-        for ( int index = 0 ; index < arrayLength ; index++ ) {
-            objectArray[index] = Array.get( array, index );
-        }
-
         jsonBuilder.append( "{" );
 
         StringEncoder.getInstance().encodeRaw( encoder, jsonBuilder, ARRAY_ITEM_TYPE_KEY );
@@ -733,6 +885,19 @@ class TypedArrayEncoder extends ArrayEncoder {
         StringEncoder.getInstance().encodeRaw( encoder, jsonBuilder, ARRAY_KEY );
         jsonBuilder.append( " : " );
 
+        // numeric primitive arrays are written directly in the same format that the standard adaptors produce item by item
+        if ( isNumericPrimitiveType( itemType ) && conversionAdaptorStore.hasStandardAdaptor( itemType ) ) {
+            encodeNumericPrimitiveArray( jsonBuilder, array );
+            jsonBuilder.append( "}" );
+            return;
+        }
+
+        final int arrayLength = Array.getLength( array );
+        final Object[] objectArray = new Object[ arrayLength ];    // encode as a generic object array
+        for ( int index = 0 ; index < arrayLength ; index++ ) {
+            objectArray[index] = Array.get( array, index );
+        }
+
         final boolean isExtendedType = conversionAdaptorStore.isExtendedType( itemType );
         if ( !isExtendedType ) {
             super.encodeRaw( encoder, jsonBuilder, objectArray );
@@ -752,9 +917,53 @@ class TypedArrayEncoder extends ArrayEncoder {
     }
 
 
+    /** encode the numeric primitive array without boxing its items */
+    static private void encodeNumericPrimitiveArray( final JSONOutput jsonBuilder, final Object array ) {
+        jsonBuilder.append( "[" );
+
+        if ( array instanceof double[] ) {
+            final double[] values = (double[])array;
+            for ( int index = 0 ; index < values.length ; index++ ) {
+                if ( index > 0 )  jsonBuilder.append( ", " );
+                jsonBuilder.append( values[index] );
+            }
+        }
+        else if ( array instanceof float[] ) {
+            final float[] values = (float[])array;
+            for ( int index = 0 ; index < values.length ; index++ ) {
+                if ( index > 0 )  jsonBuilder.append( ", " );
+                jsonBuilder.append( values[index] );
+            }
+        }
+        else if ( array instanceof long[] ) {
+            final long[] values = (long[])array;
+            for ( int index = 0 ; index < values.length ; index++ ) {
+                if ( index > 0 )  jsonBuilder.append( ", " );
+                jsonBuilder.append( values[index] );
+            }
+        }
+        else {      // int, short and byte
+            final int arrayLength = Array.getLength( array );
+            for ( int index = 0 ; index < arrayLength ; index++ ) {
+                if ( index > 0 )  jsonBuilder.append( ", " );
+                jsonBuilder.append( Array.getLong( array, index ) );
+            }
+        }
+
+        jsonBuilder.append( "]" );
+    }
+
+
+    /** determine whether the type name is that of a numeric primitive */
+    static public boolean isNumericPrimitiveType( final String typeName ) {
+        final Class<?> primitiveClass = PRIMITIVE_CLASSES.get( typeName );
+        return primitiveClass != null && primitiveClass != Character.TYPE;
+    }
+
+
     /** manually encode the extended type array by excluding the extended type for each item since it is already included as a common type for the entire array */
     @SuppressWarnings( "rawtypes" )
-    private void encodeExtendedTypeArray( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value, final ConversionAdaptor adaptor ) {
+    private void encodeExtendedTypeArray( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value, final ConversionAdaptor adaptor ) {
 
         final Object[] array = (Object[])value;
 
@@ -876,7 +1085,7 @@ class ArrayEncoder extends SoftValueEncoder<Object[]> {
 
 
     /** encode the string */
-    public void encodeRaw( final JSONEncoder encoder, final StringBuilder jsonBuilder, final Object value ) {
+    public void encodeRaw( final JSONEncoder encoder, final JSONOutput jsonBuilder, final Object value ) {
         final Object[] array = (Object[])value;
 
         jsonBuilder.append( "[" );
@@ -910,7 +1119,7 @@ class ArrayEncoder extends SoftValueEncoder<Object[]> {
 /** Decode JSON into an object graph */
 class JSONDecoder {
     /** JSON archive to parse */
-    final private String JSON_ARCHIVE;
+    final private CharSequence JSON_ARCHIVE;
 
     /** store of conversion adaptors to use when instantiating new instances from the JSON archive */
     final private ConversionAdaptorStore CONVERSION_ADAPTOR_STORE;
@@ -923,8 +1132,8 @@ class JSONDecoder {
 
 
     /** Constructor */
-    protected JSONDecoder( final String jsonArchive, final ConversionAdaptorStore conversionAdaptorStore ) {
-        JSON_ARCHIVE = jsonArchive.trim();
+    protected JSONDecoder( final CharSequence jsonArchive, final ConversionAdaptorStore conversionAdaptorStore ) {
+        JSON_ARCHIVE = jsonArchive;     // leading whitespace is skipped by the scanner and trailing whitespace is never reached
         CONVERSION_ADAPTOR_STORE = conversionAdaptorStore;
 
         _scanPosition = 0;
@@ -933,7 +1142,7 @@ class JSONDecoder {
 
 
     /** Get a decoder for the archive */
-    public static JSONDecoder getInstance( final String jsonArchive, final ConversionAdaptorStore conversionAdaptorStore ) {
+    public static JSONDecoder getInstance( final CharSequence jsonArchive, final ConversionAdaptorStore conversionAdaptorStore ) {
         return new JSONDecoder( jsonArchive, conversionAdaptorStore );
     }
 
@@ -957,7 +1166,7 @@ class JSONDecoder {
 
 
     /** get the JSON Archive */
-    public String getArchive() {
+    public CharSequence getArchive() {
         return JSON_ARCHIVE;
     }
 
@@ -1045,13 +1254,15 @@ class NumberDecoder extends AbstractDecoder<JSONNumber> {
     /** default number decoder */
     static private final NumberDecoder DEFAULT_DECODER;
 
-    /** pattern for matching a number */
-    static final Pattern NUMBER_PATTERN;
+    /** maximum number of digits of a mantissa which is exactly representable as a double */
+    static final private int MAX_EXACT_DIGITS = 15;
+
+    /** exact powers of ten representable as a double */
+    static final private double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
 
 
     // static initializer
     static {
-        NUMBER_PATTERN = Pattern.compile( "[+-]?((\\d+\\.?\\d*)|(\\.?\\d+))([eE][+-]?\\d+)?" );
         DEFAULT_DECODER = new NumberDecoder();
     }
 
@@ -1065,21 +1276,154 @@ class NumberDecoder extends AbstractDecoder<JSONNumber> {
     /** decode the source to extract the next object */
     protected JSONNumber decode( final JSONDecoder source ) {
         final int startScanPosition = source.getScanPosition();
-        final Matcher matcher = NUMBER_PATTERN.matcher( source.getArchive() );
-        if ( matcher.find( startScanPosition ) ) {
-            final String match = matcher.group();
-            if ( match != null ) {
-                source.advanceScanPosition( matcher.end() - startScanPosition );
-                return JSONNumber.valueOf( match );
+        final CharSequence archive = source.getArchive();
+        final int endPosition = scanNumber( archive, startScanPosition );
+
+        source.setScanPosition( endPosition );
+        if ( isFloatingPoint( archive, startScanPosition, endPosition ) ) {
+            return new JSONNumber( parseDouble( archive, startScanPosition, endPosition ) );
+        }
+        else {
+            return new JSONNumber( parseLong( archive, startScanPosition, endPosition ) );
+        }
+    }
+
+
+    /**
+     * Scan the number starting at the specified position matching: [+-]?((\d+\.?\d*)|(\.?\d+))([eE][+-]?\d+)?
+     * @return the position immediately following the number
+     */
+    static int scanNumber( final CharSequence archive, final int startPosition ) {
+        final int archiveLength = archive.length();
+        int position = startPosition;
+
+        if ( position < archiveLength && ( archive.charAt( position ) == '+' || archive.charAt( position ) == '-' ) )  ++position;
+
+        final int integerStart = position;
+        position = skipDigits( archive, position );
+        final int integerDigits = position - integerStart;
+
+        int fractionDigits = 0;
+        if ( position < archiveLength && archive.charAt( position ) == '.' ) {
+            final int fractionStart = position + 1;
+            position = skipDigits( archive, fractionStart );
+            fractionDigits = position - fractionStart;
+        }
+
+        if ( integerDigits == 0 && fractionDigits == 0 ) {
+            throw new RuntimeException( "JSON Number parse exception at position: " + startPosition );
+        }
+
+        // the exponent is only part of the number if it has at least one digit
+        if ( position < archiveLength && ( archive.charAt( position ) == 'e' || archive.charAt( position ) == 'E' ) ) {
+            int exponentPosition = position + 1;
+            if ( exponentPosition < archiveLength && ( archive.charAt( exponentPosition ) == '+' || archive.charAt( exponentPosition ) == '-' ) )  ++exponentPosition;
+            final int exponentEnd = skipDigits( archive, exponentPosition );
+            if ( exponentEnd > exponentPosition )  position = exponentEnd;
+        }
+
+        return position;
+    }
+
+
+    /** get the position of the first non digit character at or following the specified position */
+    static private int skipDigits( final CharSequence archive, final int startPosition ) {
+        final int archiveLength = archive.length();
+        int position = startPosition;
+        while ( position < archiveLength && isDigit( archive.charAt( position ) ) )  ++position;
+        return position;
+    }
+
+
+    /** determine whether the character is a decimal digit */
+    static private boolean isDigit( final char character ) {
+        return character >= '0' && character <= '9';
+    }
+
+
+    /** determine whether the number in the specified range has a decimal point or an exponent */
+    static boolean isFloatingPoint( final CharSequence archive, final int startPosition, final int endPosition ) {
+        for ( int position = startPosition ; position < endPosition ; position++ ) {
+            switch ( archive.charAt( position ) ) {
+                case '.': case 'e': case 'E':
+                    return true;
+                default:
+                    break;
             }
-            else {
-                throw new RuntimeException( "JSON Number parse exception at position: " + startScanPosition );
+        }
+        return false;
+    }
+
+
+    /** parse the integer in the specified range */
+    static long parseLong( final CharSequence archive, final int startPosition, final int endPosition ) {
+        int position = startPosition;
+        final char signChar = archive.charAt( position );
+        final boolean negative = signChar == '-';
+        if ( negative || signChar == '+' )  ++position;
+
+        // up to 18 digits can be accumulated without overflow
+        if ( endPosition - position <= 18 ) {
+            long value = 0;
+            for ( ; position < endPosition ; position++ ) {
+                value = 10 * value + ( archive.charAt( position ) - '0' );
             }
+            return negative ? -value : value;
         }
         else {
-            throw new RuntimeException( "JSON Number parse exception at position: " + startScanPosition );
+            return Long.parseLong( archive.subSequence( startPosition, endPosition ).toString() );
         }
     }
+
+
+    /** parse the floating point number in the specified range */
+    static double parseDouble( final CharSequence archive, final int startPosition, final int endPosition ) {
+        int position = startPosition;
+        final char signChar = archive.charAt( position );
+        final boolean negative = signChar == '-';
+        if ( negative || signChar == '+' )  ++position;
+
+        // accumulate the digits of the mantissa and count those following the decimal point
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for ( ; position < endPosition ; position++ ) {
+            final char character = archive.charAt( position );
+            if ( isDigit( character ) ) {
+                if ( ++digitCount > MAX_EXACT_DIGITS )  break;
+                mantissa = 10 * mantissa + ( character - '0' );
+                if ( inFraction )  ++fractionDigits;
+            }
+            else if ( character == '.' ) {
+                inFraction = true;
+            }
+            else {
+                break;      // exponent
+            }
+        }
+
+        if ( digitCount <= MAX_EXACT_DIGITS ) {
+            // skip the exponent character and parse the exponent (long exponents are left to the general parser)
+            final int exponent = position < endPosition && endPosition - position <= 5 ? (int)parseLong( archive, position + 1, endPosition ) : 0;
+
+            // both the mantissa and the power of ten are exact so the result is correctly rounded
+            final int scale = exponent - fractionDigits;
+            if ( position < endPosition && endPosition - position > 5 ) {
+                // fall through to the general parser
+            }
+            else if ( scale >= 0 && scale < EXACT_POWERS_OF_TEN.length ) {
+                final double value = mantissa * EXACT_POWERS_OF_TEN[scale];
+                return negative ? -value : value;
+            }
+            else if ( scale < 0 && -scale < EXACT_POWERS_OF_TEN.length ) {
+                final double value = mantissa / EXACT_POWERS_OF_TEN[-scale];
+                return negative ? -value : value;
+            }
+        }
+
+        return Double.parseDouble( archive.subSequence( startPosition, endPosition ).toString() );
+    }
 }
 
 
@@ -1105,12 +1449,12 @@ class BooleanDecoder extends AbstractDecoder<Boolean> {
     /** decode the source to extract the next object */
     protected Boolean decode( final JSONDecoder source ) {
         final int startScanPosition = source.getScanPosition();
-        final String archive = source.getArchive();
+        final CharSequence archive = source.getArchive();
         final char firstChar = archive.charAt( startScanPosition );
 
         final int scanLength = firstChar == 't' ? 4 : 5;
         if ( startScanPosition + scanLength <= archive.length() ) {
-            final String input = archive.substring( startScanPosition, startScanPosition + scanLength );
+            final String input = archive.subSequence( startScanPosition, startScanPosition + scanLength ).toString();
             if ( input.equals( "true" ) ) {
                 source.advanceScanPosition( scanLength );
                 return true;
@@ -1152,12 +1496,12 @@ class NullDecoder extends AbstractDecoder<Object> {
     /** decode the source to extract the next object */
     protected Object decode( final JSONDecoder source ) {
         final int startScanPosition = source.getScanPosition();
-        final String archive = source.getArchive();
+        final CharSequence archive = source.getArchive();
         final char firstChar = archive.charAt( startScanPosition );
 
         final int scanLength = 4;
         if ( startScanPosition + scanLength <= archive.length() ) {
-            final String input = archive.substring( startScanPosition, startScanPosition + scanLength );
+            final String input = archive.subSequence( startScanPosition, startScanPosition + scanLength ).toString();
             if ( input.equals( "null" ) ) {
                 source.advanceScanPosition( scanLength );
                 return null;
@@ -1192,27 +1536,33 @@ class StringDecoder extends AbstractDecoder<String> {
     }
 
 
-    /** decode the source starting at the specified position */
-    private String decode( final JSONDecoder source, final int startPosition ) {
-        final String archive = source.getArchive();
+    /** decode the source to extract the next object */
+    protected String decode( final JSONDecoder source ) {
+        final int startScanPosition = source.getScanPosition();
+        final CharSequence archive = source.getArchive();
         final int archiveLength = archive.length();
 
+        // start decoding the string at the character immediately following the initial quotation mark
+        final int startPosition = startScanPosition + 1;
+        StringBuilder unescapedBuilder = null;      // only needed if the string has escaped characters
+        int segmentStart = startPosition;           // start of the characters not yet copied to the builder
         int position = startPosition;
         while( true ) {
             if ( position >= archiveLength ) {
-                throw new RuntimeException( "JSON String decode exception at position: " + source.getScanPosition() + ". The input terminated prematurely." );
+                throw new RuntimeException( "JSON String decode exception at position: " + startScanPosition + ". The input terminated prematurely." );
             }
 
             final char nextChar = archive.charAt( position );
 
             if ( nextChar == '\\' ) {   // escape character => replace with next character literally
-                String prefix = "";
-                if ( position > startPosition ) {
-                    prefix = archive.substring( startPosition, position );  // grab what we've already parsed preceding the escape character
+                if ( position + 1 >= archiveLength ) {
+                    throw new RuntimeException( "JSON String decode exception at position: " + startScanPosition + ". The input terminated prematurely." );
                 }
-                position += 1;  // skip the escape character
-                final char literalChar = archive.charAt( position );    // this is the character immediatel following the escape character to process literally
-                return prefix + literalChar + decode( source, position + 1 );       // combine the prefix, literal character and continue processing the characters following it normally
+                if ( unescapedBuilder == null )  unescapedBuilder = new StringBuilder();
+                unescapedBuilder.append( archive, segmentStart, position );     // what we've already parsed preceding the escape character
+                unescapedBuilder.append( archive.charAt( position + 1 ) );      // the character immediately following the escape character is taken literally
+                position += 2;
+                segmentStart = position;
             }
             else if ( nextChar == '"' ) {       // terminating quotation mark
                 source.setScanPosition( position + 1 );
@@ -1223,18 +1573,12 @@ class StringDecoder extends AbstractDecoder<String> {
             }
         }
 
-        return archive.substring( startPosition, position );
-    }
-
-
-    /** decode the source to extract the next object */
-    protected String decode( final JSONDecoder source ) {
-        final int startScanPosition = source.getScanPosition();
-        final String archive = source.getArchive();
-        final int archiveLength = archive.length();
-
-        // start decoding the string at the character immediately following the initial quotation mark
-        return decode( source, startScanPosition + 1 );
+        if ( unescapedBuilder != null ) {
+            return unescapedBuilder.append( archive, segmentStart, position ).toString();
+        }
+        else {
+            return archive.subSequence( startPosition, position ).toString();
+        }
     }
 }
 
@@ -1269,7 +1613,7 @@ class ArrayDecoder extends AbstractDecoder<Object[]> {
     /** append to the items the parsed items from the array string */
     private void appendItems( final JSONDecoder source, final List<Object> items ) {
         final int startScanPosition = source.getScanPosition();
-        final String archive = source.getArchive();
+        final CharSequence archive = source.getArchive();
         final int archiveLength = archive.length();
 
         int position = startScanPosition + 1;   // start at first character after leading bracket
@@ -1352,7 +1696,9 @@ class DictionaryDecoder extends AbstractDecoder<Object> {
         else if ( dictionary.containsKey( TypedArrayEncoder.ARRAY_ITEM_TYPE_KEY ) && dictionary.containsKey( TypedArrayEncoder.ARRAY_KEY ) ) {
             // decode array of with a specified component type from a generic object array
             final String componentType = (String)dictionary.get( TypedArrayEncoder.ARRAY_ITEM_TYPE_KEY );
-            final Object[] objectArray = (Object[])dictionary.get( TypedArrayEncoder.ARRAY_KEY );
+            final Object rawArray = dictionary.get( TypedArrayEncoder.ARRAY_KEY );
+            if ( !( rawArray instanceof Object[] ) )  return rawArray;      // numeric primitive array already decoded directly
+            final Object[] objectArray = (Object[])rawArray;
 
             try {
                 final Class<?> primitiveClass = TypedArrayEncoder.getPrimitiveType( componentType );
@@ -1409,7 +1755,7 @@ class DictionaryDecoder extends AbstractDecoder<Object> {
     /** append to the items the parsed items from the array string */
     private void appendItems( final JSONDecoder source, final Map<String,Object> dictionary ) {
         final int startScanPosition = source.getScanPosition();
-        final String archive = source.getArchive();
+        final CharSequence archive = source.getArchive();
         final int archiveLength = archive.length();
 
         int position = startScanPosition + 1;   // start at first character after leading bracket
@@ -1464,7 +1810,8 @@ class DictionaryDecoder extends AbstractDecoder<Object> {
 
                     // now parse the value
                     source.setScanPosition( position );
-                    final Object value = source.parseNext();
+                    final Object primitiveArray = key.equals( TypedArrayEncoder.ARRAY_KEY ) ? decodeNumericPrimitiveArray( source, dictionary.get( TypedArrayEncoder.ARRAY_ITEM_TYPE_KEY ) ) : null;
+                    final Object value = primitiveArray != null ? primitiveArray : source.parseNext();
                     dictionary.put( key, value );
                     position = source.getScanPosition();    // get the current scan position after having scanned the value
                 }
@@ -1486,6 +1833,107 @@ class DictionaryDecoder extends AbstractDecoder<Object> {
     }
 
 
+    /**
+     * Decode the array of a typed array directly into the numeric primitive array of the item type if the item type is a numeric primitive
+     * with the standard adaptor. On success the scan position is advanced past the array.
+     * @return the primitive array or null (leaving the scan position unchanged) if the array must be decoded generically
+     */
+    static private Object decodeNumericPrimitiveArray( final JSONDecoder source, final Object itemType ) {
+        if ( !( itemType instanceof String ) )  return null;
+        final String componentType = (String)itemType;
+        if ( !TypedArrayEncoder.isNumericPrimitiveType( componentType ) || !source.getConversionAdaptorStore().hasStandardAdaptor( componentType ) )  return null;
+
+        final CharSequence archive = source.getArchive();
+        final int archiveLength = archive.length();
+        int position = skipWhitespace( archive, source.getScanPosition() );
+        if ( position >= archiveLength || archive.charAt( position ) != '[' )  return null;
+
+        final boolean isFloatingType = componentType.equals( "double" ) || componentType.equals( "float" );
+        double[] floatingItems = isFloatingType ? new double[16] : null;
+        long[] integerItems = isFloatingType ? null : new long[16];
+        int count = 0;
+
+        position = skipWhitespace( archive, position + 1 );
+        if ( position < archiveLength && archive.charAt( position ) == ']' ) {
+            ++position;
+        }
+        else {
+            while ( true ) {
+                if ( position >= archiveLength )  return null;
+                final char firstChar = archive.charAt( position );
+                if ( !( firstChar == '-' || firstChar == '+' || firstChar == '.' || ( firstChar >= '0' && firstChar <= '9' ) ) )  return null;     // not a plain number
+
+                final int endPosition = NumberDecoder.scanNumber( archive, position );
+                final boolean isFloatingText = NumberDecoder.isFloatingPoint( archive, position, endPosition );
+                if ( isFloatingType ) {
+                    if ( count == floatingItems.length )  floatingItems = Arrays.copyOf( floatingItems, 2 * count );
+                    floatingItems[count++] = isFloatingText ? NumberDecoder.parseDouble( archive, position, endPosition ) : NumberDecoder.parseLong( archive, position, endPosition );
+                }
+                else {
+                    if ( count == integerItems.length )  integerItems = Arrays.copyOf( integerItems, 2 * count );
+                    // floating point text is truncated just as the standard adaptors would truncate the decoded double
+                    integerItems[count++] = isFloatingText ? (long)NumberDecoder.parseDouble( archive, position, endPosition ) : NumberDecoder.parseLong( archive, position, endPosition );
+                }
+
+                position = skipWhitespace( archive, endPosition );
+                if ( position >= archiveLength )  return null;
+                final char separator = archive.charAt( position );
+                if ( separator == ']' ) {
+                    ++position;
+                    break;
+                }
+                else if ( separator == ',' ) {
+                    position = skipWhitespace( archive, position + 1 );
+                }
+                else {
+                    return null;
+                }
+            }
+        }
+
+        source.setScanPosition( position );
+        return toNumericPrimitiveArray( componentType, floatingItems, integerItems, count );
+    }
+
+
+    /** Convert the decoded items to an array of the numeric primitive type */
+    static private Object toNumericPrimitiveArray( final String componentType, final double[] floatingItems, final long[] integerItems, final int count ) {
+        switch ( componentType ) {
+            case "double":
+                return Arrays.copyOf( floatingItems, count );
+            case "float":
+                final float[] floatArray = new float[count];
+                for ( int index = 0 ; index < count ; index++ )  floatArray[index] = (float)floatingItems[index];
+                return floatArray;
+            case "long":
+                return Arrays.copyOf( integerItems, count );
+            case "int":
+                final int[] intArray = new int[count];
+                for ( int index = 0 ; index < count ; index++ )  intArray[index] = (int)integerItems[index];
+                return intArray;
+            case "short":
+                final short[] shortArray = new short[count];
+                for ( int index = 0 ; index < count ; index++ )  shortArray[index] = (short)integerItems[index];
+                return shortArray;
+            case "byte":
+                final byte[] byteArray = new byte[count];
+                for ( int index = 0 ; index < count ; index++ )  byteArray[index] = (byte)integerItems[index];
+                return byteArray;
+            default:
+                throw new IllegalArgumentException( "Not a numeric primitive type: " + componentType );
+        }
+    }
+
+
+    /** get the position of the first non whitespace character at or following the specified position */
+    static private int skipWhitespace( final CharSequence archive, final int startPosition ) {
+        final int archiveLength = archive.length();
+        int position = startPosition;
+        while ( position < archiveLength && Character.isWhitespace( archive.charAt( position ) ) )  ++position;
+        return position;
+    }
+
+
     /** Convert the representation value to native using the specified extension type */
     @SuppressWarnings( {"unchecked", "rawtypes"} )
     private Object toNative( final ConversionAdaptorStore conversionAdaptorStore, final Object representationValue, final String extendedType ) {
@@ -1793,6 +2241,13 @@ class ConversionAdaptorStore {
     public ConversionAdaptor<?,?> getConversionAdaptor( final String valueType ) {
         return TYPE_EXTENSION_ADAPTORS.get( valueType );
     }
+
+
+    /** Determine whether the adaptor for the specified type is the standard one registered with the default coder */
+    public boolean hasStandardAdaptor( final String valueType ) {
+        final ConversionAdaptor<?,?> adaptor = getConversionAdaptor( valueType );
+        return adaptor != null && adaptor == JSONCoder.DEFAULT_CODER.getConversionAdaptor( valueType );
+    }
 }
 
 
@@ -0,0 +1,467 @@
+/*
+ * BucketAgent.java
+ *
+ * Created on October 18, 2026
+ */
+
+package xal.tools.correlator;
+
+import xal.tools.statistics.MutableUnivariateStatistics;
+import xal.tools.messaging.MessageCenter;
+import xal.tools.dispatch.DispatchQueue;
+import xal.tools.dispatch.DispatchTimer;
+
+import java.util.*;
+
+
+/**
+ * BucketAgent is the alternative to the bin agents used by a correlator running in bucketed mode.  Rather than broadcasting
+ * every event to every bin, each source agent hands its records directly to the single bucket agent which files each record
+ * in the slot identified by the record's bucket key (a quantized timestamp by default or e.g. a pulse ID).  The slots form a
+ * pre-allocated ring indexed by the key, so filing a record is a constant time operation independent of the number of sources.
+ * A correlation is built only once per slot: immediately when the slot holds a record from every source, or when the slot
+ * expires because its records are older than the slot timeout relative to the latest record, because its first record arrived
+ * longer ago than the slot timeout (checked by a timer so slots expire even when no more records arrive), or because its place
+ * in the ring is needed by a newer key.  Expired slots are posted only if they pass the correlation filter.  Correlations are posted as
+ * bin events so the correlator's broadcasters handle them exactly as those from the bin agents.
+ */
+class BucketAgent<RecordType> implements StateNotice<RecordType> {
+	/** slot collecting records */
+	final static private int OPEN = 1;
+	
+	/** slot whose correlation has been posted or discarded, so late records for its key are dropped */
+	final static private int CLOSED = 2;
+	
+	/** ring of slots indexed by the bucket key modulo the number of slots */
+	final private List<Slot> SLOTS;
+	
+	/** internal message center for the correlator */
+	final private MessageCenter LOCAL_CENTER;
+	
+	/** tester for correlations */
+	final private CorrelationTester<RecordType> CORRELATION_TESTER;
+	
+	/** generator of the bucket keys or null to quantize the timestamp by the bin timespan */
+	final private BucketKey<RecordType> BUCKET_KEY;
+	
+	/** proxy for posting bin events */
+	private BinListener<RecordType> _binProxy;
+	
+	/** number of sources managed by the correlator */
+	private int _fullCount;
+	
+	/** correlator's bin timespan used to quantize timestamps */
+	private double _timespan;
+	
+	/** maximum time (seconds) an open slot waits for records after its earliest record */
+	private double _slotTimeout;
+	
+	/** true if the slot timeout was set explicitly rather than derived from the bin timespan */
+	private boolean _hasCustomTimeout;
+	
+	/** earliest timestamp among the open slots */
+	private double _oldestOpenTime;
+	
+	/** earliest wall clock time (milliseconds) at which an open slot received its first record */
+	private long _oldestOpenMillis;
+	
+	/** timer which expires the slots whose first record arrived longer ago than the slot timeout */
+	final private DispatchTimer EXPIRY_TIMER;
+	
+	
+	/**
+	 * Constructor
+	 * @param localCenter the correlator's internal message center
+	 * @param tester the correlator's correlation tester
+	 * @param slotCount number of slots in the ring
+	 * @param bucketKey generator of bucket keys or null to quantize the timestamps by the bin timespan
+	 * @param timespan the correlator's bin timespan
+	 * @param fullCount the number of sources managed by the correlator
+	 */
+	@SuppressWarnings( "unchecked" )	// need cast to get the proxy using Generics
+	public BucketAgent( final MessageCenter localCenter, final CorrelationTester<RecordType> tester, final int slotCount, final BucketKey<RecordType> bucketKey, final double timespan, final int fullCount ) {
+		if ( slotCount < 1 )  throw new IllegalArgumentException( "The number of bucket slots must be positive: " + slotCount );
+		
+		LOCAL_CENTER = localCenter;
+		CORRELATION_TESTER = tester;
+		BUCKET_KEY = bucketKey;
+		
+		SLOTS = new ArrayList<Slot>( slotCount );
+		for ( int index = 0 ; index < slotCount ; index++ ) {
+			SLOTS.add( new Slot() );
+		}
+		
+		_fullCount = fullCount;
+		_hasCustomTimeout = false;
+		_binProxy = (BinListener<RecordType>)LOCAL_CENTER.registerSource( this, BinListener.class );
+		
+		EXPIRY_TIMER = DispatchTimer.getCoalescingInstance( DispatchQueue.getGlobalDefaultPriorityQueue(), new Runnable() {
+			public void run() {
+				expireStaleSlots( System.currentTimeMillis() );
+			}
+		});
+		
+		setTimespan( timespan );
+		reset();
+	}
+	
+	
+	/** Prepare itself for disposal. */
+	synchronized void shutdown() {
+		EXPIRY_TIMER.dispose();
+		LOCAL_CENTER.removeSource( this, BinListener.class );
+	}
+	
+	
+	/**
+	 * Get the number of slots in the ring.
+	 * @return the number of slots
+	 */
+	public int getSlotCount() {
+		return SLOTS.size();
+	}
+	
+	
+	/**
+	 * Get the maximum time an open slot waits for records after its earliest record.
+	 * @return the slot timeout in seconds
+	 */
+	synchronized public double getSlotTimeout() {
+		return _slotTimeout;
+	}
+	
+	
+	/**
+	 * Set the maximum time an open slot waits for records after its earliest record before it expires.  By default the timeout
+	 * is half the time spanned by the ring for quantized timestamps.
+	 * @param timeout the slot timeout in seconds
+	 */
+	synchronized public void setSlotTimeout( final double timeout ) {
+		_slotTimeout = timeout;
+		_hasCustomTimeout = true;
+		scheduleExpiry();
+	}
+	
+	
+	/**
+	 * Set the timespan used to quantize timestamps.
+	 * @param timespan the correlator's bin timespan
+	 */
+	synchronized private void setTimespan( final double timespan ) {
+		_timespan = timespan;
+		if ( !_hasCustomTimeout ) {
+			_slotTimeout = 0.5 * SLOTS.size() * timespan;
+			scheduleExpiry();
+		}
+	}
+	
+	
+	/** Run the expiry timer at a quarter of the slot timeout so a stale slot expires within 1.25 timeouts of its first record */
+	private void scheduleExpiry() {
+		if ( EXPIRY_TIMER.isDisposed() )  return;
+		final long milliInterval = Math.max( 1L, (long)( 250 * _slotTimeout ) );
+		EXPIRY_TIMER.startNowWithInterval( milliInterval, 0 );
+	}
+	
+	
+	/** Forget all records */
+	synchronized public void reset() {
+		for ( final Slot slot : SLOTS ) {
+			slot.clear();
+		}
+		_oldestOpenTime = Double.POSITIVE_INFINITY;
+		_oldestOpenMillis = Long.MAX_VALUE;
+	}
+	
+	
+	/**
+	 * File the record in its slot and post the slot's correlation if the slot is complete.  Open slots which have timed out relative to this record are expired first.
+	 * @param name name of the source of the record
+	 * @param record the record
+	 * @param timestamp the record's timestamp in seconds
+	 */
+	synchronized public void newEvent( final String name, final RecordType record, final double timestamp ) {
+		final long currentMillis = System.currentTimeMillis();
+		if ( timestamp - _oldestOpenTime > _slotTimeout || isStale( _oldestOpenMillis, currentMillis ) ) {
+			expireSlots( timestamp, currentMillis );
+		}
+		
+		final long key = BUCKET_KEY != null ? BUCKET_KEY.getKey( record, timestamp ) : quantizedKey( timestamp );
+		final Slot slot = slotForKey( key );
+		
+		if ( slot.state == 0 || key > slot.key ) {
+			if ( slot.state == OPEN ) {
+				expireSlot( slot );		// the ring position is needed by a newer key
+			}
+			slot.open( key, currentMillis );
+			_oldestOpenMillis = Math.min( _oldestOpenMillis, currentMillis );
+		}
+		else if ( key < slot.key || slot.state == CLOSED ) {
+			return;		// the record is too late for its slot
+		}
+		
+		if ( slot.addRecord( name, record, timestamp ) ) {
+			_oldestOpenTime = Math.min( _oldestOpenTime, slot.earliestTimestamp );
+			if ( slot.recordCount() >= _fullCount ) {
+				closeSlot( slot );
+			}
+		}
+	}
+	
+	
+	/**
+	 * Get the slot at the ring position of the specified key.
+	 * @param key the bucket key
+	 * @return the slot for the key
+	 */
+	private Slot slotForKey( final long key ) {
+		return SLOTS.get( (int)Math.floorMod( key, (long)SLOTS.size() ) );
+	}
+	
+	
+	/**
+	 * Get the key for the timestamp quantized by the bin timespan.  Records whose timestamps straddle a quantization boundary
+	 * would be split between adjacent keys, so a record joins an open adjacent slot if it is within the bin timespan of that
+	 * slot's earliest record.
+	 * @param timestamp the record's timestamp in seconds
+	 * @return the bucket key
+	 */
+	private long quantizedKey( final double timestamp ) {
+		final long key = Math.round( timestamp / _timespan );
+		if ( isOpenWithin( key, timestamp ) )  return key;
+		if ( isOpenWithin( key - 1, timestamp ) )  return key - 1;
+		if ( isOpenWithin( key + 1, timestamp ) )  return key + 1;
+		return key;
+	}
+	
+	
+	/**
+	 * Determine whether the slot for the specified key is open for that key and its earliest record is within the bin timespan of the timestamp.
+	 * @param key the bucket key
+	 * @param timestamp the record's timestamp in seconds
+	 * @return true if the record may join the slot and false if not
+	 */
+	private boolean isOpenWithin( final long key, final double timestamp ) {
+		final Slot slot = slotForKey( key );
+		return slot.state == OPEN && slot.key == key && Math.abs( timestamp - slot.earliestTimestamp ) < _timespan;
+	}
+	
+	
+	/**
+	 * Expire every open slot whose first record arrived longer ago than the slot timeout.  Called by the expiry timer.
+	 * @param currentMillis the current wall clock time in milliseconds
+	 */
+	synchronized void expireStaleSlots( final long currentMillis ) {
+		if ( isStale( _oldestOpenMillis, currentMillis ) ) {
+			expireSlots( Double.NEGATIVE_INFINITY, currentMillis );
+		}
+	}
+	
+	
+	/**
+	 * Determine whether a slot opened at the specified wall clock time has exceeded the slot timeout.
+	 * @param openedMillis the wall clock time in milliseconds at which the slot received its first record
+	 * @param currentMillis the current wall clock time in milliseconds
+	 * @return true if the slot is stale and false if not
+	 */
+	private boolean isStale( final long openedMillis, final long currentMillis ) {
+		return openedMillis != Long.MAX_VALUE && currentMillis - openedMillis > 1000 * _slotTimeout;
+	}
+	
+	
+	/**
+	 * Expire every open slot whose earliest record precedes the specified time by more than the slot timeout or whose first record
+	 * arrived longer ago than the slot timeout.
+	 * @param timestamp the latest record time
+	 * @param currentMillis the current wall clock time in milliseconds
+	 */
+	private void expireSlots( final double timestamp, final long currentMillis ) {
+		double oldestOpenTime = Double.POSITIVE_INFINITY;
+		long oldestOpenMillis = Long.MAX_VALUE;
+		for ( final Slot slot : SLOTS ) {
+			if ( slot.state == OPEN ) {
+				if ( timestamp - slot.earliestTimestamp > _slotTimeout || isStale( slot.openedMillis, currentMillis ) ) {
+					expireSlot( slot );
+				}
+				else {
+					oldestOpenTime = Math.min( oldestOpenTime, slot.earliestTimestamp );
+					oldestOpenMillis = Math.min( oldestOpenMillis, slot.openedMillis );
+				}
+			}
+		}
+		_oldestOpenTime = oldestOpenTime;
+		_oldestOpenMillis = oldestOpenMillis;
+	}
+	
+	
+	/**
+	 * Close an incomplete slot, posting its correlation if it passes the correlation filter.
+	 * @param slot the slot to expire
+	 */
+	private void expireSlot( final Slot slot ) {
+		if ( slot.recordCount() > 0 ) {
+			closeSlot( slot );
+		}
+		else {
+			slot.state = CLOSED;
+		}
+	}
+	
+	
+	/**
+	 * Close the slot and post its correlation if it passes the correlation filter.
+	 * @param slot the slot to close
+	 */
+	private void closeSlot( final Slot slot ) {
+		final Correlation<RecordType> correlation = new Correlation<RecordType>( slot.RECORD_TABLE, slot.TIME_STATISTICS );
+		slot.close();
+		if ( CORRELATION_TESTER.accept( correlation ) ) {
+			_binProxy.newCorrelation( null, correlation );
+		}
+	}
+	
+	
+	/** Implement StateNotice interface to listen for change of state */
+	synchronized public void sourceAdded( final Correlator<?,RecordType,?> sender, final String name, final int newCount ) {
+		_fullCount = newCount;
+	}
+	
+	
+	/** Implement StateNotice interface to listen for change of state */
+	synchronized public void sourceRemoved( final Correlator<?,RecordType,?> sender, final String name, final int newCount ) {
+		_fullCount = newCount;
+		for ( final Slot slot : SLOTS ) {
+			if ( slot.state == OPEN ) {
+				slot.removeRecord( name );
+				if ( slot.recordCount() > 0 && slot.recordCount() >= newCount ) {
+					closeSlot( slot );
+				}
+			}
+		}
+	}
+	
+	
+	/** Implement StateNotice interface to listen for change of state */
+	synchronized public void binTimespanChanged( final Correlator<?,RecordType,?> sender, final double newTimespan ) {
+		setTimespan( newTimespan );
+		if ( BUCKET_KEY == null )  reset();		// the existing keys no longer apply
+	}
+	
+	
+	/** Implement StateNotice interface to listen for change of state */
+	public void willStopMonitoring( final Correlator<?,RecordType,?> sender ) {}
+	
+	
+	/** Implement StateNotice interface to listen for change of state */
+	public void willStartMonitoring( final Correlator<?,RecordType,?> sender ) {
+		reset();
+	}
+	
+	
+	/** Implement StateNotice interface to listen for change of state */
+	public void correlationFilterChanged( final Correlator<?,RecordType,?> sender, final CorrelationFilter<RecordType> newFilter ) {}
+	
+	
+	
+	/** Pre-allocated slot of the ring which gathers the records sharing a bucket key */
+	private class Slot {
+		/** records in the slot keyed by source name */
+		final private Map<String,RecordType> RECORD_TABLE;
+		
+		/** timestamps of the records keyed by source name */
+		final private Map<String,Double> TIMESTAMP_TABLE;
+		
+		/** statistics of the record timestamps */
+		final private MutableUnivariateStatistics TIME_STATISTICS;
+		
+		/** state of the slot (zero if never used) */
+		private int state;
+		
+		/** bucket key of the records in the slot */
+		private long key;
+		
+		/** earliest record timestamp */
+		private double earliestTimestamp;
+		
+		/** wall clock time in milliseconds at which the slot was opened for its key */
+		private long openedMillis;
+		
+		
+		/** Constructor */
+		public Slot() {
+			RECORD_TABLE = new HashMap<String,RecordType>();
+			TIMESTAMP_TABLE = new HashMap<String,Double>();
+			TIME_STATISTICS = new MutableUnivariateStatistics();
+			state = 0;
+		}
+		
+		
+		/** Forget the records and mark the slot as unused */
+		public void clear() {
+			close();
+			state = 0;
+		}
+		
+		
+		/**
+		 * Reuse the slot for gathering the records of the specified key.
+		 * @param newKey the bucket key
+		 * @param currentMillis the wall clock time in milliseconds
+		 */
+		public void open( final long newKey, final long currentMillis ) {
+			close();
+			state = OPEN;
+			key = newKey;
+			earliestTimestamp = Double.POSITIVE_INFINITY;
+			openedMillis = currentMillis;
+		}
+		
+		
+		/** Forget the records but remember the key so late records are dropped */
+		public void close() {
+			if ( !RECORD_TABLE.isEmpty() ) {
+				RECORD_TABLE.clear();
+				TIMESTAMP_TABLE.clear();
+				TIME_STATISTICS.clear();
+			}
+			state = CLOSED;
+		}
+		
+		
+		/**
+		 * Get the number of records in the slot.
+		 * @return the number of records
+		 */
+		public int recordCount() {
+			return RECORD_TABLE.size();
+		}
+		
+		
+		/**
+		 * Add the record unless the slot already has a record from the same source.
+		 * @return true if the record was added and false if not
+		 */
+		public boolean addRecord( final String name, final RecordType record, final double timestamp ) {
+			if ( RECORD_TABLE.containsKey( name ) )  return false;
+			
+			RECORD_TABLE.put( name, record );
+			TIMESTAMP_TABLE.put( name, timestamp );
+			TIME_STATISTICS.addSample( timestamp );
+			earliestTimestamp = Math.min( earliestTimestamp, timestamp );
+			return true;
+		}
+		
+		
+		/**
+		 * Remove the record from the named source if any.
+		 * @param name name of the source
+		 */
+		public void removeRecord( final String name ) {
+			final Double timestamp = TIMESTAMP_TABLE.remove( name );
+			if ( timestamp != null ) {
+				RECORD_TABLE.remove( name );
+				TIME_STATISTICS.removeSample( timestamp );
+			}
+		}
+	}
+}
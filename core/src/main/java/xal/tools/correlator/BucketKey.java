@@ -0,0 +1,24 @@
+/*
+ * BucketKey.java
+ *
+ * Created on October 18, 2026
+ */
+
+package xal.tools.correlator;
+
+
+/**
+ * <code>BucketKey</code> assigns each record to the correlation bucket identified by the returned key when the correlator
+ * runs in bucketed mode.  Records with the same key are correlated.  Keys must increase with time (e.g. a quantized
+ * timestamp or the pulse ID of the machine pulse the record was taken on) so that a newer key can recycle the slot
+ * of an older one.
+ */
+public interface BucketKey<RecordType> {
+	/**
+	 * Get the bucket key for the specified record.
+	 * @param record the record to bucket
+	 * @param timestamp the record's timestamp in seconds
+	 * @return the key of the bucket to which the record belongs
+	 */
+    public long getKey( final RecordType record, final double timestamp );
+}
@@ -33,6 +33,7 @@ abstract public class Correlator<SourceType, RecordType, SourceAgentType extends
     private volatile boolean isMonitoring;     // actively monitoring channels
     private AbstractBroadcaster<RecordType> broadcaster;
 	private CorrelationPoster poster;
+	private BucketAgent<RecordType> bucketAgent;		// gathers the records in bucketed mode and null in binned mode
 	
 	
     /** Creates new Correlator */
@@ -163,6 +164,78 @@ abstract public class Correlator<SourceType, RecordType, SourceAgentType extends
 	}
     
     
+	/**
+	 * Correlate records by bucketing them in a ring of slots keyed by the timestamp quantized by the bin timespan.
+	 * @param slotCount number of slots in the ring
+	 * @see #useBucketedCorrelation(int, BucketKey)
+	 */
+	public void useBucketedCorrelation( final int slotCount ) {
+		useBucketedCorrelation( slotCount, null );
+	}
+	
+	
+	/**
+	 * Correlate records by bucketing them in a ring of pre-allocated slots keyed by the specified bucket key (e.g. a pulse ID)
+	 * rather than comparing every record against a pool of bins.  Records are handed directly to their slot so the cost per
+	 * record is independent of the number of sources and a single correlation is built per slot.  A slot's correlation is
+	 * posted as soon as it holds a record from every source, or when the slot expires (see <code>setBucketTimeout()</code>)
+	 * if the correlation passes the correlation filter.  The broadcasters post the correlations as in binned mode.
+	 * @param slotCount number of slots in the ring which must exceed the number of keys spanned by records in flight
+	 * @param bucketKey generator of the bucket keys or null to quantize the record timestamps by the bin timespan
+	 */
+	synchronized public void useBucketedCorrelation( final int slotCount, final BucketKey<RecordType> bucketKey ) {
+		final BucketAgent<RecordType> newBucketAgent = new BucketAgent<RecordType>( localCenter, correlationTester, slotCount, bucketKey, _binTimespan, numSources() );
+		localCenter.registerTarget( newBucketAgent, StateNotice.class );
+		setBucketAgent( newBucketAgent );
+	}
+	
+	
+	/** Correlate records by comparing them against each source's pool of bins (the default). */
+	synchronized public void useBinnedCorrelation() {
+		setBucketAgent( null );
+	}
+	
+	
+	/**
+	 * Replace the bucket agent with the specified one.
+	 * @param newBucketAgent the new bucket agent or null to use the bins
+	 */
+	private void setBucketAgent( final BucketAgent<RecordType> newBucketAgent ) {
+		final BucketAgent<RecordType> oldBucketAgent = bucketAgent;
+		bucketAgent = newBucketAgent;
+		
+		for ( final SourceAgentType sourceAgent : getSourceAgents() ) {
+			sourceAgent.setBucketAgent( newBucketAgent );
+		}
+		
+		if ( oldBucketAgent != null ) {
+			localCenter.removeTarget( oldBucketAgent, StateNotice.class );
+			oldBucketAgent.shutdown();
+		}
+	}
+	
+	
+	/**
+	 * Determine whether the correlator buckets records rather than using bins.
+	 * @return true if the correlator runs in bucketed mode and false otherwise
+	 */
+	synchronized public boolean isBucketed() {
+		return bucketAgent != null;
+	}
+	
+	
+	/**
+	 * Set the time a bucket slot waits for records after its earliest record before it expires.  A timer also expires slots whose
+	 * first record arrived longer ago than this timeout, so incomplete slots are posted even when no further records arrive.
+	 * The default is half the time spanned by the ring of slots for quantized timestamps.  This setting applies only in bucketed mode.
+	 * @param timeout the slot timeout in seconds
+	 */
+	synchronized public void setBucketTimeout( final double timeout ) {
+		if ( bucketAgent == null )  throw new IllegalStateException( "The bucket timeout applies only in bucketed mode." );
+		bucketAgent.setSlotTimeout( timeout );
+	}
+    
+    
     /** 
 	 * Maximum time span allowed for events to be considered correlated
 	 * @return the bin timespan
@@ -261,6 +334,7 @@ abstract public class Correlator<SourceType, RecordType, SourceAgentType extends
 
         sourceAgentTable.put(sourceName, sourceAgent);
         sourceAgent.setBinTimespan(_binTimespan);
+        sourceAgent.setBucketAgent(bucketAgent);
         int numSources = numSources();
         if ( isMonitoring ) {
             sourceAgent.startMonitor();
@@ -384,6 +458,7 @@ abstract public class Correlator<SourceType, RecordType, SourceAgentType extends
     public void dispose() {
         stopMonitoring();
         removeAllSources();
+        useBinnedCorrelation();
         localCenter.removeSource(this, StateNotice.class);		
 		localCenter.removeTarget(broadcaster, StateNotice.class);
         broadcaster.dispose();
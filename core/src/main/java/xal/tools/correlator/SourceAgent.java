@@ -35,6 +35,9 @@ abstract public class SourceAgent<RecordType> implements StateNotice<RecordType>
 	
 	/** proxy to forward bin update events to registered listeners */
     protected BinUpdate<RecordType> _binUpdateProxy;
+	
+	/** bucket agent which gathers the records when the correlator runs in bucketed mode or null to use the bins */
+	private volatile BucketAgent<RecordType> _bucketAgent;
 
     
     /** Creates new ChannelAgent */
@@ -96,6 +99,15 @@ abstract public class SourceAgent<RecordType> implements StateNotice<RecordType>
     }
     
     
+    /**
+     * Set the bucket agent to which records are handed directly when the correlator runs in bucketed mode.
+     * @param bucketAgent the correlator's bucket agent or null to correlate records with the bins
+     */
+    void setBucketAgent( final BucketAgent<RecordType> bucketAgent ) {
+        _bucketAgent = bucketAgent;
+    }
+    
+    
     /** Create a pool of bins that form a circular buffer */
     private void createBins() {
         _binAgents = new LinkedList<BinAgent<RecordType>>();
@@ -154,10 +166,17 @@ abstract public class SourceAgent<RecordType> implements StateNotice<RecordType>
     /**
      * This method is used to advertise a new event record received by the event handler of the SourceAgent subclass.  When an event record has passed the the filter
      * test it should be posted via this method so that other stakeholders (i.e. the bin agents) can handle the event properly.
+     * When the correlator runs in bucketed mode, the record is handed directly to the correlator's bucket agent instead.
 	 * @param record for which the event was posted
 	 * @param timestamp for which the event was posted
      */
     final protected void postEvent( final RecordType record, final double timestamp ) {
+        final BucketAgent<RecordType> bucketAgent = _bucketAgent;
+        if ( bucketAgent != null ) {
+            bucketAgent.newEvent( name(), record, timestamp );
+            return;
+        }
+        
         nextBin().resetWithRecord( name(), record, timestamp );
 
         // now notify bins everywhere of the new record
@@ -14,6 +14,7 @@ import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.swing.SwingUtilities;
 
 
@@ -46,6 +47,9 @@ abstract public class DispatchQueue implements DispatchOperationListener {
 	/** optional labelf for this queue */
 	final private String LABEL;
 
+	/** priority of the threads processing this queue's operations */
+	final private int PRIORITY;
+
 	/** number of operations currently running */
 	final protected AtomicInteger RUNNING_OPERATION_COUNTER;
 
@@ -68,6 +72,7 @@ abstract public class DispatchQueue implements DispatchOperationListener {
 	/** Primary Constructor */
     protected DispatchQueue( final String label, final int priority ) {
 		LABEL = label;
+		PRIORITY = priority;
 
 		DISPATCH_THREAD_FACTORY = new DispatchThreadFactory( this, priority );
 		DISPATCH_EXECUTOR = createDispatchExecutor();
@@ -99,6 +104,12 @@ abstract public class DispatchQueue implements DispatchOperationListener {
 	}
 
 
+	/** get the priority of the threads processing this queue's operations */
+	public int getPriority() {
+		return PRIORITY;
+	}
+
+
 	/** Determines whether this queue is suspended (disposed implies suspended) */
 	public boolean isSuspended() {
 		return _queueState != DispatchQueueState.PROCESSING;	// disposed states are also suspended
@@ -358,18 +369,72 @@ abstract public class DispatchQueue implements DispatchOperationListener {
 	}
 
 
-	/** Performs all the specified iterations of the kernel asynchronously and waits for them to complete. */
+	/** 
+	 * Performs all the specified iterations of the kernel asynchronously and waits for them to complete. Every iteration is
+	 * evaluated even if the kernel throws an exception for some of them. Once all the iterations have completed, the exception
+	 * thrown for the lowest failed iteration is rethrown.
+	 * @param iterations the number of iterations to perform
+	 * @param iterationKernel the kernel which evaluates the iterations
+	 * @throws RuntimeException if the kernel throws an exception for any iteration
+	 */
 	public void dispatchApply( final int iterations, final DispatchIterationKernel iterationKernel ) {
+		final DispatchIterationFailure failure = new DispatchIterationFailure();
  		final DispatchGroup group = new DispatchGroup();
 		for ( int index = 0 ; index < iterations ; index++ ) {
 			final int iteration = index;
 			dispatchAsync( group, new Runnable() {
 				public void run() {
-					iterationKernel.evaluateIteration( iteration );
+					failure.evaluateIteration( iterationKernel, iteration );
 				}
 			});
 		}
 		group.waitForCompletion();
+		failure.rethrow();
+	}
+
+
+	/** 
+	 * Performs all the specified iterations of the reduction kernel and waits for the result. On this queue the iterations are accumulated
+	 * in order into a single accumulator as one operation. Concurrent queues split the iterations into chunks which run in parallel.
+	 * @param iterations the number of iterations to perform
+	 * @param reductionKernel the kernel which evaluates and reduces the iterations
+	 * @return the accumulated result of all the iterations
+	 * @throws RuntimeException if the kernel throws an exception
+	 */
+	public <T> T dispatchApply( final int iterations, final DispatchReductionKernel<T> reductionKernel ) {
+		return dispatchSyncPropagatingFailure( new Callable<T>() {
+			public T call() {
+				T accumulator = reductionKernel.createAccumulator();
+				for ( int iteration = 0 ; iteration < iterations ; iteration++ ) {
+					accumulator = reductionKernel.accumulate( accumulator, iteration );
+				}
+				return accumulator;
+			}
+		});
+	}
+
+
+	/** submit the operation for execution on the queue, wait for it to complete and rethrow any exception it throws in the calling thread */
+	protected <ReturnType> ReturnType dispatchSyncPropagatingFailure( final Callable<ReturnType> rawOperation ) {
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final ReturnType result = dispatchSync( new Callable<ReturnType>() {
+			public ReturnType call() {
+				try {
+					return rawOperation.call();
+				}
+				catch( Throwable exception ) {
+					failure.set( exception );
+					return null;
+				}
+			}
+		});
+
+		final Throwable exception = failure.get();
+		if ( exception instanceof RuntimeException )  throw (RuntimeException)exception;
+		if ( exception instanceof Error )  throw (Error)exception;
+		if ( exception != null )  throw new RuntimeException( exception );
+
+		return result;
 	}
 
 
@@ -458,6 +523,62 @@ class ConcurrentDispatchQueue extends DispatchQueue {
 	}
 
 
+	/** 
+	 * Performs all the specified iterations of the kernel and waits for them to complete. The iterations are split into chunks
+	 * which run on a work stealing pool whose threads have this queue's priority. The iterations run as a single operation
+	 * of this queue so they respect barriers and suspension. As on the serial queues, every iteration is evaluated and the
+	 * exception thrown for the lowest failed iteration is rethrown once all of them have completed.
+	 * @param iterations the number of iterations to perform
+	 * @param iterationKernel the kernel which evaluates the iterations
+	 * @throws RuntimeException if the kernel throws an exception for any iteration
+	 */
+	public void dispatchApply( final int iterations, final DispatchIterationKernel iterationKernel ) {
+		final DispatchIterationFailure failure = new DispatchIterationFailure();
+		dispatchApply( iterations, new DispatchReductionKernel<Void>() {
+			public Void createAccumulator() {
+				return null;
+			}
+
+			public Void accumulate( final Void accumulator, final int iteration ) {
+				failure.evaluateIteration( iterationKernel, iteration );
+				return null;
+			}
+
+			public Void combine( final Void leftAccumulator, final Void rightAccumulator ) {
+				return null;
+			}
+		});
+		failure.rethrow();
+	}
+
+
+	/** 
+	 * Performs all the specified iterations of the reduction kernel and waits for the result. The iterations are split into chunks
+	 * which run on a work stealing pool whose threads have this queue's priority. The accumulators of the chunks are combined
+	 * in iteration order.
+	 * @param iterations the number of iterations to perform
+	 * @param reductionKernel the kernel which evaluates and reduces the iterations
+	 * @return the accumulated result of all the iterations
+	 * @throws RuntimeException if the kernel throws an exception
+	 */
+	public <T> T dispatchApply( final int iterations, final DispatchReductionKernel<T> reductionKernel ) {
+		final ForkJoinPool pool = DispatchApplyTask.getPool( getPriority() );
+		final DispatchApplyTask<T> task = new DispatchApplyTask<T>( reductionKernel, 0, iterations, DispatchApplyTask.getChunkSize( iterations, pool.getParallelism() ) );
+
+		// nested applies run directly on the worker so they cannot starve the pool waiting on this queue
+		final Thread currentThread = Thread.currentThread();
+		if ( currentThread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread)currentThread).getPool() == pool ) {
+			return DispatchApplyTask.invokeTask( task );
+		}
+
+		return dispatchSyncPropagatingFailure( new Callable<T>() {
+			public T call() {
+				return DispatchApplyTask.invokeTask( pool, task );
+			}
+		});
+	}
+
+
 	/** process the pending operations */
 	private void processPendingOperations() {
 		while ( _queueState == DispatchQueueState.PROCESSING && PENDING_OPERATION_QUEUE.size() > 0 ) {		// process (in order) all pending operations which can be processed
@@ -765,6 +886,168 @@ class CallRunnable<ReturnType> implements Runnable {
 
 
 
+/** fork join task which evaluates a range of iterations of a reduction kernel by splitting it into chunks */
+class DispatchApplyTask<T> extends RecursiveTask<T> {
+	/** required for serializable */
+	private static final long serialVersionUID = 1L;
+
+	/** number of chunks per thread of the pool allowing work stealing to balance uneven iterations */
+	static final private int CHUNKS_PER_THREAD = 8;
+
+	/** work stealing pools keyed by thread priority */
+	static final private ConcurrentHashMap<Integer,ForkJoinPool> POOLS = new ConcurrentHashMap<Integer,ForkJoinPool>();
+
+	/** kernel to apply */
+	final private DispatchReductionKernel<T> KERNEL;
+
+	/** first iteration of the range */
+	final private int START;
+
+	/** iteration following the last one of the range */
+	final private int END;
+
+	/** maximum number of iterations evaluated without splitting */
+	final private int CHUNK_SIZE;
+
+
+	/** Constructor */
+	public DispatchApplyTask( final DispatchReductionKernel<T> kernel, final int start, final int end, final int chunkSize ) {
+		KERNEL = kernel;
+		START = start;
+		END = end;
+		CHUNK_SIZE = chunkSize;
+	}
+
+
+	/** get the chunk size which splits the iterations into several chunks per thread */
+	static public int getChunkSize( final int iterations, final int parallelism ) {
+		return Math.max( 1, iterations / ( CHUNKS_PER_THREAD * parallelism ) );
+	}
+
+
+	/** get the shared work stealing pool whose threads have the specified priority */
+	static public ForkJoinPool getPool( final int priority ) {
+		return POOLS.computeIfAbsent( priority, key -> new ForkJoinPool( Runtime.getRuntime().availableProcessors(), pool -> {
+			final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread( pool );
+			thread.setDaemon( true );
+			thread.setName( "dispatch apply (priority " + priority + ") " + thread.getPoolIndex() );
+			if ( priority != Thread.NORM_PRIORITY ) {
+				thread.setPriority( priority );
+			}
+			return thread;
+		}, null, false ) );
+	}
+
+
+	/** invoke the task in the current worker thread and rethrow the kernel's own exception if it fails */
+	static public <T> T invokeTask( final DispatchApplyTask<T> task ) {
+		try {
+			return task.invoke();
+		}
+		catch( RuntimeException exception ) {
+			throw kernelFailure( exception );
+		}
+		catch( Error error ) {
+			throw kernelFailure( error );
+		}
+	}
+
+
+	/** invoke the task on the pool and rethrow the kernel's own exception if it fails */
+	static public <T> T invokeTask( final ForkJoinPool pool, final DispatchApplyTask<T> task ) {
+		try {
+			return pool.invoke( task );
+		}
+		catch( RuntimeException exception ) {
+			throw kernelFailure( exception );
+		}
+		catch( Error error ) {
+			throw kernelFailure( error );
+		}
+	}
+
+
+	/** 
+	 * The fork join pool rethrows an exception thrown in another worker as a copy of the same type whose cause is the original,
+	 * so get the original exception thrown by the kernel.
+	 */
+	@SuppressWarnings( "unchecked" )
+	static private <X extends Throwable> X kernelFailure( final X exception ) {
+		final Throwable cause = exception.getCause();
+		return cause != null && cause.getClass() == exception.getClass() ? (X)cause : exception;
+	}
+
+
+	/** evaluate the range splitting it in halves until it fits in a chunk */
+	protected T compute() {
+		if ( END - START <= CHUNK_SIZE ) {
+			T accumulator = KERNEL.createAccumulator();
+			for ( int iteration = START ; iteration < END ; iteration++ ) {
+				accumulator = KERNEL.accumulate( accumulator, iteration );
+			}
+			return accumulator;
+		}
+		else {
+			final int middle = ( START + END ) >>> 1;
+			final DispatchApplyTask<T> upperTask = new DispatchApplyTask<T>( KERNEL, middle, END, CHUNK_SIZE );
+			upperTask.fork();
+			final T lowerResult = new DispatchApplyTask<T>( KERNEL, START, middle, CHUNK_SIZE ).compute();
+			return KERNEL.combine( lowerResult, upperTask.join() );
+		}
+	}
+}
+
+
+
+/** records the exception thrown for the lowest failed iteration of an iteration kernel so the other iterations still run */
+class DispatchIterationFailure {
+	/** lowest iteration which failed */
+	private int _iteration;
+
+	/** exception thrown for the lowest failed iteration or null if none has failed */
+	private Throwable _failure;
+
+
+	/** Constructor */
+	public DispatchIterationFailure() {
+		_iteration = Integer.MAX_VALUE;
+		_failure = null;
+	}
+
+
+	/** evaluate the iteration of the kernel and record the exception it throws, if any */
+	public void evaluateIteration( final DispatchIterationKernel kernel, final int iteration ) {
+		try {
+			kernel.evaluateIteration( iteration );
+		}
+		catch( RuntimeException | Error exception ) {
+			record( iteration, exception );
+		}
+	}
+
+
+	/** record the exception if it was thrown for a lower iteration than the one recorded */
+	synchronized private void record( final int iteration, final Throwable exception ) {
+		if ( iteration < _iteration ) {
+			_iteration = iteration;
+			_failure = exception;
+		}
+	}
+
+
+	/** rethrow the recorded exception if any */
+	synchronized public void rethrow() {
+		if ( _failure instanceof RuntimeException ) {
+			throw (RuntimeException)_failure;
+		}
+		else if ( _failure instanceof Error ) {
+			throw (Error)_failure;
+		}
+	}
+}
+
+
+
 /** thread factory for dispatch queues */
 class DispatchThreadFactory implements ThreadFactory {
 	/** target queue for the thread */
@@ -0,0 +1,42 @@
+//
+// DispatchReductionKernel.java
+// xal
+//
+// Created on 10/18/26
+//
+
+package xal.tools.dispatch;
+
+
+/** 
+ * DispatchReductionKernel evaluates iterations into accumulators which are then combined into a single result.
+ * When applied on a concurrent queue, each chunk of consecutive iterations is accumulated into its own accumulator
+ * and the accumulators of adjacent chunks are combined in iteration order, so the kernel must not assume the iterations 
+ * of a chunk start from zero. Accumulators may be mutable provided each is only used by the chunk that created it.
+ * @param <T> the type of the accumulator and result
+ */
+public interface DispatchReductionKernel<T> {
+	/** 
+	 * Create a new accumulator representing no iterations (e.g. zero for a sum)
+	 * @return a new empty accumulator
+	 */
+	public T createAccumulator();
+	
+	
+	/** 
+	 * Evaluate the specified iteration and accumulate the result
+	 * @param accumulator the accumulator of the chunk's previous iterations
+	 * @param iteration the iteration to evaluate
+	 * @return the accumulator including the specified iteration (may be the same instance)
+	 */
+	public T accumulate( final T accumulator, final int iteration );
+	
+	
+	/** 
+	 * Combine the accumulators of two adjacent ranges of iterations
+	 * @param leftAccumulator the accumulator of the lower range of iterations
+	 * @param rightAccumulator the accumulator of the upper range of iterations
+	 * @return the accumulator of both ranges (may be one of the arguments)
+	 */
+	public T combine( final T leftAccumulator, final T rightAccumulator );
+}
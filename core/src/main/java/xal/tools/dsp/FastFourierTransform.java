@@ -0,0 +1,776 @@
+/*
+ * FastFourierTransform.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.tools.dsp;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * <p>
+ * Fast Fourier Transform (FFT) of complex and real data of arbitrary size <i>N</i> &gt; 0.
+ * The forward transform computed here is the unnormalized discrete Fourier transform
+ * <br>
+ * <br>&nbsp;&nbsp;  <i>F<sub>k</sub></i> = &Sigma;<sub><i>n</i></sub> <i>f<sub>n</sub></i> <i>e</i><sup>-<i>i</i>2<i>&pi;kn</i>/<i>N</i></sup> ,
+ * <br>
+ * <br>
+ * and the inverse transform is the same sum with the positive exponent, also unnormalized,
+ * so that the inverse of the forward transform is <i>N</i> times the original data.  The
+ * frequency index <i>k</i> is ordered as for the DFT, the negative frequency -<i>k</i> is
+ * located at index <i>N</i> - <i>k</i>.
+ * </p>
+ * <p>
+ * The transform is computed in <i>O</i>(<i>N</i> log <i>N</i>) operations for every size.
+ * Powers of two are transformed in place with radix-2 butterflies.  Sizes whose prime factors
+ * do not exceed {@value #INT_MAX_RADIX} are transformed with self-sorting mixed-radix passes
+ * (radix 4, 2 and the odd prime factors).  All other sizes are transformed with Bluestein's
+ * algorithm, which expresses the transform as a convolution computed with power of two FFTs.
+ * Real data of even size are transformed as complex data of half the size.
+ * </p>
+ * <p>
+ * The twiddle factors, factorization and Bluestein kernel of each size are computed once by
+ * <code>{@link #getInstance(int)}</code> and cached, so that repeated transforms of the same
+ * size (e.g., turn-by-turn BPM data or RF waveforms) only pay for the butterflies.  Transform
+ * objects are immutable and may be shared between threads.
+ * </p>
+ *
+ * @since   Oct 18, 2026
+ *
+ * @see FourierExpTransform
+ */
+public class FastFourierTransform {
+
+
+    /*
+     * Global Constants
+     */
+
+    /** largest prime factor transformed by the mixed-radix passes, sizes with larger prime factors use Bluestein's algorithm */
+    public static final int        INT_MAX_RADIX = 31;
+
+
+    /*
+     * Global Attributes
+     */
+
+    /** the transform plans keyed by data size */
+    private static final ConcurrentMap<Integer, FastFourierTransform>    MAP_PLANS = new ConcurrentHashMap<>();
+
+
+    /*
+     * Local Attributes
+     */
+
+    /** the data size */
+    private final int           szData;
+
+    /** real parts of the twiddle factors <i>e</i><sup>-<i>i</i>2<i>&pi;t</i>/<i>N</i></sup> (<code>null</code> for Bluestein plans) */
+    private final double[]      arrTwdRe;
+
+    /** imaginary parts of the twiddle factors (<code>null</code> for Bluestein plans) */
+    private final double[]      arrTwdIm;
+
+    /** radices of the mixed-radix passes, <code>null</code> for powers of two and Bluestein plans */
+    private final int[]         arrRadices;
+
+    /** bit reversal permutation for powers of two, <code>null</code> otherwise */
+    private final int[]         arrBitRev;
+
+    /** power of two plan computing the Bluestein convolution (<code>null</code> unless Bluestein) */
+    private final FastFourierTransform  fftConv;
+
+    /** real parts of the Bluestein chirp <i>e</i><sup>-<i>i&pi;n</i>&sup2;/<i>N</i></sup> */
+    private final double[]      arrChirpRe;
+
+    /** imaginary parts of the Bluestein chirp */
+    private final double[]      arrChirpIm;
+
+    /** real parts of the transformed Bluestein kernel including the convolution normalization */
+    private final double[]      arrKerRe;
+
+    /** imaginary parts of the transformed Bluestein kernel */
+    private final double[]      arrKerIm;
+
+    /** real parts of the twiddle factors for the real transform of even sizes */
+    private final double[]      arrRealRe;
+
+    /** imaginary parts of the twiddle factors for the real transform of even sizes */
+    private final double[]      arrRealIm;
+
+
+
+    /*
+     * Global Methods
+     */
+
+    /**
+     * Return the transform for data of the given size.  The transform is created when the size
+     * is first requested and is shared by all subsequent requests.
+     *
+     * @param szData    size of the data to transform
+     *
+     * @return          transform for the given size
+     *
+     * @throws IllegalArgumentException     the size is not positive
+     */
+    public static FastFourierTransform getInstance(int szData) throws IllegalArgumentException {
+        FastFourierTransform    fft = MAP_PLANS.get(szData);
+
+        if (fft != null)
+            return fft;
+
+        // Bluestein plans request their convolution plan while they are constructed
+        //  so the plan is not created inside the map's computation
+        fft = new FastFourierTransform(szData);
+
+        FastFourierTransform    fftPrev = MAP_PLANS.putIfAbsent(szData, fft);
+
+        return (fftPrev != null) ? fftPrev : fft;
+    }
+
+    /**
+     * Remove all the cached transforms.  Transforms already obtained remain valid.
+     */
+    public static void clearCache() {
+        MAP_PLANS.clear();
+    }
+
+
+    /*
+     * Initialization
+     */
+
+    /**
+     * Create the transform of the given size, computing the factorization and the twiddle
+     * factors.
+     *
+     * @param szData    size of the data to transform
+     *
+     * @throws IllegalArgumentException     the size is not positive
+     */
+    private FastFourierTransform(int szData) throws IllegalArgumentException {
+        if (szData < 1)
+            throw new IllegalArgumentException("FastFourierTransform - the data size must be positive: " + szData);
+
+        final int   N = szData;
+
+        this.szData = N;
+
+        int[]   arrFact = factor(N);
+
+        if (arrFact == null) {
+
+            // Bluestein's algorithm
+            int M = 1;
+
+            while (M < 2*N - 1)
+                M <<= 1;
+
+            this.arrTwdRe   = null;
+            this.arrTwdIm   = null;
+            this.arrRadices = null;
+            this.arrBitRev  = null;
+            this.fftConv    = getInstance(M);
+
+            this.arrChirpRe = new double[N];
+            this.arrChirpIm = new double[N];
+            this.arrKerRe   = new double[M];
+            this.arrKerIm   = new double[M];
+
+            for (int n=0; n<N; n++) {
+                double  ang = Math.PI*( ((long)n*n) % (2L*N) )/N;       // reduce n^2 to keep the phase accurate
+
+                this.arrChirpRe[n] = Math.cos(ang);
+                this.arrChirpIm[n] = -Math.sin(ang);
+            }
+
+            // The kernel is the conjugate chirp wrapped around the convolution length
+            this.arrKerRe[0] = this.arrChirpRe[0];
+            this.arrKerIm[0] = -this.arrChirpIm[0];
+            for (int n=1; n<N; n++) {
+                this.arrKerRe[n]     = this.arrKerRe[M - n] = this.arrChirpRe[n];
+                this.arrKerIm[n]     = this.arrKerIm[M - n] = -this.arrChirpIm[n];
+            }
+
+            this.fftConv.transform(this.arrKerRe, this.arrKerIm);
+
+            for (int m=0; m<M; m++) {
+                this.arrKerRe[m] /= M;
+                this.arrKerIm[m] /= M;
+            }
+
+        } else {
+
+            // Radix-2 or mixed-radix passes
+            this.arrTwdRe = new double[N];
+            this.arrTwdIm = new double[N];
+
+            for (int t=0; t<N; t++) {
+                double  ang = 2.0*Math.PI*t/N;
+
+                this.arrTwdRe[t] = Math.cos(ang);
+                this.arrTwdIm[t] = -Math.sin(ang);
+            }
+
+            if (Integer.bitCount(N) == 1) {
+                this.arrRadices = null;
+                this.arrBitRev  = new int[N];
+
+                int     cntBits = Integer.numberOfTrailingZeros(N);
+
+                for (int n=0; n<N; n++)
+                    this.arrBitRev[n] = (cntBits == 0) ? 0 : Integer.reverse(n) >>> (32 - cntBits);
+
+            } else {
+                this.arrRadices = arrFact;
+                this.arrBitRev  = null;
+            }
+
+            this.fftConv    = null;
+            this.arrChirpRe = null;
+            this.arrChirpIm = null;
+            this.arrKerRe   = null;
+            this.arrKerIm   = null;
+        }
+
+        // Twiddle factors for untangling the half size transform of real data
+        if (N % 2 == 0) {
+            int     H = N/2;
+
+            this.arrRealRe = new double[H];
+            this.arrRealIm = new double[H];
+
+            for (int k=0; k<H; k++) {
+                double  ang = 2.0*Math.PI*k/N;
+
+                this.arrRealRe[k] = Math.cos(ang);
+                this.arrRealIm[k] = -Math.sin(ang);
+            }
+
+        } else {
+            this.arrRealRe = null;
+            this.arrRealIm = null;
+
+        }
+    }
+
+
+    /*
+     * Attribute Query
+     */
+
+    /**
+     * Return the size of the data transformed by this object.
+     *
+     * @return  size of the transform vectors (that is, the value <i>N</i>)
+     */
+    public int getDataSize() {
+        return this.szData;
+    }
+
+    /**
+     * Indicates whether this transform uses Bluestein's algorithm, i.e., the data size has a
+     * prime factor larger than {@value #INT_MAX_RADIX}.
+     *
+     * @return  <code>true</code> if the transform is computed as a convolution,
+     *          <code>false</code> if it is computed with radix passes
+     */
+    public boolean isBluestein() {
+        return this.fftConv != null;
+    }
+
+
+    /*
+     * Operations
+     */
+
+    /**
+     * Compute the unnormalized forward transform of the given complex data in place.
+     *
+     * @param arrRe     real parts of the data, replaced by the real parts of the transform
+     * @param arrIm     imaginary parts of the data, replaced by the imaginary parts of the transform
+     *
+     * @throws IllegalArgumentException     the array sizes are not the data size
+     */
+    public void transform(final double[] arrRe, final double[] arrIm) throws IllegalArgumentException {
+        this.checkSize(arrRe, "transform");
+        this.checkSize(arrIm, "transform");
+
+        if (this.arrBitRev != null)
+            this.transformRadix2(arrRe, arrIm);
+
+        else if (this.arrRadices != null)
+            this.transformMixedRadix(arrRe, arrIm);
+
+        else
+            this.transformBluestein(arrRe, arrIm);
+    }
+
+    /**
+     * Compute the unnormalized inverse transform of the given complex data in place.  The
+     * original data are recovered by dividing the result by <i>N</i>.
+     *
+     * @param arrRe     real parts of the transform, replaced by the real parts of the inverse
+     * @param arrIm     imaginary parts of the transform, replaced by the imaginary parts of the inverse
+     *
+     * @throws IllegalArgumentException     the array sizes are not the data size
+     */
+    public void inverse(final double[] arrRe, final double[] arrIm) throws IllegalArgumentException {
+        this.checkSize(arrIm, "inverse");
+
+        // The inverse transform is the conjugate of the forward transform of the conjugate
+        for (int n=0; n<this.szData; n++)
+            arrIm[n] = -arrIm[n];
+
+        this.transform(arrRe, arrIm);
+
+        for (int n=0; n<this.szData; n++)
+            arrIm[n] = -arrIm[n];
+    }
+
+    /**
+     * Compute the unnormalized forward transform of the given real data.  The full spectrum,
+     * including the negative frequencies <i>F</i><sub><i>N</i>-<i>k</i></sub> = <i>F<sub>k</sub></i><sup>*</sup>,
+     * is returned in the given arrays.  The data array may be the same as the array of real parts.
+     *
+     * @param arrFunc   real data
+     * @param arrRe     returns the real parts of the transform
+     * @param arrIm     returns the imaginary parts of the transform
+     *
+     * @throws IllegalArgumentException     the array sizes are not the data size
+     */
+    public void transformReal(final double[] arrFunc, final double[] arrRe, final double[] arrIm) throws IllegalArgumentException {
+        this.checkSize(arrFunc, "transformReal");
+        this.checkSize(arrRe, "transformReal");
+        this.checkSize(arrIm, "transformReal");
+
+        final int   N = this.szData;
+
+        if (this.arrRealRe == null) {
+            System.arraycopy(arrFunc, 0, arrRe, 0, N);
+            Arrays.fill(arrIm, 0.0);
+
+            this.transform(arrRe, arrIm);
+            return;
+        }
+
+        // Pack the even and odd samples as the real and imaginary parts of half the data
+        final int       H  = N/2;
+        final double[]  zr = new double[H];
+        final double[]  zi = new double[H];
+
+        for (int j=0; j<H; j++) {
+            zr[j] = arrFunc[2*j];
+            zi[j] = arrFunc[2*j + 1];
+        }
+
+        getInstance(H).transform(zr, zi);
+
+        // Separate the transforms of the even and odd samples and combine them
+        arrRe[0] = zr[0] + zi[0];
+        arrIm[0] = 0.0;
+        arrRe[H] = zr[0] - zi[0];
+        arrIm[H] = 0.0;
+
+        for (int k=1; k<H; k++) {
+            double  er = 0.5*(zr[k] + zr[H - k]);
+            double  ei = 0.5*(zi[k] - zi[H - k]);
+            double  or = 0.5*(zi[k] + zi[H - k]);
+            double  oi = -0.5*(zr[k] - zr[H - k]);
+
+            double  wr = this.arrRealRe[k];
+            double  wi = this.arrRealIm[k];
+
+            double  xr = er + wr*or - wi*oi;
+            double  xi = ei + wr*oi + wi*or;
+
+            arrRe[k]     = xr;
+            arrIm[k]     = xi;
+            arrRe[N - k] = xr;
+            arrIm[N - k] = -xi;
+        }
+    }
+
+    /**
+     * Compute and return the power spectrum |<i>F<sub>k</sub></i>|&sup2; of the given real data
+     * for the frequencies <i>k</i> = 0,&hellip;,<i>floor</i>(<i>N</i>/2).
+     *
+     * @param arrFunc   real data
+     *
+     * @return          the (unnormalized) power of the non-negative frequencies
+     *
+     * @throws IllegalArgumentException     the array size is not the data size
+     */
+    public double[] powerSpectrum(final double[] arrFunc) throws IllegalArgumentException {
+        final int       N  = this.szData;
+        final double[]  re = new double[N];
+        final double[]  im = new double[N];
+
+        this.transformReal(arrFunc, re, im);
+
+        double[]    arrPwr = new double[N/2 + 1];
+
+        for (int k=0; k<arrPwr.length; k++)
+            arrPwr[k] = re[k]*re[k] + im[k]*im[k];
+
+        return arrPwr;
+    }
+
+
+    /*
+     * Object Overrides
+     */
+
+    /**
+     * Write out the size and the algorithm of the transform.
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        String  strAlg;
+
+        if (this.arrBitRev != null)
+            strAlg = "radix-2";
+        else if (this.arrRadices != null)
+            strAlg = "mixed-radix " + Arrays.toString(this.arrRadices);
+        else
+            strAlg = "Bluestein, convolution size " + this.fftConv.getDataSize();
+
+        return "FastFourierTransform(N=" + this.szData + ", " + strAlg + ")";
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Radix-2 decimation in time transform performed in place.
+     *
+     * @param re    real parts
+     * @param im    imaginary parts
+     */
+    private void transformRadix2(final double[] re, final double[] im) {
+        final int       N   = this.szData;
+        final int[]     rev = this.arrBitRev;
+
+        // Bit reversal permutation
+        for (int i=1; i<N; i++) {
+            int     j = rev[i];
+
+            if (i < j) {
+                double  t;
+
+                t = re[i];  re[i] = re[j];  re[j] = t;
+                t = im[i];  im[i] = im[j];  im[j] = t;
+            }
+        }
+
+        // Butterflies
+        final double[]  wr = this.arrTwdRe;
+        final double[]  wi = this.arrTwdIm;
+
+        for (int len=2; len<=N; len<<=1) {
+            int     half = len >> 1;
+            int     step = N/len;
+
+            for (int i=0; i<N; i+=len) {
+                for (int k=0, t=0; k<half; k++, t+=step) {
+                    int     a = i + k;
+                    int     b = a + half;
+
+                    double  tRe = re[b]*wr[t] - im[b]*wi[t];
+                    double  tIm = re[b]*wi[t] + im[b]*wr[t];
+
+                    re[b] = re[a] - tRe;
+                    im[b] = im[a] - tIm;
+                    re[a] += tRe;
+                    im[a] += tIm;
+                }
+            }
+        }
+    }
+
+    /**
+     * Self-sorting (Stockham) mixed-radix decimation in frequency transform.  Each pass
+     * alternates between the data arrays and a work buffer.
+     *
+     * @param re    real parts
+     * @param im    imaginary parts
+     */
+    private void transformMixedRadix(final double[] re, final double[] im) {
+        final int   N = this.szData;
+
+        double[]    xr = re;
+        double[]    xi = im;
+        double[]    yr = new double[N];
+        double[]    yi = new double[N];
+
+        int     s = 1;      // stride of the sub-transforms, n*s = N
+
+        for (int r : this.arrRadices) {
+            int     m = N/(s*r);
+
+            if (r == 4)
+                this.passRadix4(m, s, xr, xi, yr, yi);
+            else if (r == 2)
+                this.passRadix2(m, s, xr, xi, yr, yi);
+            else
+                this.passGeneric(r, m, s, xr, xi, yr, yi);
+
+            double[]    t;
+
+            t = xr;  xr = yr;  yr = t;
+            t = xi;  xi = yi;  yi = t;
+
+            s *= r;
+        }
+
+        if (xr != re) {
+            System.arraycopy(xr, 0, re, 0, N);
+            System.arraycopy(xi, 0, im, 0, N);
+        }
+    }
+
+    /**
+     * Radix-2 Stockham pass.
+     *
+     * @param m         size of the sub-transforms after the pass
+     * @param s         stride of the sub-transforms before the pass
+     * @param xr, xi    input data
+     * @param yr, yi    output data
+     */
+    private void passRadix2(int m, int s, double[] xr, double[] xi, double[] yr, double[] yi) {
+        final double[]  wr = this.arrTwdRe;
+        final double[]  wi = this.arrTwdIm;
+
+        for (int p=0; p<m; p++) {
+            double  w1r = wr[p*s];
+            double  w1i = wi[p*s];
+
+            for (int q=0; q<s; q++) {
+                int     i0 = q + s*p;
+                int     i1 = i0 + s*m;
+
+                double  ar = xr[i0], ai = xi[i0];
+                double  br = xr[i1], bi = xi[i1];
+
+                int     o0 = q + s*2*p;
+                int     o1 = o0 + s;
+
+                yr[o0] = ar + br;
+                yi[o0] = ai + bi;
+
+                double  dr = ar - br;
+                double  di = ai - bi;
+
+                yr[o1] = dr*w1r - di*w1i;
+                yi[o1] = dr*w1i + di*w1r;
+            }
+        }
+    }
+
+    /**
+     * Radix-4 Stockham pass.
+     *
+     * @param m         size of the sub-transforms after the pass
+     * @param s         stride of the sub-transforms before the pass
+     * @param xr, xi    input data
+     * @param yr, yi    output data
+     */
+    private void passRadix4(int m, int s, double[] xr, double[] xi, double[] yr, double[] yi) {
+        final double[]  wr = this.arrTwdRe;
+        final double[]  wi = this.arrTwdIm;
+        final int       sm = s*m;
+
+        for (int p=0; p<m; p++) {
+            double  w1r = wr[p*s],   w1i = wi[p*s];
+            double  w2r = wr[2*p*s], w2i = wi[2*p*s];
+            double  w3r = wr[3*p*s], w3i = wi[3*p*s];
+
+            for (int q=0; q<s; q++) {
+                int     i0 = q + s*p;
+
+                double  a0r = xr[i0],        a0i = xi[i0];
+                double  a1r = xr[i0 + sm],   a1i = xi[i0 + sm];
+                double  a2r = xr[i0 + 2*sm], a2i = xi[i0 + 2*sm];
+                double  a3r = xr[i0 + 3*sm], a3i = xi[i0 + 3*sm];
+
+                double  t0r = a0r + a2r, t0i = a0i + a2i;
+                double  t1r = a0r - a2r, t1i = a0i - a2i;
+                double  t2r = a1r + a3r, t2i = a1i + a3i;
+                double  t3r = a1i - a3i, t3i = a3r - a1r;       // (a1 - a3)(-i)
+
+                int     o0 = q + s*4*p;
+
+                yr[o0] = t0r + t2r;
+                yi[o0] = t0i + t2i;
+
+                double  cr, ci;
+
+                cr = t1r + t3r;  ci = t1i + t3i;
+                yr[o0 + s]   = cr*w1r - ci*w1i;
+                yi[o0 + s]   = cr*w1i + ci*w1r;
+
+                cr = t0r - t2r;  ci = t0i - t2i;
+                yr[o0 + 2*s] = cr*w2r - ci*w2i;
+                yi[o0 + 2*s] = cr*w2i + ci*w2r;
+
+                cr = t1r - t3r;  ci = t1i - t3i;
+                yr[o0 + 3*s] = cr*w3r - ci*w3i;
+                yi[o0 + 3*s] = cr*w3i + ci*w3r;
+            }
+        }
+    }
+
+    /**
+     * Stockham pass for an arbitrary (odd prime) radix using the direct DFT of the radix.
+     *
+     * @param r         radix of the pass
+     * @param m         size of the sub-transforms after the pass
+     * @param s         stride of the sub-transforms before the pass
+     * @param xr, xi    input data
+     * @param yr, yi    output data
+     */
+    private void passGeneric(int r, int m, int s, double[] xr, double[] xi, double[] yr, double[] yi) {
+        final double[]  wr = this.arrTwdRe;
+        final double[]  wi = this.arrTwdIm;
+        final int       N  = this.szData;
+        final int       sm = s*m;
+        final int       sr = N/r;           // twiddle index step of the r-th roots of unity
+
+        double[]    ar = new double[r];
+        double[]    ai = new double[r];
+
+        for (int p=0; p<m; p++) {
+            for (int q=0; q<s; q++) {
+                int     i0 = q + s*p;
+
+                for (int j=0; j<r; j++) {
+                    ar[j] = xr[i0 + j*sm];
+                    ai[j] = xi[i0 + j*sm];
+                }
+
+                int     o0 = q + s*r*p;
+
+                for (int k=0; k<r; k++) {
+                    double  sumr = 0.0;
+                    double  sumi = 0.0;
+
+                    for (int j=0, jk=0; j<r; j++, jk+=k) {
+                        int     t = (jk % r)*sr;
+
+                        sumr += ar[j]*wr[t] - ai[j]*wi[t];
+                        sumi += ar[j]*wi[t] + ai[j]*wr[t];
+                    }
+
+                    int     t = p*k*s;
+
+                    yr[o0 + k*s] = sumr*wr[t] - sumi*wi[t];
+                    yi[o0 + k*s] = sumr*wi[t] + sumi*wr[t];
+                }
+            }
+        }
+    }
+
+    /**
+     * Bluestein transform, the chirp modulated data are convolved with the chirp using the
+     * power of two transforms.
+     *
+     * @param re    real parts
+     * @param im    imaginary parts
+     */
+    private void transformBluestein(final double[] re, final double[] im) {
+        final int   N = this.szData;
+        final int   M = this.fftConv.getDataSize();
+
+        double[]    ar = new double[M];
+        double[]    ai = new double[M];
+
+        for (int n=0; n<N; n++) {
+            double  cr = this.arrChirpRe[n];
+            double  ci = this.arrChirpIm[n];
+
+            ar[n] = re[n]*cr - im[n]*ci;
+            ai[n] = re[n]*ci + im[n]*cr;
+        }
+
+        this.fftConv.transform(ar, ai);
+
+        for (int m=0; m<M; m++) {
+            double  kr = this.arrKerRe[m];
+            double  ki = this.arrKerIm[m];
+            double  tr = ar[m]*kr - ai[m]*ki;
+
+            ai[m] = ar[m]*ki + ai[m]*kr;
+            ar[m] = tr;
+        }
+
+        this.fftConv.inverse(ar, ai);
+
+        for (int k=0; k<N; k++) {
+            double  cr = this.arrChirpRe[k];
+            double  ci = this.arrChirpIm[k];
+
+            re[k] = ar[k]*cr - ai[k]*ci;
+            im[k] = ar[k]*ci + ai[k]*cr;
+        }
+    }
+
+    /**
+     * Factor the data size into the radices of the transform passes, radix 4 first, then
+     * radix 2 and the odd primes in increasing order.
+     *
+     * @param N     data size
+     *
+     * @return      the radices or <code>null</code> if a prime factor exceeds {@value #INT_MAX_RADIX}
+     */
+    private static int[] factor(int N) {
+        int[]   arrFact = new int[32];
+        int     cnt = 0;
+        int     n   = N;
+
+        while (n % 4 == 0) {
+            arrFact[cnt++] = 4;
+            n /= 4;
+        }
+        if (n % 2 == 0) {
+            arrFact[cnt++] = 2;
+            n /= 2;
+        }
+        for (int f=3; f<=INT_MAX_RADIX && n>1; f+=2) {
+            while (n % f == 0) {
+                arrFact[cnt++] = f;
+                n /= f;
+            }
+        }
+
+        if (n > 1)
+            return null;
+
+        return Arrays.copyOf(arrFact, cnt);
+    }
+
+    /**
+     * Check that the given array has the data size.
+     *
+     * @param arr       array to check
+     * @param strMeth   name of the calling method
+     *
+     * @throws IllegalArgumentException     the array size is not the data size
+     */
+    private void checkSize(final double[] arr, final String strMeth) throws IllegalArgumentException {
+        if (arr.length != this.szData)
+            throw new IllegalArgumentException(
+                            "FastFourierTransform#" + strMeth + "():"
+                          + " array size " + arr.length + " != "
+                          + this.szData
+                          );
+    }
+}
@@ -7,21 +7,18 @@
 package xal.tools.dsp;
 
 import JSci.maths.Complex;
-import JSci.maths.matrices.ComplexSquareMatrix;
 import JSci.maths.vectors.AbstractComplexVector;
 import JSci.maths.vectors.ComplexVector;
 
 
 /**
  * <p>
- * Class embodying the classic Discrete Fourier Transform (DFT).  Although this is a
- * discrete transform, it is not a Fast Fourier Transform (FFT).  Specifically, we do not
- * exploit the dyadic nature of the transform kernel.  In fact, we explicitly compute
- * both the forward and inverse kernels which, in the discrete version, are matrices.  
- * Thus, the transform can
- * potentially be expensive for large signal sizes (of order <i>O</i>(<i>N</i>&sup2;)).
- * The advantage here is that we may consider arbitrary signal sizes <i>N</i> > 0.  That is,
- * <i>N</i> does not need to be a power of 2 as with the FFT, requiring the given signal
+ * Class embodying the classic Discrete Fourier Transform (DFT).  The transform kernels
+ * described below are not formed explicitly, rather the transforms are computed with
+ * the <code>{@link FastFourierTransform}</code> of the data size, in
+ * <i>O</i>(<i>N</i> log <i>N</i>) operations.
+ * We may consider arbitrary signal sizes <i>N</i> > 0.  That is,
+ * <i>N</i> does not need to be a power of 2, requiring the given signal
  * to be padded accordingly.
  * </p>
  * <p>
@@ -87,11 +84,8 @@ public class FourierExpTransform {
     /** generator of transform kernel */
     private Complex                 cpxZ = null;
     
-    /** the forward transform kernel */
-    private ComplexSquareMatrix     matKerFwd = null;
-    
-    /** the inverse transform kernel */
-    private ComplexSquareMatrix     matKerInv = null;
+    /** the fast Fourier transform of the data size */
+    private FastFourierTransform    fftData = null;
     
     
     /*
@@ -100,10 +94,10 @@ public class FourierExpTransform {
     
     
     /**
-     * Create a new sine transform object for transforming data vectors of 
-     * size <var>szData</var>.  During construction the 
-     * <var>szData</var>&times;<var>szData</var> transform matrix kernel is
-     * built. Upon completion the returned transform object is able to
+     * Create a new exponential transform object for transforming data vectors of 
+     * size <var>szData</var>.  The FFT twiddle factors for the size are obtained
+     * from the cache of <code>{@link FastFourierTransform}</code>. Upon completion the 
+     * returned transform object is able to
      * transform any <code>double[]</code> object of the appropriate size. 
      * 
      * @param szData
@@ -213,11 +207,13 @@ public class FourierExpTransform {
         
         
         // Perform the transform
-        double[]                arrZero = this.createZeroFunction(this.getDataSize());
-        ComplexVector           vecFunc = new ComplexVector(arrFunc, arrZero);
-        AbstractComplexVector   vecTrans = this.matKerFwd.multiply(vecFunc);
+        double[]                arrRe = new double[szArr];
+        double[]                arrIm = new double[szArr];
+        
+        this.fftData.transformReal(arrFunc, arrRe, arrIm);
+        this.normalize(arrRe, arrIm);
         
-        return vecTrans;
+        return new ComplexVector(arrRe, arrIm);
     }
     
     /**
@@ -253,14 +249,18 @@ public class FourierExpTransform {
                           );
         
         
-        // Perform the transform
-        AbstractComplexVector   vecFunc = this.matKerInv.multiply(vecTrans);
-
-        
-        // Unpack result and return it
+        // Unpack the transform
         double[]    arrFunc = new double[szArr];
-        for (int index=0; index<szArr; index++)
-            arrFunc[index] = vecFunc.getRealComponent(index);
+        double[]    arrIm   = new double[szArr];
+        for (int index=0; index<szArr; index++) {
+            arrFunc[index] = vecTrans.getRealComponent(index);
+            arrIm[index]   = vecTrans.getImagComponent(index);
+        }
+        
+        
+        // Perform the transform and return the real part
+        this.fftData.inverse(arrFunc, arrIm);
+        this.normalize(arrFunc, arrIm);
         
         return arrFunc;
     }
@@ -287,13 +287,27 @@ public class FourierExpTransform {
      * @throws IllegalArgumentException     invalid function dimension
      */
     public double[] powerSpectrum(final double[] arrFunc) throws IllegalArgumentException {
-        AbstractComplexVector   vecSpec = this.transform(arrFunc);
+        int     szArr = arrFunc.length;
         
-        double[]    arrSpec = new double[this.getDataSize()];
-        for (int index=0; index<this.getDataSize(); index++)    {
-            Complex cpxVal = vecSpec.getComponent(index);
-            arrSpec[index] = cpxVal.modSqr();
-        }
+        
+        // Check the dimensions
+        if (szArr != this.getDataSize())
+            throw new IllegalArgumentException(
+                            "FourierExpTransform#powerSpectrum():"
+                          + " array size != " 
+                          + this.getDataSize()
+                          );
+        
+        
+        // Compute the spectrum without creating the complex vector
+        double[]    arrSpec = new double[szArr];
+        double[]    arrIm   = new double[szArr];
+        
+        this.fftData.transformReal(arrFunc, arrSpec, arrIm);
+        
+        double      dblNorm = 1.0/szArr;
+        for (int index=0; index<szArr; index++)
+            arrSpec[index] = dblNorm*(arrSpec[index]*arrSpec[index] + arrIm[index]*arrIm[index]);
 
         return arrSpec;
     }
@@ -312,12 +326,9 @@ public class FourierExpTransform {
     public String toString() {
         String  strBuf = "";
         
-        strBuf += "Forward transform kernel\n";
-        strBuf += this.matKerFwd.toString();
-        strBuf += "\nInverse transform kernel\n";
-        strBuf += this.matKerInv.toString();
-        strBuf += "\nProduct of forward kernel and inverse kernel\n";
-        strBuf += (this.matKerInv.multiply(this.matKerFwd)).toString();
+        strBuf += "Fourier exponential transform of size " + this.getDataSize() + "\n";
+        strBuf += "Kernel generator " + this.cpxZ.toString() + "\n";
+        strBuf += this.fftData.toString();
         
         return strBuf;
     }
@@ -331,7 +342,7 @@ public class FourierExpTransform {
      */
     
     /**
-     * Computes and stores the transform kernel.
+     * Computes the kernel generator and obtains the FFT for the data size.
      * 
      * @param   szData  dimensions of the tranform kernel.
      */
@@ -341,101 +352,30 @@ public class FourierExpTransform {
 
         
         // Compute the z transform generator
-        Double               h = 2.0*Math.PI/N;
+        double               h = 2.0*Math.PI/N;
         Complex              z = new Complex(Math.cos(h), Math.sin(h));
        
-
-        // Create matrix kernel and compute element values
-        final double         c = Math.sqrt(1.0/N);   // normalization constant
-        ComplexSquareMatrix  Kf = new ComplexSquareMatrix( N );
-        ComplexSquareMatrix  Ki = new ComplexSquareMatrix( N );
-        
-        for (int m=0; m<N; m++)    {
-            for (int n=m; n<N; n++)    {
-                double  cos = c*Math.cos(h*m*n);
-                double  sin = c*Math.sin(h*m*n);
- 
-                Kf.setElement(m, n, cos, -sin);
-                Kf.setElement(n, m, cos, -sin);
-                
-                Ki.setElement(m, n, cos, sin);
-                Ki.setElement(n, m, cos, sin);
-            }
-        }
         
-        this.szData = N;
-        this.cpxZ   = z;
-        this.matKerFwd = Kf;
-        this.matKerInv = Ki;
+        this.szData  = N;
+        this.cpxZ    = z;
+        this.fftData = FastFourierTransform.getInstance(N);
     }
 
 
     /**
-     * Computes and stores the transform kernel.
+     * Apply the normalization constant 1/<i>N</i><sup>&frac12;</sup> of the transform
+     * kernels to the given (complex) function.
      * 
-     * @param   szData  dimensions of the transform kernel.
+     * @param arrRe     real parts of the function
+     * @param arrIm     imaginary parts of the function
      */
-    private void initTransform_old(int szData) {
-        
-        final int           N = szData;             // vector/matrix dimensions 
-
+    private void normalize(double[] arrRe, double[] arrIm)   {
+        final double    c = Math.sqrt(1.0/this.getDataSize());   // normalization constant
         
-        // Compute the z transform generator
-        Double               h  = 2.0*Math.PI/N;
-        Complex              zf = new Complex(Math.cos(h), -Math.sin(h));
-        Complex              zi = new Complex(Math.cos(h), Math.sin(h));
-       
-
-        // Create matrix kernel and compute element values
-        final double         c = Math.sqrt(1.0/N);   // normalization constant
-        ComplexSquareMatrix  Kf = new ComplexSquareMatrix( N );
-        ComplexSquareMatrix  Ki = new ComplexSquareMatrix( N );
-        
-        Complex     kf, ki;     // matrix kernel element values
-        Complex     zfm = Complex.ONE;
-        Complex     zim = Complex.ONE;
-        for (int m=0; m<N; m++)    {
-
-            kf = zfm.multiply(c);
-            ki = zim.multiply(c);
-            
-            for (int n=m; n<N; n++)    {
-                Kf.setElement(m, n, kf);
-                Kf.setElement(n, m, kf);
-                
-                Ki.setElement(m, n, ki);
-                Ki.setElement(n, m, ki);
-
-                kf = kf.multiply(zfm);
-                ki = ki.multiply(zim);
-            }
-            
-            zfm = zfm.multiply(zf);
-            zim = zim.multiply(zi);
+        for (int index=0; index<arrRe.length; index++)    {
+            arrRe[index] *= c;
+            arrIm[index] *= c;
         }
-        
-        this.szData = N;
-        this.cpxZ   = zi;
-        this.matKerFwd = Kf;
-        this.matKerInv = Ki;
-    }
-
-
-    /**
-     * Create and return a discrete function of the given
-     * size and with value zero.
-     * 
-     * @param szVec     size of the returned function
-     * 
-     * @return          the zero function
-     */
-    private double[]    createZeroFunction(int szVec)   {
-        double[]    arrFunc = new double[szVec];
-        
-        for (int index=0; index<szData; index++)    
-            arrFunc[index] = 0.0;
-        
-        return arrFunc;
     }
     
 }
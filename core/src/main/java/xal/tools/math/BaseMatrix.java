@@ -72,6 +72,9 @@ public abstract class BaseMatrix<M extends BaseMatrix<M>> implements IArchive {
     
     /** Text format for outputting debug info */
     final static private DecimalFormat SCI_FORMAT = new DecimalFormat("0.000000E00");
+
+    /** Per-thread scratch matrix for the intermediate results of in-place operations */
+    final static private ThreadLocal<DenseMatrix64F> TLS_SCRATCH = ThreadLocal.withInitial( () -> new DenseMatrix64F(1, 1) );
    
     
     /*
@@ -584,6 +587,33 @@ public abstract class BaseMatrix<M extends BaseMatrix<M>> implements IArchive {
     	return result;
     }
 
+    /**
+     * <p>
+     *  In-place matrix multiplication.  The matrix product of this matrix and the
+     *  given right operand is written into the given result matrix.  No new
+     *  objects are created, thus this method is suitable for tight loops where
+     *  temporary objects are to be avoided.
+     *  </p>
+     *  <h3>NOTE:</h3>
+     *  <p>
+     *  &middot; The result matrix must have the correct dimensions and it must
+     *  not be either of the operands.
+     *  </p>
+     *
+     *  @param  matRight    multiplicand - right operand of matrix multiplication operator
+     *  @param  matResult   destination of the matrix product (contents are overwritten)
+     *
+     *  @throws IllegalArgumentException    the result matrix is one of the operands
+     *
+     * @since  Oct 18, 2026
+     */
+    public void timesInto(M matRight, M matResult) throws IllegalArgumentException {
+        if (matResult == this || matResult == matRight)
+            throw new IllegalArgumentException("BaseMatrix#timesInto - result matrix cannot be an operand");
+        
+        CommonOps.mult(this.matImpl, matRight.getMatrix(), matResult.getMatrix());
+    }
+
 
     /**
      * <p>
@@ -951,6 +981,36 @@ public abstract class BaseMatrix<M extends BaseMatrix<M>> implements IArchive {
         this.matImpl = matValue.copy();
     }
 
+    /**
+     * <p>
+     * Returns the scratch matrix belonging to the current thread, shaped to the
+     * given dimensions.  The scratch matrix is used to hold intermediate results of
+     * compound in-place operations (e.g., conjugation) so that no temporary objects
+     * are created.  Each thread has exactly one scratch matrix, which is reused by 
+     * every such operation.
+     * </p>
+     * <p>
+     * NOTE:
+     * &middot; The contents of the returned matrix are undefined.  The scratch 
+     * matrix is valid only until the next call of this method by the same thread, thus
+     * it must never escape the operation using it.
+     * </p>
+     * 
+     * @param cntRows   number of rows required of the scratch matrix
+     * @param cntCols   number of columns required of the scratch matrix
+     * 
+     * @return          the scratch matrix of the current thread with the given shape
+     *
+     * @since  Oct 18, 2026
+     */
+    protected static DenseMatrix64F getScratchMatrix(int cntRows, int cntCols) {
+        DenseMatrix64F  matScratch = TLS_SCRATCH.get();
+        
+        matScratch.reshape(cntRows, cntCols, false);
+        
+        return matScratch;
+    }
+
     /**
      * <p>
      * Creates a new, uninitialized instance of this matrix type.
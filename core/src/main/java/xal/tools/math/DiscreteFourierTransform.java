@@ -9,14 +9,15 @@
 
 package xal.tools.math;
 
+import xal.tools.dsp.FastFourierTransform;
+
 
 /**
  * Calculates the discrete fourier transform.
- * While not as efficient as a fast fourier transform, it offers more flexibility.
+ * The transform is computed with the fast fourier transform for any even number of values.
  * transform(f) = 1/2N * sum( f(t) e^(i pi p k / N) ), k = 0...2N-1, t = kT/2N, freq = 2 pi p / T, p = 0...2N-1
  */
 public class DiscreteFourierTransform {
-	final private static double PI2 = 2.0 * Math.PI;
 	final private double[] VALUES;
 	final private double PERIOD;
 	final private Complex[] SPECTRUM;
@@ -45,19 +46,16 @@ public class DiscreteFourierTransform {
 		final double[] values = VALUES;
 		final int count = values.length;
 		final double countReciprocal = 1.0 / count;
+		if ( count == 0 )  return new Complex[0];
+		
+		// the FFT uses the negative exponent so the sum here is its complex conjugate since the values are real
+		final double[] realSums = new double[count];
+		final double[] iSums = new double[count];
+		FastFourierTransform.getInstance( count ).transformReal( values, realSums, iSums );
 		
 		final Complex[] transform = new Complex[count];
 		for ( int p = 0 ; p < count ; p++ ) {
-			double realSum = 0.0;
-			double iSum = 0.0;
-			for ( int k = 0 ; k < count ; k++ ) {
-				final double phase = PI2 * p * k * countReciprocal;
-				realSum += values[k] * Math.cos( phase );
-				iSum += values[k] * Math.sin( phase );
-			}
-			realSum *= countReciprocal;
-			iSum *= countReciprocal;
-			transform[p] = new Complex( realSum, iSum );
+			transform[p] = new Complex( realSums[p] * countReciprocal, - iSums[p] * countReciprocal );
 		}
 		
 		return transform;
@@ -205,22 +205,89 @@ public abstract class SquareMatrix<M extends SquareMatrix<M>> extends BaseMatrix
      */
     public M    conjugateTrans(M matPhi) {
         M ans  = newInstance(getSize(), getSize());
-        for (int i = 0; i < getSize(); i++) {
-        	for (int j = 0; j < getSize(); j++) {
-        		double result = 0;
-        		for (int alpha = 0; alpha < getSize(); alpha++) {
-        			for (int beta = 0; beta < getSize(); beta++) {
-        				result += matPhi.getElem(i, alpha) * this.getElem(alpha, beta)
-        						* matPhi.getElem(j, beta);
-        			}
-        		}
-        		ans.setElem(i, j, result);
-        	}
-        }
+        
+        this.conjugateTransInto(matPhi, ans);
         
         return ans;
     };
     
+    /**
+     *  <p>
+     *  In-place transpose conjugation of this matrix by the argument matrix.
+     *  The result <b>&Phi;</b><b>&sigma;</b><sub>0</sub><b>&Phi;</b><sup><i>T</i></sup>
+     *  is written into the given result matrix, where <b>&sigma;</b><sub>0</sub> is 
+     *  this matrix.  No new objects are created, the intermediate product is kept
+     *  in the scratch matrix of the current thread.
+     *  </p>
+     *  <p>
+     *  The result matrix may be this matrix, but it must not be the conjugating
+     *  matrix.
+     *  </p>
+     *
+     *  @param  matPhi      conjugating matrix <b>&Phi;</b> (typically a transfer matrix)
+     *  @param  matResult   destination of the conjugation (contents are overwritten)
+     *  
+     *  @throws IllegalArgumentException    the result matrix is the conjugating matrix
+     *
+     * @since  Oct 18, 2026
+     */
+    public void conjugateTransInto(M matPhi, M matResult) throws IllegalArgumentException {
+        if (matResult == matPhi)
+            throw new IllegalArgumentException("SquareMatrix#conjugateTransInto - result matrix cannot be the conjugating matrix");
+        
+        DenseMatrix64F impTemp = getScratchMatrix(getSize(), getSize());
+        
+        CommonOps.multTransB(this.getMatrix(), matPhi.getMatrix(), impTemp);
+        CommonOps.mult(matPhi.getMatrix(), impTemp, matResult.getMatrix());
+    }
+    
+    /**
+     *  In-place transpose conjugation of this matrix by the argument matrix.  
+     *  This matrix <b>&sigma;</b> is replaced by 
+     *  <b>&Phi;</b><b>&sigma;</b><b>&Phi;</b><sup><i>T</i></sup> and no new 
+     *  objects are created.
+     *
+     *  @param  matPhi      conjugating matrix <b>&Phi;</b> (typically a transfer matrix)
+     *
+     *  @throws IllegalArgumentException    the conjugating matrix is this matrix
+     *
+     * @since  Oct 18, 2026
+     */
+    public void conjugateTransEquals(M matPhi) throws IllegalArgumentException {
+        if (matPhi == this)
+            throw new IllegalArgumentException("SquareMatrix#conjugateTransEquals - cannot conjugate a matrix by itself in place");
+        
+        DenseMatrix64F impTemp = getScratchMatrix(getSize(), getSize());
+        
+        CommonOps.multTransB(this.getMatrix(), matPhi.getMatrix(), impTemp);
+        CommonOps.mult(matPhi.getMatrix(), impTemp, this.getMatrix());
+    }
+    
+    /**
+     *  In-place triple matrix product.  The product of this matrix with the two
+     *  given matrices, in that order, is written into the result matrix.  That is,
+     *  the result is this*<code>matMid</code>*<code>matRight</code>.  No new objects
+     *  are created, the intermediate product is kept in the scratch matrix of the 
+     *  current thread.
+     *
+     *  @param  matMid      the middle factor
+     *  @param  matRight    the right-most factor
+     *  @param  matResult   destination of the product (contents are overwritten)
+     *
+     *  @throws IllegalArgumentException    the result matrix is this matrix
+     *
+     * @since  Oct 18, 2026
+     */
+    public void timesInto(M matMid, M matRight, M matResult) throws IllegalArgumentException {
+        if (matResult == this)
+            throw new IllegalArgumentException("SquareMatrix#timesInto - result matrix cannot be the left operand");
+        
+        DenseMatrix64F impTemp = getScratchMatrix(getSize(), getSize());
+        
+        CommonOps.mult(matMid.getMatrix(), matRight.getMatrix(), impTemp);
+        CommonOps.mult(this.getMatrix(), impTemp, matResult.getMatrix());
+    }
+    
     /**
      *  <p>
      *  Function for inverse conjugation of this matrix by the argument matrix.  
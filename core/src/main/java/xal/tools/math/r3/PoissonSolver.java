@@ -0,0 +1,1136 @@
+/*
+ * PoissonSolver.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.tools.math.r3;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import xal.tools.beam.IConstants;
+import xal.tools.beam.ens.ColumnarEnsemble;
+import xal.tools.beam.ens.Ensemble;
+import xal.tools.beam.ens.Particle;
+import xal.tools.dispatch.DispatchIterationKernel;
+import xal.tools.dispatch.DispatchQueue;
+import xal.tools.dispatch.DispatchReductionKernel;
+import xal.tools.dsp.FastFourierTransform;
+import xal.tools.math.MathException;
+
+
+/**
+ *  <p>
+ *  Solves Poisson's equation on a regular Cartesian grid in R3,
+ *
+ *          Div Grad <i>V</i> = - <i>Src</i> ,
+ *
+ *  where <i>V</i> is the potential and <i>Src</i> is the source function.  This is the
+ *  same problem as <code>{@link PoissonGrid#solveCartesian(int, double)}</code>, however,
+ *  the potential and source values are stored in flat <code>double[]</code> arrays rather
+ *  than in an array of grid point objects, and the solution is obtained by one of two fast
+ *  techniques:
+ *  <br>
+ *  &middot; <code>{@link #solveMultigrid(int, double)}</code> - a geometric multigrid V-cycle
+ *  with red-black Gauss-Seidel smoothing.  The potential values on the grid boundary are
+ *  held fixed (Dirichlet boundary conditions), e.g., a grounded beam pipe.
+ *  <br>
+ *  &middot; <code>{@link #solveOpenBoundary()}</code> - convolution of the source with the
+ *  free space Green's function using the FFT on a doubled grid (Hockney's method).  The
+ *  potential is that of the source in free space, i.e., open boundary conditions.
+ *  </p>
+ *  <p>
+ *  The relaxation sweeps, grid transfers and FFTs are performed in parallel on the global
+ *  dispatch queue for large grids.  The source function may be set point by point or
+ *  deposited from the particles of an <code>{@link Ensemble}</code> using
+ *  <code>{@link #depositCharge(Ensemble)}</code>, in which case the source is the charge
+ *  density divided by the permittivity of free space and the potential is in Volts.
+ *  </p>
+ *  <h3>NOTES:</h3>
+ *  <p>
+ *  &middot; Grid point (<i>i,j,k</i>) is stored at index (<i>i n</i><sub>2</sub> + <i>j</i>)<i>n</i><sub>3</sub> + <i>k</i>
+ *  of the flat arrays.
+ *  <br>
+ *  &middot; The multigrid solver coarsens the grid while the number of grid points in every
+ *  dimension has the form 2<i>m</i> + 1 with <i>m</i> &ge; 2.  Grid sizes 2<sup><i>p</i></sup> + 1,
+ *  e.g., 65 &times; 65 &times; 65, give the full multigrid convergence rate.  Other sizes
+ *  still converge but more slowly.
+ *  <br>
+ *  &middot; The open boundary solver pads each dimension to the power of two not less than
+ *  2(<i>n</i> - 1), so a 65<sup>3</sup> grid is solved on a 128<sup>3</sup> FFT grid.  The
+ *  transform of the Green's function is computed once and reused by subsequent solutions.
+ *  <br>
+ *  &middot; Instances are not thread safe.
+ *  </p>
+ *
+ * @since   Oct 18, 2026
+ *
+ * @see PoissonGrid
+ */
+public class PoissonSolver {
+
+
+    /*
+     * Global Constants
+     */
+
+    /** number of grid points above which grid operations are performed in parallel */
+    private static final int        INT_MIN_PARALLEL = 32768;
+
+    /** number of smoothing sweeps before the coarse grid correction */
+    private static final int        INT_PRE_SWEEPS = 2;
+
+    /** number of smoothing sweeps after the coarse grid correction */
+    private static final int        INT_POST_SWEEPS = 2;
+
+    /** number of sweeps used to solve on the coarsest grid */
+    private static final int        INT_COARSE_SWEEPS = 50;
+
+    /** integral of 1/r over the unit cube centered at the origin, used to regularize the Green's function */
+    private static final double     DBL_CUBE_INTEGRAL = 2.380077;
+
+
+
+    /*
+     *  Internal Classes
+     */
+
+    /**
+     *  A single grid of the multigrid hierarchy.
+     */
+    private static final class Level {
+
+        /** number of grid points in each dimension */
+        final int       n1, n2, n3;
+
+        /** relaxation weights 1/h<sup>2</sup> in each dimension */
+        final double    w1, w2, w3;
+
+        /** inverse of the diagonal 2(w1 + w2 + w3) */
+        final double    wD;
+
+        /** potential (or correction) values */
+        final double[]  arrVal;
+
+        /** source (or restricted residual) values */
+        final double[]  arrSrc;
+
+        /** residual values */
+        final double[]  arrRes;
+
+
+        /**
+         *  Creates a grid level with the given size and resolution.
+         *
+         *  @param  n1, n2, n3  number of grid points in each dimension
+         *  @param  h1, h2, h3  grid resolution in each dimension
+         *  @param  arrVal      storage for the potential, or <code>null</code> to allocate
+         *  @param  arrSrc      storage for the source, or <code>null</code> to allocate
+         */
+        Level(int n1, int n2, int n3, double h1, double h2, double h3, double[] arrVal, double[] arrSrc) {
+            int     cntPts = n1*n2*n3;
+
+            this.n1 = n1;
+            this.n2 = n2;
+            this.n3 = n3;
+
+            this.w1 = 1.0/(h1*h1);
+            this.w2 = 1.0/(h2*h2);
+            this.w3 = 1.0/(h3*h3);
+            this.wD = 1.0/(2.0*(this.w1 + this.w2 + this.w3));
+
+            this.arrVal = (arrVal != null) ? arrVal : new double[cntPts];
+            this.arrSrc = (arrSrc != null) ? arrSrc : new double[cntPts];
+            this.arrRes = new double[cntPts];
+        }
+
+        /**
+         * Returns the total number of grid points.
+         *
+         * @return  n1*n2*n3
+         */
+        int size()    { return this.n1*this.n2*this.n3; }
+
+        /**
+         *  Determines whether or not a coarser grid can be built from this one.
+         *
+         *  @return     <code>true</code> if every dimension has 2m + 1 points with m &ge; 2
+         */
+        boolean isCoarsenable() {
+            return coarsenable(this.n1) && coarsenable(this.n2) && coarsenable(this.n3);
+        }
+
+        /**
+         *  Determines whether or not a dimension of the given size can be halved.
+         *
+         *  @param  n   number of grid points in the dimension
+         *
+         *  @return     <code>true</code> if n = 2m + 1 with m &ge; 2
+         */
+        private static boolean coarsenable(int n) {
+            return n >= 5 && (n - 1)%2 == 0;
+        }
+    }
+
+
+
+    /*
+     *  Local Attributes
+     */
+
+    /** number of grid points in each dimension */
+    private final int       n1, n2, n3;
+
+    /** grid resolution in each dimension */
+    private final double    h1, h2, h3;
+
+    /** the grid domain in R3 */
+    private final ClosedBox boxDom;
+
+    /** coordinates of the first grid point */
+    private final R3        ptOrg;
+
+    /** potential values at the grid points */
+    private final double[]  arrPot;
+
+    /** source values at the grid points */
+    private final double[]  arrSrc;
+
+
+    /** multigrid hierarchy, finest grid first (built when first needed) */
+    private List<Level>     lstLevels;
+
+    /** transform of the Green's function on the padded grid (built when first needed) */
+    private double[]        arrGreen;
+
+    /** number of iterations (V-cycles) used by the last solution */
+    private int             cntSolnIter;
+
+    /** relative residual error of the last solution */
+    private double          dblSolnErr;
+
+
+
+    /*
+     *  Initialization
+     */
+
+    /**
+     *  Creates a new Poisson solver on the given domain with the given grid size.  The
+     *  potential and source are initially zero everywhere.
+     *
+     *  @param  n1      number of grid points in first dimension (at least 3)
+     *  @param  n2      number of grid points in second dimension (at least 3)
+     *  @param  n3      number of grid points in third dimension (at least 3)
+     *  @param  boxDom  the domain of the grid in R3
+     *
+     *  @exception  GridException   invalid grid size or domain
+     */
+    public PoissonSolver(int n1, int n2, int n3, ClosedBox boxDom) throws GridException {
+        if (n1<3 || n2<3 || n3<3)
+            throw new GridException("PoissonSolver() - grid must have at least 3 points in each dimension.");
+        if (boxDom.volume() <= 0.0)
+            throw new GridException("PoissonSolver() - bad domain descriptor.");
+
+        R3      vecDim = boxDom.dimensions();
+
+        this.n1 = n1;
+        this.n2 = n2;
+        this.n3 = n3;
+
+        this.h1 = vecDim.get1()/(n1 - 1);
+        this.h2 = vecDim.get2()/(n2 - 1);
+        this.h3 = vecDim.get3()/(n3 - 1);
+
+        this.boxDom = boxDom;
+        this.ptOrg  = boxDom.getVertexMin();
+
+        this.arrPot = new double[n1*n2*n3];
+        this.arrSrc = new double[n1*n2*n3];
+    }
+
+    /**
+     *  Creates a new Poisson solver for the given domain with the given grid size.
+     *
+     *  @param  n1      number of grid points in first dimension (at least 3)
+     *  @param  n2      number of grid points in second dimension (at least 3)
+     *  @param  n3      number of grid points in third dimension (at least 3)
+     *  @param  xmin    lower limit of the first dimension
+     *  @param  xmax    upper limit of the first dimension
+     *  @param  ymin    lower limit of the second dimension
+     *  @param  ymax    upper limit of the second dimension
+     *  @param  zmin    lower limit of the third dimension
+     *  @param  zmax    upper limit of the third dimension
+     *
+     *  @exception  GridException   invalid grid size or domain
+     */
+    public PoissonSolver(int n1, int n2, int n3, double xmin, double xmax, double ymin, double ymax, double zmin, double zmax)
+        throws GridException
+    {
+        this(n1, n2, n3, newDomain(xmin, xmax, ymin, ymax, zmin, zmax));
+    }
+
+    /**
+     *  Set the potential value at grid point given by index.  The potential values
+     *  on the grid boundary are the Dirichlet boundary values of the multigrid solver.
+     *
+     *  @param  i       x dimension index of grid point
+     *  @param  j       y dimension index of grid point
+     *  @param  k       z dimension index of grid point
+     *  @param  dblPot  value of the potential at grid point (i,j,k)
+     */
+    public void setPtPotential(int i, int j, int k, double dblPot)    {
+        this.arrPot[this.index(i, j, k)] = dblPot;
+    }
+
+    /**
+     *  Set the source value at grid point given by index
+     *
+     *  @param  i       x dimension index of grid point
+     *  @param  j       y dimension index of grid point
+     *  @param  k       z dimension index of grid point
+     *  @param  dblSrc  value of the driving source at grid point (i,j,k)
+     */
+    public void setPtSource(int i, int j, int k, double dblSrc)    {
+        this.arrSrc[this.index(i, j, k)] = dblSrc;
+    }
+
+    /**
+     *  Sets the source to zero at every grid point.
+     */
+    public void clearSource() {
+        java.util.Arrays.fill(this.arrSrc, 0.0);
+    }
+
+    /**
+     *  Sets the potential to zero at every grid point, including the boundary.
+     */
+    public void clearPotential() {
+        java.util.Arrays.fill(this.arrPot, 0.0);
+    }
+
+
+
+    /*
+     *  Grid Properties
+     */
+
+    /**
+     *  Get the number of grid points in each dimension.
+     *
+     *  @return     vector of grid dimensions (n1, n2, n3)
+     */
+    public Z3   getGridSize()           { return new Z3(this.n1, this.n2, this.n3); }
+
+    /**
+     *  Get the domain of the grid in R3.
+     *
+     *  @return     a ClosedBox object describing the domain of definition for this grid
+     */
+    public ClosedBox getGridDomain()    { return this.boxDom; }
+
+    /**
+     *  Get grid resolution.
+     *
+     *  @return     vector (dx,dy,dz) of spacing between grid points
+     */
+    public R3   getGridResolution()     { return new R3(this.h1, this.h2, this.h3); }
+
+    /**
+     *  Get the potential value at the grid point indexed by (i,j,k)
+     *
+     *  @param  i       index of the first grid dimension
+     *  @param  j       index of the second grid dimension
+     *  @param  k       index of the third grid dimension
+     *
+     *  @return         potential at grid point (i,j,k)
+     */
+    public double getPtPotential(int i, int j, int k)   {
+        return this.arrPot[this.index(i, j, k)];
+    }
+
+    /**
+     *  Get the source value at the grid point indexed by (i,j,k)
+     *
+     *  @param  i       index of the first grid dimension
+     *  @param  j       index of the second grid dimension
+     *  @param  k       index of the third grid dimension
+     *
+     *  @return         source value at grid point (i,j,k)
+     */
+    public double getPtSource(int i, int j, int k)   {
+        return this.arrSrc[this.index(i, j, k)];
+    }
+
+    /**
+     *  Get the number of V-cycles used by the last multigrid solution.
+     *
+     *  @return     number of iterations of the last solution
+     */
+    public int  getSolutionIterations()     { return this.cntSolnIter; }
+
+    /**
+     *  Get the residual error of the last multigrid solution, that is, the rms residual
+     *  of the discrete Poisson equation relative to the rms source value.
+     *
+     *  @return     relative residual error of the last solution
+     */
+    public double getSolutionError()        { return this.dblSolnErr; }
+
+
+
+    /*
+     *  Source Deposition
+     */
+
+    /**
+     *  <p>
+     *  Deposits the charge of the ensemble particles onto the grid using the cloud-in-cell
+     *  (trilinear) weighting and adds the resulting charge density, divided by the
+     *  permittivity of free space, to the source.  The potential subsequently solved for
+     *  is then the electrostatic potential of the ensemble in Volts.  The (<i>x,y,z</i>)
+     *  phase coordinates of each particle are taken as its position.
+     *  </p>
+     *  <p>
+     *  Particles outside the grid domain are not deposited.  The particles of a
+     *  <code>{@link ColumnarEnsemble}</code> are deposited in parallel.
+     *  </p>
+     *
+     *  @param  ens     ensemble whose charge is deposited
+     *
+     *  @return         number of particles lying outside the grid domain
+     */
+    public int  depositCharge(Ensemble ens) {
+        if (ens instanceof ColumnarEnsemble)
+            return this.depositCharge((ColumnarEnsemble)ens);
+
+        int     cntOut = 0;
+        Iterator<Particle> iter = ens.iterator();
+
+        while (iter.hasNext()) {
+            Particle    p     = iter.next();
+            R3          ptPos = p.getPosition();
+
+            if (!this.depositPoint(this.arrSrc, ptPos.get1(), ptPos.get2(), ptPos.get3(), p.getCharge()))
+                cntOut++;
+        }
+
+        return cntOut;
+    }
+
+
+
+    /*
+     *  Grid Operations
+     */
+
+    /**
+     *  <p>
+     *  Solve for the potential on the grid using multigrid V-cycles.  The potential values
+     *  on the grid boundary are held fixed and the current interior values are taken as
+     *  the initial guess, so repeated solutions for slowly varying sources, e.g., from
+     *  one integration step to the next, converge in fewer cycles.
+     *  </p>
+     *  <p>
+     *  Iteration stops once the rms residual relative to the rms source (or the absolute
+     *  rms residual for a vanishing source) drops below the given error.
+     *  </p>
+     *
+     *  @param  intIterMax      maximum number of V-cycles
+     *  @param  dblErrMax       maximum relative residual error
+     *
+     *  @return                 the relative residual error in the solution
+     */
+    public double   solveMultigrid(int intIterMax, double dblErrMax) {
+
+        // Build the grid hierarchy on first use
+        if (this.lstLevels == null)
+            this.lstLevels = this.buildLevels();
+
+        Level       lvlFine = this.lstLevels.get(0);
+        double      dblNorm = this.rmsInterior(lvlFine, lvlFine.arrSrc);
+
+        if (dblNorm == 0.0)
+            dblNorm = 1.0;
+
+        this.cntSolnIter = 0;
+        this.dblSolnErr  = this.residual(lvlFine)/dblNorm;
+
+        while (this.dblSolnErr > dblErrMax && this.cntSolnIter < intIterMax) {
+            this.vcycle(0);
+
+            this.cntSolnIter++;
+            this.dblSolnErr = this.residual(lvlFine)/dblNorm;
+        }
+
+        return this.dblSolnErr;
+    }
+
+    /**
+     *  Solve for the potential of the source in free space by convolving the source with
+     *  the Green's function 1/(4&pi;<i>r</i>) using the FFT.  The potential is computed at
+     *  every grid point, including the boundary, and the previous potential values are
+     *  discarded.  The Green's function at zero separation is replaced by its average over
+     *  a grid cell.
+     */
+    public void solveOpenBoundary() {
+        int     m1 = paddedSize(this.n1);
+        int     m2 = paddedSize(this.n2);
+        int     m3 = paddedSize(this.n3);
+        int     cntPad = m1*m2*m3;
+
+        if (this.arrGreen == null)
+            this.arrGreen = this.buildGreenTransform(m1, m2, m3);
+
+        // Zero-padded source
+        double[]    arrRe = new double[cntPad];
+        double[]    arrIm = new double[cntPad];
+
+        for (int i=0; i<this.n1; i++)
+            for (int j=0; j<this.n2; j++)
+                System.arraycopy(this.arrSrc, this.index(i, j, 0), arrRe, (i*m2 + j)*m3, this.n3);
+
+        // Convolve in frequency space
+        fft3(arrRe, arrIm, m1, m2, m3, false);
+
+        final double[]  arrG = this.arrGreen;
+
+        forEach(0, m1, cntPad, (int i) -> {
+            for (int n=i*m2*m3; n<(i+1)*m2*m3; n++) {
+                arrRe[n] *= arrG[n];
+                arrIm[n] *= arrG[n];
+            }
+        });
+
+        fft3(arrRe, arrIm, m1, m2, m3, true);
+
+        for (int i=0; i<this.n1; i++)
+            for (int j=0; j<this.n2; j++)
+                System.arraycopy(arrRe, (i*m2 + j)*m3, this.arrPot, this.index(i, j, 0), this.n3);
+    }
+
+
+
+    /*
+     *  Field Quantities
+     */
+
+    /**
+     *  Compute and return the interpolated potential at a point within the grid domain.
+     *  The potential is calculated by trilinear interpolation of the potential values at
+     *  the vertices of the grid cell containing the point.
+     *
+     *  @param  pt      coordinates of field point within grid
+     *
+     *  @return         interpolated potential at pt
+     *
+     *  @exception  GridException   point pt is outside grid domain
+     */
+    public double   potential(R3 pt) throws GridException    {
+        double[]    arrGrad = new double[4];
+
+        this.interpolate(pt, arrGrad);
+
+        return arrGrad[0];
+    }
+
+    /**
+     *  Compute and return the field F = -grad V at a point within the grid domain.  The
+     *  gradient is that of the trilinear interpolation of the potential, so the field is
+     *  continuous within each cell.
+     *
+     *  @param  pt      field point to compute field
+     *
+     *  @return         vector field at point pt in cartesian (Fx,Fy,Fz)
+     *
+     *  @exception  GridException   point pt is outside grid domain
+     */
+    public R3   fieldCartesian(R3 pt) throws GridException   {
+        double[]    arrGrad = new double[4];
+
+        this.interpolate(pt, arrGrad);
+
+        return new R3(-arrGrad[1], -arrGrad[2], -arrGrad[3]);
+    }
+
+
+
+    /*
+     *  Internal Support - Grid Manipulation
+     */
+
+    /**
+     *  Returns the index of the grid point (i,j,k) in the flat arrays.
+     *
+     *  @param  i       first dimension index
+     *  @param  j       second dimension index
+     *  @param  k       third dimension index
+     *
+     *  @return         index of the grid point
+     */
+    private int index(int i, int j, int k) {
+        return (i*this.n2 + j)*this.n3 + k;
+    }
+
+    /**
+     *  Creates the domain box for the given limits, converting the exception type.
+     *
+     *  @param  xmin, xmax, ymin, ymax, zmin, zmax  domain limits
+     *
+     *  @return     the domain box
+     *
+     *  @throws GridException   the limits are invalid
+     */
+    private static ClosedBox newDomain(double xmin, double xmax, double ymin, double ymax, double zmin, double zmax)
+        throws GridException
+    {
+        try {
+            return new ClosedBox(xmin, xmax, ymin, ymax, zmin, zmax);
+
+        } catch (MathException e) {
+            throw new GridException("PoissonSolver() - bad domain descriptor: " + e.getMessage());
+        }
+    }
+
+    /**
+     *  Interpolates the potential and its gradient at the given point.
+     *
+     *  @param  pt      point within the grid domain
+     *  @param  arrRes  output array receiving (V, dV/dx, dV/dy, dV/dz)
+     *
+     *  @throws GridException   the point is outside the grid domain
+     */
+    private void interpolate(R3 pt, double[] arrRes) throws GridException {
+        double  u1 = (pt.get1() - this.ptOrg.get1())/this.h1;
+        double  u2 = (pt.get2() - this.ptOrg.get2())/this.h2;
+        double  u3 = (pt.get3() - this.ptOrg.get3())/this.h3;
+
+        if (u1<0.0 || u2<0.0 || u3<0.0 || u1>this.n1-1 || u2>this.n2-1 || u3>this.n3-1)
+            throw new GridException("PoissonSolver#interpolate() - point " + pt + " is outside the grid domain.");
+
+        int     i = Math.min((int)u1, this.n1 - 2);
+        int     j = Math.min((int)u2, this.n2 - 2);
+        int     k = Math.min((int)u3, this.n3 - 2);
+
+        double  t1 = u1 - i,    c1 = 1.0 - t1;
+        double  t2 = u2 - j,    c2 = 1.0 - t2;
+        double  t3 = u3 - k,    c3 = 1.0 - t3;
+
+        int     s1 = this.n2*this.n3;
+        int     s2 = this.n3;
+        int     n  = this.index(i, j, k);
+
+        double  v000 = arrPot[n],         v001 = arrPot[n + 1];
+        double  v010 = arrPot[n + s2],    v011 = arrPot[n + s2 + 1];
+        double  v100 = arrPot[n + s1],    v101 = arrPot[n + s1 + 1];
+        double  v110 = arrPot[n + s1 + s2], v111 = arrPot[n + s1 + s2 + 1];
+
+        arrRes[0] = v000*c1*c2*c3 + v001*c1*c2*t3 + v010*c1*t2*c3 + v011*c1*t2*t3
+                  + v100*t1*c2*c3 + v101*t1*c2*t3 + v110*t1*t2*c3 + v111*t1*t2*t3;
+
+        arrRes[1] = ( (v100-v000)*c2*c3 + (v101-v001)*c2*t3 + (v110-v010)*t2*c3 + (v111-v011)*t2*t3 )/this.h1;
+        arrRes[2] = ( (v010-v000)*c1*c3 + (v011-v001)*c1*t3 + (v110-v100)*t1*c3 + (v111-v101)*t1*t3 )/this.h2;
+        arrRes[3] = ( (v001-v000)*c1*c2 + (v011-v010)*c1*t2 + (v101-v100)*t1*c2 + (v111-v110)*t1*t2 )/this.h3;
+    }
+
+    /**
+     *  Deposits a point charge onto the given source array with cloud-in-cell weighting.
+     *
+     *  @param  arrDst      source array receiving the charge density over the permittivity
+     *  @param  x, y, z     position of the charge
+     *  @param  q           the charge
+     *
+     *  @return             <code>false</code> if the point is outside the grid domain
+     */
+    private boolean depositPoint(double[] arrDst, double x, double y, double z, double q) {
+        double  u1 = (x - this.ptOrg.get1())/this.h1;
+        double  u2 = (y - this.ptOrg.get2())/this.h2;
+        double  u3 = (z - this.ptOrg.get3())/this.h3;
+
+        if (!(u1>=0.0 && u2>=0.0 && u3>=0.0 && u1<=this.n1-1 && u2<=this.n2-1 && u3<=this.n3-1))
+            return false;
+
+        int     i = Math.min((int)u1, this.n1 - 2);
+        int     j = Math.min((int)u2, this.n2 - 2);
+        int     k = Math.min((int)u3, this.n3 - 2);
+
+        double  t1 = u1 - i,    c1 = 1.0 - t1;
+        double  t2 = u2 - j,    c2 = 1.0 - t2;
+        double  t3 = u3 - k,    c3 = 1.0 - t3;
+
+        double  s  = q/(IConstants.Permittivity*this.h1*this.h2*this.h3);
+        int     s1 = this.n2*this.n3;
+        int     s2 = this.n3;
+        int     n  = this.index(i, j, k);
+
+        arrDst[n]               += s*c1*c2*c3;
+        arrDst[n + 1]           += s*c1*c2*t3;
+        arrDst[n + s2]          += s*c1*t2*c3;
+        arrDst[n + s2 + 1]      += s*c1*t2*t3;
+        arrDst[n + s1]          += s*t1*c2*c3;
+        arrDst[n + s1 + 1]      += s*t1*c2*t3;
+        arrDst[n + s1 + s2]     += s*t1*t2*c3;
+        arrDst[n + s1 + s2 + 1] += s*t1*t2*t3;
+
+        return true;
+    }
+
+    /**
+     *  Deposits the particles of a columnar ensemble.  The particles are split into one
+     *  contiguous range per processor, each range is deposited onto a private copy of
+     *  the source, and the copies are summed.
+     *
+     *  @param  ens     ensemble whose charge is deposited
+     *
+     *  @return         number of particles lying outside the grid domain
+     */
+    private int depositCharge(ColumnarEnsemble ens) {
+        final double[]  arrX = ens.getCoordinates(0);
+        final double[]  arrY = ens.getCoordinates(2);
+        final double[]  arrZ = ens.getCoordinates(4);
+        final double[]  arrQ = ens.getCharges();
+        final int       cntPrtls = ens.getCount();
+        final int       cntPts = this.arrSrc.length;
+
+        if (cntPrtls < INT_MIN_PARALLEL) {
+            int     cntOut = 0;
+
+            for (int n=0; n<cntPrtls; n++)
+                if (!this.depositPoint(this.arrSrc, arrX[n], arrY[n], arrZ[n], arrQ[n]))
+                    cntOut++;
+
+            return cntOut;
+        }
+
+        // Each range needs a whole grid of storage so keep the number of ranges small
+        final int       cntRanges = Math.min(Runtime.getRuntime().availableProcessors(), cntPrtls/INT_MIN_PARALLEL + 1);
+        final int       szRange = (cntPrtls + cntRanges - 1)/cntRanges;
+
+        double[]    arrAcc = DispatchQueue.getGlobalDefaultPriorityQueue().dispatchApply(cntRanges, new DispatchReductionKernel<double[]>() {
+
+            @Override
+            public double[] createAccumulator() {
+                return new double[cntPts + 1];
+            }
+
+            @Override
+            public double[] accumulate(double[] arrDst, int iRange) {
+                int     iStop = Math.min(cntPrtls, (iRange + 1)*szRange);
+
+                for (int n=iRange*szRange; n<iStop; n++)
+                    if (!depositPoint(arrDst, arrX[n], arrY[n], arrZ[n], arrQ[n]))
+                        arrDst[cntPts] += 1.0;
+
+                return arrDst;
+            }
+
+            @Override
+            public double[] combine(double[] arrLeft, double[] arrRight) {
+                for (int n=0; n<=cntPts; n++)
+                    arrLeft[n] += arrRight[n];
+
+                return arrLeft;
+            }
+        });
+
+        for (int n=0; n<cntPts; n++)
+            this.arrSrc[n] += arrAcc[n];
+
+        return (int)arrAcc[cntPts];
+    }
+
+    /**
+     *  Performs the iterations of the kernel over the given index range, in parallel on the
+     *  global dispatch queue if the amount of work is large enough.
+     *
+     *  @param  iStart      first index
+     *  @param  iStop       index following the last
+     *  @param  cntWork     number of grid points processed over the whole range
+     *  @param  kernel      kernel evaluated for each index
+     */
+    private static void forEach(final int iStart, final int iStop, final int cntWork, final DispatchIterationKernel kernel) {
+        if (cntWork < INT_MIN_PARALLEL || iStop - iStart < 2) {
+            for (int i=iStart; i<iStop; i++)
+                kernel.evaluateIteration(i);
+
+            return;
+        }
+
+        DispatchQueue.getGlobalDefaultPriorityQueue().dispatchApply(iStop - iStart, (int i) -> kernel.evaluateIteration(iStart + i));
+    }
+
+
+
+    /*
+     *  Internal Support - Multigrid
+     */
+
+    /**
+     *  Builds the hierarchy of grids by halving the finest grid while possible.
+     *
+     *  @return     list of grid levels, finest first
+     */
+    private List<Level> buildLevels() {
+        List<Level>     lstLvls = new ArrayList<Level>();
+
+        Level   lvl = new Level(this.n1, this.n2, this.n3, this.h1, this.h2, this.h3, this.arrPot, this.arrSrc);
+        double  s   = 1.0;
+
+        lstLvls.add(lvl);
+        while (lvl.isCoarsenable()) {
+            s  *= 2.0;
+            lvl = new Level((lvl.n1 - 1)/2 + 1, (lvl.n2 - 1)/2 + 1, (lvl.n3 - 1)/2 + 1, s*this.h1, s*this.h2, s*this.h3, null, null);
+
+            lstLvls.add(lvl);
+        }
+
+        return lstLvls;
+    }
+
+    /**
+     *  Performs one V-cycle starting at the given level.
+     *
+     *  @param  iLevel  index of the grid level
+     */
+    private void vcycle(int iLevel) {
+        Level   lvl = this.lstLevels.get(iLevel);
+
+        if (iLevel == this.lstLevels.size() - 1) {
+            this.smooth(lvl, INT_COARSE_SWEEPS);
+            return;
+        }
+
+        Level   lvlCrs = this.lstLevels.get(iLevel + 1);
+
+        this.smooth(lvl, INT_PRE_SWEEPS);
+        this.residual(lvl);
+        this.restrict(lvl, lvlCrs);
+
+        java.util.Arrays.fill(lvlCrs.arrVal, 0.0);
+        this.vcycle(iLevel + 1);
+
+        this.prolongate(lvlCrs, lvl);
+        this.smooth(lvl, INT_POST_SWEEPS);
+    }
+
+    /**
+     *  Performs red-black Gauss-Seidel sweeps on the interior of the grid.  Points of one
+     *  color depend only on points of the other, so each half sweep is done in parallel.
+     *
+     *  @param  lvl         grid level
+     *  @param  cntSweeps   number of sweeps
+     */
+    private void smooth(final Level lvl, int cntSweeps) {
+        for (int iSweep=0; iSweep<cntSweeps; iSweep++)
+            for (int iColor=0; iColor<2; iColor++) {
+                final int   c = iColor;
+
+                forEach(1, lvl.n1 - 1, lvl.size(), (int i) -> relaxPlane(lvl, i, c));
+            }
+    }
+
+    /**
+     *  Relaxes the points of the given color in the i-th plane of the grid.
+     *
+     *  @param  lvl     grid level
+     *  @param  i       first dimension index of the plane
+     *  @param  iColor  color (parity of i+j+k) of the points to relax
+     */
+    private static void relaxPlane(Level lvl, int i, int iColor) {
+        final double[]  v  = lvl.arrVal;
+        final double[]  f  = lvl.arrSrc;
+        final int       s1 = lvl.n2*lvl.n3;
+        final int       s2 = lvl.n3;
+
+        for (int j=1; j<lvl.n2-1; j++) {
+            int     k0 = 1 + ((i + j + 1 + iColor) & 1);
+            int     n0 = (i*lvl.n2 + j)*lvl.n3;
+
+            for (int n=n0+k0; n<n0+lvl.n3-1; n+=2)
+                v[n] = lvl.wD*( lvl.w1*(v[n+s1] + v[n-s1])
+                              + lvl.w2*(v[n+s2] + v[n-s2])
+                              + lvl.w3*(v[n+1]  + v[n-1])
+                              + f[n] );
+        }
+    }
+
+    /**
+     *  Computes the residual Src + Div Grad V on the interior of the grid.
+     *
+     *  @param  lvl     grid level
+     *
+     *  @return         rms residual over the interior points
+     */
+    private double residual(final Level lvl) {
+        final double[]  v  = lvl.arrVal;
+        final double[]  f  = lvl.arrSrc;
+        final double[]  r  = lvl.arrRes;
+        final int       s1 = lvl.n2*lvl.n3;
+        final int       s2 = lvl.n3;
+        final double    wC = 1.0/lvl.wD;
+
+        forEach(1, lvl.n1 - 1, lvl.size(), (int i) -> {
+            for (int j=1; j<lvl.n2-1; j++) {
+                int     n0 = (i*lvl.n2 + j)*lvl.n3;
+
+                for (int n=n0+1; n<n0+lvl.n3-1; n++)
+                    r[n] = f[n] + lvl.w1*(v[n+s1] + v[n-s1])
+                                + lvl.w2*(v[n+s2] + v[n-s2])
+                                + lvl.w3*(v[n+1]  + v[n-1])
+                                - wC*v[n];
+            }
+        });
+
+        return this.rmsInterior(lvl, r);
+    }
+
+    /**
+     *  Computes the rms value of the given grid function over the interior points.
+     *
+     *  @param  lvl     grid level
+     *  @param  arrFnc  grid function
+     *
+     *  @return         rms value over the interior points
+     */
+    private double rmsInterior(Level lvl, double[] arrFnc) {
+        double  dblSum = 0.0;
+
+        for (int i=1; i<lvl.n1-1; i++)
+            for (int j=1; j<lvl.n2-1; j++) {
+                int     n0 = (i*lvl.n2 + j)*lvl.n3;
+
+                for (int n=n0+1; n<n0+lvl.n3-1; n++)
+                    dblSum += arrFnc[n]*arrFnc[n];
+            }
+
+        return Math.sqrt( dblSum/((lvl.n1 - 2)*(lvl.n2 - 2)*(lvl.n3 - 2)) );
+    }
+
+    /**
+     *  Restricts the fine grid residual to the source of the coarse grid using full
+     *  (27 point) weighting.
+     *
+     *  @param  lvlFine     fine grid level
+     *  @param  lvlCrs      coarse grid level
+     */
+    private void restrict(final Level lvlFine, final Level lvlCrs) {
+        final double[]  r  = lvlFine.arrRes;
+        final double[]  fc = lvlCrs.arrSrc;
+        final int       s1 = lvlFine.n2*lvlFine.n3;
+        final int       s2 = lvlFine.n3;
+
+        forEach(1, lvlCrs.n1 - 1, lvlFine.size(), (int I) -> {
+            for (int J=1; J<lvlCrs.n2-1; J++)
+                for (int K=1; K<lvlCrs.n3-1; K++) {
+                    int     n = ((2*I)*lvlFine.n2 + 2*J)*lvlFine.n3 + 2*K;
+                    double  dblSum = 0.0;
+
+                    for (int a=-1; a<=1; a++)
+                        for (int b=-1; b<=1; b++) {
+                            int     m  = n + a*s1 + b*s2;
+                            double  wt = (a == 0 ? 0.5 : 0.25)*(b == 0 ? 0.5 : 0.25);
+
+                            dblSum += wt*(0.25*r[m-1] + 0.5*r[m] + 0.25*r[m+1]);
+                        }
+
+                    fc[(I*lvlCrs.n2 + J)*lvlCrs.n3 + K] = dblSum;
+                }
+        });
+    }
+
+    /**
+     *  Interpolates the coarse grid correction trilinearly and adds it to the interior of
+     *  the fine grid.
+     *
+     *  @param  lvlCrs      coarse grid level
+     *  @param  lvlFine     fine grid level
+     */
+    private void prolongate(final Level lvlCrs, final Level lvlFine) {
+        final double[]  vc = lvlCrs.arrVal;
+        final double[]  v  = lvlFine.arrVal;
+        final int       s1 = lvlCrs.n2*lvlCrs.n3;
+        final int       s2 = lvlCrs.n3;
+
+        forEach(1, lvlFine.n1 - 1, lvlFine.size(), (int i) -> {
+            int     I  = i >> 1;
+            int     di = (i & 1);
+
+            for (int j=1; j<lvlFine.n2-1; j++) {
+                int     J  = j >> 1;
+                int     dj = (j & 1);
+                int     m0 = (I*lvlCrs.n2 + J)*lvlCrs.n3;
+                int     n0 = (i*lvlFine.n2 + j)*lvlFine.n3;
+
+                for (int k=1; k<lvlFine.n3-1; k++) {
+                    int     K  = k >> 1;
+                    int     dk = (k & 1);
+                    int     m  = m0 + K;
+
+                    // Average over the 1, 2, 4 or 8 coarse points surrounding the fine point
+                    double  dblSum = 0.0;
+                    for (int a=0; a<=di; a++)
+                        for (int b=0; b<=dj; b++)
+                            for (int c=0; c<=dk; c++)
+                                dblSum += vc[m + a*s1 + b*s2 + c];
+
+                    v[n0 + k] += dblSum/(1 << (di + dj + dk));
+                }
+            }
+        });
+    }
+
+
+
+    /*
+     *  Internal Support - FFT Solver
+     */
+
+    /**
+     *  Returns the size of the padded FFT dimension for a grid dimension, the smallest
+     *  power of two not less than 2(n - 1).
+     *
+     *  @param  n       number of grid points in the dimension
+     *
+     *  @return         size of the padded dimension
+     */
+    private static int paddedSize(int n) {
+        int     m = 1;
+
+        while (m < 2*(n - 1))
+            m <<= 1;
+
+        return m;
+    }
+
+    /**
+     *  Computes the transform of the free space Green's function, including the cell
+     *  volume and the normalization of the inverse transform, on the padded grid.  The
+     *  Green's function is real and even so its transform is real.
+     *
+     *  @param  m1, m2, m3  dimensions of the padded grid
+     *
+     *  @return             real transform of the Green's function
+     */
+    private double[] buildGreenTransform(final int m1, final int m2, final int m3) {
+        final int       cntPad = m1*m2*m3;
+        final double[]  arrRe  = new double[cntPad];
+        final double[]  arrIm  = new double[cntPad];
+
+        final double    dblVol = this.h1*this.h2*this.h3;
+        final double    dblFac = dblVol/(4.0*Math.PI);
+        final double    dblG0  = DBL_CUBE_INTEGRAL/(4.0*Math.PI*Math.cbrt(dblVol)) * dblVol;
+
+        forEach(0, m1, cntPad, (int i) -> {
+            double  x = Math.min(i, m1 - i)*h1;
+
+            for (int j=0; j<m2; j++) {
+                double  y = Math.min(j, m2 - j)*h2;
+
+                for (int k=0; k<m3; k++) {
+                    double  z = Math.min(k, m3 - k)*h3;
+                    double  r = Math.sqrt(x*x + y*y + z*z);
+
+                    arrRe[(i*m2 + j)*m3 + k] = (r > 0.0) ? dblFac/r : dblG0;
+                }
+            }
+        });
+
+        fft3(arrRe, arrIm, m1, m2, m3, false);
+
+        // Fold in the 1/N normalization of the inverse transform
+        double  dblNorm = 1.0/cntPad;
+        for (int n=0; n<cntPad; n++)
+            arrRe[n] *= dblNorm;
+
+        return arrRe;
+    }
+
+    /**
+     *  Performs an unnormalized three-dimensional FFT in place.  The one-dimensional
+     *  transforms along each dimension are distributed over the planes of the grid.
+     *
+     *  @param  arrRe       real parts
+     *  @param  arrIm       imaginary parts
+     *  @param  m1, m2, m3  dimensions of the grid (powers of two)
+     *  @param  bolInv      <code>true</code> for the inverse transform (positive exponent)
+     */
+    private static void fft3(final double[] arrRe, final double[] arrIm, final int m1, final int m2, final int m3, final boolean bolInv) {
+        final int   cntPts = m1*m2*m3;
+        final int   s1 = m2*m3;
+
+        // Third dimension - contiguous lines
+        forEach(0, m1, cntPts, (int i) -> {
+            double[]    bufRe = new double[m3];
+            double[]    bufIm = new double[m3];
+
+            for (int j=0; j<m2; j++) {
+                int     n0 = i*s1 + j*m3;
+
+                System.arraycopy(arrRe, n0, bufRe, 0, m3);
+                System.arraycopy(arrIm, n0, bufIm, 0, m3);
+                fft(bufRe, bufIm, bolInv);
+                System.arraycopy(bufRe, 0, arrRe, n0, m3);
+                System.arraycopy(bufIm, 0, arrIm, n0, m3);
+            }
+        });
+
+        // Second dimension
+        forEach(0, m1, cntPts, (int i) -> {
+            double[]    bufRe = new double[m2];
+            double[]    bufIm = new double[m2];
+
+            for (int k=0; k<m3; k++) {
+                int     n0 = i*s1 + k;
+
+                for (int j=0; j<m2; j++) {
+                    bufRe[j] = arrRe[n0 + j*m3];
+                    bufIm[j] = arrIm[n0 + j*m3];
+                }
+                fft(bufRe, bufIm, bolInv);
+                for (int j=0; j<m2; j++) {
+                    arrRe[n0 + j*m3] = bufRe[j];
+                    arrIm[n0 + j*m3] = bufIm[j];
+                }
+            }
+        });
+
+        // First dimension
+        forEach(0, m2, cntPts, (int j) -> {
+            double[]    bufRe = new double[m1];
+            double[]    bufIm = new double[m1];
+
+            for (int k=0; k<m3; k++) {
+                int     n0 = j*m3 + k;
+
+                for (int i=0; i<m1; i++) {
+                    bufRe[i] = arrRe[n0 + i*s1];
+                    bufIm[i] = arrIm[n0 + i*s1];
+                }
+                fft(bufRe, bufIm, bolInv);
+                for (int i=0; i<m1; i++) {
+                    arrRe[n0 + i*s1] = bufRe[i];
+                    arrIm[n0 + i*s1] = bufIm[i];
+                }
+            }
+        });
+    }
+
+    /**
+     *  Performs an unnormalized, in-place FFT of a complex sequence using the cached
+     *  transform of its length.
+     *
+     *  @param  re      real parts
+     *  @param  im      imaginary parts
+     *  @param  bolInv  <code>true</code> for the inverse transform (positive exponent)
+     */
+    private static void fft(double[] re, double[] im, boolean bolInv) {
+        FastFourierTransform    fft = FastFourierTransform.getInstance(re.length);
+
+        if (bolInv)
+            fft.inverse(re, im);
+        else
+            fft.transform(re, im);
+    }
+}
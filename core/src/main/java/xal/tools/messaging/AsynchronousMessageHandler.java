@@ -8,6 +8,8 @@ package xal.tools.messaging;
 
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 import java.util.logging.*;
 import java.lang.reflect.*;
 
@@ -17,12 +19,34 @@ import java.lang.reflect.*;
  * Handle dispatch messages in an asynchronous way so that control is
  * returned to the sender immediately without waiting for recipients
  * to receive their messages.
- * Note that multiple recipients may also be notified concurrently.
+ * Messages are delivered on the bounded thread pool of the message center's dispatcher.
+ * Messages posted through one handler (i.e. one source and protocol) are delivered in the
+ * order they were posted, while messages from different sources may be delivered concurrently.
+ * If too many messages from the source are pending, posting waits until some have been delivered
+ * (except when posting from a delivery thread, which never waits to avoid deadlock).
  * @author  tap
  */
 class AsynchronousMessageHandler<T> extends MessageHandler<T> implements java.io.Serializable {
     /** serialization ID */
     private static final long serialVersionUID = 1L;
+	
+	/** maximum number of messages delivered in one pass before yielding the thread to other sources */
+	static final private int MAX_BATCH_SIZE = 64;
+	
+	/** dispatcher whose thread pool delivers the messages */
+	final private transient MessageDispatcher DISPATCHER;
+	
+	/** messages waiting to be delivered in the order posted */
+	final private transient Queue<Invoker> PENDING_INVOKERS;
+	
+	/** indicates whether a delivery pass is scheduled or running */
+	final private transient AtomicBoolean DELIVERY_SCHEDULED;
+	
+	/** permits limiting the number of undelivered messages */
+	final private transient Semaphore PENDING_PERMITS;
+	
+	/** delivers the pending messages */
+	final private transient Runnable DELIVERY_TASK;
     
 
     /** Creates new AsynchronousMessageHandler */
@@ -31,9 +55,21 @@ class AsynchronousMessageHandler<T> extends MessageHandler<T> implements java.io
     }
     
 
-    /** Creates new AsynchronousMessageHandler */
+    /** Creates new AsynchronousMessageHandler with its own dispatcher */
     public AsynchronousMessageHandler( final TargetDirectory directory, final Object source, final Class<T> newInterface, final int threadPoolSize ) {
-        super( directory, source, newInterface, threadPoolSize );
+        this( directory, source, newInterface, new MessageDispatcher( newInterface.getSimpleName(), threadPoolSize ) );
+    }
+	
+	
+    /** Creates new AsynchronousMessageHandler which delivers messages using the specified dispatcher */
+    public AsynchronousMessageHandler( final TargetDirectory directory, final Object source, final Class<T> newInterface, final MessageDispatcher dispatcher ) {
+        super( directory, source, newInterface, dispatcher.getThreadPoolSize() );
+		
+		DISPATCHER = dispatcher;
+		PENDING_INVOKERS = new ConcurrentLinkedQueue<Invoker>();
+		DELIVERY_SCHEDULED = new AtomicBoolean( false );
+		PENDING_PERMITS = new Semaphore( dispatcher.getMaxPendingMessages() );
+		DELIVERY_TASK = () -> deliverPending();
     }
     
     
@@ -45,13 +81,58 @@ class AsynchronousMessageHandler<T> extends MessageHandler<T> implements java.io
 	 */
 	public Object invoke( final Object proxy, final Method method, final Object[] args ) {
         method.setAccessible( true );     // allow access to private, protected, default access methods
-        Invoker invoker = new Invoker( method, args );
-        Thread thread = new Thread( invoker );
-        
-        thread.start();     // execute the invocation asynchronously
+		
+		// apply back pressure unless posting from a delivery thread which must never wait
+		boolean hasPermit = PENDING_PERMITS.tryAcquire();
+		if ( !hasPermit && !DISPATCHER.isDispatchThread() ) {
+			try {
+				PENDING_PERMITS.acquire();
+				hasPermit = true;
+			}
+			catch( InterruptedException exception ) {
+				Thread.currentThread().interrupt();		// post anyway but preserve the interrupt
+			}
+		}
+		
+        final Invoker invoker = new Invoker( method, args, hasPermit );
+		DISPATCHER.messagePosted();
+		PENDING_INVOKERS.offer( invoker );
+		scheduleDelivery();
         
         return null;
     }
+	
+	
+	/** schedule a delivery pass unless one is already scheduled or running */
+	private void scheduleDelivery() {
+		if ( DELIVERY_SCHEDULED.compareAndSet( false, true ) ) {
+			DISPATCHER.execute( DELIVERY_TASK );
+		}
+	}
+	
+	
+	/** deliver pending messages in order, yielding the thread after a batch so other sources are not starved */
+	private void deliverPending() {
+		try {
+			int count = 0;
+			Invoker invoker;
+			while ( count++ < MAX_BATCH_SIZE && ( invoker = PENDING_INVOKERS.poll() ) != null ) {
+				DISPATCHER.messageDispatched( invoker.postTime );
+				try {
+					invoker.run();
+				}
+				finally {
+					if ( invoker.hasPermit )  PENDING_PERMITS.release();
+				}
+			}
+		}
+		finally {
+			DELIVERY_SCHEDULED.set( false );
+			
+			// messages may have been posted after the last poll or the batch limit was reached
+			if ( !PENDING_INVOKERS.isEmpty() )  scheduleDelivery();
+		}
+	}
 
     
     /**
@@ -67,12 +148,20 @@ class AsynchronousMessageHandler<T> extends MessageHandler<T> implements java.io
     private class Invoker implements Runnable {
         final private Method method;
         final private Object[] args;
+		
+		/** time (System.nanoTime()) at which the message was posted */
+		final private long postTime;
+		
+		/** indicates whether the message holds a pending message permit */
+		final private boolean hasPermit;
         
 		
 		/** Constructor */
-        public Invoker( final Method newMethod, final Object[] newArgs ) {
+        public Invoker( final Method newMethod, final Object[] newArgs, final boolean hasPermit ) {
             method = newMethod;
             args = newArgs;
+			postTime = System.nanoTime();
+			this.hasPermit = hasPermit;
         }
     
 		/** forward messages to the targets */
@@ -91,6 +180,3 @@ class AsynchronousMessageHandler<T> extends MessageHandler<T> implements java.io
         }
     }
 }
-
-
-
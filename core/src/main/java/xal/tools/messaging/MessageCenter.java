@@ -22,7 +22,7 @@ public class MessageCenter implements java.io.Serializable {
 	/** forward events on the invoking thread */
 	static final public int SYNCHRONOUS = 0;
 	
-	/** forward events from a new thread */
+	/** forward events from the message center's thread pool in the order posted per source */
 	static final public int ASYNCHRONOUS = 1;
 	
 	/** forward fresh events (drop old unprocessed pending events) on a common thread per protocol */
@@ -31,7 +31,7 @@ public class MessageCenter implements java.io.Serializable {
 	/** default message center that can be accessed throughout the process */
     static final private MessageCenter DEFAULT_CENTER;
 	
-	/** The default thread pool size - currently not used */
+	/** The default thread pool size for asynchronous messaging */
     static final int DEFAULT_THREAD_POOL_SIZE = 5;
 	
     /** table of registered handlers */
@@ -43,9 +43,12 @@ public class MessageCenter implements java.io.Serializable {
     /** name to identify the MessageCenter instance */
     private final String NAME;
 	
-    /** unimplemented, but will be used to reduce bottlenecks */
+    /** maximum number of threads delivering asynchronous messages concurrently */
     private int _threadPoolSize;
 	
+	/** dispatcher delivering the asynchronous messages (created when first needed) */
+	private transient MessageDispatcher _dispatcher;
+	
     
 	/** 
 	 * Static initializer
@@ -145,12 +148,90 @@ public class MessageCenter implements java.io.Serializable {
     /** 
      * set the thread pool size for concurrent messaging 
      * to reduce bottlenecks.
-     * Thread pools have not yet been implemented.
 	 * @param threadPoolSize The thread pool size of this message center 
      */
-    private void setThreadPoolSize( final int threadPoolSize ) {
-        // need to implement this method
+    synchronized private void setThreadPoolSize( final int threadPoolSize ) {
+        _threadPoolSize = Math.max( 1, threadPoolSize );
+		if ( _dispatcher != null ) {
+			_dispatcher.setThreadPoolSize( _threadPoolSize );
+		}
     }
+	
+	
+	/**
+	 * Get the dispatcher delivering the asynchronous messages, creating it if necessary
+	 * @return the dispatcher for this message center
+	 */
+	synchronized private MessageDispatcher getDispatcher() {
+		if ( _dispatcher == null ) {
+			_dispatcher = new MessageDispatcher( NAME, _threadPoolSize );
+		}
+		return _dispatcher;
+	}
+    
+    
+    // asynchronous dispatch monitoring -----------------------------------------------------
+	
+	/**
+	 * Get the number of asynchronous messages which have been posted but whose delivery has not yet started
+	 * @return the depth of the pending message queues summed over all sources
+	 */
+	public int getPendingMessageCount() {
+		return getDispatcher().getPendingMessageCount();
+	}
+	
+	
+	/**
+	 * Get the number of asynchronous messages whose delivery has started since the statistics were reset
+	 * @return the number of dispatched messages
+	 */
+	public long getDispatchedMessageCount() {
+		return getDispatcher().getDispatchedMessageCount();
+	}
+	
+	
+	/**
+	 * Get the mean latency between posting an asynchronous message and the start of its delivery
+	 * @return the mean dispatch latency in seconds
+	 */
+	public double getMeanDispatchLatency() {
+		return getDispatcher().getMeanDispatchLatency();
+	}
+	
+	
+	/**
+	 * Get the maximum latency between posting an asynchronous message and the start of its delivery
+	 * @return the maximum dispatch latency in seconds
+	 */
+	public double getMaxDispatchLatency() {
+		return getDispatcher().getMaxDispatchLatency();
+	}
+	
+	
+	/** Reset the dispatched message count and the dispatch latency statistics */
+	public void resetDispatchStatistics() {
+		getDispatcher().resetStatistics();
+	}
+	
+	
+	/**
+	 * Set the maximum number of undelivered asynchronous messages per source beyond which posting a message
+	 * waits for earlier messages to be delivered. The limit applies to sources registered after the call.
+	 * Use the FRESH synchronous type for sources whose stale messages may simply be dropped.
+	 * @param maxPending the maximum number of pending messages per source (must be positive)
+	 */
+	public void setMaxPendingMessagesPerSource( final int maxPending ) {
+		getDispatcher().setMaxPendingMessages( maxPending );
+	}
+	
+	
+	/**
+	 * Get the maximum number of undelivered asynchronous messages per source beyond which posting a message waits
+	 * @return the maximum number of pending messages per source
+	 */
+	public int getMaxPendingMessagesPerSource() {
+		return getDispatcher().getMaxPendingMessages();
+	}
     
     
     // target registration --------------------------------------------------------------
@@ -298,7 +379,7 @@ public class MessageCenter implements java.io.Serializable {
 			case SYNCHRONOUS:
 				return new SynchronousMessageHandler<T>( TARGET_DIRECTORY, source, protocol, _threadPoolSize );
 			case ASYNCHRONOUS:
-				return new AsynchronousMessageHandler<T>( TARGET_DIRECTORY, source, protocol, _threadPoolSize );
+				return new AsynchronousMessageHandler<T>( TARGET_DIRECTORY, source, protocol, getDispatcher() );
 			case FRESH:
 				return new FreshMessageHandler<T>( TARGET_DIRECTORY, source, protocol, _threadPoolSize );
 			default:
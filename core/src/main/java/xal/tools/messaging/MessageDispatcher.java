@@ -0,0 +1,203 @@
+//
+//  MessageDispatcher.java
+//  xal
+//
+//  Created on 10/18/26.
+//
+
+package xal.tools.messaging;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+
+/**
+ * Bounded pool of threads shared by the asynchronous message handlers of a message center.
+ * Each handler drains its own queue of pending messages on the pool so messages from a given source
+ * are delivered in the order posted while different sources are delivered concurrently. The dispatcher
+ * also gathers the statistics of the pending queue depth and the dispatch latency.
+ */
+class MessageDispatcher {
+	/** default maximum number of undelivered messages per source before the poster is made to wait */
+	static final int DEFAULT_MAX_PENDING_MESSAGES = 10000;
+
+	/** threads which deliver messages for any dispatcher */
+	static final private ThreadLocal<MessageDispatcher> DISPATCHER_THREAD_LOCAL = new ThreadLocal<MessageDispatcher>();
+
+	/** executor running the message delivery */
+	final private ThreadPoolExecutor EXECUTOR;
+
+	/** number of messages posted but not yet delivered */
+	final private AtomicInteger PENDING_COUNT;
+
+	/** number of messages whose delivery has started */
+	final private AtomicLong DISPATCHED_COUNT;
+
+	/** sum of the latencies (nanoseconds) between posting and the start of delivery */
+	final private AtomicLong TOTAL_LATENCY;
+
+	/** maximum latency (nanoseconds) between posting and the start of delivery */
+	final private AtomicLong MAX_LATENCY;
+
+	/** maximum number of undelivered messages per source */
+	private volatile int _maxPendingMessages;
+
+
+	/**
+	 * Constructor
+	 * @param name name of the message center used to label the threads
+	 * @param threadPoolSize maximum number of threads delivering messages concurrently
+	 */
+	public MessageDispatcher( final String name, final int threadPoolSize ) {
+		final int poolSize = Math.max( 1, threadPoolSize );
+		final AtomicInteger threadCounter = new AtomicInteger( 0 );
+		final ThreadFactory threadFactory = new ThreadFactory() {
+			public Thread newThread( final Runnable runnable ) {
+				final Thread thread = new Thread( () -> {
+					DISPATCHER_THREAD_LOCAL.set( MessageDispatcher.this );
+					runnable.run();
+				}, "MessageCenter-" + name + "-" + threadCounter.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			}
+		};
+
+		EXECUTOR = new ThreadPoolExecutor( poolSize, poolSize, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory );
+		EXECUTOR.allowCoreThreadTimeOut( true );		// idle message centers hold no threads
+
+		PENDING_COUNT = new AtomicInteger( 0 );
+		DISPATCHED_COUNT = new AtomicLong( 0 );
+		TOTAL_LATENCY = new AtomicLong( 0 );
+		MAX_LATENCY = new AtomicLong( 0 );
+
+		_maxPendingMessages = DEFAULT_MAX_PENDING_MESSAGES;
+	}
+
+
+	/**
+	 * Run the specified task on the pool
+	 * @param task task to run
+	 */
+	public void execute( final Runnable task ) {
+		EXECUTOR.execute( task );
+	}
+
+
+	/**
+	 * Determine whether the current thread is one of this dispatcher's delivery threads
+	 * @return true if the current thread delivers messages for this dispatcher
+	 */
+	public boolean isDispatchThread() {
+		return DISPATCHER_THREAD_LOCAL.get() == this;
+	}
+
+
+	/** Record that a message has been posted */
+	public void messagePosted() {
+		PENDING_COUNT.incrementAndGet();
+	}
+
+
+	/**
+	 * Record that the delivery of a message has started
+	 * @param postTime time (nanoseconds from System.nanoTime()) at which the message was posted
+	 */
+	public void messageDispatched( final long postTime ) {
+		final long latency = System.nanoTime() - postTime;
+
+		PENDING_COUNT.decrementAndGet();
+		DISPATCHED_COUNT.incrementAndGet();
+		TOTAL_LATENCY.addAndGet( latency );
+		MAX_LATENCY.accumulateAndGet( latency, Math::max );
+	}
+
+
+	/**
+	 * Get the number of messages posted and not yet delivered
+	 * @return the number of pending messages
+	 */
+	public int getPendingMessageCount() {
+		return PENDING_COUNT.get();
+	}
+
+
+	/**
+	 * Get the number of messages whose delivery has started since the statistics were reset
+	 * @return the number of dispatched messages
+	 */
+	public long getDispatchedMessageCount() {
+		return DISPATCHED_COUNT.get();
+	}
+
+
+	/**
+	 * Get the mean latency between posting a message and the start of its delivery
+	 * @return the mean latency in seconds or zero if no messages were dispatched
+	 */
+	public double getMeanDispatchLatency() {
+		final long count = DISPATCHED_COUNT.get();
+		return count > 0 ? 1.0e-9 * TOTAL_LATENCY.get() / count : 0.0;
+	}
+
+
+	/**
+	 * Get the maximum latency between posting a message and the start of its delivery
+	 * @return the maximum latency in seconds
+	 */
+	public double getMaxDispatchLatency() {
+		return 1.0e-9 * MAX_LATENCY.get();
+	}
+
+
+	/** Reset the dispatch count and latency statistics (the pending count is not affected) */
+	public void resetStatistics() {
+		DISPATCHED_COUNT.set( 0 );
+		TOTAL_LATENCY.set( 0 );
+		MAX_LATENCY.set( 0 );
+	}
+
+
+	/**
+	 * Set the maximum number of undelivered messages per source after which posting waits for delivery
+	 * @param maxPending the maximum number of pending messages per source (must be positive)
+	 */
+	public void setMaxPendingMessages( final int maxPending ) {
+		if ( maxPending < 1 )  throw new IllegalArgumentException( "The maximum number of pending messages must be positive: " + maxPending );
+		_maxPendingMessages = maxPending;
+	}
+
+
+	/**
+	 * Get the maximum number of undelivered messages per source after which posting waits for delivery
+	 * @return the maximum number of pending messages per source
+	 */
+	public int getMaxPendingMessages() {
+		return _maxPendingMessages;
+	}
+
+
+	/**
+	 * Get the maximum number of threads delivering messages concurrently
+	 * @return the thread pool size
+	 */
+	public int getThreadPoolSize() {
+		return EXECUTOR.getMaximumPoolSize();
+	}
+
+
+	/**
+	 * Change the maximum number of threads delivering messages concurrently
+	 * @param threadPoolSize the new thread pool size
+	 */
+	public void setThreadPoolSize( final int threadPoolSize ) {
+		final int poolSize = Math.max( 1, threadPoolSize );
+		if ( poolSize > EXECUTOR.getMaximumPoolSize() ) {
+			EXECUTOR.setMaximumPoolSize( poolSize );
+			EXECUTOR.setCorePoolSize( poolSize );
+		}
+		else {
+			EXECUTOR.setCorePoolSize( poolSize );
+			EXECUTOR.setMaximumPoolSize( poolSize );
+		}
+	}
+}
@@ -88,18 +88,24 @@ abstract class MessageHandler<ProtocolType> implements InvocationHandler, java.i
     abstract public Object invoke( final Object proxy, final Method method, final Object[] args );
         
     
-    /** get all targets associated with the source and protocol and just the protocol */
-    protected Set<ProtocolType> targets() {
-        final Set<ProtocolType> targetSet = new HashSet<ProtocolType>();
-        
-        // add targets directly associated with the protocol and the target
-        final Set<ProtocolType> directTargets = targetDirectory.targets( source, _protocol );
-        targetSet.addAll( directTargets );
+    /** 
+	 * get all targets associated with the source and protocol and just the protocol 
+	 * @return the targets which must not be modified (shared unless targets are registered both ways)
+	 */
+    protected Object[] targets() {
+        // targets directly associated with the protocol and the source
+        final Object[] directTargets = targetDirectory.targetArray( source, _protocol );
         
-        // add targets associated with the protocol but no target
-        final Set<ProtocolType> anonymousTargets = targetDirectory.targets( null, _protocol );
-        targetSet.addAll( anonymousTargets );
+        // targets associated with the protocol but no source
+        final Object[] anonymousTargets = source != null ? targetDirectory.targetArray( null, _protocol ) : directTargets;
+		
+		// usually one of them is empty so no merging is needed
+		if ( anonymousTargets.length == 0 || anonymousTargets == directTargets )  return directTargets;
+		if ( directTargets.length == 0 )  return anonymousTargets;
+		
+        final Set<Object> targetSet = new LinkedHashSet<Object>( Arrays.asList( directTargets ) );
+        targetSet.addAll( Arrays.asList( anonymousTargets ) );
 
-        return targetSet;
+        return targetSet.toArray();
     }
 }
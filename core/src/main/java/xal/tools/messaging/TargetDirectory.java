@@ -8,118 +8,146 @@ package xal.tools.messaging;
 
 
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * TargetDirectory is a utility class for convenient storage and retrieval of targets keyed by source and protocol.
+ * The targets of each source and protocol are held in an immutable array which is replaced (copy on write) whenever
+ * a target is registered or removed. Looking up the targets is therefore lock free and allocates nothing, while
+ * registration and removal are serialized on the directory.
  * @author  tap
  */
 class TargetDirectory implements java.io.Serializable {
     /** serialization ID */
     private static final long serialVersionUID = 1L;
+	
+	/** empty array of targets */
+	static final private Object[] NO_TARGETS = new Object[0];
+	
+	/** key standing in for the null source (anonymous targets) since concurrent maps reject null keys */
+	private enum AnonymousSource { KEY }
     
-    /** Map of target sets keyed by source which are keyed by protocol name */
-    final private Map<String,Map<Object,Set<Object>>> PROTOCOL_TABLE;
+    /** Map of target arrays keyed by source which are keyed by protocol name */
+    final private Map<String,Map<Object,Object[]>> PROTOCOL_TABLE;
     
 
     /** Creates new TargetDirectory */
     public TargetDirectory() {
-        PROTOCOL_TABLE = new Hashtable<String,Map<Object,Set<Object>>>();
+        PROTOCOL_TABLE = new ConcurrentHashMap<String,Map<Object,Object[]>>();
     }
 
     
     /** get an unmodifiable set of targets */
-    synchronized <T> Set<T> targets( final Object source, final Class<T> protocol ) {
-        final Set<T> targetSet = targetSet( source, protocol );
-        return Collections.unmodifiableSet( new HashSet<T>( targetSet ) );
-    }
-    
-    
-    /** get the set of targets keyed by source and protocol */
     @SuppressWarnings( "unchecked" )
-    synchronized private <T> Set<T> targetSet( final Object source, final Class<T> protocol ) {
-        Map<Object,Set<Object>> sourceTable;
-        final String protocolKey = protocolKey( protocol );
-        
-        if ( PROTOCOL_TABLE.containsKey( protocolKey ) ) {
-            sourceTable = PROTOCOL_TABLE.get( protocolKey );
-        }
-        else {
-            return emptySet( protocol );
-        }
-        
-        if ( sourceTable.containsKey( source ) ) {
-            return (Set<T>)sourceTable.get( source );
-        }
-        else {
-            return emptySet( protocol );
-        }
+    <T> Set<T> targets( final Object source, final Class<T> protocol ) {
+		final Set<T> targetSet = new HashSet<T>();
+		for ( final Object target : targetArray( source, protocol ) ) {
+			targetSet.add( (T)target );
+		}
+        return Collections.unmodifiableSet( targetSet );
     }
-    
 	
-    /** an emptySet */
-    private <T> Set<T> emptySet( final Class<T> protocol ) {
-        return new HashSet<T>();
-    }
+	
+	/** 
+	 * Get the current targets keyed by source and protocol. The returned array is shared and must not be modified. 
+	 * @param source the source of the messages (null for the anonymous targets)
+	 * @param protocol the protocol of the messages
+	 * @return the immutable array of targets (empty if there are none)
+	 */
+	Object[] targetArray( final Object source, final Class<?> protocol ) {
+		final Map<Object,Object[]> sourceTable = PROTOCOL_TABLE.get( protocolKey( protocol ) );
+		if ( sourceTable == null )  return NO_TARGETS;
+		
+		final Object[] targets = sourceTable.get( sourceKey( source ) );
+		return targets != null ? targets : NO_TARGETS;
+	}
     
     
     /** Register a target to listen to protocol messages from source */
     synchronized public <T> void registerTarget( final Object target, final Object source, final Class<T> protocol ) {
-        Map<Object,Set<Object>> sourceTable;
         final String protocolKey = protocolKey( protocol );
+        Map<Object,Object[]> sourceTable = PROTOCOL_TABLE.get( protocolKey );
         
-        if ( PROTOCOL_TABLE.containsKey( protocolKey ) ) {
-            sourceTable = PROTOCOL_TABLE.get( protocolKey );
-        }
-        else {
-            sourceTable = new HashMap<Object,Set<Object>>();
+        if ( sourceTable == null ) {
+            sourceTable = new ConcurrentHashMap<Object,Object[]>();
             PROTOCOL_TABLE.put( protocolKey, sourceTable );
         }
         
-        Set<Object> targetSet;
-        if ( sourceTable.containsKey( source ) ) {
-            targetSet = sourceTable.get( source );
-        }
-        else {
-            targetSet = new HashSet<Object>();
-            sourceTable.put( source, targetSet );
-        }
-        targetSet.add( target );
+		final Object sourceKey = sourceKey( source );
+		final Object[] targets = sourceTable.get( sourceKey );
+		
+		if ( targets == null ) {
+			sourceTable.put( sourceKey, new Object[] { target } );
+		}
+		else if ( indexOf( targets, target ) < 0 ) {
+			final Object[] newTargets = Arrays.copyOf( targets, targets.length + 1 );
+			newTargets[targets.length] = target;
+			sourceTable.put( sourceKey, newTargets );
+		}
     }
     
     
     /** remove the target as a listener of protocol messages from source */
     synchronized public <T> void removeTarget( final Object target, final Object source, final Class<T> protocol ) {
-        targetSet( source, protocol ).remove( target );
+		final Map<Object,Object[]> sourceTable = PROTOCOL_TABLE.get( protocolKey( protocol ) );
+		if ( sourceTable != null ) {
+			removeTargetFromSource( target, sourceTable, sourceKey( source ) );
+		}
     }
     
     
     /** remove the target as a listener of protocol messages */
     synchronized public <T> void removeTarget( final Object target, final Class<T> protocol ) {
-        targetSet( null, protocol ).remove( target );
+        removeTarget( target, null, protocol );
     }
     
     
 	/** Remove the target from all sources that message to the specified protocol */
 	synchronized public <T> void removeTargetFromAllSources( final Object target, final Class<T> protocol ) {
-        Map<Object,Set<Object>> sourceTable;
-        final String protocolKey = protocolKey( protocol );
-        
-        if ( PROTOCOL_TABLE.containsKey( protocolKey ) ) {
-            sourceTable = PROTOCOL_TABLE.get( protocolKey );
-        }
-        else {
-            return;
-        }
-        
-		// get the collection of target sets associated with every source in the table
-		final Collection<Set<Object>> targetSets = sourceTable.values();
+		final Map<Object,Object[]> sourceTable = PROTOCOL_TABLE.get( protocolKey( protocol ) );
+		if ( sourceTable == null )  return;
 		
-		// loop through the target sets and remove the target from each set
-        for ( final Set<Object> targetSet : targetSets ) {
-			targetSet.remove( target );
+		// loop through the sources and remove the target from each one's targets
+        for ( final Object sourceKey : new ArrayList<Object>( sourceTable.keySet() ) ) {
+			removeTargetFromSource( target, sourceTable, sourceKey );
         }
 	}
 	
+	
+	/** replace the source's targets with a copy lacking the specified target (removing the source when none remain) */
+	private void removeTargetFromSource( final Object target, final Map<Object,Object[]> sourceTable, final Object sourceKey ) {
+		final Object[] targets = sourceTable.get( sourceKey );
+		if ( targets == null )  return;
+		
+		final int index = indexOf( targets, target );
+		if ( index < 0 )  return;
+		
+		if ( targets.length == 1 ) {
+			sourceTable.remove( sourceKey );
+		}
+		else {
+			final Object[] newTargets = new Object[targets.length - 1];
+			System.arraycopy( targets, 0, newTargets, 0, index );
+			System.arraycopy( targets, index + 1, newTargets, index, newTargets.length - index );
+			sourceTable.put( sourceKey, newTargets );
+		}
+	}
+	
+	
+	/** get the index of the target in the array (using equality as a set would) or -1 if it is absent */
+	static private int indexOf( final Object[] targets, final Object target ) {
+		for ( int index = 0 ; index < targets.length ; index++ ) {
+			if ( targets[index].equals( target ) )  return index;
+		}
+		return -1;
+	}
+	
+	
+	/** get the key of the source in the source tables */
+	static private Object sourceKey( final Object source ) {
+		return source != null ? source : AnonymousSource.KEY;
+	}
+	
     
     private <T> String protocolKey( final Class<T> protocol ) {
         return protocol.getName();
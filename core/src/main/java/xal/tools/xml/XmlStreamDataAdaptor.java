@@ -0,0 +1,461 @@
+/*
+ * XmlStreamDataAdaptor.java
+ */
+
+package xal.tools.xml;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import xal.tools.data.*;
+import xal.tools.StringJoiner;
+
+
+/**
+ * XmlStreamDataAdaptor is a DataAdaptor for reading large XML documents (e.g. optics files) with a streaming (StAX) parser.
+ * Unlike XmlDataAdaptor, no DOM is built. Instead each element keeps only its tag name, its attributes and its child
+ * elements which takes a fraction of the memory of the DOM. Attribute values are interpreted exactly
+ * as XmlDataAdaptor interprets them, so a listener updates identically from either adaptor. DTD default attributes are
+ * applied, but the document cannot be validated, so use XmlDataAdaptor when validation is required.
+ */
+public class XmlStreamDataAdaptor implements DataAdaptor {
+	/** name of the document adaptor which matches the DOM document node name */
+	static final private String DOCUMENT_NAME = "#document";
+
+	/** pattern for extracting the system ID from a document type declaration */
+	static final private Pattern SYSTEM_ID_PATTERN = Pattern.compile( "(?:SYSTEM|PUBLIC\\s+(?:\"[^\"]*\"|'[^']*'))\\s+(?:\"([^\"]*)\"|'([^']*)')" );
+
+	/** empty array of attribute names or values */
+	static final private String[] NO_STRINGS = new String[0];
+
+	/** tag name of this element */
+	final private String NAME;
+
+	/** attribute names sorted for binary search and to list the attributes in the order DOM lists them */
+	private String[] _attributeNames;
+
+	/** attribute values corresponding to the attribute names */
+	private String[] _attributeValues;
+
+	/** child elements in document order */
+	final private List<XmlStreamDataAdaptor> CHILDREN;
+
+	/** system ID of the document type declaration or null if there is none (document adaptor only) */
+	private String _documentTypeSystemId;
+
+
+	/** Primary Constructor */
+	private XmlStreamDataAdaptor( final String name, final String[] attributeNames, final String[] attributeValues ) {
+		NAME = name;
+		_attributeNames = attributeNames;
+		_attributeValues = attributeValues;
+		CHILDREN = new ArrayList<XmlStreamDataAdaptor>();
+	}
+
+
+	/** Create an element adaptor with the specified tag name and no attributes */
+	private XmlStreamDataAdaptor( final String name ) {
+		this( name, NO_STRINGS, NO_STRINGS );
+	}
+
+
+	/**
+	 * Generate an adaptor for the document at the specified URL.
+	 * @param urlPath the URL of the XML document
+	 * @return the document adaptor
+	 * @throws XmlDataAdaptor.ParseException if the document cannot be parsed
+	 * @throws XmlDataAdaptor.ResourceNotFoundException if the document cannot be found
+	 */
+	static public XmlStreamDataAdaptor adaptorForUrl( final String urlPath ) throws XmlDataAdaptor.ParseException, XmlDataAdaptor.ResourceNotFoundException {
+		try ( final InputStream input = new BufferedInputStream( new URL( urlPath ).openStream() ) ) {
+			return parse( urlPath, input );
+		}
+		catch( FileNotFoundException exception ) {
+			throw new XmlDataAdaptor.ResourceNotFoundException( exception );
+		}
+		catch( Exception exception ) {
+			throw new XmlDataAdaptor.ParseException( exception );
+		}
+	}
+
+
+	/**
+	 * Generate an adaptor for the document at the specified URL.
+	 * @param url the URL of the XML document
+	 * @return the document adaptor
+	 */
+	static public XmlStreamDataAdaptor adaptorForUrl( final URL url ) throws XmlDataAdaptor.ParseException, XmlDataAdaptor.ResourceNotFoundException {
+		return adaptorForUrl( url.toString() );
+	}
+
+
+	/**
+	 * Generate an adaptor for the document in the specified XML string.
+	 * @param source the XML text
+	 * @return the document adaptor
+	 */
+	static public XmlStreamDataAdaptor adaptorForString( final String source ) throws XmlDataAdaptor.ParseException {
+		try {
+			return parse( null, new ByteArrayInputStream( source.getBytes() ) );
+		}
+		catch( Exception exception ) {
+			throw new XmlDataAdaptor.ParseException( exception );
+		}
+	}
+
+
+	/** Parse the document from the input stream whose system ID is used to resolve relative references such as the DTD */
+	static private XmlStreamDataAdaptor parse( final String systemId, final InputStream input ) throws XMLStreamException {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		// qualified names are reported as is just as the DOM parser reports them
+		factory.setProperty( XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE );
+		factory.setProperty( XMLInputFactory.IS_COALESCING, Boolean.FALSE );
+
+		final XMLStreamReader reader = factory.createXMLStreamReader( systemId, input );
+		try {
+			// names and many values (e.g. types and settings) repeat throughout the document so share a single instance of each
+			final Map<String,String> strings = new HashMap<String,String>();
+
+			final XmlStreamDataAdaptor document = new XmlStreamDataAdaptor( DOCUMENT_NAME );
+			final Deque<XmlStreamDataAdaptor> parents = new ArrayDeque<XmlStreamDataAdaptor>();
+			parents.push( document );
+
+			while ( reader.hasNext() ) {
+				switch ( reader.next() ) {
+					case XMLStreamConstants.START_ELEMENT:
+						final XmlStreamDataAdaptor element = readElement( reader, strings );
+						parents.peek().CHILDREN.add( element );
+						parents.push( element );
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						( (ArrayList<XmlStreamDataAdaptor>)parents.pop().CHILDREN ).trimToSize();
+						break;
+					case XMLStreamConstants.DTD:
+						document._documentTypeSystemId = parseSystemId( reader.getText() );
+						break;
+					default:
+						break;
+				}
+			}
+
+			return document;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+
+	/** Read the element at the reader's current start element event */
+	static private XmlStreamDataAdaptor readElement( final XMLStreamReader reader, final Map<String,String> strings ) {
+		final String name = sharedString( strings, qualifiedName( reader.getPrefix(), reader.getLocalName() ) );
+
+		final int count = reader.getAttributeCount();
+		if ( count == 0 )  return new XmlStreamDataAdaptor( name );
+
+		final String[] attributeNames = new String[count];
+		final String[] attributeValues = new String[count];
+		for ( int index = 0 ; index < count ; index++ ) {
+			// insertion sort since elements have few attributes
+			final String attributeName = sharedString( strings, qualifiedName( reader.getAttributePrefix( index ), reader.getAttributeLocalName( index ) ) );
+			int position = index;
+			while ( position > 0 && attributeNames[position-1].compareTo( attributeName ) > 0 ) {
+				attributeNames[position] = attributeNames[position-1];
+				attributeValues[position] = attributeValues[position-1];
+				--position;
+			}
+			attributeNames[position] = attributeName;
+			attributeValues[position] = sharedString( strings, reader.getAttributeValue( index ) );
+		}
+
+		return new XmlStreamDataAdaptor( name, attributeNames, attributeValues );
+	}
+
+
+	/** Get the qualified name from the prefix and local name */
+	static private String qualifiedName( final String prefix, final String localName ) {
+		return prefix != null && !prefix.isEmpty() ? prefix + ":" + localName : localName;
+	}
+
+
+	/** Get the shared instance of the string */
+	static private String sharedString( final Map<String,String> strings, final String string ) {
+		final String sharedString = strings.putIfAbsent( string, string );
+		return sharedString != null ? sharedString : string;
+	}
+
+
+	/** Parse the system ID from the document type declaration */
+	static private String parseSystemId( final String declaration ) {
+		final Matcher matcher = SYSTEM_ID_PATTERN.matcher( declaration );
+		if ( matcher.find() ) {
+			return matcher.group( 1 ) != null ? matcher.group( 1 ) : matcher.group( 2 );
+		}
+		else {
+			return null;
+		}
+	}
+
+
+	/**
+	 * Get the system ID of the document type declaration.
+	 * @return the system ID of the DTD or null if the document does not declare one
+	 */
+	public String getDocumentTypeSystemId() {
+		return _documentTypeSystemId;
+	}
+
+
+	/** get the tag name for this element */
+	public String name() {
+		return NAME;
+	}
+
+
+	/** get the index of the attribute among the sorted attribute names or a negative number if there is no such attribute */
+	private int indexOfAttribute( final String attribute ) {
+		return Arrays.binarySearch( _attributeNames, attribute );
+	}
+
+
+	/** check whether this element has the specified attribute */
+	public boolean hasAttribute( final String attribute ) {
+		return indexOfAttribute( attribute ) >= 0;
+	}
+
+
+	/**
+	 * Get the string value associated with the specified attribute.
+	 * @param attribute The node attribute.
+	 * @return the raw string value associated with the attribute or null if the attribute does not exist
+	 */
+	public String stringValue( final String attribute ) {
+		final int index = indexOfAttribute( attribute );
+		return index >= 0 ? _attributeValues[index] : null;
+	}
+
+
+	/** return the double value associated with the attribute */
+	public double doubleValue( final String attribute ) throws NumberFormatException {
+		final String strValue = stringValue( attribute );
+
+		if ( strValue.length() != 0 ) {
+			try {
+				return Double.parseDouble( strValue );
+			}
+			catch( NumberFormatException exception ) {
+				throw new NumberFormatException( "Error parsing as double attribute: " + attribute + ", from string: " + strValue + ", for XML node: " + name() );
+			}
+		}
+		else {
+			return Double.NaN;
+		}
+	}
+
+
+	/** return the long value associated with the attribute */
+	public long longValue( final String attribute ) throws NumberFormatException {
+		final String strValue = stringValue( attribute );
+
+		if ( strValue.length() != 0 ) {
+			try {
+				return Long.parseLong( strValue );
+			}
+			catch( NumberFormatException exception ) {
+				throw new NumberFormatException( "Error parsing as long attribute: " + attribute + ", from string: " + strValue + ", for XML node: " + name() );
+			}
+		}
+		else {
+			return 0;
+		}
+	}
+
+
+	/** return the integer value associated with the attribute */
+	public int intValue( final String attribute ) throws NumberFormatException {
+		final String strValue = stringValue( attribute );
+
+		if ( strValue.length() != 0 ) {
+			try {
+				return Integer.parseInt( strValue );
+			}
+			catch( NumberFormatException exception ) {
+				throw new NumberFormatException( "Error parsing as integer attribute: " + attribute + ", from string: " + strValue + ", for XML node: " + name() );
+			}
+		}
+		else {
+			return 0;
+		}
+	}
+
+
+	/** return the boolean value associated with the attribute */
+	public boolean booleanValue( final String attribute ) {
+		return Boolean.valueOf( stringValue( attribute ) ).booleanValue();
+	}
+
+
+	/**
+	 * Returns the value of an attribute as an array of doubles.
+	 * @param attribute   the attribute name
+	 * @return  Array of double values
+	 */
+	public double[] doubleArray( final String attribute ) throws NumberFormatException {
+		final String strValue = stringValue( attribute );
+		try {
+			final String[] tokens = strValue.split( "," );
+			final double[] array = new double[ tokens.length ];
+			int index = 0;
+			for ( final String token : tokens ) {
+				array[index++] = Double.parseDouble( token );
+			}
+			return array;
+		}
+		catch ( NumberFormatException exception ) {
+			throw new NumberFormatException( "Error parsing as double array attribute: " + attribute + ", from string: " + strValue + ", for XML node: " + name() );
+		}
+	}
+
+
+	/** set the string value to be associated with the attribute */
+	public void setValue( final String attribute, final String value ) {
+		final int index = indexOfAttribute( attribute );
+		if ( index >= 0 ) {
+			_attributeValues[index] = value;
+		}
+		else {
+			// insert the attribute keeping the attribute names sorted
+			final int position = -index - 1;
+			final int count = _attributeNames.length;
+			final String[] attributeNames = new String[count + 1];
+			final String[] attributeValues = new String[count + 1];
+			System.arraycopy( _attributeNames, 0, attributeNames, 0, position );
+			System.arraycopy( _attributeValues, 0, attributeValues, 0, position );
+			attributeNames[position] = attribute;
+			attributeValues[position] = value;
+			System.arraycopy( _attributeNames, position, attributeNames, position + 1, count - position );
+			System.arraycopy( _attributeValues, position, attributeValues, position + 1, count - position );
+			_attributeNames = attributeNames;
+			_attributeValues = attributeValues;
+		}
+	}
+
+
+	/** set the double value to be associated with the attribute */
+	public void setValue( final String attribute, final double value ) {
+		setValue( attribute, String.valueOf( value ) );
+	}
+
+
+	/** set the long value to be associated with the attribute */
+	public void setValue( final String attribute, final long value ) {
+		setValue( attribute, String.valueOf( value ) );
+	}
+
+
+	/** set the integer value to be associated with the attribute */
+	public void setValue( final String attribute, final int value ) {
+		setValue( attribute, String.valueOf( value ) );
+	}
+
+
+	/** set the boolean value to be associated with the attribute */
+	public void setValue( final String attribute, final boolean value ) {
+		setValue( attribute, String.valueOf( value ) );
+	}
+
+
+	/** set the value of the specified attribute to the specified value */
+	public void setValue( final String attribute, final Object value ) {
+		setValue( attribute, value.toString() );
+	}
+
+
+	/**
+	 * Stores the value of the given <code>double[]</code> object in the data adaptor backing store.
+	 * @param attribute   attribute name
+	 * @param array    attribute value
+	 */
+	public void setValue( final String attribute, final double[] array ) {
+		final StringJoiner joiner = new StringJoiner( ", " );
+		joiner.append( array );
+		setValue( attribute, joiner.toString() );
+	}
+
+
+	/** return an array of attribute names */
+	public String[] attributes() {
+		return _attributeNames.clone();
+	}
+
+
+	/**
+	 * Create a list of child adaptors (one adaptor for each child element).
+	 * @return a list of child adaptors
+	 */
+	public List<DataAdaptor> childAdaptors() {
+		return new ArrayList<DataAdaptor>( CHILDREN );
+	}
+
+
+	/**
+	 * Create a list of child adaptors (one adaptor for each child element whose tag name is equal to the specified label).
+	 * @param label the label for which to match the element's tag
+	 * @return a list of child adaptors
+	 */
+	public List<DataAdaptor> childAdaptors( final String label ) {
+		final List<DataAdaptor> childAdaptors = new ArrayList<DataAdaptor>();
+		for ( final XmlStreamDataAdaptor child : CHILDREN ) {
+			if ( child.NAME.equals( label ) ) {
+				childAdaptors.add( child );
+			}
+		}
+		return childAdaptors;
+	}
+
+
+	/**
+	 * Convenience method to get a single child adaptor when only one is expected
+	 * @param label the label which identifies the tag of the element to fetch
+	 * @return a data adaptor for the first child element with the tag or null if there is none
+	 */
+	public DataAdaptor childAdaptor( final String label ) {
+		for ( final XmlStreamDataAdaptor child : CHILDREN ) {
+			if ( child.NAME.equals( label ) ) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+
+	/** Create a new child element with the specified tag name */
+	public DataAdaptor createChild( final String label ) {
+		final XmlStreamDataAdaptor child = new XmlStreamDataAdaptor( label );
+		CHILDREN.add( child );
+		return child;
+	}
+
+
+	/** append a child element associated with the listener */
+	public void writeNode( final DataListener listener ) {
+		final DataAdaptor adaptor = createChild( listener.dataLabel() );
+		listener.write( adaptor );
+	}
+
+
+	/** append a child element for each listener in the collection */
+	public void writeNodes( final Collection<? extends DataListener> nodes ) {
+		for ( final DataListener node : nodes ) {
+			writeNode( node );
+		}
+	}
+}
@@ -262,6 +262,9 @@ public class Matcher implements Runnable, Stopper {
 
         solver.solve(problem);
 
+        // drop the scenarios created for concurrent evaluations
+        evaluator.dispose();
+
         if (outputBestRun != null) {
             evaluator.printSolution(outputBestRun, solver.getScoreBoard().getBestSolution().getTrialPoint());
             try {
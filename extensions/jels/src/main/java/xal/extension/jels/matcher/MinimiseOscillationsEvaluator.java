@@ -11,6 +11,7 @@ import xal.model.ModelException;
 import xal.model.probe.EnvelopeProbe;
 import xal.model.probe.traj.EnvelopeProbeState;
 import xal.model.probe.traj.Trajectory;
+import xal.sim.scenario.Scenario;
 import xal.smf.AcceleratorSeq;
 import xal.tools.beam.Twiss;
 
@@ -30,11 +31,14 @@ public class MinimiseOscillationsEvaluator extends OnlineModelEvaluator {
     public void evaluate(Trial trial) {
         EnvelopeProbe probe = matcher.getInitialBeamParameters().getProbe(trial.getTrialPoint());
 
-        scenario.setProbe(probe);
+        Scenario trialScenario = acquireScenario();
         try {
-            scenario.run();
+            trialScenario.setProbe(probe);
+            trialScenario.run();
         } catch (ModelException e) {
             LOGGER.log(Level.SEVERE, "Model exception.", e);
+        } finally {
+            releaseScenario(trialScenario);
         }
 
         Trajectory<EnvelopeProbeState> trajectory = probe.getTrajectory();
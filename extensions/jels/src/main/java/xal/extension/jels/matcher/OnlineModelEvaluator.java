@@ -7,11 +7,13 @@ import java.util.Formatter;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
-import xal.extension.solver.Evaluator;
 import xal.extension.solver.Objective;
+import xal.extension.solver.ThreadSafeEvaluator;
 import xal.extension.solver.TrialPoint;
 import xal.model.ModelException;
 import xal.model.probe.EnvelopeProbe;
@@ -21,21 +23,47 @@ import xal.sim.scenario.Scenario;
 import xal.sim.sync.SynchronizationException;
 import xal.tools.beam.Twiss;
 
-public abstract class OnlineModelEvaluator implements Evaluator {
+/**
+ * Evaluator running the online model for each trial. The solver may evaluate several trials
+ * concurrently, so each evaluation takes a scenario of the accelerator from a pool owned by
+ * the evaluator and returns it when done. The pool creates scenarios as needed, so it holds
+ * at most one scenario per concurrent evaluation, and drops them when the evaluator is disposed.
+ */
+public abstract class OnlineModelEvaluator implements ThreadSafeEvaluator {
 
     protected Matcher matcher;
 
     // Setup of initial parameters
+    /**
+     * The scenario created with the evaluator. It is the first scenario of the pool, so it may
+     * only be used directly while no trials are being evaluated.
+     */
     protected Scenario scenario;
+
+    /** scenarios which are not in use by an evaluation */
+    private final ConcurrentLinkedQueue<Scenario> idleScenarios = new ConcurrentLinkedQueue<>();
     protected List<Objective> objectives = new ArrayList<>();
 
-    protected List<EvaluationListener> evaluationListeners = new ArrayList<>();
+    protected List<EvaluationListener> evaluationListeners = new CopyOnWriteArrayList<>();
 
     private static final Logger LOGGER = Logger.getLogger(OnlineModelEvaluator.class.getName());
 
     public OnlineModelEvaluator(Matcher matcher) {
         this.matcher = matcher;
 
+        scenario = newScenario();
+        idleScenarios.add(scenario);
+    }
+
+    /**
+     * Creates a scenario of the accelerator synchronized to the design values. The
+     * scenarios are created one at a time since they are generated from the shared
+     * accelerator.
+     *
+     * @return the new scenario
+     */
+    private synchronized Scenario newScenario() {
+        Scenario scenario = null;
         try {
             scenario = Scenario.newScenarioFor(matcher.getAccelerator());
         } catch (ModelException e1) {
@@ -49,6 +77,36 @@ public abstract class OnlineModelEvaluator implements Evaluator {
         } catch (SynchronizationException e) {
             LOGGER.log(Level.SEVERE, "Synchronization Exception.", e);
         }
+        return scenario;
+    }
+
+    /**
+     * Takes an idle scenario from the pool, creating a new one if every scenario is in use. The
+     * scenario must be returned with <code>releaseScenario</code> once the evaluation is done.
+     *
+     * @return the scenario to run a trial with
+     */
+    protected Scenario acquireScenario() {
+        Scenario idleScenario = idleScenarios.poll();
+        return idleScenario != null ? idleScenario : newScenario();
+    }
+
+    /**
+     * Returns the scenario to the pool for another evaluation.
+     *
+     * @param usedScenario the scenario taken with <code>acquireScenario</code>
+     */
+    protected void releaseScenario(Scenario usedScenario) {
+        idleScenarios.add(usedScenario);
+    }
+
+    /**
+     * Drops the pooled scenarios other than the evaluator's own scenario. This must only be
+     * called once the solver has finished evaluating trials.
+     */
+    public void dispose() {
+        idleScenarios.clear();
+        idleScenarios.add(scenario);
     }
 
     public void printSolution(String file, TrialPoint trial) {
@@ -124,7 +182,13 @@ public abstract class OnlineModelEvaluator implements Evaluator {
         evaluationListeners.add(l);
     }
 
-    protected void fireEvaluationListeners(Trajectory<EnvelopeProbeState> t) {
+    /**
+     * Notifies the listeners of an evaluated trajectory. The listeners are notified one
+     * trajectory at a time even when the trials are evaluated concurrently.
+     *
+     * @param t the trajectory of the evaluated trial
+     */
+    protected synchronized void fireEvaluationListeners(Trajectory<EnvelopeProbeState> t) {
         for (EvaluationListener l : evaluationListeners) {
             l.onEvaluation(t);
         }
@@ -12,6 +12,7 @@ import xal.model.ModelException;
 import xal.model.probe.EnvelopeProbe;
 import xal.model.probe.traj.EnvelopeProbeState;
 import xal.model.probe.traj.Trajectory;
+import xal.sim.scenario.Scenario;
 import xal.tools.beam.Twiss;
 
 public class PhaseAdvEvaluator extends OnlineModelEvaluator {
@@ -105,11 +106,14 @@ public class PhaseAdvEvaluator extends OnlineModelEvaluator {
     public void evaluate(Trial trial) {
         EnvelopeProbe probe = matcher.getInitialBeamParameters().getProbe(trial.getTrialPoint());
 
-        scenario.setProbe(probe);
+        Scenario trialScenario = acquireScenario();
         try {
-            scenario.run();
+            trialScenario.setProbe(probe);
+            trialScenario.run();
         } catch (ModelException e) {
             LOGGER.log(Level.SEVERE, "Error evaluationg the phase advance.", e);
+        } finally {
+            releaseScenario(trialScenario);
         }
 
         Trajectory<EnvelopeProbeState> trajectory = probe.getTrajectory();
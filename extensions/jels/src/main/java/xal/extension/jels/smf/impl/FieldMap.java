@@ -17,14 +17,13 @@
  */
 package xal.extension.jels.smf.impl;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -41,6 +40,9 @@ import xal.extension.jels.model.elem.FieldMapPoint;
  * To avoid having several instances for the same field map, it is recommended
  * to use the FieldMapFactory method, that will select the right FieldMap
  * subclass and make sure the field map is loaded only once.
+ * <p>
+ * The field maps are loaded through the {@link FieldMapCache}, which parses
+ * each ASCII file once and then memory maps its binary copy.
  *
  * @author Juan F. Esteban Müller <JuanF.EstebanMuller@esss.se>
  */
@@ -178,39 +180,7 @@ public abstract class FieldMap {
      * @return
      */
     protected final FieldComponent loadFile1D(String path, String name) {
-        FieldComponent fieldComponent = new FieldComponent();
-
-        try {
-            BufferedReader br = new BufferedReader(new InputStreamReader(new URL(new URL(path), name).openStream()));
-
-            // first line
-            String line = br.readLine();
-            String[] data = line.split(" ");
-
-            int nPoints = Integer.parseInt(data[0]) + 1;
-            double[] field = new double[nPoints];
-            double length = Double.parseDouble(data[1]);
-            fieldComponent.setMax(new double[]{length});
-
-            // Read norm and not use it
-            line = br.readLine();
-            double norm = Double.parseDouble(line);
-            fieldComponent.setNorm(norm);
-
-            int i = 0;
-            while ((line = br.readLine()) != null && i < nPoints) {
-                field[i++] = Double.parseDouble(line);
-            }
-
-            br.close();
-
-            fieldComponent.setField(field);
-
-        } catch (IOException ex) {
-            LOGGER.log(Level.INFO, "Field map " + path + " not found.", ex);
-        }
-
-        return fieldComponent;
+        return loadFile(path, name, 1);
     }
 
     /**
@@ -221,50 +191,7 @@ public abstract class FieldMap {
      * @return
      */
     protected final FieldComponent loadFile2D(String path, String name) {
-        FieldComponent fieldComponent = new FieldComponent();
-
-        try {
-            BufferedReader br = new BufferedReader(new InputStreamReader(new URL(new URL(path), name).openStream()));
-
-            // first line
-            String line = br.readLine();
-            String[] data = line.split(" ");
-
-            int nPointsZ = Integer.parseInt(data[0]) + 1;
-            double lengthZ = Double.parseDouble(data[1]);
-
-            // second line
-            line = br.readLine();
-            data = line.split(" ");
-
-            int nPointsR = Integer.parseInt(data[0]) + 1;
-            double lengthR = Double.parseDouble(data[1]);
-
-            fieldComponent.setMax(new double[]{lengthZ, lengthR});
-
-            double[][] field = new double[nPointsZ][nPointsR];
-
-            line = br.readLine();
-            double norm = Double.parseDouble(line);
-            fieldComponent.setNorm(norm);
-
-            for (int i = 0; i < nPointsZ; i++) {
-                for (int j = 0; j < nPointsR; j++) {
-                    line = br.readLine();
-                    if (line != null) {
-                        field[i][j] = Double.parseDouble(line);
-                    }
-                }
-            }
-
-            br.close();
-
-            fieldComponent.setField(field);
-        } catch (IOException ex) {
-            LOGGER.log(Level.INFO, "Field map " + path + " not found.", ex);
-        }
-
-        return fieldComponent;
+        return loadFile(path, name, 2);
     }
 
     /**
@@ -275,62 +202,17 @@ public abstract class FieldMap {
      * @return
      */
     protected final FieldComponent loadFile3D(String path, String name) {
-        FieldComponent fieldComponent = new FieldComponent();
+        return loadFile(path, name, 3);
+    }
 
+    private FieldComponent loadFile(String path, String name, int dimensions) {
         try {
-            BufferedReader br = new BufferedReader(new InputStreamReader(new URL(new URL(path), name).openStream()));
-
-            // first line
-            String line = br.readLine();
-            String[] data = line.split(" ");
-
-            int nPointsZ = Integer.parseInt(data[0]) + 1;
-            double lengthZ = Double.parseDouble(data[1]);
-
-            // second line
-            line = br.readLine();
-            data = line.split(" ");
-
-            int nPointsX = Integer.parseInt(data[0]) + 1;
-            double minX = Double.parseDouble(data[1]);
-            double maxX = Double.parseDouble(data[2]);
-
-            // third line
-            line = br.readLine();
-            data = line.split(" ");
-
-            int nPointsY = Integer.parseInt(data[0]) + 1;
-            double minY = Double.parseDouble(data[1]);
-            double maxY = Double.parseDouble(data[2]);
-
-            fieldComponent.setMin(new double[]{0., minX, minY});
-            fieldComponent.setMax(new double[]{lengthZ, maxX, maxY});
-
-            double[][][] field = new double[nPointsZ][nPointsY][nPointsX];
-
-            line = br.readLine();
-            double norm = Double.parseDouble(line);
-            fieldComponent.setNorm(norm);
-
-            for (int i = 0; i < nPointsZ; i++) {
-                for (int j = 0; j < nPointsY; j++) {
-                    for (int k = 0; k < nPointsX; k++) {
-                        line = br.readLine();
-                        if (line != null) {
-                            field[i][j][k] = Double.parseDouble(line);
-                        }
-                    }
-                }
-            }
-
-            br.close();
-
-            fieldComponent.setField(field);
+            return FieldMapCache.load(new URL(new URL(path), name), dimensions);
         } catch (IOException ex) {
             LOGGER.log(Level.INFO, "Field map " + path + " not found.", ex);
         }
 
-        return fieldComponent;
+        return new FieldComponent();
     }
 
     /**
@@ -340,15 +222,15 @@ public abstract class FieldMap {
      * @throws IOException
      * @throws URISyntaxException
      */
-    protected final void saveFile1D(String path, String name, FieldComponent<double[]> fieldComponent) throws IOException, URISyntaxException {
+    protected final void saveFile1D(String path, String name, FieldComponent fieldComponent) throws IOException, URISyntaxException {
         File fieldMapfile = new File(new URL(new URL(path), name).toURI());
         fieldMapfile.getParentFile().mkdirs();
         PrintWriter pw = new PrintWriter(new FileWriter(fieldMapfile));
 
-        double[] field = fieldComponent.getField();
-        pw.printf("%d %f%n%f%n", field.length - 1, fieldComponent.getMax()[0], 1.0);
-        for (int i = 0; i < field.length; i++) {
-            pw.printf("%e%n", field[i]);
+        int nPoints = fieldComponent.getShape()[0];
+        pw.printf("%d %f%n%f%n", nPoints - 1, fieldComponent.getMax()[0], 1.0);
+        for (int i = 0; i < nPoints; i++) {
+            pw.printf("%e%n", fieldComponent.get(i));
         }
         pw.close();
     }
@@ -360,18 +242,18 @@ public abstract class FieldMap {
      * @throws IOException
      * @throws URISyntaxException
      */
-    protected final void saveFile2D(String path, String name, FieldComponent<double[][]> fieldComponent) throws IOException, URISyntaxException {
+    protected final void saveFile2D(String path, String name, FieldComponent fieldComponent) throws IOException, URISyntaxException {
         File fieldMapfile = new File(new URL(new URL(path), name).toURI());
         fieldMapfile.getParentFile().mkdirs();
         PrintWriter pw = new PrintWriter(new FileWriter(fieldMapfile));
 
         double zmax = fieldComponent.getMax()[0];
         double rmax = fieldComponent.getMax()[1];
-        double[][] field = fieldComponent.getField();
-        pw.printf("%d %f%n%d %f%n%f%n", field.length - 1, zmax, field[0].length - 1, rmax, fieldComponent.getNorm());
-        for (int i = 0; i < field.length; i++) {
-            for (int j = 0; j < field[0].length; j++) {
-                pw.printf("%e%n", field[i][j]);
+        int[] shape = fieldComponent.getShape();
+        pw.printf("%d %f%n%d %f%n%f%n", shape[0] - 1, zmax, shape[1] - 1, rmax, fieldComponent.getNorm());
+        for (int i = 0; i < shape[0]; i++) {
+            for (int j = 0; j < shape[1]; j++) {
+                pw.printf("%e%n", fieldComponent.get(i, j));
             }
         }
         pw.close();
@@ -384,7 +266,7 @@ public abstract class FieldMap {
      * @throws IOException
      * @throws URISyntaxException
      */
-    protected final void saveFile3D(String path, String name, FieldComponent<double[][][]> fieldComponent) throws IOException, URISyntaxException {
+    protected final void saveFile3D(String path, String name, FieldComponent fieldComponent) throws IOException, URISyntaxException {
         File fieldMapfile = new File(new URL(new URL(path), name).toURI());
         fieldMapfile.getParentFile().mkdirs();
         PrintWriter pw = new PrintWriter(new FileWriter(fieldMapfile));
@@ -394,22 +276,24 @@ public abstract class FieldMap {
         double xmax = fieldComponent.getMax()[1];
         double ymin = fieldComponent.getMin()[2];
         double ymax = fieldComponent.getMax()[2];
-        double[][][] field = fieldComponent.getField();
-        pw.printf("%d %f%n%d %f %f%n%d %f %f%n%f%n", field.length - 1, zmax, field[0].length - 1, ymin, ymax, field[0][0].length - 1, xmin, xmax, fieldComponent.getNorm());
-        for (int i = 0; i < field.length; i++) {
-            for (int j = 0; j < field[0].length; j++) {
-                for (int k = 0; k < field[0][0].length; k++) {
-                    pw.printf("%f%n", field[i][j][k]);
+        int[] shape = fieldComponent.getShape();
+        pw.printf("%d %f%n%d %f %f%n%d %f %f%n%f%n", shape[0] - 1, zmax, shape[1] - 1, ymin, ymax, shape[2] - 1, xmin, xmax, fieldComponent.getNorm());
+        for (int i = 0; i < shape[0]; i++) {
+            for (int j = 0; j < shape[1]; j++) {
+                for (int k = 0; k < shape[2]; k++) {
+                    pw.printf("%f%n", fieldComponent.get(i, j, k));
                 }
             }
-            pw.close();
         }
+        pw.close();
     }
 
     /**
-     * Class to store a component of the fieldComponent.
+     * Class to store a component of the fieldComponent. The field points are
+     * stored flat in the order of the field map file, with the longitudinal
+     * index varying slowest, in a buffer that may be memory mapped.
      */
-    protected static class FieldComponent<T> {
+    protected static class FieldComponent {
 
         // Minimum value for the position coordinate
         private double[] min = {0.};
@@ -417,8 +301,10 @@ public abstract class FieldMap {
         private double[] max = {0.};
         // Normalization factor.
         private double norm = 0.;
-        // Array containing the fieldComponent points. It can be a 1D, a 2D, or a 3D array.
-        private T field;
+        // Number of points along each dimension: (z), (z, r), or (z, y, x).
+        private int[] shape = {0};
+        // Buffer containing the fieldComponent points.
+        private DoubleBuffer field;
 
         public FieldComponent() {
         }
@@ -447,13 +333,37 @@ public abstract class FieldMap {
             this.norm = norm;
         }
 
-        public T getField() {
+        public int[] getShape() {
+            return shape;
+        }
+
+        /**
+         * Returns the buffer of field points. Only absolute get methods should
+         * be used on it, since the buffer is shared by all the users of the
+         * field map.
+         *
+         * @return the flat buffer of field points
+         */
+        public DoubleBuffer getField() {
             return field;
         }
 
-        public void setField(T field) {
+        public void setField(int[] shape, DoubleBuffer field) {
+            this.shape = shape;
             this.field = field;
         }
+
+        public double get(int i) {
+            return field.get(i);
+        }
+
+        public double get(int i, int j) {
+            return field.get(i * shape[1] + j);
+        }
+
+        public double get(int i, int j, int k) {
+            return field.get((i * shape[1] + j) * shape[2] + k);
+        }
     }
 
 }
@@ -0,0 +1,420 @@
+/*
+ * Copyright (C) 2026 European Spallation Source ERIC.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package xal.extension.jels.smf.impl;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import xal.extension.jels.smf.impl.FieldMap.FieldComponent;
+
+/**
+ * Binary field map format and the on-disk cache of the field maps.
+ * <p>
+ * A binary field map stores a TraceWin field map component as a fixed header
+ * followed by the field points as little endian doubles, in the order of the
+ * ASCII file. The header holds a magic number, the number of dimensions, the
+ * number of points, the minimum and maximum coordinates along each dimension
+ * and the normalization factor. Binary files are memory mapped when loaded, so
+ * the field points are kept off-heap and only the pages actually used by the
+ * model are read.
+ * <p>
+ * ASCII field maps are converted to the binary format once and stored in the
+ * cache directory under the SHA-256 hash of their content, so a modified field
+ * map is never served from a stale copy. The cache directory is given by the
+ * <code>xal.jels.fieldmap.cache</code> system property and defaults to
+ * <code>~/.xal/fieldmaps</code>; an empty value disables the cache. Field map
+ * files already in the binary format are loaded directly, and the
+ * {@link #main(String[])} method converts ASCII files to the binary format.
+ */
+public class FieldMapCache {
+
+    /**
+     * System property with the cache directory.
+     */
+    public static final String CACHE_DIRECTORY_PROPERTY = "xal.jels.fieldmap.cache";
+
+    // "XALFMAP" followed by the format version.
+    private static final long MAGIC = 0x58414c464d415001L;
+
+    // Magic, dimensions, 3 point counts, 3 minima, 3 maxima, and norm.
+    private static final int HEADER_SIZE = 8 + 4 + 3 * 4 + 3 * 8 + 3 * 8 + 8;
+
+    private static final Logger LOGGER = Logger.getLogger(FieldMapCache.class.getName());
+
+    private FieldMapCache() {
+    }
+
+    /**
+     * Loads a field map component either from a binary file or from an ASCII
+     * file through the cache.
+     *
+     * @param url location of the field map file
+     * @param dimensions number of dimensions of the field map (1, 2, or 3)
+     * @return the field component
+     * @throws IOException if the field map cannot be read
+     */
+    static FieldComponent load(URL url, int dimensions) throws IOException {
+        if (isBinary(url)) {
+            return readBinary(url);
+        }
+
+        Path cacheDirectory = getCacheDirectory();
+        if (cacheDirectory == null) {
+            return parse(url, dimensions);
+        }
+
+        Path cacheFile = cacheDirectory.resolve(hash(url, dimensions) + ".fmap");
+        if (Files.isReadable(cacheFile)) {
+            try {
+                return map(cacheFile);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Cached field map " + cacheFile + " is corrupt, parsing " + url + " again.", ex);
+            }
+        }
+
+        FieldComponent fieldComponent = parse(url, dimensions);
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path temporaryFile = Files.createTempFile(cacheDirectory, "fieldmap", ".tmp");
+            try {
+                write(fieldComponent, dimensions, temporaryFile);
+                try {
+                    Files.move(temporaryFile, cacheFile, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+            return map(cacheFile);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Unable to cache the field map " + url + " in " + cacheDirectory + ".", ex);
+        }
+
+        return fieldComponent;
+    }
+
+    /**
+     * Converts an ASCII field map to the binary format.
+     *
+     * @param source location of the ASCII field map
+     * @param dimensions number of dimensions of the field map (1, 2, or 3)
+     * @param destination binary file to write
+     * @throws IOException if the field map cannot be read or written
+     */
+    public static void convert(URL source, int dimensions, File destination) throws IOException {
+        write(parse(source, dimensions), dimensions, destination.toPath());
+    }
+
+    /**
+     * Converts ASCII field maps to the binary format.
+     * <p>
+     * Usage: <code>FieldMapCache dimensions source destination</code>
+     *
+     * @param args the number of dimensions, the ASCII file, and the binary file
+     * @throws IOException if the field map cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: FieldMapCache <dimensions> <ASCII field map> <binary field map>");
+            System.exit(1);
+        }
+        convert(new File(args[1]).toURI().toURL(), Integer.parseInt(args[0]), new File(args[2]));
+    }
+
+    /**
+     * Returns the cache directory or null if the cache is disabled.
+     */
+    private static Path getCacheDirectory() {
+        String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        if (directory == null) {
+            return Paths.get(System.getProperty("user.home"), ".xal", "fieldmaps");
+        }
+        return directory.isEmpty() ? null : Paths.get(directory);
+    }
+
+    /**
+     * Hashes the content of a field map file together with its dimensions.
+     */
+    private static String hash(URL url, int dimensions) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException("SHA-256 is not available.", ex);
+        }
+
+        digest.update((byte) dimensions);
+        try (InputStream in = url.openStream()) {
+            byte[] buffer = new byte[1 << 16];
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, count);
+            }
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Determines whether a field map file is in the binary format.
+     */
+    private static boolean isBinary(URL url) throws IOException {
+        try (InputStream in = url.openStream()) {
+            byte[] magic = new byte[8];
+            int count = 0;
+            int n;
+            while (count < magic.length && (n = in.read(magic, count, magic.length - count)) > 0) {
+                count += n;
+            }
+            return count == magic.length && ByteBuffer.wrap(magic).order(ByteOrder.LITTLE_ENDIAN).getLong() == MAGIC;
+        }
+    }
+
+    /**
+     * Parses an ASCII TraceWin field map.
+     */
+    private static FieldComponent parse(URL url, int dimensions) throws IOException {
+        FieldComponent fieldComponent = new FieldComponent();
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(url.openStream()))) {
+            int[] shape;
+
+            // first line
+            String[] data = br.readLine().trim().split("\\s+");
+            int nPointsZ = Integer.parseInt(data[0]) + 1;
+            double lengthZ = Double.parseDouble(data[1]);
+
+            switch (dimensions) {
+                case 1:
+                    shape = new int[]{nPointsZ};
+                    fieldComponent.setMax(new double[]{lengthZ});
+                    break;
+                case 2:
+                    data = br.readLine().trim().split("\\s+");
+                    int nPointsR = Integer.parseInt(data[0]) + 1;
+                    double lengthR = Double.parseDouble(data[1]);
+
+                    shape = new int[]{nPointsZ, nPointsR};
+                    fieldComponent.setMax(new double[]{lengthZ, lengthR});
+                    break;
+                case 3:
+                    data = br.readLine().trim().split("\\s+");
+                    int nPointsX = Integer.parseInt(data[0]) + 1;
+                    double minX = Double.parseDouble(data[1]);
+                    double maxX = Double.parseDouble(data[2]);
+
+                    data = br.readLine().trim().split("\\s+");
+                    int nPointsY = Integer.parseInt(data[0]) + 1;
+                    double minY = Double.parseDouble(data[1]);
+                    double maxY = Double.parseDouble(data[2]);
+
+                    shape = new int[]{nPointsZ, nPointsY, nPointsX};
+                    fieldComponent.setMin(new double[]{0., minX, minY});
+                    fieldComponent.setMax(new double[]{lengthZ, maxX, maxY});
+                    break;
+                default:
+                    throw new IllegalArgumentException("Field maps have 1, 2, or 3 dimensions, not " + dimensions + ".");
+            }
+
+            fieldComponent.setNorm(Double.parseDouble(br.readLine().trim()));
+
+            // Missing points at the end of the file are left as zero.
+            double[] field = new double[size(shape)];
+            String line;
+            for (int i = 0; i < field.length && (line = br.readLine()) != null; i++) {
+                field[i] = Double.parseDouble(line);
+            }
+
+            fieldComponent.setField(shape, DoubleBuffer.wrap(field));
+        }
+
+        return fieldComponent;
+    }
+
+    /**
+     * Writes a field component in the binary format.
+     */
+    private static void write(FieldComponent fieldComponent, int dimensions, Path file) throws IOException {
+        int[] shape = fieldComponent.getShape();
+        double[] min = fieldComponent.getMin();
+        double[] max = fieldComponent.getMax();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(dimensions);
+        for (int i = 0; i < 3; i++) {
+            header.putInt(i < shape.length ? shape[i] : 0);
+        }
+        for (int i = 0; i < 3; i++) {
+            header.putDouble(i < min.length ? min[i] : 0.);
+        }
+        for (int i = 0; i < 3; i++) {
+            header.putDouble(i < max.length ? max[i] : 0.);
+        }
+        header.putDouble(fieldComponent.getNorm());
+        header.flip();
+
+        DoubleBuffer field = fieldComponent.getField();
+        ByteBuffer data = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            for (int i = 0; i < field.limit(); i++) {
+                data.putDouble(field.get(i));
+                if (!data.hasRemaining() || i == field.limit() - 1) {
+                    data.flip();
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                    data.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads a binary field map, memory mapping it if it is a local file.
+     */
+    private static FieldComponent readBinary(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return map(Paths.get(url.toURI()));
+            } catch (URISyntaxException ex) {
+                throw new IOException("Invalid field map location " + url + ".", ex);
+            }
+        }
+
+        try (DataInputStream in = new DataInputStream(url.openStream())) {
+            byte[] header = new byte[HEADER_SIZE];
+            in.readFully(header);
+            FieldComponent fieldComponent = readHeader(ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN));
+
+            byte[] data = new byte[8 * size(fieldComponent.getShape())];
+            in.readFully(data);
+            fieldComponent.setField(fieldComponent.getShape(), ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer());
+            return fieldComponent;
+        }
+    }
+
+    /**
+     * Memory maps a binary field map file.
+     */
+    private static FieldComponent map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+            header.flip();
+            FieldComponent fieldComponent = readHeader(header);
+
+            long size = 8L * size(fieldComponent.getShape());
+            if (channel.size() < HEADER_SIZE + size) {
+                throw new IOException("Binary field map " + file + " is truncated.");
+            }
+
+            // The mapping remains valid after the channel is closed.
+            DoubleBuffer field = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            fieldComponent.setField(fieldComponent.getShape(), field);
+            return fieldComponent;
+        }
+    }
+
+    /**
+     * Reads the header of a binary field map into a field component without
+     * its field points.
+     */
+    private static FieldComponent readHeader(ByteBuffer header) throws IOException {
+        if (header.remaining() < HEADER_SIZE || header.getLong() != MAGIC) {
+            throw new IOException("Not a binary field map.");
+        }
+
+        int dimensions = header.getInt();
+        if (dimensions < 1 || dimensions > 3) {
+            throw new IOException("Invalid number of dimensions " + dimensions + " in binary field map.");
+        }
+
+        int[] shape = new int[dimensions];
+        for (int i = 0; i < 3; i++) {
+            int nPoints = header.getInt();
+            if (i < dimensions) {
+                shape[i] = nPoints;
+            }
+        }
+        double[] min = new double[dimensions];
+        for (int i = 0; i < 3; i++) {
+            double value = header.getDouble();
+            if (i < dimensions) {
+                min[i] = value;
+            }
+        }
+        double[] max = new double[dimensions];
+        for (int i = 0; i < 3; i++) {
+            double value = header.getDouble();
+            if (i < dimensions) {
+                max[i] = value;
+            }
+        }
+
+        FieldComponent fieldComponent = new FieldComponent();
+        fieldComponent.setMin(min);
+        fieldComponent.setMax(max);
+        fieldComponent.setNorm(header.getDouble());
+        fieldComponent.setField(shape, null);
+        return fieldComponent;
+    }
+
+    /**
+     * Returns the number of field points of the given shape.
+     */
+    private static int size(int[] shape) throws IOException {
+        long size = 1;
+        for (int nPoints : shape) {
+            size *= nPoints;
+        }
+        if (size < 0 || 8 * size > Integer.MAX_VALUE) {
+            throw new IOException("Field map of " + size + " points is too large.");
+        }
+        return (int) size;
+    }
+}
@@ -29,8 +29,8 @@ import xal.extension.jels.model.elem.FieldMapPoint;
 public class MagFieldMap2D extends FieldMap {
 
     public MagFieldMap2D(String path, String filename, int numberOfPoints) {
-        FieldComponent<double[][]> fieldComponentZ = loadFile2D(path, filename + ".bsz");
-        FieldComponent<double[][]> fieldComponentR = loadFile2D(path, filename + ".bsr");
+        FieldComponent fieldComponentZ = loadFile2D(path, filename + ".bsz");
+        FieldComponent fieldComponentR = loadFile2D(path, filename + ".bsr");
 
         fieldComponents.put("z", fieldComponentZ);
         fieldComponents.put("r", fieldComponentR);
@@ -38,7 +38,7 @@ public class MagFieldMap2D extends FieldMap {
         // Computing other values used for integration.
         length = fieldComponentZ.getMax()[0];
         if (numberOfPoints == 0) {
-            numberOfPoints = fieldComponentZ.getField().length;
+            numberOfPoints = fieldComponentZ.getShape()[0];
         }
         this.numberOfPoints = numberOfPoints;
 
@@ -47,8 +47,8 @@ public class MagFieldMap2D extends FieldMap {
 
     @Override
     public void saveFieldMap(String path, String filename) throws IOException, URISyntaxException {
-        FieldComponent<double[][]> fieldComponentZ = fieldComponents.get("z");
-        FieldComponent<double[][]> fieldComponentR = fieldComponents.get("r");
+        FieldComponent fieldComponentZ = fieldComponents.get("z");
+        FieldComponent fieldComponentR = fieldComponents.get("r");
 
         saveFile2D(path, filename + ".bsz", fieldComponentZ);
         saveFile2D(path, filename + ".bsr", fieldComponentR);
@@ -63,21 +63,18 @@ public class MagFieldMap2D extends FieldMap {
      */
     @Override
     public FieldMapPoint getFieldAt(double position) {
-        FieldComponent<double[][]> fieldComponentZ = fieldComponents.get("z");
-        FieldComponent<double[][]> fieldComponentR = fieldComponents.get("r");
+        FieldComponent fieldComponentZ = fieldComponents.get("z");
+        FieldComponent fieldComponentR = fieldComponents.get("r");
 
         if (position < -1e-6 || position > fieldComponentZ.getMax()[0] + 1e-6) {
             return null;
         }
 
-        double[][] fieldZ = fieldComponentZ.getField();
-        double[][] fieldR = fieldComponentR.getField();
-
         double normZ = fieldComponentZ.getNorm();
         double normR = fieldComponentR.getNorm();
 
-        int numberOfPointsZ = fieldZ.length;
-        int numberOfPointsR = fieldR[0].length;
+        int numberOfPointsZ = fieldComponentZ.getShape()[0];
+        int numberOfPointsR = fieldComponentR.getShape()[1];
 
         double lengthZ = fieldComponentZ.getMax()[0];
         double lengthR = fieldComponentR.getMax()[1];
@@ -96,12 +93,12 @@ public class MagFieldMap2D extends FieldMap {
 
         double interpolation_factor = position / spacingZ - positionIndex;
 
-        double Bz0 = fieldZ[positionIndex][0] + interpolation_factor
-                * (fieldZ[positionIndex + 1][0] - fieldZ[positionIndex][0]);
+        double Bz0 = fieldComponentZ.get(positionIndex, 0) + interpolation_factor
+                * (fieldComponentZ.get(positionIndex + 1, 0) - fieldComponentZ.get(positionIndex, 0));
 
         // First derivative - 1th order accuracy (forward)
-        double dBrdr = -(fieldR[positionIndex][0] + interpolation_factor * (fieldR[positionIndex + 1][0] - fieldR[positionIndex][0]))
-                + (fieldR[positionIndex][1] + interpolation_factor * (fieldR[positionIndex + 1][1] - fieldR[positionIndex][1]));
+        double dBrdr = -(fieldComponentR.get(positionIndex, 0) + interpolation_factor * (fieldComponentR.get(positionIndex + 1, 0) - fieldComponentR.get(positionIndex, 0)))
+                + (fieldComponentR.get(positionIndex, 1) + interpolation_factor * (fieldComponentR.get(positionIndex + 1, 1) - fieldComponentR.get(positionIndex, 1)));
 
         FieldMapPoint fieldMapPoint = new FieldMapPoint();
 
@@ -29,9 +29,9 @@ import xal.extension.jels.model.elem.FieldMapPoint;
 public class MagFieldMap3D extends FieldMap {
 
     public MagFieldMap3D(String path, String filename, int numberOfPoints) {
-        FieldComponent<double[][][]> fieldComponentX = loadFile3D(path, filename + ".bsx");
-        FieldComponent<double[][][]> fieldComponentY = loadFile3D(path, filename + ".bsy");
-        FieldComponent<double[][][]> fieldComponentZ = loadFile3D(path, filename + ".bsz");
+        FieldComponent fieldComponentX = loadFile3D(path, filename + ".bsx");
+        FieldComponent fieldComponentY = loadFile3D(path, filename + ".bsy");
+        FieldComponent fieldComponentZ = loadFile3D(path, filename + ".bsz");
 
         fieldComponents.put("x", fieldComponentX);
         fieldComponents.put("y", fieldComponentY);
@@ -40,7 +40,7 @@ public class MagFieldMap3D extends FieldMap {
         // Compute other values.
         length = fieldComponentZ.getMax()[0];
         if (numberOfPoints == 0) {
-            numberOfPoints = fieldComponentZ.getField().length;
+            numberOfPoints = fieldComponentZ.getShape()[0];
         }
         this.numberOfPoints = numberOfPoints;
 
@@ -49,9 +49,9 @@ public class MagFieldMap3D extends FieldMap {
 
     @Override
     public void saveFieldMap(String path, String filename) throws IOException, URISyntaxException {
-        FieldComponent<double[][][]> fieldComponentX = fieldComponents.get("x");
-        FieldComponent<double[][][]> fieldComponentY = fieldComponents.get("y");
-        FieldComponent<double[][][]> fieldComponentZ = fieldComponents.get("z");
+        FieldComponent fieldComponentX = fieldComponents.get("x");
+        FieldComponent fieldComponentY = fieldComponents.get("y");
+        FieldComponent fieldComponentZ = fieldComponents.get("z");
 
         saveFile3D(path, filename + ".bsx", fieldComponentX);
         saveFile3D(path, filename + ".bsy", fieldComponentY);
@@ -67,21 +67,17 @@ public class MagFieldMap3D extends FieldMap {
      */
     @Override
     public FieldMapPoint getFieldAt(double position) {
-        FieldComponent<double[][][]> fieldComponentX = fieldComponents.get("x");
-        FieldComponent<double[][][]> fieldComponentY = fieldComponents.get("y");
-        FieldComponent<double[][][]> fieldComponentZ = fieldComponents.get("z");
+        FieldComponent fieldComponentX = fieldComponents.get("x");
+        FieldComponent fieldComponentY = fieldComponents.get("y");
+        FieldComponent fieldComponentZ = fieldComponents.get("z");
 
         if (position < 0.0 || position > fieldComponentZ.getMax()[0]) {
             return null;
         }
 
-        double[][][] fieldX = fieldComponentX.getField();
-        double[][][] fieldY = fieldComponentY.getField();
-        double[][][] fieldZ = fieldComponentZ.getField();
-
-        int numberOfPointsZ = fieldZ.length;
-        int numberOfPointsY = fieldY[0].length;
-        int numberOfPointsX = fieldX[0][0].length;
+        int numberOfPointsZ = fieldComponentZ.getShape()[0];
+        int numberOfPointsY = fieldComponentY.getShape()[1];
+        int numberOfPointsX = fieldComponentX.getShape()[2];
 
         double normX = fieldComponentX.getNorm();
         double normY = fieldComponentY.getNorm();
@@ -112,34 +108,34 @@ public class MagFieldMap3D extends FieldMap {
         int midPointX = (int) (-minX / spacingX);
         int midPointY = (int) (-minY / spacingY);
 
-        double Bx0 = fieldX[positionIndex][midPointY][midPointX] + interpolation_factor
-                * (fieldX[positionIndex + 1][midPointY][midPointX] - fieldX[positionIndex][midPointY][midPointX]);
-        double By0 = fieldY[positionIndex][midPointY][midPointX] + interpolation_factor
-                * (fieldY[positionIndex + 1][midPointY][midPointX] - fieldY[positionIndex][midPointY][midPointX]);
-        double Bz0 = fieldZ[positionIndex][midPointY][midPointX] + interpolation_factor
-                * (fieldZ[positionIndex + 1][midPointY][midPointX] - fieldZ[positionIndex][midPointY][midPointX]);
-
-        double dBxdx = (fieldX[positionIndex][midPointY][midPointX + 1] - fieldX[positionIndex][midPointY][midPointX]) + interpolation_factor
-                * (fieldX[positionIndex + 1][midPointY][midPointX + 1] - fieldX[positionIndex + 1][midPointY][midPointX] - (fieldX[positionIndex][midPointY][midPointX + 1] - fieldX[positionIndex][midPointY][midPointX]));
-        double dBxdy = (fieldX[positionIndex][midPointY + 1][midPointX] - fieldX[positionIndex][midPointY][midPointX]) + interpolation_factor
-                * (fieldX[positionIndex + 1][midPointY + 1][midPointX] - fieldX[positionIndex + 1][midPointY][midPointX] - (fieldX[positionIndex][midPointY + 1][midPointX] - fieldX[positionIndex][midPointY][midPointX]));
-        double dBydx = (fieldY[positionIndex][midPointY][midPointX + 1] - fieldY[positionIndex][midPointY][midPointX]) + interpolation_factor
-                * (fieldY[positionIndex + 1][midPointY][midPointX + 1] - fieldY[positionIndex + 1][midPointY][midPointX] - (fieldY[positionIndex][midPointY][midPointX + 1] - fieldY[positionIndex][midPointY][midPointX]));
-        double dBydy = (fieldY[positionIndex][midPointY + 1][midPointX] - fieldY[positionIndex][midPointY][midPointX]) + interpolation_factor
-                * (fieldY[positionIndex + 1][midPointY + 1][midPointX] - fieldY[positionIndex + 1][midPointY][midPointX] - (fieldY[positionIndex][midPointY + 1][midPointX] - fieldY[positionIndex][midPointY][midPointX]));
+        double Bx0 = fieldComponentX.get(positionIndex, midPointY, midPointX) + interpolation_factor
+                * (fieldComponentX.get(positionIndex + 1, midPointY, midPointX) - fieldComponentX.get(positionIndex, midPointY, midPointX));
+        double By0 = fieldComponentY.get(positionIndex, midPointY, midPointX) + interpolation_factor
+                * (fieldComponentY.get(positionIndex + 1, midPointY, midPointX) - fieldComponentY.get(positionIndex, midPointY, midPointX));
+        double Bz0 = fieldComponentZ.get(positionIndex, midPointY, midPointX) + interpolation_factor
+                * (fieldComponentZ.get(positionIndex + 1, midPointY, midPointX) - fieldComponentZ.get(positionIndex, midPointY, midPointX));
+
+        double dBxdx = (fieldComponentX.get(positionIndex, midPointY, midPointX + 1) - fieldComponentX.get(positionIndex, midPointY, midPointX)) + interpolation_factor
+                * (fieldComponentX.get(positionIndex + 1, midPointY, midPointX + 1) - fieldComponentX.get(positionIndex + 1, midPointY, midPointX) - (fieldComponentX.get(positionIndex, midPointY, midPointX + 1) - fieldComponentX.get(positionIndex, midPointY, midPointX)));
+        double dBxdy = (fieldComponentX.get(positionIndex, midPointY + 1, midPointX) - fieldComponentX.get(positionIndex, midPointY, midPointX)) + interpolation_factor
+                * (fieldComponentX.get(positionIndex + 1, midPointY + 1, midPointX) - fieldComponentX.get(positionIndex + 1, midPointY, midPointX) - (fieldComponentX.get(positionIndex, midPointY + 1, midPointX) - fieldComponentX.get(positionIndex, midPointY, midPointX)));
+        double dBydx = (fieldComponentY.get(positionIndex, midPointY, midPointX + 1) - fieldComponentY.get(positionIndex, midPointY, midPointX)) + interpolation_factor
+                * (fieldComponentY.get(positionIndex + 1, midPointY, midPointX + 1) - fieldComponentY.get(positionIndex + 1, midPointY, midPointX) - (fieldComponentY.get(positionIndex, midPointY, midPointX + 1) - fieldComponentY.get(positionIndex, midPointY, midPointX)));
+        double dBydy = (fieldComponentY.get(positionIndex, midPointY + 1, midPointX) - fieldComponentY.get(positionIndex, midPointY, midPointX)) + interpolation_factor
+                * (fieldComponentY.get(positionIndex + 1, midPointY + 1, midPointX) - fieldComponentY.get(positionIndex + 1, midPointY, midPointX) - (fieldComponentY.get(positionIndex, midPointY + 1, midPointX) - fieldComponentY.get(positionIndex, midPointY, midPointX)));
 
         double dBxdz;
         double dBydz;
 
         if (positionIndex == 0) {
-            dBxdz = (fieldX[positionIndex + 1][midPointY][midPointX] - fieldX[positionIndex][midPointY][midPointX]);
-            dBydz = (fieldY[positionIndex + 1][midPointY][midPointX] - fieldY[positionIndex][midPointY][midPointX]);
-        } else if (positionIndex == fieldZ.length - 1) {
-            dBxdz = (fieldX[positionIndex][midPointY][midPointX] - fieldX[positionIndex - 1][midPointY][midPointX]);
-            dBydz = (fieldY[positionIndex][midPointY][midPointX] - fieldY[positionIndex - 1][midPointY][midPointX]);
+            dBxdz = (fieldComponentX.get(positionIndex + 1, midPointY, midPointX) - fieldComponentX.get(positionIndex, midPointY, midPointX));
+            dBydz = (fieldComponentY.get(positionIndex + 1, midPointY, midPointX) - fieldComponentY.get(positionIndex, midPointY, midPointX));
+        } else if (positionIndex == numberOfPointsZ - 1) {
+            dBxdz = (fieldComponentX.get(positionIndex, midPointY, midPointX) - fieldComponentX.get(positionIndex - 1, midPointY, midPointX));
+            dBydz = (fieldComponentY.get(positionIndex, midPointY, midPointX) - fieldComponentY.get(positionIndex - 1, midPointY, midPointX));
         } else {
-            dBxdz = (fieldX[positionIndex + 1][midPointY][midPointX] - fieldX[positionIndex][midPointY][midPointX]);
-            dBydz = (fieldY[positionIndex + 1][midPointY][midPointX] - fieldY[positionIndex][midPointY][midPointX]);
+            dBxdz = (fieldComponentX.get(positionIndex + 1, midPointY, midPointX) - fieldComponentX.get(positionIndex, midPointY, midPointX));
+            dBydz = (fieldComponentY.get(positionIndex + 1, midPointY, midPointX) - fieldComponentY.get(positionIndex, midPointY, midPointX));
         }
 
         // Denormalising
@@ -19,6 +19,7 @@ package xal.extension.jels.smf.impl;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.DoubleBuffer;
 import xal.extension.jels.model.elem.FieldMapPoint;
 
 /**
@@ -32,19 +33,20 @@ public class RfFieldMap1D extends FieldMap {
     private double fieldIntegral;
 
     public RfFieldMap1D(String path, String filename, int numberOfPoints) {
-        FieldComponent<double[]> fieldComponent = loadFile1D(path, filename + ".edz");
+        FieldComponent fieldComponent = loadFile1D(path, filename + ".edz");
 
-        // Normalizing the field map.
-        double[] field = fieldComponent.getField();
+        // Normalizing the field map into a copy, since the loaded field may be read only.
+        double[] field = new double[fieldComponent.getShape()[0]];
         fieldIntegral = 0;
         for (int i = 0; i < field.length; i++) {
+            field[i] = fieldComponent.get(i);
             fieldIntegral += Math.abs(field[i]);
         }
         fieldIntegral *= fieldComponent.getMax()[0] / field.length;
         for (int i = 0; i < field.length; i++) {
             field[i] /= fieldIntegral;
         }
-        fieldComponent.setField(field);
+        fieldComponent.setField(fieldComponent.getShape(), DoubleBuffer.wrap(field));
 
         fieldComponents.put("z", fieldComponent);
 
@@ -66,7 +68,7 @@ public class RfFieldMap1D extends FieldMap {
 
     @Override
     public void saveFieldMap(String path, String filename) throws IOException, URISyntaxException {
-        FieldComponent<double[]> fieldComponentZ = fieldComponents.get("z");
+        FieldComponent fieldComponentZ = fieldComponents.get("z");
 
         saveFile1D(path, filename + ".edz", fieldComponentZ);
     }
@@ -80,15 +82,15 @@ public class RfFieldMap1D extends FieldMap {
      */
     @Override
     public FieldMapPoint getFieldAt(double position) {
-        FieldComponent<double[]> fieldComponent = fieldComponents.get("z");
+        FieldComponent fieldComponent = fieldComponents.get("z");
 
         if (position < -1e-6 || position > fieldComponent.getMax()[0] + 1e-6) {
             return null;
         }
 
-        double[] field = fieldComponent.getField();
+        DoubleBuffer field = fieldComponent.getField();
 
-        int numberOfPointsZ = field.length;
+        int numberOfPointsZ = field.limit();
         double spacingZ = length / (numberOfPointsZ - 1);
 
         // Interpolating the field at the given positon.
@@ -100,16 +102,16 @@ public class RfFieldMap1D extends FieldMap {
             positionIndex = numberOfPointsZ - 2;
         }
 
-        double Ez0 = field[positionIndex] + (position - positionIndex * spacingZ)
-                * (field[positionIndex + 1] - field[positionIndex]) / spacingZ;
+        double Ez0 = field.get(positionIndex) + (position - positionIndex * spacingZ)
+                * (field.get(positionIndex + 1) - field.get(positionIndex)) / spacingZ;
         double dEzds;
         positionIndex = (int) Math.round(position / spacingZ);
         if (positionIndex == 0) {
-            dEzds = field[positionIndex + 1] / spacingZ;
-        } else if (positionIndex == field.length - 1) {
-            dEzds = field[positionIndex - 1] / spacingZ;
+            dEzds = field.get(positionIndex + 1) / spacingZ;
+        } else if (positionIndex == field.limit() - 1) {
+            dEzds = field.get(positionIndex - 1) / spacingZ;
         } else {
-            dEzds = (field[positionIndex + 1] - field[positionIndex - 1]) / (2.0 * spacingZ);
+            dEzds = (field.get(positionIndex + 1) - field.get(positionIndex - 1)) / (2.0 * spacingZ);
         }
 
         FieldMapPoint fieldMapPoint = new FieldMapPoint();
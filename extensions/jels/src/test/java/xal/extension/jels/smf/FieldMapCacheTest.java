@@ -0,0 +1,103 @@
+package xal.extension.jels.smf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import xal.extension.jels.JElsDemo;
+import xal.extension.jels.model.elem.FieldMapPoint;
+import xal.extension.jels.smf.impl.FieldMap;
+import xal.extension.jels.smf.impl.FieldMapCache;
+import xal.extension.jels.smf.impl.MagFieldMap2D;
+import xal.extension.jels.smf.impl.MagFieldMap3D;
+
+@RunWith(JUnit4.class)
+public class FieldMapCacheTest {
+
+    private static final String FIELD_MAP_3D = "LEBT_SOL_LBE_IFMIF_New_Cut";
+
+    private File cacheDirectory;
+    private String previousCacheDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDirectory = Files.createTempDirectory("fieldmaps").toFile();
+        previousCacheDirectory = System.setProperty(FieldMapCache.CACHE_DIRECTORY_PROPERTY, cacheDirectory.getPath());
+    }
+
+    @After
+    public void tearDown() {
+        if (previousCacheDirectory == null) {
+            System.clearProperty(FieldMapCache.CACHE_DIRECTORY_PROPERTY);
+        } else {
+            System.setProperty(FieldMapCache.CACHE_DIRECTORY_PROPERTY, previousCacheDirectory);
+        }
+        for (File file : cacheDirectory.listFiles()) {
+            file.delete();
+        }
+        cacheDirectory.delete();
+    }
+
+    @Test
+    public void testCachedFieldMap() {
+        String path = JElsDemo.class.getResource("Field_Maps/1D/").toString();
+
+        System.setProperty(FieldMapCache.CACHE_DIRECTORY_PROPERTY, "");
+        FieldMap parsed = new MagFieldMap2D(path, "LEBT_sol_fixed", 0);
+
+        System.setProperty(FieldMapCache.CACHE_DIRECTORY_PROPERTY, cacheDirectory.getPath());
+        FieldMap converted = new MagFieldMap2D(path, "LEBT_sol_fixed", 0);
+        assertEquals(2, cacheDirectory.listFiles().length);
+
+        FieldMap cached = new MagFieldMap2D(path, "LEBT_sol_fixed", 0);
+        assertEquals(2, cacheDirectory.listFiles().length);
+
+        assertSameField(parsed, converted);
+        assertSameField(parsed, cached);
+    }
+
+    @Test
+    public void testBinaryFieldMap() throws IOException {
+        String path = JElsDemo.class.getResource("Field_Maps/3D/").toString();
+        for (String extension : new String[]{".bsx", ".bsy", ".bsz"}) {
+            FieldMapCache.convert(new URL(new URL(path), FIELD_MAP_3D + extension), 3, new File(cacheDirectory, FIELD_MAP_3D + extension));
+        }
+
+        FieldMap binary = new MagFieldMap3D(cacheDirectory.toURI().toString(), FIELD_MAP_3D, 0);
+
+        System.setProperty(FieldMapCache.CACHE_DIRECTORY_PROPERTY, "");
+        FieldMap parsed = new MagFieldMap3D(path, FIELD_MAP_3D, 0);
+
+        assertEquals(3, cacheDirectory.listFiles().length);
+        assertSameField(parsed, binary);
+    }
+
+    private static void assertSameField(FieldMap expected, FieldMap actual) {
+        assertEquals(expected.getLength(), actual.getLength(), 0.);
+        assertEquals(expected.getNumberOfPoints(), actual.getNumberOfPoints());
+        assertTrue(expected.getNumberOfPoints() > 1);
+
+        for (int i = 0; i <= 100; i++) {
+            double position = expected.getLength() * i / 100;
+            FieldMapPoint expectedPoint = expected.getFieldAt(position);
+            FieldMapPoint actualPoint = actual.getFieldAt(position);
+
+            assertEquals(expectedPoint.getBx(), actualPoint.getBx(), 0.);
+            assertEquals(expectedPoint.getBy(), actualPoint.getBy(), 0.);
+            assertEquals(expectedPoint.getBz(), actualPoint.getBz(), 0.);
+            assertEquals(expectedPoint.getdBxdx(), actualPoint.getdBxdx(), 0.);
+            assertEquals(expectedPoint.getdBydy(), actualPoint.getdBydy(), 0.);
+            assertEquals(expectedPoint.getdBxdz(), actualPoint.getdBxdz(), 0.);
+        }
+    }
+}
@@ -16,6 +16,7 @@ import java.io.*;
 import java.net.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 import java.util.logging.*;
 import java.lang.reflect.*;
 import java.lang.reflect.Proxy;
@@ -23,6 +24,8 @@ import java.lang.reflect.Proxy;
 
 /**
  * ClientHandler handles messages sent to the proxy by forwarding them to the service associated with the proxy.
+ * If the remote service accepts pipelined requests, all calls share a single connection and may be in flight
+ * concurrently with the responses matched to the calls by request ID. Otherwise each concurrent call uses its own connection.
  * @author  tap
  */
 class ClientHandler<ProxyType> implements InvocationHandler {
@@ -44,8 +47,14 @@ class ClientHandler<ProxyType> implements InvocationHandler {
 	/** message processors which are available */
 	final private ConcurrentLinkedQueue<SerialRemoteMessageProcessor> MESSAGE_PROCESSORS;
 
+	/** indicates whether requests are pipelined over a single connection */
+	final private boolean PIPELINED;
+
+	/** processor of pipelined requests (null until needed) */
+	private PipelinedRemoteMessageProcessor _pipelinedProcessor;
+
     /** request ID counter is incremented to provide a unique ID for each request */
-    private volatile int _requestIDCounter;
+    final private AtomicLong REQUEST_ID_COUNTER;
 
     /** coder for encoding and decoding messages for remote transport */
     final private Coder MESSAGE_CODER;
@@ -60,23 +69,38 @@ class ClientHandler<ProxyType> implements InvocationHandler {
      * @param messageCoder coder for encoding and decoding messages for remote transport
 	 */
     public ClientHandler( final String host, final int port, final String name, final Class<ProxyType> newProtocol, final Coder messageCoder ) {
+        this( host, port, name, newProtocol, messageCoder, false );
+    }
+
+
+    /**
+	 * Creates a new ClientHandler to handle service requests.
+	 * @param host  The host where the service is running.
+	 * @param port  The port through which the service is provided.
+	 * @param name  The name of the service.
+	 * @param newProtocol  The interface the service provides.
+     * @param messageCoder coder for encoding and decoding messages for remote transport
+     * @param pipelined true to pipeline requests over a single connection which the remote service must support
+	 */
+    public ClientHandler( final String host, final int port, final String name, final Class<ProxyType> newProtocol, final Coder messageCoder, final boolean pipelined ) {
         REMOTE_HOST = host;
         REMOTE_PORT = port;
         SERVICE_NAME = name;
         SERVICE_PROTOCOL = newProtocol;
         MESSAGE_CODER = messageCoder;
+        PIPELINED = pipelined;
 
         PROXY = createProxy();
 
 		MESSAGE_PROCESSORS = new ConcurrentLinkedQueue<SerialRemoteMessageProcessor>();
 
-        _requestIDCounter = 0;
+        REQUEST_ID_COUNTER = new AtomicLong( 0 );
     }
 
 
     /** Get the next request ID and increment it */
-    private int getNextRequestID() {
-        return _requestIDCounter++;
+    private long getNextRequestID() {
+        return REQUEST_ID_COUNTER.getAndIncrement();
     }
 
 
@@ -150,6 +174,15 @@ class ClientHandler<ProxyType> implements InvocationHandler {
 		for ( final SerialRemoteMessageProcessor processor : processors ) {
 			processor.dispose();
 		}
+
+		final PipelinedRemoteMessageProcessor pipelinedProcessor;
+		synchronized( this ) {
+			pipelinedProcessor = _pipelinedProcessor;
+			_pipelinedProcessor = null;
+		}
+		if ( pipelinedProcessor != null ) {
+			pipelinedProcessor.dispose();
+		}
     }
 
 
@@ -177,6 +210,15 @@ class ClientHandler<ProxyType> implements InvocationHandler {
 	}
 
 
+	/** get the processor of pipelined requests opening a new connection if the current one has closed */
+	synchronized private PipelinedRemoteMessageProcessor getPipelinedProcessor() {
+		if ( _pipelinedProcessor == null || _pipelinedProcessor.isClosed() ) {
+			_pipelinedProcessor = new PipelinedRemoteMessageProcessor( REMOTE_HOST, REMOTE_PORT, MESSAGE_CODER );
+		}
+		return _pipelinedProcessor;
+	}
+
+
 	/** recycle a message processor which is no longer in use */
 	private void recycleRemoteMessageProcessor( final SerialRemoteMessageProcessor processor ) {
 		synchronized( MESSAGE_PROCESSORS ) {
@@ -224,9 +266,15 @@ class ClientHandler<ProxyType> implements InvocationHandler {
             final boolean waitForResponse = !method.isAnnotationPresent( OneWay.class );
 
             // submit the request and wait for the response if expected
-			final SerialRemoteMessageProcessor processor = nextRemoteMessageProcessor();	// get the next available processor from the stack
-            final PendingResult pendingResult = processor.submitRemoteRequest( jsonRequest, waitForResponse );
-			if ( !processor.isClosed() )  recycleRemoteMessageProcessor( processor );		// push the processor back onto the stack if it is still viable
+            final PendingResult pendingResult;
+            if ( PIPELINED ) {
+                pendingResult = getPipelinedProcessor().submitRemoteRequest( requestID, jsonRequest, waitForResponse );
+            }
+            else {
+				final SerialRemoteMessageProcessor processor = nextRemoteMessageProcessor();	// get the next available processor from the stack
+				pendingResult = processor.submitRemoteRequest( jsonRequest, waitForResponse );
+				if ( !processor.isClosed() )  recycleRemoteMessageProcessor( processor );		// push the processor back onto the stack if it is still viable
+            }
 
             if ( pendingResult != null ) {
                 final RuntimeException remoteException = pendingResult.getRemoteException();
@@ -322,6 +370,9 @@ class PendingResult {
     /** remote exception */
     private RuntimeException _remoteException;
 
+    /** indicates whether the result has arrived (used only for pipelined requests) */
+    private boolean _isComplete;
+
 
     /** set the result's value */
     public void setValue( final Object value ) {
@@ -345,6 +396,21 @@ class PendingResult {
     public RuntimeException getRemoteException() {
         return _remoteException;
     }
+
+
+    /** mark the result as complete and release the thread waiting for it */
+    synchronized public void complete() {
+        _isComplete = true;
+        notifyAll();
+    }
+
+
+    /** wait until the result is complete */
+    synchronized public void awaitCompletion() throws InterruptedException {
+        while ( !_isComplete ) {
+            wait();
+        }
+    }
 }
 
 
@@ -379,7 +445,7 @@ class SerialRemoteMessageProcessor {
 
 
     /** make a new remote socket */
-    static private Socket makeRemoteSocket( final String host, final int port ) {
+    static Socket makeRemoteSocket( final String host, final int port ) {
         try {
             final Socket remoteSocket = new Socket( host, port );
             remoteSocket.setKeepAlive( true );
@@ -514,3 +580,159 @@ class SerialRemoteMessageProcessor {
 		}
     }
 }
+
+
+
+
+/** Remote message processor that pipelines concurrent requests over the same socket and matches the responses to the requests by ID. */
+class PipelinedRemoteMessageProcessor {
+    /** socket for sending and receiving remote messages */
+    final private Socket REMOTE_SOCKET;
+
+    /** coder for encoding and decoding messages for remote transport */
+    final private Coder MESSAGE_CODER;
+
+    /** results awaiting their responses keyed by request ID */
+    final private Map<Long,PendingResult> PENDING_RESULTS;
+
+    /** indicates whether the connection has been lost */
+    private volatile boolean _isClosed;
+
+
+    /**
+	 * Creates a new processor and starts reading the responses.
+	 * @param host  The host where the service is running.
+	 * @param port  The port through which the service is provided.
+     * @param messageCoder coder for encoding and decoding messages for remote transport
+	 */
+    public PipelinedRemoteMessageProcessor( final String host, final int port, final Coder messageCoder ) {
+        MESSAGE_CODER = messageCoder;
+        PENDING_RESULTS = new ConcurrentHashMap<Long,PendingResult>();
+        _isClosed = false;
+
+        REMOTE_SOCKET = SerialRemoteMessageProcessor.makeRemoteSocket( host, port );
+
+		final StreamByteReader byteReader;
+		try {
+			WebSocketIO.performHandshake( REMOTE_SOCKET );
+			byteReader = WebSocketIO.makeByteReader( REMOTE_SOCKET );
+		}
+		catch ( Exception exception ) {
+			throw new RuntimeException( "Exception creating new remote socket.", exception );
+		}
+
+		final Thread responseThread = new Thread( new Runnable() {
+			public void run() {
+				processRemoteResponses( byteReader );
+			}
+		}, "Remote Responses " + host + ":" + port );
+		responseThread.setDaemon( true );
+		responseThread.start();
+    }
+
+
+	/** determine whether the connection is closed */
+	public boolean isClosed() {
+		return _isClosed || REMOTE_SOCKET.isClosed();
+	}
+
+
+    /** dispose of resources */
+    public void dispose() {
+        if ( !REMOTE_SOCKET.isClosed() ) {
+            try {
+                REMOTE_SOCKET.close();		// the response thread will fail the pending results
+            }
+            catch( Exception exception ) {
+                throw new RuntimeException( "Excepting closing remote client socket.", exception );
+            }
+        }
+    }
+
+
+    /** read the responses as they arrive and complete the corresponding pending results */
+    @SuppressWarnings( "unchecked" )    // no way to know response Object type at compile time
+    private void processRemoteResponses( final StreamByteReader byteReader ) {
+		try {
+			while ( !REMOTE_SOCKET.isClosed() ) {
+				final String jsonResponse = WebSocketIO.readMessage( byteReader );
+				final Object responseObject = MESSAGE_CODER.decode( jsonResponse );
+				if ( responseObject instanceof Map ) {
+					final Map<String,Object> response = (Map<String,Object>)responseObject;
+					final Number requestID = (Number)response.get( "id" );
+					final PendingResult pendingResult = requestID != null ? PENDING_RESULTS.remove( requestID.longValue() ) : null;
+					if ( pendingResult != null ) {
+						pendingResult.setValue( response.get( "result" ) );
+						pendingResult.setRemoteException( (RuntimeException)response.get( "error" ) );
+						pendingResult.complete();
+					}
+				}
+			}
+		}
+		catch( WebSocketIO.SocketPrematurelyClosedException | SocketException exception ) {
+			// the remote service has dropped or the connection was disposed
+		}
+		catch( Exception exception ) {
+			exception.printStackTrace();
+		}
+		finally {
+			closeConnection();
+		}
+    }
+
+
+	/** close the connection and fail every result still awaiting its response */
+	private void closeConnection() {
+		_isClosed = true;
+		if ( !REMOTE_SOCKET.isClosed() ) {
+			try {
+				REMOTE_SOCKET.close();
+			}
+			catch( Exception closeException ) {}
+		}
+
+		for ( final Long requestID : new ArrayList<Long>( PENDING_RESULTS.keySet() ) ) {
+			failPendingResult( requestID );
+		}
+	}
+
+
+	/** remove the pending result and complete it with the remote service dropped exception */
+	private void failPendingResult( final long requestID ) {
+		final PendingResult pendingResult = PENDING_RESULTS.remove( requestID );
+		if ( pendingResult != null ) {
+			pendingResult.setRemoteException( new RemoteServiceDroppedException( "The remote socket has closed while processing the remote response..." ) );
+			pendingResult.complete();
+		}
+	}
+
+
+    /** Submit the remote request and wait for its response if one is expected */
+    public PendingResult submitRemoteRequest( final long requestID, final String jsonRequest, final boolean hasResponse ) throws InterruptedException {
+		final PendingResult pendingResult = hasResponse ? new PendingResult() : null;
+		if ( hasResponse ) {
+			PENDING_RESULTS.put( requestID, pendingResult );
+		}
+
+		try {
+			WebSocketIO.sendMessage( REMOTE_SOCKET, jsonRequest );
+		}
+		catch( Exception exception ) {
+			closeConnection();
+		}
+
+		if ( hasResponse ) {
+			// the connection may have closed before the result was registered in which case nothing else will complete it
+			if ( _isClosed )  failPendingResult( requestID );
+
+			try {
+				pendingResult.awaitCompletion();
+			}
+			finally {
+				PENDING_RESULTS.remove( requestID );
+			}
+		}
+
+		return pendingResult;
+    }
+}
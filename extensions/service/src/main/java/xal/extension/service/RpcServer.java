@@ -16,11 +16,17 @@ import java.io.*;
 import java.lang.reflect.*;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 import java.util.logging.*;
 
 
 /**
  * RpcServer implements a server which handles remote requests against registered handlers.
+ * Each connection has a thread which reads its requests as they arrive and hands them to a shared pool of
+ * workers, so requests from the same connection are evaluated concurrently and each response (identified by
+ * its request ID) is sent as soon as it is ready. One way requests are evaluated on the connection's thread in
+ * the order they arrive since the client does not wait for them.
  * @author  tap
  */
 //public class RpcServer extends WebServer {
@@ -28,6 +34,9 @@ public class RpcServer {
     /** delimeter for encoding remote messages */
     final static private String REMOTE_MESSAGE_DELIMITER = "#";
     
+    /** default number of workers evaluating requests concurrently */
+    final static public int DEFAULT_WORKER_COUNT = 16;
+    
     /** socket which listens for and dispatches remote requests */
     final private ServerSocket SERVER_SOCKET;
     
@@ -40,14 +49,39 @@ public class RpcServer {
     /** coder for encoding and decoding messages for remote transport */
     final private Coder MESSAGE_CODER;
     
+    /** pool of workers which evaluate the requests */
+    final private ThreadPoolExecutor WORKER_POOL;
+    
     
     /** Constructor */
     public RpcServer( final Coder messageCoder ) throws java.io.IOException {
+        this( messageCoder, DEFAULT_WORKER_COUNT );
+    }
+    
+    
+    /** 
+     * Primary Constructor
+     * @param messageCoder coder for encoding and decoding messages for remote transport
+     * @param workerCount maximum number of requests evaluated concurrently
+     */
+    public RpcServer( final Coder messageCoder, final int workerCount ) throws java.io.IOException {
         MESSAGE_CODER = messageCoder;
         
         REMOTE_REQUEST_HANDLERS = new Hashtable<String,RemoteRequestHandler<?>>();
         SERVER_SOCKET = new ServerSocket( 0 );
         REMOTE_SOCKETS = new HashSet<Socket>();
+        
+        final int poolSize = Math.max( 1, workerCount );
+        final AtomicInteger threadCounter = new AtomicInteger( 0 );
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            public Thread newThread( final Runnable runnable ) {
+                final Thread thread = new Thread( runnable, "RpcServer-Worker-" + threadCounter.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            }
+        };
+        WORKER_POOL = new ThreadPoolExecutor( poolSize, poolSize, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory );
+        WORKER_POOL.allowCoreThreadTimeOut( true );		// an idle server holds no workers
 
 //		System.out.println( "Listening on: " + getHost() + ":" + getPort() );
     }
@@ -79,6 +113,32 @@ public class RpcServer {
     }
     
     
+    /**
+     * Get the maximum number of requests evaluated concurrently.
+     * @return the number of workers
+     */
+    public int getWorkerCount() {
+        return WORKER_POOL.getMaximumPoolSize();
+    }
+    
+    
+    /**
+     * Set the maximum number of requests evaluated concurrently.
+     * @param workerCount the new number of workers
+     */
+    public void setWorkerCount( final int workerCount ) {
+        final int poolSize = Math.max( 1, workerCount );
+        if ( poolSize > WORKER_POOL.getMaximumPoolSize() ) {
+            WORKER_POOL.setMaximumPoolSize( poolSize );
+            WORKER_POOL.setCorePoolSize( poolSize );
+        }
+        else {
+            WORKER_POOL.setCorePoolSize( poolSize );
+            WORKER_POOL.setMaximumPoolSize( poolSize );
+        }
+    }
+    
+    
     /** start the server, listen for remote requests and dispatch them to the appropriate handlers */
     public void start() {
         new Thread( new Runnable() {
@@ -108,6 +168,9 @@ public class RpcServer {
     public void shutdown() throws IOException {
 		// stop establishing new remote sockets
         SERVER_SOCKET.close();
+        
+        // let the workers finish the requests in progress, but their responses will not be delivered
+        WORKER_POOL.shutdown();
 
 		// close the existing remote sockets
 		final Set<Socket> sockets = new HashSet<Socket>();
@@ -166,12 +229,22 @@ public class RpcServer {
 					}
 				}
 
+				// the same reader must be used for every message since pipelined requests may arrive together
+				StreamByteReader byteReader = null;
+				try {
+					byteReader = WebSocketIO.makeByteReader( remoteSocket );
+				}
+				catch( Exception exception ) {
+					closeRemoteSocket( remoteSocket );
+					return;
+				}
+
 				// process the messages as they arrive
                 while( !remoteSocket.isClosed() ) {
                     try {
 						String jsonRequest = null;
 						try {
-							jsonRequest = WebSocketIO.readMessage( remoteSocket );
+							jsonRequest = WebSocketIO.readMessage( byteReader );
 						}
 						catch( Exception exception ) {
 							throw new RemoteClientDroppedException( "Session has been closed during read..." );
@@ -188,33 +261,22 @@ public class RpcServer {
 							final Object[] params = (Object[])request.get( "params" );
 
                             final RemoteRequestHandler<?> handler = REMOTE_REQUEST_HANDLERS.get( serviceName );
-                            final EvaluationResult result = handler.evaluateRequest( methodName, params );
                             
                             // methods marked with the OneWay annotation return immediately and do not provide any response
-                            final boolean provideResponse = !result.isOneWay();
-                            
-                            if ( provideResponse ) {
-                                final Map<String,Object> response = new HashMap<String,Object>();
-                                response.put( "result", result.getValue() );
-                                response.put( "id", requestID );                                
-                                response.put( "error", result.getRuntimeExceptionWrapper() );
-                                
-                                final String jsonResponse = MESSAGE_CODER.encode( response );
-								WebSocketIO.sendMessage( remoteSocket, jsonResponse );
+                            if ( handler.isOneWay( methodName, params ) ) {
+                                handler.evaluateRequest( methodName, params );
+                            }
+                            else {
+                                WORKER_POOL.execute( new Runnable() {
+                                    public void run() {
+                                        processRequest( remoteSocket, handler, requestID, methodName, params );
+                                    }
+                                });
                             }
                         }
                     }
                     catch ( Exception exception ) {
-						if ( !remoteSocket.isClosed() ) {
-							try {
-								remoteSocket.close();
-							}
-							catch( Exception closeException ) {
-								closeException.printStackTrace();
-							}
-						}
-
-						cleanupClosedRemoteSocket( remoteSocket );
+						closeRemoteSocket( remoteSocket );
 						return;
                     }
                 }
@@ -223,6 +285,40 @@ public class RpcServer {
     }
     
     
+    /** evaluate the request and send the response to the remote socket */
+    private void processRequest( final Socket remoteSocket, final RemoteRequestHandler<?> handler, final Number requestID, final String methodName, final Object[] params ) {
+        try {
+            final EvaluationResult result = handler.evaluateRequest( methodName, params );
+            
+            final Map<String,Object> response = new HashMap<String,Object>();
+            response.put( "result", result.getValue() );
+            response.put( "id", requestID );
+            response.put( "error", result.getRuntimeExceptionWrapper() );
+            
+            final String jsonResponse = MESSAGE_CODER.encode( response );
+            WebSocketIO.sendMessage( remoteSocket, jsonResponse );
+        }
+        catch ( Exception exception ) {
+            closeRemoteSocket( remoteSocket );
+        }
+    }
+    
+    
+    /** close the remote socket if necessary and clean up after it */
+    private void closeRemoteSocket( final Socket remoteSocket ) {
+		if ( !remoteSocket.isClosed() ) {
+			try {
+				remoteSocket.close();
+			}
+			catch( Exception closeException ) {
+				closeException.printStackTrace();
+			}
+		}
+
+		cleanupClosedRemoteSocket( remoteSocket );
+    }
+    
+    
     /** encode the service name and method name into the remote message */
     static String encodeRemoteMessage( final String serviceName, final String methodName ) {
         return serviceName + REMOTE_MESSAGE_DELIMITER + methodName;
@@ -287,15 +383,15 @@ class RemoteRequestHandler<ProtocolType> {
     }
     
     
+    /** Determine whether the requested method is one way (no response to the remote caller) */
+    public boolean isOneWay( final String methodName, final Object[] methodParams ) {
+        return getMethod( methodName, getParameterTypes( methodParams ) ).isAnnotationPresent( OneWay.class );
+    }
+    
+    
     /** Evaluate the request */
     public EvaluationResult evaluateRequest( final String methodName, final Object[] methodParams ) {
-        final Class<?>[] methodParamTypes = new Class<?>[ methodParams.length ];
-        for ( int index = 0 ; index < methodParams.length ; index++ ) {
-            final Object param = methodParams[index];
-            methodParamTypes[index] = param != null ? param.getClass() : null;
-        }
-                
-        final Method method = getMethod( methodName, methodParamTypes );        
+        final Method method = getMethod( methodName, getParameterTypes( methodParams ) );
         final boolean isOneWay = method.isAnnotationPresent( OneWay.class );
         
         try {
@@ -309,6 +405,17 @@ class RemoteRequestHandler<ProtocolType> {
     }
     
     
+    /** Get the types of the specified parameters */
+    static private Class<?>[] getParameterTypes( final Object[] methodParams ) {
+        final Class<?>[] methodParamTypes = new Class<?>[ methodParams.length ];
+        for ( int index = 0 ; index < methodParams.length ; index++ ) {
+            final Object param = methodParams[index];
+            methodParamTypes[index] = param != null ? param.getClass() : null;
+        }
+        return methodParamTypes;
+    }
+    
+    
     /** Get the method either from the cache or find and cache it if necessary */
     private Method getMethod( final String methodName, final Class<?>[] parameterTypes ) {
         final String methodSignature = getMethodSignature( methodName, parameterTypes );
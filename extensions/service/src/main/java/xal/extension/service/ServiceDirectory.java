@@ -47,6 +47,9 @@ final public class ServiceDirectory {
 	/** XML-RPC server used for registering services */
     private RpcServer _rpcServer;
 	
+	/** maximum number of service requests evaluated concurrently by the RPC server */
+	private int _serviceWorkerCount;
+	
 	/** JmDNS instance */
 	private JmDNS _bonjour;
 	
@@ -67,6 +70,7 @@ final public class ServiceDirectory {
 	public ServiceDirectory() throws ServiceException {
 		THREAD_POOL = Executors.newCachedThreadPool();
         MESSAGE_CODER = JSONCoder.getInstance();
+		_serviceWorkerCount = RpcServer.DEFAULT_WORKER_COUNT;
 		
 		_listenerMap = new Hashtable<ServiceListener, BonjourServiceListenerInfo>();
 		
@@ -151,6 +155,27 @@ final public class ServiceDirectory {
 	}
     
     
+	/**
+	 * Get the maximum number of requests to the local services which are evaluated concurrently.
+	 * @return the number of service workers
+	 */
+	public int getServiceWorkerCount() {
+		return _serviceWorkerCount;
+	}
+	
+	
+	/**
+	 * Set the maximum number of requests to the local services which are evaluated concurrently.
+	 * @param workerCount the number of service workers
+	 */
+	public void setServiceWorkerCount( final int workerCount ) {
+		_serviceWorkerCount = workerCount;
+		if ( _rpcServer != null ) {
+			_rpcServer.setWorkerCount( workerCount );
+		}
+	}
+    
+    
     /** Get a list of standard data types which are supported for coding and decoding */
     public List<String> getStandardCodingTypes() {
         return JSONCoder.getStandardTypes();
@@ -195,12 +220,13 @@ final public class ServiceDirectory {
      */
     public <ProtocolType> ServiceRef registerService( final Class<ProtocolType> protocol, final String serviceName, final ProtocolType provider, final Map<String,Object> properties ) {
 		properties.put( ServiceRef.SERVICE_KEY, serviceName );
+		properties.put( ServiceRef.PIPELINING_KEY, "true" );
         
         final String serviceType = getDefaultType( protocol );
 		
 		try {
             if ( _rpcServer == null ) {
-                _rpcServer = new RpcServer( MESSAGE_CODER );
+                _rpcServer = new RpcServer( MESSAGE_CODER, _serviceWorkerCount );
                 _rpcServer.start();
             }
               
@@ -247,7 +273,7 @@ final public class ServiceDirectory {
 	public <T> T getProxy( final Class<T> protocol, final ServiceRef serviceRef ) {
         final ServiceInfo info = serviceRef.getServiceInfo();
         final String hostAddress = serviceRef.getHostAddress();		
-		return new ClientHandler<T>( hostAddress, info.getPort(), serviceRef.getServiceName(), protocol, MESSAGE_CODER ).getProxy();
+		return new ClientHandler<T>( hostAddress, info.getPort(), serviceRef.getServiceName(), protocol, MESSAGE_CODER, serviceRef.supportsPipelining() ).getProxy();
 	}
 	
 	
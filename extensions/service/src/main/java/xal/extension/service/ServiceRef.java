@@ -30,6 +30,9 @@ public class ServiceRef {
 	/** Property identifying the local service handler */
 	static final String SERVICE_KEY = "remote_service_handler";
 	
+	/** Property indicating that the service accepts pipelined requests */
+	static final String PIPELINING_KEY = "pipelining";
+	
 	/** Redezvous service info */
 	private ServiceInfo _serviceInfo;
 		
@@ -56,6 +59,15 @@ public class ServiceRef {
 	}
 	
 	
+	/**
+	 * Determine whether the service accepts pipelined requests (services registered by older releases do not).
+	 * @return true if several requests may be in flight on the same connection and false if not
+	 */
+	boolean supportsPipelining() {
+		return "true".equals( _serviceInfo.getPropertyString( PIPELINING_KEY ) );
+	}
+	
+	
 	/**
 	 * Get the unique raw name of the service provider.
 	 * @return The raw name of the service provider.
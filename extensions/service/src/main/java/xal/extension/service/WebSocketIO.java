@@ -144,17 +144,27 @@ class WebSocketIO {
 	}
 
 
-	/** send the message */
+	/** send the message (messages sent concurrently on the same socket are written one at a time) */
 	static void sendMessage( final Socket socket, final String message ) throws java.net.SocketException, java.io.IOException {
 		//System.out.println( "Sending message of length: " + message.length() );
 
-		final OutputStream output = socket.getOutputStream();
+		// the frame length must be the encoded byte count rather than the character count so pipelined frames stay aligned
+		final byte[] messageBytes = message.getBytes( Charset.forName( "UTF-8" ) );
+
+		synchronized( socket ) {
+			sendFrame( socket.getOutputStream(), messageBytes );
+		}
+	}
+
+
+	/** send the message bytes as a single text frame */
+	static private void sendFrame( final OutputStream output, final byte[] messageBytes ) throws java.io.IOException {
 
 		final byte opcode = 1;		// response is text
 		final int byte1 = opcode | 0b10000000;
 		output.write( byte1 );
 
-		final int messageLength = message.length();
+		final int messageLength = messageBytes.length;
 
 		if ( messageLength < 126 ) {
 			output.write( messageLength );
@@ -195,7 +205,6 @@ class WebSocketIO {
 		}
 
 		// write the raw message
-		final byte[] messageBytes = message.getBytes( Charset.forName( "UTF-8" ) );
 		output.write( messageBytes, 0, messageBytes.length );
 		output.flush();
 	}
@@ -203,11 +212,19 @@ class WebSocketIO {
 
 	/** Read the message from the socket and return it */
 	static String readMessage( final Socket socket ) throws java.net.SocketException, java.io.IOException, WebSocketIO.SocketPrematurelyClosedException {
-		//System.out.println( "Reading message..." );
+		return readMessage( makeByteReader( socket ) );
+	}
 
-		final int BUFFER_SIZE = socket.getReceiveBufferSize();
-		final InputStream readStream = socket.getInputStream();
-		final StreamByteReader byteReader = new StreamByteReader( readStream, BUFFER_SIZE );
+
+	/** Make a reader of the socket's input which may be reused for reading successive messages without losing bytes which arrive ahead of their message */
+	static StreamByteReader makeByteReader( final Socket socket ) throws java.net.SocketException, java.io.IOException {
+		return new StreamByteReader( socket.getInputStream(), socket.getReceiveBufferSize() );
+	}
+
+
+	/** Read the next message from the byte reader and return it */
+	static String readMessage( final StreamByteReader byteReader ) throws java.io.IOException, WebSocketIO.SocketPrematurelyClosedException {
+		//System.out.println( "Reading message..." );
 
 		try {
 			final byte head1 = byteReader.nextByte();
@@ -0,0 +1,189 @@
+/*
+ * TestPipelinedRpc.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.extension.service;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xal.tools.coding.json.JSONCoder;
+
+
+/**
+ * Test requests pipelined over a single connection to the RPC server whose responses complete out of order
+ * and must be matched to their calls by request ID.
+ */
+public class TestPipelinedRpc {
+	/** name of the test service */
+	final static private String SERVICE_NAME = "EchoService";
+
+	/** text whose characters encode to two, three and four bytes */
+	final static private String MULTI_BYTE_TEXT = "éß€—漢😀";
+
+	/** time to wait for the calls before failing */
+	final static private long TIMEOUT_SECONDS = 30;
+
+
+	/** protocol of the test service */
+	public interface EchoService {
+		/**
+		 * Echo the message after a delay encoded at its start
+		 * @param message delay in milliseconds followed by a colon and the text
+		 * @return the message
+		 */
+		public String echo( String message );
+	}
+
+
+	/** server under test */
+	private RpcServer _server;
+
+	/** messages in the order the service completed them */
+	private List<String> _completions;
+
+	/** client handler under test */
+	private ClientHandler<EchoService> _clientHandler;
+
+
+	/** start the server and create the pipelined client */
+	@Before
+	public void setUp() throws Exception {
+		_completions = Collections.synchronizedList( new ArrayList<String>() );
+
+		_server = new RpcServer( JSONCoder.getInstance(), 8 );
+		_server.addHandler( SERVICE_NAME, EchoService.class, new EchoService() {
+			public String echo( final String message ) {
+				try {
+					Thread.sleep( Long.parseLong( message.split( ":", 2 )[0] ) );
+				}
+				catch ( InterruptedException exception ) {
+					Thread.currentThread().interrupt();
+				}
+				_completions.add( message );
+				return message;
+			}
+		});
+		_server.start();
+
+		_clientHandler = new ClientHandler<EchoService>( "localhost", _server.getPort(), SERVICE_NAME, EchoService.class, JSONCoder.getInstance(), true );
+	}
+
+
+	/** dispose the client and shutdown the server */
+	@After
+	public void tearDown() throws Exception {
+		_clientHandler.dispose();
+		_server.shutdown();
+	}
+
+
+	/** Concurrent calls sharing the pipelined connection must each get their own response even though the responses arrive out of order */
+	@Test
+	public void testOutOfOrderResponses() throws Exception {
+		final EchoService proxy = _clientHandler.getProxy();
+		final int callCount = 8;
+
+		// the earlier calls take longer so their responses are sent after those of the later calls
+		final List<String> messages = new ArrayList<String>();
+		for ( int index = 0 ; index < callCount ; index++ ) {
+			messages.add( ( 100 * ( callCount - index ) ) + ":" + index + ":" + MULTI_BYTE_TEXT );
+		}
+
+		final ExecutorService callers = Executors.newFixedThreadPool( callCount );
+		try {
+			final List<Future<String>> results = new ArrayList<Future<String>>();
+			for ( final String message : messages ) {
+				results.add( callers.submit( new Callable<String>() {
+					public String call() {
+						return proxy.echo( message );
+					}
+				}));
+				Thread.sleep( 10 );		// submit in order so the request order is known
+			}
+
+			for ( int index = 0 ; index < callCount ; index++ ) {
+				Assert.assertEquals( messages.get( index ), results.get( index ).get( TIMEOUT_SECONDS, TimeUnit.SECONDS ) );
+			}
+		}
+		finally {
+			callers.shutdownNow();
+		}
+
+		// the server completed the requests concurrently rather than in the order they arrived
+		Assert.assertEquals( callCount, _completions.size() );
+		Assert.assertEquals( messages.get( callCount - 1 ), _completions.get( 0 ) );
+		Assert.assertEquals( messages.get( 0 ), _completions.get( callCount - 1 ) );
+	}
+
+
+	/** Large multi-byte payloads pipelined with small ones must arrive intact */
+	@Test
+	public void testLargeMultiBytePayloads() throws Exception {
+		final EchoService proxy = _clientHandler.getProxy();
+
+		final StringBuilder buffer = new StringBuilder();
+		for ( int index = 0 ; index < 5000 ; index++ ) {
+			buffer.append( MULTI_BYTE_TEXT );
+		}
+		final String largeMessage = "200:" + buffer.toString();
+		final String smallMessage = "0:" + MULTI_BYTE_TEXT;
+
+		final ExecutorService callers = Executors.newFixedThreadPool( 2 );
+		try {
+			final Future<String> largeResult = callers.submit( new Callable<String>() {
+				public String call() {
+					return proxy.echo( largeMessage );
+				}
+			});
+			final Future<String> smallResult = callers.submit( new Callable<String>() {
+				public String call() {
+					return proxy.echo( smallMessage );
+				}
+			});
+
+			Assert.assertEquals( smallMessage, smallResult.get( TIMEOUT_SECONDS, TimeUnit.SECONDS ) );
+			Assert.assertEquals( largeMessage, largeResult.get( TIMEOUT_SECONDS, TimeUnit.SECONDS ) );
+		}
+		finally {
+			callers.shutdownNow();
+		}
+	}
+
+
+	/** Calls pending when the server drops the connection must fail rather than wait forever */
+	@Test
+	public void testDroppedServer() throws Exception {
+		final EchoService proxy = _clientHandler.getProxy();
+
+		final ExecutorService callers = Executors.newSingleThreadExecutor();
+		try {
+			final Future<String> result = callers.submit( new Callable<String>() {
+				public String call() {
+					return proxy.echo( "2000:dropped" );
+				}
+			});
+
+			Thread.sleep( 200 );
+			_server.shutdown();
+
+			try {
+				result.get( TIMEOUT_SECONDS, TimeUnit.SECONDS );
+				Assert.fail( "The call should fail when the server drops" );
+			}
+			catch ( ExecutionException exception ) {
+				Assert.assertTrue( exception.getCause() instanceof RemoteServiceDroppedException );
+			}
+		}
+		finally {
+			callers.shutdownNow();
+		}
+	}
+}
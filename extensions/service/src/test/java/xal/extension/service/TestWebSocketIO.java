@@ -0,0 +1,154 @@
+/*
+ * TestWebSocketIO.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.extension.service;
+
+import java.net.*;
+import java.nio.charset.Charset;
+import java.util.*;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Test the framing of messages whose UTF-8 encoding is longer than their character count,
+ * including back to back frames read through a single byte reader as happens with pipelined requests.
+ */
+public class TestWebSocketIO {
+	/** text whose characters encode to two, three and four bytes */
+	final static private String MULTI_BYTE_TEXT = "éß€—漢😀";
+
+	/** server socket accepting the loopback connection */
+	private ServerSocket _serverSocket;
+
+	/** client end of the loopback connection */
+	private Socket _clientSocket;
+
+	/** server end of the loopback connection */
+	private Socket _serverEndSocket;
+
+
+	/** open the loopback connection */
+	@Before
+	public void setUp() throws Exception {
+		_serverSocket = new ServerSocket( 0 );
+		_clientSocket = new Socket( InetAddress.getLoopbackAddress(), _serverSocket.getLocalPort() );
+		_serverEndSocket = _serverSocket.accept();
+	}
+
+
+	/** close the loopback connection */
+	@After
+	public void tearDown() throws Exception {
+		_clientSocket.close();
+		_serverEndSocket.close();
+		_serverSocket.close();
+	}
+
+
+	/** Messages must round trip whether the encoded length fits in the frame header, in two bytes or in eight bytes */
+	@Test
+	public void testMultiByteRoundTrip() throws Exception {
+		final StreamByteReader byteReader = WebSocketIO.makeByteReader( _serverEndSocket );
+
+		// character counts chosen so the byte count and not the character count crosses each length encoding boundary
+		for ( final int repeats : new int[] { 0, 1, 10, 30, 5000, 12000 } ) {
+			final String message = makeMessage( repeats );
+			WebSocketIO.sendMessage( _clientSocket, message );
+			Assert.assertEquals( "message of " + utf8Length( message ) + " bytes", message, WebSocketIO.readMessage( byteReader ) );
+		}
+	}
+
+
+	/** Frames written back to back must be read intact with a single reader even when several arrive in one read */
+	@Test
+	public void testBackToBackFrames() throws Exception {
+		final List<String> messages = new ArrayList<String>();
+		for ( int index = 0 ; index < 50 ; index++ ) {
+			messages.add( index + ":" + makeMessage( index % 7 == 0 ? 3000 : index ) );
+		}
+
+		final Thread sender = new Thread( new Runnable() {
+			public void run() {
+				try {
+					for ( final String message : messages ) {
+						WebSocketIO.sendMessage( _clientSocket, message );
+					}
+				}
+				catch ( Exception exception ) {
+					throw new RuntimeException( exception );
+				}
+			}
+		});
+		sender.start();
+
+		final StreamByteReader byteReader = WebSocketIO.makeByteReader( _serverEndSocket );
+		for ( final String message : messages ) {
+			Assert.assertEquals( message, WebSocketIO.readMessage( byteReader ) );
+		}
+		sender.join();
+	}
+
+
+	/** Frames sent concurrently on the same socket must not interleave */
+	@Test
+	public void testConcurrentSenders() throws Exception {
+		final int senderCount = 4;
+		final int messageCount = 100;
+
+		final List<Thread> senders = new ArrayList<Thread>();
+		for ( int senderIndex = 0 ; senderIndex < senderCount ; senderIndex++ ) {
+			final int senderID = senderIndex;
+			final Thread sender = new Thread( new Runnable() {
+				public void run() {
+					try {
+						for ( int index = 0 ; index < messageCount ; index++ ) {
+							WebSocketIO.sendMessage( _clientSocket, senderID + ":" + index + ":" + makeMessage( 20 * senderID ) );
+						}
+					}
+					catch ( Exception exception ) {
+						throw new RuntimeException( exception );
+					}
+				}
+			});
+			senders.add( sender );
+			sender.start();
+		}
+
+		// messages from each sender must arrive whole and in the order that sender sent them
+		final int[] nextIndices = new int[senderCount];
+		final StreamByteReader byteReader = WebSocketIO.makeByteReader( _serverEndSocket );
+		for ( int count = 0 ; count < senderCount * messageCount ; count++ ) {
+			final String[] parts = WebSocketIO.readMessage( byteReader ).split( ":", 3 );
+			final int senderID = Integer.parseInt( parts[0] );
+			Assert.assertEquals( nextIndices[senderID]++, Integer.parseInt( parts[1] ) );
+			Assert.assertEquals( makeMessage( 20 * senderID ), parts[2] );
+		}
+
+		for ( final Thread sender : senders ) {
+			sender.join();
+		}
+	}
+
+
+	/** make a message with the multi-byte text repeated the specified number of times */
+	static private String makeMessage( final int repeats ) {
+		final StringBuilder buffer = new StringBuilder();
+		for ( int index = 0 ; index < repeats ; index++ ) {
+			buffer.append( MULTI_BYTE_TEXT );
+		}
+		return buffer.toString();
+	}
+
+
+	/** get the number of bytes in the UTF-8 encoding of the message */
+	static private int utf8Length( final String message ) {
+		return message.getBytes( Charset.forName( "UTF-8" ) ).length;
+	}
+}
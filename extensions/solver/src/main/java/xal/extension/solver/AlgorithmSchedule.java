@@ -9,6 +9,7 @@
  */
 package xal.extension.solver;
 
+import xal.tools.dispatch.DispatchQueue;
 import xal.tools.messaging.MessageCenter;
 
 import xal.extension.solver.algorithm.*;
@@ -220,12 +221,88 @@ public class AlgorithmSchedule {
 	}
 
 
+	/**
+	 * Get the number of trial points which may be evaluated concurrently. Algorithms can use this as the size of the batches they propose.
+	 * @return the number of available processors if the problem's evaluator is thread safe and 1 otherwise
+	 */
+	public int getEvaluationConcurrency() {
+		return ( _problem != null && _problem.getEvaluator() instanceof ThreadSafeEvaluator ) ? Runtime.getRuntime().availableProcessors() : 1;
+	}
+
+
+	/**
+	 * Evaluate the specified batch of trial points. The trial points are evaluated concurrently if the problem's evaluator is thread safe.
+	 * The trials are judged and posted in the order of the trial points so the outcome does not depend on the order in which the evaluations complete.
+	 * Concurrent evaluations do not touch the problem's value references which are instead updated on the calling thread to each trial as it is posted.
+	 * @param searchAlgorithm the algorithm which proposed the trial points
+	 * @param trialPoints the trial points to evaluate
+	 * @return the scored trials corresponding to the specified trial points
+	 * @throws xal.extension.solver.RunTerminationException if the run has been terminated before all the trials have been scored
+	 */
+	public List<Trial> evaluateTrialPoints( final SearchAlgorithm searchAlgorithm, final List<TrialPoint> trialPoints ) {
+		if ( _stopper.shouldStop( _solver ) )  throw new RunTerminationException( "Run terminated by the stopper." );
+
+		// the algorithm has already been charged for the whole batch so only the points within its scheduled evaluations may be evaluated
+		final int count = Math.min( trialPoints.size(), trialPoints.size() + searchAlgorithm.getEvaluationsLeft() );
+		if ( count <= 0 )  throw new RunTerminationException( "Run terminated due to overrun of scheduled evaluations." );
+
+		final Trial[] trials = new Trial[count];
+		for ( int index = 0 ; index < count ; index++ ) {
+			trials[index] = new Trial( _problem, trialPoints.get( index ), searchAlgorithm );
+		}
+
+		// outcome of each concurrent evaluation which is null if the evaluation was skipped
+		final Boolean[] outcomes = count > 1 && getEvaluationConcurrency() > 1 ? new Boolean[count] : null;
+		if ( outcomes != null ) {
+			DispatchQueue.getGlobalDefaultPriorityQueue().dispatchApply( count, index -> {
+				// skip the remaining evaluations once the stopper stops the run (e.g. the user stops the solver)
+				if ( !_stopper.shouldStop( _solver ) ) {
+					outcomes[index] = _problem.evaluateConcurrently( trials[index] );
+				}
+			});
+		}
+
+		// check the stopper between trials as a serial evaluation would so a stopper counting evaluations is honored exactly
+		final List<Trial> scoredTrials = new ArrayList<Trial>( count );
+		for ( int index = 0 ; index < count ; index++ ) {
+			final Trial trial = trials[index];
+			if ( index > 0 && _stopper.shouldStop( _solver ) )  throw new RunTerminationException( "Run terminated by the stopper." );
+
+			if ( outcomes == null ) {
+				score( trial );
+			}
+			else if ( outcomes[index] != null ) {
+				// the value references hold the trial being judged just as they would after a serial evaluation
+				_problem.updateValueReference( trial );
+				post( trial, outcomes[index] );
+			}
+			else {
+				throw new RunTerminationException( "Run terminated by the stopper." );
+			}
+			scoredTrials.add( trial );
+		}
+
+		if ( count < trialPoints.size() )  throw new RunTerminationException( "Run terminated due to overrun of scheduled evaluations." );
+
+		return scoredTrials;
+	}
+
+
 	/**
 	 * Score the trial.
 	 * @param trial  The trial to be scored.
 	 */
 	private void score( final Trial trial ) {
-		final boolean isSuccessful = _problem.evaluate( trial );
+		post( trial, _problem.evaluate( trial ) );
+	}
+
+
+	/**
+	 * Judge the evaluated trial and post it to the listeners.
+	 * @param trial the evaluated trial
+	 * @param isSuccessful true if the evaluation was successful and false if the trial was vetoed
+	 */
+	private void post( final Trial trial, final boolean isSuccessful ) {
 		if ( !isSuccessful )  EVENT_PROXY.trialVetoed( this, trial );
 		_solver.judge( trial );
 		EVENT_PROXY.trialScored( this, trial );
@@ -263,6 +263,16 @@ public class Problem {
 	 */
 	protected TrialVeto validate( final Trial trial ) {
 		updateValueReference( trial );
+		return checkConstraints( trial );
+	}
+	
+	
+	/**
+	 * Check the trial against the constraints.
+	 * @param trial  The trial to be checked.
+	 * @return A trial veto if any of the constraints vetos the trial or null if there is no veto.
+	 */
+	private TrialVeto checkConstraints( final Trial trial ) {
 		for ( final Constraint constraint : _constraints ) {
 			final TrialVeto veto = constraint.validate( trial );
 			if ( veto != null ) {
@@ -300,11 +310,29 @@ public class Problem {
 	}
 	
 	
+	/**
+	 * Evaluate the trial concurrently with other trials. Unlike evaluate(), the shared value references are not updated since
+	 * they can hold the values of only one trial, so the constraints and the evaluator must get the values from the trial point.
+	 * The schedule updates the value references on its own thread as it posts each evaluated trial.
+	 * @param trial the trial to evaluate
+	 * @return true if the evaluation was successful and false if it was vetoed
+	 */
+	boolean evaluateConcurrently( final Trial trial ) {
+		final TrialVeto veto = checkConstraints( trial );
+		if ( veto != null ) {
+			trial.vetoTrial( veto );
+			return false;
+		}
+		_evaluator.evaluate( trial );
+		return true;
+	}
+	
+	
 	/**
 	 * Update the value reference to synchronize with the user's model.
 	 * @param trial  the trial with which to update the reference
 	 */
-	private void updateValueReference( final Trial trial ) {
+	void updateValueReference( final Trial trial ) {
 		for ( final Variable variable : _variables ) {
 			final ValueRef referenceVariable = getValueReference( variable );
 			referenceVariable.setValue( trial.getTrialPoint().getValue( variable ) );
@@ -20,7 +20,7 @@ import java.util.*;
 
 /**
  * Scoreboard maintains the status of the solver including the clock and the best solution
- * found so far.
+ * found so far. The scoreboard is thread safe and posts its events outside of its lock.
  *
  * @author   ky6
  * @author	t6p
@@ -90,13 +90,15 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 
 	/** Reset the start time and the number of evaluations.  */
 	public void reset() {
-		_solutionJudge.reset();
-		_startTime = new Date();
-		_evaluations = 0;
-		_algorithmRunExecutions = 0;
-		_vetoes = 0;
-		_optimalSolutionsFound = 0;
-        _bestSolution = null;
+		getSolutionJudge().reset();		// outside the lock since the judge posts optimal solutions to this scoreboard while holding its own lock
+		synchronized( this ) {
+			_startTime = new Date();
+			_evaluations = 0;
+			_algorithmRunExecutions = 0;
+			_vetoes = 0;
+			_optimalSolutionsFound = 0;
+			_bestSolution = null;
+		}
 	}
 
 
@@ -104,7 +106,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * Set the solution judge.
 	 * @param solutionJudge   The new solutionJudge value
 	 */
-	public void setSolutionJudge( SolutionJudge solutionJudge ) {
+	synchronized public void setSolutionJudge( SolutionJudge solutionJudge ) {
 		if ( _solutionJudge != null ) {
 			_solutionJudge.removeSolutionJudgeListener( this );
 		}
@@ -120,14 +122,14 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * Get the solution judge.
 	 * @return   The solution judge.
 	 */
-	public SolutionJudge getSolutionJudge() {
+	synchronized public SolutionJudge getSolutionJudge() {
 		return _solutionJudge;
 	}
     
     /**
      * Get the satisfaction of the best trial point
      */
-    public double getSatisfaction(){
+    synchronized public double getSatisfaction(){
         return _bestSolution.getSatisfaction();
     }
 	
@@ -135,7 +137,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * Get the number of algorithm executions
 	 * @return number of algorithm executions
 	 */
-	public int getAlgorithmExecutions() {
+	synchronized public int getAlgorithmExecutions() {
 		return _algorithmRunExecutions;
 	}
 
@@ -144,7 +146,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * Get the number of vetoes.
 	 * @return   The number of vetoes made.
 	 */
-	public int getVetoes() {
+	synchronized public int getVetoes() {
 		return _vetoes;
 	}
 
@@ -153,7 +155,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * Get the number of optimal solutions found.
 	 * @return   The number of optimal solutions found.
 	 */
-	public int getOptimalSolutionsFound() {
+	synchronized public int getOptimalSolutionsFound() {
 		return _optimalSolutionsFound;
 	}
 
@@ -162,7 +164,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * Get the elapsed time.
 	 * @return   elapsed time in seconds.
 	 */
-	public double getElapsedTime() {
+	synchronized public double getElapsedTime() {
 		Date currentTime = new Date();
 		long elapsedTime = currentTime.getTime() - _startTime.getTime();
 		return ( (double)( elapsedTime ) ) / 1000;
@@ -174,7 +176,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * @param trial the trial to judge
 	 */
 	public void judge( final Trial trial ) {
-		_solutionJudge.judge( trial );
+		getSolutionJudge().judge( trial );
 	}
 
 
@@ -184,21 +186,24 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * @param trial              The trial that was scored.
 	 */
 	public void trialScored( final AlgorithmSchedule algorithmSchedule, final Trial trial ) {
-		++_evaluations;
+		synchronized( this ) {
+			++_evaluations;
+
+			SearchAlgorithm algorithm = trial.getAlgorithm();
+			String label = algorithm.getLabel();
+			if(_evaluationsLog.containsKey(label)){
+				Integer evaluations = _evaluationsLog.get(label);
+				evaluations ++;
+				_evaluationsLog.put(label, evaluations);
+			}
+			else{
+				_evaluationsLog.put(label, 1);
+			}
+
+			if( _efficiencyLogger != null )  _efficiencyLogger.record(trial);
+		}
+
         EVENT_PROXY.trialScored( this, trial );
-        
-        SearchAlgorithm algorithm = trial.getAlgorithm();
-        String label = algorithm.getLabel();
-        if(_evaluationsLog.containsKey(label)){
-            Integer evaluations = _evaluationsLog.get(label);
-            evaluations ++;
-            _evaluationsLog.put(label, evaluations);
-        }
-        else{
-            _evaluationsLog.put(label, 1);
-        }
-        
-        if( _efficiencyLogger != null )  _efficiencyLogger.record(trial);
 	}
 
 
@@ -208,7 +213,9 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * @param trial              The trial that was vetoed.
 	 */
 	public void trialVetoed( final AlgorithmSchedule algorithmSchedule, final Trial trial ) {
-		++_vetoes;
+		synchronized( this ) {
+			++_vetoes;
+		}
 		EVENT_PROXY.trialVetoed( this, trial );
 	}
 	
@@ -228,7 +235,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * @param algorithm the algorithm that has executed
 	 * @param scoreBoard the scoreboard
 	 */
-	public void algorithmRunExecuted( final AlgorithmSchedule schedule, final SearchAlgorithm algorithm, final ScoreBoard scoreBoard ) {
+	synchronized public void algorithmRunExecuted( final AlgorithmSchedule schedule, final SearchAlgorithm algorithm, final ScoreBoard scoreBoard ) {
 		++_algorithmRunExecutions;
 	}
 	
@@ -240,8 +247,10 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * @param solution   Description of the Parameter
 	 */
 	public void foundNewOptimalSolution( final SolutionJudge source, final List<Trial> solutions, final Trial solution ) {
-		++_optimalSolutionsFound;
-		_bestSolution = solution;
+		synchronized( this ) {
+			++_optimalSolutionsFound;
+			_bestSolution = solution;
+		}
 		EVENT_PROXY.newOptimalSolution( this, solution );
 	}
 
@@ -250,7 +259,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 	 * Get the new solution.
 	 * @return   The new solution.
 	 */
-	public Trial getBestSolution() {
+	synchronized public Trial getBestSolution() {
 		return _bestSolution;
 	}
 
@@ -266,12 +275,13 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
 		buffer.append( "Evaluations:  " + getEvaluations() + "\n" );
 		buffer.append( "Vetoes:  " + getVetoes() + "\n" );
 		buffer.append( "Optimal Solutions Found:  " + getOptimalSolutionsFound() + "\n" );
-		buffer.append( "Number of Existing Optimal Solutions:  " + _solutionJudge.getOptimalSolutions().size() + "\n" );
-		buffer.append( "Overall Satisfaction:  " + _bestSolution.getSatisfaction() + "\n" );
+		final List<Trial> optimalSolutions = getSolutionJudge().getOptimalSolutions();
+		buffer.append( "Number of Existing Optimal Solutions:  " + optimalSolutions.size() + "\n" );
+		buffer.append( "Overall Satisfaction:  " + getSatisfaction() + "\n" );
 
 		buffer.append( "Optimal Solutions: \n" );
 		
-		final Iterator<Trial> solutionIter = _solutionJudge.getOptimalSolutions().iterator();
+		final Iterator<Trial> solutionIter = optimalSolutions.iterator();
 		int count = 0;
 		while ( solutionIter.hasNext() && count < 3 ) {
 			count++;
@@ -302,14 +312,14 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
      * Get the number of evaluations.
      * @return   The number of evaluations.
      */
-    public int getEvaluations() {
+    synchronized public int getEvaluations() {
         return _evaluations;
     }
     
     /**
      * get a copy of the evaluations for each algorithm executed
      */
-    public Map<String, Integer> getEvaluationsLog() {
+    synchronized public Map<String, Integer> getEvaluationsLog() {
         return new HashMap<>( _evaluationsLog );
     }
     
@@ -437,7 +447,7 @@ final public class ScoreBoard implements AlgorithmScheduleListener, SolutionJudg
     /**
      * Turns efficiencyLogger on with parameters
      */
-    public void recordEfficiency( final int evaluationsStep ){
+    synchronized public void recordEfficiency( final int evaluationsStep ){
 		_efficiencyLogger = new EfficiencyLogger();
         _efficiencyLogger.setEvaluationsStep( evaluationsStep );
     }
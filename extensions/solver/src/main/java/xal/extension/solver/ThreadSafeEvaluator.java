@@ -0,0 +1,22 @@
+/*
+ *  ThreadSafeEvaluator.java
+ *
+ *  Created Sunday October 18, 2026
+ *
+ *  Copyright 2026, Spallation Neutron Source
+ *  Oak Ridge National Laboratory
+ *  Oak Ridge, TN 37830
+ */
+package xal.extension.solver;
+
+
+/**
+ * ThreadSafeEvaluator is an evaluator which declares that it may evaluate several trials concurrently. The algorithm schedule
+ * evaluates batches of trial points proposed by an algorithm concurrently when the problem's evaluator implements this interface.
+ * The evaluator and the problem's constraints must be thread safe and must get the variable values from the trial's trial point since
+ * the problem's value references are not updated during a concurrent evaluation. The trials are judged and their events are posted
+ * serially in the order of the proposed trial points once the batch has been evaluated, and the value references are set to each
+ * trial's values as it is posted.
+ */
+public interface ThreadSafeEvaluator extends Evaluator {
+}
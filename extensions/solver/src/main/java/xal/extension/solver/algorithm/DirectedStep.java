@@ -110,6 +110,10 @@ public class DirectedStep extends SearchAlgorithm {
 		final Map<Variable,Number> valueMap = new HashMap<Variable,Number>( originTrial.getTrialPoint().getValueMap() );
 		final double[] gradient = new double[variables.size()];
 		final double originSatisfaction = getSatisfaction( originTrial );
+
+		// the lower and upper trial points of every variable are independent so evaluate them as one batch
+		final double[] stepSizes = new double[variables.size()];
+		final List<TrialPoint> trialPoints = new ArrayList<TrialPoint>( 2 * variables.size() );
 		int index = 0;
 		for ( Variable variable : variables ) {
 			final double originValue = valueMap.get( variable ).doubleValue();
@@ -117,18 +121,23 @@ public class DirectedStep extends SearchAlgorithm {
 
 			final double lowerValue = trialRange[0];
 			valueMap.put( variable, lowerValue );
-			final Trial lowerTrial = evaluateTrialPoint( new TrialPoint( valueMap ) );
-			final double lowerSatisfaction = getSatisfaction( lowerTrial );
+			trialPoints.add( new TrialPoint( valueMap ) );
 
 			final double upperValue = trialRange[1];
 			valueMap.put( variable, upperValue );
-			final Trial upperTrial = evaluateTrialPoint( new TrialPoint( valueMap ) );
-			final double upperSatisfaction = getSatisfaction( upperTrial );
+			trialPoints.add( new TrialPoint( valueMap ) );
 
-			gradient[index++] = ( upperSatisfaction - lowerSatisfaction ) / ( upperValue - lowerValue );
+			stepSizes[index++] = upperValue - lowerValue;
 			valueMap.put( variable, originValue );
 		}
 
+		final List<Trial> trials = evaluateTrialPoints( trialPoints );
+		for ( index = 0 ; index < gradient.length ; index++ ) {
+			final double lowerSatisfaction = getSatisfaction( trials.get( 2 * index ) );
+			final double upperSatisfaction = getSatisfaction( trials.get( 2 * index + 1 ) );
+			gradient[index] = ( upperSatisfaction - lowerSatisfaction ) / stepSizes[index];
+		}
+
 		//System.out.println( "Gradient:  " + ArrayTool.asString( gradient ) );
 		return gradient;
 	}
@@ -59,7 +59,12 @@ public class RandomSearch extends SearchAlgorithm {
 	public void performRun( final AlgorithmSchedule algorithmSchedule ) {
 		try {
             while( getEvaluationsLeft() > 0 && !algorithmSchedule.shouldStop() ){
-                evaluateTrialPoint( nextTrialPoint() );
+                final int batchSize = Math.min( getEvaluationConcurrency(), getEvaluationsLeft() );
+                final List<TrialPoint> trialPoints = new ArrayList<TrialPoint>( batchSize );
+                for ( int index = 0 ; index < batchSize ; index++ ) {
+                    trialPoints.add( nextTrialPoint() );
+                }
+                evaluateTrialPoints( trialPoints );
             }
 		}
 		catch ( RunTerminationException exception ) {}
@@ -103,8 +103,17 @@ public class RandomShrinkSearch extends SearchAlgorithm {
             while( runCount > 0 && !algorithmSchedule.shouldStop() ){
                 if(runCount == 1){
                     _isLastEvaluation = true;
+                    evaluateTrialPoint( nextTrialPoint() );
+                }
+                else {
+                    // batch the points drawn from the current search window leaving the last evaluation to run alone
+                    final int batchSize = Math.min( getEvaluationConcurrency(), runCount - 1 );
+                    final List<TrialPoint> trialPoints = new ArrayList<TrialPoint>( batchSize );
+                    for ( int index = 0 ; index < batchSize ; index++ ) {
+                        trialPoints.add( nextTrialPoint() );
+                    }
+                    evaluateTrialPoints( trialPoints );
                 }
-                evaluateTrialPoint( nextTrialPoint() );
                 runCount = getEvaluationsLeft();
             }
 			_isLastEvaluation = false;		// clear the flag to avoid side effects
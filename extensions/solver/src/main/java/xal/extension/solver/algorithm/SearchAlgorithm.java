@@ -145,6 +145,26 @@ public abstract class SearchAlgorithm implements AlgorithmScheduleListener, Solu
     }
 
 
+    /**
+     * Evaluate the given batch of trial points which may be evaluated concurrently if the problem's evaluator is thread safe.
+     * @param trialPoints the trial points to evaluate
+     * @return the scored trials in the order of the trial points
+     */
+    public List<Trial> evaluateTrialPoints( final List<TrialPoint> trialPoints ) {
+        _evaluationsLeft -= trialPoints.size();
+        return _schedule.evaluateTrialPoints( this, trialPoints );
+    }
+
+
+    /**
+     * Get the number of trial points which may be evaluated concurrently in a batch.
+     * @return the number of concurrent evaluations supported by the problem's evaluator
+     */
+    public int getEvaluationConcurrency() {
+        return _schedule != null ? _schedule.getEvaluationConcurrency() : 1;
+    }
+
+
 	/**
 	 * Get the label for this search algorithm.
 	 * @return   The label for this algorithm
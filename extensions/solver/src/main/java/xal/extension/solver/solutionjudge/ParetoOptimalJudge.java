@@ -30,7 +30,7 @@
 	 
 	 
 	 /** Reset the pareto optimal judge. */
-	 public void reset() {
+	 synchronized public void reset() {
 		 _optimalSolutions.clear();
 	 }
 	 
@@ -39,8 +39,8 @@
 	 * Get the optimal solutions.
 	 * @return The optimal solutions as a List.
 	 */
-	 public List<Trial> getOptimalSolutions() {
-		 return _optimalSolutions;
+	 synchronized public List<Trial> getOptimalSolutions() {
+		 return new ArrayList<Trial>( _optimalSolutions );
 	 }
 		 
 			 
@@ -67,7 +67,7 @@
 	 * @param solution The new solution to
 	 * update the pareto optimal judge with. 
 	 */
-	 public void judge( final Trial solution ) {
+	 synchronized public void judge( final Trial solution ) {
 		 if ( solution.isVetoed() ) {
 			 solution.setSatisfaction( 0.0 );
 		 }
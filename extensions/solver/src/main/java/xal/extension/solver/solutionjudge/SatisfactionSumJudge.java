@@ -39,7 +39,7 @@
 	 
 	 
 	 /** Reset the satisfaction sum judge. */
-	 public void reset() {
+	 synchronized public void reset() {
 		 _bestWeightedSum = 0.0;
 		 _optimalSolutions = new ArrayList<Trial>();
 		 _objectiveWeightMap = new HashMap<Objective,Double>();
@@ -51,7 +51,7 @@
 	 * @param objective The objective to weight.
 	 * @param weight The weight to give the objective.
 	 */
-	 public void setWeight( final Objective objective, final double weight ) {
+	 synchronized public void setWeight( final Objective objective, final double weight ) {
 		 _objectiveWeightMap.put( objective, weight );
 	 }
 	 
@@ -70,8 +70,8 @@
 	 * Get the optimal solutions.
 	 * @return A list of solutions
 	 */
-	 public List<Trial> getOptimalSolutions() {
-		 return _optimalSolutions;	 	 
+	 synchronized public List<Trial> getOptimalSolutions() {
+		 return new ArrayList<Trial>( _optimalSolutions );	 	 
 	 }
 	 
 	 
@@ -79,7 +79,7 @@
 	 * Judge the trial.
 	 * @param trial the trial to judge.
 	 */
-	 public void judge( final Trial trial ) {
+	 synchronized public void judge( final Trial trial ) {
 		 if ( trial.isVetoed() ) {
 			 trial.setSatisfaction( 0.0 );
 		 }
@@ -52,7 +52,7 @@ public class WorstObjectiveBiasedJudge extends SolutionJudge {
 	/**
 	 * Reset the satisfaction sum judge.
 	 */
-	public void reset() {
+	synchronized public void reset() {
 		_bestSatisfaction = 0.0;
 		_totalWeight = 0.0;
 		_optimalSolutions = new ArrayList<Trial>();
@@ -63,8 +63,8 @@ public class WorstObjectiveBiasedJudge extends SolutionJudge {
 	 * Get the optimal solutions.
 	 * @return a list of solutions
 	 */
-	public List<Trial> getOptimalSolutions() {
-		return _optimalSolutions;	 	 
+	synchronized public List<Trial> getOptimalSolutions() {
+		return new ArrayList<Trial>( _optimalSolutions );	 	 
 	}
 	
 	
@@ -72,7 +72,7 @@ public class WorstObjectiveBiasedJudge extends SolutionJudge {
 	 * Judge the trial.
 	 * @param trial The trial with which to update the solution judge.
 	 */
-	public void judge( final Trial trial ) {
+	synchronized public void judge( final Trial trial ) {
 		if ( trial.isVetoed() ) {
 			trial.setSatisfaction( 0.0 );
 		}
@@ -0,0 +1,191 @@
+/*
+ * TestConcurrentEvaluation.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.extension.solver;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import xal.extension.solver.algorithm.RandomSearch;
+import xal.extension.solver.algorithm.SearchAlgorithm;
+import xal.extension.solver.constraint.Constraint;
+
+
+/**
+ * Test the concurrent evaluation of trial batches by a thread safe evaluator. The scoreboard must see the trials
+ * in the order they were proposed on the calling thread with the value references holding each trial's values,
+ * so the outcome must be the same as that of a serial evaluation.
+ */
+public class TestConcurrentEvaluation {
+	/** number of evaluations allowed by the stopper which ends the last batch part way through */
+	final static private int EVALUATION_COUNT = 100;
+
+	/** number of trial points in each batch */
+	final static private int BATCH_SIZE = 8;
+
+	/** values above this limit are vetoed */
+	final static private double VETO_LIMIT = 0.9;
+
+
+	/** The concurrent and serial evaluations must post the same trials in the same order with the value references in step */
+	@Test
+	public void testMatchesSerialEvaluation() throws Exception {
+		final SolveRecord serialRecord = solve( false );
+		final SolveRecord concurrentRecord = solve( true );
+
+		Assert.assertTrue( serialRecord.ERRORS.toString(), serialRecord.ERRORS.isEmpty() );
+		Assert.assertTrue( concurrentRecord.ERRORS.toString(), concurrentRecord.ERRORS.isEmpty() );
+
+		// the evaluation count stopper is honored exactly and the scoreboard sees every trial once
+		Assert.assertEquals( EVALUATION_COUNT, concurrentRecord._evaluations );
+		Assert.assertEquals( serialRecord._evaluations, concurrentRecord._evaluations );
+		Assert.assertEquals( concurrentRecord._evaluations, concurrentRecord.SCORED_VALUES.size() );
+
+		// the trials are posted in the order proposed
+		Assert.assertEquals( concurrentRecord.PROPOSED_VALUES.subList( 0, EVALUATION_COUNT ), concurrentRecord.SCORED_VALUES );
+		Assert.assertEquals( serialRecord.SCORED_VALUES, concurrentRecord.SCORED_VALUES );
+		Assert.assertEquals( serialRecord.OPTIMAL_VALUES, concurrentRecord.OPTIMAL_VALUES );
+		Assert.assertEquals( serialRecord._vetoes, concurrentRecord._vetoes );
+		Assert.assertTrue( concurrentRecord._vetoes > 0 );
+		Assert.assertEquals( serialRecord._bestValue, concurrentRecord._bestValue, 0.0 );
+
+		// the optimal solutions are found in increasing order of satisfaction
+		double lastValue = Double.NEGATIVE_INFINITY;
+		for ( final double value : concurrentRecord.OPTIMAL_VALUES ) {
+			Assert.assertTrue( value > lastValue );
+			Assert.assertTrue( value <= VETO_LIMIT );
+			lastValue = value;
+		}
+
+		// the batches were evaluated off the solving thread when there are processors to spare
+		if ( Runtime.getRuntime().availableProcessors() > 1 ) {
+			Assert.assertTrue( concurrentRecord.FOREIGN_EVALUATIONS.get() > 0 );
+		}
+		Assert.assertEquals( 0, serialRecord.FOREIGN_EVALUATIONS.get() );
+	}
+
+
+	/** evaluate batches of random trial points until the stopper stops the run recording the events posted by the scoreboard */
+	static private SolveRecord solve( final boolean concurrent ) throws Exception {
+		final SolveRecord record = new SolveRecord();
+		final Thread solvingThread = Thread.currentThread();
+
+		final Variable variable = new Variable( "x", 0.0, 0.0, 1.0 );
+		final Objective objective = new Objective( "x" ) {
+			public double satisfaction( final double value ) {
+				return value;
+			}
+		};
+
+		final Problem problem = new Problem();
+		problem.addVariable( variable );
+		problem.addObjective( objective );
+		final ValueRef valueRef = problem.getValueReference( variable );
+
+		// the evaluator takes the value from the trial point and takes a random time so the evaluations complete out of order
+		final Evaluator serialEvaluator = new Evaluator() {
+			public void evaluate( final Trial trial ) {
+				if ( Thread.currentThread() != solvingThread )  record.FOREIGN_EVALUATIONS.incrementAndGet();
+				try {
+					Thread.sleep( ThreadLocalRandom.current().nextInt( 3 ) );
+				}
+				catch ( InterruptedException exception ) {
+					Thread.currentThread().interrupt();
+				}
+				trial.setScore( objective, trial.getTrialPoint().getValue( variable ) );
+			}
+		};
+		problem.setEvaluator( concurrent ? new ThreadSafeEvaluator() {
+			public void evaluate( final Trial trial ) {
+				serialEvaluator.evaluate( trial );
+			}
+		} : serialEvaluator );
+
+		problem.addConstraint( new Constraint( "limit" ) {
+			public TrialVeto validate( final Trial trial ) {
+				return trial.getTrialPoint().getValue( variable ) > VETO_LIMIT ? new TrialVeto( trial, this, "above the limit" ) : null;
+			}
+		});
+
+		final Solver solver = new Solver( new RandomSearch(), SolveStopperFactory.maxEvaluationsStopper( EVALUATION_COUNT ) );
+		solver.getScoreBoard().addScoreBoardListener( new ScoreBoardListener() {
+			public void trialScored( final ScoreBoard scoreboard, final Trial trial ) {
+				final double value = trial.getTrialPoint().getValue( variable );
+				if ( Thread.currentThread() != solvingThread )  record.ERRORS.add( "trial scored off the solving thread" );
+				if ( valueRef.getValue() != value )  record.ERRORS.add( "value reference " + valueRef.getValue() + " does not match the scored trial " + value );
+				record.SCORED_VALUES.add( value );
+			}
+
+			public void trialVetoed( final ScoreBoard scoreboard, final Trial trial ) {
+				if ( valueRef.getValue() != trial.getTrialPoint().getValue( variable ) )  record.ERRORS.add( "value reference does not match the vetoed trial" );
+			}
+
+			public void newOptimalSolution( final ScoreBoard scoreboard, final Trial trial ) {
+				record.OPTIMAL_VALUES.add( trial.getTrialPoint().getValue( variable ) );
+			}
+		});
+
+		solver.setProblem( problem );
+		solver.reset();
+
+		final SearchAlgorithm algorithm = new RandomSearch();
+		algorithm.setProblem( problem );
+		final AlgorithmSchedule schedule = solver.getAlgorithmSchedule();
+		final Random randomGenerator = new Random( 7 );
+		try {
+			while ( true ) {
+				final List<TrialPoint> trialPoints = new ArrayList<TrialPoint>( BATCH_SIZE );
+				for ( int index = 0 ; index < BATCH_SIZE ; index++ ) {
+					final double value = randomGenerator.nextDouble();
+					record.PROPOSED_VALUES.add( value );
+					trialPoints.add( new TrialPoint( Collections.<Variable,Number>singletonMap( variable, value ) ) );
+				}
+				schedule.evaluateTrialPoints( algorithm, trialPoints );
+			}
+		}
+		catch ( RunTerminationException exception ) {}
+
+		final ScoreBoard scoreboard = solver.getScoreBoard();
+		record._evaluations = scoreboard.getEvaluations();
+		record._vetoes = scoreboard.getVetoes();
+		record._bestValue = scoreboard.getBestSolution().getTrialPoint().getValue( variable );
+
+		return record;
+	}
+
+
+
+	/** events and results of a solve */
+	static private class SolveRecord {
+		/** values of the trial points in the order proposed */
+		final List<Double> PROPOSED_VALUES = new ArrayList<Double>();
+
+		/** values of the scored trials in the order posted */
+		final List<Double> SCORED_VALUES = new ArrayList<Double>();
+
+		/** values of the optimal solutions in the order found */
+		final List<Double> OPTIMAL_VALUES = new ArrayList<Double>();
+
+		/** inconsistencies seen by the listener */
+		final List<String> ERRORS = new ArrayList<String>();
+
+		/** number of evaluations made off the solving thread */
+		final AtomicInteger FOREIGN_EVALUATIONS = new AtomicInteger( 0 );
+
+		/** number of evaluations counted by the scoreboard */
+		int _evaluations;
+
+		/** number of vetoes counted by the scoreboard */
+		int _vetoes;
+
+		/** value of the best solution */
+		double _bestValue;
+	}
+}
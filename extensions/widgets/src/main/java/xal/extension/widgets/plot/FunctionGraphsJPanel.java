@@ -3023,6 +3023,17 @@ public class FunctionGraphsJPanel extends JPanel implements MouseListener, Mouse
 						y2 = getScreenY(lgd.getInterpY(j + 1));
 						g.drawLine(x1, y1, x2, y2);
 					}
+				} else if (lgd instanceof StreamingGraphData) {
+					int[] indexes = decimateGraphData((StreamingGraphData) lgd);
+					for (int j = 0, nGrPoint = indexes.length - 1; j < nGrPoint; j++) {
+						int k1 = indexes[j];
+						int k2 = indexes[j + 1];
+						x1 = getScreenX(lgd.getX(k1));
+						x2 = getScreenX(lgd.getX(k2));
+						y1 = getScreenY(lgd.getY(k1));
+						y2 = getScreenY(lgd.getY(k2));
+						g.drawLine(x1, y1, x2, y2);
+					}
 				} else {
 					for (int j = 0, nGrPoint = lgd.getNumbOfPoints() - 1; j < nGrPoint; j++) {
 						x1 = getScreenX(lgd.getX(j));
@@ -3076,20 +3087,25 @@ public class FunctionGraphsJPanel extends JPanel implements MouseListener, Mouse
 				}
 				g.setColor(lineColor);
 
+				int[] indexes = (lgd instanceof StreamingGraphData) ? decimateGraphData((StreamingGraphData) lgd) : null;
+				int nGrPoint = (indexes != null) ? indexes.length : lgd.getNumbOfPoints();
+
 				if (lgd.getGraphPointShape() == null) {
 
 					ovalW = lgd.getGraphPointSize();
 					ovalH = lgd.getGraphPointSize();
 
-					for (int j = 0, nGrPoint = lgd.getNumbOfPoints(); j < nGrPoint; j++) {
-						ovalX = getScreenX(lgd.getX(j)) - ovalW / 2;
-						ovalY = getScreenY(lgd.getY(j)) - ovalH / 2;
+					for (int j = 0; j < nGrPoint; j++) {
+						int k = (indexes != null) ? indexes[j] : j;
+						ovalX = getScreenX(lgd.getX(k)) - ovalW / 2;
+						ovalY = getScreenY(lgd.getY(k)) - ovalH / 2;
 						g.fillOval(ovalX, ovalY, ovalW, ovalH);
 					}
 				} else {
-					for (int j = 0, nGrPoint = lgd.getNumbOfPoints(); j < nGrPoint; j++) {
-						ovalX = getScreenX(lgd.getX(j));
-						ovalY = getScreenY(lgd.getY(j));
+					for (int j = 0; j < nGrPoint; j++) {
+						int k = (indexes != null) ? indexes[j] : j;
+						ovalX = getScreenX(lgd.getX(k));
+						ovalY = getScreenY(lgd.getY(k));
 						g.translate(ovalX, ovalY);
 						if (lgd.isGraphPointShapeFilled()) {
 							g.fill(lgd.getGraphPointShape());
@@ -3140,13 +3156,15 @@ public class FunctionGraphsJPanel extends JPanel implements MouseListener, Mouse
 					}
 				}
 				g.setColor(lineColor);
-				for (int j = 0, nGrPoint = lgd.getNumbOfPoints(); j < nGrPoint; j++) {
-					if (lgd.getErr(j) == 0.) {
+				int[] indexes = (lgd instanceof StreamingGraphData) ? decimateGraphData((StreamingGraphData) lgd) : null;
+				for (int j = 0, nGrPoint = (indexes != null) ? indexes.length : lgd.getNumbOfPoints(); j < nGrPoint; j++) {
+					int k = (indexes != null) ? indexes[j] : j;
+					if (lgd.getErr(k) == 0.) {
 						continue;
 					}
-					yLow = getScreenY(lgd.getY(j) - lgd.getErr(j));
-					yUpp = getScreenY(lgd.getY(j) + lgd.getErr(j));
-					xPosition = getScreenX(lgd.getX(j));
+					yLow = getScreenY(lgd.getY(k) - lgd.getErr(k));
+					yUpp = getScreenY(lgd.getY(k) + lgd.getErr(k));
+					xPosition = getScreenX(lgd.getX(k));
 					g.drawLine(xPosition, yLow, xPosition, yUpp);
 				}
 			}
@@ -3501,6 +3519,18 @@ public class FunctionGraphsJPanel extends JPanel implements MouseListener, Mouse
 	//EDN of drawing
 	//---------------------------------------------------------
 
+	/**
+	 *  Decimates the points of the streaming graph data for the pixel columns of
+	 *  the current x-axis
+	 *
+	 *@param  sgd  The graph data
+	 *@return      The indexes of the decimated points
+	 */
+	private int[] decimateGraphData(StreamingGraphData sgd) {
+		return sgd.decimate(xMin, xMax, screenW - xLOffSet - xROffSet);
+	}
+
+
 	/**
 	 *  Returns the screenX attribute of the FunctionGraphsJPanel object
 	 *
@@ -0,0 +1,854 @@
+package xal.extension.widgets.plot;
+
+import java.util.*;
+
+/**
+ *  This class is a container class for long histories of data used in the
+ *  FunctionGraphsJPanel class, e.g. live plots of archived values. The points
+ *  are kept sorted by x in primitive ring buffers holding at most the maximal
+ *  history. Appending a point with x not less than the last x does not move
+ *  any other point, and when the history is full the point with the smallest
+ *  x is dropped. The extreme values are tracked by monotonic queues, so the
+ *  limits of the graph are updated in a constant time for appended points.
+ *  The graph panel draws only the points whose indexes are returned by the
+ *  <code>decimate</code> method, which keeps the first, last, minimal and
+ *  maximal points for each pixel column of the plot.
+ *
+ *@version    1.0
+ *@see        BasicGraphData
+ */
+
+public class StreamingGraphData extends BasicGraphData {
+
+	/**
+	 *  The default maximal number of points in the history
+	 */
+	public final static int DEFAULT_MAX_HISTORY = 1000000;
+
+	private final static int MIN_CAPACITY = 64;
+
+	private int maxHistory;
+
+	//ring buffers of x, y and y-errors, the point with index i
+	//is at the position (first + i) % xArr.length
+	private double[] xArr = new double[0];
+	private double[] yArr = new double[0];
+	private double[] errArr = new double[0];
+	private int first = 0;
+	private int count = 0;
+
+	//monotonic queues of the positions of the extreme values
+	private MonotonicQueue yMinQueue = new MonotonicQueue(false);
+	private MonotonicQueue yMaxQueue = new MonotonicQueue(true);
+	private MonotonicQueue errMaxQueue = new MonotonicQueue(true);
+	private boolean extremaValid = false;
+
+
+	/**
+	 *  data set constructor with the default maximal history
+	 */
+	public StreamingGraphData() {
+		this(DEFAULT_MAX_HISTORY);
+	}
+
+
+	/**
+	 *  data set constructor with defined maximal number of points in the history
+	 *
+	 *@param  maxHistory  The maximal number of points
+	 */
+	public StreamingGraphData(int maxHistory) {
+		super(0, 0);
+		this.maxHistory = Math.max(1, maxHistory);
+	}
+
+
+	/**
+	 *  sets the maximal number of points in the history. The points with the
+	 *  smallest x are removed if there are more points.
+	 *
+	 *@param  maxHistory  The new maximal number of points
+	 */
+	public void setMaxHistory(int maxHistory) {
+		synchronized (lockUpObj) {
+			this.maxHistory = Math.max(1, maxHistory);
+			while (count > this.maxHistory) {
+				removeFirst();
+			}
+			if (xArr.length > this.maxHistory) {
+				resize(this.maxHistory);
+			}
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  returns the maximal number of points in the history
+	 *
+	 *@return    The maxHistory value
+	 */
+	public int getMaxHistory() {
+		synchronized (lockUpObj) {
+			return maxHistory;
+		}
+	}
+
+
+	/**
+	 *  add (x,y, error of y) point to the data set
+	 *
+	 *@param  x    The feature to be added to the Point attribute
+	 *@param  y    The feature to be added to the Point attribute
+	 *@param  err  The feature to be added to the Point attribute
+	 */
+	public void addPoint(double x, double y, double err) {
+		synchronized (lockUpObj) {
+			insertPoint(x, y, err);
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  add an array of (x,y) points to the data set
+	 *
+	 *@param  x  The feature to be added to the Point attribute
+	 *@param  y  The feature to be added to the Point attribute
+	 */
+	public void addPoint(double[] x, double[] y) {
+		addPoint(x, y, new double[x.length]);
+	}
+
+
+	/**
+	 *  add an array of (x,y, error of y) points to the data set. The points
+	 *  replace all existing points.
+	 *
+	 *@param  x    The feature to be added to the Point attribute
+	 *@param  y    The feature to be added to the Point attribute
+	 *@param  err  The feature to be added to the Point attribute
+	 */
+	public void addPoint(double[] x, double[] y, double[] err) {
+		synchronized (lockUpObj) {
+			clear();
+			insertSorted(x, y, err);
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  append an array of (x,y) points to the existing points of the data set
+	 *  with a single update of the graph containers
+	 *
+	 *@param  x  The x-values of the new points
+	 *@param  y  The y-values of the new points
+	 */
+	public void appendPoints(double[] x, double[] y) {
+		appendPoints(x, y, new double[x.length]);
+	}
+
+
+	/**
+	 *  append an array of (x,y, error of y) points to the existing points of the
+	 *  data set with a single update of the graph containers
+	 *
+	 *@param  x    The x-values of the new points
+	 *@param  y    The y-values of the new points
+	 *@param  err  The y-errors of the new points
+	 */
+	public void appendPoints(double[] x, double[] y, double[] err) {
+		synchronized (lockUpObj) {
+			for (int i = 0; i < x.length; i++) {
+				insertPoint(x[i], y[i], Math.abs(err[i]));
+			}
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  update all points if they do exist or create new if they do not
+	 *
+	 *@param  x    Description of the Parameter
+	 *@param  y    Description of the Parameter
+	 *@param  err  Description of the Parameter
+	 */
+	public void updateValues(double[] x, double[] y, double[] err) {
+		if (x.length != y.length || y.length != err.length) {
+			return;
+		}
+		addPoint(x, y, err);
+	}
+
+
+	/**
+	 *  update all points if they do exist or create new if they do not
+	 *
+	 *@param  x  Description of the Parameter
+	 *@param  y  Description of the Parameter
+	 */
+	public void updateValues(double[] x, double[] y) {
+		if (x.length != y.length) {
+			return;
+		}
+		addPoint(x, y);
+	}
+
+
+	/**
+	 *  update the y-array with errors into the data set
+	 *
+	 *@param  y    Description of the Parameter
+	 *@param  err  Description of the Parameter
+	 */
+	public void updateValuesY(double[] y, double[] err) {
+		synchronized (lockUpObj) {
+			if (count != y.length || count != err.length) {
+				return;
+			}
+			for (int i = 0; i < count; i++) {
+				int p = position(i);
+				yArr[p] = y[i];
+				errArr[p] = Math.abs(err[i]);
+			}
+			extremaValid = false;
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  update the y-array into the data set
+	 *
+	 *@param  y  Description of the Parameter
+	 */
+	public void updateValuesY(double[] y) {
+		synchronized (lockUpObj) {
+			if (count != y.length) {
+				return;
+			}
+			for (int i = 0; i < count; i++) {
+				int p = position(i);
+				yArr[p] = y[i];
+				errArr[p] = 0.0;
+			}
+			extremaValid = false;
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  update the y-value with certain index into the data set
+	 *
+	 *@param  index  Description of the Parameter
+	 *@param  y      Description of the Parameter
+	 */
+	public void updateValueY(int index, double y) {
+		synchronized (lockUpObj) {
+			if (index < 0 || index >= count) {
+				return;
+			}
+			int p = position(index);
+			yArr[p] = y;
+			errArr[p] = 0.0;
+			extremaValid = false;
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  update the y-value and x-value with certain index into the data set
+	 *
+	 *@param  index  Description of the Parameter
+	 *@param  x      Description of the Parameter
+	 *@param  y      Description of the Parameter
+	 */
+	public void updatePoint(int index, double x, double y) {
+		updatePoint(index, x, y, 0.0);
+	}
+
+
+	/**
+	 *  update the y-value, x-value and error with certain index into the data set
+	 *
+	 *@param  index  Description of the Parameter
+	 *@param  x      Description of the Parameter
+	 *@param  y      Description of the Parameter
+	 *@param  err    Description of the Parameter
+	 */
+	public void updatePoint(int index, double x, double y, double err) {
+		synchronized (lockUpObj) {
+			if (index < 0 || index >= count) {
+				return;
+			}
+			removeAt(index);
+			insertPoint(x, y, err);
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  remove a point from the data set
+	 *
+	 *@param  index  Description of the Parameter
+	 */
+	public void removePoint(int index) {
+		synchronized (lockUpObj) {
+			if (index >= 0 && index < count) {
+				removeAt(index);
+				this.updateData();
+			}
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  remove all points from the data set
+	 */
+	public void removeAllPoints() {
+		synchronized (lockUpObj) {
+			if (count == 0) {
+				return;
+			}
+			clear();
+			this.updateData();
+		}
+		this.updateContainer();
+	}
+
+
+	/**
+	 *  get y-value for certain x-value
+	 *
+	 *@param  x  Description of the Parameter
+	 *@return    The valueY value
+	 */
+	public double getValueY(double x) {
+		synchronized (lockUpObj) {
+			if (count == 0) {
+				return Double.MIN_VALUE;
+			}
+			if (count == 1) {
+				return yArr[position(0)];
+			}
+			int i = Math.min(Math.max(upperBound(x), 1), count - 1);
+			int p1 = position(i - 1);
+			int p2 = position(i);
+			if (xArr[p2] == xArr[p1]) {
+				return (yArr[p1] + yArr[p2]) / 2.0;
+			}
+			double u = (x - xArr[p1]) / (xArr[p2] - xArr[p1]);
+			return (yArr[p1] + u * (yArr[p2] - yArr[p1]));
+		}
+	}
+
+
+	/**
+	 *  get y'-value for certain x-value
+	 *
+	 *@param  x  Description of the Parameter
+	 *@return    The valueDerivativeY value
+	 */
+	public double getValueDerivativeY(double x) {
+		synchronized (lockUpObj) {
+			if (count == 0) {
+				return Double.MIN_VALUE;
+			}
+			if (count == 1) {
+				return 0.0;
+			}
+			int i = Math.min(Math.max(upperBound(x), 1), count - 1);
+			int p1 = position(i - 1);
+			int p2 = position(i);
+			if (xArr[p2] == xArr[p1]) {
+				return 0.0;
+			}
+			return (yArr[p2] - yArr[p1]) / (xArr[p2] - xArr[p1]);
+		}
+	}
+
+
+	/**
+	 *  Returns the capacity attribute of the StreamingGraphData object
+	 *
+	 *@return    The capacity value
+	 */
+	protected int getCapacity() {
+		return xArr.length;
+	}
+
+
+	/**
+	 *  returns the number of data points
+	 *
+	 *@return    The numbOfPoints value
+	 */
+	public int getNumbOfPoints() {
+		synchronized (lockUpObj) {
+			return count;
+		}
+	}
+
+
+	/**
+	 *  returns x-value from the container
+	 *
+	 *@param  index  Description of the Parameter
+	 *@return        The x value
+	 */
+	public double getX(int index) {
+		synchronized (lockUpObj) {
+			return xArr[checkedPosition(index)];
+		}
+	}
+
+
+	/**
+	 *  returns y-value from the container
+	 *
+	 *@param  index  Description of the Parameter
+	 *@return        The y value
+	 */
+	public double getY(int index) {
+		synchronized (lockUpObj) {
+			return yArr[checkedPosition(index)];
+		}
+	}
+
+
+	/**
+	 *  returns the error value for certain index
+	 *
+	 *@param  index  Description of the Parameter
+	 *@return        The err value
+	 */
+	public double getErr(int index) {
+		synchronized (lockUpObj) {
+			return errArr[checkedPosition(index)];
+		}
+	}
+
+
+	/**
+	 *  decimates the points for drawing between xFrom and xTo on the specified
+	 *  number of pixel columns. For each column the first, last, minimal and
+	 *  maximal points are kept, so lines drawn through the decimated points
+	 *  cover the same pixels as lines drawn through all points. The nearest
+	 *  points outside of the range are kept too. The indexes are a snapshot of
+	 *  the data at the time of the call which belongs to the caller alone.
+	 *
+	 *@param  xFrom     The minimal x of the plot
+	 *@param  xTo       The maximal x of the plot
+	 *@param  nColumns  The number of pixel columns of the plot
+	 *@return           The indexes of the decimated points in increasing order
+	 */
+	public int[] decimate(double xFrom, double xTo, int nColumns) {
+		synchronized (lockUpObj) {
+			if (xFrom > xTo) {
+				double tmp = xFrom;
+				xFrom = xTo;
+				xTo = tmp;
+			}
+			nColumns = Math.max(1, nColumns);
+
+			int iMin = lowerBound(xFrom);
+			int iMax = upperBound(xTo);
+			int iStart = Math.max(iMin - 1, 0);
+			int iStop = Math.min(iMax + 1, count);
+			int nMax = 4 * nColumns + 2;
+
+			if (iStop - iStart <= nMax) {
+				int[] indexes = new int[Math.max(iStop - iStart, 0)];
+				for (int i = 0; i < indexes.length; i++) {
+					indexes[i] = iStart + i;
+				}
+				return indexes;
+			}
+
+			int[] indexes = new int[nMax];
+			int nDecimated = 0;
+			if (iStart < iMin) {
+				indexes[nDecimated++] = iStart;
+			}
+			double scale = (xTo > xFrom) ? nColumns / (xTo - xFrom) : 0.;
+			int column = -1;
+			int iFirst = 0;
+			int iLast = 0;
+			int iLow = 0;
+			int iUpp = 0;
+			for (int i = iMin; i < iMax; i++) {
+				int p = position(i);
+				int col = Math.min((int) ((xArr[p] - xFrom) * scale), nColumns - 1);
+				if (col != column) {
+					if (column >= 0) {
+						nDecimated = addDecimatedColumn(indexes, nDecimated, iFirst, iLow, iUpp, iLast);
+					}
+					column = col;
+					iFirst = i;
+					iLow = i;
+					iUpp = i;
+				}
+				if (yArr[p] < yArr[position(iLow)]) {
+					iLow = i;
+				}
+				if (yArr[p] > yArr[position(iUpp)]) {
+					iUpp = i;
+				}
+				iLast = i;
+			}
+			if (column >= 0) {
+				nDecimated = addDecimatedColumn(indexes, nDecimated, iFirst, iLow, iUpp, iLast);
+			}
+			if (iMax < iStop) {
+				indexes[nDecimated++] = iMax;
+			}
+			return Arrays.copyOf(indexes, nDecimated);
+		}
+	}
+
+
+	/**
+	 *  Updates the limits of the data set
+	 */
+	protected void updateData() {
+
+		if (count == 0) {
+			return;
+		}
+
+		xMin = xArr[position(0)];
+		xMax = xArr[position(count - 1)];
+
+		if (!extremaValid) {
+			yMinQueue.clear(xArr.length);
+			yMaxQueue.clear(xArr.length);
+			errMaxQueue.clear(xArr.length);
+			for (int i = 0; i < count; i++) {
+				pushExtrema(position(i));
+			}
+			extremaValid = true;
+		}
+
+		errYmax = errMaxQueue.isEmpty() ? 0.0 : errArr[errMaxQueue.peek()];
+		yMin = yMinQueue.isEmpty() ? Double.MAX_VALUE : yArr[yMinQueue.peek()];
+		yMax = yMaxQueue.isEmpty() ? -Double.MAX_VALUE : yArr[yMaxQueue.peek()];
+
+		yMin = yMin - errYmax;
+		yMax = yMax + errYmax;
+	}
+
+
+	/**
+	 *  adds the first, minimal, maximal and last points of a pixel column to the
+	 *  decimated points in the order of the indexes and returns the new number
+	 *  of decimated points
+	 */
+	private static int addDecimatedColumn(int[] indexes, int nDecimated, int iFirst, int iLow, int iUpp, int iLast) {
+		nDecimated = addDecimatedIndex(indexes, nDecimated, iFirst);
+		nDecimated = addDecimatedIndex(indexes, nDecimated, Math.min(iLow, iUpp));
+		nDecimated = addDecimatedIndex(indexes, nDecimated, Math.max(iLow, iUpp));
+		return addDecimatedIndex(indexes, nDecimated, iLast);
+	}
+
+
+	private static int addDecimatedIndex(int[] indexes, int nDecimated, int index) {
+		if (nDecimated == 0 || indexes[nDecimated - 1] != index) {
+			indexes[nDecimated++] = index;
+		}
+		return nDecimated;
+	}
+
+
+	/**
+	 *  inserts the point keeping the points sorted by x, drops the point with the
+	 *  smallest x if the history is full
+	 */
+	private void insertPoint(double x, double y, double err) {
+		if (count == maxHistory) {
+			if (x < xArr[position(0)]) {
+				return;
+			}
+			removeFirst();
+		}
+		if (count == xArr.length) {
+			resize(Math.min(Math.max(2 * xArr.length, MIN_CAPACITY), maxHistory));
+		}
+		if (count == 0 || x >= xArr[position(count - 1)]) {
+			int p = position(count);
+			count++;
+			setPoint(p, x, y, err);
+			if (extremaValid) {
+				pushExtrema(p);
+			}
+			return;
+		}
+		int index = upperBound(x);
+		if (index < count - index) {
+			first = (first == 0) ? xArr.length - 1 : first - 1;
+			count++;
+			for (int i = 0; i < index; i++) {
+				copyPoint(position(i + 1), position(i));
+			}
+		} else {
+			count++;
+			for (int i = count - 1; i > index; i--) {
+				copyPoint(position(i - 1), position(i));
+			}
+		}
+		setPoint(position(index), x, y, err);
+		extremaValid = false;
+	}
+
+
+	/**
+	 *  inserts the arrays of points which may be not sorted by x
+	 */
+	private void insertSorted(final double[] x, double[] y, double[] err) {
+		boolean sorted = true;
+		for (int i = 1; i < x.length && sorted; i++) {
+			sorted = x[i - 1] <= x[i];
+		}
+		if (sorted) {
+			for (int i = 0; i < x.length; i++) {
+				insertPoint(x[i], y[i], Math.abs(err[i]));
+			}
+			return;
+		}
+		Integer[] order = new Integer[x.length];
+		for (int i = 0; i < x.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order,
+			new Comparator<Integer>() {
+				public int compare(Integer i1, Integer i2) {
+					return Double.compare(x[i1], x[i2]);
+				}
+			});
+		for (int i = 0; i < x.length; i++) {
+			insertPoint(x[order[i]], y[order[i]], Math.abs(err[order[i]]));
+		}
+	}
+
+
+	private void removeFirst() {
+		int p = position(0);
+		if (extremaValid) {
+			yMinQueue.evict(p);
+			yMaxQueue.evict(p);
+			errMaxQueue.evict(p);
+		}
+		first = (first + 1 == xArr.length) ? 0 : first + 1;
+		count--;
+	}
+
+
+	private void removeAt(int index) {
+		if (index == 0) {
+			removeFirst();
+			return;
+		}
+		if (index < count - index) {
+			for (int i = index; i > 0; i--) {
+				copyPoint(position(i - 1), position(i));
+			}
+			first = (first + 1 == xArr.length) ? 0 : first + 1;
+		} else {
+			for (int i = index; i < count - 1; i++) {
+				copyPoint(position(i + 1), position(i));
+			}
+		}
+		count--;
+		extremaValid = false;
+	}
+
+
+	private void clear() {
+		first = 0;
+		count = 0;
+		extremaValid = false;
+	}
+
+
+	/**
+	 *  reallocates the ring buffers with the points starting at the position 0
+	 */
+	private void resize(int capacity) {
+		double[] xNew = new double[capacity];
+		double[] yNew = new double[capacity];
+		double[] errNew = new double[capacity];
+		for (int i = 0; i < count; i++) {
+			int p = position(i);
+			xNew[i] = xArr[p];
+			yNew[i] = yArr[p];
+			errNew[i] = errArr[p];
+		}
+		xArr = xNew;
+		yArr = yNew;
+		errArr = errNew;
+		first = 0;
+		extremaValid = false;
+	}
+
+
+	private void pushExtrema(int p) {
+		yMinQueue.push(yArr, p);
+		yMaxQueue.push(yArr, p);
+		errMaxQueue.push(errArr, p);
+	}
+
+
+	private void setPoint(int p, double x, double y, double err) {
+		xArr[p] = x;
+		yArr[p] = y;
+		errArr[p] = err;
+	}
+
+
+	private void copyPoint(int pFrom, int pTo) {
+		xArr[pTo] = xArr[pFrom];
+		yArr[pTo] = yArr[pFrom];
+		errArr[pTo] = errArr[pFrom];
+	}
+
+
+	/**
+	 *  returns the position in the ring buffers of the point with certain index
+	 */
+	private int position(int index) {
+		int p = first + index;
+		return (p >= xArr.length) ? p - xArr.length : p;
+	}
+
+
+	private int checkedPosition(int index) {
+		if (index < 0 || index >= count) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return position(index);
+	}
+
+
+	/**
+	 *  returns the index of the first point with x not less than the specified x
+	 */
+	private int lowerBound(double x) {
+		int lo = 0;
+		int hi = count;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (xArr[position(mid)] < x) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+
+	/**
+	 *  returns the index of the first point with x greater than the specified x
+	 */
+	private int upperBound(double x) {
+		int lo = 0;
+		int hi = count;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (xArr[position(mid)] <= x) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+
+	/**
+	 *  The queue of the positions of the points which may become the extreme
+	 *  value when the points with smaller x are removed. The value of the first
+	 *  position is the extreme value of the whole history.
+	 */
+	private static class MonotonicQueue {
+
+		private final boolean isMax;
+
+		private int[] positions = new int[0];
+		private int head = 0;
+		private int size = 0;
+
+
+		/**
+		 *  Constructor for the MonotonicQueue object
+		 *
+		 *@param  isMax  true for the maximal value, false for the minimal
+		 */
+		MonotonicQueue(boolean isMax) {
+			this.isMax = isMax;
+		}
+
+
+		void clear(int capacity) {
+			if (positions.length != capacity) {
+				positions = new int[capacity];
+			}
+			head = 0;
+			size = 0;
+		}
+
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+
+		int peek() {
+			return positions[head];
+		}
+
+
+		void push(double[] values, int p) {
+			double value = values[p];
+			if (Double.isNaN(value)) {
+				return;
+			}
+			while (size > 0) {
+				double last = values[positions[index(size - 1)]];
+				if (isMax ? last > value : last < value) {
+					break;
+				}
+				size--;
+			}
+			positions[index(size)] = p;
+			size++;
+		}
+
+
+		void evict(int p) {
+			if (size > 0 && positions[head] == p) {
+				head = index(1);
+				size--;
+			}
+		}
+
+
+		private int index(int i) {
+			int k = head + i;
+			return (k >= positions.length) ? k - positions.length : k;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * TestStreamingGraphData.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.extension.widgets.plot;
+
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Test the eviction of the oldest points from the ring buffers of the streaming graph data,
+ * the tracking of the limits as points are evicted and the decimation of the points for drawing.
+ */
+public class TestStreamingGraphData {
+	/** maximal history of the eviction tests */
+	final static private int MAX_HISTORY = 100;
+
+
+	/** Appending beyond the maximal history must drop the points with the smallest x and track the limits of the remaining points */
+	@Test
+	public void testRingEviction() {
+		final StreamingGraphData data = new StreamingGraphData( MAX_HISTORY );
+
+		// the largest and smallest y values are among the first points and must be forgotten once evicted
+		for ( int index = 0 ; index < 250 ; index++ ) {
+			final double y = index == 10 ? 1000.0 : index == 20 ? -1000.0 : index % 7;
+			data.addPoint( index, y, 0.0 );
+		}
+
+		Assert.assertEquals( MAX_HISTORY, data.getNumbOfPoints() );
+		for ( int index = 0 ; index < MAX_HISTORY ; index++ ) {
+			Assert.assertEquals( 150.0 + index, data.getX( index ), 0.0 );
+			Assert.assertEquals( ( 150 + index ) % 7, data.getY( index ), 0.0 );
+		}
+		Assert.assertEquals( 150.0, data.getMinX(), 0.0 );
+		Assert.assertEquals( 249.0, data.getMaxX(), 0.0 );
+		Assert.assertEquals( 0.0, data.getMinY(), 0.0 );
+		Assert.assertEquals( 6.0, data.getMaxY(), 0.0 );
+
+		// a point older than every point of a full history is dropped
+		data.addPoint( 10.0, 500.0, 0.0 );
+		Assert.assertEquals( MAX_HISTORY, data.getNumbOfPoints() );
+		Assert.assertEquals( 150.0, data.getX( 0 ), 0.0 );
+		Assert.assertEquals( 6.0, data.getMaxY(), 0.0 );
+
+		// a point within the history is inserted in order and evicts the oldest point
+		data.addPoint( 200.5, 50.0, 2.0 );
+		Assert.assertEquals( MAX_HISTORY, data.getNumbOfPoints() );
+		Assert.assertEquals( 151.0, data.getX( 0 ), 0.0 );
+		Assert.assertEquals( 200.5, data.getX( 50 ), 0.0 );
+		Assert.assertEquals( 201.0, data.getX( 51 ), 0.0 );
+		Assert.assertEquals( 52.0, data.getMaxY(), 0.0 );
+		Assert.assertEquals( -2.0, data.getMinY(), 0.0 );
+
+		// shrinking the history keeps the newest points
+		data.setMaxHistory( 10 );
+		Assert.assertEquals( 10, data.getNumbOfPoints() );
+		Assert.assertEquals( 240.0, data.getX( 0 ), 0.0 );
+		Assert.assertEquals( 249.0, data.getX( 9 ), 0.0 );
+		Assert.assertEquals( 240.0, data.getMinX(), 0.0 );
+		Assert.assertEquals( 6.0, data.getMaxY(), 0.0 );
+	}
+
+
+	/** Points appended in batches and out of order must be kept sorted by x */
+	@Test
+	public void testOutOfOrderAppend() {
+		final StreamingGraphData data = new StreamingGraphData( MAX_HISTORY );
+		final Random random = new Random( 0 );
+
+		final double[] x = new double[3 * MAX_HISTORY];
+		final double[] y = new double[x.length];
+		for ( int index = 0 ; index < x.length ; index++ ) {
+			x[index] = index + 20.0 * random.nextDouble();
+			y[index] = random.nextGaussian();
+		}
+		data.appendPoints( x, y );
+
+		Assert.assertEquals( MAX_HISTORY, data.getNumbOfPoints() );
+		for ( int index = 1 ; index < MAX_HISTORY ; index++ ) {
+			Assert.assertTrue( data.getX( index - 1 ) <= data.getX( index ) );
+		}
+
+		double minY = Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for ( int index = 0 ; index < MAX_HISTORY ; index++ ) {
+			minY = Math.min( minY, data.getY( index ) );
+			maxY = Math.max( maxY, data.getY( index ) );
+		}
+		Assert.assertEquals( minY, data.getMinY(), 0.0 );
+		Assert.assertEquals( maxY, data.getMaxY(), 0.0 );
+	}
+
+
+	/** Few points must all be kept along with the nearest points outside of the range */
+	@Test
+	public void testDecimationOfFewPoints() {
+		final StreamingGraphData data = new StreamingGraphData();
+		for ( int index = 0 ; index < 20 ; index++ ) {
+			data.addPoint( index, index * index, 0.0 );
+		}
+
+		Assert.assertArrayEquals( new int[] { 4, 5, 6, 7, 8, 9, 10 }, data.decimate( 5.0, 9.0, 100 ) );
+		Assert.assertArrayEquals( new int[] { 4, 5, 6, 7, 8, 9, 10 }, data.decimate( 9.0, 5.0, 100 ) );
+		Assert.assertEquals( 20, data.decimate( -5.0, 50.0, 100 ).length );
+		Assert.assertEquals( 0, new StreamingGraphData().decimate( 0.0, 1.0, 100 ).length );
+	}
+
+
+	/** Each pixel column must keep its first, last, minimal and maximal points in increasing order of index */
+	@Test
+	public void testDecimation() {
+		final int pointCount = 100000;
+		final int columns = 100;
+		final double xFrom = 0.1;
+		final double xTo = 0.9;
+		final Random random = new Random( 1 );
+
+		final StreamingGraphData data = new StreamingGraphData();
+		final double[] x = new double[pointCount];
+		final double[] y = new double[pointCount];
+		for ( int index = 0 ; index < pointCount ; index++ ) {
+			x[index] = (double)index / pointCount;
+			y[index] = Math.sin( 20.0 * x[index] ) + 0.1 * random.nextGaussian() + ( index % 9973 == 0 ? 5.0 : 0.0 );
+		}
+		data.appendPoints( x, y );
+
+		final int[] indexes = data.decimate( xFrom, xTo, columns );
+		Assert.assertTrue( indexes.length <= 4 * columns + 2 );
+		for ( int index = 1 ; index < indexes.length ; index++ ) {
+			Assert.assertTrue( indexes[index - 1] < indexes[index] );
+		}
+
+		// the nearest points outside of the range are kept
+		Assert.assertTrue( data.getX( indexes[0] ) < xFrom );
+		Assert.assertTrue( data.getX( indexes[1] ) >= xFrom );
+		Assert.assertTrue( data.getX( indexes[indexes.length - 1] ) > xTo );
+		Assert.assertTrue( data.getX( indexes[indexes.length - 2] ) <= xTo );
+
+		// every column has the extreme values and the first and last points of all its points
+		final double scale = columns / ( xTo - xFrom );
+		final double[] minY = new double[columns];
+		final double[] maxY = new double[columns];
+		final int[] firstIndexes = new int[columns];
+		final int[] lastIndexes = new int[columns];
+		Arrays.fill( minY, Double.MAX_VALUE );
+		Arrays.fill( maxY, -Double.MAX_VALUE );
+		Arrays.fill( firstIndexes, -1 );
+		for ( int index = 0 ; index < pointCount ; index++ ) {
+			if ( x[index] < xFrom || x[index] > xTo )  continue;
+			final int column = Math.min( (int)( ( x[index] - xFrom ) * scale ), columns - 1 );
+			minY[column] = Math.min( minY[column], y[index] );
+			maxY[column] = Math.max( maxY[column], y[index] );
+			if ( firstIndexes[column] < 0 )  firstIndexes[column] = index;
+			lastIndexes[column] = index;
+		}
+
+		final double[] decimatedMinY = new double[columns];
+		final double[] decimatedMaxY = new double[columns];
+		Arrays.fill( decimatedMinY, Double.MAX_VALUE );
+		Arrays.fill( decimatedMaxY, -Double.MAX_VALUE );
+		final Set<Integer> decimatedSet = new HashSet<Integer>();
+		for ( final int index : indexes ) {
+			decimatedSet.add( index );
+			if ( x[index] < xFrom || x[index] > xTo )  continue;
+			final int column = Math.min( (int)( ( x[index] - xFrom ) * scale ), columns - 1 );
+			decimatedMinY[column] = Math.min( decimatedMinY[column], y[index] );
+			decimatedMaxY[column] = Math.max( decimatedMaxY[column], y[index] );
+		}
+
+		for ( int column = 0 ; column < columns ; column++ ) {
+			Assert.assertEquals( minY[column], decimatedMinY[column], 0.0 );
+			Assert.assertEquals( maxY[column], decimatedMaxY[column], 0.0 );
+			Assert.assertTrue( decimatedSet.contains( firstIndexes[column] ) );
+			Assert.assertTrue( decimatedSet.contains( lastIndexes[column] ) );
+		}
+	}
+
+
+	/** The indexes returned are a snapshot which later changes of the data and later decimations do not alter */
+	@Test
+	public void testDecimationSnapshot() {
+		final StreamingGraphData data = new StreamingGraphData();
+		for ( int index = 0 ; index < 1000 ; index++ ) {
+			data.addPoint( index, index % 13, 0.0 );
+		}
+
+		final int[] indexes = data.decimate( 0.0, 999.0, 10 );
+		final int[] copy = indexes.clone();
+
+		for ( int index = 1000 ; index < 2000 ; index++ ) {
+			data.addPoint( index, index % 17, 0.0 );
+		}
+		final int[] laterIndexes = data.decimate( 0.0, 1999.0, 10 );
+
+		Assert.assertNotSame( indexes, laterIndexes );
+		Assert.assertArrayEquals( copy, indexes );
+	}
+}
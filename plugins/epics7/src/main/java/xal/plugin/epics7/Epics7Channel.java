@@ -17,6 +17,12 @@
  */
 package xal.plugin.epics7;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -94,6 +100,11 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
     public static final String VALUE_REQUEST = VALUE_FIELD;
     public static final String STATUS_REQUEST = VALUE_FIELD + "," + ALARM_FIELD;
     public static final String TIME_REQUEST = STATUS_REQUEST + "," + TIMESTAMP_FIELD;
+    public static final String METADATA_REQUEST = DISPLAY_FIELD + "," + CONTROL_FIELD + "," + VALUE_ALARM_FIELD;
+
+    // Parsed pvRequests keyed by request string, shared by all channels.
+    private static final Map<String, PVStructure> PV_REQUESTS = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_PV_REQUESTS = 256;
 
     private static final String CA_PREFIX = "ca://";
     private static final String PVA_PREFIX = "pva://";
@@ -106,6 +117,15 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
 
     private CountDownLatch connectionLatch;
 
+    // Long-lived get requesters keyed by request and the put requester, reused while the native channel is the same.
+    private final Map<String, ChannelGetRequesterImpl> channelGets = new ConcurrentHashMap<>();
+    private volatile ChannelPutRequesterImpl channelPut;
+
+    // Metadata structures (display, control and valueAlarm) keyed by field, filled and kept up to date by the metadata monitor.
+    private final Map<String, PVStructure> metadata = new ConcurrentHashMap<>();
+    private volatile Epics7Monitor metadataMonitor;
+    private final Object metadataLock = new Object();
+
     public Epics7Channel(String signalName, Epics7ChannelSystem epics7ChannelSystem) {
         super(signalName);
 
@@ -121,6 +141,24 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
         return nativeChannel;
     }
 
+    /**
+     * Returns the parsed pvRequest for the request string. Parsing is done only
+     * the first time a request is used since the pvRequest is never modified.
+     *
+     * @param request request string, e.g. "value,alarm"
+     * @return parsed pvRequest or null if the request cannot be parsed
+     */
+    static PVStructure getPvRequest(String request) {
+        PVStructure pvRequest = PV_REQUESTS.get(request);
+        if (pvRequest == null) {
+            pvRequest = CreateRequest.create().createRequest(request);
+            if (pvRequest != null && PV_REQUESTS.size() < MAX_CACHED_PV_REQUESTS) {
+                PV_REQUESTS.putIfAbsent(request, pvRequest);
+            }
+        }
+        return pvRequest;
+    }
+
     @Override
     public boolean connectAndWait(double timeout) {
         requestConnection();
@@ -172,6 +210,22 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
         }
         nativeChannel = null;
         connectionFlag = false;
+
+        // Monitors, gets and puts are destroyed together with the native channels.
+        synchronized (metadataLock) {
+            metadataMonitor = null;
+            metadata.clear();
+        }
+        releaseRequesters();
+    }
+
+    private void releaseRequesters() {
+        for (ChannelGetRequesterImpl channelGet : channelGets.values()) {
+            channelGet.destroy();
+        }
+        channelGets.clear();
+
+        releaseChannelPut();
     }
 
     //---------------- Implementing ChannelRequester abstract methods ------------------
@@ -210,6 +264,11 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
                 connectionProxy.connectionDropped(this);
             }
             connectionFlag = false;
+
+            // The metadata may change while disconnected. The metadata monitor
+            // refills the cache once it reconnects.
+            metadata.clear();
+            releaseRequesters();
         }
     }
 
@@ -271,29 +330,62 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
     }
 
     protected PVStructure getControl() throws ConnectionException, GetException {
-        PVStructure pvStructure = get(CONTROL_FIELD);
-        if (pvStructure != null) {
-            return pvStructure.getStructureField(CONTROL_FIELD);
-        } else {
-            return null;
-        }
+        return getMetadata(CONTROL_FIELD);
     }
 
     protected PVStructure getDisplay() throws ConnectionException, GetException {
-        PVStructure pvStructure = get(DISPLAY_FIELD);
-        if (pvStructure != null) {
-            return pvStructure.getStructureField(DISPLAY_FIELD);
-        } else {
-            return null;
-        }
+        return getMetadata(DISPLAY_FIELD);
     }
 
     protected PVStructure getVAlueAlarm() throws ConnectionException, GetException {
-        PVStructure pvStructure = get(VALUE_ALARM_FIELD);
-        if (pvStructure != null) {
-            return pvStructure.getStructureField(VALUE_ALARM_FIELD);
-        } else {
-            return null;
+        return getMetadata(VALUE_ALARM_FIELD);
+    }
+
+    /**
+     * Returns the metadata structure of the given field. The metadata monitor
+     * keeps the structures up to date once it has received its first event, so
+     * the limits are only fetched from the IOC until then.
+     *
+     * @param field display, control or valueAlarm
+     * @return the metadata structure or null if the channel doesn't have it
+     */
+    protected PVStructure getMetadata(String field) throws ConnectionException, GetException {
+        PVStructure structure = metadata.get(field);
+        if (structure == null) {
+            startMetadataMonitor();
+
+            PVStructure pvStructure = get(field);
+            if (pvStructure != null) {
+                structure = pvStructure.getStructureField(field);
+            }
+        }
+        return structure;
+    }
+
+    /**
+     * Starts the monitor that caches the metadata if not started yet.
+     */
+    private void startMetadataMonitor() {
+        if (metadataMonitor == null && nativeChannel != null) {
+            synchronized (metadataLock) {
+                if (metadataMonitor == null) {
+                    try {
+                        metadataMonitor = Epics7Monitor.createNewMonitor(this, METADATA_REQUEST, this::updateMetadata, 0);
+                    } catch (ConnectionException | RuntimeException ex) {
+                        Logger.getLogger(Epics7Channel.class.getName()).log(Level.FINE, "Metadata of " + channelName() + " won't be cached.", ex);
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateMetadata(PVStructure pvStructure) {
+        for (String field : new String[]{DISPLAY_FIELD, CONTROL_FIELD, VALUE_ALARM_FIELD}) {
+            PVStructure structure = pvStructure.getStructureField(field);
+            if (structure != null) {
+                // The monitor element is reused after the event, so keep a copy.
+                metadata.put(field, PVDataFactory.getPVDataCreate().createPVStructure(structure));
+            }
         }
     }
 
@@ -399,7 +491,15 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
             Logger.getLogger(Epics7Channel.class.getName()).log(Level.SEVERE, null, ex);
         }
 
-        return listener.getPvStructure();
+        PVStructure pvStructure = listener.getPvStructure();
+        if (pvStructure == null) {
+            // The get may be stuck, so the next get starts over with a new ChannelGet.
+            ChannelGetRequesterImpl channelGet = channelGets.remove(request);
+            if (channelGet != null) {
+                channelGet.destroy();
+            }
+        }
+        return pvStructure;
     }
 
     public PVStructure get(String request) throws ConnectionException, GetException {
@@ -409,13 +509,42 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
     public void getCallback(String request, final EventListener listener, boolean attemptConnection) throws ConnectionException, GetException {
         checkConnection("ChannelGet", attemptConnection);
 
-        ChannelGetRequesterImpl channelGetRequester = new ChannelGetRequesterImpl(listener);
+        // A requester destroyed meanwhile does not take the listener, so the get starts over with a new one.
+        while (true) {
+            ChannelGetRequesterImpl channelGetRequester = getChannelGetRequester(request);
+            if (channelGetRequester == null || channelGetRequester.get(listener)) {
+                return;
+            }
+        }
+    }
 
-        CreateRequest createRequest = CreateRequest.create();
-        PVStructure pvRequest = createRequest.createRequest(request);
-        if (pvRequest != null) {
-            nativeChannel.createChannelGet(channelGetRequester, pvRequest);
+    /**
+     * Returns the get requester of the request for the current native channel,
+     * creating it the first time the request is used or when the previous one
+     * was destroyed.
+     */
+    private ChannelGetRequesterImpl getChannelGetRequester(String request) {
+        Channel channel = nativeChannel;
+        ChannelGetRequesterImpl channelGetRequester = channelGets.get(request);
+        if (channelGetRequester == null || channelGetRequester.getNativeChannel() != channel || channelGetRequester.isDestroyed()) {
+            PVStructure pvRequest = getPvRequest(request);
+            if (pvRequest == null) {
+                return null;
+            }
+            synchronized (channelGets) {
+                channelGetRequester = channelGets.get(request);
+                if (channelGetRequester == null || channelGetRequester.getNativeChannel() != channel || channelGetRequester.isDestroyed()) {
+                    if (channelGetRequester != null) {
+                        channelGetRequester.destroy();
+                    }
+                    // A requester whose ChannelGet cannot connect is removed so the next get starts over.
+                    channelGetRequester = new ChannelGetRequesterImpl(channel, pvRequest,
+                            () -> channelGets.values().removeIf(ChannelGetRequesterImpl::isDestroyed));
+                    channelGets.put(request, channelGetRequester);
+                }
+            }
         }
+        return channelGetRequester;
     }
 
     public void getCallback(String request, EventListener listener) throws ConnectionException, GetException {
@@ -518,16 +647,16 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
             listener = new PutListenerImpl();
         }
 
-        ChannelPutRequester channelPutRequester = new ChannelPutRequesterImpl(listener, this, putListener);
-
-        CreateRequest createRequest = CreateRequest.create();
-        PVStructure pvRequest = createRequest.createRequest(VALUE_REQUEST);
-
-        nativeChannel.createChannelPut(channelPutRequester, pvRequest);
+        getChannelPutRequester().put(listener, putListener);
 
         if (listener instanceof PutListenerImpl) {
             try {
-                ((PutListenerImpl) listener).await((long) (1000 * m_dblTmIO), TimeUnit.MILLISECONDS);
+                if (!((PutListenerImpl) listener).await((long) (1000 * m_dblTmIO), TimeUnit.MILLISECONDS)) {
+                    // The put may be stuck, so the next put starts over with a new ChannelPut.
+                    releaseChannelPut();
+                } else if (((PutListenerImpl) listener).isFailed()) {
+                    throw new PutException("channelPutConnect failed");
+                }
             } catch (InterruptedException ex) {
                 Logger.getLogger(Epics7Channel.class.getName()).log(Level.SEVERE, null, ex);
                 throw new PutException("Timeout");
@@ -535,6 +664,39 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
         }
     }
 
+    /**
+     * Returns the put requester for the current native channel, creating it the
+     * first time a value is put.
+     */
+    private ChannelPutRequesterImpl getChannelPutRequester() {
+        Channel channel = nativeChannel;
+        ChannelPutRequesterImpl put = channelPut;
+        if (put == null || put.getNativeChannel() != channel || put.isDestroyed()) {
+            synchronized (channelGets) {
+                put = channelPut;
+                if (put == null || put.getNativeChannel() != channel || put.isDestroyed()) {
+                    if (put != null) {
+                        put.destroy();
+                    }
+                    put = new ChannelPutRequesterImpl(this, channel, getPvRequest(VALUE_REQUEST));
+                    channelPut = put;
+                }
+            }
+        }
+        return put;
+    }
+
+    private void releaseChannelPut() {
+        ChannelPutRequesterImpl put;
+        synchronized (channelGets) {
+            put = channelPut;
+            channelPut = null;
+        }
+        if (put != null) {
+            put.destroy();
+        }
+    }
+
     @Override
     public void putRawValCallback(String newVal, PutListener listener) throws ConnectionException, PutException {
         putRawValCallback(listener, (pvStructure) -> {
@@ -674,29 +836,193 @@ public class Epics7Channel extends xal.ca.Channel implements ChannelRequester {
 
 }
 
+/**
+ * Long-lived get requester of one request on a native channel. The ChannelGet
+ * is created by the first get and reused by the following ones. Only one get is
+ * in progress at a time: listeners that arrive meanwhile are served together by
+ * the next get, so they always receive a value read after they asked for it.
+ */
 class ChannelGetRequesterImpl implements ChannelGetRequester {
 
-    private final EventListener listener;
+    private final Channel nativeChannel;
+    private final PVStructure pvRequest;
+    private final Runnable connectFailed;
 
-    public ChannelGetRequesterImpl(EventListener listener) {
-        this.listener = listener;
+    private final Object lock = new Object();
+    private volatile ChannelGet channelGet;
+    private boolean created = false;
+    private boolean destroyed = false;
+    // Listeners waiting for the next get and listeners of the get in progress (null if none).
+    private List<EventListener> pendingListeners = new ArrayList<>();
+    private List<EventListener> activeListeners;
+
+    public ChannelGetRequesterImpl(Channel nativeChannel, PVStructure pvRequest) {
+        this(nativeChannel, pvRequest, null);
+    }
+
+    /**
+     * @param nativeChannel channel on which the gets are made
+     * @param pvRequest request of the gets
+     * @param connectFailed action run after the ChannelGet failed to connect
+     * and the requester was destroyed, or null if none
+     */
+    public ChannelGetRequesterImpl(Channel nativeChannel, PVStructure pvRequest, Runnable connectFailed) {
+        this.nativeChannel = nativeChannel;
+        this.pvRequest = pvRequest;
+        this.connectFailed = connectFailed;
+    }
+
+    public Channel getNativeChannel() {
+        return nativeChannel;
+    }
+
+    /**
+     * Requests a get whose result is sent to the listener.
+     *
+     * @param listener listener of the result
+     * @return false if the requester was destroyed and the get was not requested
+     */
+    public boolean get(EventListener listener) {
+        boolean create;
+        synchronized (lock) {
+            if (destroyed) {
+                return false;
+            }
+            pendingListeners.add(listener);
+            create = !created;
+            created = true;
+        }
+
+        if (create) {
+            nativeChannel.createChannelGet(this, pvRequest);
+        } else {
+            issueGet();
+        }
+        return true;
+    }
+
+    private void issueGet() {
+        ChannelGet get;
+        synchronized (lock) {
+            get = channelGet;
+            if (get == null || destroyed || activeListeners != null || pendingListeners.isEmpty()) {
+                return;
+            }
+            activeListeners = pendingListeners;
+            pendingListeners = new ArrayList<>();
+        }
+        get.get();
+    }
+
+    public boolean isDestroyed() {
+        synchronized (lock) {
+            return destroyed;
+        }
+    }
+
+    public void destroy() {
+        releaseListeners(destroyRequester());
+    }
+
+    /**
+     * Marks the requester destroyed and destroys its ChannelGet.
+     *
+     * @return the listeners of the gets that will not be done
+     */
+    private List<EventListener> destroyRequester() {
+        List<EventListener> listeners = new ArrayList<>();
+        ChannelGet get;
+        synchronized (lock) {
+            destroyed = true;
+            if (activeListeners != null) {
+                listeners.addAll(activeListeners);
+                activeListeners = null;
+            }
+            listeners.addAll(pendingListeners);
+            pendingListeners.clear();
+            get = channelGet;
+            channelGet = null;
+        }
+        if (get != null) {
+            get.destroy();
+        }
+        return listeners;
+    }
+
+    /**
+     * Releases the synchronous gets waiting for the given listeners without a
+     * value. The other listeners are dropped since they cannot receive a value.
+     *
+     * @return the number of listeners dropped
+     */
+    private static int releaseListeners(List<EventListener> listeners) {
+        int dropped = 0;
+        for (EventListener listener : listeners) {
+            if (listener instanceof GetListener) {
+                listener.event(null);
+            } else if (listener != null) {
+                dropped++;
+            }
+        }
+        return dropped;
     }
 
     @Override
     public void channelGetConnect(Status status, ChannelGet channelGet, Structure structure) {
-        channelGet.lastRequest();
-        channelGet.get();
+        if (status != null && !status.isSuccess()) {
+            if (channelGet != null) {
+                channelGet.destroy();
+            }
+            int dropped = releaseListeners(destroyRequester());
+            Logger.getLogger(Epics7Channel.class.getName()).log(Level.SEVERE, "channelGetConnect failed: {0}, {1} get callbacks dropped",
+                    new Object[]{status.getMessage(), dropped});
+            if (connectFailed != null) {
+                connectFailed.run();
+            }
+            return;
+        }
+
+        synchronized (lock) {
+            if (destroyed) {
+                channelGet.destroy();
+                return;
+            }
+            this.channelGet = channelGet;
+            // A get in progress is lost when the channel reconnects, so it is requested again.
+            if (activeListeners != null) {
+                activeListeners.addAll(pendingListeners);
+                pendingListeners = activeListeners;
+                activeListeners = null;
+            }
+        }
+        issueGet();
     }
 
     @Override
     public void getDone(Status status, ChannelGet channelGet, PVStructure pvStructure, BitSet bitSet) {
+        List<EventListener> listeners;
+        synchronized (lock) {
+            listeners = activeListeners;
+            activeListeners = null;
+        }
+
         if (status.isSuccess()) {
-            listener.event(pvStructure);
+            if (listeners != null) {
+                // The structure belongs to the ChannelGet and is overwritten by the next get.
+                PVStructure result = PVDataFactory.getPVDataCreate().createPVStructure(pvStructure);
+                for (EventListener listener : listeners) {
+                    if (listener != null) {
+                        listener.event(result);
+                    }
+                }
+            }
         } else {
             Logger.getLogger(Epics7Channel.class.getName()).log(Level.SEVERE,
                     "GetDone was not successful for {0}",
                     channelGet.getChannel().getChannelName());
         }
+
+        issueGet();
     }
 
     @Override
@@ -710,38 +1036,171 @@ class ChannelGetRequesterImpl implements ChannelGetRequester {
     }
 }
 
+/**
+ * Long-lived put requester of the value of a native channel. The ChannelPut is
+ * created by the first put and reused by the following ones. Puts are sent one
+ * at a time in the order they were requested.
+ */
 class ChannelPutRequesterImpl implements ChannelPutRequester {
 
-    private final PutListener listener;
     private final Epics7Channel channel;
-    private final EventListener put;
+    private final Channel nativeChannel;
+    private final PVStructure pvRequest;
+
+    private final Object lock = new Object();
+    private volatile ChannelPut channelPut;
+    private boolean created = false;
+    private boolean destroyed = false;
+    // Structure sent by every put, which is only modified by the put in progress.
+    private PVStructure pvStructure;
+    private BitSet bitSet;
+    private final Deque<PendingPut> pendingPuts = new ArrayDeque<>();
+    private PendingPut activePut;
+
+    private static class PendingPut {
+
+        private final PutListener listener;
+        private final EventListener put;
+
+        private PendingPut(PutListener listener, EventListener put) {
+            this.listener = listener;
+            this.put = put;
+        }
+    }
 
-    protected ChannelPutRequesterImpl(PutListener listener, Epics7Channel channel, EventListener put) {
-        this.listener = listener;
+    protected ChannelPutRequesterImpl(Epics7Channel channel, Channel nativeChannel, PVStructure pvRequest) {
         this.channel = channel;
-        this.put = put;
+        this.nativeChannel = nativeChannel;
+        this.pvRequest = pvRequest;
+    }
+
+    public Channel getNativeChannel() {
+        return nativeChannel;
+    }
+
+    /**
+     * Requests a put.
+     *
+     * @param listener listener notified when the put is done
+     * @param put listener that sets the new value in the structure to put
+     */
+    public void put(PutListener listener, EventListener put) {
+        boolean create;
+        synchronized (lock) {
+            if (destroyed) {
+                return;
+            }
+            pendingPuts.add(new PendingPut(listener, put));
+            create = !created;
+            created = true;
+        }
+
+        if (create) {
+            nativeChannel.createChannelPut(this, pvRequest);
+        } else {
+            issuePut();
+        }
+    }
+
+    private void issuePut() {
+        ChannelPut put;
+        PendingPut nextPut;
+        synchronized (lock) {
+            put = channelPut;
+            if (put == null || destroyed || activePut != null || pendingPuts.isEmpty()) {
+                return;
+            }
+            nextPut = pendingPuts.poll();
+            activePut = nextPut;
+        }
+
+        nextPut.put.event(pvStructure);
+        put.put(pvStructure, bitSet);
+    }
+
+    public boolean isDestroyed() {
+        synchronized (lock) {
+            return destroyed;
+        }
+    }
+
+    public void destroy() {
+        ChannelPut put;
+        synchronized (lock) {
+            destroyed = true;
+            pendingPuts.clear();
+            put = channelPut;
+            channelPut = null;
+        }
+        if (put != null) {
+            put.destroy();
+        }
     }
 
     @Override
     public void channelPutConnect(Status status, ChannelPut channelPut, Structure structure) {
-        channelPut.lastRequest();
         if (status.isSuccess()) {
-            PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(structure);
-
-            put.event(pvStructure);
-
-            BitSet bitSet = new BitSet(pvStructure.getNumberFields());
-            PVField val = pvStructure.getSubField(Epics7Channel.VALUE_REQUEST);
-            bitSet.set(val.getFieldOffset());
-            channelPut.put(pvStructure, bitSet);
+            synchronized (lock) {
+                pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(structure);
+                bitSet = new BitSet(pvStructure.getNumberFields());
+                PVField val = pvStructure.getSubField(Epics7Channel.VALUE_REQUEST);
+                bitSet.set(val.getFieldOffset());
+
+                this.channelPut = channelPut;
+                // A put in progress is lost when the channel reconnects, so it is sent again.
+                if (activePut != null) {
+                    pendingPuts.addFirst(activePut);
+                    activePut = null;
+                }
+            }
+            issuePut();
         } else {
-            Logger.getLogger(Epics7Channel.class.getName()).severe("channelPutConnect failed");
+            // None of the queued puts can be sent, so they are dropped and the
+            // next put starts over with a new requester.
+            List<PendingPut> failedPuts = new ArrayList<>();
+            ChannelPut put;
+            synchronized (lock) {
+                destroyed = true;
+                if (activePut != null) {
+                    failedPuts.add(activePut);
+                    activePut = null;
+                }
+                failedPuts.addAll(pendingPuts);
+                pendingPuts.clear();
+                put = this.channelPut;
+                this.channelPut = null;
+            }
+            if (put != null) {
+                put.destroy();
+            }
+
+            Logger.getLogger(Epics7Channel.class.getName()).log(Level.SEVERE, "channelPutConnect failed: {0}, {1} puts dropped",
+                    new Object[]{status.getMessage(), failedPuts.size()});
+            // Puts waiting for completion fail instead of timing out.
+            for (PendingPut failedPut : failedPuts) {
+                if (failedPut.listener instanceof PutListenerImpl) {
+                    ((PutListenerImpl) failedPut.listener).fail();
+                }
+            }
         }
     }
 
     @Override
     public void putDone(Status status, ChannelPut channelPut) {
-        listener.putCompleted(channel);
+        PendingPut donePut;
+        synchronized (lock) {
+            // Only the put in progress can be done: the queued ones were not sent yet.
+            donePut = activePut;
+            activePut = null;
+        }
+
+        if (donePut != null) {
+            donePut.listener.putCompleted(channel);
+        } else {
+            Logger.getLogger(Epics7Channel.class.getName()).warning("putDone received without a put in progress");
+        }
+
+        issuePut();
     }
 
     @Override
@@ -763,6 +1222,7 @@ class ChannelPutRequesterImpl implements ChannelPutRequester {
 class PutListenerImpl implements PutListener {
 
     private final CountDownLatch doneSignal;
+    private volatile boolean failed = false;
 
     public PutListenerImpl() {
         this.doneSignal = new CountDownLatch(1);
@@ -773,7 +1233,19 @@ class PutListenerImpl implements PutListener {
         doneSignal.countDown();
     }
 
-    public void await(long timeout, TimeUnit unit) throws InterruptedException {
-        doneSignal.await(timeout, unit);
+    /**
+     * Releases the waiting put, which could not be sent.
+     */
+    public void fail() {
+        failed = true;
+        doneSignal.countDown();
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return doneSignal.await(timeout, unit);
     }
 }
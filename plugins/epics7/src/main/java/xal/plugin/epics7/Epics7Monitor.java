@@ -20,7 +20,6 @@ package xal.plugin.epics7;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.epics.pvaccess.client.Channel;
-import org.epics.pvdata.copy.CreateRequest;
 import org.epics.pvdata.monitor.Monitor;
 import org.epics.pvdata.monitor.MonitorElement;
 import org.epics.pvdata.monitor.MonitorRequester;
@@ -56,8 +55,7 @@ public class Epics7Monitor extends xal.ca.Monitor implements MonitorRequester {
     }
 
     private void createRequest(Epics7Channel channel, String request) {
-        CreateRequest createRequest = CreateRequest.create();
-        PVStructure pvRequest = createRequest.createRequest(request);
+        PVStructure pvRequest = Epics7Channel.getPvRequest(request);
 
         nativeChannel = channel.getNativeChannel();
         nativeMonitor = nativeChannel.createMonitor(this, pvRequest);
@@ -17,6 +17,7 @@
  */
 package xal.plugin.epics7;
 
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.epics.pvaccess.client.Channel;
@@ -44,6 +45,8 @@ import static xal.plugin.epics7.Epics7Channel.TIMESTAMP_FIELD;
  */
 public class ChannelGetRequesterImplTest {
 
+    boolean listenerCalled = false;
+
     private class ChannelGetTestImpl implements ChannelGet {
 
         public boolean getCalled = false;
@@ -102,9 +105,10 @@ public class ChannelGetRequesterImplTest {
         Structure structure = null;
         EventListener listener = (event) -> {
         };
-        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(listener);
+        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(new TestChannel("test", null), null);
+        instance.get(listener);
         instance.channelGetConnect(status, channelGet, structure);
-        assertEquals(channelGet.lastRequestCalled, true);
+        assertEquals(channelGet.lastRequestCalled, false);
         assertEquals(channelGet.getCalled, true);
     }
 
@@ -123,12 +127,83 @@ public class ChannelGetRequesterImplTest {
         PVDataCreate pvDataCreate = PVDataFactory.getPVDataCreate();
         PVStructure pvStructure = pvDataCreate.createPVStructure(structure);
         BitSet bitSet = null;
+        listenerCalled = false;
         EventListener listener = (pvS) -> {
             assertEquals(pvS, pvStructure);
+            listenerCalled = true;
         };
-        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(listener);
+        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(new TestChannel("test", null), null);
+        instance.get(listener);
+        instance.channelGetConnect(status, channelGet, structure);
 
         instance.getDone(status, channelGet, pvStructure, bitSet);
+        assertEquals(listenerCalled, true);
+    }
+
+    /**
+     * Test that the ChannelGet is reused by the following gets.
+     */
+    @Test
+    public void testGetReuse() {
+        System.out.println("getReuse");
+
+        Status status = StatusFactory.getStatusCreate().getStatusOK();
+        ChannelGetTestImpl channelGet = new ChannelGetTestImpl();
+        Structure structure = StandardFieldFactory.getStandardField().scalar(ScalarType.pvDouble, ALARM_FIELD);
+        PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(structure);
+        EventListener listener = (event) -> {
+        };
+        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(new TestChannel("test", null), null);
+        instance.get(listener);
+        instance.channelGetConnect(status, channelGet, structure);
+        instance.getDone(status, channelGet, pvStructure, null);
+
+        channelGet.getCalled = false;
+        instance.get(listener);
+        assertEquals(channelGet.getCalled, true);
+
+        instance.destroy();
+        assertEquals(channelGet.destroyCalled, true);
+    }
+
+    /**
+     * Test that a failed channelGetConnect releases the waiting gets and that
+     * the requester does not accept more gets.
+     */
+    @Test
+    public void testChannelGetConnectFailed() {
+        System.out.println("channelGetConnectFailed");
+
+        Status status = StatusFactory.getStatusCreate().createStatus(Status.StatusType.ERROR, "failed", null);
+        ChannelGetTestImpl channelGet = new ChannelGetTestImpl();
+        boolean[] connectFailedCalled = {false};
+        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(new TestChannel("test", null), null,
+                () -> connectFailedCalled[0] = true);
+        GetListener syncListener = new GetListener();
+        listenerCalled = false;
+        EventListener asyncListener = (event) -> {
+            listenerCalled = true;
+        };
+        assertEquals(instance.get(syncListener), true);
+        assertEquals(instance.get(asyncListener), true);
+
+        instance.channelGetConnect(status, channelGet, null);
+
+        assertEquals(instance.isDestroyed(), true);
+        assertEquals(connectFailedCalled[0], true);
+        assertEquals(channelGet.getCalled, false);
+        assertEquals(channelGet.destroyCalled, true);
+        assertNull(syncListener.getPvStructure());
+        assertEquals(listenerCalled, false);
+
+        // The waiting get was released without waiting for the timeout.
+        try {
+            assertEquals(syncListener.await(0, TimeUnit.MILLISECONDS), true);
+        } catch (InterruptedException ex) {
+            fail(ex.getMessage());
+        }
+
+        assertEquals(instance.get(asyncListener), false);
     }
 
     /**
@@ -139,7 +214,7 @@ public class ChannelGetRequesterImplTest {
         System.out.println("getRequesterName");
         EventListener listener = (event) -> {
         };
-        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(listener);
+        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(null, null);
         boolean exceptionGenerated = false;
         try {
             String result = instance.getRequesterName();
@@ -159,7 +234,7 @@ public class ChannelGetRequesterImplTest {
         MessageType messageType = null;
         EventListener listener = (event) -> {
         };
-        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(listener);
+        ChannelGetRequesterImpl instance = new ChannelGetRequesterImpl(null, null);
         HandlerImpl handler = new HandlerImpl();
         Logger.getLogger(Epics7Channel.class.getName()).addHandler(handler);
         instance.message(message, messageType);
@@ -20,6 +20,7 @@ package xal.plugin.epics7;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.epics.pvaccess.client.ChannelPut;
+import org.epics.pvaccess.client.ChannelPutRequester;
 import org.epics.pvdata.factory.StandardFieldFactory;
 import org.epics.pvdata.factory.StatusFactory;
 import org.epics.pvdata.misc.BitSet;
@@ -62,10 +63,11 @@ public class ChannelPutRequesterImplTest {
         EventListener put = (event) -> {
             eventListenerCalled = true;
         };
-        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(listener, channel, put);
+        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(channel, new ChannelPutTestChannel(), null);
+        instance.put(listener, put);
         instance.channelPutConnect(status, channelPut, structure);
 
-        assertEquals(channelPut.lastRequestCalled, true);
+        assertEquals(channelPut.lastRequestCalled, false);
         assertEquals(channelPut.putCalled, true);
         assertEquals(eventListenerCalled, true);
     }
@@ -77,33 +79,113 @@ public class ChannelPutRequesterImplTest {
     public void testPutDone() {
         System.out.println("putDone");
         putListenerCalled = false;
-        Status status = null;
-        ChannelPut channelPut = null;
+        Status status = StatusFactory.getStatusCreate().getStatusOK();
+        ChannelPutImpl channelPut = new ChannelPutImpl();
+        Structure structure = StandardFieldFactory.getStandardField().scalar(ScalarType.pvDouble, ALARM_FIELD);
         PutListener listener = (event) -> {
             putListenerCalled = true;
         };
         Epics7Channel channel = null;
         EventListener put = (event) -> {
         };
-        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(listener, channel, put);
+        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(channel, new ChannelPutTestChannel(), null);
+        instance.put(listener, put);
+        instance.channelPutConnect(status, channelPut, structure);
         instance.putDone(status, channelPut);
 
         assertEquals(putListenerCalled, true);
     }
 
     /**
-     * Test of getRequesterName method, of class ChannelPutRequesterImpl.
+     * Test that the puts are sent one at a time through the same ChannelPut.
      */
     @Test
-    public void testGetRequesterName() {
-        System.out.println("getRequesterName");
+    public void testPutReuse() {
+        System.out.println("putReuse");
+        Status status = StatusFactory.getStatusCreate().getStatusOK();
+        ChannelPutImpl channelPut = new ChannelPutImpl();
+        Structure structure = StandardFieldFactory.getStandardField().scalar(ScalarType.pvDouble, ALARM_FIELD);
+        PutListener listener = (event) -> {
+        };
+        EventListener put = (event) -> {
+        };
+        ChannelPutTestChannel nativeChannel = new ChannelPutTestChannel();
+        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(null, nativeChannel, null);
+        instance.put(listener, put);
+        instance.channelPutConnect(status, channelPut, structure);
+
+        // The second put waits until the first one is done.
+        channelPut.putCalled = false;
+        instance.put(listener, put);
+        assertEquals(channelPut.putCalled, false);
+
+        instance.putDone(status, channelPut);
+        assertEquals(channelPut.putCalled, true);
+        assertEquals(nativeChannel.createChannelPutCalls, 1);
+    }
 
+    /**
+     * Test that putDone only completes the put in progress and not a queued one.
+     */
+    @Test
+    public void testPutDoneWithoutActivePut() {
+        System.out.println("putDoneWithoutActivePut");
+        putListenerCalled = false;
+        Status status = StatusFactory.getStatusCreate().getStatusOK();
+        ChannelPutImpl channelPut = new ChannelPutImpl();
         PutListener listener = (event) -> {
+            putListenerCalled = true;
         };
-        Epics7Channel channel = new Epics7Channel("test", null);
         EventListener put = (event) -> {
         };
-        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(listener, channel, put);
+        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(null, new ChannelPutTestChannel(), null);
+        instance.put(listener, put);
+
+        // The put is still queued because the ChannelPut is not connected.
+        instance.putDone(status, channelPut);
+        assertEquals(putListenerCalled, false);
+        assertEquals(channelPut.putCalled, false);
+    }
+
+    /**
+     * Test that a failed channelPutConnect fails the queued puts and that the
+     * requester does not accept more puts.
+     */
+    @Test
+    public void testChannelPutConnectFailed() {
+        System.out.println("channelPutConnectFailed");
+        Status status = StatusFactory.getStatusCreate().createStatus(Status.StatusType.ERROR, "failed", null);
+        ChannelPutImpl channelPut = new ChannelPutImpl();
+        Structure structure = StandardFieldFactory.getStandardField().scalar(ScalarType.pvDouble, ALARM_FIELD);
+        EventListener put = (event) -> {
+        };
+        ChannelPutTestChannel nativeChannel = new ChannelPutTestChannel();
+        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(null, nativeChannel, null);
+        PutListenerImpl firstListener = new PutListenerImpl();
+        PutListenerImpl secondListener = new PutListenerImpl();
+        instance.put(firstListener, put);
+        instance.put(secondListener, put);
+
+        instance.channelPutConnect(status, channelPut, structure);
+
+        assertEquals(instance.isDestroyed(), true);
+        assertEquals(firstListener.isFailed(), true);
+        assertEquals(secondListener.isFailed(), true);
+        assertEquals(channelPut.putCalled, false);
+
+        instance.put(new PutListenerImpl(), put);
+        assertEquals(nativeChannel.createChannelPutCalls, 1);
+    }
+
+    /**
+     * Test of getRequesterName method, of class ChannelPutRequesterImpl.
+     */
+    @Test
+    public void testGetRequesterName() {
+        System.out.println("getRequesterName");
+
+        Epics7Channel channel = new Epics7Channel("test", null);
+        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(channel, null, null);
         String result = instance.getRequesterName();
         assertEquals(result, null);
     }
@@ -117,12 +199,8 @@ public class ChannelPutRequesterImplTest {
         String message = "Test";
         MessageType messageType = null;
 
-        PutListener listener = (event) -> {
-        };
         Epics7Channel channel = null;
-        EventListener put = (event) -> {
-        };
-        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(listener, channel, put);
+        ChannelPutRequesterImpl instance = new ChannelPutRequesterImpl(channel, null, null);
 
         HandlerImpl handler = new HandlerImpl();
         Logger.getLogger(Epics7Channel.class.getName()).addHandler(handler);
@@ -132,6 +210,21 @@ public class ChannelPutRequesterImplTest {
         assertEquals(handler.level, Level.INFO);
     }
 
+    private static class ChannelPutTestChannel extends TestChannel {
+
+        public int createChannelPutCalls = 0;
+
+        public ChannelPutTestChannel() {
+            super("test", null);
+        }
+
+        @Override
+        public ChannelPut createChannelPut(ChannelPutRequester channelPutRequester, PVStructure pvRequest) {
+            createChannelPutCalls++;
+            return null;
+        }
+    }
+
     private static class ChannelPutImpl implements ChannelPut {
 
         public boolean putCalled = false;
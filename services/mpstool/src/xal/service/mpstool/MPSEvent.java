@@ -49,6 +49,18 @@ public class MPSEvent {
 	}
 
 
+	/**
+	 * Constructor
+	 *
+	 * @param timestamp     The mean timestamp of the correlated signal events
+	 * @param signalEvents  The signal events sorted by timestamp
+	 */
+	public MPSEvent( final Date timestamp, final List<SignalEvent> signalEvents ) {
+		_timestamp = timestamp;
+		_signalEvents = signalEvents;
+	}
+
+
 	/**
 	 * Get the mean timestamp of the correlated signal events
 	 *
@@ -0,0 +1,158 @@
+/*
+ *  MPSEventHistory.java
+ *
+ *  Created on Sun Oct 18 10:12:40 EDT 2026
+ */
+package xal.service.mpstool;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+
+/**
+ * MPSEventHistory is a fixed capacity ring buffer of the most recent MPS events. Each event is
+ * assigned a sequence number as it is added and the latest events overwrite the oldest ones once the
+ * capacity is reached. Along with the events, a time index holds the latest event time (in milliseconds)
+ * seen up to each event, so it never decreases and events since a given time are found by binary search.
+ * Appending is serialized, but readers never lock. A reader copies the events it needs and then checks
+ * that none of them were overwritten in the meantime, trying again if so.
+ *
+ * @since    Oct 18, 2026
+ */
+class MPSEventHistory {
+	/** maximum number of events held */
+	final private int CAPACITY;
+
+	/** ring of events indexed by sequence modulo capacity */
+	final private AtomicReferenceArray<MPSEvent> EVENTS;
+
+	/** ring of the latest event time in milliseconds up to and including the event with the same slot */
+	final private AtomicLongArray TIME_INDEX;
+
+	/** number of events whose slots an append has started to write */
+	final private AtomicLong CLAIMED_COUNT;
+
+	/** number of events completely written and visible to readers */
+	final private AtomicLong PUBLISHED_COUNT;
+
+	/** latest event time in milliseconds appended so far (accessed only while appending) */
+	private long _latestTime;
+
+
+	/**
+	 * Constructor
+	 * @param capacity  the maximum number of events to keep
+	 */
+	public MPSEventHistory( final int capacity ) {
+		if ( capacity <= 0 )  throw new IllegalArgumentException( "The event history capacity must be positive: " + capacity );
+
+		CAPACITY = capacity;
+		EVENTS = new AtomicReferenceArray<>( capacity );
+		TIME_INDEX = new AtomicLongArray( capacity );
+		CLAIMED_COUNT = new AtomicLong( 0 );
+		PUBLISHED_COUNT = new AtomicLong( 0 );
+		_latestTime = Long.MIN_VALUE;
+	}
+
+
+	/**
+	 * Get the maximum number of events held.
+	 * @return the capacity of this history
+	 */
+	public int getCapacity() {
+		return CAPACITY;
+	}
+
+
+	/**
+	 * Get the number of events presently held.
+	 * @return the number of events held which is never more than the capacity
+	 */
+	public int size() {
+		return (int)Math.min( PUBLISHED_COUNT.get(), CAPACITY );
+	}
+
+
+	/**
+	 * Add the latest event, overwriting the oldest event if the history is full.
+	 * @param event  the event to add
+	 */
+	synchronized public void add( final MPSEvent event ) {
+		final long sequence = CLAIMED_COUNT.get();
+		final int slot = slot( sequence );
+
+		_latestTime = Math.max( _latestTime, event.getTimestamp().getTime() );
+
+		// claim the slot before overwriting it so readers can detect that its old event is gone
+		CLAIMED_COUNT.set( sequence + 1 );
+		EVENTS.set( slot, event );
+		TIME_INDEX.set( slot, _latestTime );
+		PUBLISHED_COUNT.set( sequence + 1 );
+	}
+
+
+	/**
+	 * Get a copy of all events held.
+	 * @return the events ordered from newest to oldest
+	 */
+	public List<MPSEvent> getEvents() {
+		return getEventsSince( Long.MIN_VALUE );
+	}
+
+
+	/**
+	 * Get a copy of the events which occured after the specified time. Events which occur before or at the
+	 * specified time are excluded.
+	 * @param time  the time since which to get events
+	 * @return the events since the specified time ordered from newest to oldest
+	 */
+	public List<MPSEvent> getEventsSince( final Date time ) {
+		return getEventsSince( time.getTime() );
+	}
+
+
+	/**
+	 * Get a copy of the events which occured after the specified time.
+	 * @param time  the time in milliseconds since which to get events
+	 * @return the events since the specified time ordered from newest to oldest
+	 */
+	private List<MPSEvent> getEventsSince( final long time ) {
+		while ( true ) {
+			final long end = PUBLISHED_COUNT.get();
+			final long start = Math.max( 0, end - CAPACITY );
+
+			// binary search for the first event whose time index is after the specified time
+			long low = start;
+			long high = end;
+			while ( low < high ) {
+				final long middle = ( low + high ) >>> 1;
+				if ( TIME_INDEX.get( slot( middle ) ) > time ) {
+					high = middle;
+				}
+				else {
+					low = middle + 1;
+				}
+			}
+
+			final List<MPSEvent> events = new ArrayList<>( (int)( end - low ) );
+			for ( long sequence = end - 1 ; sequence >= low ; sequence-- ) {
+				events.add( EVENTS.get( slot( sequence ) ) );
+			}
+
+			// an overwritten slot only holds a newer time, so a search through one ends at or below it and is caught here
+			if ( CLAIMED_COUNT.get() - CAPACITY <= low ) {
+				return events;
+			}
+		}
+	}
+
+
+	/**
+	 * Get the slot holding the event with the specified sequence number.
+	 * @param sequence  the sequence number of the event
+	 * @return the index of the event's slot in the ring
+	 */
+	private int slot( final long sequence ) {
+		return (int)( sequence % CAPACITY );
+	}
+}
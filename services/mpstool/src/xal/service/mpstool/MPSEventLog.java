@@ -0,0 +1,294 @@
+/*
+ *  MPSEventLog.java
+ *
+ *  Created on Sun Oct 18 11:05:27 EDT 2026
+ */
+package xal.service.mpstool;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import xal.ca.Timestamp;
+
+
+/**
+ * MPSEventLog is an append only log of MPS events kept in a file so the event history survives restarts
+ * of the service. The file is written through a memory mapped region, so appending an event is a memory
+ * copy and the operating system writes the pages to disk. When an event does not fit in the remaining
+ * region, the next region is mapped starting at the end of the log.
+ *
+ * Each record is the byte length of its content followed by the content. The length is written after the
+ * content, so a record left incomplete when the service stopped has a zero length and ends the log.
+ * The content is the event time in milliseconds, the number of signal events and then the signal and
+ * its full precision timestamp for each signal event.
+ *
+ * The log is rotated so it does not grow without bound. Once the log file holds as many events as the
+ * history can, it is renamed with the ".1" suffix (replacing the previous one) and a new log file is started.
+ * The two files always hold at least the events which fit in the history, and only they are replayed.
+ *
+ * @since    Oct 18, 2026
+ */
+class MPSEventLog {
+	/** minimum size in bytes of each mapped region of the log file */
+	final static private int REGION_SIZE = 1 << 20;
+
+	/** file holding the log */
+	final private File FILE;
+
+	/** file holding the events of the log before it was last rotated */
+	final private File PREVIOUS_FILE;
+
+	/** channel to the log file */
+	private FileChannel _channel;
+
+	/** mapped region of the log file to which events are appended */
+	private MappedByteBuffer _region;
+
+	/** position in the log file of the start of the mapped region */
+	private long _regionStart;
+
+	/** number of events in the log file */
+	private int _eventCount;
+
+	/** number of events in the log file at which the log is rotated */
+	private int _rotationCount;
+
+
+	/**
+	 * Open the log in the specified file, creating the file if it does not exist.
+	 * @param file  the file holding the log
+	 * @throws IOException if the file cannot be opened
+	 */
+	public MPSEventLog( final File file ) throws IOException {
+		FILE = file;
+		PREVIOUS_FILE = new File( file.getPath() + ".1" );
+
+		final File folder = file.getAbsoluteFile().getParentFile();
+		if ( folder != null )  folder.mkdirs();
+
+		_channel = openChannel( file );
+		_region = null;
+		_regionStart = 0;
+		_eventCount = 0;
+		_rotationCount = Integer.MAX_VALUE;
+	}
+
+
+	/**
+	 * Get the file holding the log.
+	 * @return the log file
+	 */
+	public File getFile() {
+		return FILE;
+	}
+
+
+	/**
+	 * Get the file holding the events of the log before it was last rotated.
+	 * @return the previous log file which may not exist
+	 */
+	public File getPreviousFile() {
+		return PREVIOUS_FILE;
+	}
+
+
+	/**
+	 * Read the events in the log from oldest to newest and position the log to append after the last complete event.
+	 * The log is rotated whenever its file holds as many events as the history. This should be called once before appending events.
+	 * @param history  the history to which the events are added in order
+	 * @return the number of events read
+	 * @throws IOException if the log cannot be read
+	 */
+	synchronized public int replay( final MPSEventHistory history ) throws IOException {
+		int count = 0;
+
+		if ( PREVIOUS_FILE.exists() ) {
+			readLog( PREVIOUS_FILE, history );
+			count += _eventCount;
+		}
+
+		final long position = readLog( FILE, history );
+		count += _eventCount;
+
+		_rotationCount = history.getCapacity();
+		mapRegion( position, 0 );
+
+		return count;
+	}
+
+
+	/**
+	 * Read the events in the specified log file from oldest to newest and set the event count to the number of events read.
+	 * @param file  the log file to read
+	 * @param history  the history to which the events are added in order
+	 * @return the position in the file after the last complete event
+	 * @throws IOException if the log cannot be read
+	 */
+	private long readLog( final File file, final MPSEventHistory history ) throws IOException {
+		long position = 0;
+		int count = 0;
+
+		final long fileLength = file.length();
+		try ( final DataInputStream input = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) ) ) {
+			while ( position + 4 <= fileLength ) {
+				final int length = input.readInt();
+				if ( length <= 0 || length > fileLength - position - 4 )  break;
+
+				final byte[] content = new byte[length];
+				input.readFully( content );
+
+				final MPSEvent event;
+				try {
+					event = readEvent( content );
+				}
+				catch ( IOException | RuntimeException exception ) {
+					System.err.println( "Ignoring the MPS event log after an unreadable event in " + file + ": " + exception );
+					break;
+				}
+				history.add( event );
+
+				position += 4 + length;
+				++count;
+			}
+		}
+
+		_eventCount = count;
+		return position;
+	}
+
+
+	/**
+	 * Append the event to the log.
+	 * @param event  the event to append
+	 * @throws IOException if the log cannot be extended
+	 * @throws IllegalStateException if the log has not been replayed or has been closed
+	 */
+	synchronized public void append( final MPSEvent event ) throws IOException {
+		if ( _region == null )  throw new IllegalStateException( "The MPS event log must be replayed before appending events." );
+
+		if ( _eventCount >= _rotationCount )  rotate();
+
+		final byte[] content = writeEvent( event );
+
+		if ( _region.remaining() < 4 + content.length ) {
+			mapRegion( _regionStart + _region.position(), 4 + content.length );
+		}
+
+		final int start = _region.position();
+		_region.position( start + 4 );
+		_region.put( content );
+		if ( _region.remaining() >= 4 ) {
+			_region.putInt( _region.position(), 0 );	// end the log here even if stale records follow
+		}
+		_region.putInt( start, content.length );
+		++_eventCount;
+	}
+
+
+	/**
+	 * Write the mapped pages to disk and close the log file.
+	 * @throws IOException if the log file cannot be closed
+	 */
+	synchronized public void close() throws IOException {
+		if ( _region != null ) {
+			_region.force();
+			_region = null;
+		}
+		_channel.close();
+	}
+
+
+	/**
+	 * Replace the previous log file with the log file and start a new empty log file.
+	 * @throws IOException if the log cannot be rotated
+	 */
+	private void rotate() throws IOException {
+		_region.force();
+		_region = null;
+		_channel.close();
+
+		Files.move( FILE.toPath(), PREVIOUS_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING );
+
+		_channel = openChannel( FILE );
+		_eventCount = 0;
+		mapRegion( 0, 0 );
+	}
+
+
+	/**
+	 * Open a channel to the specified log file, creating the file if it does not exist.
+	 * @param file  the log file
+	 * @return the channel for reading and writing the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	static private FileChannel openChannel( final File file ) throws IOException {
+		return FileChannel.open( file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE );
+	}
+
+
+	/**
+	 * Map a new region of the log file.
+	 * @param position  the position in the log file at which the region starts
+	 * @param minimumSize  the minimum size of the region in bytes
+	 * @throws IOException if the region cannot be mapped
+	 */
+	private void mapRegion( final long position, final int minimumSize ) throws IOException {
+		if ( _region != null )  _region.force();
+
+		_region = _channel.map( FileChannel.MapMode.READ_WRITE, position, Math.max( REGION_SIZE, minimumSize ) );
+		_regionStart = position;
+	}
+
+
+	/**
+	 * Generate the log record content for the specified event.
+	 * @param event  the event to write
+	 * @return the record content
+	 * @throws IOException if the event cannot be written
+	 */
+	static private byte[] writeEvent( final MPSEvent event ) throws IOException {
+		final ByteArrayOutputStream byteStream = new ByteArrayOutputStream( 256 );
+		final DataOutputStream output = new DataOutputStream( byteStream );
+
+		final List<SignalEvent> signalEvents = event.getSignalEvents();
+		output.writeLong( event.getTimestamp().getTime() );
+		output.writeInt( signalEvents.size() );
+		for ( final SignalEvent signalEvent : signalEvents ) {
+			output.writeUTF( signalEvent.getSignal() );
+			output.writeUTF( signalEvent.getTimestamp().getFullSeconds().toString() );
+		}
+		output.flush();
+
+		return byteStream.toByteArray();
+	}
+
+
+	/**
+	 * Generate the event from its log record content.
+	 * @param content  the record content
+	 * @return the event
+	 * @throws IOException if the content is not a valid event
+	 */
+	static private MPSEvent readEvent( final byte[] content ) throws IOException {
+		final DataInputStream input = new DataInputStream( new ByteArrayInputStream( content ) );
+
+		final Date timestamp = new Date( input.readLong() );
+		final int count = input.readInt();
+		if ( count < 0 || count > content.length )  throw new IOException( "Invalid signal event count: " + count );
+
+		final List<SignalEvent> signalEvents = new ArrayList<>( count );
+		for ( int index = 0 ; index < count ; index++ ) {
+			final String signal = input.readUTF();
+			final Timestamp signalTimestamp = new Timestamp( new BigDecimal( input.readUTF() ) );
+			signalEvents.add( new SignalEvent( signal, signalTimestamp ) );
+		}
+
+		return new MPSEvent( timestamp, signalEvents );
+	}
+}
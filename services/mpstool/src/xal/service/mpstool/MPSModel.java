@@ -10,6 +10,8 @@
 
 package xal.service.mpstool;
 
+import java.io.File;
+
 
 /**
  * MPSModel is the main model for the service.  It manages monitors for each MPS type.
@@ -26,6 +28,9 @@ public class MPSModel {
 	/** flag indicating whether the first faults statisics should be logged */
 	final private boolean LOG_STATISTICS;
 	
+	/** folder of the logs which persist MPS events across restarts or null if MPS events are not logged */
+	final private File EVENT_LOG_FOLDER;
+	
 	
 	/**
 	 * MPSModel Constructor
@@ -33,11 +38,24 @@ public class MPSModel {
 	public MPSModel() {
 		LOG_STATISTICS = Boolean.getBoolean( "logstats" );
 		
+		final String eventLogPath = System.getProperty( "eventlog" );
+		EVENT_LOG_FOLDER = eventLogPath != null && eventLogPath.length() > 0 ? new File( eventLogPath ) : null;
+		
 		SIGNAL_SOURCE = new SQLSignalSource();
 		
 		MONITORS = new MPSMonitor[2];
-		MONITORS[0] = new MPSMonitor( "FPL", SIGNAL_SOURCE, LOG_STATISTICS );
-		MONITORS[1] = new MPSMonitor( "FPAR", SIGNAL_SOURCE, LOG_STATISTICS );
+		MONITORS[0] = new MPSMonitor( "FPL", SIGNAL_SOURCE, LOG_STATISTICS, getEventLogFile( "FPL" ) );
+		MONITORS[1] = new MPSMonitor( "FPAR", SIGNAL_SOURCE, LOG_STATISTICS, getEventLogFile( "FPAR" ) );
+	}
+	
+	
+	/**
+	 * Get the file of the log which persists the MPS events of the specified MPS type.
+	 * @param mpsType the MPS type (e.g. FPL or FPAR)
+	 * @return the event log file or null if MPS events are not logged
+	 */
+	private File getEventLogFile( final String mpsType ) {
+		return EVENT_LOG_FOLDER != null ? new File( EVENT_LOG_FOLDER, "MPS-" + mpsType + "-events.log" ) : null;
 	}
 	
 	
@@ -15,7 +15,10 @@ import xal.ca.*;
 import xal.extension.logbook.ElogUtility;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.text.*;
+import java.io.File;
+import java.io.IOException;
 import java.math.*;
 
 /**
@@ -50,8 +53,11 @@ public class MPSMonitor {
 	/** the correlator to use to gather MPS signals in a single macropulse */
 	private ChannelCorrelator _correlator;
 
-	/** the ordered list of most recent MPS events sorted by timestamp */
-	private volatile LinkedList<MPSEvent> _mpsEventBuffer;
+	/** the most recent MPS events sorted by timestamp */
+	final private MPSEventHistory _mpsEventHistory;
+
+	/** log to which MPS events are appended so the history survives restarts or null if there is none */
+	private MPSEventLog _mpsEventLog;
 
 	/** Filter used to set the amount of missing MPS PVs allowed to constitute a legitimate correlation set */
 	private CorrelationFilter<ChannelTimeRecord> _filter;
@@ -65,11 +71,8 @@ public class MPSMonitor {
 	/** max timeStamp difference to consitute a correlated set (sec) */
 	private Double _deltaT;
 
-	/** Map of first hit trip statistics keyed by PV. This map gets cleared daily. */
-	private Map<String,TripStatistics> _firstHitStats;
-	
-	/** Map of trip statistics keyed by PV. This map gets cleared daily. */
-	private Map<String,TripStatistics> _mpsTripStats;
+	/** Trip statistics of the present day. They are replaced by new statistics daily. */
+	private volatile DailyStats _dailyStats;
 
 
 	/** time of last MPS event */
@@ -87,10 +90,7 @@ public class MPSMonitor {
 	/** handler of connection events of input channels for this monitor */
 	private InputConnectionHandler _inputConnectionHandler;
 
-	/** The start time for populating daily statistics */
-	protected Calendar _startTime;
-
-	/** Synchronization lock for accessing daily statistics */
+	/** Synchronization lock for publishing and resetting the daily statistics and for reports (counts are updated without it) */
 	protected Object _statsLock;
 
 	/** Timer for updating daily statistics */
@@ -107,8 +107,10 @@ public class MPSMonitor {
 	 * Primary Constructor
 	 * @param mpsType       MPS Type (e.g. FPL or FPAR)
 	 * @param signalSource  Data source that supplies MPS signals
+	 * @param logStatistics  true to publish the daily statistics and false if not
+	 * @param eventLogFile  file of the log which persists MPS events across restarts or null for no log
 	 */
-	public MPSMonitor( final String mpsType, final SignalSource signalSource, final boolean logStatistics ) {
+	public MPSMonitor( final String mpsType, final SignalSource signalSource, final boolean logStatistics, final File eventLogFile ) {
 		LOG_STATISTICS = logStatistics;
 		
 		// Coles recommends 16ms since it is the shortest time between pulses
@@ -117,18 +119,17 @@ public class MPSMonitor {
 		_dwellTime = new Double( 0.1 );
 
 		// Some internal stuff:
-		_mpsEventBuffer = new LinkedList<>();
-		_firstHitStats = new HashMap<String,TripStatistics>();
-		_mpsTripStats = new HashMap<String,TripStatistics>();
+		_mpsEventHistory = new MPSEventHistory( MPS_EVENT_BUFFER_SIZE );
+		_mpsEventLog = eventLogFile != null ? openEventLog( eventLogFile ) : null;
 
 		_mpsType = mpsType;
 		_signalSource = signalSource;
 
 		_statsLock = new Object();
-		_startTime = Calendar.getInstance();
-		_lastMPSEventTime = _startTime.getTime();
-		_lastMPSConnectionEventTime = _startTime.getTime();
-		_lastInputConnectionEventTime = _startTime.getTime();
+		_dailyStats = new DailyStats( Calendar.getInstance() );
+		_lastMPSEventTime = _dailyStats.START_TIME.getTime();
+		_lastMPSConnectionEventTime = _dailyStats.START_TIME.getTime();
+		_lastInputConnectionEventTime = _dailyStats.START_TIME.getTime();
 
 		_statsUpdateTimer = startStatsUpdateTimer();
 		
@@ -142,11 +143,56 @@ public class MPSMonitor {
 	}
 
 
+	/**
+	 * Constructor
+	 * @param mpsType       MPS Type (e.g. FPL or FPAR)
+	 * @param signalSource  Data source that supplies MPS signals
+	 * @param logStatistics  true to publish the daily statistics and false if not
+	 */
+	public MPSMonitor( final String mpsType, final SignalSource signalSource, final boolean logStatistics ) {
+		this( mpsType, signalSource, logStatistics, null );
+	}
+
+
 	/** Dispose of this monitor and its resources */
 	public void dispose() {
 		stopCorrelator();
 		_statsUpdateTimer.cancel();
 		checkDayUpdateDailyStats();    // flush any remaining stats
+		closeEventLog();
+	}
+
+
+	/**
+	 * Open the MPS event log and replay its events into the event history.
+	 * @param file  the file holding the event log
+	 * @return the opened event log or null if it could not be opened
+	 */
+	private MPSEventLog openEventLog( final File file ) {
+		try {
+			final MPSEventLog eventLog = new MPSEventLog( file );
+			final int count = eventLog.replay( _mpsEventHistory );
+			System.out.println( "Replayed " + count + " MPS events from " + file );
+			return eventLog;
+		}
+		catch ( IOException exception ) {
+			System.err.println( "Exception opening the MPS event log " + file + ": " + exception );
+			return null;
+		}
+	}
+
+
+	/** Close the MPS event log if any. */
+	synchronized private void closeEventLog() {
+		if ( _mpsEventLog != null ) {
+			try {
+				_mpsEventLog.close();
+			}
+			catch ( IOException exception ) {
+				System.err.println( "Exception closing the MPS event log: " + exception );
+			}
+			_mpsEventLog = null;
+		}
 	}
 
 
@@ -403,15 +449,19 @@ public class MPSMonitor {
 
 
 	/**
-	 * Update the circular buffer of MPS events to include the latest event
+	 * Update the circular buffer of MPS events to include the latest event and append the event to the log if any.
 	 * @param newEvent  the latest MPS event
 	 */
-	private void updateEventBuffer( final MPSEvent newEvent ) {
-		synchronized ( _mpsEventBuffer ) {
-			_mpsEventBuffer.addFirst( newEvent );
+	synchronized private void updateEventBuffer( final MPSEvent newEvent ) {
+		_mpsEventHistory.add( newEvent );
 
-			while ( _mpsEventBuffer.size() > MPS_EVENT_BUFFER_SIZE ) {
-				_mpsEventBuffer.removeLast();
+		if ( _mpsEventLog != null ) {
+			try {
+				_mpsEventLog.append( newEvent );
+			}
+			catch ( Exception exception ) {
+				System.err.println( "Exception appending to the MPS event log, so MPS events will no longer be logged: " + exception );
+				closeEventLog();
 			}
 		}
 	}
@@ -422,10 +472,8 @@ public class MPSMonitor {
 	 * @param newEvent  The new MPS event to include in the statistics
 	 */
 	private void updateStats( final MPSEvent newEvent ) {
-		synchronized ( _statsLock ) {
-			updateFirstHitStats( newEvent );
-			updateMPSTripStats( newEvent );
-		}
+		updateFirstHitStats( newEvent );
+		updateMPSTripStats( newEvent );
 	}
 
 
@@ -434,10 +482,8 @@ public class MPSMonitor {
 	 * @param newEvent  The new MPS event to include in the daily statistics.
 	 */
 	private void updateFirstHitStats( final MPSEvent newEvent ) {
-		synchronized ( _statsLock ) {
-			final String firstPV = newEvent.getFirstSignalEvent().getSignal();
-			incrementFirstHits( firstPV );
-		}
+		final String firstPV = newEvent.getFirstSignalEvent().getSignal();
+		incrementFirstHits( firstPV );
 	}
 
 
@@ -447,14 +493,8 @@ public class MPSMonitor {
 	 * @param mpsPV   The MPS PV for which to increment the first hit trips
 	 */
 	protected final void incrementFirstHits( final String mpsPV ) {
-		synchronized ( _statsLock ) {
-			TripStatistics stats = _firstHitStats.get( mpsPV );
-			if ( stats == null ) {
-				stats = getMPSTripStats( mpsPV );
-				_firstHitStats.put( mpsPV, stats );
-			}
-			stats.incrementFirstHits();
-		}
+		final DailyStats dailyStats = _dailyStats;
+		dailyStats.FIRST_HIT_STATS.computeIfAbsent( mpsPV, pv -> getMPSTripStats( dailyStats, pv ) ).incrementFirstHits();
 	}
 
 
@@ -464,9 +504,7 @@ public class MPSMonitor {
 	 * @param mpsPV   The MPS PV for which to increment the trips
 	 */
 	protected final void incrementMPSTrips( final String mpsPV ) {
-		synchronized ( _statsLock ) {
-			getMPSTripStats( mpsPV ).incrementMPSTrips();
-		}
+		getMPSTripStats( mpsPV ).incrementMPSTrips();
 	}
 
 
@@ -476,9 +514,7 @@ public class MPSMonitor {
 	 * @param mpsPV   The MPS PV for which to increment the input statistics
 	 */
 	protected final void incrementInputTrips( final String mpsPV ) {
-		synchronized ( _statsLock ) {
-			getMPSTripStats( mpsPV ).incrementInputTrips();
-		}
+		getMPSTripStats( mpsPV ).incrementInputTrips();
 	}
 	
 	
@@ -488,15 +524,18 @@ public class MPSMonitor {
 	 * @return the trip statistics for the specified MPS PV
 	 */
 	protected final TripStatistics getMPSTripStats( final String mpsPV ) {
-		synchronized ( _statsLock ) {
-			TripStatistics stats = _mpsTripStats.get( mpsPV );
-			if ( stats == null ) {
-				stats = new TripStatistics( mpsPV, getInputSignal(mpsPV) );
-				_mpsTripStats.put( mpsPV, stats );
-			}
-			
-			return stats;
-		}
+		return getMPSTripStats( _dailyStats, mpsPV );
+	}
+
+
+	/**
+	 * Get the trip statistics for the specified MPS PV among the specified daily statistics.
+	 * @param dailyStats the daily statistics holding the trip statistics
+	 * @param mpsPV the PV for which to retrieve the trip statistics
+	 * @return the trip statistics for the specified MPS PV
+	 */
+	private TripStatistics getMPSTripStats( final DailyStats dailyStats, final String mpsPV ) {
+		return dailyStats.MPS_TRIP_STATS.computeIfAbsent( mpsPV, pv -> new TripStatistics( pv, getInputSignal( pv ) ) );
 	}
 
 
@@ -506,31 +545,29 @@ public class MPSMonitor {
 	 * @param mpsEvent  The new MPS event to include in the statistics.
 	 */
 	private void updateMPSTripStats( final MPSEvent mpsEvent ) {
-		synchronized ( _statsLock ) {
-			final List<SignalEvent> signalEvents = mpsEvent.getSignalEvents();
-			final List<InputMonitor> inputMonitors = new ArrayList<>( signalEvents.size() );
-			//final Iterator<SignalEvent> eventIter = signalEvents.iterator();
-            
-            for(SignalEvent signalEvent : signalEvents)
-            {
-			//while ( eventIter.hasNext() ) {
-				//final SignalEvent signalEvent = (SignalEvent)eventIter.next();
-				final String signal = signalEvent.getSignal();
-				InputMonitor inputMonitor = getInputMonitor( signal );
-				if ( inputMonitor != null ) {
-					inputMonitor.requestValueUpdate();
-					inputMonitors.add( inputMonitor );
-				}
-				incrementMPSTrips( signalEvent );
-			}
-			
-			try {
-				// allow a little time for the input requests to be processed
-				Thread.sleep( 10 );
-				incrementInputTrips( inputMonitors );
+		final List<SignalEvent> signalEvents = mpsEvent.getSignalEvents();
+		final List<InputMonitor> inputMonitors = new ArrayList<>( signalEvents.size() );
+		//final Iterator<SignalEvent> eventIter = signalEvents.iterator();
+        
+        for(SignalEvent signalEvent : signalEvents)
+        {
+		//while ( eventIter.hasNext() ) {
+			//final SignalEvent signalEvent = (SignalEvent)eventIter.next();
+			final String signal = signalEvent.getSignal();
+			InputMonitor inputMonitor = getInputMonitor( signal );
+			if ( inputMonitor != null ) {
+				inputMonitor.requestValueUpdate();
+				inputMonitors.add( inputMonitor );
 			}
-			catch ( Exception exception ) {}
+			incrementMPSTrips( signalEvent );
 		}
+		
+		try {
+			// allow a little time for the input requests to be processed
+			Thread.sleep( 10 );
+			incrementInputTrips( inputMonitors );
+		}
+		catch ( Exception exception ) {}
 	}
 
 
@@ -551,10 +588,8 @@ public class MPSMonitor {
 	 * @param signalEvent  The new signal event to include in the statistics.
 	 */
 	private void incrementMPSTrips( final SignalEvent signalEvent ) {
-		synchronized ( _statsLock ) {
-			final String signal = signalEvent.getSignal();
-			incrementMPSTrips( signal );
-		}
+		final String signal = signalEvent.getSignal();
+		incrementMPSTrips( signal );
 	}
 
 
@@ -576,36 +611,42 @@ public class MPSMonitor {
 
 
 	/**
-	 * Check to see if the day has changed since the the startTime. If so, reset the startTime to
-	 * be the start of the new day and clear the daily statistics.
+	 * Check to see if the day has changed since the the startTime. If so, start new statistics for
+	 * the new day and publish those of the previous day.
 	 */
 	private void checkDayUpdateDailyStats() {
 		synchronized ( _statsLock ) {
 			int today = Calendar.getInstance().get( Calendar.DATE );
-			int startDay = _startTime.get( Calendar.DATE );
+			int startDay = _dailyStats.START_TIME.get( Calendar.DATE );
 
 			if ( today != startDay ) {
+				final DailyStats previousStats = resetDailyStats();
 				if ( LOG_STATISTICS ) {
-					publishDailyStats();
+					publishDailyStats( previousStats );
 				}
-				resetDailyStats();
 			}
 		}
 	}
 
 
-	/** Publish the latest daily stats.  */
-	private void publishDailyStats() {
-		publishDailyStatsToLogbook();
-		publishDailyStatsToDatabase();
+	/**
+	 * Publish the specified daily stats.
+	 * @param dailyStats  the stats to publish
+	 */
+	private void publishDailyStats( final DailyStats dailyStats ) {
+		publishDailyStatsToLogbook( dailyStats );
+		publishDailyStatsToDatabase( dailyStats );
 	}
 
 
-	/** Publish the latest daily stats.  */
-	private void publishDailyStatsToLogbook() {
+	/**
+	 * Publish the specified daily stats.
+	 * @param dailyStats  the stats to publish
+	 */
+	private void publishDailyStatsToLogbook( final DailyStats dailyStats ) {
 		try {
-			final String firstHitText = getFirstHitText();
-			final String mpsTripSummary = getMPSTripSummary();
+			final String firstHitText = getFirstHitText( dailyStats.START_TIME, getTopFirstHitStats( dailyStats, 10 ) );
+			final String mpsTripSummary = getMPSTripSummary( dailyStats.START_TIME, getTopMPSTripStats( dailyStats, 10 ) );
 			final String summary = firstHitText + "\n\n\n" + mpsTripSummary;
 			
 			// make sure the entry text is well below the 4000 character limit
@@ -615,7 +656,7 @@ public class MPSMonitor {
 			
 			final String title = "MPS " + _mpsType + " Daily Statistics";
 			
-			final String tripReport = getFirstHitReport();
+			final String tripReport = getFirstHitReport( dailyStats );
 			
 			if ( tripReport != null ) {
 				final String reportName = "MPS " + _mpsType + " First Hit Report";
@@ -631,11 +672,14 @@ public class MPSMonitor {
 	}
 
 
-	/** Publish the latest daily stats.  */
-	private void publishDailyStatsToDatabase() {
+	/**
+	 * Publish the specified daily stats.
+	 * @param dailyStats  the stats to publish
+	 */
+	private void publishDailyStatsToDatabase( final DailyStats dailyStats ) {
 		try {
-			final Collection<TripStatistics> stats = _mpsTripStats.values();
-			_signalSource.publishDailyStatistics( _startTime.getTime(), stats );
+			final Collection<TripStatistics> stats = getTripStatsSnapshot( dailyStats.MPS_TRIP_STATS );
+			_signalSource.publishDailyStatistics( dailyStats.START_TIME.getTime(), stats );
 		}
 		catch ( Exception exception ) {
 			System.err.println( "Exception while publishing daily stats to database: " + exception );
@@ -643,16 +687,22 @@ public class MPSMonitor {
 	}
 
 
-	/** Reset the daily statistics by clearing them and setting the startTime to the beginning of the day. */
-	private synchronized void resetDailyStats() {
+	/**
+	 * Reset the daily statistics by replacing them with empty statistics starting at the beginning of the day.
+	 * Trips are counted in the new statistics as soon as they are in place, so none are lost while the previous
+	 * statistics are published.
+	 * @return the previous daily statistics
+	 */
+	private DailyStats resetDailyStats() {
 		synchronized ( _statsLock ) {
-			_firstHitStats.clear();
-			_mpsTripStats.clear();
+			final DailyStats previousStats = _dailyStats;
 			
 			Calendar newStartTime = Calendar.getInstance();
 			// since the day changed, the new start time must be valid since midnight
-			_startTime = new GregorianCalendar( newStartTime.get( Calendar.YEAR ), newStartTime.get( Calendar.MONTH ), newStartTime.get( Calendar.DATE ) );
+			_dailyStats = new DailyStats( new GregorianCalendar( newStartTime.get( Calendar.YEAR ), newStartTime.get( Calendar.MONTH ), newStartTime.get( Calendar.DATE ) ) );
 			_lastMPSEventTime = new Date();
+
+			return previousStats;
 		}
 	}
 
@@ -662,9 +712,7 @@ public class MPSMonitor {
 	 * @return   the buffer of MPS events
 	 */
 	public List<MPSEvent> getMPSEventBuffer() {
-		synchronized ( _mpsEventBuffer ) {
-			return new ArrayList<MPSEvent>( _mpsEventBuffer );
-		}
+		return _mpsEventHistory.getEvents();
 	}
 
 
@@ -672,35 +720,40 @@ public class MPSMonitor {
 	 * Get the list of MPS events which have occured since the specified time. Events which occur
 	 * before or at the specified time are excluded from the list.
 	 * @param time  The time since which we wish to get events
-	 * @return      the list of events since the specified time
+	 * @return      a copy of the list of events since the specified time
 	 */
 	public List<MPSEvent> getMPSEventsSince( final Date time ) {
-		synchronized ( _mpsEventBuffer ) {
-			final int count = _mpsEventBuffer.size();
-			int index;
-			for ( index = 0; index < count; index++ ) {
-				final MPSEvent event = _mpsEventBuffer.get( index );
-				if ( !event.getTimestamp().after( time ) ) {
-					break;
-				}
-			}
-			return _mpsEventBuffer.subList( 0, index );
+		return _mpsEventHistory.getEventsSince( time );
+	}
+
+
+	/**
+	 * Get a snapshot of the trip statistics in the specified map whose counts no longer change as trips are recorded.
+	 * @param statsMap  map of trip statistics keyed by PV
+	 * @return a snapshot of each of the trip statistics
+	 */
+	static private List<TripStatistics> getTripStatsSnapshot( final Map<String,TripStatistics> statsMap ) {
+		final List<TripStatistics> records = new ArrayList<TripStatistics>( statsMap.size() );
+		for ( final TripStatistics stats : statsMap.values() ) {
+			records.add( stats.snapshot() );
 		}
+		return records;
 	}
 	
 	
 	/** 
 	 * Get the top first hit statistics 
+	 * @param dailyStats the daily statistics from which to get the records
 	 * @param count limit to the number of top records to get
 	 * @return the top count trip records ordered from most to least MPS first hits
 	 */
-	private List<TripStatistics> getTopFirstHitStats( final int count ) {
+	private List<TripStatistics> getTopFirstHitStats( final DailyStats dailyStats, final int count ) {
 		synchronized ( _statsLock ) {
-			if ( _firstHitStats.isEmpty() ) {
+			if ( dailyStats.FIRST_HIT_STATS.isEmpty() ) {
 				return Collections.<TripStatistics>emptyList();
 			}
 			else {
-				final List<TripStatistics> records = new ArrayList<TripStatistics>( _firstHitStats.values() );
+				final List<TripStatistics> records = getTripStatsSnapshot( dailyStats.FIRST_HIT_STATS );
 				Collections.sort( records, TripStatistics.firstHitComparator() );
 				Collections.reverse( records );
 				return records.size() <= count ? records : records.subList( 0, count );	// get the top "count" trip records
@@ -736,20 +789,22 @@ public class MPSMonitor {
 	 */
 	public String getFirstHitText() {
 		synchronized ( _statsLock ) {
-			final List<TripStatistics> topRecords = getTopFirstHitStats( 10 );
-			return getFirstHitText( _startTime, topRecords );
+			final DailyStats dailyStats = _dailyStats;
+			final List<TripStatistics> topRecords = getTopFirstHitStats( dailyStats, 10 );
+			return getFirstHitText( dailyStats.START_TIME, topRecords );
 		}
 	}
 	
 	
 	/**
 	 * Generate a report of the top first hit statistics.
+	 * @param dailyStats the daily statistics to report
 	 * @return HTML report of the top first hit statistics
 	 */
-	private String getFirstHitReport() {
+	private String getFirstHitReport( final DailyStats dailyStats ) {
 		synchronized ( _statsLock ) {
-			final List<TripStatistics> topRecords = getTopFirstHitStats( 10 );
-			return getTripReport( "Top 10 " + _mpsType +  " MPS First Hits", _startTime, topRecords );
+			final List<TripStatistics> topRecords = getTopFirstHitStats( dailyStats, 10 );
+			return getTripReport( "Top 10 " + _mpsType +  " MPS First Hits", dailyStats.START_TIME, topRecords );
 		}
 	}
 	
@@ -811,16 +866,17 @@ public class MPSMonitor {
 	
 	/** 
 	 * Get the top MPS trip statistics 
+	 * @param dailyStats the daily statistics from which to get the records
 	 * @param count limit to the number of top records to get
 	 * @return the top count trip records ordered from most to least MPS trips
 	 */
-	private List<TripStatistics> getTopMPSTripStats( final int count ) {
+	private List<TripStatistics> getTopMPSTripStats( final DailyStats dailyStats, final int count ) {
 		synchronized ( _statsLock ) {
-			if ( _mpsTripStats.isEmpty() ) {
+			if ( dailyStats.MPS_TRIP_STATS.isEmpty() ) {
 				return Collections.<TripStatistics>emptyList();
 			}
 			else {
-				final List<TripStatistics> records = new ArrayList<TripStatistics>( _mpsTripStats.values() );
+				final List<TripStatistics> records = getTripStatsSnapshot( dailyStats.MPS_TRIP_STATS );
 				Collections.sort( records, TripStatistics.mpsTripComparator() );
 				Collections.reverse( records );
 				return records.size() <= count ? records : records.subList( 0, count );	// get the top "count" trip records
@@ -867,8 +923,9 @@ public class MPSMonitor {
 	 */
 	public String getMPSTripSummary() {
 		synchronized ( _statsLock ) {
-			final List<TripStatistics> topRecords = getTopMPSTripStats( 10 );
-			return getMPSTripSummary( _startTime, topRecords );
+			final DailyStats dailyStats = _dailyStats;
+			final List<TripStatistics> topRecords = getTopMPSTripStats( dailyStats, 10 );
+			return getMPSTripSummary( dailyStats.START_TIME, topRecords );
 		}
 	}
 
@@ -1045,5 +1102,29 @@ public class MPSMonitor {
 			_lastInputConnectionEventTime = new Date();
 		}
 	}
-}
 
+
+
+	/** Trip statistics of one day. The statistics of a day are replaced all at once, so a trip is never counted partly in one day and partly in the next. */
+	static private class DailyStats {
+		/** The start time of the statistics */
+		final Calendar START_TIME;
+
+		/** Map of first hit trip statistics keyed by PV */
+		final Map<String,TripStatistics> FIRST_HIT_STATS;
+
+		/** Map of trip statistics keyed by PV */
+		final Map<String,TripStatistics> MPS_TRIP_STATS;
+
+
+		/**
+		 * Constructor
+		 * @param startTime  the start time of the statistics
+		 */
+		public DailyStats( final Calendar startTime ) {
+			START_TIME = startTime;
+			FIRST_HIT_STATS = new ConcurrentHashMap<String,TripStatistics>();
+			MPS_TRIP_STATS = new ConcurrentHashMap<String,TripStatistics>();
+		}
+	}
+}
@@ -10,10 +10,11 @@
 package xal.service.mpstool;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
- * TripStatistics
+ * TripStatistics counts the trips of an MPS signal. The counts may be incremented concurrently without locking.
  *
  * @author   tap
  * @since    Sep 23, 2004
@@ -26,13 +27,13 @@ public class TripStatistics {
 	protected final String _inputSignal;
 
 	/** the number of MPS trips recorded */
-	protected int _mpsTrips;
+	protected final LongAdder _mpsTrips;
 
 	/** the number of times the MPS signal has been the first to trip among a correlated set */
-	protected int _firstHits;
+	protected final LongAdder _firstHits;
 
 	/** the number of times the related input has tripped */
-	protected int _inputTrips;
+	protected final LongAdder _inputTrips;
 
 
 	/**
@@ -47,9 +48,13 @@ public class TripStatistics {
 		_mpsSignal = mpsSignal;
 		_inputSignal = inputSignal;
 
-		_mpsTrips = mpsTrips;
-		_firstHits = firstHits;
-		_inputTrips = inputTrips;
+		_mpsTrips = new LongAdder();
+		_firstHits = new LongAdder();
+		_inputTrips = new LongAdder();
+
+		_mpsTrips.add( mpsTrips );
+		_firstHits.add( firstHits );
+		_inputTrips.add( inputTrips );
 	}
 
 
@@ -63,6 +68,16 @@ public class TripStatistics {
 	}
 	
 	
+	/**
+	 * Get a snapshot of these statistics whose counts do not change when these statistics are incremented.
+	 * Comparators should be applied to snapshots since the counts of statistics being updated may change while sorting.
+	 * @return a copy of these statistics with the present counts
+	 */
+	public TripStatistics snapshot() {
+		return new TripStatistics( _mpsSignal, _inputSignal, getMPSTrips(), getFirstHits(), getInputTrips() );
+	}
+	
+	
 	/**
 	 * Get the MPS PV.
 	 * @return the MPS PV
@@ -83,7 +98,7 @@ public class TripStatistics {
 
 	/** Increment by one the number of MPS trips. */
 	public void incrementMPSTrips() {
-		++_mpsTrips;
+		_mpsTrips.increment();
 	}
 
 
@@ -92,13 +107,13 @@ public class TripStatistics {
 	 * @return   The the number of MPS trips recorded
 	 */
 	final public int getMPSTrips() {
-		return _mpsTrips;
+		return _mpsTrips.intValue();
 	}
 
 
 	/** Increment by one the number of MPS trips. */
 	public void incrementInputTrips() {
-		++_inputTrips;
+		_inputTrips.increment();
 	}
 
 
@@ -107,13 +122,13 @@ public class TripStatistics {
 	 * @return   The number of input trips
 	 */
 	final public int getInputTrips() {
-		return _inputTrips;
+		return _inputTrips.intValue();
 	}
 
 
 	/** Increment by one the number of MPS first hit trips. */
 	public void incrementFirstHits() {
-		++_firstHits;
+		_firstHits.increment();
 	}
 
 
@@ -122,7 +137,7 @@ public class TripStatistics {
 	 * @return   The number of times the MPS signal was the first to trip
 	 */
 	final public int getFirstHits() {
-		return _firstHits;
+		return _firstHits.intValue();
 	}
 
 
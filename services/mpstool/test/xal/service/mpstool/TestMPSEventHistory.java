@@ -0,0 +1,135 @@
+/*
+ *  TestMPSEventHistory.java
+ *
+ *  Created on Oct 18, 2026
+ */
+package xal.service.mpstool;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Test the ring buffer of MPS events, its time index and the retry of readers which race with appends.
+ */
+public class TestMPSEventHistory {
+	/** Appending beyond the capacity must overwrite the oldest events */
+	@Test
+	public void testRingOverwrite() {
+		final MPSEventHistory history = new MPSEventHistory( 5 );
+		Assert.assertEquals( 0, history.size() );
+		Assert.assertTrue( history.getEvents().isEmpty() );
+
+		final List<MPSEvent> events = new ArrayList<>();
+		for ( int index = 0 ; index < 12 ; index++ ) {
+			final MPSEvent event = makeEvent( 1000 * index );
+			events.add( event );
+			history.add( event );
+			Assert.assertEquals( Math.min( index + 1, 5 ), history.size() );
+		}
+
+		final List<MPSEvent> expected = new ArrayList<>( events.subList( 7, 12 ) );
+		Collections.reverse( expected );
+		Assert.assertEquals( expected, history.getEvents() );
+	}
+
+
+	/** Events since a time must exclude the events at or before the time */
+	@Test
+	public void testEventsSince() {
+		final MPSEventHistory history = new MPSEventHistory( 10 );
+		final List<MPSEvent> events = new ArrayList<>();
+		for ( int index = 0 ; index < 25 ; index++ ) {
+			final MPSEvent event = makeEvent( 100 * index );
+			events.add( event );
+			history.add( event );
+		}
+
+		// only the events still held are returned
+		Assert.assertEquals( 10, history.getEventsSince( new Date( 0 ) ).size() );
+
+		Assert.assertEquals( Arrays.asList( events.get( 24 ), events.get( 23 ) ), history.getEventsSince( new Date( 2200 ) ) );
+		Assert.assertEquals( Arrays.asList( events.get( 24 ), events.get( 23 ) ), history.getEventsSince( new Date( 2250 ) ) );
+		Assert.assertEquals( Collections.singletonList( events.get( 24 ) ), history.getEventsSince( new Date( 2399 ) ) );
+		Assert.assertTrue( history.getEventsSince( new Date( 2400 ) ).isEmpty() );
+	}
+
+
+	/** An event older than an earlier event must be found by its position after the later event rather than by its time */
+	@Test
+	public void testOutOfOrderTimes() {
+		final MPSEventHistory history = new MPSEventHistory( 10 );
+		final long[] times = { 100, 300, 200, 400, 250 };
+		final List<MPSEvent> events = new ArrayList<>();
+		for ( final long time : times ) {
+			final MPSEvent event = makeEvent( time );
+			events.add( event );
+			history.add( event );
+		}
+
+		// the time index never decreases, so events after the first one later than the time are all included
+		Assert.assertEquals( Arrays.asList( events.get( 4 ), events.get( 3 ), events.get( 2 ), events.get( 1 ) ), history.getEventsSince( new Date( 250 ) ) );
+		Assert.assertEquals( Arrays.asList( events.get( 4 ), events.get( 3 ) ), history.getEventsSince( new Date( 300 ) ) );
+		Assert.assertTrue( history.getEventsSince( new Date( 400 ) ).isEmpty() );
+	}
+
+
+	/** Readers racing with appends that overwrite the events they copy must retry and never return overwritten or missing events */
+	@Test
+	public void testConcurrentReaders() throws InterruptedException {
+		final int capacity = 16;
+		final int eventCount = 200000;
+		final MPSEventHistory history = new MPSEventHistory( capacity );
+		final AtomicBoolean done = new AtomicBoolean( false );
+		final List<String> errors = Collections.synchronizedList( new ArrayList<String>() );
+
+		final List<Thread> readers = new ArrayList<>();
+		for ( int readerIndex = 0 ; readerIndex < 3 ; readerIndex++ ) {
+			final Random random = new Random( readerIndex );
+			final Thread reader = new Thread( new Runnable() {
+				public void run() {
+					while ( !done.get() && errors.isEmpty() ) {
+						final long since = random.nextInt( eventCount );
+						final List<MPSEvent> events = history.getEventsSince( new Date( since ) );
+						if ( events.size() > capacity )  errors.add( "more events than the capacity: " + events.size() );
+
+						// the event times are the sequence numbers, so the events must be consecutive and all after the time
+						long lastTime = Long.MAX_VALUE;
+						for ( final MPSEvent event : events ) {
+							final long time = event.getTimestamp().getTime();
+							if ( time <= since )  errors.add( "event at " + time + " is not after " + since );
+							if ( lastTime != Long.MAX_VALUE && time != lastTime - 1 )  errors.add( "event at " + time + " does not precede the event at " + lastTime );
+							lastTime = time;
+						}
+
+						// the oldest event is the first one after the time unless it was overwritten
+						if ( !events.isEmpty() && lastTime != since + 1 && events.size() != capacity )  errors.add( "events missing between " + since + " and " + lastTime );
+					}
+				}
+			});
+			readers.add( reader );
+			reader.start();
+		}
+
+		for ( int index = 0 ; index < eventCount ; index++ ) {
+			history.add( makeEvent( index ) );
+		}
+		done.set( true );
+
+		for ( final Thread reader : readers ) {
+			reader.join();
+		}
+
+		Assert.assertTrue( errors.toString(), errors.isEmpty() );
+		Assert.assertEquals( eventCount - 1, history.getEvents().get( 0 ).getTimestamp().getTime() );
+	}
+
+
+	/** make an event at the specified time in milliseconds with no signal events */
+	static private MPSEvent makeEvent( final long time ) {
+		return new MPSEvent( new Date( time ), Collections.<SignalEvent>emptyList() );
+	}
+}
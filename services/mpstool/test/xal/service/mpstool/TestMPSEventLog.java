@@ -0,0 +1,262 @@
+/*
+ *  TestMPSEventLog.java
+ *
+ *  Created on Oct 18, 2026
+ */
+package xal.service.mpstool;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.*;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xal.ca.Timestamp;
+
+
+/**
+ * Test the round trip of MPS events through the event log, the recovery from records left incomplete
+ * or corrupt and the rotation of the log.
+ */
+public class TestMPSEventLog {
+	/** folder holding the log files of each test */
+	private File _folder;
+
+
+	/** create the folder for the log files */
+	@Before
+	public void setUp() throws IOException {
+		_folder = Files.createTempDirectory( "mps-event-log" ).toFile();
+	}
+
+
+	/** delete the folder and its log files */
+	@After
+	public void tearDown() {
+		for ( final File file : _folder.listFiles() ) {
+			file.delete();
+		}
+		_folder.delete();
+	}
+
+
+	/** Events appended to the log must be replayed with their signals and full precision timestamps */
+	@Test
+	public void testRoundTrip() throws IOException {
+		final File file = new File( _folder, "events.log" );
+		final List<MPSEvent> events = makeEvents( 0, 10 );
+
+		final MPSEventLog log = new MPSEventLog( file );
+		Assert.assertEquals( 0, log.replay( new MPSEventHistory( 100 ) ) );
+		for ( final MPSEvent event : events ) {
+			log.append( event );
+		}
+		log.close();
+
+		final MPSEventHistory history = new MPSEventHistory( 100 );
+		final MPSEventLog reopenedLog = new MPSEventLog( file );
+		Assert.assertEquals( events.size(), reopenedLog.replay( history ) );
+
+		// append after the replayed events
+		final MPSEvent lastEvent = makeEvent( 10 );
+		reopenedLog.append( lastEvent );
+		reopenedLog.close();
+		events.add( lastEvent );
+
+		final MPSEventHistory finalHistory = new MPSEventHistory( 100 );
+		final MPSEventLog finalLog = new MPSEventLog( file );
+		Assert.assertEquals( events.size(), finalLog.replay( finalHistory ) );
+		finalLog.close();
+		assertEventsEqual( events, finalHistory.getEvents() );
+	}
+
+
+	/** Appending without replaying the log first must fail */
+	@Test( expected = IllegalStateException.class )
+	public void testAppendBeforeReplay() throws IOException {
+		final MPSEventLog log = new MPSEventLog( new File( _folder, "events.log" ) );
+		try {
+			log.append( makeEvent( 0 ) );
+		}
+		finally {
+			log.close();
+		}
+	}
+
+
+	/** A record cut short must end the log and be overwritten by the next event */
+	@Test
+	public void testTruncatedRecord() throws IOException {
+		final File file = new File( _folder, "events.log" );
+		final List<MPSEvent> events = writeLog( file, 3 );
+
+		// cut the last record short
+		final long end = getLogEnd( file );
+		try ( final RandomAccessFile randomFile = new RandomAccessFile( file, "rw" ) ) {
+			randomFile.setLength( end - 5 );
+		}
+
+		final MPSEventHistory history = new MPSEventHistory( 100 );
+		final MPSEventLog log = new MPSEventLog( file );
+		Assert.assertEquals( 2, log.replay( history ) );
+		assertEventsEqual( events.subList( 0, 2 ), history.getEvents() );
+
+		final MPSEvent newEvent = makeEvent( 7 );
+		log.append( newEvent );
+		log.close();
+
+		final MPSEventHistory finalHistory = new MPSEventHistory( 100 );
+		final MPSEventLog finalLog = new MPSEventLog( file );
+		Assert.assertEquals( 3, finalLog.replay( finalHistory ) );
+		finalLog.close();
+		assertEventsEqual( Arrays.asList( events.get( 0 ), events.get( 1 ), newEvent ), finalHistory.getEvents() );
+	}
+
+
+	/** A record whose length runs past the file or whose content is unreadable must end the log */
+	@Test
+	public void testCorruptRecord() throws IOException {
+		final File file = new File( _folder, "events.log" );
+		final List<MPSEvent> events = writeLog( file, 3 );
+		final long end = getLogEnd( file );
+
+		// a length beyond the end of the file
+		try ( final RandomAccessFile randomFile = new RandomAccessFile( file, "rw" ) ) {
+			randomFile.seek( end );
+			randomFile.writeInt( Integer.MAX_VALUE );
+		}
+		assertReplay( file, events );
+
+		// content with a negative signal event count
+		try ( final RandomAccessFile randomFile = new RandomAccessFile( file, "rw" ) ) {
+			randomFile.seek( end );
+			randomFile.writeInt( 12 );
+			randomFile.writeLong( 0 );
+			randomFile.writeInt( -1 );
+		}
+		assertReplay( file, events );
+	}
+
+
+	/** The log must be rotated once it holds as many events as the history so only the two latest files are kept and replayed */
+	@Test
+	public void testRotation() throws IOException {
+		final File file = new File( _folder, "events.log" );
+		final int capacity = 5;
+		final List<MPSEvent> events = makeEvents( 0, 12 );
+
+		final MPSEventLog log = new MPSEventLog( file );
+		Assert.assertEquals( 0, log.replay( new MPSEventHistory( capacity ) ) );
+		Assert.assertFalse( log.getPreviousFile().exists() );
+		for ( final MPSEvent event : events ) {
+			log.append( event );
+		}
+		log.close();
+
+		// rotated after the fifth and tenth events
+		Assert.assertTrue( log.getPreviousFile().exists() );
+		Assert.assertEquals( 2, countRecords( file ) );
+		Assert.assertEquals( capacity, countRecords( log.getPreviousFile() ) );
+
+		final MPSEventHistory history = new MPSEventHistory( capacity );
+		final MPSEventLog reopenedLog = new MPSEventLog( file );
+		Assert.assertEquals( capacity + 2, reopenedLog.replay( history ) );
+		reopenedLog.close();
+		assertEventsEqual( events.subList( events.size() - capacity, events.size() ), history.getEvents() );
+	}
+
+
+	/** write a new log with the specified number of events */
+	static private List<MPSEvent> writeLog( final File file, final int count ) throws IOException {
+		final List<MPSEvent> events = makeEvents( 0, count );
+		final MPSEventLog log = new MPSEventLog( file );
+		log.replay( new MPSEventHistory( 100 ) );
+		for ( final MPSEvent event : events ) {
+			log.append( event );
+		}
+		log.close();
+		return events;
+	}
+
+
+	/** assert that replaying the log gives the expected events */
+	static private void assertReplay( final File file, final List<MPSEvent> expected ) throws IOException {
+		final MPSEventHistory history = new MPSEventHistory( 100 );
+		final MPSEventLog log = new MPSEventLog( file );
+		Assert.assertEquals( expected.size(), log.replay( history ) );
+		log.close();
+		assertEventsEqual( expected, history.getEvents() );
+	}
+
+
+	/** get the position in the log file after the last record */
+	static private long getLogEnd( final File file ) throws IOException {
+		long position = 0;
+		try ( final DataInputStream input = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) ) ) {
+			int length;
+			while ( ( length = input.readInt() ) > 0 ) {
+				input.skipBytes( length );
+				position += 4 + length;
+			}
+		}
+		return position;
+	}
+
+
+	/** count the records in the log file */
+	static private int countRecords( final File file ) throws IOException {
+		try ( final DataInputStream input = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) ) ) {
+			int count = 0;
+			int length;
+			while ( ( length = input.readInt() ) > 0 ) {
+				input.skipBytes( length );
+				++count;
+			}
+			return count;
+		}
+	}
+
+
+	/** assert that the events held by a history (newest to oldest) are the expected events (oldest to newest) */
+	static private void assertEventsEqual( final List<MPSEvent> expected, final List<MPSEvent> events ) {
+		Assert.assertEquals( expected.size(), events.size() );
+		for ( int index = 0 ; index < expected.size() ; index++ ) {
+			final MPSEvent expectedEvent = expected.get( index );
+			final MPSEvent event = events.get( events.size() - 1 - index );
+			Assert.assertEquals( expectedEvent.getTimestamp(), event.getTimestamp() );
+
+			final List<SignalEvent> expectedSignalEvents = expectedEvent.getSignalEvents();
+			final List<SignalEvent> signalEvents = event.getSignalEvents();
+			Assert.assertEquals( expectedSignalEvents.size(), signalEvents.size() );
+			for ( int signalIndex = 0 ; signalIndex < expectedSignalEvents.size() ; signalIndex++ ) {
+				Assert.assertEquals( expectedSignalEvents.get( signalIndex ).getSignal(), signalEvents.get( signalIndex ).getSignal() );
+				Assert.assertEquals( expectedSignalEvents.get( signalIndex ).getTimestamp().getFullSeconds(), signalEvents.get( signalIndex ).getTimestamp().getFullSeconds() );
+			}
+		}
+	}
+
+
+	/** make the events with the specified range of indexes */
+	static private List<MPSEvent> makeEvents( final int first, final int count ) {
+		final List<MPSEvent> events = new ArrayList<>( count );
+		for ( int index = first ; index < first + count ; index++ ) {
+			events.add( makeEvent( index ) );
+		}
+		return events;
+	}
+
+
+	/** make an event with one to four signal events, each with a nanosecond precision timestamp */
+	static private MPSEvent makeEvent( final int index ) {
+		final List<SignalEvent> signalEvents = new ArrayList<>();
+		for ( int signalIndex = 0 ; signalIndex <= index % 4 ; signalIndex++ ) {
+			final BigDecimal seconds = new BigDecimal( "1792300000.123456789" ).add( new BigDecimal( index ) ).add( new BigDecimal( signalIndex ).movePointLeft( 9 ) );
+			signalEvents.add( new SignalEvent( "MPS:Signal" + signalIndex + "_é", new Timestamp( seconds ) ) );
+		}
+		return new MPSEvent( new Date( 1792300000123L + 1000L * index ), signalEvents );
+	}
+}
@@ -0,0 +1,371 @@
+/*
+ * ScenarioJob.java
+ *
+ * Created on Sun Oct 18 14:20:51 EDT 2026
+ */
+
+package xal.service.worker;
+
+import xal.sim.scenario.Scenario;
+import xal.tools.beam.Twiss;
+
+import java.util.*;
+
+
+/**
+ * ScenarioJob describes an envelope model run to be evaluated by a remote worker. The job identifies the accelerator
+ * and the sequence to model, the synchronization mode, the model input overrides, the initial state of the envelope
+ * probe and the nodes at which to summarize the resulting trajectory. A job is sent to a worker as its representation,
+ * which holds only strings, numbers, arrays and lists so it can be coded by the service directory.
+ */
+public class ScenarioJob {
+	/** key for the accelerator path */
+	final static private String ACCELERATOR_PATH_KEY = "acceleratorPath";
+
+	/** key for the sequence ID */
+	final static private String SEQUENCE_ID_KEY = "sequenceID";
+
+	/** key for the synchronization mode */
+	final static private String SYNCHRONIZATION_MODE_KEY = "synchronizationMode";
+
+	/** key for the model input overrides */
+	final static private String MODEL_INPUTS_KEY = "modelInputs";
+
+	/** key for the node ID of a model input override */
+	final static private String NODE_ID_KEY = "nodeID";
+
+	/** key for the property of a model input override */
+	final static private String PROPERTY_KEY = "property";
+
+	/** key for the value of a model input override */
+	final static private String VALUE_KEY = "value";
+
+	/** key for the initial kinetic energy */
+	final static private String KINETIC_ENERGY_KEY = "kineticEnergy";
+
+	/** key for the initial Twiss parameters */
+	final static private String TWISS_KEY = "twiss";
+
+	/** key for the initial centroid */
+	final static private String CENTROID_KEY = "centroid";
+
+	/** key for the observation node IDs */
+	final static private String OBSERVATION_IDS_KEY = "observationIDs";
+
+	/** path to the accelerator on the worker or null for the worker's default accelerator */
+	final private String ACCELERATOR_PATH;
+
+	/** ID of the sequence (or combo sequence) to model */
+	final private String SEQUENCE_ID;
+
+	/** synchronization mode of the scenario */
+	private String _synchronizationMode;
+
+	/** model input overrides each of which is a node ID, property and value */
+	final private List<Map<String,Object>> MODEL_INPUTS;
+
+	/** initial kinetic energy (eV) or null to use the default initial kinetic energy */
+	private Double _kineticEnergy;
+
+	/** initial alpha, beta and emittance for each of the x, y and z planes or null to use the default initial envelope */
+	private double[] _twiss;
+
+	/** initial centroid (x, x', y, y', z, z') or null to use the default initial centroid */
+	private double[] _centroid;
+
+	/** IDs of the nodes at which to summarize the trajectory */
+	final private List<String> OBSERVATION_IDS;
+
+
+	/**
+	 * Constructor
+	 * @param acceleratorPath path to the accelerator file on the worker or null to use the worker's default accelerator
+	 * @param sequenceID ID of the sequence or combo sequence to model
+	 */
+	public ScenarioJob( final String acceleratorPath, final String sequenceID ) {
+		ACCELERATOR_PATH = acceleratorPath;
+		SEQUENCE_ID = sequenceID;
+		MODEL_INPUTS = new ArrayList<>();
+		OBSERVATION_IDS = new ArrayList<>();
+
+		_synchronizationMode = Scenario.SYNC_MODE_DESIGN;
+		_kineticEnergy = null;
+		_twiss = null;
+		_centroid = null;
+	}
+
+
+	/**
+	 * Generate a job from its representation.
+	 * @param representation the representation of a job as generated by getRepresentation()
+	 * @return the new job
+	 */
+	@SuppressWarnings( "unchecked" )
+	static public ScenarioJob fromRepresentation( final Map<String,Object> representation ) {
+		final ScenarioJob job = new ScenarioJob( (String)representation.get( ACCELERATOR_PATH_KEY ), (String)representation.get( SEQUENCE_ID_KEY ) );
+
+		job.setSynchronizationMode( (String)representation.get( SYNCHRONIZATION_MODE_KEY ) );
+
+		final List<Map<String,Object>> modelInputs = (List<Map<String,Object>>)representation.get( MODEL_INPUTS_KEY );
+		if ( modelInputs != null ) {
+			for ( final Map<String,Object> modelInput : modelInputs ) {
+				job.addModelInput( (String)modelInput.get( NODE_ID_KEY ), (String)modelInput.get( PROPERTY_KEY ), ((Number)modelInput.get( VALUE_KEY )).doubleValue() );
+			}
+		}
+
+		final Number kineticEnergy = (Number)representation.get( KINETIC_ENERGY_KEY );
+		if ( kineticEnergy != null )  job.setKineticEnergy( kineticEnergy.doubleValue() );
+
+		final double[] twiss = (double[])representation.get( TWISS_KEY );
+		if ( twiss != null )  job.setTwiss( twiss );
+
+		final double[] centroid = (double[])representation.get( CENTROID_KEY );
+		if ( centroid != null )  job.setCentroid( centroid );
+
+		final List<String> observationIDs = (List<String>)representation.get( OBSERVATION_IDS_KEY );
+		if ( observationIDs != null ) {
+			for ( final String observationID : observationIDs ) {
+				job.addObservation( observationID );
+			}
+		}
+
+		return job;
+	}
+
+
+	/**
+	 * Get the representation of this job to send to a worker.
+	 * @return the representation of this job
+	 */
+	public Map<String,Object> getRepresentation() {
+		final Map<String,Object> representation = new HashMap<>();
+
+		if ( ACCELERATOR_PATH != null )  representation.put( ACCELERATOR_PATH_KEY, ACCELERATOR_PATH );
+		representation.put( SEQUENCE_ID_KEY, SEQUENCE_ID );
+		representation.put( SYNCHRONIZATION_MODE_KEY, _synchronizationMode );
+		representation.put( MODEL_INPUTS_KEY, new ArrayList<>( MODEL_INPUTS ) );
+		if ( _kineticEnergy != null )  representation.put( KINETIC_ENERGY_KEY, _kineticEnergy );
+		if ( _twiss != null )  representation.put( TWISS_KEY, _twiss.clone() );
+		if ( _centroid != null )  representation.put( CENTROID_KEY, _centroid.clone() );
+		representation.put( OBSERVATION_IDS_KEY, new ArrayList<>( OBSERVATION_IDS ) );
+
+		return representation;
+	}
+
+
+	/**
+	 * Get the path to the accelerator.
+	 * @return the path to the accelerator file on the worker or null for the worker's default accelerator
+	 */
+	public String getAcceleratorPath() {
+		return ACCELERATOR_PATH;
+	}
+
+
+	/**
+	 * Get the ID of the sequence to model.
+	 * @return the ID of the sequence or combo sequence
+	 */
+	public String getSequenceID() {
+		return SEQUENCE_ID;
+	}
+
+
+	/**
+	 * Set the synchronization mode of the scenario.
+	 * @param mode the synchronization mode (e.g. Scenario.SYNC_MODE_DESIGN) or null for the design mode
+	 * @return this job to allow chaining of calls
+	 */
+	public ScenarioJob setSynchronizationMode( final String mode ) {
+		_synchronizationMode = mode != null ? mode : Scenario.SYNC_MODE_DESIGN;
+		return this;
+	}
+
+
+	/**
+	 * Get the synchronization mode of the scenario.
+	 * @return the synchronization mode
+	 */
+	public String getSynchronizationMode() {
+		return _synchronizationMode;
+	}
+
+
+	/**
+	 * Override the specified node property for this job.
+	 * @param nodeID ID of the node whose property to set
+	 * @param property name of the property to set
+	 * @param value value of the property
+	 * @return this job to allow chaining of calls
+	 */
+	public ScenarioJob addModelInput( final String nodeID, final String property, final double value ) {
+		final Map<String,Object> modelInput = new HashMap<>();
+		modelInput.put( NODE_ID_KEY, nodeID );
+		modelInput.put( PROPERTY_KEY, property );
+		modelInput.put( VALUE_KEY, value );
+		MODEL_INPUTS.add( modelInput );
+		return this;
+	}
+
+
+	/**
+	 * Get the number of model input overrides.
+	 * @return the number of model input overrides
+	 */
+	public int getModelInputCount() {
+		return MODEL_INPUTS.size();
+	}
+
+
+	/**
+	 * Get the ID of the node of the specified model input override.
+	 * @param index index of the model input override
+	 * @return the node ID
+	 */
+	public String getModelInputNodeID( final int index ) {
+		return (String)MODEL_INPUTS.get( index ).get( NODE_ID_KEY );
+	}
+
+
+	/**
+	 * Get the property of the specified model input override.
+	 * @param index index of the model input override
+	 * @return the name of the property
+	 */
+	public String getModelInputProperty( final int index ) {
+		return (String)MODEL_INPUTS.get( index ).get( PROPERTY_KEY );
+	}
+
+
+	/**
+	 * Get the value of the specified model input override.
+	 * @param index index of the model input override
+	 * @return the value of the property
+	 */
+	public double getModelInputValue( final int index ) {
+		return ((Number)MODEL_INPUTS.get( index ).get( VALUE_KEY )).doubleValue();
+	}
+
+
+	/**
+	 * Set the initial kinetic energy of the probe.
+	 * @param kineticEnergy the kinetic energy in eV
+	 * @return this job to allow chaining of calls
+	 */
+	public ScenarioJob setKineticEnergy( final double kineticEnergy ) {
+		_kineticEnergy = kineticEnergy;
+		return this;
+	}
+
+
+	/**
+	 * Get the initial kinetic energy of the probe.
+	 * @return the kinetic energy in eV or null if the default initial kinetic energy is used
+	 */
+	public Double getKineticEnergy() {
+		return _kineticEnergy;
+	}
+
+
+	/**
+	 * Set the initial envelope of the probe from the Twiss parameters of each plane.
+	 * @param twissX Twiss parameters of the x plane
+	 * @param twissY Twiss parameters of the y plane
+	 * @param twissZ Twiss parameters of the z plane
+	 * @return this job to allow chaining of calls
+	 */
+	public ScenarioJob setTwiss( final Twiss twissX, final Twiss twissY, final Twiss twissZ ) {
+		return setTwiss( new double[] {
+			twissX.getAlpha(), twissX.getBeta(), twissX.getEmittance(),
+			twissY.getAlpha(), twissY.getBeta(), twissY.getEmittance(),
+			twissZ.getAlpha(), twissZ.getBeta(), twissZ.getEmittance()
+		} );
+	}
+
+
+	/**
+	 * Set the initial envelope of the probe from the Twiss parameters of each plane.
+	 * @param twiss alpha, beta and emittance for each of the x, y and z planes in that order
+	 * @return this job to allow chaining of calls
+	 */
+	public ScenarioJob setTwiss( final double[] twiss ) {
+		if ( twiss.length != 9 )  throw new IllegalArgumentException( "Expected 9 Twiss parameters but got " + twiss.length );
+		_twiss = twiss.clone();
+		return this;
+	}
+
+
+	/**
+	 * Get the initial Twiss parameters of the probe.
+	 * @return alpha, beta and emittance for each of the x, y and z planes or null if the default initial envelope is used
+	 */
+	public Twiss[] getTwiss() {
+		if ( _twiss == null )  return null;
+
+		final Twiss[] twiss = new Twiss[3];
+		for ( int plane = 0 ; plane < 3 ; plane++ ) {
+			twiss[plane] = new Twiss( _twiss[3*plane], _twiss[3*plane + 1], _twiss[3*plane + 2] );
+		}
+		return twiss;
+	}
+
+
+	/**
+	 * Set the initial centroid of the probe.
+	 * @param centroid the phase coordinates (x, x', y, y', z, z') of the centroid
+	 * @return this job to allow chaining of calls
+	 */
+	public ScenarioJob setCentroid( final double[] centroid ) {
+		if ( centroid.length != 6 )  throw new IllegalArgumentException( "Expected 6 centroid coordinates but got " + centroid.length );
+		_centroid = centroid.clone();
+		return this;
+	}
+
+
+	/**
+	 * Get the initial centroid of the probe.
+	 * @return the phase coordinates (x, x', y, y', z, z') of the centroid or null if the default initial centroid is used
+	 */
+	public double[] getCentroid() {
+		return _centroid != null ? _centroid.clone() : null;
+	}
+
+
+	/**
+	 * Summarize the trajectory at the specified node. If no observation nodes are added, only the final state is summarized.
+	 * @param nodeID ID of the node at which to summarize the trajectory
+	 * @return this job to allow chaining of calls
+	 */
+	public ScenarioJob addObservation( final String nodeID ) {
+		OBSERVATION_IDS.add( nodeID );
+		return this;
+	}
+
+
+	/**
+	 * Get the IDs of the nodes at which to summarize the trajectory.
+	 * @return unmodifiable list of the observation node IDs
+	 */
+	public List<String> getObservationIDs() {
+		return Collections.unmodifiableList( OBSERVATION_IDS );
+	}
+
+
+	/**
+	 * Get the key identifying the model which evaluates this job. Jobs with the same key differ only by their model
+	 * input overrides, initial state and observations, so a worker may reuse the same model for them.
+	 * @return the model key
+	 */
+	public String getModelKey() {
+		return ACCELERATOR_PATH + "|" + SEQUENCE_ID + "|" + _synchronizationMode;
+	}
+
+
+	/**
+	 * Generate a description of this job.
+	 * @return description of this job
+	 */
+	public String toString() {
+		return "accelerator: " + ( ACCELERATOR_PATH != null ? ACCELERATOR_PATH : "default" ) + ", sequence: " + SEQUENCE_ID + ", mode: " + _synchronizationMode + ", model inputs: " + MODEL_INPUTS.size();
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * ScenarioJobListener.java
+ *
+ * Created on Sun Oct 18 15:31:44 EDT 2026
+ */
+
+package xal.service.worker;
+
+
+/**
+ * ScenarioJobListener receives the outcome of each scenario job submitted to a scheduler as soon as it is known.
+ * Events are posted from the scheduler's threads, possibly concurrently for different jobs.
+ */
+public interface ScenarioJobListener {
+	/**
+	 * A job has been evaluated.
+	 * @param job the job which has been evaluated
+	 * @param index index of the job in its submission
+	 * @param summary summary of the trajectory computed for the job
+	 */
+	public void jobCompleted( final ScenarioJob job, final int index, final TrajectorySummary summary );
+
+
+	/**
+	 * A job has failed or was cancelled.
+	 * @param job the job which has failed
+	 * @param index index of the job in its submission
+	 * @param exception the cause of the failure
+	 */
+	public void jobFailed( final ScenarioJob job, final int index, final Exception exception );
+}
@@ -0,0 +1,697 @@
+/*
+ * ScenarioJobScheduler.java
+ *
+ * Created on Sun Oct 18 15:40:12 EDT 2026
+ */
+
+package xal.service.worker;
+
+import xal.extension.service.RemoteServiceDroppedException;
+import xal.extension.service.ServiceDirectory;
+import xal.extension.service.ServiceListener;
+import xal.extension.service.ServiceRef;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * ScenarioJobScheduler distributes scenario jobs among the remote workers discovered through the service directory.
+ * Each worker evaluates up to its evaluation capacity of jobs at once, and each job is sent to the worker with the
+ * lowest load relative to its capacity. Summaries are posted to the submission's listener as soon as each job is done,
+ * in whatever order the jobs complete. If a worker drops while evaluating a job, the worker is no longer used until
+ * the directory announces it again and the job is sent to another worker, up to the maximum number of attempts.
+ * Jobs which fail on a worker for any other reason are not retried since they would fail again. Jobs wait in the
+ * queue until a worker is first found, but once the last worker is removed the pending jobs fail rather than waiting
+ * for a worker which may never come back.
+ */
+public class ScenarioJobScheduler {
+	/** default maximum number of attempts to evaluate a job whose worker drops */
+	final static public int DEFAULT_MAX_ATTEMPTS = 3;
+
+	/** directory through which workers are discovered or null if workers are only added explicitly */
+	final private ServiceDirectory DIRECTORY;
+
+	/** listener of worker services or null if workers are only added explicitly */
+	final private ServiceListener SERVICE_LISTENER;
+
+	/** available workers keyed by service name */
+	final private Map<String,WorkerSlot> WORKERS;
+
+	/** jobs waiting to be sent to a worker in the order they are dispatched */
+	final private LinkedList<PendingJob> PENDING_JOBS;
+
+	/** pool of threads which wait for the remote evaluations */
+	final private ExecutorService EVALUATION_POOL;
+
+	/** thread which sends pending jobs to workers as the workers become available */
+	final private Thread DISPATCH_THREAD;
+
+	/** maximum number of attempts to evaluate a job whose worker drops */
+	private volatile int _maxAttempts;
+
+	/** indicates whether this scheduler has been disposed */
+	private boolean _isDisposed;
+
+
+	/** Constructor which discovers workers through the default service directory */
+	public ScenarioJobScheduler() {
+		this( ServiceDirectory.defaultDirectory() );
+	}
+
+
+	/**
+	 * Primary Constructor
+	 * @param directory the directory through which to discover workers or null to only use workers added explicitly
+	 */
+	public ScenarioJobScheduler( final ServiceDirectory directory ) {
+		DIRECTORY = directory;
+		WORKERS = new HashMap<String,WorkerSlot>();
+		PENDING_JOBS = new LinkedList<PendingJob>();
+		_maxAttempts = DEFAULT_MAX_ATTEMPTS;
+		_isDisposed = false;
+
+		EVALUATION_POOL = Executors.newCachedThreadPool( runnable -> {
+			final Thread thread = new Thread( runnable, "Scenario Job Evaluation" );
+			thread.setDaemon( true );
+			return thread;
+		} );
+
+		DISPATCH_THREAD = new Thread( this::dispatchJobs, "Scenario Job Dispatch" );
+		DISPATCH_THREAD.setDaemon( true );
+		DISPATCH_THREAD.start();
+
+		if ( directory != null ) {
+			SERVICE_LISTENER = getServiceListenerInstance();
+			directory.addServiceListener( Working.class, SERVICE_LISTENER );
+		}
+		else {
+			SERVICE_LISTENER = null;
+		}
+	}
+
+
+	/** Stop discovering workers and cancel the jobs which have not been sent to a worker. */
+	public void dispose() {
+		final List<PendingJob> cancelledJobs;
+		synchronized( this ) {
+			if ( _isDisposed )  return;
+
+			_isDisposed = true;
+			cancelledJobs = new ArrayList<PendingJob>( PENDING_JOBS );
+			PENDING_JOBS.clear();
+			notifyAll();
+		}
+
+		if ( SERVICE_LISTENER != null ) {
+			DIRECTORY.removeServiceListener( SERVICE_LISTENER );
+		}
+
+		for ( final PendingJob pendingJob : cancelledJobs ) {
+			pendingJob.SUBMISSION.fail( pendingJob.INDEX, new CancellationException( "The scenario job scheduler has been disposed." ) );
+		}
+
+		EVALUATION_POOL.shutdown();
+	}
+
+
+	/**
+	 * Set the maximum number of attempts to evaluate a job whose worker drops.
+	 * @param maxAttempts the maximum number of attempts which must be at least one
+	 */
+	public void setMaxAttempts( final int maxAttempts ) {
+		if ( maxAttempts < 1 )  throw new IllegalArgumentException( "The maximum number of attempts must be at least one: " + maxAttempts );
+		_maxAttempts = maxAttempts;
+	}
+
+
+	/**
+	 * Get the maximum number of attempts to evaluate a job whose worker drops.
+	 * @return the maximum number of attempts
+	 */
+	public int getMaxAttempts() {
+		return _maxAttempts;
+	}
+
+
+	/**
+	 * Get the number of available workers.
+	 * @return the number of available workers
+	 */
+	synchronized public int getWorkerCount() {
+		return WORKERS.size();
+	}
+
+
+	/**
+	 * Add a worker to which jobs may be sent. Workers discovered through the directory are added automatically.
+	 * @param name unique name of the worker
+	 * @param worker proxy to the worker
+	 */
+	public void addWorker( final String name, final Working worker ) {
+		final WorkerSlot slot = new WorkerSlot( name, worker );
+		synchronized( this ) {
+			if ( _isDisposed || WORKERS.containsKey( name ) )  return;
+
+			WORKERS.put( name, slot );
+			notifyAll();
+		}
+
+		// fetch the capacity remotely so the caller is not blocked (the worker takes one job at a time until then)
+		EVALUATION_POOL.execute( () -> {
+			try {
+				final int capacity = worker.getEvaluationCapacity();
+				synchronized( ScenarioJobScheduler.this ) {
+					slot.setCapacity( capacity );
+					ScenarioJobScheduler.this.notifyAll();
+				}
+			}
+			catch ( RemoteServiceDroppedException exception ) {
+				removeWorker( slot );
+			}
+			catch ( Exception exception ) {
+				Logger.getLogger( "global" ).log( Level.WARNING, "Exception getting the evaluation capacity of worker " + name + ".", exception );
+			}
+		} );
+	}
+
+
+	/**
+	 * Remove the worker so no more jobs are sent to it. Jobs it is evaluating are not affected. If it was the last
+	 * worker, the pending jobs fail.
+	 * @param name name of the worker to remove
+	 */
+	public void removeWorker( final String name ) {
+		final List<PendingJob> strandedJobs;
+		synchronized( this ) {
+			if ( WORKERS.remove( name ) == null )  return;
+			strandedJobs = removeStrandedJobs();
+		}
+		failStrandedJobs( strandedJobs );
+	}
+
+
+	/**
+	 * Remove the specified worker if it has not been replaced already. If it was the last worker, the pending jobs fail.
+	 * @param slot the slot of the worker to remove
+	 */
+	private void removeWorker( final WorkerSlot slot ) {
+		final List<PendingJob> strandedJobs;
+		synchronized( this ) {
+			if ( WORKERS.get( slot.NAME ) != slot )  return;
+			WORKERS.remove( slot.NAME );
+			strandedJobs = removeStrandedJobs();
+		}
+		failStrandedJobs( strandedJobs );
+	}
+
+
+	/**
+	 * Remove the pending jobs if no worker is left to evaluate them (must be called while locking this scheduler).
+	 * @return the removed jobs which is empty if a worker is left
+	 */
+	private List<PendingJob> removeStrandedJobs() {
+		if ( !WORKERS.isEmpty() )  return Collections.<PendingJob>emptyList();
+
+		final List<PendingJob> strandedJobs = new ArrayList<PendingJob>( PENDING_JOBS );
+		PENDING_JOBS.clear();
+		return strandedJobs;
+	}
+
+
+	/**
+	 * Fail the jobs which were left pending when the last worker was removed.
+	 * @param strandedJobs the jobs to fail
+	 */
+	private void failStrandedJobs( final List<PendingJob> strandedJobs ) {
+		for ( final PendingJob pendingJob : strandedJobs ) {
+			pendingJob.SUBMISSION.fail( pendingJob.INDEX, new IllegalStateException( "No worker is left to evaluate the scenario job." ) );
+		}
+	}
+
+
+	/**
+	 * Submit jobs for evaluation.
+	 * @param jobs the jobs to evaluate
+	 * @param listener listener which receives the outcome of each job as it completes or null for none
+	 * @return the submission which tracks the jobs
+	 */
+	public Submission submit( final List<ScenarioJob> jobs, final ScenarioJobListener listener ) {
+		final Submission submission = new Submission( jobs, listener );
+
+		synchronized( this ) {
+			if ( _isDisposed )  throw new IllegalStateException( "Cannot submit jobs to a disposed scenario job scheduler." );
+
+			for ( int index = 0 ; index < jobs.size() ; index++ ) {
+				PENDING_JOBS.add( new PendingJob( submission, index, 1 ) );
+			}
+			notifyAll();
+		}
+
+		return submission;
+	}
+
+
+	/**
+	 * Submit jobs for evaluation and wait for all of them to complete. This waits indefinitely while no worker has
+	 * been found, so use the timeout variant if workers may never be discovered.
+	 * @param jobs the jobs to evaluate
+	 * @return the summary of each job in the order of the jobs with null for each failed job
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public List<TrajectorySummary> evaluate( final List<ScenarioJob> jobs ) throws InterruptedException {
+		final Submission submission = submit( jobs, null );
+		submission.awaitCompletion();
+		return submission.getSummaries();
+	}
+
+
+	/**
+	 * Submit jobs for evaluation and wait for all of them to complete or the timeout to expire. Upon timeout, the
+	 * jobs which have not been sent to a worker are cancelled and the jobs being evaluated are abandoned.
+	 * @param jobs the jobs to evaluate
+	 * @param timeout maximum time to wait in milliseconds
+	 * @return the summary of each job in the order of the jobs with null for each failed or unfinished job
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public List<TrajectorySummary> evaluate( final List<ScenarioJob> jobs, final long timeout ) throws InterruptedException {
+		final Submission submission = submit( jobs, null );
+		if ( !submission.awaitCompletion( timeout ) ) {
+			submission.cancel();
+		}
+		return submission.getSummaries();
+	}
+
+
+	/** Send the pending jobs to the workers as they become available until this scheduler is disposed. */
+	private void dispatchJobs() {
+		try {
+			while ( true ) {
+				final PendingJob pendingJob;
+				final WorkerSlot worker;
+
+				synchronized( this ) {
+					WorkerSlot availableWorker = null;
+					while ( !_isDisposed && ( PENDING_JOBS.isEmpty() || ( availableWorker = selectWorker() ) == null ) ) {
+						wait();
+					}
+					if ( _isDisposed )  return;
+
+					worker = availableWorker;
+					pendingJob = PENDING_JOBS.removeFirst();
+					worker.acquire();
+				}
+
+				EVALUATION_POOL.execute( () -> evaluate( pendingJob, worker ) );
+			}
+		}
+		catch ( InterruptedException exception ) {
+			Logger.getLogger( "global" ).log( Level.WARNING, "Scenario job dispatch interrupted.", exception );
+		}
+	}
+
+
+	/**
+	 * Select the worker with the lowest load among those with spare capacity.
+	 * @return the selected worker or null if no worker has spare capacity
+	 */
+	private WorkerSlot selectWorker() {
+		WorkerSlot selection = null;
+		for ( final WorkerSlot worker : WORKERS.values() ) {
+			if ( worker.hasSpareCapacity() && ( selection == null || worker.getLoad() < selection.getLoad() ) ) {
+				selection = worker;
+			}
+		}
+		return selection;
+	}
+
+
+	/**
+	 * Evaluate the job on the worker and post the outcome to the job's submission.
+	 * @param pendingJob the job to evaluate
+	 * @param worker the worker which evaluates the job
+	 */
+	private void evaluate( final PendingJob pendingJob, final WorkerSlot worker ) {
+		final Submission submission = pendingJob.SUBMISSION;
+		final int index = pendingJob.INDEX;
+
+		TrajectorySummary summary = null;
+		Exception failure = null;
+		boolean dropped = false;
+		try {
+			final Map<String,Object> result = worker.WORKER.evaluateScenario( submission.getJob( index ).getRepresentation() );
+			summary = TrajectorySummary.fromRepresentation( result );
+		}
+		catch ( RemoteServiceDroppedException exception ) {
+			failure = exception;
+			dropped = true;
+			removeWorker( worker );		// remove the worker before releasing its slot so no other job is sent to it
+		}
+		catch ( Exception exception ) {
+			failure = exception;
+		}
+		finally {
+			synchronized( this ) {
+				worker.release();
+				notifyAll();
+			}
+		}
+
+		if ( dropped ) {
+			Logger.getLogger( "global" ).log( Level.WARNING, "Worker " + worker.NAME + " dropped while evaluating a scenario job.", failure );
+			if ( pendingJob.ATTEMPT < _maxAttempts && retry( pendingJob ) )  return;
+		}
+
+		if ( failure == null ) {
+			submission.complete( index, summary );
+		}
+		else {
+			submission.fail( index, failure );
+		}
+	}
+
+
+	/**
+	 * Queue the job to be sent to another worker ahead of the other pending jobs.
+	 * @param pendingJob the job to retry
+	 * @return true if the job was queued and false if it cannot be retried because no worker is left to take it
+	 */
+	synchronized private boolean retry( final PendingJob pendingJob ) {
+		if ( _isDisposed || pendingJob.SUBMISSION.isCancelled() || WORKERS.isEmpty() )  return false;
+
+		PENDING_JOBS.addFirst( new PendingJob( pendingJob.SUBMISSION, pendingJob.INDEX, pendingJob.ATTEMPT + 1 ) );
+		notifyAll();
+		return true;
+	}
+
+
+	/**
+	 * Remove the pending jobs of the specified submission.
+	 * @param submission the submission whose pending jobs to remove
+	 * @return the removed jobs
+	 */
+	synchronized private List<PendingJob> removePendingJobs( final Submission submission ) {
+		final List<PendingJob> removedJobs = new ArrayList<PendingJob>();
+		final Iterator<PendingJob> jobIter = PENDING_JOBS.iterator();
+		while ( jobIter.hasNext() ) {
+			final PendingJob pendingJob = jobIter.next();
+			if ( pendingJob.SUBMISSION == submission ) {
+				removedJobs.add( pendingJob );
+				jobIter.remove();
+			}
+		}
+		return removedJobs;
+	}
+
+
+	/** get an instance of a service listener for the workers */
+	private ServiceListener getServiceListenerInstance() {
+		return new ServiceListener() {
+			/**
+			 * Handle a new service being added
+			 * @param directory The service directory.
+			 * @param serviceRef A reference to the new service.
+			 */
+			public void serviceAdded( final ServiceDirectory directory, final ServiceRef serviceRef ) {
+				final Working proxy = directory.getProxy( Working.class, serviceRef );
+				addWorker( serviceRef.getRawName(), proxy );
+			}
+
+			/**
+			 * Handle a service being removed
+			 * @param directory The service directory.
+			 * @param name The unique name of the service.
+			 */
+			public void serviceRemoved( final ServiceDirectory directory, final String type, final String name ) {
+				removeWorker( name );
+			}
+		};
+	}
+
+
+
+	/** Jobs submitted together whose outcomes are tracked as they complete */
+	public class Submission {
+		/** the submitted jobs */
+		final private List<ScenarioJob> JOBS;
+
+		/** listener of job outcomes or null for none */
+		final private ScenarioJobListener LISTENER;
+
+		/** summaries of the completed jobs */
+		final private TrajectorySummary[] SUMMARIES;
+
+		/** causes of the failed jobs */
+		final private Exception[] FAILURES;
+
+		/** number of jobs whose outcome is not yet known */
+		private int _remainingCount;
+
+		/** indicates whether the submission has been cancelled */
+		private volatile boolean _isCancelled;
+
+
+		/**
+		 * Constructor
+		 * @param jobs the jobs to evaluate
+		 * @param listener listener of job outcomes or null for none
+		 */
+		private Submission( final List<ScenarioJob> jobs, final ScenarioJobListener listener ) {
+			JOBS = new ArrayList<ScenarioJob>( jobs );
+			LISTENER = listener;
+			SUMMARIES = new TrajectorySummary[JOBS.size()];
+			FAILURES = new Exception[JOBS.size()];
+			_remainingCount = JOBS.size();
+			_isCancelled = false;
+		}
+
+
+		/**
+		 * Get the number of submitted jobs.
+		 * @return the number of jobs
+		 */
+		public int getJobCount() {
+			return JOBS.size();
+		}
+
+
+		/**
+		 * Get the specified job.
+		 * @param index index of the job
+		 * @return the job
+		 */
+		public ScenarioJob getJob( final int index ) {
+			return JOBS.get( index );
+		}
+
+
+		/**
+		 * Get the summaries of the jobs.
+		 * @return the summary of each job in the order of the jobs with null for each failed or unfinished job
+		 */
+		synchronized public List<TrajectorySummary> getSummaries() {
+			return new ArrayList<TrajectorySummary>( Arrays.asList( SUMMARIES ) );
+		}
+
+
+		/**
+		 * Get the cause of the failure of the specified job.
+		 * @param index index of the job
+		 * @return the cause of the failure or null if the job has not failed
+		 */
+		synchronized public Exception getFailure( final int index ) {
+			return FAILURES[index];
+		}
+
+
+		/**
+		 * Determine whether the outcome of every job is known.
+		 * @return true if every job has completed or failed and false if not
+		 */
+		synchronized public boolean isDone() {
+			return _remainingCount == 0;
+		}
+
+
+		/**
+		 * Determine whether this submission has been cancelled.
+		 * @return true if this submission has been cancelled and false if not
+		 */
+		public boolean isCancelled() {
+			return _isCancelled;
+		}
+
+
+		/** Cancel the jobs which have not been sent to a worker. The jobs being evaluated complete as usual. */
+		public void cancel() {
+			_isCancelled = true;
+			for ( final PendingJob pendingJob : removePendingJobs( this ) ) {
+				fail( pendingJob.INDEX, new CancellationException( "The scenario job was cancelled." ) );
+			}
+		}
+
+
+		/**
+		 * Wait until the outcome of every job is known.
+		 * @throws InterruptedException if the thread is interrupted while waiting
+		 */
+		synchronized public void awaitCompletion() throws InterruptedException {
+			while ( _remainingCount > 0 ) {
+				wait();
+			}
+		}
+
+
+		/**
+		 * Wait until the outcome of every job is known or the timeout expires.
+		 * @param timeout maximum time to wait in milliseconds
+		 * @return true if the outcome of every job is known and false if the timeout expired
+		 * @throws InterruptedException if the thread is interrupted while waiting
+		 */
+		synchronized public boolean awaitCompletion( final long timeout ) throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + timeout;
+			while ( _remainingCount > 0 ) {
+				final long remainingTime = deadline - System.currentTimeMillis();
+				if ( remainingTime <= 0 )  return false;
+				wait( remainingTime );
+			}
+			return true;
+		}
+
+
+		/**
+		 * Record the summary of the completed job and post it to the listener.
+		 * @param index index of the job
+		 * @param summary summary of the job's trajectory
+		 */
+		private void complete( final int index, final TrajectorySummary summary ) {
+			synchronized( this ) {
+				SUMMARIES[index] = summary;
+			}
+
+			if ( LISTENER != null ) {
+				try {
+					LISTENER.jobCompleted( JOBS.get( index ), index, summary );
+				}
+				catch ( Exception exception ) {
+					Logger.getLogger( "global" ).log( Level.WARNING, "Exception in scenario job listener.", exception );
+				}
+			}
+
+			countOutcome();
+		}
+
+
+		/**
+		 * Record the failure of the job and post it to the listener.
+		 * @param index index of the job
+		 * @param failure cause of the failure
+		 */
+		private void fail( final int index, final Exception failure ) {
+			synchronized( this ) {
+				FAILURES[index] = failure;
+			}
+
+			if ( LISTENER != null ) {
+				try {
+					LISTENER.jobFailed( JOBS.get( index ), index, failure );
+				}
+				catch ( Exception exception ) {
+					Logger.getLogger( "global" ).log( Level.WARNING, "Exception in scenario job listener.", exception );
+				}
+			}
+
+			countOutcome();
+		}
+
+
+		/** Count the outcome of a job and wake up the threads waiting for completion after the last one. */
+		synchronized private void countOutcome() {
+			if ( --_remainingCount == 0 ) {
+				notifyAll();
+			}
+		}
+	}
+
+
+
+	/** A job waiting to be sent to a worker */
+	static private class PendingJob {
+		/** submission holding the job */
+		final private Submission SUBMISSION;
+
+		/** index of the job in its submission */
+		final private int INDEX;
+
+		/** attempt number starting at one for the first attempt */
+		final private int ATTEMPT;
+
+
+		/** Constructor */
+		public PendingJob( final Submission submission, final int index, final int attempt ) {
+			SUBMISSION = submission;
+			INDEX = index;
+			ATTEMPT = attempt;
+		}
+	}
+
+
+
+	/** A worker and the number of jobs it is evaluating (accessed while locking the scheduler) */
+	static private class WorkerSlot {
+		/** name of the worker */
+		final private String NAME;
+
+		/** proxy to the worker */
+		final private Working WORKER;
+
+		/** maximum number of jobs which the worker evaluates at once */
+		private int _capacity;
+
+		/** number of jobs being evaluated by the worker */
+		private int _activeCount;
+
+
+		/** Constructor */
+		public WorkerSlot( final String name, final Working worker ) {
+			NAME = name;
+			WORKER = worker;
+			_capacity = 1;
+			_activeCount = 0;
+		}
+
+
+		/** set the maximum number of jobs which the worker evaluates at once */
+		public void setCapacity( final int capacity ) {
+			_capacity = Math.max( 1, capacity );
+		}
+
+
+		/** determine whether the worker can take another job */
+		public boolean hasSpareCapacity() {
+			return _activeCount < _capacity;
+		}
+
+
+		/** get the fraction of the worker's capacity in use */
+		public double getLoad() {
+			return (double)_activeCount / _capacity;
+		}
+
+
+		/** count a job sent to the worker */
+		public void acquire() {
+			++_activeCount;
+		}
+
+
+		/** count a job finished by the worker */
+		public void release() {
+			--_activeCount;
+		}
+	}
+}
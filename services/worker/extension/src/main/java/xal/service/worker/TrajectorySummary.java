@@ -0,0 +1,189 @@
+/*
+ * TrajectorySummary.java
+ *
+ * Created on Sun Oct 18 14:52:06 EDT 2026
+ */
+
+package xal.service.worker;
+
+import xal.model.probe.traj.EnvelopeProbeState;
+import xal.tools.beam.CovarianceMatrix;
+
+import java.util.*;
+
+
+/**
+ * TrajectorySummary is the compact summary of an envelope trajectory returned by a worker for a scenario job. For each
+ * observed state it holds the element ID, position, kinetic energy, centroid and rms beam size, stored as one array per
+ * quantity so the summary is cheap to code and send.
+ */
+public class TrajectorySummary {
+	/** key for the element IDs */
+	final static private String ELEMENT_IDS_KEY = "elementIDs";
+
+	/** keys for the double arrays in the order they are held */
+	final static private String[] VALUE_KEYS = { "positions", "kineticEnergies", "meanX", "meanY", "meanZ", "sigmaX", "sigmaY", "sigmaZ" };
+
+	/** index of the positions */
+	final static private int POSITION_INDEX = 0;
+
+	/** index of the kinetic energies */
+	final static private int KINETIC_ENERGY_INDEX = 1;
+
+	/** index of the x centroids */
+	final static private int MEAN_X_INDEX = 2;
+
+	/** index of the x rms sizes */
+	final static private int SIGMA_X_INDEX = 5;
+
+	/** IDs of the elements of the observed states */
+	final private String[] ELEMENT_IDS;
+
+	/** values of the observed states with one array per quantity */
+	final private double[][] VALUES;
+
+
+	/**
+	 * Constructor
+	 * @param elementIDs IDs of the elements of the observed states
+	 * @param values values of the observed states with one array per quantity
+	 */
+	private TrajectorySummary( final String[] elementIDs, final double[][] values ) {
+		ELEMENT_IDS = elementIDs;
+		VALUES = values;
+	}
+
+
+	/**
+	 * Generate the summary of the specified probe states.
+	 * @param states the observed probe states
+	 * @return the summary of the states
+	 */
+	static public TrajectorySummary fromStates( final List<EnvelopeProbeState> states ) {
+		final int count = states.size();
+		final String[] elementIDs = new String[count];
+		final double[][] values = new double[VALUE_KEYS.length][count];
+
+		for ( int index = 0 ; index < count ; index++ ) {
+			final EnvelopeProbeState state = states.get( index );
+			final CovarianceMatrix covariance = state.getCovarianceMatrix();
+
+			elementIDs[index] = state.getElementId();
+			values[POSITION_INDEX][index] = state.getPosition();
+			values[KINETIC_ENERGY_INDEX][index] = state.getKineticEnergy();
+			values[MEAN_X_INDEX][index] = covariance.getMeanX();
+			values[MEAN_X_INDEX + 1][index] = covariance.getMeanY();
+			values[MEAN_X_INDEX + 2][index] = covariance.getMeanZ();
+			values[SIGMA_X_INDEX][index] = covariance.getSigmaX();
+			values[SIGMA_X_INDEX + 1][index] = covariance.getSigmaY();
+			values[SIGMA_X_INDEX + 2][index] = covariance.getSigmaZ();
+		}
+
+		return new TrajectorySummary( elementIDs, values );
+	}
+
+
+	/**
+	 * Generate a summary from its representation.
+	 * @param representation the representation of a summary as generated by getRepresentation()
+	 * @return the new summary
+	 */
+	static public TrajectorySummary fromRepresentation( final Map<String,Object> representation ) {
+		final String[] elementIDs = (String[])representation.get( ELEMENT_IDS_KEY );
+		final double[][] values = new double[VALUE_KEYS.length][];
+		for ( int index = 0 ; index < VALUE_KEYS.length ; index++ ) {
+			values[index] = (double[])representation.get( VALUE_KEYS[index] );
+		}
+
+		return new TrajectorySummary( elementIDs, values );
+	}
+
+
+	/**
+	 * Get the representation of this summary to send to a client.
+	 * @return the representation of this summary
+	 */
+	public Map<String,Object> getRepresentation() {
+		final Map<String,Object> representation = new HashMap<>();
+
+		representation.put( ELEMENT_IDS_KEY, ELEMENT_IDS );
+		for ( int index = 0 ; index < VALUE_KEYS.length ; index++ ) {
+			representation.put( VALUE_KEYS[index], VALUES[index] );
+		}
+
+		return representation;
+	}
+
+
+	/**
+	 * Get the number of observed states.
+	 * @return the number of observed states
+	 */
+	public int getStateCount() {
+		return ELEMENT_IDS.length;
+	}
+
+
+	/**
+	 * Get the element ID of the specified state.
+	 * @param index index of the observed state
+	 * @return the element ID
+	 */
+	public String getElementID( final int index ) {
+		return ELEMENT_IDS[index];
+	}
+
+
+	/**
+	 * Get the position of the specified state.
+	 * @param index index of the observed state
+	 * @return the position (meters)
+	 */
+	public double getPosition( final int index ) {
+		return VALUES[POSITION_INDEX][index];
+	}
+
+
+	/**
+	 * Get the kinetic energy of the specified state.
+	 * @param index index of the observed state
+	 * @return the kinetic energy (eV)
+	 */
+	public double getKineticEnergy( final int index ) {
+		return VALUES[KINETIC_ENERGY_INDEX][index];
+	}
+
+
+	/**
+	 * Get the centroid of the specified state.
+	 * @param index index of the observed state
+	 * @return the x, y and z coordinates of the centroid (meters)
+	 */
+	public double[] getMean( final int index ) {
+		return new double[] { VALUES[MEAN_X_INDEX][index], VALUES[MEAN_X_INDEX + 1][index], VALUES[MEAN_X_INDEX + 2][index] };
+	}
+
+
+	/**
+	 * Get the rms beam size of the specified state.
+	 * @param index index of the observed state
+	 * @return the x, y and z rms sizes (meters)
+	 */
+	public double[] getSigma( final int index ) {
+		return new double[] { VALUES[SIGMA_X_INDEX][index], VALUES[SIGMA_X_INDEX + 1][index], VALUES[SIGMA_X_INDEX + 2][index] };
+	}
+
+
+	/**
+	 * Generate a description of this summary.
+	 * @return description of this summary
+	 */
+	public String toString() {
+		final StringBuffer buffer = new StringBuffer();
+		for ( int index = 0 ; index < ELEMENT_IDS.length ; index++ ) {
+			buffer.append( ELEMENT_IDS[index] + ": position: " + getPosition( index ) + ", W: " + getKineticEnergy( index ) );
+			buffer.append( ", mean: " + Arrays.toString( getMean( index ) ) + ", sigma: " + Arrays.toString( getSigma( index ) ) + "\n" );
+		}
+		return buffer.toString();
+	}
+}
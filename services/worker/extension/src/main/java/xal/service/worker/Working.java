@@ -13,10 +13,11 @@ package xal.service.worker;
 import xal.extension.service.OneWay;
 
 import java.util.Date;
+import java.util.Map;
 
 
 /**
- * Demo service interface.
+ * Worker service interface providing demo work and the evaluation of scenario jobs.
  * @author  tap
  */
 public interface Working {
@@ -40,6 +41,18 @@ public interface Working {
 	public String sayHelloTo( final String name );
 
 
+	/**
+	 * Evaluate a scenario job and summarize the resulting trajectory.
+	 * @param job representation of the scenario job (see ScenarioJob)
+	 * @return representation of the trajectory summary (see TrajectorySummary)
+	 */
+	public Map<String,Object> evaluateScenario( final Map<String,Object> job );
+
+
+	/** get the maximum number of scenario jobs which this worker evaluates concurrently */
+	public int getEvaluationCapacity();
+
+
     /** shutdown the service */
     @OneWay
     public void shutdown( final int code );
@@ -0,0 +1,129 @@
+/*
+ * TestScenarioJobRepresentation.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.service.worker;
+
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import xal.model.probe.traj.EnvelopeProbeState;
+import xal.sim.scenario.Scenario;
+import xal.tools.beam.CovarianceMatrix;
+import xal.tools.beam.PhaseVector;
+import xal.tools.beam.Twiss;
+
+
+/**
+ * Test that scenario jobs and trajectory summaries survive the trip through their representations which are sent
+ * between the scheduler and the workers.
+ */
+public class TestScenarioJobRepresentation {
+	/** tolerance for comparing values */
+	final static private double TOLERANCE = 1.0e-12;
+
+
+	/** a job with every optional setting survives the round trip */
+	@Test
+	public void testJobRoundTrip() {
+		final ScenarioJob job = new ScenarioJob( "/opt/xal/main.xal", "MEBT" )
+			.setSynchronizationMode( Scenario.SYNC_MODE_LIVE )
+			.addModelInput( "MEBT_Mag:QH01", "B", 12.5 )
+			.addModelInput( "MEBT_Mag:QV02", "B", -8.25 )
+			.setKineticEnergy( 2.5e6 )
+			.setTwiss( new double[] { -1.5, 0.2, 3.0e-6, 1.4, 0.3, 3.1e-6, 0.1, 0.5, 4.0e-6 } )
+			.setCentroid( new double[] { 1.0e-3, 0.0, -2.0e-3, 0.0, 0.0, 0.0 } )
+			.addObservation( "MEBT_Diag:BPM01" )
+			.addObservation( "MEBT_Diag:BPM02" );
+
+		final ScenarioJob copy = ScenarioJob.fromRepresentation( job.getRepresentation() );
+
+		Assert.assertEquals( job.getAcceleratorPath(), copy.getAcceleratorPath() );
+		Assert.assertEquals( job.getSequenceID(), copy.getSequenceID() );
+		Assert.assertEquals( job.getSynchronizationMode(), copy.getSynchronizationMode() );
+		Assert.assertEquals( job.getModelKey(), copy.getModelKey() );
+
+		Assert.assertEquals( job.getModelInputCount(), copy.getModelInputCount() );
+		for ( int index = 0 ; index < job.getModelInputCount() ; index++ ) {
+			Assert.assertEquals( job.getModelInputNodeID( index ), copy.getModelInputNodeID( index ) );
+			Assert.assertEquals( job.getModelInputProperty( index ), copy.getModelInputProperty( index ) );
+			Assert.assertEquals( job.getModelInputValue( index ), copy.getModelInputValue( index ), TOLERANCE );
+		}
+
+		Assert.assertEquals( job.getKineticEnergy(), copy.getKineticEnergy() );
+
+		final Twiss[] twiss = job.getTwiss();
+		final Twiss[] copyTwiss = copy.getTwiss();
+		for ( int plane = 0 ; plane < 3 ; plane++ ) {
+			Assert.assertEquals( twiss[plane].getAlpha(), copyTwiss[plane].getAlpha(), TOLERANCE );
+			Assert.assertEquals( twiss[plane].getBeta(), copyTwiss[plane].getBeta(), TOLERANCE );
+			Assert.assertEquals( twiss[plane].getEmittance(), copyTwiss[plane].getEmittance(), TOLERANCE );
+		}
+
+		Assert.assertArrayEquals( job.getCentroid(), copy.getCentroid(), TOLERANCE );
+		Assert.assertEquals( job.getObservationIDs(), copy.getObservationIDs() );
+	}
+
+
+	/** a job which uses the defaults keeps them after the round trip */
+	@Test
+	public void testDefaultJobRoundTrip() {
+		final ScenarioJob job = new ScenarioJob( null, "SCLMed" );
+
+		final ScenarioJob copy = ScenarioJob.fromRepresentation( job.getRepresentation() );
+
+		Assert.assertNull( copy.getAcceleratorPath() );
+		Assert.assertEquals( "SCLMed", copy.getSequenceID() );
+		Assert.assertEquals( Scenario.SYNC_MODE_DESIGN, copy.getSynchronizationMode() );
+		Assert.assertEquals( 0, copy.getModelInputCount() );
+		Assert.assertNull( copy.getKineticEnergy() );
+		Assert.assertNull( copy.getTwiss() );
+		Assert.assertNull( copy.getCentroid() );
+		Assert.assertTrue( copy.getObservationIDs().isEmpty() );
+	}
+
+
+	/** a summary survives the round trip */
+	@Test
+	public void testSummaryRoundTrip() {
+		final TrajectorySummary summary = makeSummary( "MEBT_Diag:BPM01", "MEBT_Diag:BPM02", "MEBT_Diag:BPM03" );
+
+		final TrajectorySummary copy = TrajectorySummary.fromRepresentation( summary.getRepresentation() );
+
+		Assert.assertEquals( summary.getStateCount(), copy.getStateCount() );
+		for ( int index = 0 ; index < summary.getStateCount() ; index++ ) {
+			Assert.assertEquals( summary.getElementID( index ), copy.getElementID( index ) );
+			Assert.assertEquals( summary.getPosition( index ), copy.getPosition( index ), TOLERANCE );
+			Assert.assertEquals( summary.getKineticEnergy( index ), copy.getKineticEnergy( index ), TOLERANCE );
+			Assert.assertArrayEquals( summary.getMean( index ), copy.getMean( index ), TOLERANCE );
+			Assert.assertArrayEquals( summary.getSigma( index ), copy.getSigma( index ), TOLERANCE );
+		}
+	}
+
+
+	/**
+	 * Make a summary with a distinct state at each of the specified elements.
+	 * @param elementIDs IDs of the elements of the states
+	 * @return the summary of the states
+	 */
+	static TrajectorySummary makeSummary( final String ... elementIDs ) {
+		final List<EnvelopeProbeState> states = new ArrayList<EnvelopeProbeState>();
+		for ( int index = 0 ; index < elementIDs.length ; index++ ) {
+			final EnvelopeProbeState state = new EnvelopeProbeState();
+			state.setElementId( elementIDs[index] );
+			state.setPosition( 1.5 * index );
+			state.setKineticEnergy( 2.5e6 + 1.0e3 * index );
+
+			final Twiss twiss = new Twiss( 0.1 * index, 1.0 + index, 1.0e-6 );
+			final PhaseVector centroid = new PhaseVector( 1.0e-3 * index, 0.0, -1.0e-3 * index, 0.0, 2.0e-4 * index, 0.0 );
+			state.setCovariance( CovarianceMatrix.buildCovariance( twiss, twiss, twiss, centroid ) );
+
+			states.add( state );
+		}
+		return TrajectorySummary.fromStates( states );
+	}
+}
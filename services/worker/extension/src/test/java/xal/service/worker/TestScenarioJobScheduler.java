@@ -0,0 +1,350 @@
+/*
+ * TestScenarioJobScheduler.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.service.worker;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import xal.extension.service.RemoteServiceDroppedException;
+
+
+/**
+ * Test the scheduling of scenario jobs among in-process workers which stand in for the remote workers.
+ */
+public class TestScenarioJobScheduler {
+	/** time to wait for the jobs before failing */
+	final static private long TIMEOUT_SECONDS = 30;
+
+
+	/** jobs are spread among the workers in proportion to their capacity and never exceed it */
+	@Test
+	public void testLoadBalancing() throws Exception {
+		final ScenarioJobScheduler scheduler = new ScenarioJobScheduler( null );
+		try {
+			final CountDownLatch release = new CountDownLatch( 1 );
+			final StubWorker largeWorker = new StubWorker( 3, release );
+			final StubWorker smallWorker = new StubWorker( 1, release );
+			scheduler.addWorker( "large", largeWorker );
+			scheduler.addWorker( "small", smallWorker );
+
+			final ScenarioJobScheduler.Submission submission = scheduler.submit( makeJobs( 6 ), null );
+
+			// once both capacities are known the workers fill up to them and the remaining jobs wait
+			Assert.assertTrue( awaitCondition( () -> largeWorker.getActiveCount() == 3 && smallWorker.getActiveCount() == 1 ) );
+			Thread.sleep( 100 );
+			Assert.assertEquals( 3, largeWorker.getActiveCount() );
+			Assert.assertEquals( 1, smallWorker.getActiveCount() );
+			Assert.assertFalse( submission.isDone() );
+
+			release.countDown();
+			Assert.assertTrue( submission.awaitCompletion( TimeUnit.SECONDS.toMillis( TIMEOUT_SECONDS ) ) );
+
+			Assert.assertEquals( 6, largeWorker.getEvaluationCount() + smallWorker.getEvaluationCount() );
+			Assert.assertTrue( largeWorker.getMaxActiveCount() <= 3 );
+			Assert.assertEquals( 1, smallWorker.getMaxActiveCount() );
+			for ( final TrajectorySummary summary : submission.getSummaries() ) {
+				Assert.assertNotNull( summary );
+			}
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+
+	/** a job whose worker drops is sent to another worker */
+	@Test
+	public void testRequeueOnDrop() throws Exception {
+		final ScenarioJobScheduler scheduler = new ScenarioJobScheduler( null );
+		try {
+			final CountDownLatch release = new CountDownLatch( 1 );
+			final StubWorker droppingWorker = new StubWorker( 1, release ).dropping();
+			final StubWorker goodWorker = new StubWorker( 1, null );
+
+			scheduler.addWorker( "dropping", droppingWorker );
+			final ScenarioJobScheduler.Submission submission = scheduler.submit( makeJobs( 1 ), null );
+
+			// add the good worker only once the job is on the dropping worker
+			Assert.assertTrue( awaitCondition( () -> droppingWorker.getActiveCount() == 1 ) );
+			scheduler.addWorker( "good", goodWorker );
+			release.countDown();
+
+			Assert.assertTrue( submission.awaitCompletion( TimeUnit.SECONDS.toMillis( TIMEOUT_SECONDS ) ) );
+			Assert.assertNotNull( submission.getSummaries().get( 0 ) );
+			Assert.assertNull( submission.getFailure( 0 ) );
+			Assert.assertEquals( 1, droppingWorker.getEvaluationCount() );
+			Assert.assertEquals( 1, goodWorker.getEvaluationCount() );
+			Assert.assertEquals( 1, scheduler.getWorkerCount() );
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+
+	/** a job whose workers keep dropping fails after the maximum number of attempts */
+	@Test
+	public void testMaxAttempts() throws Exception {
+		final ScenarioJobScheduler scheduler = new ScenarioJobScheduler( null );
+		try {
+			scheduler.setMaxAttempts( 2 );
+
+			final List<StubWorker> workers = new ArrayList<StubWorker>();
+			for ( int index = 0 ; index < 3 ; index++ ) {
+				final StubWorker worker = new StubWorker( 1, null ).dropping();
+				workers.add( worker );
+				scheduler.addWorker( "dropping" + index, worker );
+			}
+
+			final ScenarioJobScheduler.Submission submission = scheduler.submit( makeJobs( 1 ), null );
+
+			Assert.assertTrue( submission.awaitCompletion( TimeUnit.SECONDS.toMillis( TIMEOUT_SECONDS ) ) );
+			Assert.assertNull( submission.getSummaries().get( 0 ) );
+			Assert.assertTrue( submission.getFailure( 0 ) instanceof RemoteServiceDroppedException );
+
+			int evaluationCount = 0;
+			for ( final StubWorker worker : workers ) {
+				evaluationCount += worker.getEvaluationCount();
+			}
+			Assert.assertEquals( 2, evaluationCount );
+			Assert.assertEquals( 1, scheduler.getWorkerCount() );
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+
+	/** jobs fail instead of waiting forever once the last worker drops */
+	@Test
+	public void testLastWorkerDropped() throws Exception {
+		final ScenarioJobScheduler scheduler = new ScenarioJobScheduler( null );
+		try {
+			final StubWorker droppingWorker = new StubWorker( 1, new CountDownLatch( 0 ) ).dropping();
+			scheduler.addWorker( "dropping", droppingWorker );
+
+			final ScenarioJobScheduler.Submission submission = scheduler.submit( makeJobs( 3 ), null );
+
+			Assert.assertTrue( submission.awaitCompletion( TimeUnit.SECONDS.toMillis( TIMEOUT_SECONDS ) ) );
+			Assert.assertEquals( 0, scheduler.getWorkerCount() );
+			Assert.assertEquals( 1, droppingWorker.getEvaluationCount() );
+			for ( int index = 0 ; index < submission.getJobCount() ; index++ ) {
+				Assert.assertNotNull( submission.getFailure( index ) );
+			}
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+
+	/** cancelling a submission fails its pending jobs while the jobs being evaluated complete */
+	@Test
+	public void testCancel() throws Exception {
+		final ScenarioJobScheduler scheduler = new ScenarioJobScheduler( null );
+		try {
+			final CountDownLatch release = new CountDownLatch( 1 );
+			final StubWorker worker = new StubWorker( 1, release );
+			scheduler.addWorker( "worker", worker );
+
+			final List<Integer> failedIndices = Collections.synchronizedList( new ArrayList<Integer>() );
+			final ScenarioJobScheduler.Submission submission = scheduler.submit( makeJobs( 3 ), new ScenarioJobListener() {
+				public void jobCompleted( final ScenarioJob job, final int index, final TrajectorySummary summary ) {}
+
+				public void jobFailed( final ScenarioJob job, final int index, final Exception exception ) {
+					if ( exception instanceof CancellationException )  failedIndices.add( index );
+				}
+			} );
+
+			Assert.assertTrue( awaitCondition( () -> worker.getActiveCount() == 1 ) );
+			submission.cancel();
+			Assert.assertTrue( submission.isCancelled() );
+			Assert.assertEquals( 2, failedIndices.size() );
+			Assert.assertFalse( submission.isDone() );
+
+			release.countDown();
+			Assert.assertTrue( submission.awaitCompletion( TimeUnit.SECONDS.toMillis( TIMEOUT_SECONDS ) ) );
+			Assert.assertEquals( 1, worker.getEvaluationCount() );
+
+			int completedCount = 0;
+			for ( final TrajectorySummary summary : submission.getSummaries() ) {
+				if ( summary != null )  ++completedCount;
+			}
+			Assert.assertEquals( 1, completedCount );
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+
+	/** evaluating with a timeout returns and cancels the jobs when no worker is ever found */
+	@Test
+	public void testEvaluateTimeout() throws Exception {
+		final ScenarioJobScheduler scheduler = new ScenarioJobScheduler( null );
+		try {
+			final List<TrajectorySummary> summaries = scheduler.evaluate( makeJobs( 2 ), 100 );
+			Assert.assertEquals( 2, summaries.size() );
+			Assert.assertNull( summaries.get( 0 ) );
+			Assert.assertNull( summaries.get( 1 ) );
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+
+	/**
+	 * Make the specified number of distinct jobs.
+	 * @param count number of jobs
+	 * @return the jobs
+	 */
+	static private List<ScenarioJob> makeJobs( final int count ) {
+		final List<ScenarioJob> jobs = new ArrayList<ScenarioJob>();
+		for ( int index = 0 ; index < count ; index++ ) {
+			jobs.add( new ScenarioJob( null, "MEBT" ).addModelInput( "MEBT_Mag:QH01", "B", index ) );
+		}
+		return jobs;
+	}
+
+
+	/**
+	 * Wait for the condition to become true.
+	 * @param condition the condition to test
+	 * @return true if the condition became true and false if the wait timed out
+	 */
+	static private boolean awaitCondition( final Callable<Boolean> condition ) throws Exception {
+		final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis( TIMEOUT_SECONDS );
+		while ( !condition.call() ) {
+			if ( System.currentTimeMillis() > deadline )  return false;
+			Thread.sleep( 10 );
+		}
+		return true;
+	}
+
+
+
+	/** In-process worker which blocks each evaluation until released and then summarizes or drops */
+	static private class StubWorker implements Working {
+		/** number of jobs the worker reports it evaluates at once */
+		final private int CAPACITY;
+
+		/** latch which releases the evaluations or null to evaluate immediately */
+		final private CountDownLatch RELEASE;
+
+		/** number of jobs being evaluated */
+		final private AtomicInteger ACTIVE_COUNT;
+
+		/** largest number of jobs evaluated at once */
+		final private AtomicInteger MAX_ACTIVE_COUNT;
+
+		/** number of evaluations started */
+		final private AtomicInteger EVALUATION_COUNT;
+
+		/** indicates whether the worker drops instead of summarizing */
+		private volatile boolean _isDropping;
+
+
+		/** Constructor */
+		public StubWorker( final int capacity, final CountDownLatch release ) {
+			CAPACITY = capacity;
+			RELEASE = release;
+			ACTIVE_COUNT = new AtomicInteger();
+			MAX_ACTIVE_COUNT = new AtomicInteger();
+			EVALUATION_COUNT = new AtomicInteger();
+			_isDropping = false;
+		}
+
+
+		/** make the worker drop during each evaluation */
+		public StubWorker dropping() {
+			_isDropping = true;
+			return this;
+		}
+
+
+		/** get the number of jobs being evaluated */
+		public int getActiveCount() {
+			return ACTIVE_COUNT.get();
+		}
+
+
+		/** get the largest number of jobs evaluated at once */
+		public int getMaxActiveCount() {
+			return MAX_ACTIVE_COUNT.get();
+		}
+
+
+		/** get the number of evaluations started */
+		public int getEvaluationCount() {
+			return EVALUATION_COUNT.get();
+		}
+
+
+		/** summarize the job once released or drop */
+		public Map<String,Object> evaluateScenario( final Map<String,Object> job ) {
+			EVALUATION_COUNT.incrementAndGet();
+			MAX_ACTIVE_COUNT.accumulateAndGet( ACTIVE_COUNT.incrementAndGet(), Math::max );
+			try {
+				if ( RELEASE != null )  RELEASE.await( TIMEOUT_SECONDS, TimeUnit.SECONDS );
+				if ( _isDropping )  throw new RemoteServiceDroppedException( "Stub worker dropped." );
+
+				return TestScenarioJobRepresentation.makeSummary( "MEBT_Diag:BPM01" ).getRepresentation();
+			}
+			catch ( InterruptedException exception ) {
+				throw new RuntimeException( exception );
+			}
+			finally {
+				ACTIVE_COUNT.decrementAndGet();
+			}
+		}
+
+
+		/** get the capacity */
+		public int getEvaluationCapacity() {
+			return CAPACITY;
+		}
+
+
+		/** not used by the scheduler */
+		public double add( final double summand, final double addend ) {
+			return summand + addend;
+		}
+
+
+		/** not used by the scheduler */
+		public int sumIntegers( final int[] summands ) {
+			return Arrays.stream( summands ).sum();
+		}
+
+
+		/** not used by the scheduler */
+		public Date getLaunchTime() {
+			return new Date();
+		}
+
+
+		/** not used by the scheduler */
+		public double[] generateSinusoid( final double amplitude, final double frequency, final double phase, final int numPoints ) {
+			return new double[numPoints];
+		}
+
+
+		/** not used by the scheduler */
+		public String sayHelloTo( final String name ) {
+			return "Hello, " + name;
+		}
+
+
+		/** not used by the scheduler */
+		public void shutdown( final int code ) {}
+	}
+}
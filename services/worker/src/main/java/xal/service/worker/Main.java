@@ -26,6 +26,9 @@ public class Main {
 	/** indicates whether verbose printing is enabled */
 	final static protected boolean IS_VERBOSE;
 	
+	/** maximum number of scenario jobs to evaluate concurrently */
+	final static protected int EVALUATION_CAPACITY;
+	
 	
 	/**
 	 * Static initializer 
@@ -35,13 +38,19 @@ public class Main {
 		
 		final String verboseProperty = System.getProperty( "verbose", "false" );
 		IS_VERBOSE = Boolean.parseBoolean( verboseProperty );
+		
+		// several workers sharing a machine (e.g. for testing) should each be given a share of the processors
+		EVALUATION_CAPACITY = Math.max( 1, Integer.getInteger( "capacity", Runtime.getRuntime().availableProcessors() ) );
 	}
 	
 	
 	/** run the service */
 	protected void run() {
-        ServiceDirectory.defaultDirectory().registerService( Working.class, "Worker", new WorkService() );
-        System.out.println( "Listening for work requests..." );
+        final ServiceDirectory directory = ServiceDirectory.defaultDirectory();
+        // keep request handlers free for other requests while the scenario jobs are being evaluated
+        directory.setServiceWorkerCount( Math.max( directory.getServiceWorkerCount(), EVALUATION_CAPACITY + 4 ) );
+        directory.registerService( Working.class, "Worker", new WorkService( EVALUATION_CAPACITY ) );
+        System.out.println( "Listening for work requests with an evaluation capacity of " + EVALUATION_CAPACITY + "..." );
 	}
 	
 	
@@ -0,0 +1,249 @@
+/*
+ * ScenarioEvaluator.java
+ *
+ * Created on Sun Oct 18 16:22:37 EDT 2026
+ */
+
+package xal.service.worker;
+
+import xal.model.ModelException;
+import xal.model.probe.EnvelopeProbe;
+import xal.model.probe.traj.EnvelopeProbeState;
+import xal.model.probe.traj.Trajectory;
+import xal.sim.scenario.AlgorithmFactory;
+import xal.sim.scenario.ProbeFactory;
+import xal.sim.scenario.Scenario;
+import xal.sim.scenario.ScenarioBatch;
+import xal.smf.Accelerator;
+import xal.smf.AcceleratorNode;
+import xal.smf.AcceleratorSeq;
+import xal.smf.data.XMLDataManager;
+import xal.tools.beam.CovarianceMatrix;
+import xal.tools.beam.PhaseVector;
+import xal.tools.beam.Twiss;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * ScenarioEvaluator evaluates scenario jobs with envelope models. Accelerators are loaded once per path and the model
+ * of each accelerator sequence and synchronization mode is generated once and reused by every job for it, so a job
+ * only pays for applying its model inputs and running the probe. Models synchronized with the live machine are instead
+ * generated for each job so every job sees the present machine state. The jobs of all models run on one shared pool,
+ * so no more jobs than the capacity are evaluated at once.
+ */
+class ScenarioEvaluator {
+	/** maximum number of jobs evaluated at once */
+	final private int CAPACITY;
+
+	/** pool shared by all the models on which the jobs are evaluated */
+	final private ExecutorService EXECUTOR;
+
+	/** accelerators keyed by path with the empty path for the default accelerator */
+	final private Map<String,Accelerator> ACCELERATORS;
+
+	/** models keyed by the model key of the jobs they evaluate */
+	final private Map<String,Model> MODELS;
+
+
+	/**
+	 * Constructor
+	 * @param capacity maximum number of jobs evaluated at once
+	 */
+	public ScenarioEvaluator( final int capacity ) {
+		CAPACITY = capacity;
+		EXECUTOR = new ForkJoinPool( capacity );
+		ACCELERATORS = new ConcurrentHashMap<String,Accelerator>();
+		MODELS = new ConcurrentHashMap<String,Model>();
+	}
+
+
+	/**
+	 * Get the maximum number of jobs evaluated at once.
+	 * @return the evaluation capacity
+	 */
+	public int getCapacity() {
+		return CAPACITY;
+	}
+
+
+	/**
+	 * Evaluate the job and summarize the resulting trajectory.
+	 * @param job the job to evaluate
+	 * @return the summary of the trajectory at the job's observation nodes or of its final state if there are none
+	 * @throws ModelException if the model cannot be generated or run
+	 */
+	public TrajectorySummary evaluate( final ScenarioJob job ) throws ModelException {
+		final String mode = job.getSynchronizationMode();
+		final boolean isLive = Scenario.SYNC_MODE_LIVE.equals( mode ) || Scenario.SYNC_MODE_LIVE_MONITORED.equals( mode );
+
+		final Model model = isLive ? new Model( job ) : getModel( job );
+		try {
+			return model.evaluate( job );
+		}
+		finally {
+			if ( isLive )  model.dispose();
+		}
+	}
+
+
+	/**
+	 * Get the model for the job, generating it if it does not exist yet.
+	 * @param job the job for which to get the model
+	 * @return the model
+	 * @throws ModelException if the model cannot be generated
+	 */
+	private Model getModel( final ScenarioJob job ) throws ModelException {
+		final String key = job.getModelKey();
+
+		final Model model = MODELS.get( key );
+		if ( model != null )  return model;
+
+		// generate the model outside of the map so jobs for other models are not blocked
+		final Model newModel = new Model( job );
+		final Model existingModel = MODELS.putIfAbsent( key, newModel );
+		if ( existingModel != null ) {
+			newModel.dispose();
+			return existingModel;
+		}
+		return newModel;
+	}
+
+
+	/**
+	 * Get the accelerator for the job, loading it if it has not been loaded yet.
+	 * @param job the job for which to get the accelerator
+	 * @return the accelerator
+	 */
+	private Accelerator getAccelerator( final ScenarioJob job ) {
+		final String path = job.getAcceleratorPath();
+
+		return ACCELERATORS.computeIfAbsent( path != null ? path : "", key -> {
+			try {
+				final Accelerator accelerator = key.isEmpty() ? XMLDataManager.loadDefaultAccelerator() : XMLDataManager.acceleratorWithPath( key );
+				if ( accelerator == null )  throw new IllegalArgumentException( "No accelerator could be loaded for: " + ( key.isEmpty() ? "the default accelerator" : key ) );
+				return accelerator;
+			}
+			catch ( Exception exception ) {
+				throw new IllegalArgumentException( "Exception loading the accelerator: " + key, exception );
+			}
+		} );
+	}
+
+
+
+	/** Envelope model of a sequence with a synchronization mode which evaluates jobs concurrently */
+	private class Model {
+		/** the modeled sequence */
+		final private AcceleratorSeq SEQUENCE;
+
+		/** runs the jobs on copies of the template scenario */
+		final private ScenarioBatch<EnvelopeProbeState> BATCH;
+
+		/** initial probe state of the template scenario */
+		final private EnvelopeProbeState INITIAL_STATE;
+
+
+		/**
+		 * Generate the model for the job's sequence and synchronization mode.
+		 * @param job the job for which to generate the model
+		 * @throws ModelException if the model cannot be generated
+		 */
+		public Model( final ScenarioJob job ) throws ModelException {
+			final Accelerator accelerator = getAccelerator( job );
+			final String sequenceID = job.getSequenceID();
+
+			AcceleratorSeq sequence = accelerator.findSequence( sequenceID );
+			if ( sequence == null )  sequence = accelerator.getComboSequence( sequenceID );
+			if ( sequence == null )  throw new IllegalArgumentException( "No sequence found for ID: " + sequenceID );
+			SEQUENCE = sequence;
+
+			final EnvelopeProbe probe;
+			try {
+				probe = ProbeFactory.getEnvelopeProbe( sequence, AlgorithmFactory.createEnvTrackerAdapt( sequence ) );
+			}
+			catch ( InstantiationException exception ) {
+				throw new ModelException( "Exception creating the envelope tracker for sequence: " + sequenceID, exception );
+			}
+
+			final Scenario scenario = Scenario.newScenarioFor( sequence );
+			scenario.setSynchronizationMode( job.getSynchronizationMode() );
+			scenario.setProbe( probe );
+
+			INITIAL_STATE = probe.cloneCurrentProbeState();
+			BATCH = new ScenarioBatch<EnvelopeProbeState>( scenario, accelerator.getElementMapping(), EXECUTOR );
+		}
+
+
+		/**
+		 * Evaluate the job with this model.
+		 * @param job the job to evaluate
+		 * @return the summary of the trajectory
+		 * @throws ModelException if the model cannot be run
+		 */
+		public TrajectorySummary evaluate( final ScenarioJob job ) throws ModelException {
+			final ScenarioBatch.Case<EnvelopeProbeState> jobCase = new ScenarioBatch.Case<EnvelopeProbeState>();
+
+			for ( int index = 0 ; index < job.getModelInputCount() ; index++ ) {
+				final String nodeID = job.getModelInputNodeID( index );
+				final AcceleratorNode node = SEQUENCE.getNodeWithId( nodeID );
+				if ( node == null )  throw new IllegalArgumentException( "No node found in sequence " + SEQUENCE.getId() + " for model input: " + nodeID );
+				jobCase.addModelInput( node, job.getModelInputProperty( index ), job.getModelInputValue( index ) );
+			}
+
+			if ( job.getKineticEnergy() != null || job.getTwiss() != null || job.getCentroid() != null ) {
+				jobCase.setInitialState( makeInitialState( job ) );
+			}
+
+			final Trajectory<EnvelopeProbeState> trajectory = BATCH.run( Collections.singletonList( jobCase ) ).get( 0 );
+
+			final List<String> observationIDs = job.getObservationIDs();
+			final List<EnvelopeProbeState> states = new ArrayList<EnvelopeProbeState>( Math.max( 1, observationIDs.size() ) );
+			if ( observationIDs.isEmpty() ) {
+				states.add( trajectory.finalState() );
+			}
+			else {
+				for ( final String observationID : observationIDs ) {
+					final EnvelopeProbeState state = trajectory.stateForElement( observationID );
+					if ( state == null )  throw new IllegalArgumentException( "No state found in the trajectory for observation: " + observationID );
+					states.add( state );
+				}
+			}
+
+			return TrajectorySummary.fromStates( states );
+		}
+
+
+		/**
+		 * Make the initial probe state of the job from the template's initial state and the job's overrides.
+		 * @param job the job whose initial state to make
+		 * @return the initial probe state
+		 */
+		private EnvelopeProbeState makeInitialState( final ScenarioJob job ) {
+			final EnvelopeProbeState state = INITIAL_STATE.copy();
+
+			if ( job.getKineticEnergy() != null ) {
+				state.setKineticEnergy( job.getKineticEnergy() );
+			}
+
+			if ( job.getTwiss() != null || job.getCentroid() != null ) {
+				final CovarianceMatrix covariance = state.getCovarianceMatrix();
+				final Twiss[] twiss = job.getTwiss() != null ? job.getTwiss() : covariance.computeTwiss();
+				final double[] coordinates = job.getCentroid();
+				final PhaseVector centroid = coordinates != null ? new PhaseVector( coordinates[0], coordinates[1], coordinates[2], coordinates[3], coordinates[4], coordinates[5] ) : covariance.getMean();
+				state.setCovariance( CovarianceMatrix.buildCovariance( twiss[0], twiss[1], twiss[2], centroid ) );
+			}
+
+			return state;
+		}
+
+
+		/** Release the model's resources */
+		public void dispose() {
+			BATCH.dispose();
+		}
+	}
+}
@@ -10,14 +10,36 @@
 
 package xal.service.worker;
 
+import xal.model.ModelException;
+
 import java.util.Date;
+import java.util.Map;
 
 
 /**
- * Demo service providing demo work.
+ * Service providing demo work and the evaluation of scenario jobs.
  * @author  tap
  */
 public class WorkService implements Working {
+	/** evaluates the scenario jobs */
+	final private ScenarioEvaluator SCENARIO_EVALUATOR;
+
+
+	/**
+	 * Constructor
+	 * @param evaluationCapacity maximum number of scenario jobs to evaluate concurrently
+	 */
+	public WorkService( final int evaluationCapacity ) {
+		SCENARIO_EVALUATOR = new ScenarioEvaluator( evaluationCapacity );
+	}
+
+
+	/** Constructor which evaluates one scenario job per available processor concurrently */
+	public WorkService() {
+		this( Runtime.getRuntime().availableProcessors() );
+	}
+
+
     /** add two numbers */
     public double add( final double summand, final double addend ) {
         return summand + addend;
@@ -63,6 +85,30 @@ public class WorkService implements Working {
 		return name != null && !name.isEmpty() ? "Hello, " + name + "!" : "Greetings!";
 	}
 
+
+	/** evaluate a scenario job and summarize the resulting trajectory */
+	public Map<String,Object> evaluateScenario( final Map<String,Object> jobRepresentation ) {
+		final ScenarioJob job = ScenarioJob.fromRepresentation( jobRepresentation );
+
+		try {
+			final long startTime = System.currentTimeMillis();
+			final TrajectorySummary summary = SCENARIO_EVALUATOR.evaluate( job );
+			if ( Main.IS_VERBOSE ) {
+				System.out.println( "Evaluated scenario job (" + job + ") in " + ( System.currentTimeMillis() - startTime ) + " ms" );
+			}
+			return summary.getRepresentation();
+		}
+		catch ( ModelException exception ) {
+			throw new RuntimeException( "Exception evaluating the scenario job (" + job + ").", exception );
+		}
+	}
+
+
+	/** get the maximum number of scenario jobs which this worker evaluates concurrently */
+	public int getEvaluationCapacity() {
+		return SCENARIO_EVALUATOR.getCapacity();
+	}
+
     
     /** shutdown the service */
     public void shutdown( final int code ) {
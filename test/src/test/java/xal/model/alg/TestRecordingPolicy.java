@@ -0,0 +1,213 @@
+/**
+ * TestRecordingPolicy.java
+ *
+ * Created on Oct 18, 2026
+ */
+package xal.model.alg;
+
+import static org.junit.Assert.fail;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import xal.model.ModelException;
+import xal.model.probe.EnvelopeProbe;
+import xal.model.probe.traj.EnvelopeProbeState;
+import xal.model.probe.traj.Trajectory;
+import xal.sim.scenario.AlgorithmFactory;
+import xal.sim.scenario.ProbeFactory;
+import xal.sim.scenario.Scenario;
+import xal.smf.Accelerator;
+import xal.smf.AcceleratorSeq;
+import xal.test.ResourceManager;
+import xal.tools.data.DataAdaptor;
+import xal.tools.xml.XmlDataAdaptor;
+
+/**
+ * Tests the persistence of the trajectory recording policies and their behavior
+ * when an adaptive tracker rolls back rejected steps.
+ *
+ * @since  Oct 18, 2026
+ */
+public class TestRecordingPolicy {
+
+    /** Accelerator sequence used for testing */
+    public static final String     STR_ACCL_SEQ_ID = "MEBT";
+
+
+    /**
+     * Test method for {@link xal.model.alg.RecordingPolicy#loadFrom(DataAdaptor)}.  Every
+     * policy type must survive a save and load of its tracker through an XML document.
+     */
+    @Test
+    public void testSaveLoad() {
+        RecordingPolicy[]   arrPolicies = {
+                RecordingPolicy.atNodes("MEBT_Diag:BPM01", "MEBT_Diag:BPM05"),
+                RecordingPolicy.everyNthStep(7),
+                RecordingPolicy.atSpacing(0.25),
+                RecordingPolicy.finalStateOnly()
+        };
+
+        for (RecordingPolicy policy : arrPolicies) {
+            EnvTrackerAdapt     algSaved = new EnvTrackerAdapt();
+
+            algSaved.setRecordingPolicy(policy);
+
+            RecordingPolicy     policyLoaded = this.saveAndLoad(algSaved).getRecordingPolicy();
+
+            Assert.assertNotNull( policyLoaded );
+            Assert.assertEquals( policy.getClass(), policyLoaded.getClass() );
+            Assert.assertEquals( policy.getType(), policyLoaded.getType() );
+        }
+
+        RecordingPolicy.AtNodes     policyNodes = (RecordingPolicy.AtNodes)this.loadPolicy(arrPolicies[0]);
+        Assert.assertEquals( new LinkedHashSet<String>( Arrays.asList("MEBT_Diag:BPM01", "MEBT_Diag:BPM05") ), policyNodes.getNodeIds() );
+
+        RecordingPolicy.EveryNthStep    policySteps = (RecordingPolicy.EveryNthStep)this.loadPolicy(arrPolicies[1]);
+        Assert.assertEquals( 7, policySteps.getInterval() );
+
+        RecordingPolicy.AtSpacing   policySpacing = (RecordingPolicy.AtSpacing)this.loadPolicy(arrPolicies[2]);
+        Assert.assertEquals( 0.25, policySpacing.getSpacing(), 0.0 );
+
+        // A tracker saved without a policy clears the policy of the tracker it is loaded into
+        EnvTrackerAdapt     algPlain = new EnvTrackerAdapt();
+        EnvTrackerAdapt     algLoaded = new EnvTrackerAdapt();
+
+        algLoaded.setRecordingPolicy( RecordingPolicy.finalStateOnly() );
+        try {
+            algLoaded.load( this.reparse(algPlain) );
+
+        } catch (Exception e) {
+            fail("Unable to load tracker without recording policy: " + e.getMessage());
+        }
+        Assert.assertNull( algLoaded.getRecordingPolicy() );
+    }
+
+    /**
+     * Test method for {@link xal.model.alg.RecordingPolicy.EveryNthStep}.  The states
+     * recorded every <i>N</i><sup>th</sup> step by the adaptive tracker must be exactly every
+     * <i>N</i><sup>th</sup> of the states recorded at every step, so the steps rejected and
+     * rolled back by the tracker must not be counted.
+     */
+    @Test
+    public void testEveryNthStepRollback() {
+        final int   cntInterval = 3;
+
+        try {
+            Trajectory<EnvelopeProbeState>  trjEvery = this.runAdaptive( RecordingPolicy.everyNthStep(1) );
+            Trajectory<EnvelopeProbeState>  trjNth   = this.runAdaptive( RecordingPolicy.everyNthStep(cntInterval) );
+
+            // The initial state is always recorded
+            int     cntSteps = trjEvery.numStates() - 1;
+
+            Assert.assertTrue( cntSteps > cntInterval );
+            Assert.assertEquals( 1 + cntSteps/cntInterval, trjNth.numStates() );
+
+            for (int index=1; index<trjNth.numStates(); index++) {
+                EnvelopeProbeState  stateEvery = trjEvery.stateWithIndex( index*cntInterval );
+                EnvelopeProbeState  stateNth   = trjNth.stateWithIndex( index );
+
+                Assert.assertEquals( stateEvery.getPosition(), stateNth.getPosition(), 0.0 );
+                Assert.assertTrue( stateEvery.getCovarianceMatrix().isApproxEqual( stateNth.getCovarianceMatrix() ) );
+            }
+
+        } catch (ModelException | InstantiationException e) {
+            fail("Unable to run the adaptive tracker with a recording policy: " + e.getMessage());
+        }
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Runs the test sequence with an adaptive envelope tracker which rolls back steps and
+     * the given recording policy.
+     *
+     * @param policy    recording policy of the scenario
+     *
+     * @return          trajectory of the envelope probe
+     *
+     * @throws ModelException           unable to run the scenario
+     * @throws InstantiationException   unable to create the tracker
+     */
+    private Trajectory<EnvelopeProbeState> runAdaptive(RecordingPolicy policy) throws ModelException, InstantiationException {
+        Accelerator     accel = ResourceManager.getTestAccelerator();
+        AcceleratorSeq  seq   = accel.getSequence(STR_ACCL_SEQ_ID);
+
+        Scenario        model = Scenario.newScenarioFor(seq);
+        EnvTrackerAdapt algor = AlgorithmFactory.createEnvTrackerAdapt(seq);
+        EnvelopeProbe   probe = ProbeFactory.getEnvelopeProbe(seq, algor);
+
+        // A tight error tolerance makes the tracker reject and roll back steps
+        algor.setErrorTolerance(1.0e-7);
+        algor.setSlackTolerance(0.0);
+
+        probe.initialize();
+        model.setProbe( probe );
+        model.setRecordingPolicy( policy );
+        model.resync();
+        model.run();
+
+        return probe.getTrajectory();
+    }
+
+    /**
+     * Saves the given tracker to an XML document and loads it into a new tracker.
+     *
+     * @param algSaved  tracker to save
+     *
+     * @return          new tracker loaded from the saved document
+     */
+    private EnvTrackerAdapt saveAndLoad(EnvTrackerAdapt algSaved) {
+        EnvTrackerAdapt     algLoaded = new EnvTrackerAdapt();
+
+        try {
+            algLoaded.load( this.reparse(algSaved) );
+
+        } catch (Exception e) {
+            fail("Unable to save and load tracker with " + algSaved.getRecordingPolicy() + ": " + e.getMessage());
+        }
+
+        return algLoaded;
+    }
+
+    /**
+     * Saves a tracker with the given policy and returns the policy of the loaded tracker.
+     *
+     * @param policy    recording policy to save
+     *
+     * @return          the loaded recording policy
+     */
+    private RecordingPolicy loadPolicy(RecordingPolicy policy) {
+        EnvTrackerAdapt     algSaved = new EnvTrackerAdapt();
+
+        algSaved.setRecordingPolicy(policy);
+
+        return this.saveAndLoad(algSaved).getRecordingPolicy();
+    }
+
+    /**
+     * Saves the given tracker to an XML document, writes the document out and parses it again.
+     *
+     * @param algSaved  tracker to save
+     *
+     * @return          the algorithm data node of the parsed document
+     *
+     * @throws Exception    unable to parse the written document
+     */
+    private DataAdaptor reparse(EnvTrackerAdapt algSaved) throws Exception {
+        XmlDataAdaptor  daDoc = XmlDataAdaptor.newEmptyDocumentAdaptor();
+        StringWriter    wtrXml = new StringWriter();
+
+        algSaved.save(daDoc);
+        daDoc.writeTo(wtrXml);
+
+        return XmlDataAdaptor.adaptorForString(wtrXml.toString(), false).childAdaptor(Tracker.NODETAG_ALG);
+    }
+}
@@ -14,6 +14,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.junit.AfterClass;
+import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -393,6 +394,80 @@ public class TestTrajectory {
         
     }
     
+    /**
+     * Test method for {@link xal.model.probe.traj.ColumnarEnvelopeTrajectory}.  The
+     * columnar trajectory must reproduce the states of the standard trajectory.
+     */
+    @Test
+    public final void testColumnarEnvelopeTrajectory() {
+        Trajectory<EnvelopeProbeState>    trjStd = this.runModel(PROBE_ENV);
+        
+        PROBE_ENV.setColumnarTrajectory(true);
+        Trajectory<EnvelopeProbeState>    trjCol = this.runModel(PROBE_ENV);
+        PROBE_ENV.setColumnarTrajectory(false);
+        
+        Assert.assertTrue( trjCol instanceof ColumnarEnvelopeTrajectory );
+        Assert.assertEquals( trjStd.numStates(), trjCol.numStates() );
+        
+        Iterator<EnvelopeProbeState>    itrStd = trjStd.iterator();
+        for (EnvelopeProbeState stateCol : trjCol) {
+            EnvelopeProbeState  stateStd = itrStd.next();
+            
+            Assert.assertEquals( stateStd.getHardwareNodeId(), stateCol.getHardwareNodeId() );
+            Assert.assertEquals( stateStd.getPosition(), stateCol.getPosition(), 0.0 );
+            Assert.assertEquals( stateStd.getKineticEnergy(), stateCol.getKineticEnergy(), 0.0 );
+            Assert.assertTrue( stateStd.getCovarianceMatrix().isEquivalentTo( stateCol.getCovarianceMatrix() ) );
+        }
+        
+        EnvelopeProbeState  stateStd = trjStd.stateForElement(STR_DH2_ID);
+        EnvelopeProbeState  stateCol = trjCol.stateForElement(STR_DH2_ID);
+        Assert.assertEquals( stateStd.getPosition(), stateCol.getPosition(), 0.0 );
+        Assert.assertEquals( trjStd.statesForElement(STR_DH2_ID).size(), trjCol.statesForElement(STR_DH2_ID).size() );
+        
+        double  dblPos = stateStd.getPosition();
+        Assert.assertEquals( trjStd.statesInPositionRange(0.0, dblPos).size(), trjCol.statesInPositionRange(0.0, dblPos).size() );
+        Assert.assertEquals( dblPos, trjCol.stateNearestPosition(dblPos).getPosition(), 0.0 );
+    }
+    
+    /**
+     * Test method for {@link xal.model.probe.traj.ColumnarEnvelopeTrajectory#addState(EnvelopeProbeState)}.
+     * The species and beam parameters must be recorded for every state, e.g., when a
+     * stripping foil changes the species part way along the trajectory.
+     */
+    @Test
+    public final void testColumnarEnvelopeTrajectorySpecies() {
+        ColumnarEnvelopeTrajectory  trjCol = new ColumnarEnvelopeTrajectory();
+        
+        // H- ions up to the foil, protons after it, with one state added out of order
+        double[]    arrPos = { 0.0, 1.0, 3.0, 4.0, 2.0 };
+        for (double dblPos : arrPos) {
+            EnvelopeProbeState  state = new EnvelopeProbeState();
+            boolean             bolStripped = dblPos > 2.5;
+            
+            state.setPosition( dblPos );
+            state.setSpeciesCharge( bolStripped ? 1.0 : -1.0 );
+            state.setSpeciesRestEnergy( bolStripped ? 938.272e6 : 939.294e6 );
+            state.setBeamCurrent( bolStripped ? 0.030 : 0.038 );
+            state.setBunchFrequency( 402.5e6 );
+            trjCol.addState( state );
+        }
+        
+        Assert.assertEquals( arrPos.length, trjCol.numStates() );
+        for (int index=0; index<trjCol.numStates(); index++) {
+            EnvelopeProbeState  state = trjCol.stateWithIndex(index);
+            boolean             bolStripped = state.getPosition() > 2.5;
+            
+            Assert.assertEquals( index, state.getPosition(), 0.0 );
+            Assert.assertEquals( bolStripped ? 1.0 : -1.0, state.getSpeciesCharge(), 0.0 );
+            Assert.assertEquals( bolStripped ? 938.272e6 : 939.294e6, state.getSpeciesRestEnergy(), 0.0 );
+            Assert.assertEquals( bolStripped ? 0.030 : 0.038, state.getBeamCurrent(), 0.0 );
+            Assert.assertEquals( 402.5e6, state.getBunchFrequency(), 0.0 );
+        }
+        
+        Assert.assertEquals( 1.0, trjCol.popLastState().getSpeciesCharge(), 0.0 );
+        Assert.assertEquals( -1.0, trjCol.stateNearestPosition(1.9).getSpeciesCharge(), 0.0 );
+    }
+    
     
     /*
      * Support Methods
@@ -16,17 +16,30 @@ package xal.sim.scenario;
 
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import xal.model.IAlgorithm;
 import xal.model.ModelException;
+import xal.model.alg.RecordingPolicy;
+import xal.model.alg.Tracker;
+import xal.model.elem.TransferMapCache;
 import xal.model.probe.EnvelopeProbe;
 import xal.model.probe.ParticleProbe;
+import xal.model.probe.traj.EnvelopeProbeState;
+import xal.model.probe.traj.Trajectory;
 import xal.smf.Accelerator;
+import xal.smf.AcceleratorNode;
 import xal.smf.AcceleratorSeq;
+import xal.smf.proxy.ElectromagnetPropertyAccessor;
 import xal.test.ResourceManager;
+import xal.tools.beam.CovarianceMatrix;
 
 /**
  * Testing scenario generation for the Open XAL online model.
@@ -182,6 +195,357 @@ public class TestScenario {
         
     }
 
+    /**
+     * Test method for {@link xal.sim.scenario.ScenarioBatch#run(java.util.List)}.
+     * The batch cases must reproduce the template scenario.
+     */
+    @Test
+    public void testRunBatch() {
+        Accelerator     accel = ResourceManager.getTestAccelerator();
+        AcceleratorSeq  seq   = accel.getSequence(STR_ACCL_SEQ_ID);
+        
+        try {
+            Scenario        model = Scenario.newScenarioFor(seq);
+            IAlgorithm      algor = AlgorithmFactory.createEnvTrackerAdapt(seq);
+            EnvelopeProbe   probe = ProbeFactory.getEnvelopeProbe(seq, algor);
+            
+            probe.initialize();
+            model.setProbe( probe );
+            model.resync();
+            model.run();
+            
+            CovarianceMatrix    matCovFinal = probe.getTrajectory().finalState().getCovarianceMatrix();
+            
+            model.resetProbe();
+            ScenarioBatch<EnvelopeProbeState>   batch = new ScenarioBatch<>(model, accel.getElementMapping(), 2);
+            
+            List<ScenarioBatch.Case<EnvelopeProbeState>>  lstCases = new ArrayList<>();
+            for (int i=0; i<4; i++)
+                lstCases.add( new ScenarioBatch.Case<EnvelopeProbeState>() );
+            
+            List<Trajectory<EnvelopeProbeState>>    lstTrajs = batch.run(lstCases);
+            batch.dispose();
+            
+            Assert.assertEquals(lstCases.size(), lstTrajs.size());
+            for (Trajectory<EnvelopeProbeState> traj : lstTrajs) 
+                Assert.assertTrue( matCovFinal.isApproxEqual( traj.finalState().getCovarianceMatrix() ) );
+            
+        } catch (ModelException | InstantiationException e) {
+
+            fail("Unable to run Scenario batch");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Test method for {@link xal.sim.scenario.ScenarioBatch#run(java.util.List)}.
+     * Batches sharing an executor must each reproduce the template, and disposing
+     * one of them must leave the executor running for the others.
+     */
+    @Test
+    public void testRunBatchSharedExecutor() {
+        Accelerator     accel = ResourceManager.getTestAccelerator();
+        AcceleratorSeq  seq   = accel.getSequence(STR_ACCL_SEQ_ID);
+        ForkJoinPool    pool  = new ForkJoinPool(2);
+        
+        try {
+            Scenario        model = Scenario.newScenarioFor(seq);
+            IAlgorithm      algor = AlgorithmFactory.createEnvTrackerAdapt(seq);
+            EnvelopeProbe   probe = ProbeFactory.getEnvelopeProbe(seq, algor);
+            
+            probe.initialize();
+            model.setProbe( probe );
+            model.resync();
+            model.run();
+            
+            CovarianceMatrix    matCovFinal = probe.getTrajectory().finalState().getCovarianceMatrix();
+            
+            model.resetProbe();
+            ScenarioBatch<EnvelopeProbeState>   batch1 = new ScenarioBatch<>(model, accel.getElementMapping(), pool);
+            ScenarioBatch<EnvelopeProbeState>   batch2 = new ScenarioBatch<>(model, accel.getElementMapping(), pool);
+            
+            List<ScenarioBatch.Case<EnvelopeProbeState>>  lstCases = new ArrayList<>();
+            for (int i=0; i<3; i++)
+                lstCases.add( new ScenarioBatch.Case<EnvelopeProbeState>() );
+            
+            List<Trajectory<EnvelopeProbeState>>    lstTrajs = new ArrayList<>( batch1.run(lstCases) );
+            batch1.dispose();
+            Assert.assertFalse( pool.isShutdown() );
+            
+            lstTrajs.addAll( batch2.run(lstCases) );
+            batch2.dispose();
+            
+            Assert.assertEquals(2*lstCases.size(), lstTrajs.size());
+            for (Trajectory<EnvelopeProbeState> traj : lstTrajs) 
+                Assert.assertTrue( matCovFinal.isApproxEqual( traj.finalState().getCovarianceMatrix() ) );
+            
+        } catch (ModelException | InstantiationException e) {
+
+            fail("Unable to run Scenario batches on a shared executor");
+            e.printStackTrace();
+            
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test method for {@link xal.sim.scenario.ScenarioBatch#run(java.util.List)}.
+     * The model input overrides and initial states of a case must change its trajectory
+     * without leaking into the other cases, later batches or the template scenario.
+     */
+    @Test
+    public void testRunBatchOverrides() {
+        Accelerator     accel = ResourceManager.getTestAccelerator();
+        AcceleratorSeq  seq   = accel.getSequence(STR_ACCL_SEQ_ID);
+        
+        try {
+            Scenario        model = Scenario.newScenarioFor(seq);
+            IAlgorithm      algor = AlgorithmFactory.createEnvTrackerAdapt(seq);
+            EnvelopeProbe   probe = ProbeFactory.getEnvelopeProbe(seq, algor);
+            
+            probe.initialize();
+            model.setProbe( probe );
+            model.resync();
+            model.run();
+            
+            CovarianceMatrix    matCovFinal = probe.getTrajectory().finalState().getCovarianceMatrix();
+            
+            model.resetProbe();
+            ScenarioBatch<EnvelopeProbeState>   batch = new ScenarioBatch<>(model, accel.getElementMapping(), 2);
+            
+            // Kick the beam with the first steerer in one case and raise the beam energy in another
+            AcceleratorNode     smfDch = seq.getAllNodesOfType("DCH").get(0);
+            EnvelopeProbeState  stateInit = probe.cloneCurrentProbeState();
+            double              dblEnergy = 1.1*stateInit.getKineticEnergy();
+            
+            stateInit.setKineticEnergy( dblEnergy );
+            
+            List<ScenarioBatch.Case<EnvelopeProbeState>>  lstCases = new ArrayList<>();
+            lstCases.add( new ScenarioBatch.Case<EnvelopeProbeState>() );
+            lstCases.add( new ScenarioBatch.Case<EnvelopeProbeState>().addModelInput(smfDch, ElectromagnetPropertyAccessor.PROPERTY_FIELD, 0.001) );
+            lstCases.add( new ScenarioBatch.Case<EnvelopeProbeState>() );
+            lstCases.add( new ScenarioBatch.Case<EnvelopeProbeState>().setInitialState(stateInit) );
+            lstCases.add( new ScenarioBatch.Case<EnvelopeProbeState>() );
+            
+            List<Trajectory<EnvelopeProbeState>>    lstTrajs = batch.run(lstCases);
+            
+            Assert.assertEquals(lstCases.size(), lstTrajs.size());
+            Assert.assertTrue( matCovFinal.isApproxEqual( lstTrajs.get(0).finalState().getCovarianceMatrix() ) );
+            Assert.assertFalse( matCovFinal.isApproxEqual( lstTrajs.get(1).finalState().getCovarianceMatrix() ) );
+            Assert.assertTrue( Math.abs( lstTrajs.get(1).finalState().getCovarianceMatrix().getMeanX() - matCovFinal.getMeanX() ) > 1.0e-6 );
+            Assert.assertTrue( matCovFinal.isApproxEqual( lstTrajs.get(2).finalState().getCovarianceMatrix() ) );
+            Assert.assertFalse( matCovFinal.isApproxEqual( lstTrajs.get(3).finalState().getCovarianceMatrix() ) );
+            Assert.assertEquals( dblEnergy, lstTrajs.get(3).initialState().getKineticEnergy(), 0.0 );
+            Assert.assertTrue( matCovFinal.isApproxEqual( lstTrajs.get(4).finalState().getCovarianceMatrix() ) );
+            
+            // The workers that ran the overrides must reproduce the template in the next batch
+            List<ScenarioBatch.Case<EnvelopeProbeState>>  lstPlain = new ArrayList<>();
+            for (int i=0; i<4; i++)
+                lstPlain.add( new ScenarioBatch.Case<EnvelopeProbeState>() );
+            
+            for (Trajectory<EnvelopeProbeState> traj : batch.run(lstPlain)) {
+                Assert.assertTrue( matCovFinal.isApproxEqual( traj.finalState().getCovarianceMatrix() ) );
+                Assert.assertEquals( probe.getKineticEnergy(), traj.initialState().getKineticEnergy(), 0.0 );
+            }
+            batch.dispose();
+            
+            // The template scenario is unchanged
+            Assert.assertNull( model.getModelInput(smfDch, ElectromagnetPropertyAccessor.PROPERTY_FIELD) );
+            model.resetProbe();
+            model.run();
+            Assert.assertTrue( matCovFinal.isApproxEqual( probe.getTrajectory().finalState().getCovarianceMatrix() ) );
+            
+        } catch (ModelException | InstantiationException e) {
+
+            fail("Unable to run Scenario batch with overrides");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Test method for {@link xal.sim.scenario.Scenario#setRecordingPolicy(RecordingPolicy)}.
+     * The recording policies must record a subset of the states without changing the result.
+     */
+    @Test
+    public void testRecordingPolicy() {
+        Accelerator     accel = ResourceManager.getTestAccelerator();
+        AcceleratorSeq  seq   = accel.getSequence(STR_ACCL_SEQ_ID);
+        
+        try {
+            Scenario        model = Scenario.newScenarioFor(seq);
+            IAlgorithm      algor = AlgorithmFactory.createEnvTrackerAdapt(seq);
+            EnvelopeProbe   probe = ProbeFactory.getEnvelopeProbe(seq, algor);
+            
+            probe.initialize();
+            model.setProbe( probe );
+            model.resync();
+            model.run();
+            
+            Trajectory<EnvelopeProbeState>  trjAll = probe.getTrajectory();
+            EnvelopeProbeState              stateFinal = trjAll.finalState();
+            
+            // Final state only - the initial state is always recorded
+            model.setRecordingPolicy( RecordingPolicy.finalStateOnly() );
+            model.resetProbe();
+            model.run();
+            
+            Trajectory<EnvelopeProbeState>  trjFinal = probe.getTrajectory();
+            Assert.assertEquals( 2, trjFinal.numStates() );
+            Assert.assertEquals( stateFinal.getPosition(), trjFinal.finalState().getPosition(), 0.0 );
+            Assert.assertTrue( stateFinal.getCovarianceMatrix().isApproxEqual( trjFinal.finalState().getCovarianceMatrix() ) );
+            
+            // States at a single hardware node
+            String          strSmfId = trjAll.stateWithIndex( trjAll.numStates()/2 ).getHardwareNodeId();
+            
+            model.setRecordingPolicy( RecordingPolicy.atNodes(strSmfId) );
+            model.resetProbe();
+            model.run();
+            
+            for (EnvelopeProbeState state : probe.getTrajectory().getStatesViaIndexer().subList(1, probe.getTrajectory().numStates()))
+                Assert.assertEquals( strSmfId, state.getHardwareNodeId() );
+            
+            // Fixed spacing 
+            model.setRecordingPolicy( RecordingPolicy.atSpacing(0.5) );
+            model.resetProbe();
+            model.run();
+            
+            int     cntSpaced = probe.getTrajectory().numStates();
+            Assert.assertTrue( cntSpaced > 1 && cntSpaced < trjAll.numStates() );
+            Assert.assertTrue( cntSpaced >= (int)Math.floor(stateFinal.getPosition()/0.5) );
+            
+            // Clearing the policy restores the recording of every state
+            model.setRecordingPolicy( null );
+            model.resetProbe();
+            model.run();
+            
+            Assert.assertNull( ((Tracker)probe.getAlgorithm()).getRecordingPolicy() );
+            Assert.assertEquals( trjAll.numStates(), probe.getTrajectory().numStates() );
+            
+        } catch (ModelException | InstantiationException e) {
+
+            fail("Unable to run Scenario with recording policy");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Test method for {@link xal.sim.scenario.Scenario#setTransferMapCaching(boolean)}.
+     * Cached transfer maps must reproduce the uncached run and only the maps of a changed
+     * magnet are recomputed.
+     */
+    @Test
+    public void testTransferMapCaching() {
+        Accelerator     accel = ResourceManager.getTestAccelerator();
+        AcceleratorSeq  seq   = accel.getSequence(STR_ACCL_SEQ_ID);
+        
+        try {
+            Scenario        model = Scenario.newScenarioFor(seq);
+            IAlgorithm      algor = AlgorithmFactory.createEnvelopeTracker(seq);
+            EnvelopeProbe   probe = ProbeFactory.getEnvelopeProbe(seq, algor);
+            
+            probe.initialize();
+            model.setProbe( probe );
+            model.resync();
+            model.run();
+            
+            CovarianceMatrix    matCovFinal = probe.getTrajectory().finalState().getCovarianceMatrix();
+            
+            // First cached run fills the cache, the second must hit it
+            model.setTransferMapCaching(true);
+            model.resync();
+            model.resetProbe();
+            model.run();
+            
+            TransferMapCache    cache = model.getTransferMapCache();
+            long                cntMaps = cache.getHitCount() + cache.getMissCount();
+            long                cntHits = cache.getHitCount();
+            
+            Assert.assertTrue( cache.getMissCount() > 0 );
+            
+            cache.resetCounts();
+            model.resetProbe();
+            model.run();
+            
+            Assert.assertEquals( cntMaps, cache.getHitCount() + cache.getMissCount() );
+            Assert.assertTrue( cache.getHitCount() > cntHits );
+            Assert.assertTrue( cache.getHitCount() > cache.getMissCount() );
+            Assert.assertTrue( matCovFinal.isApproxEqual( probe.getTrajectory().finalState().getCovarianceMatrix() ) );
+            
+            // Changing a single steerer only invalidates its own maps
+            AcceleratorNode     smfDch = seq.getAllNodesOfType("DCH").get(0);
+            
+            model.setModelInput(smfDch, ElectromagnetPropertyAccessor.PROPERTY_FIELD, 0.001);
+            model.resyncFromCache();
+            cache.resetCounts();
+            model.resetProbe();
+            model.run();
+            
+            Assert.assertTrue( cache.getMissCount() > 0 );
+            Assert.assertTrue( cache.getHitCount() > 10*cache.getMissCount() );
+            
+        } catch (ModelException | InstantiationException e) {
+
+            fail("Unable to run Scenario with transfer map caching");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Test method for {@link xal.model.elem.TransferMapCache#setMaxEnergiesPerElement(int)}.
+     * Scanning the probe energy must not grow the cache beyond the bound of each element.
+     */
+    @Test
+    public void testTransferMapCacheBound() {
+        Accelerator     accel = ResourceManager.getTestAccelerator();
+        AcceleratorSeq  seq   = accel.getSequence(STR_ACCL_SEQ_ID);
+
+        try {
+            Scenario        model = Scenario.newScenarioFor(seq);
+            IAlgorithm      algor = AlgorithmFactory.createEnvelopeTracker(seq);
+            EnvelopeProbe   probe = ProbeFactory.getEnvelopeProbe(seq, algor);
+
+            probe.initialize();
+            model.setProbe( probe );
+            model.setTransferMapCaching(true);
+            model.resync();
+
+            TransferMapCache    cache = model.getTransferMapCache();
+
+            cache.setMaxEnergiesPerElement(2);
+            model.run();
+
+            // The maps of a single energy after one run
+            int         cntMapsOneRun = cache.size();
+            double      dblW0         = probe.getKineticEnergy();
+
+            Assert.assertTrue( cntMapsOneRun > 0 );
+
+            for (int i=1; i<=5; i++) {
+                model.resetProbe();
+                probe.setKineticEnergy( dblW0*(1.0 + 0.01*i) );
+                model.run();
+            }
+
+            Assert.assertTrue( cache.size() <= 2*cntMapsOneRun );
+
+            // Without the bound every energy adds its own maps
+            cache.setMaxEnergiesPerElement(TransferMapCache.INT_MAX_ENERGIES_PER_ELEM);
+            for (int i=1; i<=5; i++) {
+                model.resetProbe();
+                probe.setKineticEnergy( dblW0*(1.0 + 0.01*i) );
+                model.run();
+            }
+
+            Assert.assertTrue( cache.size() > 2*cntMapsOneRun );
+
+        } catch (ModelException | InstantiationException e) {
+
+            fail("Unable to run Scenario with a bounded transfer map cache");
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Test method for {@link xal.sim.scenario.Scenario#getProbe()}.
      */
@@ -8,6 +8,7 @@
 
 package xal.smf;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.AfterClass;
@@ -66,4 +67,78 @@ public class TestAcceleratorSeq {
             Assert.assertTrue( node instanceof BPM );
         }
     }
-}
\ No newline at end of file
+    
+    
+    @Test
+    /** test that the node lookup by ID and the node positions agree with searching the sequences */
+    public void testNodeIndex() {
+        final AcceleratorSeq ring = DEFAULT_ACCELERATOR.findSequence( "Ring" );
+        for ( int pass = 0 ; pass < 10 ; pass++ ) {       // later passes use the node index
+            for ( final AcceleratorNode node : DEFAULT_ACCELERATOR.getAllNodes() ) {
+                Assert.assertSame( searchNodeWithId( DEFAULT_ACCELERATOR, node.getId() ), DEFAULT_ACCELERATOR.getNodeWithId( node.getId() ) );
+            }
+            for ( final AcceleratorNode node : ring.getAllNodes() ) {
+                Assert.assertEquals( ring.computePosition( node ), ring.getPosition( node ), 0.0 );
+            }
+        }
+        Assert.assertNull( DEFAULT_ACCELERATOR.getNodeWithId( "NoSuchNode" ) );
+        Assert.assertSame( ring, ring.getNodeWithId( ring.getId() ) );
+    }
+    
+    
+    @Test
+    /** test that moving a node invalidates the cached positions */
+    public void testMovedNodePosition() {
+        final AcceleratorSeq ring = DEFAULT_ACCELERATOR.findSequence( "Ring" );
+        final BPM bpm = ring.getNodesOfClassWithStatus( BPM.class, true ).get( 0 );
+        final double position = bpm.getPosition();
+        final double ringPosition = ring.getPosition( bpm );
+        try {
+            bpm.setPosition( position + 0.5 );
+            Assert.assertEquals( ringPosition + 0.5, ring.getPosition( bpm ), 1.0e-12 );
+            Assert.assertTrue( ring.getAllNodesOfClassInRange( BPM.class, ringPosition + 0.5, ringPosition + 0.5 ).contains( bpm ) );
+        }
+        finally {
+            bpm.setPosition( position );
+        }
+        Assert.assertEquals( ringPosition, ring.getPosition( bpm ), 0.0 );
+    }
+    
+    
+    @Test
+    /** test fetching nodes within a range of positions */
+    public void testNodeFetchingInRange() {
+        for ( final String sequenceID : new String[] { "Ring", "MEBT", "SCL" } ) {
+            final AcceleratorSeq sequence = DEFAULT_ACCELERATOR.findSequence( sequenceID );
+            if ( sequence == null )  continue;
+            
+            final double start = 0.25 * sequence.getLength();
+            final double end = 0.75 * sequence.getLength();
+            final List<BPM> expected = new ArrayList<BPM>();
+            for ( final AcceleratorNode node : sequence.getAllNodes() ) {
+                final double position = sequence.getPosition( node );
+                if ( node instanceof BPM && position >= start && position <= end )  expected.add( (BPM)node );
+            }
+            sequence.sortNodes( expected );
+            
+            final List<BPM> bpms = sequence.getAllNodesOfClassInRange( BPM.class, start, end );
+            Assert.assertTrue( bpms.size() > 0 );
+            Assert.assertEquals( expected, bpms );
+            for ( int index = 1 ; index < bpms.size() ; index++ ) {
+                Assert.assertTrue( sequence.getPosition( bpms.get( index - 1 ) ) <= sequence.getPosition( bpms.get( index ) ) );
+            }
+        }
+    }
+    
+    
+    /** search the sequences for the node with the specified ID in the order of the nodes whose IDs are duplicated */
+    static private AcceleratorNode searchNodeWithId( final AcceleratorSeq sequence, final String nodeID ) {
+        if ( sequence.getId().equals( nodeID ) )  return sequence;
+        if ( sequence.nodeTable.containsKey( nodeID ) )  return sequence.nodeTable.get( nodeID );
+        for ( final AcceleratorSeq child : sequence.getSequences() ) {
+            final AcceleratorNode node = searchNodeWithId( child, nodeID );
+            if ( node != null )  return node;
+        }
+        return null;
+    }
+}
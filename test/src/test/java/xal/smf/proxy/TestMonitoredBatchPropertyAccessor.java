@@ -0,0 +1,428 @@
+/*
+ * TestMonitoredBatchPropertyAccessor.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.smf.proxy;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xal.ca.*;
+import xal.sim.scenario.Scenario;
+import xal.smf.AcceleratorNode;
+import xal.smf.impl.Quadrupole;
+import xal.tools.ArrayValue;
+
+
+/**
+ * Test the changed node detection of the monitored live accessor against fake channels whose monitors post values on demand.
+ */
+public class TestMonitoredBatchPropertyAccessor {
+	/** first node with two channels */
+	private AcceleratorNode _node1;
+
+	/** second node with one channel */
+	private AcceleratorNode _node2;
+
+	/** third node with one channel */
+	private AcceleratorNode _node3;
+
+	/** fake channels keyed by node */
+	private Map<AcceleratorNode,List<FakeChannel>> _nodeChannels;
+
+	/** accessor under test */
+	private FakeMonitoredAccessor _accessor;
+
+
+	/** create the nodes, their fake channels and the accessor */
+	@Before
+	public void setUp() {
+		_node1 = new Quadrupole( "TEST:QH01" );
+		_node2 = new Quadrupole( "TEST:QV02" );
+		_node3 = new Quadrupole( "TEST:QH03" );
+
+		_nodeChannels = new HashMap<>();
+		_nodeChannels.put( _node1, Arrays.asList( new FakeChannel( "TEST:PS_QH01:B", 1.0 ), new FakeChannel( "TEST:PS_QH01:B_Set", 1.5 ) ) );
+		_nodeChannels.put( _node2, Arrays.asList( new FakeChannel( "TEST:PS_QV02:B", -2.0 ) ) );
+		_nodeChannels.put( _node3, Arrays.asList( new FakeChannel( "TEST:PS_QH03:B", 3.0 ) ) );
+
+		_accessor = new FakeMonitoredAccessor();
+	}
+
+
+	/** release the monitors */
+	@After
+	public void tearDown() {
+		_accessor.dispose();
+	}
+
+
+	/** Only the nodes with a channel whose monitored value changed since the previous request must be reported */
+	@Test
+	public void testChangedNodes() {
+		final List<AcceleratorNode> nodes = Arrays.asList( _node1, _node2 );
+
+		// every node is new on the first request
+		_accessor.requestValuesForNodes( nodes );
+		Assert.assertEquals( new HashSet<>( nodes ), _accessor.getChangedNodes() );
+		Assert.assertEquals( 1.5, _accessor._channelValues.get( channel( _node1, 1 ) ), 0.0 );
+		Assert.assertEquals( -2.0, _accessor._channelValues.get( channel( _node2, 0 ) ), 0.0 );
+
+		// nothing changed
+		_accessor.requestValuesForNodes( nodes );
+		Assert.assertTrue( _accessor.getChangedNodes().isEmpty() );
+
+		// a change to either channel of a node marks that node alone
+		channel( _node1, 1 ).postValue( 1.6 );
+		_accessor.requestValuesForNodes( nodes );
+		Assert.assertEquals( Collections.singleton( _node1 ), _accessor.getChangedNodes() );
+		Assert.assertEquals( 1.6, _accessor._channelValues.get( channel( _node1, 1 ) ), 0.0 );
+
+		// a value posted again unchanged is not a change
+		channel( _node2, 0 ).postValue( -2.0 );
+		_accessor.requestValuesForNodes( nodes );
+		Assert.assertTrue( _accessor.getChangedNodes().isEmpty() );
+
+		// a node requested for the first time is changed while the others are compared with their previous values
+		channel( _node2, 0 ).postValue( -2.5 );
+		_accessor.requestValuesForNodes( Arrays.asList( _node1, _node2, _node3 ) );
+		Assert.assertEquals( new HashSet<>( Arrays.asList( _node2, _node3 ) ), _accessor.getChangedNodes() );
+
+		// each channel is monitored only once however many requests are made
+		for ( final List<FakeChannel> channels : _nodeChannels.values() ) {
+			for ( final FakeChannel channel : channels ) {
+				Assert.assertEquals( 1, channel.getMonitorCount() );
+			}
+		}
+	}
+
+
+	/** A disconnected channel has no value so its node is changed, and changed again once the value returns */
+	@Test
+	public void testDisconnectedChannel() {
+		final List<AcceleratorNode> nodes = Arrays.asList( _node1, _node2 );
+		_accessor.requestValuesForNodes( nodes );
+
+		channel( _node2, 0 ).drop();
+		_accessor.requestValuesForNodes( nodes );
+		Assert.assertEquals( Collections.singleton( _node2 ), _accessor.getChangedNodes() );
+		Assert.assertFalse( _accessor._channelValues.containsKey( channel( _node2, 0 ) ) );
+
+		channel( _node2, 0 ).postValue( -2.0 );
+		_accessor.requestValuesForNodes( nodes );
+		Assert.assertEquals( Collections.singleton( _node2 ), _accessor.getChangedNodes() );
+	}
+
+
+	/** Disposing must clear the monitors and the changed nodes, and a later request must subscribe again */
+	@Test
+	public void testDispose() {
+		final List<AcceleratorNode> nodes = Arrays.asList( _node1, _node2 );
+		_accessor.requestValuesForNodes( nodes );
+
+		_accessor.dispose();
+		Assert.assertTrue( _accessor.getChangedNodes().isEmpty() );
+		for ( final AcceleratorNode node : nodes ) {
+			for ( final FakeChannel channel : _nodeChannels.get( node ) ) {
+				Assert.assertEquals( 0, channel.getActiveMonitorCount() );
+			}
+		}
+
+		_accessor.requestValuesForNodes( nodes );
+		Assert.assertEquals( new HashSet<>( nodes ), _accessor.getChangedNodes() );
+		Assert.assertEquals( 2, channel( _node2, 0 ).getMonitorCount() );
+		Assert.assertEquals( 1, channel( _node2, 0 ).getActiveMonitorCount() );
+	}
+
+
+	/** Disposing the primary accessor must forget the changed nodes of the previous request */
+	@Test
+	public void testPrimaryAccessorDispose() {
+		final PrimaryPropertyAccessor accessor = new PrimaryPropertyAccessor();
+		final List<AcceleratorNode> nodes = Arrays.asList( _node1, _node2 );
+
+		accessor.requestValuesForNodes( nodes, Scenario.SYNC_MODE_DESIGN );
+		Assert.assertEquals( new HashSet<>( nodes ), accessor.getChangedNodes() );
+
+		accessor.dispose();
+		Assert.assertTrue( accessor.getChangedNodes().isEmpty() );
+	}
+
+
+	/** get the fake channel of the node at the specified index */
+	private FakeChannel channel( final AcceleratorNode node, final int index ) {
+		return _nodeChannels.get( node ).get( index );
+	}
+
+
+
+	/** monitored accessor which uses the fake channels of the nodes instead of their live channels */
+	private class FakeMonitoredAccessor extends MonitoredBatchPropertyAccessor {
+		/** get the fake channels for the specified node */
+		@Override
+		protected Collection<Channel> getChannels( final PropertyAccessor accessor, final AcceleratorNode node ) {
+			return new ArrayList<Channel>( _nodeChannels.get( node ) );
+		}
+	}
+
+
+
+	/** channel which connects immediately and posts its value to its monitors whenever a value is posted to it */
+	static private class FakeChannel extends Channel {
+		/** active monitors */
+		final private List<FakeMonitor> MONITORS;
+
+		/** number of monitors ever created */
+		private int _monitorCount;
+
+		/** current value */
+		private double _value;
+
+
+		/** Constructor */
+		public FakeChannel( final String name, final double value ) {
+			super( name );
+			MONITORS = new ArrayList<>();
+			_monitorCount = 0;
+			_value = value;
+		}
+
+
+		/** post the value to every monitor */
+		synchronized public void postValue( final double value ) {
+			_value = value;
+			for ( final FakeMonitor monitor : MONITORS ) {
+				monitor.post( value );
+			}
+		}
+
+
+		/** drop the connection */
+		public void drop() {
+			connectionFlag = false;
+			if ( connectionProxy != null )  connectionProxy.connectionDropped( this );
+		}
+
+
+		/** get the number of monitors ever created */
+		synchronized public int getMonitorCount() {
+			return _monitorCount;
+		}
+
+
+		/** get the number of monitors which have not been cleared */
+		synchronized public int getActiveMonitorCount() {
+			return MONITORS.size();
+		}
+
+
+		/** remove the cleared monitor */
+		synchronized private void removeMonitor( final FakeMonitor monitor ) {
+			MONITORS.remove( monitor );
+		}
+
+
+		@Override
+		public void requestConnection() {
+			if ( !connectionFlag ) {
+				connectionFlag = true;
+				if ( connectionProxy != null )  connectionProxy.connectionMade( this );
+			}
+		}
+
+
+		@Override
+		public boolean connectAndWait( final double timeout ) {
+			requestConnection();
+			return true;
+		}
+
+
+		@Override
+		public void disconnect() {
+			connectionFlag = false;
+		}
+
+
+		@Override
+		synchronized public Monitor addMonitorValTime( final IEventSinkValTime listener, final int intMaskFire ) throws ConnectionException, MonitorException {
+			final FakeMonitor monitor = new FakeMonitor( this, listener, intMaskFire );
+			MONITORS.add( monitor );
+			++_monitorCount;
+			monitor.post( _value );
+			return monitor;
+		}
+
+
+		@Override
+		public Monitor addMonitorValStatus( final IEventSinkValStatus listener, final int intMaskFire ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Monitor addMonitorValue( final IEventSinkValue listener, final int intMaskFire ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Class<?> elementType() { return Double.TYPE; }
+
+		@Override
+		public int elementCount() { return 1; }
+
+		@Override
+		public boolean readAccess() { return true; }
+
+		@Override
+		public boolean writeAccess() { return false; }
+
+		@Override
+		public String getUnits() { return ""; }
+
+		@Override
+		public String[] getOperationLimitPVs() { return new String[0]; }
+
+		@Override
+		public String[] getWarningLimitPVs() { return new String[0]; }
+
+		@Override
+		public String[] getAlarmLimitPVs() { return new String[0]; }
+
+		@Override
+		public String[] getDriveLimitPVs() { return new String[0]; }
+
+		@Override
+		public Number rawUpperDisplayLimit() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Number rawLowerDisplayLimit() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Number rawUpperAlarmLimit() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Number rawLowerAlarmLimit() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Number rawUpperWarningLimit() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Number rawLowerWarningLimit() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Number rawUpperControlLimit() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public Number rawLowerControlLimit() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public ChannelRecord getRawValueRecord() { throw new UnsupportedOperationException(); }
+
+		@Override
+		protected ChannelRecord getRawStringValueRecord() { throw new UnsupportedOperationException(); }
+
+		@Override
+		protected ChannelStatusRecord getRawStringStatusRecord() { throw new UnsupportedOperationException(); }
+
+		@Override
+		protected ChannelTimeRecord getRawStringTimeRecord() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public ChannelStatusRecord getRawStatusRecord() { throw new UnsupportedOperationException(); }
+
+		@Override
+		public ChannelTimeRecord getRawTimeRecord() { throw new UnsupportedOperationException(); }
+
+		@Override
+		protected void getRawValueCallback( final IEventSinkValue listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		protected void getRawValueCallback( final IEventSinkValue listener, final boolean attemptConnection ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void getRawValueTimeCallback( final IEventSinkValTime listener, final boolean attemptConnection ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final String newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final byte newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final short newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final int newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final long newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final float newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final double newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final String[] newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final byte[] newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final short[] newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final int[] newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final long[] newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final float[] newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public void putRawValCallback( final double[] newVal, final PutListener listener ) { throw new UnsupportedOperationException(); }
+	}
+
+
+
+	/** monitor of a fake channel which forwards the posted values to its listener until cleared */
+	static private class FakeMonitor extends Monitor {
+		/** listener of the value events */
+		final private IEventSinkValTime LISTENER;
+
+
+		/** Constructor */
+		public FakeMonitor( final FakeChannel channel, final IEventSinkValTime listener, final int intMaskFire ) throws ConnectionException {
+			super( channel, intMaskFire );
+			LISTENER = listener;
+		}
+
+
+		/** post the value to the listener */
+		public void post( final double value ) {
+			final BigDecimal timestamp = BigDecimal.valueOf( System.currentTimeMillis() ).movePointLeft( 3 );
+			final ChannelTimeRecord record = new ChannelTimeRecordImpl( new TimeAdaptor() {
+				public ArrayValue getStore() { return ArrayValue.doubleStore( value ); }
+				public int status() { return 0; }
+				public int severity() { return 0; }
+				public BigDecimal getTimestamp() { return timestamp; }
+			});
+			LISTENER.eventValue( record, getChannel() );
+		}
+
+
+		@Override
+		public void clear() {
+			((FakeChannel)getChannel()).removeMonitor( this );
+		}
+
+
+		@Override
+		protected void begin() {}
+	}
+}
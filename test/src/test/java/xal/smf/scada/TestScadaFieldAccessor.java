@@ -0,0 +1,79 @@
+//
+//  TestScadaFieldAccessor.java
+//  xal
+//
+
+package xal.smf.scada;
+
+import xal.ca.ChannelRecord;
+import xal.ca.ChannelRecordImpl;
+import xal.tools.ArrayValue;
+
+import org.junit.*;
+
+
+/** test the compiled field accessors used to load SCADA records from channel values */
+public class TestScadaFieldAccessor {
+    /** SCADA record with fields of various types */
+    public static class SampleRecord extends ScadaRecord {
+        public double gain;
+        public Integer count;
+        public int[] mode;
+        public String label;
+        public long unsupported;
+        public final double fixed = 1.0;
+
+        public SampleRecord() {
+            super( new ScadaFieldDescriptor( "gain", double.class, "Gain_Rb" ) );
+        }
+
+        public String dataLabel() {
+            return "SampleRecord";
+        }
+    }
+
+
+    @Test
+    public void testSetFromChannelRecord() {
+        final SampleRecord record = new SampleRecord();
+
+        ScadaFieldAccessor.getAccessor( SampleRecord.class, "gain" ).setFromChannelRecord( record, channelRecord( ArrayValue.intStore( 3 ) ), "Gain_Rb" );
+        Assert.assertEquals( 3.0, record.gain, 0.0 );
+
+        ScadaFieldAccessor.getAccessor( SampleRecord.class, "count" ).setFromChannelRecord( record, channelRecord( ArrayValue.doubleStore( 7.0 ) ), "Count_Rb" );
+        Assert.assertEquals( Integer.valueOf( 7 ), record.count );
+
+        ScadaFieldAccessor.getAccessor( SampleRecord.class, "mode" ).setFromChannelRecord( record, channelRecord( ArrayValue.doubleStore( new double[] { 1.0, 2.0 } ) ), "Mode_Rb" );
+        Assert.assertArrayEquals( new int[] { 1, 2 }, record.mode );
+
+        ScadaFieldAccessor.getAccessor( SampleRecord.class, "label" ).setFromChannelRecord( record, channelRecord( ArrayValue.stringStore( "wire" ) ), "Label_Rb" );
+        Assert.assertEquals( "wire", record.label );
+    }
+
+
+    @Test
+    public void testBadFields() {
+        final SampleRecord record = new SampleRecord();
+        final ChannelRecord value = channelRecord( ArrayValue.doubleStore( 2.0 ) );
+
+        for ( final String fieldName : new String[] { "unsupported", "fixed" } ) {
+            try {
+                ScadaFieldAccessor.getAccessor( SampleRecord.class, fieldName ).setFromChannelRecord( record, value, "Bad_Rb" );
+                Assert.fail( "The field " + fieldName + " should not be settable from a channel." );
+            }
+            catch ( BadStructException exception ) {}
+        }
+
+        try {
+            ScadaFieldAccessor.getAccessor( SampleRecord.class, "missing" );
+            Assert.fail( "A missing field should not have an accessor." );
+        }
+        catch ( BadStructException exception ) {}
+    }
+
+
+    /** make a channel record holding the specified value */
+    static private ChannelRecord channelRecord( final ArrayValue value ) {
+        return new ChannelRecordImpl( () -> value );
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * TestTurnByTurnPropagator.java
+ *
+ * Since   : Oct 18, 2026
+ */
+package xal.tools.beam.calc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import xal.tools.beam.PhaseMatrix;
+import xal.tools.beam.PhaseVector;
+
+/**
+ * Test cases for the <code>TurnByTurnPropagator</code> class.  The propagator
+ * is compared against the direct iteration of the one-turn matrix.
+ *
+ * @since  Oct 18, 2026
+ */
+public class TestTurnByTurnPropagator {
+
+    /*
+     * Global Constants
+     */
+
+    /** Number of turns to propagate */
+    private static final int    CNT_TURNS = 1000;
+
+
+    /*
+     * Tests
+     */
+
+    /**
+     * The turn-by-turn response must be identical to the iteration of the one-turn
+     * matrix with <code>PhaseMatrix</code> objects.
+     */
+    @Test
+    public void testPropagate() {
+        PhaseMatrix matInj  = createInjectionMatrix();
+        PhaseMatrix matFull = createOneTurnMatrix();
+        PhaseVector vecInj  = new PhaseVector(0.001, -0.0002, 0.0005, 0.0001, 0.002, 0.0003);
+
+        TurnByTurnPropagator    prpTurns = new TurnByTurnPropagator(matInj, matFull);
+        double[][]              arrTurns = prpTurns.propagate(vecInj.getArrayCopy(), CNT_TURNS);
+
+        PhaseVector vecTurn = matInj.times(vecInj);
+        for (int n=0; n<CNT_TURNS; n++) {
+            Assert.assertArrayEquals(vecTurn.getArrayCopy(), arrTurns[n], 0.0);
+
+            vecTurn = matFull.times(vecTurn);
+        }
+    }
+
+    /**
+     * The coordinates at an arbitrary turn must agree with the turn-by-turn response.
+     */
+    @Test
+    public void testComputeAtTurn() {
+        PhaseMatrix matInj  = createInjectionMatrix();
+        PhaseMatrix matFull = createOneTurnMatrix();
+        double[]    vecInj  = new PhaseVector(0.001, -0.0002, 0.0005, 0.0001, 0.002, 0.0003).getArrayCopy();
+
+        TurnByTurnPropagator    prpTurns = new TurnByTurnPropagator(matInj, matFull);
+        double[][]              arrTurns = prpTurns.propagate(vecInj, CNT_TURNS);
+
+        for (int n : new int[] {0, 1, 2, 7, 64, 513, CNT_TURNS - 1}) {
+            Assert.assertArrayEquals(arrTurns[n], prpTurns.computeAtTurn(vecInj, n), 1.0e-12);
+        }
+
+        try {
+            prpTurns.computeAtTurn(vecInj, -1);
+            Assert.fail("A negative turn must be rejected.");
+
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * The parallel responses must be those of each injection vector.
+     */
+    @Test
+    public void testPropagateParallel() {
+        TurnByTurnPropagator    prpTurns = new TurnByTurnPropagator(createInjectionMatrix(), createOneTurnMatrix());
+
+        double[][]  arrVecInj = new double[16][];
+        for (int i=0; i<arrVecInj.length; i++) {
+            arrVecInj[i] = new PhaseVector(0.0001*i, 0.0, -0.0001*i, 0.0, 0.0, 0.0001).getArrayCopy();
+        }
+
+        double[][][]    arrRsps = prpTurns.propagate(arrVecInj, CNT_TURNS);
+        Assert.assertEquals(arrVecInj.length, arrRsps.length);
+        for (int i=0; i<arrVecInj.length; i++) {
+            double[][]  arrTurns = prpTurns.propagate(arrVecInj[i], CNT_TURNS);
+
+            for (int n=0; n<CNT_TURNS; n++)
+                Assert.assertArrayEquals(arrTurns[n], arrRsps[i][n], 0.0);
+        }
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Creates a one-turn matrix with transverse rotations, a longitudinal plane without
+     * RF (not diagonalizable), dispersion, and a closed orbit offset.
+     *
+     * @return  one-turn matrix for testing
+     */
+    private static PhaseMatrix createOneTurnMatrix() {
+        double  dblMuX = 2.0*Math.PI*0.23;
+        double  dblMuY = 2.0*Math.PI*0.19;
+        double  dblBtX = 12.0;
+        double  dblBtY = 7.5;
+
+        PhaseMatrix matFull = PhaseMatrix.identity();
+        matFull.setElem(0, 0, Math.cos(dblMuX));
+        matFull.setElem(0, 1, dblBtX*Math.sin(dblMuX));
+        matFull.setElem(1, 0, -Math.sin(dblMuX)/dblBtX);
+        matFull.setElem(1, 1, Math.cos(dblMuX));
+        matFull.setElem(2, 2, Math.cos(dblMuY));
+        matFull.setElem(2, 3, dblBtY*Math.sin(dblMuY));
+        matFull.setElem(3, 2, -Math.sin(dblMuY)/dblBtY);
+        matFull.setElem(3, 3, Math.cos(dblMuY));
+        matFull.setElem(4, 5, -3.2);
+        matFull.setElem(0, 5, 1.1);
+        matFull.setElem(0, 6, 0.0004);
+        matFull.setElem(3, 6, -0.0001);
+
+        return matFull;
+    }
+
+    /**
+     * Creates a transfer matrix from the injection location to the observation location.
+     *
+     * @return  injection transfer matrix for testing
+     */
+    private static PhaseMatrix createInjectionMatrix() {
+        PhaseMatrix matInj = PhaseMatrix.identity();
+        matInj.setElem(0, 1, 2.5);
+        matInj.setElem(2, 3, 2.5);
+        matInj.setElem(4, 5, 0.1);
+
+        return matInj;
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * TestColumnarEnsemble.java
+ *
+ * Created on Oct 18, 2026
+ */
+package xal.tools.beam.ens;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import xal.tools.beam.CovarianceMatrix;
+import xal.tools.beam.PhaseMatrix;
+import xal.tools.beam.PhaseVector;
+import xal.tools.math.r3.R3;
+
+/**
+ * Tests the equivalence of the <code>ColumnarEnsemble</code> properties with those of
+ * the <code>Ensemble</code> of the same fixed particle set, and the documented
+ * differences between them.  Both the serial and the parallel (blocked) computations of
+ * the columnar ensemble are covered.
+ *
+ * @since  Oct 18, 2026
+ */
+public class TestColumnarEnsemble {
+
+
+    /*
+     * Global Constants
+     */
+
+    /** Seed of the fixed particle set */
+    private static final long       LNG_SEED = 20261018L;
+
+    /** Particle count below the parallel threshold of the columnar ensemble */
+    private static final int        CNT_SERIAL = 500;
+
+    /** Particle count above the parallel threshold of the columnar ensemble */
+    private static final int        CNT_PARALLEL = 40000;
+
+    /** Relative tolerance of the comparisons */
+    private static final double     DBL_REL_TOL = 1.0e-9;
+
+    /** Particle mass */
+    private static final double     DBL_MASS = 1.0;
+
+    /** Nominal particle charge */
+    private static final double     DBL_CHARGE = 1.0e-12;
+
+    /** Field point for the potential, outside the particle distribution */
+    private static final R3         PT_FIELD = new R3(0.01, 0.02, 0.03);
+
+
+    /*
+     * Tests
+     */
+
+    /**
+     * Test method for {@link xal.tools.beam.ens.ColumnarEnsemble#phaseMean()} and
+     * {@link xal.tools.beam.ens.ColumnarEnsemble#phaseCovariance()}.
+     */
+    @Test
+    public void testStatistics() {
+        for (int cntParticles : new int[] { CNT_SERIAL, CNT_PARALLEL }) {
+            Ensemble            ens     = this.createEnsemble(cntParticles);
+            ColumnarEnsemble    ensCols = new ColumnarEnsemble(ens);
+
+            Assert.assertEquals( ens.getCount(), ensCols.getCount() );
+
+            this.compareStatistics(ens, ensCols);
+        }
+    }
+
+    /**
+     * Test method for {@link xal.tools.beam.ens.ColumnarEnsemble#applyTransferMap(PhaseMatrix)}.
+     * The moments of both ensembles must agree after the same transfer map, including
+     * a translation, is applied to both.
+     */
+    @Test
+    public void testApplyTransferMap() {
+        for (int cntParticles : new int[] { CNT_SERIAL, CNT_PARALLEL }) {
+            Ensemble            ens     = this.createEnsemble(cntParticles);
+            ColumnarEnsemble    ensCols = new ColumnarEnsemble(ens);
+            PhaseMatrix         matPhi  = this.createTransferMap();
+
+            ens.applyTransferMap(matPhi);
+            ensCols.applyTransferMap(matPhi);
+
+            this.compareStatistics(ens, ensCols);
+        }
+    }
+
+    /**
+     * Test method for {@link xal.tools.beam.ens.ColumnarEnsemble#totalCharge()},
+     * {@link xal.tools.beam.ens.ColumnarEnsemble#totalCurrent()}, and
+     * {@link xal.tools.beam.ens.ColumnarEnsemble#potentialSummation(R3)}.  The potential
+     * of the columnar ensemble is the Coulomb sum over the particle distances, while that
+     * of <code>Ensemble</code> is the sum over the squared distances.
+     */
+    @Test
+    public void testElectromagnetic() {
+        for (int cntParticles : new int[] { CNT_SERIAL, CNT_PARALLEL }) {
+            Ensemble            ens     = this.createEnsemble(cntParticles);
+            ColumnarEnsemble    ensCols = new ColumnarEnsemble(ens);
+
+            this.assertClose( ens.totalCharge(), ensCols.totalCharge(), Math.abs(ens.totalCharge()) );
+
+            R3      vecCurr     = ens.totalCurrent();
+            R3      vecCurrCols = ensCols.totalCurrent();
+            double  dblScale    = cntParticles*DBL_CHARGE*1.0e-3;
+
+            this.assertClose( vecCurr.get1(), vecCurrCols.get1(), dblScale );
+            this.assertClose( vecCurr.get2(), vecCurrCols.get2(), dblScale );
+            this.assertClose( vecCurr.get3(), vecCurrCols.get3(), dblScale );
+
+            // Direct sums over the particles at their distance and squared distance
+            double  dblSumDist   = 0.0;
+            double  dblSumDistSq = 0.0;
+
+            Iterator<Particle>  iter = ens.iterator();
+            while (iter.hasNext()) {
+                Particle    p      = iter.next();
+                R3          vecDis = PT_FIELD.minus( p.getPosition() );
+                double      dblDSq = vecDis.get1()*vecDis.get1() + vecDis.get2()*vecDis.get2() + vecDis.get3()*vecDis.get3();
+
+                dblSumDist   += Particle.s_dblFacElec*p.getCharge()/Math.sqrt(dblDSq);
+                dblSumDistSq += Particle.s_dblFacElec*p.getCharge()/dblDSq;
+            }
+
+            this.assertClose( dblSumDist, ensCols.potentialSummation(PT_FIELD), Math.abs(dblSumDist) );
+            this.assertClose( dblSumDistSq, ens.potentialSummation(PT_FIELD), Math.abs(dblSumDistSq) );
+        }
+    }
+
+
+    /*
+     * Support Methods
+     */
+
+    /**
+     * Compares the means, covariance matrices, and rms emittances of the two ensembles.
+     * The homogeneous elements are compared with their documented values.
+     *
+     * @param ens       the reference ensemble
+     * @param ensCols   columnar ensemble of the same particles
+     */
+    private void compareStatistics(Ensemble ens, ColumnarEnsemble ensCols) {
+        int                 N          = ens.getCount();
+        PhaseVector         vecMean    = ens.phaseMean();
+        PhaseVector         vecMeanCol = ensCols.phaseMean();
+        CovarianceMatrix    matSig     = ens.phaseCovariance();
+        CovarianceMatrix    matSigCol  = ensCols.phaseCovariance();
+
+        for (int i=0; i<6; i++) {
+            double  dblScale = Math.sqrt( matSig.getElem(i, i) );
+
+            this.assertClose( vecMean.getElem(i), vecMeanCol.getElem(i), dblScale );
+            this.assertClose( matSig.getElem(i, 6), matSigCol.getElem(i, 6), dblScale );
+            this.assertClose( matSig.getElem(6, i), matSigCol.getElem(6, i), dblScale );
+
+            for (int j=0; j<6; j++) {
+                double  dblScaleIJ = dblScale*Math.sqrt( matSig.getElem(j, j) );
+
+                this.assertClose( matSig.getElem(i, j), matSigCol.getElem(i, j), dblScaleIJ );
+            }
+        }
+
+        Assert.assertEquals( 1.0, vecMeanCol.getElem(6), 0.0 );
+        Assert.assertEquals( 1.0, matSigCol.getElem(6, 6), 0.0 );
+        Assert.assertEquals( 1.0, vecMean.getElem(6), 0.0 );
+        Assert.assertEquals( 1.0/N, matSig.getElem(6, 6), 1.0e-12 );
+
+        double[]    arrEmit    = ens.rmsEmittances();
+        double[]    arrEmitCol = ensCols.rmsEmittances();
+
+        for (int i=0; i<3; i++)
+            this.assertClose( arrEmit[i], arrEmitCol[i], arrEmit[i] );
+    }
+
+    /**
+     * Asserts the values agree within the relative tolerance of the given scale.
+     *
+     * @param dblExpected   expected value
+     * @param dblActual     actual value
+     * @param dblScale      magnitude of the values being compared
+     */
+    private void assertClose(double dblExpected, double dblActual, double dblScale) {
+        Assert.assertEquals( dblExpected, dblActual, DBL_REL_TOL*dblScale );
+    }
+
+    /**
+     * Creates an ensemble of the fixed particle set with the given number of particles.
+     * The particles have millimeter-scale Gaussian coordinates, correlated in each
+     * phase plane, and charges varying about the nominal charge.
+     *
+     * @param cntParticles  number of particles
+     *
+     * @return              new ensemble of the particles
+     */
+    private Ensemble createEnsemble(int cntParticles) {
+        Random      rnd = new Random(LNG_SEED);
+        Ensemble    ens = new Ensemble();
+
+        for (int n=0; n<cntParticles; n++) {
+            PhaseVector     vecPhs = new PhaseVector();
+
+            for (int i=0; i<6; i+=2) {
+                double  dblPos = 1.0e-3*(rnd.nextGaussian() + 0.1*(i + 1));
+                double  dblMom = 0.5*dblPos + 1.0e-3*rnd.nextGaussian();
+
+                vecPhs.setElem(i, dblPos);
+                vecPhs.setElem(i + 1, dblMom);
+            }
+
+            double  dblChrg = DBL_CHARGE*(1.0 + 0.5*rnd.nextDouble());
+
+            ens.add( new Particle(dblChrg, DBL_MASS, vecPhs) );
+        }
+
+        return ens;
+    }
+
+    /**
+     * Creates a coupled transfer map with a translation.
+     *
+     * @return  homogeneous transfer matrix
+     */
+    private PhaseMatrix createTransferMap() {
+        Random          rnd    = new Random(LNG_SEED + 1);
+        PhaseMatrix     matPhi = PhaseMatrix.identity();
+
+        for (int i=0; i<6; i++) {
+            for (int j=0; j<6; j++)
+                matPhi.setElem(i, j, (i == j ? 1.0 : 0.0) + 0.2*rnd.nextGaussian());
+
+            matPhi.setElem(i, 6, 1.0e-4*rnd.nextGaussian());
+        }
+
+        return matPhi;
+    }
+}
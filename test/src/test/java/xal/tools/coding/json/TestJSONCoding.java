@@ -307,6 +307,47 @@ public class TestJSONCoding {
         Assert.assertTrue( shared_0 != other );         // verify that different instances that are equal prior to encoding do not share the same instance after regeneration
     }
 
+
+    @Test
+    public void testPrimitiveArrayCoding() {
+        checkEncodingEquality( "{\"__XALITEMTYPE\" : \"double\", \"array\" : [4.78, -17.6, 5.4E23, 8.719E-32]}", new double[] { 4.78, -17.6, 5.4E23, 8.719E-32 } );
+        checkEncodingEquality( "{\"__XALITEMTYPE\" : \"long\", \"array\" : [-9223372036854775808, 0, 9223372036854775807]}", new long[] { Long.MIN_VALUE, 0L, Long.MAX_VALUE } );
+
+        checkArrayEncodingDecoding( new long[] { Long.MIN_VALUE, -17L, 0L, 3268249075299837591L, Long.MAX_VALUE } );
+        checkArrayEncodingDecoding( new float[] { 56.4f, -3.5E-7f, 2.0E20f } );
+        checkArrayEncodingDecoding( new short[] { 7456, -300 } );
+        checkArrayEncodingDecoding( new byte[] { 89, -2, 127 } );
+        checkArrayEncodingDecoding( new double[] {} );
+
+        final double[] decodedArray = (double[])JSONCoder.defaultDecode( "{ \"__XALITEMTYPE\" : \"double\" , \"array\" : [ 1 , 2.5,-3e2 ] }" );
+        Assert.assertArrayEquals( new double[] { 1.0, 2.5, -300.0 }, decodedArray, 0.0 );
+    }
+
+
+    @Test
+    public void testStreamCoding() throws java.io.IOException {
+        final double[] waveform = new double[20000];
+        for ( int index = 0 ; index < waveform.length ; index++ ) {
+            waveform[index] = Math.sin( 0.01 * index ) * Math.exp( -1.0e-4 * index );
+        }
+
+        final Map<String,Object> testMap = new HashMap<String,Object>();
+        testMap.put( "name", "BPM \"waveform\"" );
+        testMap.put( "waveform", waveform );
+
+        final java.io.StringWriter writer = new java.io.StringWriter();
+        JSONCoder.getInstance().encode( testMap, writer );
+        final String json = writer.toString();
+        assertEquality( JSONCoder.defaultEncode( testMap ), json );     // streamed output matches the string encoding
+
+        final Map<?,?> readerMap = (Map<?,?>)JSONCoder.getInstance().decode( new java.io.StringReader( json ) );
+        assertEquality( testMap.get( "name" ), readerMap.get( "name" ) );
+        Assert.assertArrayEquals( waveform, (double[])readerMap.get( "waveform" ), 0.0 );
+
+        final Map<?,?> bufferMap = (Map<?,?>)JSONCoder.getInstance().decode( java.nio.ByteBuffer.wrap( json.getBytes( java.nio.charset.StandardCharsets.UTF_8 ) ) );
+        Assert.assertArrayEquals( waveform, (double[])bufferMap.get( "waveform" ), 0.0 );
+    }
+
     
     /** check whether the coder can encode values */
     static private <DataType> void checkEncodingEquality( final DataType value ) {
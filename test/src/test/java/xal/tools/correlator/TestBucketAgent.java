@@ -0,0 +1,199 @@
+/*
+ * TestBucketAgent.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.tools.correlator;
+
+import java.util.*;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import xal.tools.messaging.MessageCenter;
+
+
+/**
+ * Test the posting of complete, partial and timed out slots by the bucket agent of a correlator in bucketed mode.
+ */
+public class TestBucketAgent {
+	/** number of slots in the ring */
+	final static private int SLOT_COUNT = 16;
+
+	/** number of sources */
+	final static private int SOURCE_COUNT = 3;
+
+	/** slot timeout long enough that the timer never expires a slot during a test which does not expect it */
+	final static private double LONG_TIMEOUT = 1000.0;
+
+	/** time in milliseconds to wait for the timer before failing */
+	final static private long TIMER_WAIT = 5000;
+
+	/** message center through which the agent posts its correlations */
+	private MessageCenter _localCenter;
+
+	/** correlations posted by the agent */
+	private List<Correlation<Long>> _correlations;
+
+	/** listener collecting the correlations */
+	private BinListener<Long> _binListener;
+
+	/** agent under test */
+	private BucketAgent<Long> _bucketAgent;
+
+
+	/** create the message center and the listener */
+	@Before
+	public void setUp() {
+		_localCenter = new MessageCenter( "Bucket Agent Test" );
+		_correlations = Collections.synchronizedList( new ArrayList<Correlation<Long>>() );
+		_binListener = new BinListener<Long>() {
+			public void newCorrelation( final BinAgent<Long> sender, final Correlation<Long> correlation ) {
+				_correlations.add( correlation );
+			}
+
+			public void willReset( final BinAgent<Long> sender ) {}
+		};
+	}
+
+
+	/** shutdown the agent */
+	@After
+	public void tearDown() {
+		if ( _bucketAgent != null )  _bucketAgent.shutdown();
+	}
+
+
+	/** A slot holding a record from every source must be posted immediately and once only */
+	@Test
+	public void testCompleteSlot() {
+		createAgent( CorrelationFilterFactory.<Long>defaultFilter(), LONG_TIMEOUT );
+
+		postRecord( "A", 5 );
+		postRecord( "B", 5 );
+		Assert.assertTrue( _correlations.isEmpty() );
+
+		postRecord( "C", 5 );
+		Assert.assertEquals( 1, _correlations.size() );
+		final Correlation<Long> correlation = _correlations.get( 0 );
+		Assert.assertEquals( SOURCE_COUNT, correlation.numRecords() );
+		Assert.assertEquals( new HashSet<>( Arrays.asList( "A", "B", "C" ) ), new HashSet<>( correlation.names() ) );
+		Assert.assertEquals( 5L, correlation.getRecord( "B" ).longValue() );
+
+		// records arriving after the slot was posted are dropped
+		postRecord( "A", 5 );
+		Assert.assertEquals( 1, _correlations.size() );
+
+		// a duplicate record from a source does not complete a slot
+		postRecord( "A", 6 );
+		postRecord( "A", 6 );
+		postRecord( "B", 6 );
+		Assert.assertEquals( 1, _correlations.size() );
+		postRecord( "C", 6 );
+		Assert.assertEquals( 2, _correlations.size() );
+	}
+
+
+	/** An incomplete slot whose ring position is needed by a newer key must be posted if it passes the filter */
+	@Test
+	public void testPartialSlot() {
+		createAgent( CorrelationFilterFactory.<Long>minCountFilter( 2 ), LONG_TIMEOUT );
+
+		postRecord( "A", 1 );
+		postRecord( "B", 1 );
+		postRecord( "A", 2 );
+		Assert.assertTrue( _correlations.isEmpty() );
+
+		// the keys one ring later evict the slots of keys 1 and 2
+		postRecord( "C", 1 + SLOT_COUNT );
+		Assert.assertEquals( 1, _correlations.size() );
+		Assert.assertEquals( new HashSet<>( Arrays.asList( "A", "B" ) ), new HashSet<>( _correlations.get( 0 ).names() ) );
+
+		// the slot of key 2 has a single record so fails the filter
+		postRecord( "C", 2 + SLOT_COUNT );
+		Assert.assertEquals( 1, _correlations.size() );
+
+		// records for the evicted keys are too late
+		postRecord( "C", 1 );
+		postRecord( "B", 2 );
+		Assert.assertEquals( 1, _correlations.size() );
+	}
+
+
+	/** An incomplete slot must expire once a record arrives whose timestamp is later than the slot's earliest by more than the timeout */
+	@Test
+	public void testTimestampExpiry() {
+		createAgent( CorrelationFilterFactory.<Long>minCountFilter( 2 ), LONG_TIMEOUT );
+
+		_bucketAgent.newEvent( "A", 3L, 100.0 );
+		_bucketAgent.newEvent( "B", 3L, 100.1 );
+		_bucketAgent.newEvent( "A", 4L, 99.9 + LONG_TIMEOUT );
+		Assert.assertTrue( _correlations.isEmpty() );
+
+		_bucketAgent.newEvent( "B", 4L, 100.2 + LONG_TIMEOUT );
+		Assert.assertEquals( 1, _correlations.size() );
+		Assert.assertEquals( 3L, _correlations.get( 0 ).getRecord( "A" ).longValue() );
+		Assert.assertEquals( 2, _correlations.get( 0 ).numRecords() );
+	}
+
+
+	/** An incomplete slot must expire by the wall clock even when no more records arrive */
+	@Test
+	public void testTimedOutSlot() throws InterruptedException {
+		createAgent( CorrelationFilterFactory.<Long>minCountFilter( 2 ), LONG_TIMEOUT );
+
+		postRecord( "A", 7 );
+		postRecord( "B", 7 );
+		postRecord( "C", 8 );
+
+		// not stale yet
+		_bucketAgent.expireStaleSlots( System.currentTimeMillis() );
+		Assert.assertTrue( _correlations.isEmpty() );
+
+		// stale relative to a time beyond the timeout, but only the slot with enough records is posted
+		_bucketAgent.expireStaleSlots( System.currentTimeMillis() + 1000 * (long)LONG_TIMEOUT + 1 );
+		Assert.assertEquals( 1, _correlations.size() );
+		Assert.assertEquals( 7L, _correlations.get( 0 ).getRecord( "A" ).longValue() );
+
+		// the timer expires slots with a short timeout without any further records
+		_bucketAgent.setSlotTimeout( 0.05 );
+		postRecord( "A", 9 );
+		postRecord( "C", 9 );
+
+		final long start = System.currentTimeMillis();
+		while ( _correlations.size() < 2 && System.currentTimeMillis() - start < TIMER_WAIT ) {
+			Thread.sleep( 10 );
+		}
+		Assert.assertEquals( 2, _correlations.size() );
+		Assert.assertEquals( new HashSet<>( Arrays.asList( "A", "C" ) ), new HashSet<>( _correlations.get( 1 ).names() ) );
+
+		// the expired slot is closed
+		postRecord( "B", 9 );
+		Thread.sleep( 200 );
+		Assert.assertEquals( 2, _correlations.size() );
+	}
+
+
+	/** create the agent keyed by the records (pulse IDs) with the specified filter and slot timeout */
+	private void createAgent( final CorrelationFilter<Long> filter, final double timeout ) {
+		final CorrelationTester<Long> tester = new CorrelationTester<Long>( SOURCE_COUNT, filter );
+		final BucketKey<Long> pulseKey = new BucketKey<Long>() {
+			public long getKey( final Long record, final double timestamp ) {
+				return record;
+			}
+		};
+
+		_bucketAgent = new BucketAgent<Long>( _localCenter, tester, SLOT_COUNT, pulseKey, 1.0, SOURCE_COUNT );
+		_bucketAgent.setSlotTimeout( timeout );
+		_localCenter.registerTarget( _binListener, _bucketAgent, BinListener.class );
+	}
+
+
+	/** post the record for the pulse from the named source timestamped now */
+	private void postRecord( final String name, final long pulseID ) {
+		_bucketAgent.newEvent( name, pulseID, System.currentTimeMillis() / 1000.0 );
+	}
+}
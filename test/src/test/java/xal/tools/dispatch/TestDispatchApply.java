@@ -0,0 +1,203 @@
+/*
+ * TestDispatchApply.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.tools.dispatch;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Test the chunked dispatchApply of the concurrent queues and the reductions of both serial and concurrent queues.
+ */
+public class TestDispatchApply {
+	/** concurrent queue under test */
+	private DispatchQueue _concurrentQueue;
+
+	/** serial queue under test */
+	private DispatchQueue _serialQueue;
+
+
+	/** create the queues */
+	@Before
+	public void setUp() {
+		_concurrentQueue = DispatchQueue.createConcurrentQueue( "apply test concurrent" );
+		_serialQueue = DispatchQueue.createSerialQueue( "apply test serial" );
+	}
+
+
+	/** dispose the queues */
+	@After
+	public void tearDown() {
+		_concurrentQueue.dispose();
+		_serialQueue.dispose();
+	}
+
+
+	/** Every iteration must be evaluated exactly once whatever the number of iterations relative to the chunking */
+	@Test
+	public void testEveryIterationOnce() {
+		for ( final int iterations : new int[] { 0, 1, 7, 1000, 100003 } ) {
+			final AtomicIntegerArray counts = new AtomicIntegerArray( iterations );
+			_concurrentQueue.dispatchApply( iterations, iteration -> counts.incrementAndGet( iteration ) );
+
+			for ( int iteration = 0 ; iteration < iterations ; iteration++ ) {
+				Assert.assertEquals( "iteration " + iteration + " of " + iterations, 1, counts.get( iteration ) );
+			}
+		}
+	}
+
+
+	/** The reduction must give the same sum on serial and concurrent queues */
+	@Test
+	public void testSumReduction() {
+		final int iterations = 200001;
+		final long expectedSum = (long)iterations * ( iterations - 1 ) / 2;
+
+		Assert.assertEquals( expectedSum, _concurrentQueue.dispatchApply( iterations, new SumKernel() ).longValue() );
+		Assert.assertEquals( expectedSum, _serialQueue.dispatchApply( iterations, new SumKernel() ).longValue() );
+		Assert.assertEquals( 0L, _concurrentQueue.dispatchApply( 0, new SumKernel() ).longValue() );
+	}
+
+
+	/** The accumulators must be combined in iteration order so non-commutative reductions are deterministic */
+	@Test
+	public void testOrderedReduction() {
+		final int iterations = 50000;
+		final DispatchReductionKernel<List<Integer>> kernel = new DispatchReductionKernel<List<Integer>>() {
+			public List<Integer> createAccumulator() {
+				return new ArrayList<Integer>();
+			}
+
+			public List<Integer> accumulate( final List<Integer> accumulator, final int iteration ) {
+				accumulator.add( iteration );
+				return accumulator;
+			}
+
+			public List<Integer> combine( final List<Integer> leftAccumulator, final List<Integer> rightAccumulator ) {
+				leftAccumulator.addAll( rightAccumulator );
+				return leftAccumulator;
+			}
+		};
+
+		for ( final DispatchQueue queue : new DispatchQueue[] { _concurrentQueue, _serialQueue } ) {
+			final List<Integer> result = queue.dispatchApply( iterations, kernel );
+			Assert.assertEquals( iterations, result.size() );
+			for ( int iteration = 0 ; iteration < iterations ; iteration++ ) {
+				Assert.assertEquals( iteration, result.get( iteration ).intValue() );
+			}
+		}
+	}
+
+
+	/** An exception thrown by the kernel must be rethrown to the caller of dispatchApply */
+	@Test
+	public void testKernelExceptionPropagates() {
+		for ( final DispatchQueue queue : new DispatchQueue[] { _concurrentQueue, _serialQueue } ) {
+			try {
+				queue.dispatchApply( 10000, new SumKernel() {
+					public Long accumulate( final Long accumulator, final int iteration ) {
+						if ( iteration == 7777 )  throw new IllegalStateException( "bad iteration" );
+						return super.accumulate( accumulator, iteration );
+					}
+				});
+				Assert.fail( "The kernel exception was not propagated" );
+			}
+			catch ( IllegalStateException exception ) {
+				Assert.assertEquals( "bad iteration", exception.getMessage() );
+			}
+		}
+
+		// the queue must still be usable after the failure
+		Assert.assertEquals( 45L, _concurrentQueue.dispatchApply( 10, new SumKernel() ).longValue() );
+	}
+
+
+	/** Every iteration must run despite failed iterations and the exception of the lowest failed iteration must be rethrown */
+	@Test
+	public void testIterationKernelExceptionAfterAllIterations() {
+		final int iterations = 10000;
+		for ( final DispatchQueue queue : new DispatchQueue[] { _concurrentQueue, _serialQueue } ) {
+			final AtomicIntegerArray counts = new AtomicIntegerArray( iterations );
+			try {
+				queue.dispatchApply( iterations, iteration -> {
+					counts.incrementAndGet( iteration );
+					if ( iteration == 7777 || iteration == 3 )  throw new IllegalStateException( "bad iteration " + iteration );
+				});
+				Assert.fail( "The kernel exception was not propagated" );
+			}
+			catch ( IllegalStateException exception ) {
+				Assert.assertEquals( "bad iteration 3", exception.getMessage() );
+			}
+
+			for ( int iteration = 0 ; iteration < iterations ; iteration++ ) {
+				Assert.assertEquals( "iteration " + iteration, 1, counts.get( iteration ) );
+			}
+		}
+	}
+
+
+	/** The apply is a single operation of the concurrent queue, so it must wait for a preceding barrier */
+	@Test
+	public void testApplyWaitsForBarrier() {
+		final AtomicBoolean barrierDone = new AtomicBoolean( false );
+		_concurrentQueue.dispatchBarrierAsync( () -> {
+			try {
+				Thread.sleep( 200 );
+			}
+			catch ( InterruptedException exception ) {
+				Thread.currentThread().interrupt();
+			}
+			barrierDone.set( true );
+		});
+
+		final AtomicInteger earlyCount = new AtomicInteger( 0 );
+		_concurrentQueue.dispatchApply( 1000, iteration -> {
+			if ( !barrierDone.get() )  earlyCount.incrementAndGet();
+		});
+
+		Assert.assertEquals( 0, earlyCount.get() );
+	}
+
+
+	/** An apply nested in the kernel of another apply must complete without starving the pool */
+	@Test
+	public void testNestedApply() {
+		final int outerIterations = 64;
+		final int innerIterations = 1000;
+		final long innerSum = (long)innerIterations * ( innerIterations - 1 ) / 2;
+
+		final long total = _concurrentQueue.dispatchApply( outerIterations, new SumKernel() {
+			public Long accumulate( final Long accumulator, final int iteration ) {
+				return accumulator + _concurrentQueue.dispatchApply( innerIterations, new SumKernel() );
+			}
+		});
+
+		Assert.assertEquals( outerIterations * innerSum, total );
+	}
+
+
+
+	/** kernel summing the iteration indices */
+	static private class SumKernel implements DispatchReductionKernel<Long> {
+		public Long createAccumulator() {
+			return 0L;
+		}
+
+		public Long accumulate( final Long accumulator, final int iteration ) {
+			return accumulator + iteration;
+		}
+
+		public Long combine( final Long leftAccumulator, final Long rightAccumulator ) {
+			return leftAccumulator + rightAccumulator;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * TestFastFourierTransform.java
+ *
+ * Since   : Oct 18, 2026
+ */
+package xal.tools.dsp;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import xal.tools.math.Complex;
+import xal.tools.math.DiscreteFourierTransform;
+
+/**
+ * JUnit test cases for class <code>xal.tools.dsp.FastFourierTransform</code>.
+ *
+ * @since  Oct 18, 2026
+ */
+@RunWith(JUnit4.class)
+public class TestFastFourierTransform {
+
+    /** sizes covering the radix-2, mixed-radix and Bluestein transforms */
+    private static final int[]  ARR_SIZES = { 1, 2, 3, 7, 12, 16, 30, 37, 60, 64, 74, 97, 128, 210, 1000, 1021 };
+
+
+    /**
+     * The forward transform of complex data must agree with the direct evaluation of the
+     * DFT sum and the inverse must recover <i>N</i> times the data.
+     */
+    @Test
+    public void testTransform() {
+        Random  rnd = new Random(18);
+
+        for (int N : ARR_SIZES) {
+            double[]    arrRe = new double[N];
+            double[]    arrIm = new double[N];
+
+            for (int n=0; n<N; n++) {
+                arrRe[n] = rnd.nextGaussian();
+                arrIm[n] = rnd.nextGaussian();
+            }
+
+            double[][]  arrDft = dft(arrRe, arrIm);
+
+            double[]    arrFftRe = arrRe.clone();
+            double[]    arrFftIm = arrIm.clone();
+            FastFourierTransform    fft = FastFourierTransform.getInstance(N);
+
+            fft.transform(arrFftRe, arrFftIm);
+            for (int k=0; k<N; k++) {
+                Assert.assertEquals( fft.toString(), arrDft[0][k], arrFftRe[k], 1.0e-10*N );
+                Assert.assertEquals( fft.toString(), arrDft[1][k], arrFftIm[k], 1.0e-10*N );
+            }
+
+            fft.inverse(arrFftRe, arrFftIm);
+            for (int n=0; n<N; n++) {
+                Assert.assertEquals( fft.toString(), arrRe[n], arrFftRe[n]/N, 1.0e-12 );
+                Assert.assertEquals( fft.toString(), arrIm[n], arrFftIm[n]/N, 1.0e-12 );
+            }
+        }
+
+        Assert.assertTrue( FastFourierTransform.getInstance(37).isBluestein() );
+        Assert.assertFalse( FastFourierTransform.getInstance(210).isBluestein() );
+        Assert.assertSame( FastFourierTransform.getInstance(1000), FastFourierTransform.getInstance(1000) );
+    }
+
+    /**
+     * The transform of real data must be the full (Hermitian) spectrum of the complex
+     * transform, also when the data array is the array of real parts.
+     */
+    @Test
+    public void testTransformReal() {
+        Random  rnd = new Random(18);
+
+        for (int N : ARR_SIZES) {
+            double[]    arrFunc = new double[N];
+
+            for (int n=0; n<N; n++)
+                arrFunc[n] = rnd.nextGaussian();
+
+            double[][]  arrDft = dft(arrFunc, new double[N]);
+
+            double[]    arrRe = arrFunc.clone();
+            double[]    arrIm = new double[N];
+
+            FastFourierTransform.getInstance(N).transformReal(arrRe, arrRe, arrIm);
+            for (int k=0; k<N; k++) {
+                Assert.assertEquals( arrDft[0][k], arrRe[k], 1.0e-10*N );
+                Assert.assertEquals( arrDft[1][k], arrIm[k], 1.0e-10*N );
+            }
+        }
+    }
+
+    /**
+     * The discrete Fourier transform class now delegating to the FFT must find the
+     * frequency of a sampled cosine.
+     */
+    @Test
+    public void testDiscreteFourierTransform() {
+        int         N = 1000;
+        double[]    arrVals = new double[N];
+
+        for (int n=0; n<N; n++)
+            arrVals[n] = 3.0*Math.cos(2.0*Math.PI*50*n/N + 0.25);
+
+        DiscreteFourierTransform    dft = new DiscreteFourierTransform(arrVals, 2.0);
+        Complex[]                   arrSpec = dft.getSpectrum();
+
+        Assert.assertEquals( N, dft.getSpectrumCount() );
+        Assert.assertEquals( 1.5*Math.cos(0.25), arrSpec[50].real(), 1.0e-12 );
+        Assert.assertEquals( -1.5*Math.sin(0.25), arrSpec[50].imaginary(), 1.0e-12 );
+        Assert.assertEquals( 0.0, arrSpec[49].modulus(), 1.0e-12 );
+        Assert.assertEquals( 25.0, dft.getFrequency(50), 1.0e-12 );
+    }
+
+
+    /**
+     * Direct evaluation of the DFT sum.
+     *
+     * @param arrRe     real parts of the data
+     * @param arrIm     imaginary parts of the data
+     *
+     * @return          the real and imaginary parts of the transform
+     */
+    private static double[][] dft(double[] arrRe, double[] arrIm) {
+        int         N = arrRe.length;
+        double[][]  arrDft = new double[2][N];
+
+        for (int k=0; k<N; k++)
+            for (int n=0; n<N; n++) {
+                double  ang = -2.0*Math.PI*( ((long)k*n) % N )/N;
+                double  c = Math.cos(ang);
+                double  s = Math.sin(ang);
+
+                arrDft[0][k] += arrRe[n]*c - arrIm[n]*s;
+                arrDft[1][k] += arrRe[n]*s + arrIm[n]*c;
+            }
+
+        return arrDft;
+    }
+}
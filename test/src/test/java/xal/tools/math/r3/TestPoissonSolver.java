@@ -0,0 +1,141 @@
+/**
+ * TestPoissonSolver.java
+ *
+ * Since   : Oct 18, 2026
+ */
+package xal.tools.math.r3;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import xal.tools.beam.IConstants;
+import xal.tools.beam.PhaseVector;
+import xal.tools.beam.ens.ColumnarEnsemble;
+import xal.tools.beam.ens.Ensemble;
+import xal.tools.beam.ens.Particle;
+
+/**
+ * JUnit test cases for class <code>xal.tools.math.r3.PoissonSolver</code>.
+ *
+ * @since  Oct 18, 2026
+ */
+@RunWith(JUnit4.class)
+public class TestPoissonSolver {
+
+    /**
+     * The multigrid solution for the source 3&pi;<sup>2</sup> sin&pi;x sin&pi;y sin&pi;z
+     * on the unit cube must converge quickly to the analytic potential.
+     *
+     * @throws GridException    unable to create the grid
+     */
+    @Test
+    public void testSolveMultigrid() throws GridException {
+        int             N    = 33;
+        PoissonSolver   grid = new PoissonSolver(N, N, N, 0.0, 1.0, 0.0, 1.0, 0.0, 1.0);
+        double          h    = 1.0/(N - 1);
+
+        for (int i=0; i<N; i++)
+            for (int j=0; j<N; j++)
+                for (int k=0; k<N; k++)
+                    grid.setPtSource(i, j, k, 3.0*Math.PI*Math.PI*exact(i*h, j*h, k*h));
+
+        double  dblErr = grid.solveMultigrid(50, 1.0e-8);
+
+        Assert.assertTrue( dblErr <= 1.0e-8 );
+        Assert.assertTrue( grid.getSolutionIterations() < 20 );
+
+        double  dblMaxErr = 0.0;
+        for (int i=0; i<N; i++)
+            for (int j=0; j<N; j++)
+                for (int k=0; k<N; k++)
+                    dblMaxErr = Math.max(dblMaxErr, Math.abs(grid.getPtPotential(i, j, k) - exact(i*h, j*h, k*h)));
+
+        Assert.assertEquals( 0.0, dblMaxErr, 2.0e-3 );
+        Assert.assertEquals( exact(0.3, 0.4, 0.5), grid.potential(new R3(0.3, 0.4, 0.5)), 5.0e-3 );
+    }
+
+    /**
+     * The open boundary potential of a single charge on a grid point must be the
+     * Coulomb potential.
+     *
+     * @throws GridException    unable to create the grid
+     */
+    @Test
+    public void testSolveOpenBoundary() throws GridException {
+        int             N    = 33;
+        PoissonSolver   grid = new PoissonSolver(N, N, N, -1.0, 1.0, -1.0, 1.0, -1.0, 1.0);
+        double          h    = 2.0/(N - 1);
+        double          q    = 1.0e-12;
+
+        Ensemble        ens  = new Ensemble();
+        ens.add( new Particle(q, IConstants.ProtonMass, new PhaseVector(0.0, 0.0, 0.0, 0.0, 0.0, 0.0)) );
+
+        Assert.assertEquals( 0, grid.depositCharge(ens) );
+        grid.solveOpenBoundary();
+
+        int     c = (N - 1)/2;
+        double  dblFac = q/(4.0*Math.PI*IConstants.Permittivity);
+
+        Assert.assertEquals( dblFac/(10*h), grid.getPtPotential(c + 10, c, c), 1.0e-9*dblFac );
+        Assert.assertEquals( dblFac/(5*h*Math.sqrt(3.0)), grid.getPtPotential(c - 5, c + 5, c - 5), 1.0e-9*dblFac );
+        Assert.assertEquals( dblFac/(16*h*Math.sqrt(3.0)), grid.getPtPotential(0, 0, 0), 1.0e-9*dblFac );
+
+        // The interpolated field is the difference quotient of the grid potential
+        R3      vecFld = grid.fieldCartesian(new R3(8.5*h, 0.0, 0.0));
+        Assert.assertEquals( dblFac/(8*h*9*h), vecFld.get1(), 1.0e-9*dblFac );
+    }
+
+    /**
+     * Depositing a columnar ensemble in parallel must conserve the charge and agree
+     * with the deposition of the equivalent ensemble.
+     *
+     * @throws GridException    unable to create the grid
+     */
+    @Test
+    public void testDepositCharge() throws GridException {
+        Random      rnd = new Random(18);
+        Ensemble    ens = new Ensemble();
+
+        for (int n=0; n<100000; n++)
+            ens.add( new Particle(1.0e-15, IConstants.ProtonMass,
+                    new PhaseVector(0.2*rnd.nextGaussian(), 0.0, 0.2*rnd.nextGaussian(), 0.0, 0.3*rnd.nextGaussian(), 0.0)) );
+
+        ColumnarEnsemble    ensCol = new ColumnarEnsemble(ens);
+
+        int             N    = 17;
+        PoissonSolver   grid = new PoissonSolver(N, N, N, -1.0, 1.0, -1.0, 1.0, -1.0, 1.0);
+        PoissonSolver   gridCol = new PoissonSolver(N, N, N, -1.0, 1.0, -1.0, 1.0, -1.0, 1.0);
+
+        int     cntOut = grid.depositCharge(ens);
+
+        Assert.assertEquals( cntOut, gridCol.depositCharge(ensCol) );
+
+        double  h = 2.0/(N - 1);
+        double  dblChg = 0.0;
+        for (int i=0; i<N; i++)
+            for (int j=0; j<N; j++)
+                for (int k=0; k<N; k++) {
+                    dblChg += grid.getPtSource(i, j, k)*h*h*h*IConstants.Permittivity;
+
+                    Assert.assertEquals( grid.getPtSource(i, j, k), gridCol.getPtSource(i, j, k), 1.0e-9*Math.abs(grid.getPtSource(i, j, k)) + 1.0e-12 );
+                }
+
+        Assert.assertEquals( (100000 - cntOut)*1.0e-15, dblChg, 1.0e-9*dblChg );
+    }
+
+
+    /**
+     * Analytic potential of the multigrid test.
+     *
+     * @param x, y, z   coordinates of the point
+     *
+     * @return          sin&pi;x sin&pi;y sin&pi;z
+     */
+    private static double exact(double x, double y, double z) {
+        return Math.sin(Math.PI*x)*Math.sin(Math.PI*y)*Math.sin(Math.PI*z);
+    }
+}
@@ -198,6 +198,25 @@ public class TestR3x3 {
 
     }
     
+    @Test
+    public void testInPlaceOperations() {
+        R3x3    matRes = new R3x3();
+        
+        MAT_X.timesInto(MAT_Z, matRes);
+        Assert.assertTrue( matRes.isApproxEqual( MAT_X.times(MAT_Z) ) );
+        
+        MAT_X.timesInto(MAT_Z, MAT_S, matRes);
+        Assert.assertTrue( matRes.isApproxEqual( MAT_X.times( MAT_Z.times(MAT_S) ) ) );
+        
+        MAT_S.conjugateTransInto(MAT_X, matRes);
+        Assert.assertTrue( matRes.isApproxEqual( MAT_X.times( MAT_S.times( MAT_X.transpose() ) ) ) );
+        
+        R3x3    matCnj = MAT_S.copy();
+        
+        matCnj.conjugateTransEquals(MAT_X);
+        Assert.assertTrue( matCnj.isApproxEqual( matRes ) );
+    }
+    
     @Test
     public void testEigenValueDecomposition() throws IllegalArgumentException, InstantiationException {
         R3x3                            matT = MAT_S;
@@ -0,0 +1,180 @@
+/*
+ * TestAsynchronousMessaging.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.tools.messaging;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Test the delivery of asynchronous messages through the message center's thread pool:
+ * ordering per source, back pressure on busy sources and posting from delivery threads.
+ */
+public class TestAsynchronousMessaging {
+	/** time to wait for deliveries before failing */
+	static final private long TIMEOUT_SECONDS = 30;
+
+
+	/** protocol of the test messages */
+	public interface ValueListener {
+		/**
+		 * Receive a value
+		 * @param source the source which posted the value
+		 * @param value the value posted
+		 */
+		public void valuePosted( Object source, int value );
+	}
+
+
+	/** Messages from each source must be delivered in the order posted even though sources are delivered concurrently */
+	@Test
+	public void testOrderingPerSource() throws InterruptedException {
+		final MessageCenter center = new MessageCenter( "OrderingTest", 4 );
+		final int sourceCount = 4;
+		final int messageCount = 5000;
+
+		final Map<Object,List<Integer>> received = new ConcurrentHashMap<>();
+		final CountDownLatch doneLatch = new CountDownLatch( sourceCount * messageCount );
+		final ValueListener target = ( source, value ) -> {
+			received.get( source ).add( value );		// only one thread delivers a given source at a time
+			doneLatch.countDown();
+		};
+
+		final List<ValueListener> proxies = new ArrayList<>();
+		for ( int index = 0 ; index < sourceCount ; index++ ) {
+			final Object source = "Source-" + index;
+			received.put( source, Collections.synchronizedList( new ArrayList<Integer>() ) );
+			center.registerTarget( target, source, ValueListener.class );
+			proxies.add( center.registerSource( source, ValueListener.class, MessageCenter.ASYNCHRONOUS ) );
+		}
+
+		// post from one thread per source
+		final List<Thread> posters = new ArrayList<>();
+		for ( int index = 0 ; index < sourceCount ; index++ ) {
+			final Object source = "Source-" + index;
+			final ValueListener proxy = proxies.get( index );
+			final Thread poster = new Thread( () -> {
+				for ( int value = 0 ; value < messageCount ; value++ ) {
+					proxy.valuePosted( source, value );
+				}
+			} );
+			posters.add( poster );
+			poster.start();
+		}
+		for ( final Thread poster : posters ) {
+			poster.join();
+		}
+
+		Assert.assertTrue( "Timed out waiting for the messages", doneLatch.await( TIMEOUT_SECONDS, TimeUnit.SECONDS ) );
+
+		for ( final List<Integer> values : received.values() ) {
+			Assert.assertEquals( messageCount, values.size() );
+			for ( int value = 0 ; value < messageCount ; value++ ) {
+				Assert.assertEquals( value, values.get( value ).intValue() );
+			}
+		}
+
+		Assert.assertEquals( 0, center.getPendingMessageCount() );
+		Assert.assertEquals( sourceCount * messageCount, center.getDispatchedMessageCount() );
+		Assert.assertTrue( center.getMaxDispatchLatency() >= center.getMeanDispatchLatency() );
+	}
+
+
+	/** Posting must wait once the source has the maximum number of undelivered messages and resume as they are delivered */
+	@Test
+	public void testBackPressure() throws InterruptedException {
+		final MessageCenter center = new MessageCenter( "BackPressureTest", 2 );
+		final int maxPending = 5;
+		final int messageCount = 20;
+		final Object source = "Source";
+
+		center.setMaxPendingMessagesPerSource( maxPending );
+
+		final CountDownLatch releaseLatch = new CountDownLatch( 1 );
+		final CountDownLatch firstLatch = new CountDownLatch( 1 );
+		final List<Integer> received = Collections.synchronizedList( new ArrayList<Integer>() );
+		final ValueListener target = ( theSource, value ) -> {
+			firstLatch.countDown();
+			try {
+				releaseLatch.await();
+			}
+			catch ( InterruptedException exception ) {
+				Thread.currentThread().interrupt();
+			}
+			received.add( value );
+		};
+
+		center.registerTarget( target, source, ValueListener.class );
+		final ValueListener proxy = center.registerSource( source, ValueListener.class, MessageCenter.ASYNCHRONOUS );
+
+		final AtomicInteger postedCount = new AtomicInteger( 0 );
+		final Thread poster = new Thread( () -> {
+			for ( int value = 0 ; value < messageCount ; value++ ) {
+				proxy.valuePosted( source, value );
+				postedCount.incrementAndGet();
+			}
+		} );
+		poster.start();
+
+		// the first message blocks in delivery holding its permit, so the poster stops after the maximum
+		Assert.assertTrue( firstLatch.await( TIMEOUT_SECONDS, TimeUnit.SECONDS ) );
+		final long waitStart = System.currentTimeMillis();
+		while ( poster.getState() != Thread.State.WAITING && System.currentTimeMillis() - waitStart < 1000 * TIMEOUT_SECONDS ) {
+			Thread.sleep( 10 );
+		}
+		Assert.assertEquals( Thread.State.WAITING, poster.getState() );
+		Assert.assertEquals( maxPending, postedCount.get() );
+		Assert.assertEquals( maxPending - 1, center.getPendingMessageCount() );
+
+		releaseLatch.countDown();
+		poster.join( 1000 * TIMEOUT_SECONDS );
+		Assert.assertFalse( poster.isAlive() );
+
+		final long deliveryStart = System.currentTimeMillis();
+		while ( received.size() < messageCount && System.currentTimeMillis() - deliveryStart < 1000 * TIMEOUT_SECONDS ) {
+			Thread.sleep( 10 );
+		}
+		Assert.assertEquals( messageCount, received.size() );
+		for ( int value = 0 ; value < messageCount ; value++ ) {
+			Assert.assertEquals( value, received.get( value ).intValue() );
+		}
+	}
+
+
+	/** Posting from a delivery thread must never wait even when the source is at its limit, otherwise delivery deadlocks */
+	@Test
+	public void testPostFromDeliveryThread() throws InterruptedException {
+		final MessageCenter center = new MessageCenter( "RepostTest", 1 );
+		final int messageCount = 100;
+		final Object source = "Source";
+
+		center.setMaxPendingMessagesPerSource( 1 );
+
+		final List<Integer> received = Collections.synchronizedList( new ArrayList<Integer>() );
+		final CountDownLatch doneLatch = new CountDownLatch( messageCount );
+		final AtomicReference<ValueListener> proxyRef = new AtomicReference<>();
+		final ValueListener target = ( theSource, value ) -> {
+			received.add( value );
+			// repost the next value while this message still holds the source's only permit
+			if ( value + 1 < messageCount )  proxyRef.get().valuePosted( theSource, value + 1 );
+			doneLatch.countDown();
+		};
+
+		center.registerTarget( target, source, ValueListener.class );
+		proxyRef.set( center.registerSource( source, ValueListener.class, MessageCenter.ASYNCHRONOUS ) );
+		proxyRef.get().valuePosted( source, 0 );
+
+		Assert.assertTrue( "Delivery deadlocked", doneLatch.await( TIMEOUT_SECONDS, TimeUnit.SECONDS ) );
+		for ( int value = 0 ; value < messageCount ; value++ ) {
+			Assert.assertEquals( value, received.get( value ).intValue() );
+		}
+	}
+}
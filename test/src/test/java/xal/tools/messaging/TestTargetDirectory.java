@@ -0,0 +1,223 @@
+/*
+ * TestTargetDirectory.java
+ *
+ * Created on Oct 18, 2026
+ */
+
+package xal.tools.messaging;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Test the registration, removal and lookup of targets in the copy on write target directory and the merging of
+ * the anonymous targets with the targets of a source when messages are posted.
+ */
+public class TestTargetDirectory {
+	/** time to wait for the concurrent registrations before failing */
+	static final private long TIMEOUT_SECONDS = 30;
+
+
+	/** protocol of the test messages */
+	public interface ValueListener {
+		/**
+		 * Receive a value
+		 * @param source the source which posted the value
+		 * @param value the value posted
+		 */
+		public void valuePosted( Object source, int value );
+	}
+
+
+	/** protocol other than the test protocol */
+	public interface OtherListener {
+		/** Receive a notice */
+		public void noticePosted();
+	}
+
+
+	/** Targets are found for their source and protocol only and removal leaves the other targets */
+	@Test
+	public void testRegisterAndRemove() {
+		final TargetDirectory directory = new TargetDirectory();
+		final Object source = "Source";
+		final ValueListener first = ( postSource, value ) -> {};
+		final ValueListener second = ( postSource, value ) -> {};
+
+		directory.registerTarget( first, source, ValueListener.class );
+		directory.registerTarget( second, source, ValueListener.class );
+
+		Assert.assertArrayEquals( new Object[] { first, second }, directory.targetArray( source, ValueListener.class ) );
+		Assert.assertEquals( new HashSet<Object>( Arrays.asList( first, second ) ), directory.targets( source, ValueListener.class ) );
+		Assert.assertEquals( 0, directory.targetArray( "Other Source", ValueListener.class ).length );
+		Assert.assertEquals( 0, directory.targetArray( null, ValueListener.class ).length );
+		Assert.assertEquals( 0, directory.targetArray( source, OtherListener.class ).length );
+
+		directory.removeTarget( first, source, ValueListener.class );
+		Assert.assertArrayEquals( new Object[] { second }, directory.targetArray( source, ValueListener.class ) );
+
+		// removing a target which is not registered changes nothing
+		directory.removeTarget( first, source, ValueListener.class );
+		directory.removeTarget( second, "Other Source", ValueListener.class );
+		directory.removeTarget( second, source, OtherListener.class );
+		Assert.assertArrayEquals( new Object[] { second }, directory.targetArray( source, ValueListener.class ) );
+	}
+
+
+	/** Registering the same target twice for a source and protocol keeps a single entry */
+	@Test
+	public void testDuplicateRegistration() {
+		final TargetDirectory directory = new TargetDirectory();
+		final Object source = "Source";
+		final ValueListener target = ( postSource, value ) -> {};
+
+		directory.registerTarget( target, source, ValueListener.class );
+		final Object[] targets = directory.targetArray( source, ValueListener.class );
+		directory.registerTarget( target, source, ValueListener.class );
+
+		Assert.assertArrayEquals( new Object[] { target }, directory.targetArray( source, ValueListener.class ) );
+		Assert.assertSame( targets, directory.targetArray( source, ValueListener.class ) );
+
+		// a single removal clears the target
+		directory.removeTarget( target, source, ValueListener.class );
+		Assert.assertEquals( 0, directory.targetArray( source, ValueListener.class ).length );
+	}
+
+
+	/** Lookups after removal see no targets and arrays handed out earlier are unchanged */
+	@Test
+	public void testLookupAfterRemoval() {
+		final TargetDirectory directory = new TargetDirectory();
+		final Object source = "Source";
+		final ValueListener first = ( postSource, value ) -> {};
+		final ValueListener second = ( postSource, value ) -> {};
+
+		directory.registerTarget( first, source, ValueListener.class );
+		directory.registerTarget( second, source, ValueListener.class );
+		directory.registerTarget( first, null, ValueListener.class );
+
+		final Object[] snapshot = directory.targetArray( source, ValueListener.class );
+
+		directory.removeTargetFromAllSources( first, ValueListener.class );
+		Assert.assertArrayEquals( new Object[] { second }, directory.targetArray( source, ValueListener.class ) );
+		Assert.assertEquals( 0, directory.targetArray( null, ValueListener.class ).length );
+
+		directory.removeTarget( second, source, ValueListener.class );
+		Assert.assertEquals( 0, directory.targetArray( source, ValueListener.class ).length );
+		Assert.assertTrue( directory.targets( source, ValueListener.class ).isEmpty() );
+
+		// the copy on write arrays are never modified in place
+		Assert.assertArrayEquals( new Object[] { first, second }, snapshot );
+
+		// the target can be registered again after removal
+		directory.registerTarget( first, source, ValueListener.class );
+		Assert.assertArrayEquals( new Object[] { first }, directory.targetArray( source, ValueListener.class ) );
+	}
+
+
+	/** Messages from a source reach its own targets and the anonymous targets, each exactly once */
+	@Test
+	public void testAnonymousTargetMerge() {
+		final MessageCenter center = new MessageCenter( "MergeTest" );
+		final Object source = "Source";
+		final Map<String,List<Integer>> received = new ConcurrentHashMap<String,List<Integer>>();
+
+		final ValueListener direct = makeRecorder( "direct", received );
+		final ValueListener anonymous = makeRecorder( "anonymous", received );
+		final ValueListener both = makeRecorder( "both", received );
+
+		center.registerTarget( direct, source, ValueListener.class );
+		center.registerTarget( anonymous, ValueListener.class );
+		center.registerTarget( both, source, ValueListener.class );
+		center.registerTarget( both, ValueListener.class );
+
+		final ValueListener sourceProxy = center.registerSource( source, ValueListener.class );
+		sourceProxy.valuePosted( source, 1 );
+
+		Assert.assertEquals( Arrays.asList( 1 ), received.get( "direct" ) );
+		Assert.assertEquals( Arrays.asList( 1 ), received.get( "anonymous" ) );
+		Assert.assertEquals( Arrays.asList( 1 ), received.get( "both" ) );
+
+		// messages from another source only reach the anonymous targets
+		final Object otherSource = "Other Source";
+		final ValueListener otherProxy = center.registerSource( otherSource, ValueListener.class );
+		otherProxy.valuePosted( otherSource, 2 );
+
+		Assert.assertEquals( Arrays.asList( 1 ), received.get( "direct" ) );
+		Assert.assertEquals( Arrays.asList( 1, 2 ), received.get( "anonymous" ) );
+		Assert.assertEquals( Arrays.asList( 1, 2 ), received.get( "both" ) );
+
+		// without any anonymous targets only the source's own targets are messaged
+		center.removeTarget( anonymous, ValueListener.class );
+		center.removeTarget( both, ValueListener.class );
+		sourceProxy.valuePosted( source, 3 );
+		otherProxy.valuePosted( otherSource, 4 );
+
+		Assert.assertEquals( Arrays.asList( 1, 3 ), received.get( "direct" ) );
+		Assert.assertEquals( Arrays.asList( 1, 2 ), received.get( "anonymous" ) );
+		Assert.assertEquals( Arrays.asList( 1, 2, 3 ), received.get( "both" ) );
+	}
+
+
+	/** Concurrent registration and removal from many threads leaves exactly the targets which were not removed */
+	@Test
+	public void testConcurrentRegistration() throws Exception {
+		final TargetDirectory directory = new TargetDirectory();
+		final Object source = "Source";
+		final int threadCount = 8;
+		final int targetCount = 200;
+
+		final ExecutorService executor = Executors.newFixedThreadPool( threadCount );
+		try {
+			final List<Future<List<ValueListener>>> futures = new ArrayList<Future<List<ValueListener>>>();
+			for ( int thread = 0 ; thread < threadCount ; thread++ ) {
+				futures.add( executor.submit( () -> {
+					final List<ValueListener> kept = new ArrayList<ValueListener>();
+					for ( int index = 0 ; index < targetCount ; index++ ) {
+						final ValueListener target = new ValueListener() {		// a lambda without captures would be a single shared instance
+							public void valuePosted( final Object postSource, final int value ) {}
+						};
+						directory.registerTarget( target, source, ValueListener.class );
+						if ( index % 2 == 0 ) {
+							directory.removeTarget( target, source, ValueListener.class );
+						}
+						else {
+							kept.add( target );
+						}
+						directory.targetArray( source, ValueListener.class );		// lookups proceed during the updates
+					}
+					return kept;
+				} ) );
+			}
+
+			final Set<Object> expected = new HashSet<Object>();
+			for ( final Future<List<ValueListener>> future : futures ) {
+				expected.addAll( future.get( TIMEOUT_SECONDS, TimeUnit.SECONDS ) );
+			}
+
+			final Object[] targets = directory.targetArray( source, ValueListener.class );
+			Assert.assertEquals( threadCount * targetCount / 2, targets.length );
+			Assert.assertEquals( expected, new HashSet<Object>( Arrays.asList( targets ) ) );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+
+	/**
+	 * Make a target which records the values it receives under the specified name.
+	 * @param name name under which to record the values
+	 * @param received map of recorded values keyed by name
+	 * @return the new target
+	 */
+	static private ValueListener makeRecorder( final String name, final Map<String,List<Integer>> received ) {
+		final List<Integer> values = Collections.synchronizedList( new ArrayList<Integer>() );
+		received.put( name, values );
+		return ( source, value ) -> values.add( value );
+	}
+}
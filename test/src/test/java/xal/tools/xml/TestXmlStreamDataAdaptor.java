@@ -0,0 +1,100 @@
+//
+//  TestXmlStreamDataAdaptor.java
+//  xal
+//
+
+package xal.tools.xml;
+
+import xal.tools.data.*;
+import xal.test.ResourceManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.net.URL;
+
+import org.junit.*;
+
+
+/** test the streaming XML data adaptor against the DOM based XML data adaptor */
+public class TestXmlStreamDataAdaptor {
+    @Test
+    public void testFileReading() {
+        final URL documentURL = ResourceManager.getResourceURL( TestXMLDataAdaptor.class, "SampleData.xml" );
+
+        final DataAdaptor documentAdaptor = XmlStreamDataAdaptor.adaptorForUrl( documentURL );
+        final DataAdaptor bookAdaptor = documentAdaptor.childAdaptor( "book" );
+
+        // read escaped characters
+        final DataAdaptor peopleAdaptor = bookAdaptor.childAdaptor( "people" );
+        Assert.assertEquals( "\"This & that\"", peopleAdaptor.stringValue( "comment" ) );
+
+        // read array
+        final double[] vec = peopleAdaptor.doubleArray( "vec" );
+        Assert.assertArrayEquals( new double[] { 1.2, -12.477, 7.9 }, vec, 0.0 );
+
+        // read primitive types
+        final List<DataAdaptor> personAdaptors = peopleAdaptor.childAdaptors( "person" );
+        Assert.assertEquals( "Albert", personAdaptors.get( 0 ).stringValue( "firstName" ) );
+        Assert.assertEquals( 1879, personAdaptors.get( 0 ).intValue( "birthYear" ) );
+        Assert.assertEquals( "Fermi", personAdaptors.get( 1 ).stringValue( "lastName" ) );
+        Assert.assertEquals( 1901, personAdaptors.get( 1 ).intValue( "birthYear" ) );
+
+        Assert.assertNull( peopleAdaptor.stringValue( "missing" ) );
+        Assert.assertFalse( peopleAdaptor.hasAttribute( "missing" ) );
+    }
+
+
+    @Test
+    public void testSameAsDocumentModel() {
+        final URL documentURL = ResourceManager.getResourceURL( "/config/test.xdxf" );
+
+        final DataAdaptor domAdaptor = XmlDataAdaptor.adaptorForUrl( documentURL, false );
+        final DataAdaptor streamAdaptor = XmlStreamDataAdaptor.adaptorForUrl( documentURL );
+        assertSameTree( domAdaptor, streamAdaptor );
+    }
+
+
+    @Test
+    public void testAttributeAccessors() {
+        final XmlStreamDataAdaptor documentAdaptor = XmlStreamDataAdaptor.adaptorForString( "<model><point x=\"2.1\" y=\"\" n=\"7\"/><point/></model>" );
+        final DataAdaptor pointAdaptor = documentAdaptor.childAdaptor( "model" ).childAdaptor( "point" );
+
+        Assert.assertEquals( 2.1, pointAdaptor.doubleValue( "x" ), 0.0 );
+        Assert.assertTrue( Double.isNaN( pointAdaptor.doubleValue( "y" ) ) );
+        Assert.assertEquals( 7L, pointAdaptor.longValue( "n" ) );
+        Assert.assertArrayEquals( new String[] { "n", "x", "y" }, pointAdaptor.attributes() );
+
+        pointAdaptor.setValue( "m", 3 );
+        pointAdaptor.setValue( "x", 4.5 );
+        Assert.assertArrayEquals( new String[] { "m", "n", "x", "y" }, pointAdaptor.attributes() );
+        Assert.assertEquals( 3, pointAdaptor.intValue( "m" ) );
+        Assert.assertEquals( 4.5, pointAdaptor.doubleValue( "x" ), 0.0 );
+
+        try {
+            pointAdaptor.doubleValue( "m2" );
+            Assert.fail( "A missing attribute should not have a numeric value." );
+        }
+        catch ( NullPointerException exception ) {}
+    }
+
+
+    /** assert that the adaptors have the same names, attributes and children */
+    static private void assertSameTree( final DataAdaptor expected, final DataAdaptor actual ) {
+        Assert.assertEquals( expected.name(), actual.name() );
+
+        if ( !expected.name().startsWith( "#" ) ) {
+            final String[] attributes = expected.attributes();
+            Assert.assertArrayEquals( attributes, actual.attributes() );
+            for ( final String attribute : attributes ) {
+                Assert.assertEquals( expected.stringValue( attribute ), actual.stringValue( attribute ) );
+            }
+        }
+
+        final List<DataAdaptor> expectedChildren = expected.childAdaptors();
+        final List<DataAdaptor> actualChildren = actual.childAdaptors();
+        Assert.assertEquals( expectedChildren.size(), actualChildren.size() );
+        for ( int index = 0 ; index < expectedChildren.size() ; index++ ) {
+            assertSameTree( expectedChildren.get( index ), actualChildren.get( index ) );
+        }
+    }
+}